@@ -69,6 +69,20 @@ public class SessionStatsManager implements Sampler {
 		currentSample.incrementAuthenticatedPollerCalls();
 	}
 	
+	/**
+	 * Count the rendering of the dirty components of an AJAX request.
+	 * 
+	 * @param components The number of components rendered
+	 * @param bytes The size of the HTML fragments
+	 * @param nanos The rendering time in nanoseconds
+	 */
+	public synchronized void incrementPartialRendering(int components, long bytes, long nanos) {
+		if(currentSample == null) {
+			currentSample = new SessionStatsSample(sessionManager.getNumberOfAuthenticatedUserSessions());
+		}
+		currentSample.incrementPartialRendering(components, bytes, nanos);
+	}
+	
 	public synchronized void incrementRequest() {
 		if(currentSample == null) {
 			currentSample = new SessionStatsSample(sessionManager.getNumberOfAuthenticatedUserSessions());
@@ -34,6 +34,10 @@ public class SessionStatsSample {
 	private long numOfSessions = 0l;
 	private long authenticatedClicks = 0l;
 	private long authenticatedPollerCalls = 0l;
+	private long partialRenderings = 0l;
+	private long partialRenderingComponents = 0l;
+	private long partialRenderingBytes = 0l;
+	private long partialRenderingNanos = 0l;
 	
 	public SessionStatsSample(long numOfSessions) {
 		timestamp = System.currentTimeMillis();
@@ -56,6 +60,28 @@ public class SessionStatsSample {
 		return authenticatedPollerCalls;
 	}
 
+	/**
+	 * @return The number of AJAX responses with updated components
+	 */
+	public long getPartialRenderings() {
+		return partialRenderings;
+	}
+
+	public long getPartialRenderingComponents() {
+		return partialRenderingComponents;
+	}
+
+	/**
+	 * @return The size of the HTML fragments sent in characters
+	 */
+	public long getPartialRenderingBytes() {
+		return partialRenderingBytes;
+	}
+
+	public long getPartialRenderingNanos() {
+		return partialRenderingNanos;
+	}
+
 	public long getNumOfSessions() {
 		return numOfSessions;
 	}
@@ -68,6 +94,13 @@ public class SessionStatsSample {
 		authenticatedPollerCalls++;
 	}
 	
+	public void incrementPartialRendering(int components, long bytes, long nanos) {
+		partialRenderings++;
+		partialRenderingComponents += components;
+		partialRenderingBytes += bytes;
+		partialRenderingNanos += nanos;
+	}
+
 	public void incrementRequest() {
 		requests++;
 	}
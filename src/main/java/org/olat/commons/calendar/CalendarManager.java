@@ -98,7 +98,7 @@ public interface CalendarManager {
 	public boolean calendarExists(String calendarType, String calendarID);
 	
 	/**
-	 * Save a calendar.
+	 * Save a calendar with all its events.
 	 * 
 	 * @param calendar
 	 */
@@ -370,6 +370,19 @@ public interface CalendarManager {
 	
 
 	public List<KalendarEvent> getEvents(Kalendar calendar, Date from, Date to, boolean privateEventsVisible);
+	
+	/**
+	 * Get the events of several calendars in the specified period. The events
+	 * of the calendars which are not already loaded are selected with one
+	 * query, without loading the whole calendars.
+	 * 
+	 * @param calendars The list of calendars
+	 * @param from The begin of the period
+	 * @param to The end of the period
+	 * @param privateEventsVisible If the private events are returned
+	 * @return The events and the occurrences of the recurring events in the period
+	 */
+	public List<KalendarEvent> getEvents(List<Kalendar> calendars, Date from, Date to, boolean privateEventsVisible);
 
 	/**
 	 * Get the recurring event
@@ -0,0 +1,207 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.calendar.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+
+import org.olat.commons.calendar.model.StoredCalendar;
+import org.olat.commons.calendar.model.StoredCalendarEvent;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.persistence.PersistenceHelper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class CalendarEventDAO {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	public StoredCalendar createCalendar(String type, String calendarId) {
+		StoredCalendar calendar = new StoredCalendar();
+		calendar.setCreationDate(new Date());
+		calendar.setLastModified(calendar.getCreationDate());
+		calendar.setType(type);
+		calendar.setCalendarId(calendarId);
+		dbInstance.getCurrentEntityManager().persist(calendar);
+		return calendar;
+	}
+	
+	public StoredCalendar getCalendar(String type, String calendarId) {
+		String query = "select cal from calstoredcalendar cal where cal.type=:type and cal.calendarId=:calendarId";
+		List<StoredCalendar> calendars = dbInstance.getCurrentEntityManager()
+				.createQuery(query, StoredCalendar.class)
+				.setParameter("type", type)
+				.setParameter("calendarId", calendarId)
+				.getResultList();
+		return calendars.isEmpty() ? null : calendars.get(0);
+	}
+	
+	/**
+	 * @param typeToCalendarIds The calendar ids grouped by type
+	 * @return The calendars saved in the database
+	 */
+	public List<StoredCalendar> getCalendars(Map<String,? extends Collection<String>> typeToCalendarIds) {
+		if(typeToCalendarIds == null || typeToCalendarIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		List<String> types = new ArrayList<>(typeToCalendarIds.keySet());
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select cal from calstoredcalendar cal where ");
+		for(int i=0; i<types.size(); i++) {
+			if(i > 0) {
+				sb.append(" or ");
+			}
+			sb.append("(cal.type=:type").append(i).append(" and cal.calendarId in (:calendarIds").append(i).append("))");
+		}
+		
+		TypedQuery<StoredCalendar> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), StoredCalendar.class);
+		for(int i=0; i<types.size(); i++) {
+			query.setParameter("type" + i, types.get(i));
+			query.setParameter("calendarIds" + i, typeToCalendarIds.get(types.get(i)));
+		}
+		return query.getResultList();
+	}
+	
+	/**
+	 * Update the last modification date of the calendar.
+	 * 
+	 * @param calendar The calendar
+	 * @return The merged calendar
+	 */
+	public StoredCalendar touchCalendar(StoredCalendar calendar) {
+		calendar.setLastModified(new Date());
+		return dbInstance.getCurrentEntityManager().merge(calendar);
+	}
+	
+	public int deleteCalendar(String type, String calendarId) {
+		StoredCalendar calendar = getCalendar(type, calendarId);
+		if(calendar == null) {
+			return 0;
+		}
+		
+		int rows = dbInstance.getCurrentEntityManager()
+				.createQuery("delete from calstoredevent ev where ev.calendar.key=:calendarKey")
+				.setParameter("calendarKey", calendar.getKey())
+				.executeUpdate();
+		dbInstance.getCurrentEntityManager().remove(calendar);
+		return rows + 1;
+	}
+	
+	public StoredCalendarEvent createEvent(StoredCalendar calendar, String uid, String recurrenceId) {
+		StoredCalendarEvent event = new StoredCalendarEvent();
+		event.setCreationDate(new Date());
+		event.setLastModified(event.getCreationDate());
+		event.setUid(uid);
+		event.setRecurrenceId(recurrenceId);
+		event.setCalendar(calendar);
+		return event;
+	}
+	
+	public StoredCalendarEvent persistEvent(StoredCalendarEvent event) {
+		if(event.getKey() == null) {
+			dbInstance.getCurrentEntityManager().persist(event);
+		} else {
+			event.setLastModified(new Date());
+			event = dbInstance.getCurrentEntityManager().merge(event);
+		}
+		return event;
+	}
+	
+	public void deleteEvent(StoredCalendarEvent event) {
+		StoredCalendarEvent reloadedEvent = dbInstance.getCurrentEntityManager()
+				.getReference(StoredCalendarEvent.class, event.getKey());
+		dbInstance.getCurrentEntityManager().remove(reloadedEvent);
+	}
+	
+	public List<StoredCalendarEvent> getEvents(StoredCalendar calendar) {
+		String query = "select ev from calstoredevent ev where ev.calendar.key=:calendarKey order by ev.key";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, StoredCalendarEvent.class)
+				.setParameter("calendarKey", calendar.getKey())
+				.getResultList();
+	}
+	
+	public List<StoredCalendarEvent> getEvents(StoredCalendar calendar, Collection<String> uids) {
+		if(uids == null || uids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		String query = "select ev from calstoredevent ev where ev.calendar.key=:calendarKey and ev.uid in (:uids)";
+		List<StoredCalendarEvent> events = new ArrayList<>(uids.size());
+		for(List<String> chunkOfUids:PersistenceHelper.collectionOfChunks(new ArrayList<>(uids))) {
+			events.addAll(dbInstance.getCurrentEntityManager()
+					.createQuery(query, StoredCalendarEvent.class)
+					.setParameter("calendarKey", calendar.getKey())
+					.setParameter("uids", chunkOfUids)
+					.getResultList());
+		}
+		return events;
+	}
+	
+	/**
+	 * The events of the calendars which are, or for the recurring ones
+	 * can be, in the specified period.
+	 * 
+	 * @param calendars The calendars
+	 * @param from The begin of the period
+	 * @param to The end of the period
+	 * @return A list of events
+	 */
+	public List<StoredCalendarEvent> getEvents(Collection<StoredCalendar> calendars, Date from, Date to) {
+		if(calendars == null || calendars.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select ev from calstoredevent ev")
+		  .append(" inner join fetch ev.calendar cal")
+		  .append(" where cal.key in (:calendarKeys)")
+		  .append(" and (ev.begin is null or ev.begin<=:to)")
+		  .append(" and (ev.end is null or ev.end>=:from)");
+		
+		List<Long> calendarKeys = new ArrayList<>(calendars.size());
+		for(StoredCalendar calendar:calendars) {
+			calendarKeys.add(calendar.getKey());
+		}
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), StoredCalendarEvent.class)
+				.setParameter("calendarKeys", calendarKeys)
+				.setParameter("from", from, TemporalType.TIMESTAMP)
+				.setParameter("to", to, TemporalType.TIMESTAMP)
+				.getResultList();
+	}
+}
@@ -35,21 +35,32 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.io.Writer;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.UUID;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.logging.log4j.Logger;
 import org.olat.basesecurity.IdentityRef;
@@ -64,6 +75,8 @@ import org.olat.commons.calendar.model.KalendarEvent;
 import org.olat.commons.calendar.model.KalendarEventKey;
 import org.olat.commons.calendar.model.KalendarEventLink;
 import org.olat.commons.calendar.model.KalendarRecurEvent;
+import org.olat.commons.calendar.model.StoredCalendar;
+import org.olat.commons.calendar.model.StoredCalendarEvent;
 import org.olat.commons.calendar.ui.components.KalendarRenderWrapper;
 import org.olat.commons.calendar.ui.events.CalendarGUIModifiedEvent;
 import org.olat.core.id.Identity;
@@ -84,7 +97,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import net.fortuna.ical4j.data.CalendarBuilder;
-import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.data.FoldingWriter;
 import net.fortuna.ical4j.model.Calendar;
 import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.DateTime;
@@ -125,6 +138,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 	private File fStorageBase;
 	// o_clusterOK by:cg 
 	private CacheWrapper<String, Kalendar> calendarCache;
+	private CacheWrapper<RecurrenceKey, long[]> recurrenceCache;
 
 	private static final Clazz ICAL_CLASS_PRIVATE = new Clazz("PRIVATE");
 	private static final Clazz ICAL_CLASS_PUBLIC = new Clazz("PUBLIC");
@@ -142,6 +156,8 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 	@Autowired
 	private CalendarModule calendarModule;
 	@Autowired
+	private CalendarEventDAO calendarEventDao;
+	@Autowired
 	private CalendarUserConfigurationDAO calendarUserConfigDao;
 
 	@Override
@@ -166,6 +182,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		// initialize timezone
 		tz = calendarModule.getDefaultTimeZone();
 		calendarCache = CoordinatorManager.getInstance().getCoordinator().getCacher().getCache(CalendarManager.class.getSimpleName(), "calendar");
+		recurrenceCache = CoordinatorManager.getInstance().getCoordinator().getCacher().getCache(CalendarManager.class.getSimpleName(), "recurrences");
 	}
 	
 	@Override
@@ -188,7 +205,8 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 	 */
 	@Override
 	public boolean calendarExists(String calendarType, String calendarID) {
-		return getCalendarFile(calendarType, calendarID).exists();
+		return getCalendarFile(calendarType, calendarID).exists()
+				|| calendarEventDao.getCalendar(calendarType, calendarID) != null;
 	}
 	
 	/**
@@ -244,14 +262,52 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		return createKalendar(type, calendarID, calendar);
 	}
 
+	/**
+	 * Load the calendar from the events saved in the database. The VEVENT
+	 * are concatenated and parsed in one pass, but only the first time
+	 * the events of the calendar are needed. The events in a period
+	 * are read with the range query, see getEvents.
+	 */
+	private Kalendar loadCalendarFromStore(StoredCalendar storedCalendar) {
+		return new Kalendar(storedCalendar.getCalendarId(), storedCalendar.getType(), () -> {
+			List<StoredCalendarEvent> storedEvents = calendarEventDao.getEvents(storedCalendar);
+			return getKalendarEvents(parseStoredEvents(storedEvents));
+		});
+	}
+	
+	private Calendar parseStoredEvents(List<StoredCalendarEvent> storedEvents) {
+		StringBuilder sb = new StringBuilder(512 + storedEvents.size() * 512);
+		sb.append("BEGIN:VCALENDAR\r\n")
+		  .append("PRODID:-//Ben Fortuna//iCal4j 1.0//EN\r\n")
+		  .append("VERSION:2.0\r\n")
+		  .append("CALSCALE:GREGORIAN\r\n");
+		for(StoredCalendarEvent storedEvent:storedEvents) {
+			sb.append(storedEvent.getVevent());
+		}
+		sb.append("END:VCALENDAR\r\n");
+		
+		try(StringReader reader = new StringReader(sb.toString())) {
+			return new CalendarBuilder().build(reader);
+		} catch (Exception e) {
+			throw new OLATRuntimeException("Error parsing the events of the calendar", e);
+		}
+	}
+
 	protected Kalendar createKalendar(String type, String calendarID, Calendar calendar) {
 		Kalendar cal = new Kalendar(calendarID, type);
+		for(KalendarEvent calEvent:getKalendarEvents(calendar)) {
+			cal.addEvent(calEvent);
+		}
+		return cal;
+	}
+	
+	private List<KalendarEvent> getKalendarEvents(Calendar calendar) {
+		List<KalendarEvent> events = new ArrayList<>();
 		for (Iterator<?> iter = calendar.getComponents().iterator(); iter.hasNext();) {
 			Object comp = iter.next();
 			if (comp instanceof VEvent) {
 				VEvent vevent = (VEvent)comp;
-				KalendarEvent calEvent = getKalendarEvent(vevent);
-				cal.addEvent(calEvent);
+				events.add(getKalendarEvent(vevent));
 			} else if (comp instanceof VTimeZone) {
 				log.info("createKalendar: VTimeZone Component is not supported and will not be added to calender");
 				log.debug("createKalendar: VTimeZone={}", comp);
@@ -259,7 +315,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 				log.warn("createKalendar: unknown Component={}", comp);
 			}
 		}
-		return cal;
+		return events;
 	}
 
 	/**
@@ -272,7 +328,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 			log.debug("readCalendar from file, type={} calendarID={}", type, calendarID);
 		}
 		
-		File calendarFile = getCalendarFile(type, calendarID);
+		File calendarFile = getCalendarExportFile(type, calendarID);
 		return readCalendar(calendarFile);
 	}
 	
@@ -361,31 +417,131 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 	}
 
 	/**
-	 * Save a calendar.
+	 * Save a calendar, all its events are saved and the events which
+	 * are not in the calendar anymore are deleted.
 	 * This method is not thread-safe. Must be called from a synchronized block.
 	 * Be sure to have the newest calendar (reload calendar in synchronized block before safe it).
 	 * @param calendar
 	 */
-	// o_clusterOK by:cg only called by Junit-test  
 	@Override
 	public boolean persistCalendar(Kalendar kalendar) {
-		Calendar calendar = buildCalendar(kalendar);
-		boolean success = writeCalendarFile(calendar, kalendar.getType(), kalendar.getCalendarID());
+		StoredCalendar storedCalendar = calendarEventDao.getCalendar(kalendar.getType(), kalendar.getCalendarID());
+		if(storedCalendar == null) {
+			storedCalendar = calendarEventDao.createCalendar(kalendar.getType(), kalendar.getCalendarID());
+		}
+		
+		Map<KalendarEventKey,StoredCalendarEvent> storedEvents = toMap(calendarEventDao.getEvents(storedCalendar));
+		for(KalendarEvent kEvent:kalendar.getEvents()) {
+			StoredCalendarEvent storedEvent = storedEvents.remove(new KalendarEventKey(kEvent));
+			saveEvent(storedCalendar, storedEvent, kEvent);
+		}
+		for(StoredCalendarEvent storedEvent:storedEvents.values()) {
+			calendarEventDao.deleteEvent(storedEvent);
+		}
+		calendarEventDao.touchCalendar(storedCalendar);
 		calendarCache.update(getKeyFor(kalendar.getType(), kalendar.getCalendarID()), kalendar);
-		return success;
+		return true;
 	}
 	
-	private boolean writeCalendarFile(Calendar calendar, String calType, String calId) {
-		File fKalendarFile = getCalendarFile(calType, calId);
-
-		try(OutputStream os = new BufferedOutputStream(new FileOutputStream(fKalendarFile, false))) {
-			CalendarOutputter calOut = new CalendarOutputter(false);
-			calOut.output(calendar, os);
-		} catch (Exception e) {
-			return false;
+	/**
+	 * Save only the specified events of the calendar. An event which is
+	 * not in the calendar anymore is deleted. The first time, the whole calendar
+	 * is saved in the database (which migrates the calendars saved as file).<br>
+	 * This method is not thread-safe. Must be called from a synchronized block.
+	 * 
+	 * @param kalendar The calendar with the changes
+	 * @param eventKeys The keys of the added, updated or removed events
+	 * @return true if successful
+	 */
+	private boolean persistEvents(Kalendar kalendar, Collection<KalendarEventKey> eventKeys) {
+		StoredCalendar storedCalendar = calendarEventDao.getCalendar(kalendar.getType(), kalendar.getCalendarID());
+		if(storedCalendar == null) {
+			return persistCalendar(kalendar);
+		}
+		
+		Set<String> uids = new LinkedHashSet<>();
+		for(KalendarEventKey eventKey:eventKeys) {
+			uids.add(eventKey.getEventId());
+		}
+		Map<KalendarEventKey,StoredCalendarEvent> storedEvents = toMap(calendarEventDao.getEvents(storedCalendar, uids));
+		for(KalendarEventKey eventKey:new LinkedHashSet<>(eventKeys)) {
+			KalendarEvent kEvent = kalendar.getEvent(eventKey.getEventId(), eventKey.getRecurrenceId());
+			StoredCalendarEvent storedEvent = storedEvents.remove(eventKey);
+			if(kEvent != null) {
+				saveEvent(storedCalendar, storedEvent, kEvent);
+			} else if(storedEvent != null) {
+				calendarEventDao.deleteEvent(storedEvent);
+			}
 		}
+		calendarEventDao.touchCalendar(storedCalendar);
+		calendarCache.update(getKeyFor(kalendar.getType(), kalendar.getCalendarID()), kalendar);
 		return true;
 	}
+	
+	private Map<KalendarEventKey,StoredCalendarEvent> toMap(List<StoredCalendarEvent> storedEvents) {
+		Map<KalendarEventKey,StoredCalendarEvent> map = new HashMap<>();
+		for(StoredCalendarEvent storedEvent:storedEvents) {
+			map.put(new KalendarEventKey(storedEvent.getUid(), storedEvent.getRecurrenceId()), storedEvent);
+		}
+		return map;
+	}
+	
+	/**
+	 * Save the event. The begin and the end saved in the database are only
+	 * used to select the events of a period and include all the dates
+	 * the event can appear in: its occurrences if it's a recurring event, its
+	 * recurrence date if it's an exception.
+	 */
+	private void saveEvent(StoredCalendar storedCalendar, StoredCalendarEvent storedEvent, KalendarEvent kEvent) {
+		if(storedEvent == null) {
+			storedEvent = calendarEventDao.createEvent(storedCalendar, kEvent.getID(), kEvent.getRecurrenceID());
+		}
+		
+		VEvent vEvent = getVEvent(kEvent);
+		boolean recurring = StringHelper.containsNonWhitespace(kEvent.getRecurrenceRule());
+		storedEvent.setVevent(vEvent.toString());
+		storedEvent.setRecurring(recurring);
+		storedEvent.setClassification(kEvent.getClassification());
+
+		Date begin = kEvent.getBegin();
+		Date end;
+		if(recurring) {
+			Date recurrenceEnd = getRecurrenceEndDate(kEvent.getRecurrenceRule());
+			end = recurrenceEnd == null ? null : addDays(recurrenceEnd, 2);
+		} else {
+			end = CalendarUtils.endOf(kEvent);
+			if(end == null) {
+				end = begin;
+			}
+		}
+		if(begin != null && end != null && end.before(begin)) {
+			Date swap = begin;
+			begin = end;
+			end = swap;
+		}
+		
+		RecurrenceId recurrenceId = vEvent.getRecurrenceId();
+		if(recurrenceId != null && recurrenceId.getDate() != null) {
+			Date recurrenceDate = recurrenceId.getDate();
+			if(begin == null || recurrenceDate.before(begin)) {
+				begin = recurrenceDate;
+			}
+			if(end != null && recurrenceDate.after(end)) {
+				end = recurrenceDate;
+			}
+		}
+		// the database can truncate the milliseconds
+		storedEvent.setBegin(begin == null ? null : new Date(begin.getTime() - 1000l));
+		storedEvent.setEnd(end == null ? null : new Date(end.getTime() + 1000l));
+		calendarEventDao.persistEvent(storedEvent);
+	}
+	
+	private static Date addDays(Date date, int days) {
+		java.util.Calendar cal = java.util.Calendar.getInstance();
+		cal.setTime(date);
+		cal.add(java.util.Calendar.DATE, days);
+		return cal.getTime();
+	}
 
 	/**
 	 * Delete calendar by type and id.
@@ -393,13 +549,57 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 	@Override
 	public boolean deleteCalendar(String type, String calendarID) {
 		calendarCache.remove( getKeyFor(type,calendarID) );
+		boolean deleted = calendarEventDao.deleteCalendar(type, calendarID) > 0;
 		File fKalendarFile = getCalendarFile(type, calendarID);
-		return fKalendarFile.delete();
+		return fKalendarFile.delete() || deleted;
+	}
+	
+	/**
+	 * The calendar file is written again from the events saved
+	 * in the database if it's older than the last change of the calendar.
+	 * 
+	 * @param type The calendar type
+	 * @param calendarID The calendar id
+	 * @return The ICS file of the calendar (which may not exist)
+	 */
+	private File getCalendarExportFile(String type, String calendarID) {
+		File calendarFile = getCalendarFile(type, calendarID);
+		StoredCalendar storedCalendar = calendarEventDao.getCalendar(type, calendarID);
+		if(storedCalendar != null && (!calendarFile.exists()
+				|| calendarFile.lastModified() < storedCalendar.getLastModified().getTime() + 1000l)) {
+			writeCalendarFile(calendarEventDao.getEvents(storedCalendar), calendarFile);
+		}
+		return calendarFile;
+	}
+	
+	private void writeCalendarFile(List<StoredCalendarEvent> storedEvents, File calendarFile) {
+		File tmpFile = new File(calendarFile.getParentFile(), calendarFile.getName() + "." + UUID.randomUUID() + ".tmp");
+		try(Writer writer = new FoldingWriter(new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(tmpFile)), StandardCharsets.UTF_8))) {
+			writer.write("BEGIN:VCALENDAR\r\n");
+			writer.write("PRODID:-//Ben Fortuna//iCal4j 1.0//EN\r\n");
+			writer.write("VERSION:2.0\r\n");
+			writer.write("CALSCALE:GREGORIAN\r\n");
+			for(StoredCalendarEvent storedEvent:storedEvents) {
+				writer.write(storedEvent.getVevent());
+			}
+			writer.write("END:VCALENDAR\r\n");
+		} catch (IOException e) {
+			log.error("Cannot write calendar file: {}", calendarFile, e);
+			FileUtils.deleteQuietly(tmpFile);
+			return;
+		}
+		
+		try {
+			Files.move(tmpFile.toPath(), calendarFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.error("Cannot move calendar file: {}", calendarFile, e);
+			FileUtils.deleteQuietly(tmpFile);
+		}
 	}
 
 	@Override
 	public File getCalendarICalFile(String type, String calendarID) {
-		File fCalendarICalFile = getCalendarFile(type, calendarID);
+		File fCalendarICalFile = getCalendarExportFile(type, calendarID);
 		if (fCalendarICalFile.exists()) return fCalendarICalFile;
 		else return null;
 	}
@@ -1022,11 +1222,13 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		OLATResourceable calOres = getOresHelperFor(cal);
 		Boolean persistSuccessful = CoordinatorManager.getInstance().getCoordinator().getSyncer().doInSync( calOres, () -> {
 			Kalendar loadedCal = getCalendarFromCache(cal.getType(),cal.getCalendarID());
+			List<KalendarEventKey> eventKeys = new ArrayList<>(kalendarEvents.size());
 			for(KalendarEvent kalendarEvent:kalendarEvents) {
 				loadedCal.addEvent(kalendarEvent);
 				kalendarEvent.resetImmutableDates();
+				eventKeys.add(new KalendarEventKey(kalendarEvent));
 			}
-			boolean successfullyPersist = persistCalendar(loadedCal);
+			boolean successfullyPersist = persistEvents(loadedCal, eventKeys);
 			return Boolean.valueOf(successfullyPersist);
 		});
 		// inform all controller about calendar change for reload
@@ -1039,25 +1241,29 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		OLATResourceable calOres = getOresHelperFor(cal);
 		Boolean removeSuccessful = CoordinatorManager.getInstance().getCoordinator().getSyncer().doInSync( calOres, () -> {
 			Kalendar loadedCal = getCalendarFromCache(cal.getType(), cal.getCalendarID());
+			List<KalendarEventKey> eventKeys = new ArrayList<>();
 			for(KalendarEvent kalendarEvent:kalendarEvents) {
 				String uid = kalendarEvent.getID();
 				String recurrenceId = kalendarEvent.getRecurrenceID();
 				if(StringHelper.containsNonWhitespace(recurrenceId)) {
 					loadedCal.removeEvent(kalendarEvent);
+					eventKeys.add(new KalendarEventKey(kalendarEvent));
 					KalendarEvent rootEvent = loadedCal.getEvent(kalendarEvent.getID(), null);
 					if(rootEvent != null && kalendarEvent instanceof KalendarRecurEvent) {
 						Date recurrenceDate = ((KalendarRecurEvent)kalendarEvent).getOccurenceDate();
 						rootEvent.addRecurrenceExc(recurrenceDate);
+						eventKeys.add(new KalendarEventKey(rootEvent));
 					}
 				} else {
 					for(KalendarEvent kEvent:loadedCal.getEvents()) {
 						if(uid.equals(kEvent.getID())) {
 							loadedCal.removeEvent(kEvent);
+							eventKeys.add(new KalendarEventKey(kEvent));
 						}
 					}
 				}
 			}
-			boolean successfullyPersist = persistCalendar(loadedCal);
+			boolean successfullyPersist = persistEvents(loadedCal, eventKeys);
 			return Boolean.valueOf(successfullyPersist);
 		});
 		// inform all controller about calendar change for reload
@@ -1080,15 +1286,18 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 			Kalendar loadedCal = getCalendarFromCache(cal.getType(), cal.getCalendarID());
 			KalendarEvent rootEvent = loadedCal.getEvent(kalendarEvent.getID(), null);
 			rootEvent.addRecurrenceExc(kalendarEvent.getBegin());
+			List<KalendarEventKey> eventKeys = new ArrayList<>();
+			eventKeys.add(new KalendarEventKey(rootEvent));
 			
 			for(KalendarEvent kEvent:loadedCal.getEvents()) {
 				if(uid.equals(kEvent.getID())
 						&& kEvent.getOccurenceDate() != null
 						&& occurenceDate.equals(kEvent.getOccurenceDate())) {
 					loadedCal.removeEvent(kEvent);
+					eventKeys.add(new KalendarEventKey(kEvent));
 				}
 			}
-			boolean successfullyPersist = persistCalendar(loadedCal);
+			boolean successfullyPersist = persistEvents(loadedCal, eventKeys);
 			return Boolean.valueOf(successfullyPersist);
 		});
 		// inform all controller about calendar change for reload
@@ -1114,16 +1323,19 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 				recur.setUntil(CalendarUtils.createDate(occurenceDate));
 				RRule rrule = new RRule(recur);
 				rootEvent.setRecurrenceRule(rrule.getValue());
+				List<KalendarEventKey> eventKeys = new ArrayList<>();
+				eventKeys.add(new KalendarEventKey(rootEvent));
 				
 				for(KalendarEvent kEvent:loadedCal.getEvents()) {
 					if(uid.equals(kEvent.getID())
 							&& StringHelper.containsNonWhitespace(kEvent.getRecurrenceID())
 							&& occurenceDate.before(kEvent.getBegin())) {
 						loadedCal.removeEvent(kEvent);
+						eventKeys.add(new KalendarEventKey(kEvent));
 					}
 				}
 				
-				successfullyPersist = persistCalendar(loadedCal);
+				successfullyPersist = persistEvents(loadedCal, eventKeys);
 			} catch (ParseException e) {
 				log.error("", e);
 			}
@@ -1146,11 +1358,13 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		final OLATResourceable calOres = getOresHelperFor(cal);
 		Boolean updatedSuccessful = CoordinatorManager.getInstance().getCoordinator().getSyncer().doInSync( calOres, () -> {
 			Kalendar loadedCal = getCalendarFromCache(cal.getType(), cal.getCalendarID());
+			List<KalendarEventKey> eventKeys = new ArrayList<>(kalendarEvents.size());
 			for(KalendarEvent kalendarEvent:kalendarEvents) {
 				loadedCal.removeEvent(kalendarEvent); // remove old event
 				loadedCal.addEvent(kalendarEvent); // add changed event
+				eventKeys.add(new KalendarEventKey(kalendarEvent));
 			}
-			boolean successfullyPersist = persistCalendar(loadedCal);
+			boolean successfullyPersist = persistEvents(loadedCal, eventKeys);
 			// inform all controller about calendar change for reload
 			CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(new CalendarGUIModifiedEvent(cal), OresHelper.lookupType(CalendarManager.class));
 			return successfullyPersist;
@@ -1166,6 +1380,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		OLATResourceable calOres = getOresHelperFor(cal);
 		CoordinatorManager.getInstance().getCoordinator().getSyncer().assertAlreadyDoInSyncFor(calOres);
 		Kalendar reloadedCal = getCalendarFromCache(cal.getType(), cal.getCalendarID());
+		List<KalendarEventKey> eventKeys = new ArrayList<>();
 		
 		if(StringHelper.containsNonWhitespace(kalendarEvent.getRecurrenceRule())) {
 			Date oldBegin = kalendarEvent.getImmutableBegin();
@@ -1198,6 +1413,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 				for(KalendarEvent exEvent:exEvents) {
 					try {
 						reloadedCal.removeEvent(exEvent);
+						eventKeys.add(new KalendarEventKey(exEvent));
 						String recurrenceId = exEvent.getRecurrenceID();
 						
 						RecurrenceId recurId = new RecurrenceId(recurrenceId, tz);
@@ -1222,6 +1438,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 						}
 						exEvent.setRecurrenceID(newRecurId.getValue());
 						reloadedCal.addEvent(exEvent);
+						eventKeys.add(new KalendarEventKey(exEvent));
 					} catch (ParseException e) {
 						log.error("", e);
 					}
@@ -1232,8 +1449,9 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		reloadedCal.removeEvent(kalendarEvent); // remove old event
 		kalendarEvent.resetImmutableDates();
 		reloadedCal.addEvent(kalendarEvent); // add changed event
+		eventKeys.add(new KalendarEventKey(kalendarEvent));
 
-		boolean successfullyPersist = persistCalendar(reloadedCal);
+		boolean successfullyPersist = persistEvents(reloadedCal, eventKeys);
 		// inform all controller about calendar change for reload
 		CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(new CalendarGUIModifiedEvent(cal), OresHelper.lookupType(CalendarManager.class));
 		return successfullyPersist;
@@ -1251,6 +1469,7 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 			}
 			
 			Kalendar loadedCal = getCalendarFromCache(cal.getType(), cal.getCalendarID());
+			List<KalendarEventKey> eventKeys = new ArrayList<>();
 			for(KalendarEvent importedEvent:importedCal.getEvents()) {
 				KalendarEventKey uid = new KalendarEventKey(importedEvent);
 				if(uidToEvent.containsKey(uid)) {
@@ -1259,9 +1478,10 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 				} else {
 					loadedCal.addEvent(importedEvent);
 				}
+				eventKeys.add(uid);
 			}
 			
-			boolean successfullyPersist = persistCalendar(cal);
+			boolean successfullyPersist = persistEvents(loadedCal, eventKeys);
 			// inform all controller about calendar change for reload
 			CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(new CalendarGUIModifiedEvent(cal), OresHelper.lookupType(CalendarManager.class));
 			return Boolean.valueOf(successfullyPersist);
@@ -1277,16 +1497,77 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 	 * @return
 	 */
 	protected Kalendar loadOrCreateCalendar(final String callType, final String callCalendarID) {
-		if (!calendarExists(callType, callCalendarID)) {
-			return createCalendar(callType, callCalendarID);
-		} else {
+		StoredCalendar storedCalendar = calendarEventDao.getCalendar(callType, callCalendarID);
+		if(storedCalendar != null) {
+			return loadCalendarFromStore(storedCalendar);
+		} else if(getCalendarFile(callType, callCalendarID).exists()) {
 			return loadCalendarFromFile(callType, callCalendarID);
+		} else {
+			return createCalendar(callType, callCalendarID);
 		}
 	}
 	
 	@Override
 	public List<KalendarEvent> getEvents(Kalendar calendar, Date from, Date to, boolean privateEventsVisible) {
-		List<KalendarEvent> allEvents = calendar.getEvents();
+		return getEvents(List.of(calendar), from, to, privateEventsVisible);
+	}
+	
+	/**
+	 * The events of the calendars saved in the database are always read with
+	 * one range query for all the calendars, cached or not. Only the calendars
+	 * still saved as file are filtered in memory.
+	 */
+	@Override
+	public List<KalendarEvent> getEvents(List<Kalendar> calendars, Date from, Date to, boolean privateEventsVisible) {
+		List<KalendarEvent> events = new ArrayList<>(128);
+		if(calendars == null || calendars.isEmpty()) {
+			return events;
+		}
+		
+		Map<String,Kalendar> keyToCalendars = new HashMap<>();
+		Map<String,List<String>> typeToCalendarIds = new HashMap<>();
+		for(Kalendar calendar:calendars) {
+			String key = getKeyFor(calendar.getType(), calendar.getCalendarID());
+			if(!keyToCalendars.containsKey(key)) {
+				keyToCalendars.put(key, calendar);
+				typeToCalendarIds
+					.computeIfAbsent(calendar.getType(), type -> new ArrayList<>())
+					.add(calendar.getCalendarID());
+			}
+		}
+		
+		// the events of all the calendars in the database in one query
+		List<StoredCalendar> storedCalendars = calendarEventDao.getCalendars(typeToCalendarIds);
+		if(!storedCalendars.isEmpty()) {
+			Map<Long,List<StoredCalendarEvent>> calendarKeyToEvents = new HashMap<>();
+			for(StoredCalendarEvent storedEvent:calendarEventDao.getEvents(storedCalendars, from, to)) {
+				calendarKeyToEvents
+					.computeIfAbsent(storedEvent.getCalendar().getKey(), calKey -> new ArrayList<>())
+					.add(storedEvent);
+			}
+			
+			for(StoredCalendar storedCalendar:storedCalendars) {
+				String key = getKeyFor(storedCalendar.getType(), storedCalendar.getCalendarId());
+				Kalendar calendar = keyToCalendars.remove(key);
+				List<StoredCalendarEvent> storedEvents = calendarKeyToEvents.get(storedCalendar.getKey());
+				if(calendar != null && storedEvents != null) {
+					List<KalendarEvent> calendarEvents = getKalendarEvents(parseStoredEvents(storedEvents));
+					for(KalendarEvent calendarEvent:calendarEvents) {
+						calendarEvent.setKalendar(calendar);
+					}
+					events.addAll(getEventsInPeriod(calendarEvents, from, to, privateEventsVisible));
+				}
+			}
+		}
+		
+		// calendars still saved as file or only in memory
+		for(Kalendar calendar:keyToCalendars.values()) {
+			events.addAll(getEventsInPeriod(calendar.getEvents(), from, to, privateEventsVisible));
+		}
+		return events;
+	}
+	
+	private List<KalendarEvent> getEventsInPeriod(List<KalendarEvent> allEvents, Date from, Date to, boolean privateEventsVisible) {
 		List<KalendarEvent> events = new ArrayList<>(128);
 		
 		// first pass, collect edited recurring events
@@ -1426,20 +1707,41 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		periodEnd = calculateRecurringEndPeriod(periodEnd, recurringIdDates);
 
 		//calculate the events in the specified period
-        Period recurringPeriod = new Period(new DateTime(periodStart), new DateTime(periodEnd));
+		RecurrenceKey recurrenceKey = new RecurrenceKey(kEvent, periodStart, periodEnd, userTz);
+		long[] occurences = recurrenceCache.computeIfAbsent(recurrenceKey,
+				key -> calculateRecurrences(vEvent, kEvent, key.getPeriodStart(), key.getPeriodEnd(), userTz));
+		
+		long duration = kEvent.getEnd().getTime() - kEvent.getBegin().getTime();
+		List<KalendarRecurEvent> recurringEvents = new ArrayList<>(occurences.length);
+		for(long occurence:occurences) {
+			Date begin = new Date(occurence);
+			Date end = new Date(occurence + duration);
+			boolean original = kEvent.getBegin().getTime() == occurence; //prevent doubled events
+			KalendarRecurEvent recurEvent = new KalendarRecurEvent(kEvent.getID(), original, kEvent.getSubject(), begin, end);
+			recurEvent.setOccurenceDate(begin);
+			recurEvent.setSourceEvent(kEvent);
+			recurringEvents.add(recurEvent);
+		}
+		return recurringEvents;
+	}
+	
+	/**
+	 * @return The begin dates of the occurrences of the event in the period
+	 */
+	private long[] calculateRecurrences(VEvent vEvent, KalendarEvent kEvent, Date periodStart, Date periodEnd, TimeZone userTz) {
+		Period recurringPeriod = new Period(new DateTime(periodStart), new DateTime(periodEnd));
 		PeriodList periodList = vEvent.calculateRecurrenceSet(recurringPeriod);
-		List<KalendarRecurEvent> recurringEvents = new ArrayList<>(periodList.size());
+		Date recurrenceEnd = getRecurrenceEndDate(kEvent.getRecurrenceRule());
+		
+		java.util.Calendar eventStartCal = java.util.Calendar.getInstance();
+		eventStartCal.clear();
+		eventStartCal.setTime(kEvent.getBegin());
+		
+		long[] occurences = new long[periodList.size()];
+		int count = 0;
 		for(Object obj : periodList) {
 			Period period = (Period)obj;
 			Date date = period.getStart();
-
-			java.util.Calendar eventStartCal = java.util.Calendar.getInstance();
-			eventStartCal.clear();
-			eventStartCal.setTime(kEvent.getBegin());
-			
-			java.util.Calendar eventEndCal = java.util.Calendar.getInstance();
-			eventEndCal.clear();
-			eventEndCal.setTime(kEvent.getEnd());
 			
 			java.util.Calendar recurStartCal = java.util.Calendar.getInstance();
 			recurStartCal.clear();
@@ -1448,33 +1750,18 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 			} else {
 				recurStartCal.setTimeInMillis(date.getTime() - userTz.getOffset(date.getTime()));
 			}
-			long duration = kEvent.getEnd().getTime() - kEvent.getBegin().getTime();
 
 			java.util.Calendar beginCal = java.util.Calendar.getInstance();
 			beginCal.clear();
 			beginCal.set(recurStartCal.get(java.util.Calendar.YEAR), recurStartCal.get(java.util.Calendar.MONTH), recurStartCal.get(java.util.Calendar.DATE), 
 				eventStartCal.get(java.util.Calendar.HOUR_OF_DAY), eventStartCal.get(java.util.Calendar.MINUTE), eventStartCal.get(java.util.Calendar.SECOND));
-			
-			java.util.Calendar endCal = java.util.Calendar.getInstance();
-			endCal.clear();
-			endCal.setTimeInMillis(beginCal.getTimeInMillis() + duration);
-
-			boolean original = false;
-			if(kEvent.getBegin().compareTo(beginCal.getTime()) == 0) {
-				original = true; //prevent doubled events
-			}
 
-			Date recurrenceEnd = getRecurrenceEndDate(kEvent.getRecurrenceRule());
 			if(kEvent.isAllDayEvent() && recurrenceEnd != null && recurStartCal.getTime().after(recurrenceEnd)) {
 				continue; //workaround for ical4j-bug in all day events
 			}
-		
-			KalendarRecurEvent recurEvent = new KalendarRecurEvent(kEvent.getID(), original, kEvent.getSubject(), beginCal.getTime(), endCal.getTime());
-			recurEvent.setOccurenceDate(beginCal.getTime());
-			recurEvent.setSourceEvent(kEvent);
-			recurringEvents.add(recurEvent);
+			occurences[count++] = beginCal.getTimeInMillis();
 		}
-		return recurringEvents;
+		return count == occurences.length ? occurences : Arrays.copyOf(occurences, count);
 	}
 	
 	private final DateList getRecurringsInPeriod(Date periodStart, Date periodEnd, KalendarEvent kEvent) {
@@ -1593,4 +1880,64 @@ public class ICalFileCalendarManager implements CalendarManager, InitializingBea
 		
 		return null;
 	}
+	
+	/**
+	 * The key of the cached occurrences of a recurring event. It contains
+	 * all the values used to calculate them, a changed event or rule is
+	 * a new key.
+	 */
+	private static class RecurrenceKey implements Serializable {
+
+		private static final long serialVersionUID = -3151396428711474211L;
+		
+		private final long begin;
+		private final long end;
+		private final boolean allDay;
+		private final String recurrenceRule;
+		private final String recurrenceExc;
+		private final long periodStart;
+		private final long periodEnd;
+		private final String timeZoneId;
+		
+		public RecurrenceKey(KalendarEvent kEvent, Date periodStart, Date periodEnd, TimeZone userTz) {
+			begin = kEvent.getBegin().getTime();
+			end = kEvent.getEnd().getTime();
+			allDay = kEvent.isAllDayEvent();
+			recurrenceRule = kEvent.getRecurrenceRule();
+			recurrenceExc = kEvent.getRecurrenceExc();
+			this.periodStart = periodStart.getTime();
+			this.periodEnd = periodEnd.getTime();
+			timeZoneId = userTz == null ? null : userTz.getID();
+		}
+		
+		public Date getPeriodStart() {
+			return new Date(periodStart);
+		}
+		
+		public Date getPeriodEnd() {
+			return new Date(periodEnd);
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(begin) + Long.hashCode(periodStart) * 31 + Long.hashCode(periodEnd) * 17
+					+ (recurrenceRule == null ? 7256 : recurrenceRule.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof RecurrenceKey) {
+				RecurrenceKey key = (RecurrenceKey)obj;
+				return begin == key.begin && end == key.end && allDay == key.allDay
+						&& periodStart == key.periodStart && periodEnd == key.periodEnd
+						&& Objects.equals(recurrenceRule, key.recurrenceRule)
+						&& Objects.equals(recurrenceExc, key.recurrenceExc)
+						&& Objects.equals(timeZoneId, key.timeZoneId);
+			}
+			return false;
+		}
+	}
 }
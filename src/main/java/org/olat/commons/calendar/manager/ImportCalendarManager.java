@@ -97,6 +97,8 @@ public class ImportCalendarManager {
 		Calendar calendar = calendarManager.readCalendar(tmpFile);
 		if(calendar != null) {
 			String calendarID = getImportedCalendarID(identity, calendarName);
+			// remove the events of a previous import with the same name
+			calendarManager.deleteCalendar(type, calendarID);
 			File calendarFile = calendarManager.getCalendarFile(type, calendarID);
 			if(!tmpFile.renameTo(calendarFile)) {
 				Files.copy(tmpFile.toPath(), calendarFile.toPath());
@@ -116,6 +118,8 @@ public class ImportCalendarManager {
 		Calendar calendar = calendarManager.readCalendar(file);
 		if(calendar != null) {
 			String calendarID = getImportedCalendarID(identity, calendarName);
+			// remove the events of a previous import with the same name
+			calendarManager.deleteCalendar(type, calendarID);
 			File calendarFile = calendarManager.getCalendarFile(type, calendarID);
 			if(!file.renameTo(calendarFile)) {
 				Files.copy(file.toPath(), calendarFile.toPath());
@@ -193,9 +197,11 @@ public class ImportCalendarManager {
 					reloadImportCalendar(importedCalendar, timestamp, filter);
 				}
 				String calendarId = importedCalendar.getCalendarId();
-				File calendarFile = calendarManager.getCalendarFile(CalendarManager.TYPE_USER, calendarId);
-				CalendarFileInfos calendarInfos = new CalendarFileInfos(calendarId, CalendarManager.TYPE_USER, calendarFile);
-				calendars.add(calendarInfos);
+				File calendarFile = calendarManager.getCalendarICalFile(CalendarManager.TYPE_USER, calendarId);
+				if(calendarFile != null) {
+					CalendarFileInfos calendarInfos = new CalendarFileInfos(calendarId, CalendarManager.TYPE_USER, calendarFile);
+					calendars.add(calendarInfos);
+				}
 			}
 		}
 		return calendars;
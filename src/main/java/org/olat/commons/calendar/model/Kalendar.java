@@ -25,6 +25,8 @@
 
 package org.olat.commons.calendar.model;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -41,12 +43,27 @@ public class Kalendar implements Serializable {
 	
 	private int managedEvent;
 	private int notManagedEvent;
+	private transient volatile Loader loader;
 	
 	public Kalendar(String calendarID, String type) {
 		this.calendarID = calendarID;
 		this.type = type;
 	}
 	
+	/**
+	 * Create a calendar which loads its events the first time they
+	 * are needed.
+	 * 
+	 * @param calendarID The calendar ID
+	 * @param type The calendar type
+	 * @param loader The loader of the events
+	 */
+	public Kalendar(String calendarID, String type, Loader loader) {
+		this.calendarID = calendarID;
+		this.type = type;
+		this.loader = loader;
+	}
+	
 	/**
 	 * Return this calendar's ID.
 	 * @return
@@ -55,15 +72,25 @@ public class Kalendar implements Serializable {
 		return calendarID;
 	}
 	
+	/**
+	 * @return true if the events of the calendar are loaded
+	 */
+	public boolean isLoaded() {
+		return loader == null;
+	}
+	
 	public int size() {
+		load();
 		return events.size();
 	}
 	
 	public boolean hasManagedEvents() {
+		load();
 		return managedEvent > 0;
 	}
 	
 	public boolean hasNotManagedEvents() {
+		load();
 		return notManagedEvent > 0;
 	}
 	
@@ -72,6 +99,11 @@ public class Kalendar implements Serializable {
 	 * @param event
 	 */
 	public void addEvent(KalendarEvent event) {
+		load();
+		add(event);
+	}
+	
+	private void add(KalendarEvent event) {
 		if(event.isManaged()) {
 			managedEvent++;
 		} else {
@@ -86,6 +118,7 @@ public class Kalendar implements Serializable {
 	 * @param event
 	 */
 	public void removeEvent(KalendarEvent event) {
+		load();
 		if(event.isManaged()) {
 			managedEvent--;
 		} else {
@@ -101,6 +134,7 @@ public class Kalendar implements Serializable {
 	 * @return
 	 */
 	public KalendarEvent getEvent(String eventID, String recurenceID) {
+		load();
 		return events.get(new KalendarEventKey(eventID, recurenceID));
 	}
 	
@@ -109,15 +143,44 @@ public class Kalendar implements Serializable {
 	 * @return
 	 */
 	public List<KalendarEvent> getEvents() {
+		load();
 		return new ArrayList<>(events.values());
 	}
+	
+	private void load() {
+		if(loader != null) {
+			synchronized(this) {
+				if(loader != null) {
+					for(KalendarEvent event:loader.load()) {
+						add(event);
+					}
+					loader = null;
+				}
+			}
+		}
+	}
 
 	public String getType() {
 		return type;
 	}
 	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// the loader is not serialized, the events must be
+		load();
+		out.defaultWriteObject();
+	}
+	
 	@Override
 	public String toString() {
 		return "Kalendar[type=" + getType() + ", id=" + getCalendarID() + "]";
 	}
+	
+	public interface Loader {
+		
+		/**
+		 * @return The events of the calendar
+		 */
+		public List<KalendarEvent> load();
+	
+	}
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.calendar.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.olat.core.id.CreateInfo;
+import org.olat.core.id.ModifiedInfo;
+import org.olat.core.id.Persistable;
+
+/**
+ * An event of a calendar saved in the database. The event is saved as a
+ * VEVENT component, the dates are only there to find the events in a
+ * period of time. For a recurring event, the end is the end of the
+ * recurrence or null if the recurrence has no end.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Entity(name="calstoredevent")
+@Table(name="o_cal_event")
+public class StoredCalendarEvent implements CreateInfo, ModifiedInfo, Persistable {
+
+	private static final long serialVersionUID = -3128532447260883471L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name="id", nullable=false, unique=true, insertable=true, updatable=false)
+	private Long key;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="creationdate", nullable=false, insertable=true, updatable=false)
+	private Date creationDate;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="lastmodified", nullable=false, insertable=true, updatable=true)
+	private Date lastModified;
+
+	@Column(name="c_uid", nullable=false, insertable=true, updatable=false)
+	private String uid;
+	@Column(name="c_recurrence_id", nullable=true, insertable=true, updatable=false)
+	private String recurrenceId;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="c_begin", nullable=true, insertable=true, updatable=true)
+	private Date begin;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="c_end", nullable=true, insertable=true, updatable=true)
+	private Date end;
+	@Column(name="c_recurring", nullable=false, insertable=true, updatable=true)
+	private boolean recurring;
+	@Column(name="c_classification", nullable=false, insertable=true, updatable=true)
+	private int classification;
+	@Column(name="c_vevent", nullable=false, insertable=true, updatable=true)
+	private String vevent;
+	
+	@ManyToOne(targetEntity=StoredCalendar.class,fetch=FetchType.LAZY,optional=false)
+	@JoinColumn(name="fk_calendar", nullable=false, insertable=true, updatable=false)
+	private StoredCalendar calendar;
+	
+	@Override
+	public Long getKey() {
+		return key;
+	}
+
+	public void setKey(Long key) {
+		this.key = key;
+	}
+
+	@Override
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	@Override
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	@Override
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	public String getUid() {
+		return uid;
+	}
+
+	public void setUid(String uid) {
+		this.uid = uid;
+	}
+
+	public String getRecurrenceId() {
+		return recurrenceId;
+	}
+
+	public void setRecurrenceId(String recurrenceId) {
+		this.recurrenceId = recurrenceId;
+	}
+
+	public Date getBegin() {
+		return begin;
+	}
+
+	public void setBegin(Date begin) {
+		this.begin = begin;
+	}
+
+	public Date getEnd() {
+		return end;
+	}
+
+	public void setEnd(Date end) {
+		this.end = end;
+	}
+
+	public boolean isRecurring() {
+		return recurring;
+	}
+
+	public void setRecurring(boolean recurring) {
+		this.recurring = recurring;
+	}
+
+	public int getClassification() {
+		return classification;
+	}
+
+	public void setClassification(int classification) {
+		this.classification = classification;
+	}
+
+	public String getVevent() {
+		return vevent;
+	}
+
+	public void setVevent(String vevent) {
+		this.vevent = vevent;
+	}
+
+	public StoredCalendar getCalendar() {
+		return calendar;
+	}
+
+	public void setCalendar(StoredCalendar calendar) {
+		this.calendar = calendar;
+	}
+
+	@Override
+	public int hashCode() {
+		return key == null ? 38210 : key.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof StoredCalendarEvent) {
+			StoredCalendarEvent event = (StoredCalendarEvent)obj;
+			return key != null && key.equals(event.key);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equalsByPersistableKey(Persistable persistable) {
+		return equals(persistable);
+	}
+}
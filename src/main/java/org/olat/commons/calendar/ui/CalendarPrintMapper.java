@@ -23,12 +23,15 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.olat.commons.calendar.CalendarManager;
 import org.olat.commons.calendar.CalendarUtils;
+import org.olat.commons.calendar.model.Kalendar;
 import org.olat.commons.calendar.model.KalendarEvent;
 import org.olat.commons.calendar.ui.components.KalendarEventDateComparator;
 import org.olat.commons.calendar.ui.components.KalendarEventRenderWrapper;
@@ -116,13 +119,23 @@ public class CalendarPrintMapper implements Mapper {
 	}
 	
 	private void collectEvents(List<KalendarEventRenderWrapper> eventList, List<KalendarRenderWrapper> wrappers) {
+		List<Kalendar> calendars = new ArrayList<>(wrappers.size());
+		Map<String,KalendarRenderWrapper> keyToWrappers = new HashMap<>();
 		for (KalendarRenderWrapper calendarWrapper:wrappers) {
 			if (calendarWrapper.isVisible()) {
-				List<KalendarEvent> events = calendarManager.getEvents(calendarWrapper.getKalendar(), from, to, true);
-				for (KalendarEvent event : events) {
-					//private filter???
-					eventList.add(new KalendarEventRenderWrapper(event, calendarWrapper));
-				}
+				Kalendar calendar = calendarWrapper.getKalendar();
+				calendars.add(calendar);
+				keyToWrappers.putIfAbsent(calendar.getType() + "_" + calendar.getCalendarID(), calendarWrapper);
+			}
+		}
+		
+		List<KalendarEvent> events = calendarManager.getEvents(calendars, from, to, true);
+		for (KalendarEvent event : events) {
+			//private filter???
+			Kalendar calendar = event.getCalendar();
+			KalendarRenderWrapper calendarWrapper = keyToWrappers.get(calendar.getType() + "_" + calendar.getCalendarID());
+			if(calendarWrapper != null) {
+				eventList.add(new KalendarEventRenderWrapper(event, calendarWrapper));
 			}
 		}
 	}
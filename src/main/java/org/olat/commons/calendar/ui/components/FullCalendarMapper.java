@@ -126,6 +126,9 @@ public class FullCalendarMapper implements Mapper {
 		if(cal != null) {
 			boolean privateEventsVisible = cal.isPrivateEventsVisible();
 			List<KalendarEvent> events = calendarManager.getEvents(cal.getKalendar(), from, to, privateEventsVisible);
+			// don't load all the events of the calendar only to check the managed ones
+			boolean hasManagedEvents = fcC.isDifferentiateManagedEvents()
+					&& (cal.getKalendar().isLoaded() ? cal.getKalendar().hasManagedEvents() : events.stream().anyMatch(KalendarEvent::isManaged));
 
 			for(KalendarEvent event:events) {
 				if(!privateEventsVisible && event.getClassification() == KalendarEvent.CLASS_PRIVATE) {
@@ -133,13 +136,13 @@ public class FullCalendarMapper implements Mapper {
 				}
 				
 				boolean timeOnly = !privateEventsVisible && event.getClassification() == KalendarEvent.CLASS_X_FREEBUSY;
-				JSONObject jsonEvent = getJSONEvent(event, cal, timeOnly);
+				JSONObject jsonEvent = getJSONEvent(event, cal, timeOnly, hasManagedEvents);
 				ja.put(jsonEvent);
 			}
 		}
 	}
 	
-	private JSONObject getJSONEvent(KalendarEvent event, KalendarRenderWrapper cal, boolean timeOnly)
+	private JSONObject getJSONEvent(KalendarEvent event, KalendarRenderWrapper cal, boolean timeOnly, boolean hasManagedEvents)
 	throws JSONException {
 		JSONObject jsonEvent = new JSONObject();
 		String id = FullCalendarComponent.normalizeId(event);
@@ -153,7 +156,7 @@ public class FullCalendarMapper implements Mapper {
 		jsonEvent.put("allDay", Boolean.valueOf(allDay));
 		
 		if(fcC.isDifferentiateManagedEvents()) {
-			applyManagedClassNames(jsonEvent, event, cal);
+			applyManagedClassNames(jsonEvent, event, cal, hasManagedEvents);
 		} else if(StringHelper.containsNonWhitespace(cal.getCssClass())) {
 			applyClassNames(jsonEvent, cal);
 		}
@@ -205,11 +208,11 @@ public class FullCalendarMapper implements Mapper {
 		}
 	}
 	
-	private void applyManagedClassNames(JSONObject jsonEvent, KalendarEvent event, KalendarRenderWrapper cal)
+	private void applyManagedClassNames(JSONObject jsonEvent, KalendarEvent event, KalendarRenderWrapper cal, boolean hasManagedEvents)
 	throws JSONException {
 		StringBuilder classNames = new StringBuilder(32);
 		if(StringHelper.containsNonWhitespace(cal.getCssClass())) {
-			if(cal.getKalendar().hasManagedEvents()) {
+			if(hasManagedEvents) {
 				if(!event.isManaged()) {
 					jsonEvent.put("color", "steelblue");
 				} else {
@@ -24,12 +24,28 @@
 */
 package org.olat.commons.coordinate.cluster;
 
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.apache.logging.log4j.Logger;
+import org.infinispan.Cache;
+import org.olat.commons.coordinate.cluster.lock.InfinispanLeaseLocker;
+import org.olat.commons.coordinate.singlevm.LocalLeaseLocker;
 import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.jmx.JMXManager;
 import org.olat.core.commons.services.lock.pessimistic.PessimisticLockManager;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.AssertException;
+import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.coordinate.Cacher;
+import org.olat.core.util.coordinate.LeaseLock;
+import org.olat.core.util.coordinate.LeaseLockStatistics;
+import org.olat.core.util.coordinate.LeaseLocker;
 import org.olat.core.util.coordinate.Syncer;
 import org.olat.core.util.coordinate.SyncerCallback;
 import org.olat.core.util.coordinate.SyncerExecutor;
@@ -39,17 +55,38 @@ import org.olat.core.util.resource.OresHelper;
 /**
  * Description:<br>
  * cluster mode implementation of the Syncer
+ * <p>
+ * The synchronization uses per default a SELECT FOR UPDATE on the o_plock table.
+ * Lease locks can be used instead, held in memory in single VM mode
+ * (cluster.sync.mode=local) or, with a replicated cache, in Infinispan for the
+ * whole cluster (cluster.sync.mode=infinispan). The lease is renewed while the
+ * callback runs and checked before the commit of the transaction: if it was
+ * lost, the transaction is rolled back.
  * 
  * <P>
  * Initial Date:  21.09.2007 <br>
  * @author Felix Jost, http://www.goodsolutions.ch
  */
-public class ClusterSyncer implements Syncer {
+public class ClusterSyncer implements Syncer, ClusterSyncerMBean {
 	private static final Logger log = Tracing.createLoggerFor(ClusterSyncer.class);
+	
+	public static final String LEASES_CACHE_NAME = "ClusterSyncer@leases";
+	private static final String MBEAN_NAME = "org.olat.commons.coordinate.cluster:type=ClusterSyncer";
+	
 	private int executionTimeThreshold = 3000; // warn if the execution takes longer than three seconds
 	private final ThreadLocal<ThreadLocalClusterSyncer> data = new ThreadLocal<>();
 	private PessimisticLockManager pessimisticLockManager;
 	private DB dbInstance;
+	private Cacher cacher;
+	private JMXManager jmxManager;
+	
+	private String syncMode = "auto";
+	private String clusterMode = "SingleVM";
+	private String nodeId = "1";
+	private long leaseTime = 120000;
+	private long lockTimeout = -1;
+	private LeaseLocker leaseLocker;
+	private ScheduledExecutorService leaseRenewer;
 	
 	/**
 	 * [used by spring]
@@ -63,12 +100,62 @@ public class ClusterSyncer implements Syncer {
 		dbInstance = db;
 	}
 	
+	/**
+	 * [used by spring]
+	 */
+	public void init() {
+		boolean cluster = "Cluster".equalsIgnoreCase(clusterMode);
+		if("local".equalsIgnoreCase(syncMode)) {
+			if(cluster) {
+				log.error("Local lease locks cannot synchronize a cluster, fallback to database locks");
+			} else {
+				leaseLocker = new LocalLeaseLocker(nodeId);
+			}
+		} else if("infinispan".equalsIgnoreCase(syncMode)) {
+			Cache<String,LeaseLock> leases = cacher.getCacheContainer().getCache(LEASES_CACHE_NAME);
+			InfinispanLeaseLocker infinispanLocker = new InfinispanLeaseLocker(nodeId, leases);
+			if(cluster && !infinispanLocker.isClustered()) {
+				log.error("The cache {} is not clustered, fallback to database locks", LEASES_CACHE_NAME);
+			} else {
+				leaseLocker = infinispanLocker;
+			}
+		}
+		
+		if(leaseLocker != null) {
+			leaseRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "syncer-lease-renewer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		
+		if(jmxManager != null) {
+			jmxManager.registerMBean(this, MBEAN_NAME);
+		}
+		log.info("Syncer started with {}", getMode());
+	}
+	
+	/**
+	 * [used by spring]
+	 */
+	public void destroy() {
+		if(leaseRenewer != null) {
+			leaseRenewer.shutdownNow();
+		}
+		if(jmxManager != null) {
+			jmxManager.unregisterMBean(MBEAN_NAME);
+		}
+	}
+	
 	/**
 	 * @see org.olat.core.util.coordinate.Syncer#doInSync(org.olat.core.id.OLATResourceable, org.olat.core.util.coordinate.SyncerCallback)
 	 */
 	public <T> T doInSync(OLATResourceable ores, SyncerCallback<T> callback) {
 		getData().setSyncObject(ores);// Store ores-object for assertAlreadyDoInSyncFor(ores)
 		String asset = OresHelper.createStringRepresenting(ores);
+		if(leaseLocker != null) {
+			return doInLease(asset, callback);
+		}
 		
 		// 1. sync on vm (performance and net bandwith reason, and also for a fair per-node handling of db request) 
 		// cluster:::: measure throughput with/without this sync
@@ -121,6 +208,77 @@ public class ClusterSyncer implements Syncer {
 		return res;
 	}
 	
+	private <T> T doInLease(String asset, SyncerCallback<T> callback) {
+		long start = System.currentTimeMillis();
+		
+		T res;
+		final AtomicReference<LeaseLock> lease = new AtomicReference<>();
+		ScheduledFuture<?> heartbeat = null;
+		getData().incrementAndCheckNestedLevelCounter();
+		try {
+			lease.set(leaseLocker.tryLock(asset, leaseTime, lockTimeout));
+			if(lease.get() == null) {
+				throw new OLATRuntimeException(ClusterSyncer.class, "Cannot acquire the lock in time: " + asset, null);
+			}
+			heartbeat = startHeartbeat(lease);
+			
+			res = callback.execute();
+			
+			stopHeartbeat(heartbeat);
+			// fencing: commit only if nobody took the lock after the end of the lease
+			LeaseLock renewedLease = leaseLocker.renew(lease.get(), leaseTime);
+			if(renewedLease == null) {
+				dbInstance.rollback();
+				throw new OLATRuntimeException(ClusterSyncer.class, "Lease lost before commit, rollback: " + asset, null);
+			}
+			lease.set(renewedLease);
+			// see the comment in doInSync about the commit
+			dbInstance.commit();
+		} finally {
+			stopHeartbeat(heartbeat);
+			getData().decrementNestedLevelCounter();
+			if(getData().getNestedLevel() == 0) {
+				data.remove();
+			}
+			if(lease.get() != null) {
+				leaseLocker.unlock(lease.get());
+			}
+		}
+		
+		long duration = System.currentTimeMillis() - start;
+		if (duration > executionTimeThreshold && log.isDebugEnabled()) {
+			log.warn("execution time exceeded limit of "+executionTimeThreshold+": "+duration, new AssertException("generate stacktrace"));
+		}
+		return res;
+	}
+	
+	/**
+	 * Renew the lease periodically, a third of the lease time, as long as the
+	 * callback runs.
+	 * 
+	 * @param lease The current lease, replaced by the renewed lease
+	 * @return The task to cancel at the end of the callback
+	 */
+	private ScheduledFuture<?> startHeartbeat(final AtomicReference<LeaseLock> lease) {
+		long period = Math.max(1l, leaseTime / 3);
+		return leaseRenewer.scheduleAtFixedRate(() -> {
+			LeaseLock current = lease.get();
+			LeaseLock renewed = leaseLocker.renew(current, leaseTime);
+			if(renewed == null) {
+				log.warn("Lease lost during the execution of the callback: {}", current);
+				throw new IllegalStateException("Lease lost");// stop the renewal
+			}
+			// only if the callback hasn't finished in the meantime
+			lease.compareAndSet(current, renewed);
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+	
+	private void stopHeartbeat(ScheduledFuture<?> heartbeat) {
+		if(heartbeat != null) {
+			heartbeat.cancel(false);
+		}
+	}
+	
 	/**
 	 * @see org.olat.core.util.coordinate.Syncer#doInSync(org.olat.core.id.OLATResourceable, org.olat.core.util.coordinate.SyncerExecutor)
 	 */
@@ -168,6 +326,96 @@ public class ClusterSyncer implements Syncer {
 		return tld;
 	}
 
+	/**
+	 * [used by spring]
+	 * @param syncMode auto, local, infinispan or db
+	 */
+	public void setSyncMode(String syncMode) {
+		this.syncMode = syncMode;
+	}
+
+	public void setClusterMode(String clusterMode) {
+		this.clusterMode = clusterMode;
+	}
+
+	public void setNodeId(String nodeId) {
+		this.nodeId = nodeId;
+	}
+
+	/**
+	 * [used by spring]
+	 * @param leaseTime The duration of the leases in milliseconds
+	 */
+	public void setLeaseTime(long leaseTime) {
+		this.leaseTime = leaseTime;
+	}
+
+	/**
+	 * [used by spring]
+	 * @param lockTimeout The max. time to wait for a lease lock in milliseconds,
+	 * 		a negative value to wait until the lock is acquired, like the database lock
+	 */
+	public void setLockTimeout(long lockTimeout) {
+		this.lockTimeout = lockTimeout;
+	}
+
+	public void setCacher(Cacher cacher) {
+		this.cacher = cacher;
+	}
+
+	public void setJmxManager(JMXManager jmxManager) {
+		this.jmxManager = jmxManager;
+	}
+	
+	public LeaseLocker getLeaseLocker() {
+		return leaseLocker;
+	}
+
+	@Override
+	public String getMode() {
+		if(leaseLocker instanceof LocalLeaseLocker) {
+			return "local";
+		}
+		if(leaseLocker instanceof InfinispanLeaseLocker) {
+			return "infinispan";
+		}
+		return "db";
+	}
+
+	@Override
+	public long getAcquiredCount() {
+		return leaseLocker == null ? -1l : leaseLocker.getAcquiredCount();
+	}
+
+	@Override
+	public long getContendedCount() {
+		return leaseLocker == null ? -1l : leaseLocker.getContendedCount();
+	}
+
+	@Override
+	public long getTimeoutCount() {
+		return leaseLocker == null ? -1l : leaseLocker.getTimeoutCount();
+	}
+
+	@Override
+	public long getExpiredCount() {
+		return leaseLocker == null ? -1l : leaseLocker.getExpiredCount();
+	}
+
+	@Override
+	public String[] getMostContendedResources() {
+		if(leaseLocker == null) {
+			return new String[0];
+		}
+		List<LeaseLockStatistics> statistics = leaseLocker.getStatistics();
+		int size = Math.min(20, statistics.size());
+		String[] resources = new String[size];
+		for(int i=0; i<size; i++) {
+			resources[i] = statistics.get(i).toString();
+		}
+		return resources;
+	}
+
 	public void setPessimisticLockManager(PessimisticLockManager pessimisticLockManager) {
 		this.pessimisticLockManager = pessimisticLockManager;
 	}
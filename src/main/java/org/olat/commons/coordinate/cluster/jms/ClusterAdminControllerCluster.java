@@ -206,7 +206,7 @@ public class ClusterAdminControllerCluster extends BasicController {
 		
 		
 		boolean started = true;
-		perfInfoVc.contextPut("perfs", null);
+		perfInfoVc.contextPut("perfs", clusBus.getPerfItems());
 		if (started) {
 			perfInfoVc.contextPut("started", "started");
 		} else {
@@ -0,0 +1,234 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.olat.core.util.event.MultiUserEvent;
+
+/**
+ * A batch of events sent in one JMS message. The format is compact: the
+ * type names of the resources are written once in a table, the message ids
+ * and the creation dates are written as differences.<br>
+ * The plain MultiUserEvent, which carries only a command, are the most
+ * frequent events. They are written as the index of their command in a
+ * table, without Java serialization. The other events are written after
+ * all the headers in one serialization stream, the class descriptions are
+ * written only once per batch.<br>
+ * The duplicates of the plain MultiUserEvent are coalesced: an event is
+ * dropped if it's the same as the previous event of the same resource type
+ * and the same resource. The order of the events is never changed.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class ClusterEventBatch {
+
+	static final int MAGIC = 0x4F4C4542;// OLEB
+	static final int VERSION = 2;
+
+	private static final byte PLAIN_EVENT = 1;
+	private static final byte SERIALIZED_EVENT = 2;
+
+	private ClusterEventBatch() {
+		//
+	}
+
+	/**
+	 * Remove the duplicates of the list. Only the plain MultiUserEvent,
+	 * which carries only a command, are coalesced.
+	 *
+	 * @param wrappers The events to send in the order they were fired
+	 * @return The list without duplicates
+	 */
+	static List<JMSWrapper> coalesce(List<JMSWrapper> wrappers) {
+		if(wrappers.size() < 2) {
+			return wrappers;
+		}
+
+		List<JMSWrapper> coalesced = new ArrayList<>(wrappers.size());
+		Map<String,JMSWrapper> lastPerType = new HashMap<>();
+		for(JMSWrapper wrapper:wrappers) {
+			JMSWrapper last = lastPerType.get(wrapper.getResType());
+			if(last == null || !isDuplicate(last, wrapper)) {
+				coalesced.add(wrapper);
+				lastPerType.put(wrapper.getResType(), wrapper);
+			}
+		}
+		return coalesced;
+	}
+
+	private static boolean isDuplicate(JMSWrapper last, JMSWrapper wrapper) {
+		if(last.getResId() == null ? wrapper.getResId() != null : !last.getResId().equals(wrapper.getResId())) {
+			return false;
+		}
+
+		MultiUserEvent lastEvent = last.getMultiUserEvent();
+		MultiUserEvent event = wrapper.getMultiUserEvent();
+		if(lastEvent == event) {
+			return true;
+		}
+		return lastEvent.getClass() == MultiUserEvent.class
+				&& event.getClass() == MultiUserEvent.class
+				&& lastEvent.isEventOnThisNode() == event.isEventOnThisNode()
+				&& lastEvent.equals(event);
+	}
+
+	static byte[] write(Integer nodeId, List<JMSWrapper> wrappers) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + wrappers.size() * 32);
+		try(DataOutputStream out = new DataOutputStream(bytes)) {
+			long batchCreated = System.currentTimeMillis();
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(nodeId.intValue());
+			out.writeLong(batchCreated);
+			out.writeInt(wrappers.size());
+
+			long lastMsgId = 0;
+			Map<String,Integer> typeTable = new HashMap<>();
+			Map<String,Integer> commandTable = new HashMap<>();
+			List<MultiUserEvent> serializedEvents = new ArrayList<>();
+			for(JMSWrapper wrapper:wrappers) {
+				writeIndexed(out, wrapper.getResType(), typeTable);
+				Long resId = wrapper.getResId();
+				out.writeBoolean(resId != null);
+				if(resId != null) {
+					out.writeLong(resId.longValue());
+				}
+				out.writeLong(wrapper.getMsgId() - lastMsgId);
+				lastMsgId = wrapper.getMsgId();
+				out.writeLong(batchCreated - wrapper.getCreated());
+
+				MultiUserEvent event = wrapper.getMultiUserEvent();
+				if(isPlain(event)) {
+					out.writeByte(PLAIN_EVENT);
+					writeIndexed(out, event.getCommand(), commandTable);
+				} else {
+					out.writeByte(SERIALIZED_EVENT);
+					serializedEvents.add(event);
+				}
+			}
+
+			if(!serializedEvents.isEmpty()) {
+				ObjectOutputStream oout = new ObjectOutputStream(out);
+				for(MultiUserEvent event:serializedEvents) {
+					oout.writeObject(event);
+				}
+				oout.flush();
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	static List<JMSWrapper> read(byte[] data) throws IOException, ClassNotFoundException {
+		try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Unknown format of cluster event batch");
+			}
+			Integer nodeId = Integer.valueOf(in.readInt());
+			long batchCreated = in.readLong();
+			int size = in.readInt();
+
+			long lastMsgId = 0;
+			List<String> typeTable = new ArrayList<>();
+			List<String> commandTable = new ArrayList<>();
+			String[] resTypes = new String[size];
+			Long[] resIds = new Long[size];
+			long[] msgIds = new long[size];
+			long[] createds = new long[size];
+			MultiUserEvent[] events = new MultiUserEvent[size];
+			boolean withSerializedEvents = false;
+			for(int i=0; i<size; i++) {
+				resTypes[i] = readIndexed(in, typeTable);
+				resIds[i] = in.readBoolean() ? Long.valueOf(in.readLong()) : null;
+				msgIds[i] = lastMsgId + in.readLong();
+				lastMsgId = msgIds[i];
+				createds[i] = batchCreated - in.readLong();
+
+				byte kind = in.readByte();
+				if(kind == PLAIN_EVENT) {
+					events[i] = new MultiUserEvent(readIndexed(in, commandTable), nodeId.intValue());
+				} else if(kind == SERIALIZED_EVENT) {
+					withSerializedEvents = true;
+				} else {
+					throw new IOException("Unknown kind of event in cluster event batch: " + kind);
+				}
+			}
+
+			if(withSerializedEvents) {
+				ObjectInputStream oin = new ObjectInputStream(in);
+				for(int i=0; i<size; i++) {
+					if(events[i] == null) {
+						events[i] = (MultiUserEvent)oin.readObject();
+					}
+				}
+			}
+
+			List<JMSWrapper> wrappers = new ArrayList<>(size);
+			for(int i=0; i<size; i++) {
+				wrappers.add(new JMSWrapper(nodeId, msgIds[i], resTypes[i], resIds[i], events[i], createds[i]));
+			}
+			return wrappers;
+		}
+	}
+
+	/**
+	 * The plain events fired on the sending node are recreated with their
+	 * command and the node id of the batch.
+	 */
+	private static boolean isPlain(MultiUserEvent event) {
+		return event.getClass() == MultiUserEvent.class
+				&& event.getCommand() != null
+				&& event.isEventOnThisNode();
+	}
+
+	private static void writeIndexed(DataOutputStream out, String value, Map<String,Integer> table)
+	throws IOException {
+		Integer index = table.get(value);
+		if(index == null) {
+			table.put(value, Integer.valueOf(table.size()));
+			out.writeInt(-1);
+			out.writeUTF(value);
+		} else {
+			out.writeInt(index.intValue());
+		}
+	}
+
+	private static String readIndexed(DataInputStream in, List<String> table) throws IOException {
+		int index = in.readInt();
+		if(index < 0) {
+			String value = in.readUTF();
+			table.add(value);
+			return value;
+		}
+		return table.get(index);
+	}
+}
@@ -28,9 +28,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
@@ -67,16 +71,22 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	private static final Logger log = Tracing.createLoggerFor(ClusterEventBus.class);
 	//ores helper is limited to 50 character, so truncate it
 	static final OLATResourceable CLUSTER_CHANNEL = OresHelper.createOLATResourceableType(ClusterEventBus.class.getName().substring(0, 50));
+	private static final String BATCH_PROPERTY = "olatEventBatch";
 
 	private ClusterConfig clusterConfig;
 
 	// settings
 	private long sendInterval = 5000; // 1000 miliseconds between each "ping/alive/info" message, can be set using spring
 	private long jmsMsgDelayLimit = 10000;  // max duration of ClusterInfoEvent send-receive time in ms
+	private boolean batchEnabled = true; // send the events in batches
+	private long batchWindow = 5; // time in ms the events are collected before sending a batch
+	private int maxBatchSize = 500; // max. number of events in a batch
 	
 	// counters
 	private long latestSentMsgId = -1;
 	private long numOfSentMessages = 0;
+	private long numOfSentBatches = 0;
+	private long numOfCoalescedEvents = 0;
 	
 	// stats
 	private List<String> msgsSent = new ArrayList<>(); 
@@ -106,8 +116,12 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	private final SimpleProbe mrtgProbeJMSProcessingTime_ = new SimpleProbe();
 	
 	private final SimpleProbe mrtgProbeJMSEnqueueTime_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSBatchSize_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSEndToEndDelay_ = new SimpleProbe();
 	
 	private ExecutorService jmsExecutor;
+	private final BlockingQueue<OutboundEvent> outboundQueue = new LinkedBlockingQueue<>();
+	private Thread batchSender;
 	
 	/**
 	 * [used by spring]
@@ -119,7 +133,12 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	}
 
 	public void springInit() throws JMSException {
-		jmsExecutor = Executors.newSingleThreadExecutor();
+		if(batchEnabled) {
+			batchSender = new Thread(this::sendBatches, "ClusterEventBus-BatchSender");
+			batchSender.setDaemon(true);
+		} else {
+			jmsExecutor = Executors.newSingleThreadExecutor();
+		}
 		
 		connection = connectionFactory.createConnection();
 		sessionConsumer = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
@@ -129,6 +148,9 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		producer = sessionProducer.createProducer(destination);
 
 		connection.start();
+		if(batchSender != null) {
+			batchSender.start();
+		}
 		log.info("ClusterEventBus JMS started");
 
 		final Integer nodeId = clusterConfig.getNodeId();
@@ -137,7 +159,8 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 				// send an infopacket to all olat nodes at regular intervals.
 				while(isClusterInfoEventThreadRunning) {
 					try {
-						ClusterInfoEvent cie = new ClusterInfoEvent(clusterConfig, createBusListenerInfo());
+						ClusterInfoEvent cie = new ClusterInfoEvent(clusterConfig, createBusListenerInfo(),
+								numOfSentBatches, mrtgProbeJMSBatchSize_.getAvg());
 						fireEventToListenersOf(cie, CLUSTER_CHANNEL, false);
 						if (log.isDebugEnabled()) log.debug("sent via jms clusterInfoEvent with timestamp:{} from node: {}", cie.getCreated(),nodeId);
 					} catch (Exception e) {
@@ -183,6 +206,14 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		return mrtgProbeJMSEnqueueTime_;
 	}
 	
+	public SimpleProbe getMrtgProbeJMSBatchSize() {
+		return mrtgProbeJMSBatchSize_;
+	}
+	
+	public SimpleProbe getMrtgProbeJMSEndToEndDelay() {
+		return mrtgProbeJMSEndToEndDelay_;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.olat.core.util.event.GenericEventListener#event(org.olat.core.gui.control.Event)
 	 */
@@ -227,6 +258,19 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		final long msgId = ++latestSentMsgId;
 		final Integer nodeId = clusterConfig.getNodeId();
 		
+		if(batchEnabled) {
+			outboundQueue.offer(new OutboundEvent(new JMSWrapper(nodeId, msgId, ores, event), strict));
+		} else {
+			sendMessage(event, ores, strict, msgId, nodeId);
+		}
+
+		// store it for later access by the admin controller
+		String sentMsg = "sent msg: from node:" + nodeId + ", olat-id:" + msgId + ", ores:"	+ ores.getResourceableTypeName() + ":" + ores.getResourceableId()+", event:"+event;
+		addToSentScreen(sentMsg);
+		if (log.isDebugEnabled()) log.debug(sentMsg);
+	}
+	
+	private void sendMessage(final MultiUserEvent event, final OLATResourceable ores, boolean strict, final long msgId, final Integer nodeId) {
 		jmsExecutor.execute(new Runnable() {
 			@Override
 			public void run() {
@@ -254,11 +298,70 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 				numOfSentMessages++;
 			}
 		});
-
-		// store it for later access by the admin controller
-		String sentMsg = "sent msg: from node:" + nodeId + ", olat-id:" + msgId + ", ores:"	+ ores.getResourceableTypeName() + ":" + ores.getResourceableId()+", event:"+event;
-		addToSentScreen(sentMsg);
-		if (log.isDebugEnabled()) log.debug(sentMsg);
+	}
+	
+	/**
+	 * Loop of the batch sender thread: wait for an event, collect the
+	 * events fired during the batch window, coalesce them and send them
+	 * in one message.
+	 */
+	private void sendBatches() {
+		List<OutboundEvent> batch = new ArrayList<>(maxBatchSize);
+		while(isClusterInfoEventThreadRunning) {
+			try {
+				OutboundEvent first = outboundQueue.poll(sendInterval, TimeUnit.MILLISECONDS);
+				if(first == null) {
+					continue;
+				}
+				
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindow);
+				while(batch.size() < maxBatchSize) {
+					long remaining = deadline - System.nanoTime();
+					OutboundEvent next = remaining > 0 ? outboundQueue.poll(remaining, TimeUnit.NANOSECONDS) : outboundQueue.poll();
+					if(next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				sendBatch(batch);
+			} catch (InterruptedException e) {
+				log.debug("ClusterEventBus batch sender interrupted");
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				log.error("Cannot send JMS message", e);
+				System.err.println("###############################################################################################");
+				System.err.println("### ClusterEventBus: communication error with JMS - cannot send messages!!!" + e);
+				System.err.println("###############################################################################################");
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+	
+	private void sendBatch(List<OutboundEvent> batch) throws Exception {
+		boolean strict = false;
+		List<JMSWrapper> wrappers = new ArrayList<>(batch.size());
+		for(OutboundEvent outboundEvent:batch) {
+			wrappers.add(outboundEvent.wrapper);
+			strict |= outboundEvent.strict;
+		}
+		
+		List<JMSWrapper> coalesced = ClusterEventBatch.coalesce(wrappers);
+		BytesMessage message = sessionProducer.createBytesMessage();
+		message.setIntProperty(BATCH_PROPERTY, ClusterEventBatch.VERSION);
+		message.writeBytes(ClusterEventBatch.write(clusterConfig.getNodeId(), coalesced));
+		if(strict) {
+			producer.send(message);
+		} else {
+			producer.send(message, DeliveryMode.NON_PERSISTENT, 3, 5000);
+		}
+		
+		numOfSentMessages += coalesced.size();
+		numOfCoalescedEvents += wrappers.size() - coalesced.size();
+		numOfSentBatches++;
+		mrtgProbeJMSBatchSize_.addMeasurement(coalesced.size());
 	}
 
 	/**
@@ -309,44 +412,31 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 			lastOnMessageFinishTime_ = -1;
 		}
 
-		ObjectMessage om = (ObjectMessage) message;
 		try {
 			// unpack
-			JMSWrapper jmsWrapper = (JMSWrapper) om.getObject();
-			Integer nodeId = jmsWrapper.getNodeId();			
-			MultiUserEvent event = jmsWrapper.getMultiUserEvent();
-			OLATResourceable ores = jmsWrapper.getOres();
-			boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
-
-			String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
-			nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
-			", event:"+event+"}";
-
-			// stats
-			final long jmsTimestamp = om.getJMSTimestamp();
-			if (jmsTimestamp!=0) {
-				final long deliveryTime = receiveTime - jmsTimestamp;
-				if (deliveryTime>1500) {
-					// then issue a log statement
-					log.warn("message received with long delivery time (longer than 1500ms: {}): {}", deliveryTime, recMsg);
+			final long jmsTimestamp = message.getJMSTimestamp();
+			if(message instanceof BytesMessage) {
+				BytesMessage bm = (BytesMessage) message;
+				byte[] data = new byte[(int)bm.getBodyLength()];
+				bm.readBytes(data);
+				List<JMSWrapper> jmsWrappers = ClusterEventBatch.read(data);
+				for(JMSWrapper jmsWrapper:jmsWrappers) {
+					serveEvent(jmsWrapper, jmsTimestamp, receiveTime);
 				}
-				mrtgProbeJMSDeliveryTime_.addMeasurement(deliveryTime);
+				if(!jmsWrappers.isEmpty()) {
+					getNodeInfoFor(jmsWrappers.get(0).getNodeId()).addBatch(jmsWrappers.size());
+				}
+			} else {
+				JMSWrapper jmsWrapper = (JMSWrapper)((ObjectMessage) message).getObject();
+				serveEvent(jmsWrapper, jmsTimestamp, receiveTime);
 			}
 			
-			addToReceivedScreen(recMsg);
-			if (log.isDebugEnabled()) log.debug(recMsg);
-			
-			// message with destination and source both having this vm are ignored here, since they were already 
-			// "inline routed" when having been sent (direct call within the vm).
-			// distribute the unmarshalled event to all JVM wide listeners for this channel.
-			doFire(event, ores);
-			
 			// stats
 			final long doneTime = System.currentTimeMillis();
 			final long processingTime = doneTime - receiveTime;
 			if (processingTime>500) {
 				// then issue a log statement
-				log.warn("message received with long processing time (longer than 500ms: {}): {}", processingTime, recMsg);
+				log.warn("message received with long processing time (longer than 500ms: {})", processingTime);
 			}
 			mrtgProbeJMSProcessingTime_.addMeasurement(processingTime);
 		} catch (Error er) {
@@ -365,6 +455,41 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		}
 	}
 
+	private void serveEvent(JMSWrapper jmsWrapper, long jmsTimestamp, long receiveTime) {
+		Integer nodeId = jmsWrapper.getNodeId();			
+		MultiUserEvent event = jmsWrapper.getMultiUserEvent();
+		OLATResourceable ores = jmsWrapper.getOres();
+		boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
+
+		String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
+		nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
+		", event:"+event+"}";
+
+		// stats
+		if (jmsTimestamp!=0) {
+			final long deliveryTime = receiveTime - jmsTimestamp;
+			if (deliveryTime>1500) {
+				// then issue a log statement
+				log.warn("message received with long delivery time (longer than 1500ms: {}): {}", deliveryTime, recMsg);
+			}
+			mrtgProbeJMSDeliveryTime_.addMeasurement(deliveryTime);
+		}
+		if (jmsWrapper.getCreated() > 0) {
+			// time between the fire of the event and its reception, batch window included
+			final long endToEndDelay = Math.max(0l, receiveTime - jmsWrapper.getCreated());
+			mrtgProbeJMSEndToEndDelay_.addMeasurement(endToEndDelay);
+			getNodeInfoFor(nodeId).addEndToEndDelay(endToEndDelay);
+		}
+		
+		addToReceivedScreen(recMsg);
+		if (log.isDebugEnabled()) log.debug(recMsg);
+		
+		// message with destination and source both having this vm are ignored here, since they were already 
+		// "inline routed" when having been sent (direct call within the vm).
+		// distribute the unmarshalled event to all JVM wide listeners for this channel.
+		doFire(event, ores);
+	}
+
 	private NodeInfo getNodeInfoFor(Integer nodeId) {
 		synchronized (nodeInfos) {//cluster_ok node info is per vm only
 			NodeInfo f = nodeInfos.get(nodeId);
@@ -402,20 +527,45 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		return latestSentMsgId;
 	}
 	
+	/**
+	 * [used by spring to auto export mbean data]
+	 * 
+	 * @return the number of batches sent since startup of this java vm
+	 */
+	public long getNumOfSentBatches() {
+		return numOfSentBatches;
+	}
+	
+	/**
+	 * [used by spring to auto export mbean data]
+	 * 
+	 * @return the number of events not sent because they are duplicates
+	 */
+	public long getNumOfCoalescedEvents() {
+		return numOfCoalescedEvents;
+	}
+	
 	Map<Integer, NodeInfo> getNodeInfos() {
 		return nodeInfos;
 	}
 	
 	List<PerfItem> getPerfItems() {
-		List<PerfItem> l = new ArrayList<>(2);
+		List<PerfItem> l = new ArrayList<>(5);
 		l.add(new PerfItem("Cluster Events Sent", -1, -1, 1, -1, -1, -1, -1, -1, -1, -1, -1, msgsSentCount));
 		l.add(new PerfItem("Cluster Events Received",  -1, -1, 1, -1, -1, -1, -1,  -1, -1, -1, -1, msgsReceivedCount));
+		l.add(new PerfItem("Cluster Events Coalesced",  -1, -1, 1, -1, -1, -1, -1,  -1, -1, -1, -1, numOfCoalescedEvents));
+		l.add(new PerfItem("Cluster Event Batch Size (events)", -1, mrtgProbeJMSBatchSize_.getMax(), -1, mrtgProbeJMSBatchSize_.getAvg(),
+				-1, -1, -1, -1, -1, -1, -1, mrtgProbeJMSBatchSize_.getNum()));
+		l.add(new PerfItem("Cluster Event End-to-End Delay (ms)", -1, mrtgProbeJMSEndToEndDelay_.getMax(), -1, mrtgProbeJMSEndToEndDelay_.getAvg(),
+				-1, -1, -1, -1, -1, -1, -1, mrtgProbeJMSEndToEndDelay_.getNum()));
 		return l;
 	}
 	
 	void resetStats() {
 		msgsSentCount = 0;
 		msgsReceivedCount = 0;
+		mrtgProbeJMSBatchSize_.reset();
+		mrtgProbeJMSEndToEndDelay_.reset();
 	}
 	
 	private void addToSentScreen(String msg) {
@@ -467,15 +617,42 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		log.info("ClusterEventBus: Set stop flag for ClusterInfoEvent-Thread.");
 		isClusterInfoEventThreadRunning = false;
 		try {
-			jmsExecutor.shutdownNow();
+			if(jmsExecutor != null) {
+				jmsExecutor.shutdownNow();
+			}
+			if(batchSender != null) {
+				batchSender.interrupt();
+				batchSender.join(1000);
+				flushBatches();
+			}
 			sessionProducer.close();
 			sessionConsumer.close();
 			connection.close();
 			log.info("ClusterEventBus stopped");
+		} catch (InterruptedException e) {
+			log.warn("Interrupted while stopping the ClusterEventBus");
+			Thread.currentThread().interrupt();
 		} catch (JMSException e) {
 			log.warn("Exception in stop ClusteredSearchProvider, ",e);
 		}
 	}
+	
+	/**
+	 * Send the events still in the queue after the sender thread stopped.
+	 */
+	private void flushBatches() {
+		List<OutboundEvent> batch = new ArrayList<>();
+		outboundQueue.drainTo(batch);
+		int size = Math.max(1, maxBatchSize);
+		for(int i=0; i<batch.size(); i+=size) {
+			try {
+				sendBatch(batch.subList(i, Math.min(batch.size(), i + size)));
+			} catch (Exception e) {
+				log.error("Cannot send the last events before stop", e);
+				break;
+			}
+		}
+	}
 
 	public ClusterConfig getClusterConfig() {
 		return clusterConfig;
@@ -495,6 +672,28 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		this.jmsMsgDelayLimit = jmsMsgDelayLimit;
 	}
 
+	/**
+	 * [used by spring]
+	 */
+	public void setBatchEnabled(boolean batchEnabled) {
+		this.batchEnabled = batchEnabled;
+	}
+
+	/**
+	 * [used by spring]
+	 * @param batchWindow The time in milliseconds the events are collected before being sent
+	 */
+	public void setBatchWindow(long batchWindow) {
+		this.batchWindow = batchWindow;
+	}
+
+	/**
+	 * [used by spring]
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
 	/**
 	 * [used by spring]
 	 */
@@ -505,5 +704,16 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	public void setDestination(Topic destination) {
 		this.destination = destination;
 	}
+	
+	private static class OutboundEvent {
+		
+		private final JMSWrapper wrapper;
+		private final boolean strict;
+		
+		public OutboundEvent(JMSWrapper wrapper, boolean strict) {
+			this.wrapper = wrapper;
+			this.strict = strict;
+		}
+	}
 
 }
@@ -42,6 +42,8 @@ public class ClusterInfoEvent extends MultiUserEvent {
 	private long created;
 	private ClusterConfig config;
 	private final BusListenerInfo busListenerInfo;
+	private long numOfSentBatches;
+	private long avgBatchSize;
 	
 	ClusterInfoEvent(ClusterConfig config, BusListenerInfo busListenerInfo) {
 		super("clusterinfo");
@@ -49,6 +51,12 @@ public class ClusterInfoEvent extends MultiUserEvent {
 		this.busListenerInfo = busListenerInfo;
 		created = System.currentTimeMillis();
 	}
+	
+	ClusterInfoEvent(ClusterConfig config, BusListenerInfo busListenerInfo, long numOfSentBatches, long avgBatchSize) {
+		this(config, busListenerInfo);
+		this.numOfSentBatches = numOfSentBatches;
+		this.avgBatchSize = avgBatchSize;
+	}
 
 	/**
 	 * @return the timestamp (System.currentTimeMillis) when this message had been created
@@ -73,5 +81,19 @@ public class ClusterInfoEvent extends MultiUserEvent {
 		return busListenerInfo;
 	}
 	
+	/**
+	 * @return the number of batches sent by the node since its startup
+	 */
+	long getNumOfSentBatches() {
+		return numOfSentBatches;
+	}
+
+	/**
+	 * @return the average number of events in the batches sent by the node
+	 */
+	long getAvgBatchSize() {
+		return avgBatchSize;
+	}
+	
 	
 }
@@ -46,16 +46,30 @@ public class JMSWrapper implements Serializable {
 	private final MultiUserEvent event;
 	private final long msgId;
 	private final Integer nodeId;
+	private final long created;
 	
 	JMSWrapper(Integer nodeId, long msgId, OLATResourceable ores, MultiUserEvent event) {
+		this(nodeId, msgId, ores.getResourceableTypeName(), ores.getResourceableId(), event, System.currentTimeMillis());
+	}
+	
+	JMSWrapper(Integer nodeId, long msgId, String resType, Long resId, MultiUserEvent event, long created) {
 		// in order to make this class serializable, we extract the base types
 		// of the OLATResourceable.
 		// the MultiUserEvent is by definition serializable.		
 		this.event = event;
 		this.msgId = msgId;
 		this.nodeId = nodeId;
-		resId = ores.getResourceableId();
-		resType = ores.getResourceableTypeName();
+		this.resId = resId;
+		this.resType = resType;
+		this.created = created;
+	}
+	
+	Long getResId() {
+		return resId;
+	}
+	
+	String getResType() {
+		return resType;
 	}
 
 	public OLATResourceable getOres() {
@@ -81,6 +95,13 @@ public class JMSWrapper implements Serializable {
 	public Integer getNodeId() {
 		return nodeId;
 	}
+	
+	/**
+	 * @return The time (System.currentTimeMillis) the event was fired, 0 if unknown
+	 */
+	public long getCreated() {
+		return created;
+	}
 
 
 }
@@ -57,6 +57,19 @@ public class NodeInfo implements Serializable {
 
 	// the number of missed messages from this node
 	private long numOfMissedMsgs;
+	
+	// batches sent by this node, as reported by its last clusterinfoevent
+	private long numOfSentBatches;
+	private long avgSentBatchSize;
+	
+	// batches received from this node
+	private long numOfReceivedBatches;
+	private long numOfBatchedEvents;
+	
+	// delay between the fire of an event on this node and its reception here
+	private long numOfDelays;
+	private long sumOfDelays;
+	private long maxDelay;
 
 	NodeInfo(Integer nodeId) {
 		this.nodeId = nodeId;		
@@ -75,7 +88,28 @@ public class NodeInfo implements Serializable {
 	 */
 	public synchronized void update(ClusterInfoEvent cie) {//cluster_ok is per vm only
 		// rewrite the config to reflect config changes that might have happened in other nodes
-		config = cie.getConfig();		
+		config = cie.getConfig();
+		numOfSentBatches = cie.getNumOfSentBatches();
+		avgSentBatchSize = cie.getAvgBatchSize();
+	}
+	
+	/**
+	 * @param size The number of events in a batch received from this node
+	 */
+	public synchronized void addBatch(int size) {
+		numOfReceivedBatches++;
+		numOfBatchedEvents += size;
+	}
+	
+	/**
+	 * @param delay The end-to-end delay in milliseconds of an event received from this node
+	 */
+	public synchronized void addEndToEndDelay(long delay) {
+		numOfDelays++;
+		sumOfDelays += delay;
+		if(delay > maxDelay) {
+			maxDelay = delay;
+		}
 	}
 	
 	/**
@@ -124,6 +158,30 @@ public class NodeInfo implements Serializable {
 		return numOfMissedMsgs;
 	}
 	
+	public synchronized long getNumOfSentBatches() {
+		return numOfSentBatches;
+	}
+	
+	public synchronized long getAvgSentBatchSize() {
+		return avgSentBatchSize;
+	}
+	
+	public synchronized long getNumOfReceivedBatches() {
+		return numOfReceivedBatches;
+	}
+	
+	public synchronized long getAvgReceivedBatchSize() {
+		return numOfReceivedBatches == 0 ? 0 : numOfBatchedEvents / numOfReceivedBatches;
+	}
+	
+	public synchronized long getAvgEndToEndDelay() {
+		return numOfDelays == 0 ? 0 : sumOfDelays / numOfDelays;
+	}
+	
+	public synchronized long getMaxEndToEndDelay() {
+		return maxDelay;
+	}
+	
 	public ClusterConfig getConfig() {
 		return config;
 	}
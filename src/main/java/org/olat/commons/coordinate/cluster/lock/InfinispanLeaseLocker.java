@@ -0,0 +1,133 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.lock;
+
+import org.apache.logging.log4j.Logger;
+import org.infinispan.Cache;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.coordinate.AbstractLeaseLocker;
+import org.olat.core.util.coordinate.LeaseLock;
+
+/**
+ * Lease locker backed by an Infinispan cache. The lock is acquired with
+ * the atomic putIfAbsent and replace operations of the cache, the waiting
+ * threads poll with an exponential back-off. A released lock stays in the cache
+ * as marker to keep the fencing tokens increasing.<br>
+ * The cache must be replicated synchronously across the nodes to lock
+ * the resources of the whole cluster.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class InfinispanLeaseLocker extends AbstractLeaseLocker {
+	
+	private static final Logger log = Tracing.createLoggerFor(InfinispanLeaseLocker.class);
+	
+	private static final long MIN_BACKOFF = 1l;
+	private static final long MAX_BACKOFF = 50l;
+	
+	private final String nodeId;
+	private final Cache<String,LeaseLock> leases;
+	
+	public InfinispanLeaseLocker(String nodeId, Cache<String,LeaseLock> leases) {
+		this.nodeId = nodeId;
+		this.leases = leases;
+	}
+	
+	public boolean isClustered() {
+		return leases.getCacheConfiguration().clustering().cacheMode().isClustered();
+	}
+
+	@Override
+	public LeaseLock tryLock(String resource, long leaseTime, long timeout) {
+		final long start = System.currentTimeMillis();
+		final long deadline = timeout < 0l ? Long.MAX_VALUE : start + timeout;
+		final String owner = getOwner(nodeId);
+		boolean contention = false;
+		long backoff = MIN_BACKOFF;
+		
+		for(;;) {
+			long now = System.currentTimeMillis();
+			LeaseLock current = leases.get(resource);
+			if(current == null) {
+				LeaseLock lease = new LeaseLock(resource, owner, 1l, now + leaseTime);
+				if(leases.putIfAbsent(resource, lease) == null) {
+					acquired(resource, now - start, contention);
+					return lease;
+				}
+			} else if(current.isReleased() || current.isExpired(now)) {
+				LeaseLock lease = new LeaseLock(resource, owner, current.getToken() + 1, now + leaseTime);
+				if(leases.replace(resource, current, lease)) {
+					if(!current.isReleased()) {
+						expired(resource);
+						log.warn("Lease expired and taken over: {}", current);
+					}
+					acquired(resource, now - start, contention);
+					return lease;
+				}
+			} else {
+				contention = true;
+			}
+			
+			long remaining = deadline - now;
+			if(remaining <= 0) {
+				timeout(resource, now - start);
+				return null;
+			}
+			
+			try {
+				Thread.sleep(Math.min(backoff, remaining));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				timeout(resource, System.currentTimeMillis() - start);
+				return null;
+			}
+			backoff = Math.min(backoff * 2, MAX_BACKOFF);
+		}
+	}
+
+	@Override
+	public LeaseLock renew(LeaseLock lease, long leaseTime) {
+		LeaseLock current = leases.get(lease.getResource());
+		// still valid if nobody else took the lock after expiration
+		if(lease.isSameHolder(current)) {
+			LeaseLock renewed = current.renew(System.currentTimeMillis() + leaseTime);
+			if(leases.replace(lease.getResource(), current, renewed)) {
+				return renewed;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean isHeld(LeaseLock lease) {
+		LeaseLock current = leases.get(lease.getResource());
+		return lease.isSameHolder(current) && !current.isExpired(System.currentTimeMillis());
+	}
+
+	@Override
+	public void unlock(LeaseLock lease) {
+		LeaseLock current = leases.get(lease.getResource());
+		if(lease.isSameHolder(current) && !leases.replace(lease.getResource(), current, current.release())) {
+			log.debug("Lease changed during release: {}", lease);
+		}
+	}
+}
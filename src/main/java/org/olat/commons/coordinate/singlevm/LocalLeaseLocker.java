@@ -0,0 +1,194 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.singlevm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.olat.core.util.coordinate.AbstractLeaseLocker;
+import org.olat.core.util.coordinate.LeaseLock;
+
+/**
+ * In-memory lease locker for a single VM. The waiting threads are
+ * parked on the monitor of the resource and woken up by the release
+ * of the lock, or at the end of the lease. The lease of a thread which
+ * is still alive doesn't expire: in the same VM, only the lock of a
+ * dead thread can be taken over.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LocalLeaseLocker extends AbstractLeaseLocker {
+	
+	/**
+	 * Interval to check if the holder of an expired lease is still alive.
+	 */
+	private static final long ALIVE_CHECK_INTERVAL = 1000l;
+	
+	private final String nodeId;
+	private final AtomicLong tokens = new AtomicLong();
+	private final Map<String,Slot> slots = new ConcurrentHashMap<>();
+	
+	public LocalLeaseLocker(String nodeId) {
+		this.nodeId = nodeId;
+	}
+	
+	/**
+	 * @return The number of resources currently locked or with waiting threads
+	 */
+	public int size() {
+		return slots.size();
+	}
+
+	@Override
+	public LeaseLock tryLock(String resource, long leaseTime, long timeout) {
+		final long start = System.currentTimeMillis();
+		final long deadline = timeout < 0l ? Long.MAX_VALUE : start + timeout;
+		final String owner = getOwner(nodeId);
+		boolean contention = false;
+
+		for(;;) {
+			Slot slot = slots.computeIfAbsent(resource, Slot::new);
+			synchronized(slot) {
+				if(slot.removed) {
+					continue;// the slot was released and removed in the meantime
+				}
+				
+				for(;;) {
+					long now = System.currentTimeMillis();
+					LeaseLock current = slot.lease;
+					if(current == null || current.isReleased() || (current.isExpired(now) && !slot.isHolderAlive())) {
+						if(current != null && !current.isReleased()) {
+							expired(resource);
+						}
+						slot.lease = new LeaseLock(resource, owner, tokens.incrementAndGet(), now + leaseTime);
+						slot.holder = Thread.currentThread();
+						acquired(resource, now - start, contention);
+						return slot.lease;
+					}
+					
+					contention = true;
+					long remaining = deadline - now;
+					if(remaining <= 0) {
+						timeout(resource, now - start);
+						removeIfUnused(slot);
+						return null;
+					}
+					
+					long expiresIn = current.getExpiresAt() - now;
+					if(expiresIn <= 0l) {
+						expiresIn = ALIVE_CHECK_INTERVAL;
+					}
+					slot.waiters++;
+					try {
+						slot.wait(Math.max(1l, Math.min(remaining, expiresIn)));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						timeout(resource, System.currentTimeMillis() - start);
+						return null;
+					} finally {
+						slot.waiters--;
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public LeaseLock renew(LeaseLock lease, long leaseTime) {
+		Slot slot = slots.get(lease.getResource());
+		if(slot == null) {
+			return null;
+		}
+		
+		synchronized(slot) {
+			// still valid if nobody else took the lock after expiration
+			if(lease.isSameHolder(slot.lease)) {
+				slot.lease = slot.lease.renew(System.currentTimeMillis() + leaseTime);
+				return slot.lease;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean isHeld(LeaseLock lease) {
+		Slot slot = slots.get(lease.getResource());
+		if(slot == null) {
+			return false;
+		}
+		
+		synchronized(slot) {
+			return lease.isSameHolder(slot.lease)
+					&& (!slot.lease.isExpired(System.currentTimeMillis()) || slot.isHolderAlive());
+		}
+	}
+
+	@Override
+	public void unlock(LeaseLock lease) {
+		Slot slot = slots.get(lease.getResource());
+		if(slot == null) {
+			return;
+		}
+		
+		synchronized(slot) {
+			if(lease.isSameHolder(slot.lease)) {
+				slot.lease = slot.lease.release();
+				slot.holder = null;
+				if(slot.waiters > 0) {
+					slot.notifyAll();
+				} else {
+					removeIfUnused(slot);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Must be called in a block synchronized on the slot.
+	 * 
+	 * @param slot The slot
+	 */
+	private void removeIfUnused(Slot slot) {
+		if(slot.waiters == 0 && (slot.lease == null || slot.lease.isReleased())) {
+			slot.removed = true;
+			slots.remove(slot.resource, slot);
+		}
+	}
+	
+	private static class Slot {
+		
+		private final String resource;
+		private LeaseLock lease;
+		private Thread holder;
+		private int waiters;
+		private boolean removed;
+		
+		public Slot(String resource) {
+			this.resource = resource;
+		}
+		
+		private boolean isHolderAlive() {
+			return holder != null && holder.isAlive();
+		}
+	}
+}
@@ -94,6 +94,11 @@ class StickyMessageComponent extends AbstractComponent {
 		return (delegateComponent != null && delegateComponent.isDirty()) || super.isDirty();
 	}
 
+	@Override
+	public boolean isDirtyPolling() {
+		return true;
+	}
+
 	@Override
 	protected void doDispatchRequest(UserRequest ureq) {
 		//
@@ -42,6 +42,7 @@ import org.olat.core.gui.translator.Translator;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.ZipUtil;
+import org.olat.core.util.io.ParallelZipOutputStream;
 import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
@@ -179,7 +180,7 @@ public class CmdDownloadZip implements FolderCommand {
 		
 		private void prepareZip(HttpServletResponse hres, List<String> selectedFiles) {
 			VFSRepositoryService vfsRepositoryService = CoreSpringFactory.getImpl(VFSRepositoryService.class);
-			try(ZipOutputStream zout = new ZipOutputStream(hres.getOutputStream())) {
+			try(ZipOutputStream zout = new ParallelZipOutputStream(hres.getOutputStream())) {
 				zout.setLevel(9);
 				
 				List<VFSItem> vfsFiles = new ArrayList<>();
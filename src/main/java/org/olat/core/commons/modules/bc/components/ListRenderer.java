@@ -31,7 +31,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.CoreSpringFactory;
@@ -233,8 +232,7 @@ public class ListRenderer {
 		String relPath = currentContainer.getRelPath();
 		Map<String,VFSMetadata> metadatas = Collections.emptyMap();
 		if(relPath != null) {
-			List<VFSMetadata> m = vfsRepositoryService.getChildren(relPath);
-			metadatas = m.stream().collect(Collectors.toMap(VFSMetadata::getFilename, v -> v, (u, v) -> u));
+			metadatas = vfsRepositoryService.getChildrenMetadataFor(currentContainer);
 		}
 		
 		for (int i = 0; i < children.size(); i++) {
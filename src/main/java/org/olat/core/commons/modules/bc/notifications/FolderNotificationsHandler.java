@@ -81,6 +81,11 @@ public class FolderNotificationsHandler implements NotificationsHandler {
 	private BusinessGroupService businessGroupService;
 	
 	
+	@Override
+	public boolean isSubscriberIndependent() {
+		return true;
+	}
+
 	@Override
 	public SubscriptionInfo createSubscriptionInfo(final Subscriber subscriber, Locale locale, Date compareDate) {
 		Publisher p = subscriber.getPublisher();
@@ -113,6 +113,15 @@ public interface DB {
 	 * Call this to rollback current changes.
 	 */
 	public void rollback();
+	
+	/**
+	 * Run the hook after the commit of the current transaction, or
+	 * immediately if there is no transaction. The hook is discarded
+	 * if the transaction is rolled back.
+	 * 
+	 * @param hook The hook
+	 */
+	public void afterCommit(Runnable hook);
   
 	/**
 	 * Statistics must be enabled first, when you want to use it. 
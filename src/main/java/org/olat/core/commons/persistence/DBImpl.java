@@ -29,7 +29,10 @@ package org.olat.core.commons.persistence;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Properties;
 
 import javax.persistence.Cache;
@@ -139,6 +142,7 @@ public class DBImpl implements DB, Destroyable {
 		private int commitCounter = 0;
 		
 		private EntityManager em;
+		private List<Runnable> afterCommitHooks;
 		
 		private ThreadLocalData() {
 		// don't let any other class instantiate ThreadLocalData.
@@ -232,6 +236,19 @@ public class DBImpl implements DB, Destroyable {
 		protected void resetCommitCounter() {
 			this.commitCounter = 0;
 		}
+		
+		protected void addAfterCommitHook(Runnable hook) {
+			if(afterCommitHooks == null) {
+				afterCommitHooks = new ArrayList<>(2);
+			}
+			afterCommitHooks.add(hook);
+		}
+		
+		protected List<Runnable> removeAfterCommitHooks() {
+			List<Runnable> hooks = afterCommitHooks;
+			afterCommitHooks = null;
+			return hooks;
+		}
 	}
 
 	private void setData(ThreadLocalData data) {
@@ -302,11 +319,14 @@ public class DBImpl implements DB, Destroyable {
 		//  in order to be robust for any similar situation, we check if the 
 		//  connection is open, otherwise we shouldn't worry about doing any commit/rollback anyway
 		EntityManager s = getData().getEntityManager(false);
+		List<Runnable> hooks = getData().removeAfterCommitHooks();
+		List<Runnable> committedHooks = null;
 		if(s != null) {
 			EntityTransaction trx = s.getTransaction();
 			if(trx.isActive()) {
 				try {
 					trx.commit();
+					committedHooks = hooks;
 				} catch (RollbackException ex) {
 					//possible if trx setRollbackonly
 					log.warn("Close session with transaction set with setRollbackOnly", ex);
@@ -318,6 +338,7 @@ public class DBImpl implements DB, Destroyable {
 			s.close();
 		}
 		data.remove();
+		runAfterCommitHooks(committedHooks);
 	}
   
 	private boolean contains(Object object) {
@@ -529,6 +550,7 @@ public class DBImpl implements DB, Destroyable {
 				if(trx != null) {
 					trx.commit();
 				}
+				runAfterCommitHooks(getData().removeAfterCommitHooks());
 
 				if (debug) log.debug("Commit DONE hasTransaction()=" + hasTransaction());
 			} else if(hasTransaction() && isError()) {
@@ -548,6 +570,7 @@ public class DBImpl implements DB, Destroyable {
 				log.warn("Caught Exception in DBImpl.commit.", e);
 			}
 			// Error when trying to commit
+			getData().removeAfterCommitHooks();
 			try {
 				if (hasTransaction()) {
 					EntityTransaction trx = getCurrentEntityManager().getTransaction();
@@ -580,6 +603,7 @@ public class DBImpl implements DB, Destroyable {
 	@Override
 	public void rollback() {
 		if (log.isDebugEnabled()) log.debug("rollback start...");
+		getData().removeAfterCommitHooks();
 		try {
 			// see closeSession() and OLAT-4318: more robustness with commit/rollback/close, therefore
 			// we check if the connection is open at this stage at all
@@ -602,6 +626,27 @@ public class DBImpl implements DB, Destroyable {
 		}		
 	}
 
+	@Override
+	public void afterCommit(Runnable hook) {
+		if(hasTransaction()) {
+			getData().addAfterCommitHook(hook);
+		} else {
+			runAfterCommitHooks(Collections.singletonList(hook));
+		}
+	}
+	
+	private void runAfterCommitHooks(List<Runnable> hooks) {
+		if(hooks == null) return;
+		
+		for(Runnable hook:hooks) {
+			try {
+				hook.run();
+			} catch (Exception e) {
+				log.error("Error in an after commit hook", e);
+			}
+		}
+	}
+
 	/**
 	 * Statistics must be enabled first, when you want to use it. 
 	 * @return Return Hibernates statistics object.
@@ -67,5 +67,18 @@ public interface NotificationsHandler {
    * @return
    */
 	public String getType();
+	
+	/**
+	 * The news of a subscriber independent handler are the same for all the
+	 * subscribers of a publisher, they only depend of the publisher, the locale
+	 * and the compare date. Every item has the date of its change. The
+	 * email digest computes them only once per publisher and locale and filters
+	 * the items by date for every subscriber.
+	 * 
+	 * @return true if the subscription info doesn't depend on the subscriber
+	 */
+	public default boolean isSubscriberIndependent() {
+		return false;
+	}
 }
 
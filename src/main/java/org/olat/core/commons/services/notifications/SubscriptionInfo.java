@@ -27,6 +27,7 @@
 package org.olat.core.commons.services.notifications;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -136,6 +137,26 @@ public class SubscriptionInfo {
 		this.customUrl = customUrl;
 	}
 
+	/**
+	 * Copy the subscription info for an other subscriber with only the items
+	 * changed after the compare date. The items without date are kept.
+	 * 
+	 * @param subscriberKey The key of the subscriber
+	 * @param compareDate The compare date
+	 * @return A new subscription info
+	 */
+	public SubscriptionInfo filter(Long subscriberKey, Date compareDate) {
+		List<SubscriptionListItem> filteredList = new ArrayList<>(subsList.size());
+		for(SubscriptionListItem item:subsList) {
+			if(item.getDate() == null || item.getDate().after(compareDate)) {
+				filteredList.add(item);
+			}
+		}
+		SubscriptionInfo filtered = new SubscriptionInfo(subscriberKey, type, title, filteredList);
+		filtered.setCustomUrl(customUrl);
+		return filtered;
+	}
+	
 	/**
 	 * @return The number of subscription list items, meaning the number of news
 	 *         items for this subscription
@@ -0,0 +1,174 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.notifications.manager;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.olat.core.commons.services.notifications.Publisher;
+import org.olat.core.commons.services.notifications.SubscriptionInfo;
+import org.olat.core.commons.services.notifications.ui.NotificationSubscriptionController;
+import org.olat.core.gui.translator.Translator;
+import org.olat.core.util.Util;
+
+/**
+ * The state of one run of the email digest: the news of the subscriber
+ * independent publishers computed once per locale, the translators and
+ * the statistics of the stages.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class EmailDigest {
+	
+	private final Date defaultCompareDate;
+	private final Map<NewsKey,SubscriptionInfo> publishersNews = new HashMap<>();
+	private final Map<Locale,Translator> translators = new HashMap<>();
+	
+	private int numOfPartitions;
+	private int numOfIdentities;
+	private int numOfEmails;
+	private int numOfHandlerCalls;
+	private int numOfSharedNews;
+	
+	private long subscribersTime;
+	private long newsTime;
+	private long mailTime;
+	
+	public EmailDigest(Date defaultCompareDate) {
+		this.defaultCompareDate = defaultCompareDate;
+	}
+	
+	/**
+	 * @return The oldest date the news are collected from
+	 */
+	public Date getDefaultCompareDate() {
+		return defaultCompareDate;
+	}
+	
+	/**
+	 * @param publisher The publisher
+	 * @param locale The locale
+	 * @param newsSupplier Compute the news since the default compare date if not already done
+	 * @return The news of the publisher
+	 */
+	public SubscriptionInfo getNews(Publisher publisher, Locale locale, Supplier<SubscriptionInfo> newsSupplier) {
+		NewsKey key = new NewsKey(publisher.getKey(), locale);
+		SubscriptionInfo news = publishersNews.get(key);
+		if(news == null) {
+			news = newsSupplier.get();
+			publishersNews.put(key, news);
+			numOfHandlerCalls++;
+		} else {
+			numOfSharedNews++;
+		}
+		return news;
+	}
+	
+	public Translator getTranslator(Locale locale) {
+		return translators.computeIfAbsent(locale, loc -> Util.createPackageTranslator(NotificationSubscriptionController.class, loc));
+	}
+	
+	public void incrementPartitions() {
+		numOfPartitions++;
+	}
+	
+	public void incrementIdentities(int identities) {
+		numOfIdentities += identities;
+	}
+	
+	public void incrementEmails() {
+		numOfEmails++;
+	}
+	
+	public void incrementHandlerCalls() {
+		numOfHandlerCalls++;
+	}
+	
+	public int getNumOfHandlerCalls() {
+		return numOfHandlerCalls;
+	}
+	
+	public int getNumOfSharedNews() {
+		return numOfSharedNews;
+	}
+	
+	public int getNumOfEmails() {
+		return numOfEmails;
+	}
+	
+	public void addSubscribersTime(long startNanos) {
+		subscribersTime += System.nanoTime() - startNanos;
+	}
+	
+	public void addNewsTime(long startNanos) {
+		newsTime += System.nanoTime() - startNanos;
+	}
+	
+	public void addMailTime(long startNanos) {
+		mailTime += System.nanoTime() - startNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "partitions: " + numOfPartitions
+				+ ", identities: " + numOfIdentities
+				+ ", emails: " + numOfEmails
+				+ ", handler calls: " + numOfHandlerCalls
+				+ ", shared news: " + numOfSharedNews
+				+ ", subscribers (ms): " + TimeUnit.NANOSECONDS.toMillis(subscribersTime)
+				+ ", news (ms): " + TimeUnit.NANOSECONDS.toMillis(newsTime)
+				+ ", mail (ms): " + TimeUnit.NANOSECONDS.toMillis(mailTime);
+	}
+	
+	private static class NewsKey {
+		
+		private final Long publisherKey;
+		private final Locale locale;
+		
+		public NewsKey(Long publisherKey, Locale locale) {
+			this.publisherKey = publisherKey;
+			this.locale = locale;
+		}
+
+		@Override
+		public int hashCode() {
+			return publisherKey.hashCode() + (locale == null ? 0 : locale.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof NewsKey) {
+				NewsKey key = (NewsKey)obj;
+				return publisherKey.equals(key.publisherKey)
+						&& (locale == null ? key.locale == null : locale.equals(key.locale));
+			}
+			return false;
+		}
+	}
+}
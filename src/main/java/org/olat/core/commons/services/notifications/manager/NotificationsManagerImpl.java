@@ -49,6 +49,7 @@ import javax.persistence.TypedQuery;
 
 import org.olat.NewControllerFactory;
 import org.olat.basesecurity.BaseSecurity;
+import org.olat.basesecurity.IdentityImpl;
 import org.olat.basesecurity.IdentityRef;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DB;
@@ -112,15 +113,18 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	private static final int PUB_STATE_NOT_OK = 1;
 	private static final int BATCH_SIZE = 500;
 	private static final String LATEST_EMAIL_USER_PROP = "noti_latest_email";
+	private static final long PARTITION_CLAIM_TIMEOUT = 30l * 60l * 1000l;
 	private static final SubscriptionInfo NOSUBSINFO = new NoSubscriptionInfo();
 
 	private final OLATResourceable oresMyself = OresHelper.lookupType(NotificationsManagerImpl.class);
 	private final OLATResourceable asyncSubscription = OresHelper.createOLATResourceableType("NotificationsManagerAsyncSub");
+	private final OLATResourceable digestOres = OresHelper.createOLATResourceableType("NotificationsEmailDigest");
 
 	private Map<String, NotificationsHandler> notificationHandlers;
 	
 	private List<String> notificationIntervals;
 	private String defaultNotificationInterval;
+	private int digestPartitions = 1;
 	private static final Map<String, Integer> INTERVAL_DEF_MAP = buildIntervalMap();
 	private Object lockObject = new Object();
 	
@@ -327,62 +331,187 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		return sis;
 	}
 	
+	/**
+	 * The identities are split in partitions by their keys. Every node with
+	 * the cron job claims the partitions one after the other until all are
+	 * done. The subscribers and the date of the latest email are loaded in
+	 * bulk. The news of the subscriber independent handlers are computed only
+	 * once per publisher and locale.
+	 */
 	@Override
 	public void notifyAllSubscribersByEmail() {
 		log.info(Tracing.M_AUDIT, "starting notification cronjob to send email");
 		WorkThreadInformations.setLongRunningTask("sendNotifications");
 		
-		int counter = 0;
-		int closeConnection = 0;
-		List<Identity> identities;
-		do {
-			identities = securityManager.loadVisibleIdentities(counter, BATCH_SIZE);
-			for(Identity identity:identities) {
-				Roles roles = securityManager.getRoles(identity);
-				if(roles.isGuestOnly()) {
-					continue;
-				}
+		long runStart = System.currentTimeMillis();
+		EmailDigest digest = new EmailDigest(getDefaultCompareDate());
+		for(Integer partition=claimPartition(runStart); partition != null; partition=claimPartition(runStart)) {
+			digest.incrementPartitions();
+			processPartition(partition.intValue(), digest);
+		}
+		
+		// done, purge last entry
+		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
+		log.info(Tracing.M_AUDIT, "end notification cronjob to send email in (ms) {}: {}", (System.currentTimeMillis() - runStart), digest);
+	}
 	
-				closeConnection++;
-				processSubscribersByEmail(identity);
-				if(closeConnection % 20 == 0) {
-					dbInstance.commitAndCloseSession();
+	/**
+	 * Claim the next partition which was not processed since the start of
+	 * this run. The partitions processed less than 30 minutes ago are
+	 * considered as done by an other node for the same run (the shortest
+	 * interval of notification is two hours).
+	 * 
+	 * @param runStart The start of the run
+	 * @return The partition or null if all are done
+	 */
+	private Integer claimPartition(long runStart) {
+		final int numOfPartitions = Math.max(1, digestPartitions);
+		final long claimLimit = Math.min(runStart, System.currentTimeMillis() - PARTITION_CLAIM_TIMEOUT);
+		Integer partition = coordinatorManager.getCoordinator().getSyncer().doInSync(digestOres, () -> {
+			for(int i=0; i<numOfPartitions; i++) {
+				String name = "partition." + i;
+				Property p = propertyManager.findProperty(null, null, digestOres, null, name);
+				if(p == null) {
+					p = propertyManager.createPropertyInstance(null, null, digestOres, null, name, null, Long.valueOf(System.currentTimeMillis()), null, null);
+					propertyManager.saveProperty(p);
+					return Integer.valueOf(i);
+				} else if(p.getLongValue() == null || p.getLongValue().longValue() < claimLimit) {
+					p.setLongValue(Long.valueOf(System.currentTimeMillis()));
+					propertyManager.updateProperty(p);
+					return Integer.valueOf(i);
 				}
 			}
-			counter += identities.size();
+			return null;
+		});
+		dbInstance.commitAndCloseSession();
+		return partition;
+	}
+	
+	private void processPartition(int partition, EmailDigest digest) {
+		int numOfPartitions = Math.max(1, digestPartitions);
+		log.info(Tracing.M_AUDIT, "Notification email partition {} / {}", partition, numOfPartitions);
+		
+		Long lastKey = Long.valueOf(-1l);
+		List<Identity> identities;
+		do {
+			identities = loadVisibleIdentities(lastKey, partition, numOfPartitions, BATCH_SIZE);
+			processSubscribersByEmail(identities, digest);
+			if(!identities.isEmpty()) {
+				lastKey = identities.get(identities.size() - 1).getKey();
+			}
+			digest.incrementIdentities(identities.size());
 			dbInstance.commitAndCloseSession();
 		} while(identities.size() == BATCH_SIZE);
+	}
+	
+	private List<Identity> loadVisibleIdentities(Long lastKey, int partition, int numOfPartitions, int maxResults) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select ident from ").append(IdentityImpl.class.getName()).append(" as ident")
+		  .append(" inner join fetch ident.user as user")
+		  .append(" where ident.status<").append(Identity.STATUS_VISIBLE_LIMIT).append(" and ident.key>:lastKey");
+		if(numOfPartitions > 1) {
+			sb.append(" and mod(ident.key, :numOfPartitions)=:partition");
+		}
+		sb.append(" order by ident.key");
 		
-		// done, purge last entry
-		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
-		log.info(Tracing.M_AUDIT, "end notification cronjob to send email");
+		TypedQuery<Identity> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Identity.class)
+				.setParameter("lastKey", lastKey)
+				.setFirstResult(0)
+				.setMaxResults(maxResults);
+		if(numOfPartitions > 1) {
+			query.setParameter("numOfPartitions", Long.valueOf(numOfPartitions))
+			     .setParameter("partition", Long.valueOf(partition));
+		}
+		return query.getResultList();
 	}
 	
-	private void processSubscribersByEmail(Identity ident) {
-		if(ident.getStatus().compareTo(Identity.STATUS_VISIBLE_LIMIT) >= 0) {
-			return;//send only to active user
+	/**
+	 * Load the enabled subscribers of a list of identities with their publisher
+	 * and their identity.
+	 * 
+	 * @param identityKeys The keys of the identities
+	 * @return A list of subscribers
+	 */
+	private List<Subscriber> getEnabledSubscribers(List<Long> identityKeys) {
+		if(identityKeys == null || identityKeys.isEmpty()) return Collections.emptyList();
+		
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select sub from notisub as sub")
+		  .append(" inner join fetch sub.publisher as publisher")
+		  .append(" inner join fetch sub.identity as ident")
+		  .append(" inner join fetch ident.user as user")
+		  .append(" where sub.identity.key in (:identityKeys) and sub.enabled=true");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Subscriber.class)
+				.setParameter("identityKeys", identityKeys)
+				.getResultList();
+	}
+	
+	private void processSubscribersByEmail(List<Identity> identities, EmailDigest digest) {
+		if(identities.isEmpty()) return;
+		
+		long startSubscribers = System.nanoTime();
+		Map<Long,Date> compareDates = new HashMap<>();
+		List<Identity> candidates = new ArrayList<>(identities.size());
+		for(Identity identity:identities) {
+			if(identity.getStatus().compareTo(Identity.STATUS_VISIBLE_LIMIT) >= 0) {
+				continue;//send only to active user
+			}
+			String userInterval = getUserIntervalOrDefault(identity);
+			if(!"never".equals(userInterval)) {
+				compareDates.put(identity.getKey(), getCompareDateFromInterval(userInterval));
+				candidates.add(identity);
+			}
 		}
 		
-		String userInterval = getUserIntervalOrDefault(ident);
-		if("never".equals(userInterval)) {
-			return;
+		Map<Long,Property> latestEmailProperties = new HashMap<>();
+		List<Property> properties = propertyManager.findProperties(candidates, null, null, LATEST_EMAIL_USER_PROP);
+		for(Property property:properties) {
+			latestEmailProperties.put(property.getIdentity().getKey(), property);
 		}
-
-		long start = System.currentTimeMillis();
-		Date compareDate = getCompareDateFromInterval(userInterval);
-		Property p = propertyManager.findProperty(ident, null, null, null, LATEST_EMAIL_USER_PROP);
-		if(p != null) {
-		  	Date latestEmail = new Date(p.getLongValue());
-		  	if(latestEmail.after(compareDate)) {
-		  		return;//nothing to do
-		  	}
+		
+		List<Long> identityKeys = new ArrayList<>(candidates.size());
+		for(Identity candidate:candidates) {
+			Property p = latestEmailProperties.get(candidate.getKey());
+			if(p == null || p.getLongValue() == null
+					|| !new Date(p.getLongValue()).after(compareDates.get(candidate.getKey()))) {
+				identityKeys.add(candidate.getKey());
+			}
 		}
-
-		Date defaultCompareDate = getDefaultCompareDate();
-		List<Subscriber> subscribers = getSubscribers(ident, true);
-		if(subscribers.isEmpty()) {
-			return;
+		
+		Map<Long,List<Subscriber>> identityToSubscribers = new HashMap<>();
+		for(Subscriber subscriber:getEnabledSubscribers(identityKeys)) {
+			identityToSubscribers
+				.computeIfAbsent(subscriber.getIdentity().getKey(), key -> new ArrayList<>())
+				.add(subscriber);
 		}
+		digest.addSubscribersTime(startSubscribers);
+		
+		int count = 0;
+		for(Identity candidate:candidates) {
+			List<Subscriber> subscribers = identityToSubscribers.get(candidate.getKey());
+			if(subscribers == null || subscribers.isEmpty()) {
+				continue;
+			}
+			Roles roles = securityManager.getRoles(candidate);
+			if(roles.isGuestOnly()) {
+				continue;
+			}
+			
+			processSubscribersByEmail(candidate, subscribers, compareDates.get(candidate.getKey()),
+					latestEmailProperties.get(candidate.getKey()), digest);
+			if(++count % 20 == 0) {
+				dbInstance.commitAndCloseSession();
+			}
+		}
+	}
+	
+	private void processSubscribersByEmail(Identity ident, List<Subscriber> subscribers, Date compareDate,
+			Property latestEmailProperty, EmailDigest digest) {
+		long start = System.currentTimeMillis();
+		long startNews = System.nanoTime();
+		Date defaultCompareDate = digest.getDefaultCompareDate();
 		
 		String langPrefs = null;
 		if(ident.getUser() != null && ident.getUser().getPreferences() != null) {
@@ -390,70 +519,92 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		}
 		Locale locale = I18nManager.getInstance().getLocaleOrDefault(langPrefs);
 		
-		boolean veto = false;
-		Subscriber latestSub = null;
 		List<SubscriptionItem> items = new ArrayList<>();
 		List<Subscriber> subsToUpdate = new ArrayList<>();
 		for(Subscriber sub:subscribers) {
-			if(!sub.isEnabled()) {
-				continue;
-			}
-			
 			Date latestEmail = sub.getLatestEmailed();
-		
-			SubscriptionItem subsitem = null;
-			if (latestEmail == null || compareDate.after(latestEmail)){
+			if (latestEmail == null || compareDate.after(latestEmail)) {
 				// no notif. ever sent until now
-				if (latestEmail == null) {
-					latestEmail = defaultCompareDate;
-				}	else if (latestEmail.before(defaultCompareDate)) {
+				if (latestEmail == null || latestEmail.before(defaultCompareDate)) {
 					//no notification older than a month
 					latestEmail = defaultCompareDate;
 				}
-				subsitem = createSubscriptionItem(sub, locale, SubscriptionInfo.MIME_HTML, SubscriptionInfo.MIME_HTML, latestEmail);
-			}	else if(latestEmail != null && latestEmail.after(compareDate)) {
-				//already send an email within the user's settings interval
-				//veto = true;
-			}
-			if (subsitem != null) {
-				items.add(subsitem);
-				subsToUpdate.add(sub);
+				SubscriptionItem subsitem = createSubscriptionItem(sub, locale, latestEmail, digest);
+				if (subsitem != null) {
+					items.add(subsitem);
+					subsToUpdate.add(sub);
+				}
 			}
-			latestSub = sub;
 		}
+		digest.addNewsTime(startNews);
 		
-		Translator translator = Util.createPackageTranslator(NotificationSubscriptionController.class, locale);
-		notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
+		if(!items.isEmpty()) {
+			long startMail = System.nanoTime();
+			Translator translator = digest.getTranslator(locale);
+			if(notifySubscribersByEmail(ident, latestEmailProperty, items, subsToUpdate, translator, start)) {
+				digest.incrementEmails();
+			}
+			digest.addMailTime(startMail);
+		}
 	}
 	
-	private void notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
-		if(veto) {
-			if(latestSub != null) {
-				log.info(Tracing.M_AUDIT, latestSub.getIdentity().getKey() + " already received notification email within prefs interval");
+	/**
+	 * Create the subscription item, reuse the news of the publisher if
+	 * the handler is independent of the subscriber.
+	 */
+	private SubscriptionItem createSubscriptionItem(Subscriber subscriber, Locale locale, Date latestEmailed, EmailDigest digest) {
+		Publisher pub = subscriber.getPublisher();
+		NotificationsHandler notifHandler = getNotificationsHandler(pub);
+		if(notifHandler == null || !notifHandler.isSubscriberIndependent()) {
+			digest.incrementHandlerCalls();
+			return createSubscriptionItem(subscriber, locale, SubscriptionInfo.MIME_HTML, SubscriptionInfo.MIME_HTML, latestEmailed);
+		}
+		
+		try {
+			Date latestNews = pub.getLatestNewsDate();
+			if(!isPublisherValid(pub) || latestNews == null || !latestEmailed.before(latestNews)) {
+				return null;// no news, the handler will not find something
 			}
-		} else if (items.size() > 0) {
-			Identity curIdent = latestSub.getIdentity();
-			boolean sentOk = sendMailToUserAndUpdateSubscriber(curIdent, items, translator, subsToUpdate);
-			if (sentOk) {
-				Property p = propertyManager.findProperty(curIdent, null, null, null, LATEST_EMAIL_USER_PROP);
-				if(p == null) {
-					p = propertyManager.createUserPropertyInstance(curIdent, null, LATEST_EMAIL_USER_PROP, null, null, null, null);
-					p.setLongValue(new Date().getTime());
-					propertyManager.saveProperty(p);
-				} else {
-					p.setLongValue(new Date().getTime());
-					propertyManager.updateProperty(p);
-				}
-			  
-				StringBuilder mailLog = new StringBuilder();
-				mailLog.append("Notifications mailed for ").append(curIdent.getKey()).append(' ').append(items.size()).append(' ').append((System.currentTimeMillis() - start)).append("ms");
-				log.info(Tracing.M_AUDIT, mailLog.toString());
+			
+			SubscriptionInfo publisherNews = digest.getNews(pub, locale,
+					() -> notifHandler.createSubscriptionInfo(subscriber, locale, digest.getDefaultCompareDate()));
+			if(publisherNews == null || !publisherNews.hasNews()) {
+				return null;
+			}
+			SubscriptionInfo subsInfo = publisherNews.filter(subscriber.getKey(), latestEmailed);
+			if(!subsInfo.hasNews()) {
+				return null;
+			}
+			return createSubscriptionItem(subsInfo, subscriber, locale, SubscriptionInfo.MIME_HTML, SubscriptionInfo.MIME_HTML);
+		} catch (Exception e) {
+			log.error("Cannot generate a subscription item.", e);
+			return null;
+		}
+	}
+	
+	private boolean notifySubscribersByEmail(Identity curIdent, Property latestEmailProperty, List<SubscriptionItem> items,
+			List<Subscriber> subsToUpdate, Translator translator, long start) {
+		boolean sentOk = sendMailToUserAndUpdateSubscriber(curIdent, items, translator, subsToUpdate);
+		if (sentOk) {
+			Property p = latestEmailProperty;
+			if(p == null) {
+				p = propertyManager.createUserPropertyInstance(curIdent, null, LATEST_EMAIL_USER_PROP, null, null, null, null);
+				p.setLongValue(new Date().getTime());
+				propertyManager.saveProperty(p);
 			} else {
-				log.info(Tracing.M_AUDIT, "Error sending notification email to : " + curIdent.getKey());
+				p.setLongValue(new Date().getTime());
+				propertyManager.updateProperty(p);
 			}
+		  
+			StringBuilder mailLog = new StringBuilder();
+			mailLog.append("Notifications mailed for ").append(curIdent.getKey()).append(' ').append(items.size()).append(' ').append((System.currentTimeMillis() - start)).append("ms");
+			log.info(Tracing.M_AUDIT, mailLog.toString());
+		} else {
+			log.info(Tracing.M_AUDIT, "Error sending notification email to : " + curIdent.getKey());
 		}
 		//collecting the SubscriptionItem can potentially make a lot of DB calls
 		dbInstance.intermediateCommit();
+		return sentOk;
 	}
 
 	@Override
@@ -1462,6 +1613,14 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		}
 		this.defaultNotificationInterval = defaultNotificationInterval;
 	}
+	
+	/**
+	 * [used by Spring]
+	 * @param digestPartitions The number of partitions of the identities for the email digest
+	 */
+	public void setDigestPartitions(int digestPartitions) {
+		this.digestPartitions = digestPartitions;
+	}
 
 	@Override
 	public String getDefaultNotificationInterval() {
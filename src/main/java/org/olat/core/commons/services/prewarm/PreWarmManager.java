@@ -0,0 +1,57 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.prewarm;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.olat.core.commons.services.prewarm.model.PreWarmState;
+import org.olat.core.configuration.PreWarm;
+
+/**
+ * Orchestrate the pre-warms after the start of the instance: the order
+ * given by their dependencies, a limited number of pre-warms running in
+ * parallel, and a time and memory budget for every one of them.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface PreWarmManager {
+
+	/**
+	 * Start the pre-warms in a background thread. The method doesn't
+	 * wait for them.
+	 *
+	 * @param preWarms The list of pre-warms
+	 */
+	public void start(Collection<PreWarm> preWarms);
+
+	/**
+	 * @return true if the pre-warms were started and all the critical ones are done
+	 */
+	public boolean isReady();
+
+	/**
+	 * @return The state of every pre-warm of the last start
+	 */
+	public List<PreWarmState> getStates();
+
+}
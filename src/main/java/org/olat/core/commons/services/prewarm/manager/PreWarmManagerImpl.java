@@ -0,0 +1,285 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.prewarm.manager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.prewarm.PreWarmManager;
+import org.olat.core.commons.services.prewarm.model.PreWarmState;
+import org.olat.core.commons.services.prewarm.model.PreWarmStatus;
+import org.olat.core.configuration.PreWarm;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The pre-warms are started by a coordinator thread on a dedicated pool
+ * of threads. A pre-warm starts as soon as its dependencies are finished,
+ * whatever their outcome. The coordinator checks regularly the time and the
+ * memory allocated by the running pre-warms and interrupts the ones over their
+ * budget. The non-critical pre-warms are skipped if the heap is already
+ * too full.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class PreWarmManagerImpl implements PreWarmManager {
+
+	private static final Logger log = Tracing.createLoggerFor(PreWarmManagerImpl.class);
+
+	private static final long CHECK_INTERVAL = 200;
+
+	@Value("${prewarm.parallelism:2}")
+	private int parallelism;
+	@Value("${prewarm.time.budget:600000}")
+	private long defaultTimeBudget;
+	@Value("${prewarm.memory.budget:0}")
+	private long defaultMemoryBudget;
+	@Value("${prewarm.max.heap.usage:85}")
+	private int maxHeapUsage;
+
+	@Autowired
+	private DB dbInstance;
+
+	private volatile boolean started;
+	private volatile List<PreWarmState> states = Collections.emptyList();
+
+	@Override
+	public synchronized void start(Collection<PreWarm> preWarms) {
+		for(PreWarmState state:states) {
+			if(!state.isFinished()) {
+				log.warn("Pre-warm already running");
+				return;
+			}
+		}
+
+		List<PreWarmState> newStates = createStates(preWarms);
+		states = Collections.unmodifiableList(newStates);
+		started = true;
+		Thread coordinator = new Thread(() -> coordinate(newStates), "PreWarm-Coordinator");
+		coordinator.setDaemon(true);
+		coordinator.start();
+	}
+
+	@Override
+	public boolean isReady() {
+		if(!started) {
+			return false;
+		}
+		for(PreWarmState state:states) {
+			if(state.isCritical() && !state.isFinished()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public List<PreWarmState> getStates() {
+		return states;
+	}
+
+	private List<PreWarmState> createStates(Collection<PreWarm> preWarms) {
+		Map<Class<?>, PreWarmState> classToStates = new HashMap<>();
+		List<PreWarmState> newStates = new ArrayList<>(preWarms.size());
+		for(PreWarm preWarm:preWarms) {
+			Class<?> userClass = ClassUtils.getUserClass(preWarm);
+			long timeBudget = preWarm.getTimeBudget() > 0 ? preWarm.getTimeBudget() : defaultTimeBudget;
+			long memoryBudget = preWarm.getMemoryBudget() > 0 ? preWarm.getMemoryBudget() : defaultMemoryBudget;
+			PreWarmState state = new PreWarmState(userClass.getSimpleName(), preWarm, timeBudget, memoryBudget);
+			classToStates.put(userClass, state);
+			newStates.add(state);
+		}
+
+		for(PreWarmState state:newStates) {
+			for(Class<? extends PreWarm> dependency:state.getPreWarm().getDependencies()) {
+				PreWarmState dependencyState = classToStates.get(dependency);
+				if(dependencyState == null) {
+					log.warn("Pre-warm {} depends on {} which is not available", state.getName(), dependency.getSimpleName());
+				} else {
+					state.getDependencies().add(dependencyState);
+				}
+			}
+		}
+		// start the critical ones first
+		newStates.sort((s1, s2) -> Boolean.compare(s2.isCritical(), s1.isCritical()));
+		return newStates;
+	}
+
+	private void coordinate(List<PreWarmState> preWarmStates) {
+		long start = System.nanoTime();
+		int poolSize = Math.max(1, parallelism);
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(poolSize, r -> {
+			Thread thread = new Thread(r, "PreWarm-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		BlockingQueue<PreWarmState> finished = new LinkedBlockingQueue<>();
+		List<PreWarmState> pending = new ArrayList<>(preWarmStates);
+		Map<PreWarmState,Future<?>> running = new HashMap<>();
+		try {
+			while(!pending.isEmpty() || !running.isEmpty()) {
+				running.keySet().removeIf(PreWarmState::isFinished);
+				checkBudgets(running);
+				startPending(pending, running, workers, finished);
+
+				if(running.isEmpty() && !pending.isEmpty()) {
+					if(pending.stream().noneMatch(this::isStartable)) {
+						// nothing can start, the remaining pre-warms wait on each other
+						for(PreWarmState state:pending) {
+							state.setMessage("Cycle in dependencies");
+							state.changeStatus(PreWarmStatus.waiting, PreWarmStatus.skipped);
+							log.error("Pre-warm {} skipped, cycle in dependencies", state.getName());
+						}
+						pending.clear();
+					}
+				} else {
+					finished.poll(CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+				}
+			}
+		} catch (InterruptedException e) {
+			log.warn("Pre-warm coordinator interrupted");
+			Thread.currentThread().interrupt();
+		} finally {
+			workers.shutdownNow();
+		}
+
+		log.info("Pre-warm done in (ms): {} {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), preWarmStates);
+	}
+
+	private void startPending(List<PreWarmState> pending, Map<PreWarmState,Future<?>> running,
+			ExecutorService workers, BlockingQueue<PreWarmState> finished) {
+		int maxRunning = Math.max(1, parallelism);
+		for(Iterator<PreWarmState> it=pending.iterator(); it.hasNext() && running.size() < maxRunning; ) {
+			PreWarmState state = it.next();
+			if(!isStartable(state)) {
+				continue;
+			}
+
+			it.remove();
+			if(!state.isCritical() && getHeapUsage() > maxHeapUsage) {
+				state.setMessage("Not enough free memory");
+				state.changeStatus(PreWarmStatus.waiting, PreWarmStatus.skipped);
+				log.warn("Pre-warm {} skipped, heap usage over {}%", state.getName(), maxHeapUsage);
+			} else {
+				running.put(state, workers.submit(() -> run(state, finished)));
+			}
+		}
+	}
+
+	private boolean isStartable(PreWarmState state) {
+		for(PreWarmState dependency:state.getDependencies()) {
+			if(!dependency.isFinished()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void checkBudgets(Map<PreWarmState,Future<?>> running) {
+		for(Map.Entry<PreWarmState,Future<?>> entry:running.entrySet()) {
+			PreWarmState state = entry.getKey();
+			if(state.getStatus() != PreWarmStatus.running) {
+				continue;
+			}
+
+			updateAllocatedBytes(state);
+			if(state.getTimeBudget() > 0 && state.getDuration() > state.getTimeBudget()) {
+				if(state.changeStatus(PreWarmStatus.running, PreWarmStatus.timeout)) {
+					entry.getValue().cancel(true);
+					log.warn("Pre-warm {} interrupted after {}ms", state.getName(), state.getDuration());
+				}
+			} else if(state.getMemoryBudget() > 0 && state.getAllocatedBytes() > state.getMemoryBudget()) {
+				if(state.changeStatus(PreWarmStatus.running, PreWarmStatus.overBudget)) {
+					entry.getValue().cancel(true);
+					log.warn("Pre-warm {} interrupted after allocating {} bytes", state.getName(), state.getAllocatedBytes());
+				}
+			}
+		}
+	}
+
+	private void run(PreWarmState state, BlockingQueue<PreWarmState> finished) {
+		state.setThreadId(Thread.currentThread().getId());
+		state.setStartAllocatedBytes(getThreadAllocatedBytes(state.getThreadId()));
+		state.setStartNanos(System.nanoTime());
+		state.changeStatus(PreWarmStatus.waiting, PreWarmStatus.running);
+		try {
+			state.getPreWarm().run();
+			dbInstance.commitAndCloseSession();
+			state.changeStatus(PreWarmStatus.running, PreWarmStatus.done);
+		} catch (Throwable e) {
+			dbInstance.rollbackAndCloseSession();
+			state.setMessage(e.getMessage());
+			state.changeStatus(PreWarmStatus.running, PreWarmStatus.failed);
+			log.error("Pre-warm {} failed", state.getName(), e);
+		} finally {
+			updateAllocatedBytes(state);
+			state.setThreadId(-1l);
+			finished.offer(state);
+		}
+	}
+
+	private void updateAllocatedBytes(PreWarmState state) {
+		long threadId = state.getThreadId();
+		if(threadId >= 0) {
+			long allocated = getThreadAllocatedBytes(threadId);
+			if(allocated >= 0) {
+				state.setAllocatedBytes(allocated - state.getStartAllocatedBytes());
+			}
+		}
+	}
+
+	private static long getThreadAllocatedBytes(long threadId) {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(threadId);
+		}
+		return -1l;
+	}
+
+	private static long getHeapUsage() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		return (used * 100) / runtime.maxMemory();
+	}
+}
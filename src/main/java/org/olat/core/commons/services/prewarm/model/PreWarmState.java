@@ -0,0 +1,172 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.prewarm.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.olat.core.configuration.PreWarm;
+
+/**
+ * The state of a pre-warm during and after its run.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class PreWarmState {
+
+	private final String name;
+	private final PreWarm preWarm;
+	private final boolean critical;
+	private final long timeBudget;
+	private final long memoryBudget;
+	private final List<PreWarmState> dependencies = new ArrayList<>();
+
+	private final AtomicReference<PreWarmStatus> status = new AtomicReference<>(PreWarmStatus.waiting);
+	private volatile long startNanos;
+	private volatile long endNanos;
+	private volatile long threadId = -1l;
+	private volatile long startAllocatedBytes;
+	private volatile long allocatedBytes;
+	private volatile String message;
+
+	public PreWarmState(String name, PreWarm preWarm, long timeBudget, long memoryBudget) {
+		this.name = name;
+		this.preWarm = preWarm;
+		this.critical = preWarm.isCritical();
+		this.timeBudget = timeBudget;
+		this.memoryBudget = memoryBudget;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public PreWarm getPreWarm() {
+		return preWarm;
+	}
+
+	public boolean isCritical() {
+		return critical;
+	}
+
+	/**
+	 * @return The time budget in milliseconds, 0 is unlimited
+	 */
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * @return The memory budget in bytes, 0 is unlimited
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	public List<PreWarmState> getDependencies() {
+		return dependencies;
+	}
+
+	public PreWarmStatus getStatus() {
+		return status.get();
+	}
+
+	/**
+	 * Change the status only if the current one is the expected one.
+	 *
+	 * @param expected The expected status
+	 * @param newStatus The new status
+	 * @return true if the status was changed
+	 */
+	public boolean changeStatus(PreWarmStatus expected, PreWarmStatus newStatus) {
+		boolean changed = status.compareAndSet(expected, newStatus);
+		if(changed && newStatus.isFinished() && startNanos > 0) {
+			endNanos = System.nanoTime();
+		}
+		return changed;
+	}
+
+	public boolean isFinished() {
+		return status.get().isFinished();
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public void setStartNanos(long startNanos) {
+		this.startNanos = startNanos;
+	}
+
+	/**
+	 * @return The duration of the pre-warm in milliseconds, running or finished
+	 */
+	public long getDuration() {
+		if(startNanos <= 0) {
+			return 0l;
+		}
+		long end = endNanos > 0 ? endNanos : System.nanoTime();
+		return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+	}
+
+	public long getThreadId() {
+		return threadId;
+	}
+
+	public void setThreadId(long threadId) {
+		this.threadId = threadId;
+	}
+
+	public long getStartAllocatedBytes() {
+		return startAllocatedBytes;
+	}
+
+	public void setStartAllocatedBytes(long startAllocatedBytes) {
+		this.startAllocatedBytes = startAllocatedBytes;
+	}
+
+	/**
+	 * @return The memory allocated by the thread of the pre-warm in bytes
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public void setAllocatedBytes(long allocatedBytes) {
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String toString() {
+		return name + " [" + status.get() + ", " + getDuration() + "ms, " + (allocatedBytes / (1024 * 1024)) + "MB]";
+	}
+}
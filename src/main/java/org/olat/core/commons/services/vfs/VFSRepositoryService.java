@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.olat.core.commons.services.license.License;
 import org.olat.core.commons.services.vfs.model.VFSFileStatistics;
@@ -95,6 +96,36 @@ public interface VFSRepositoryService {
 	 */
 	public List<VFSMetadata> getChildren(VFSMetadataRef parentMetadata);
 	
+	/**
+	 * Load the metadata of all the children of a directory with one
+	 * query, the missing metadata are created in one batch. The result is
+	 * held in a near cache. The metadata are detached copies which can be
+	 * slightly out of date, their parent is not loaded.
+	 * 
+	 * @param container The directory
+	 * @return A map filename to metadata of the children which exist on the file system
+	 */
+	public Map<String,VFSMetadata> getChildrenMetadataFor(VFSContainer container);
+	
+	/**
+	 * Return the metadata from the cache of its directory, the whole
+	 * directory is loaded if needed. The metadata is a detached copy which
+	 * can be slightly out of date, use {@link #getMetadataFor(VFSItem)} to
+	 * update it.
+	 * 
+	 * @param item The file or directory
+	 * @return The metadata
+	 */
+	public VFSMetadata getCachedMetadataFor(VFSItem item);
+	
+	/**
+	 * @see #getCachedMetadataFor(VFSItem)
+	 * 
+	 * @param file The file or directory
+	 * @return The metadata
+	 */
+	public VFSMetadata getCachedMetadataFor(File file);
+	
 	
 	public void cleanMetadatas();
 	
@@ -0,0 +1,267 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.model.VFSMetadataImpl;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.resource.OresHelper;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * A near cache of the metadata of the children of a directory, keyed
+ * by the relative path of the directory. The cache is bounded by the
+ * total number of metadata and not by the number of directories, the
+ * least recently used directories are evicted first. The entries live at
+ * most the configured time.<br>
+ * The directories are invalidated on all nodes with an event on the
+ * event bus. A load started before an invalidation of the same directory
+ * is not put in the cache.<br>
+ * The cache holds and returns copies of the metadata, detached from
+ * any persistence context: the callers can modify them.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class VFSMetadataCache implements GenericEventListener, InitializingBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSMetadataCache.class);
+	private final OLATResourceable cacheChannel = OresHelper.createOLATResourceableType("VFSMetadataCache");
+	
+	@Value("${vfs.metadata.cache.max.entries:50000}")
+	private int maxEntries;
+	@Value("${vfs.metadata.cache.time.to.live:300}")
+	private long timeToLive;
+	
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+	
+	private final LinkedHashMap<String,Directory> directories = new LinkedHashMap<>(256, 0.75f, true);
+	private final Map<String,Object> loadings = new HashMap<>();
+	private int size;
+	private long hits;
+	private long misses;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, cacheChannel);
+	}
+
+	@Override
+	public void event(Event event) {
+		if(event instanceof VFSMetadataCacheEvent) {
+			remove(((VFSMetadataCacheEvent)event).getRelativePath());
+		}
+	}
+	
+	public boolean isEnabled() {
+		return maxEntries > 0;
+	}
+	
+	/**
+	 * @param relativePath The relative path of the directory
+	 * @return A copy of the metadata of the children by filename or null if the directory is not in the cache
+	 */
+	public Map<String,VFSMetadata> get(String relativePath) {
+		Map<String,VFSMetadata> metadatas = getDirectory(relativePath);
+		return metadatas == null ? null : copy(metadatas);
+	}
+	
+	/**
+	 * @param relativePath The relative path of the directory
+	 * @param filename The name of the file
+	 * @return A copy of the metadata of the file or null if not in the cache
+	 */
+	public VFSMetadata get(String relativePath, String filename) {
+		Map<String,VFSMetadata> metadatas = getDirectory(relativePath);
+		return metadatas == null ? null : copy(metadatas.get(filename));
+	}
+	
+	private synchronized Map<String,VFSMetadata> getDirectory(String relativePath) {
+		Directory directory = directories.get(relativePath);
+		if(directory != null && directory.getExpiresAt() - System.nanoTime() < 0) {
+			directories.remove(relativePath);
+			size -= directory.size();
+			directory = null;
+		}
+		
+		if(directory == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return directory.getMetadatas();
+	}
+	
+	/**
+	 * Start the load of a directory. The token must be given back to
+	 * put the result in the cache.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @return A token
+	 */
+	public synchronized Object startLoading(String relativePath) {
+		Object token = new Object();
+		loadings.put(relativePath, token);
+		return token;
+	}
+	
+	/**
+	 * Put the metadata in the cache if the directory was not invalidated
+	 * since the start of the load.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @param token The token given at the start of the load
+	 * @param metadatas The metadata of the children by filename, the cache holds a copy of them
+	 */
+	public void put(String relativePath, Object token, Map<String,VFSMetadata> metadatas) {
+		if(!isEnabled() || metadatas.size() > maxEntries) {
+			cancel(relativePath, token);
+			return;
+		}
+		put(relativePath, token, copy(metadatas), System.nanoTime() + TimeUnit.SECONDS.toNanos(timeToLive));
+	}
+	
+	private synchronized void put(String relativePath, Object token, Map<String,VFSMetadata> metadatas, long expiresAt) {
+		if(loadings.get(relativePath) != token) {
+			return;// invalidated or a more recent load
+		}
+		loadings.remove(relativePath);
+		
+		Directory previous = directories.put(relativePath, new Directory(metadatas, expiresAt));
+		if(previous != null) {
+			size -= previous.size();
+		}
+		size += metadatas.size();
+		
+		for(Iterator<Directory> it=directories.values().iterator(); size > maxEntries && it.hasNext(); ) {
+			Directory eldest = it.next();
+			it.remove();
+			size -= eldest.size();
+		}
+	}
+	
+	/**
+	 * Forget the load of a directory which failed.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @param token The token given at the start of the load
+	 */
+	public synchronized void cancel(String relativePath, Object token) {
+		if(loadings.get(relativePath) == token) {
+			loadings.remove(relativePath);
+		}
+	}
+	
+	/**
+	 * Remove the directory from the cache of all nodes.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 */
+	public void invalidate(String relativePath) {
+		if(relativePath == null || !isEnabled()) return;
+		
+		remove(relativePath);
+		try {
+			VFSMetadataCacheEvent event = new VFSMetadataCacheEvent(relativePath);
+			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, cacheChannel);
+		} catch (Exception e) {
+			log.error("Cannot invalidate the metadata of: {}", relativePath, e);
+		}
+	}
+	
+	private static Map<String,VFSMetadata> copy(Map<String,VFSMetadata> metadatas) {
+		Map<String,VFSMetadata> copies = new HashMap<>();
+		for(Map.Entry<String,VFSMetadata> entry:metadatas.entrySet()) {
+			copies.put(entry.getKey(), copy(entry.getValue()));
+		}
+		return Collections.unmodifiableMap(copies);
+	}
+	
+	private static VFSMetadata copy(VFSMetadata metadata) {
+		if(metadata instanceof VFSMetadataImpl) {
+			return ((VFSMetadataImpl)metadata).copy();
+		}
+		return metadata;
+	}
+	
+	private synchronized void remove(String relativePath) {
+		loadings.remove(relativePath);
+		Directory directory = directories.remove(relativePath);
+		if(directory != null) {
+			size -= directory.size();
+		}
+	}
+	
+	/**
+	 * @return The number of metadata in the cache
+	 */
+	public synchronized int size() {
+		return size;
+	}
+	
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	private static class Directory {
+		
+		private final long expiresAt;
+		private final Map<String,VFSMetadata> metadatas;
+		
+		public Directory(Map<String,VFSMetadata> metadatas, long expiresAt) {
+			this.metadatas = metadatas;
+			this.expiresAt = expiresAt;
+		}
+		
+		public long getExpiresAt() {
+			return expiresAt;
+		}
+		
+		public Map<String,VFSMetadata> getMetadatas() {
+			return metadatas;
+		}
+		
+		public int size() {
+			return metadatas.size();
+		}
+	}
+}
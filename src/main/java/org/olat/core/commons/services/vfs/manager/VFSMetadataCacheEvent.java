@@ -22,31 +22,28 @@ package org.olat.core.commons.services.vfs.manager;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
+ * Remove the metadata of a directory from the near cache of all nodes.
  * 
- * Initial date: 15 mars 2019<br>
+ * Initial date: 18 oct. 2026<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class AsyncFileSizeUpdateEvent extends MultiUserEvent {
+public class VFSMetadataCacheEvent extends MultiUserEvent {
 
-	private static final long serialVersionUID = 5439824954399187557L;
-	public static final String ASYNC_FILE_SIZE = "async-file-size-updates";
+	private static final long serialVersionUID = -2751349260867311834L;
+	public static final String INVALIDATE_DIRECTORY = "invalidate-metadata-directory";
 	
-	private final String filename;
 	private final String relativePath;
 	
-	public AsyncFileSizeUpdateEvent(String relativePath, String filename) {
-		super(ASYNC_FILE_SIZE);
-		this.filename = filename;
+	public VFSMetadataCacheEvent(String relativePath) {
+		super(INVALIDATE_DIRECTORY);
 		this.relativePath = relativePath;
 	}
 
-	public String getFilename() {
-		return filename;
-	}
-
+	/**
+	 * @return The relative path of the directory
+	 */
 	public String getRelativePath() {
 		return relativePath;
 	}
-
 }
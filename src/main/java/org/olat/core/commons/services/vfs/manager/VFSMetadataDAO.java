@@ -45,6 +45,8 @@ public class VFSMetadataDAO {
 	
 	@Autowired
 	private DB dbInstance;
+	@Autowired
+	private VFSMetadataCache metadataCache;
 	
 	public VFSMetadata createMetadata(String uuid, String relativePath, String filename,
 			Date fileLastModified, long size, boolean directory, String uri, String uriProtocol,
@@ -220,6 +222,32 @@ public class VFSMetadataDAO {
 			.getResultList();
 	}
 	
+	/**
+	 * Load the direct children of a directory with all the associated
+	 * objects used to list them (initial and last author, lock owner
+	 * and license type). The parent is not fetched.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @return A list of metadata
+	 */
+	public List<VFSMetadata> getDirectoryMetadatas(String relativePath) {
+		StringBuilder sb = new StringBuilder(512);
+		sb.append("select metadata from filemetadata metadata")
+		  .append(" left join fetch metadata.fileInitializedBy as fileInitializedBy")
+		  .append(" left join fetch fileInitializedBy.user as fileInitializedByUser")
+		  .append(" left join fetch metadata.fileLastModifiedBy as fileLastModifiedBy")
+		  .append(" left join fetch fileLastModifiedBy.user as fileLastModifiedByUser")
+		  .append(" left join fetch metadata.lockedBy as lockedBy")
+		  .append(" left join fetch lockedBy.user as lockedByUser")
+		  .append(" left join fetch metadata.licenseType as licenseType")
+		  .append(" where metadata.relativePath=:relativePath");
+
+		return dbInstance.getCurrentEntityManager()
+			.createQuery(sb.toString(), VFSMetadata.class)
+			.setParameter("relativePath", relativePath)
+			.getResultList();
+	}
+	
 	public List<VFSMetadata> getMetadatasOnly(VFSMetadataRef parentMetadata) {
 		return dbInstance.getCurrentEntityManager()
 			.createNamedQuery("metadataOnlyByParent", VFSMetadata.class)
@@ -295,10 +323,18 @@ public class VFSMetadataDAO {
 			.getResultList();
 	}
 	
-	public void increaseDownloadCount(String relativePath, String filename) {
-		String updateQuery = "update vfsmetadatadownloadcount set downloadCount=downloadCount+1 where filename=:filename and relativePath=:relativePath";
+	/**
+	 * Add the number of downloads to the counter of the file.
+	 * 
+	 * @param relativePath The path to the file
+	 * @param filename The name of the file
+	 * @param count The number of downloads to add
+	 */
+	public void increaseDownloadCount(String relativePath, String filename, int count) {
+		String updateQuery = "update vfsmetadatadownloadcount set downloadCount=downloadCount+:count where filename=:filename and relativePath=:relativePath";
 		dbInstance.getCurrentEntityManager()
 			.createQuery(updateQuery)
+			.setParameter("count", count)
 			.setParameter("filename", filename)
 			.setParameter("relativePath", relativePath)
 			.setHint("javax.persistence.query.timeout", 1000)
@@ -312,6 +348,7 @@ public class VFSMetadataDAO {
 			.setParameter("count", count)
 			.setParameter("key", metadata.getKey())
 			.executeUpdate();
+		invalidateAfterCommit(metadata.getRelativePath());
 	}
 	
 	/**
@@ -335,8 +372,18 @@ public class VFSMetadataDAO {
 			.setParameter("lastModifiedBy", lastModifiedBy)
 			.setParameter("initializedBy", initializedBy)
 			.executeUpdate();
+		invalidateAfterCommit(relativePath);
 	}
 	
+	/**
+	 * Update the size of existing files only. The cache of the directory
+	 * is not invalidated.
+	 * 
+	 * @param fileSize The new file size (mandatory)
+	 * @param lastModified The modification date (mandatory)
+	 * @param relativePath The path to the file
+	 * @param filename The name of the file
+	 */
 	public void updateMetadata(long fileSize, Date lastModified, String relativePath, String filename) {
 		String updateQuery = "update vfsmetadatafilesaved set fileLastModified=:lastModified, fileSize=:fileSize, deleted=false where filename=:filename and relativePath=:relativePath";
 		dbInstance.getCurrentEntityManager()
@@ -350,11 +397,24 @@ public class VFSMetadataDAO {
 	
 	public VFSMetadata updateMetadata(VFSMetadata metadata) {
 		((VFSMetadataImpl)metadata).setLastModified(new Date());
-		return dbInstance.getCurrentEntityManager().merge(metadata);
+		VFSMetadata mergedMetadata = dbInstance.getCurrentEntityManager().merge(metadata);
+		invalidateAfterCommit(mergedMetadata.getRelativePath());
+		return mergedMetadata;
 	}
 	
 	public void removeMetadata(VFSMetadata metadata) {
 		dbInstance.getCurrentEntityManager().remove(metadata);
+		invalidateAfterCommit(metadata.getRelativePath());
+	}
+	
+	/**
+	 * The cache of the directory is invalidated after the commit, a load
+	 * in between would cache the previous state.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 */
+	private void invalidateAfterCommit(String relativePath) {
+		dbInstance.afterCommit(() -> metadataCache.invalidate(relativePath));
 	}
 	
 	/**
@@ -0,0 +1,235 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Collect the downloads and the files with a wrong size on this node
+ * and write them regularly. The downloads of a file are summed up to
+ * one update, a file size is refreshed only once per interval. Nothing
+ * is sent to the other nodes, every node writes its own downloads.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class VFSMetadataUpdater implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSMetadataUpdater.class);
+	
+	private final ConcurrentMap<FileKey,Long> downloads = new ConcurrentHashMap<>();
+	private final Set<FileKey> fileSizes = ConcurrentHashMap.newKeySet();
+	private ScheduledExecutorService scheduler;
+	
+	@Value("${vfs.metadata.flush.interval:10}")
+	private long flushInterval;
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private FolderModule folderModule;
+	@Autowired
+	private VFSMetadataDAO metadataDao;
+	@Autowired
+	private VFSMetadataCache metadataCache;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		long interval = Math.max(1, flushInterval);
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "VFS-Metadata-Updater");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		if(scheduler != null) {
+			scheduler.shutdown();
+			scheduler = null;
+		}
+		flush();
+	}
+	
+	/**
+	 * @param relativePath The relative path of the directory
+	 * @param filename The name of the file
+	 */
+	public void increaseDownloadCount(String relativePath, String filename) {
+		downloads.merge(new FileKey(relativePath, filename), Long.valueOf(1l), Long::sum);
+	}
+	
+	/**
+	 * Refresh the size and the last modification date of the metadata
+	 * with the values of the file system.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @param filename The name of the file
+	 */
+	public void updateFileSize(String relativePath, String filename) {
+		fileSizes.add(new FileKey(relativePath, filename));
+	}
+	
+	protected long getPendingDownloads(String relativePath, String filename) {
+		Long count = downloads.get(new FileKey(relativePath, filename));
+		return count == null ? 0l : count.longValue();
+	}
+	
+	protected int getNumOfPendingFileSizes() {
+		return fileSizes.size();
+	}
+	
+	protected synchronized void flush() {
+		try {
+			flushFileSizes();
+			flushDownloads();
+		} catch (Exception e) {
+			log.error("", e);
+		}
+	}
+	
+	private void flushFileSizes() {
+		if(fileSizes.isEmpty()) return;
+		
+		Set<String> directories = new HashSet<>();
+		for(Iterator<FileKey> it=fileSizes.iterator(); it.hasNext(); ) {
+			FileKey key = it.next();
+			it.remove();
+			
+			File file = Paths.get(folderModule.getCanonicalRoot(), key.getRelativePath(), key.getFilename()).toFile();
+			if(file.exists()) {
+				try {
+					Date lastModified = new Date(file.lastModified());
+					metadataDao.updateMetadata(file.length(), lastModified, key.getRelativePath(), key.getFilename());
+					dbInstance.commit();
+					directories.add(key.getRelativePath());
+				} catch (Exception e) {
+					dbInstance.rollback();
+					log.error("Cannot update file size of: {} {}", key.getRelativePath(), key.getFilename(), e);
+				}
+			}
+		}
+		dbInstance.closeSession();
+		
+		for(String directory:directories) {
+			metadataCache.invalidate(directory);
+		}
+	}
+	
+	private void flushDownloads() {
+		if(downloads.isEmpty()) return;
+		
+		// always the same order to prevent dead locks between the nodes
+		List<FileKey> keys = new ArrayList<>(downloads.keySet());
+		Collections.sort(keys);
+		
+		Map<FileKey,Long> counts = new HashMap<>();
+		try {
+			for(FileKey key:keys) {
+				Long count = downloads.remove(key);
+				if(count != null && count.longValue() > 0) {
+					counts.put(key, count);
+					metadataDao.increaseDownloadCount(key.getRelativePath(), key.getFilename(), count.intValue());
+				}
+			}
+			dbInstance.commitAndCloseSession();
+		} catch (Exception e) {
+			dbInstance.rollbackAndCloseSession();
+			log.error("Cannot update the downloads of {} files, retry later", counts.size(), e);
+			for(Map.Entry<FileKey,Long> count:counts.entrySet()) {
+				downloads.merge(count.getKey(), count.getValue(), Long::sum);
+			}
+		}
+	}
+	
+	private static final class FileKey implements Comparable<FileKey> {
+		
+		private final String relativePath;
+		private final String filename;
+		
+		public FileKey(String relativePath, String filename) {
+			this.relativePath = relativePath;
+			this.filename = filename;
+		}
+
+		public String getRelativePath() {
+			return relativePath;
+		}
+
+		public String getFilename() {
+			return filename;
+		}
+
+		@Override
+		public int compareTo(FileKey o) {
+			int c = relativePath.compareTo(o.relativePath);
+			if(c == 0) {
+				c = filename.compareTo(o.filename);
+			}
+			return c;
+		}
+
+		@Override
+		public int hashCode() {
+			return relativePath.hashCode() * 31 + filename.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof FileKey) {
+				FileKey key = (FileKey)obj;
+				return relativePath.equals(key.relativePath) && filename.equals(key.filename);
+			}
+			return false;
+		}
+	}
+}
@@ -86,16 +86,11 @@ import org.olat.core.commons.services.vfs.model.VFSMetadataImpl;
 import org.olat.core.commons.services.vfs.model.VFSRevisionImpl;
 import org.olat.core.commons.services.vfs.model.VFSRevisionStatistics;
 import org.olat.core.commons.services.vfs.model.VFSThumbnailStatistics;
-import org.olat.core.gui.control.Event;
 import org.olat.core.id.Identity;
-import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.FileUtils;
 import org.olat.core.util.StringHelper;
-import org.olat.core.util.coordinate.CoordinatorManager;
-import org.olat.core.util.event.GenericEventListener;
 import org.olat.core.util.io.ShieldInputStream;
-import org.olat.core.util.resource.OresHelper;
 import org.olat.core.util.vfs.LocalFileImpl;
 import org.olat.core.util.vfs.LocalFolderImpl;
 import org.olat.core.util.vfs.VFSConstants;
@@ -105,7 +100,8 @@ import org.olat.core.util.vfs.VFSLeaf;
 import org.olat.core.util.vfs.VFSManager;
 import org.olat.core.util.vfs.version.RevisionFileImpl;
 import org.olat.core.util.vfs.version.VersionsFileImpl;
-import org.springframework.beans.factory.InitializingBean;
+import org.olat.search.service.document.file.FileDocument;
+import org.olat.search.service.indexer.LifeFullIndexer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -116,11 +112,9 @@ import org.springframework.stereotype.Service;
  *
  */
 @Service
-public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEventListener, InitializingBean {
+public class VFSRepositoryServiceImpl implements VFSRepositoryService {
 	
 	private static final Logger log = Tracing.createLoggerFor(VFSRepositoryServiceImpl.class);
-	private final OLATResourceable fileSizeSubscription = OresHelper.createOLATResourceableType("UpdateFileSizeAsync");
-	private final OLATResourceable incrementFileDownload = OresHelper.createOLATResourceableType("IncrementFileDownloadAsync");
 	private static final String CANONICAL_ROOT_REL_PATH = "/";
 	private static final Comparator<VFSRevision> VERSION_ASC = comparing(VFSRevision::getRevisionNr)
 				.thenComparing(comparing(VFSRevision::getRevisionTempNr, nullsFirst(Integer::compareTo)));
@@ -136,6 +130,10 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Autowired
 	private VFSMetadataDAO metadataDao;
 	@Autowired
+	private VFSMetadataCache metadataCache;
+	@Autowired
+	private VFSMetadataUpdater metadataUpdater;
+	@Autowired
 	private VFSStatsDAO statsDao;
 	@Autowired
 	private VFSThumbnailDAO thumbnailDao;
@@ -150,49 +148,12 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Autowired
 	private ThumbnailService thumbnailService;
 	@Autowired
-	private CoordinatorManager coordinatorManager;
-	@Autowired
 	private BaseSecurity securityManager;
+	@Autowired
+	private LifeFullIndexer lifeIndexer;
 	// Autowired liste by setVfsContextInfoResolver() method
 	private List<VFSContextInfoResolver> vfsContextInfoResolver;
 	
-	@Override
-	public void afterPropertiesSet() throws Exception {
-		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, fileSizeSubscription);
-		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, incrementFileDownload);
-	}
-
-	@Override
-	public void event(Event event) {
-		if(event instanceof AsyncFileSizeUpdateEvent) {
-			processFileSizeUpdateEvent((AsyncFileSizeUpdateEvent)event);
-		} else if(event instanceof AsyncIncrementFileDownloadEvent) {
-			processIncrementFileDownnload((AsyncIncrementFileDownloadEvent)event);
-		}
-	}
-	
-	private void processFileSizeUpdateEvent(AsyncFileSizeUpdateEvent event) {
-		File file = toFile(event.getRelativePath(), event.getFilename());
-		if(file.exists()) {
-			try {
-				Date lastModified = new Date(file.lastModified());
-				metadataDao.updateMetadata(file.length(), lastModified, event.getRelativePath(), event.getFilename());
-				dbInstance.commit();
-			} catch (Exception e) {
-				log.error("Cannot update file size of: " + event.getRelativePath() + " " + event.getFilename(), e);
-			}
-		}
-	}
-	
-	private void processIncrementFileDownnload(AsyncIncrementFileDownloadEvent event) {
-		try {
-			metadataDao.increaseDownloadCount(event.getRelativePath(), event.getFilename());
-			dbInstance.commit();
-		} catch (Exception e) {
-			log.error("Cannot increment file downloads of: " + event.getRelativePath() + " " + event.getFilename(), e);
-		}
-	}
-	
 	@Override
 	public VFSMetadata getMetadataByUUID(String uuid) {
 		if(StringHelper.containsNonWhitespace(uuid)) {
@@ -296,8 +257,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			VFSMetadata parent = getMetadataFor(file.getParentFile());
 			metadata = metadataDao.createMetadata(uuid, relativePath, filename, new Date(), size, directory, uri, "file", parent);
 		} else if(file.isFile() && (file.length() != metadata.getFileSize() || !file.exists() != metadata.isDeleted())) {
-			AsyncFileSizeUpdateEvent event = new AsyncFileSizeUpdateEvent(relativePath, filename);
-			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, fileSizeSubscription);
+			metadataUpdater.updateFileSize(relativePath, filename);
 		}
 		dbInstance.commit();
 		return metadata;
@@ -372,8 +332,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		VFSMetadata metadata = metadataDao.getMetadata(relativePath, filename, file.isDirectory());
 		if(metadata != null && !metadata.isDirectory()
 				&& (metadata.getFileSize() != file.length() || file.lastModified() != metadata.getFileLastModified().getTime())) {
-			AsyncFileSizeUpdateEvent event = new AsyncFileSizeUpdateEvent(relativePath, filename);
-			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, fileSizeSubscription);
+			metadataUpdater.updateFileSize(relativePath, filename);
 		}
 		return metadata;
 	}
@@ -406,6 +365,146 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		return metadataDao.getMetadatas(parentMetadata);
 	}
 
+	@Override
+	public Map<String,VFSMetadata> getChildrenMetadataFor(VFSContainer container) {
+		File directory = container == null ? null : toFile(container);
+		if(directory == null || !directory.isDirectory()
+				|| VFSRepositoryModule.canMeta(directory) != VFSConstants.YES) {
+			return Collections.emptyMap();
+		}
+		return getChildrenMetadataFor(directory);
+	}
+
+	private Map<String,VFSMetadata> getChildrenMetadataFor(File directory) {
+		File[] files = directory.listFiles(file -> VFSRepositoryModule.canMeta(file) == VFSConstants.YES);
+		if(files == null || files.length == 0) {
+			return Collections.emptyMap();
+		}
+
+		String relativePath = getDirectoryRelativePath(directory);
+		Map<String,VFSMetadata> cachedMetadatas = metadataCache.get(relativePath);
+		if(cachedMetadatas != null && isUpToDate(cachedMetadatas, files)) {
+			if(cachedMetadatas.size() == files.length) {
+				return cachedMetadatas;
+			}
+			// some files were deleted since
+			Map<String,VFSMetadata> metadatas = new HashMap<>();
+			for(File file:files) {
+				metadatas.put(file.getName(), cachedMetadatas.get(file.getName()));
+			}
+			return metadatas;
+		}
+
+		Object token = metadataCache.startLoading(relativePath);
+		try {
+			Map<String,VFSMetadata> metadatas = loadChildrenMetadata(directory, relativePath, files);
+			metadataCache.put(relativePath, token, metadatas);
+			return metadatas;
+		} finally {
+			metadataCache.cancel(relativePath, token);
+		}
+	}
+
+	/**
+	 * Load the metadata of the specified files of the directory with one query
+	 * and create the missing ones in one transaction.
+	 *
+	 * @param directory The directory
+	 * @param relativePath The relative path of the directory
+	 * @param files The files of the directory
+	 * @return An unmodifiable map filename to metadata
+	 */
+	private Map<String,VFSMetadata> loadChildrenMetadata(File directory, String relativePath, File[] files) {
+		List<VFSMetadata> loadedMetadatas = metadataDao.getDirectoryMetadatas(relativePath);
+		Map<String,VFSMetadata> fileMetadatas = new HashMap<>();
+		Map<String,VFSMetadata> directoryMetadatas = new HashMap<>();
+		for(VFSMetadata loadedMetadata:loadedMetadatas) {
+			if(loadedMetadata.isDirectory()) {
+				directoryMetadatas.putIfAbsent(loadedMetadata.getFilename(), loadedMetadata);
+			} else {
+				fileMetadatas.putIfAbsent(loadedMetadata.getFilename(), loadedMetadata);
+			}
+		}
+
+		int created = 0;
+		VFSMetadata parent = null;
+		Map<String,VFSMetadata> metadatas = new HashMap<>();
+		for(File file:files) {
+			String filename = file.getName();
+			boolean directoryFile = file.isDirectory();
+			VFSMetadata metadata = directoryFile ? directoryMetadatas.get(filename) : fileMetadatas.get(filename);
+			if(metadata == null) {
+				if(parent == null) {
+					parent = getMetadataFor(directory);
+				}
+				long size = directoryFile ? 0l : file.length();
+				metadata = metadataDao.createMetadata(UUID.randomUUID().toString(), relativePath, filename, new Date(),
+						size, directoryFile, file.toURI().toString(), "file", parent);
+				created++;
+			} else if(!directoryFile && (file.length() != metadata.getFileSize() || metadata.isDeleted())) {
+				metadataUpdater.updateFileSize(relativePath, filename);
+			}
+			metadatas.put(filename, metadata);
+		}
+
+		if(created > 0) {
+			dbInstance.commit();
+			log.debug("Metadata created in {}: {}", relativePath, created);
+		}
+		return Collections.unmodifiableMap(metadatas);
+	}
+
+	private boolean isUpToDate(Map<String,VFSMetadata> metadatas, File[] files) {
+		for(File file:files) {
+			if(!isUpToDate(metadatas.get(file.getName()), file)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isUpToDate(VFSMetadata metadata, File file) {
+		if(metadata == null) {
+			return false;
+		}
+		if(file.isDirectory()) {
+			return metadata.isDirectory();
+		}
+		return !metadata.isDirectory() && metadata.getFileSize() == file.length();
+	}
+
+	@Override
+	public VFSMetadata getCachedMetadataFor(VFSItem item) {
+		File file = toFile(item);
+		return getCachedMetadataFor(file);
+	}
+
+	@Override
+	public VFSMetadata getCachedMetadataFor(File file) {
+		if(file == null || file.getParentFile() == null || !metadataCache.isEnabled()
+				|| VFSRepositoryModule.canMeta(file) != VFSConstants.YES) {
+			return getMetadataFor(file);
+		}
+
+		File directory = file.getParentFile();
+		VFSMetadata metadata = metadataCache.get(getDirectoryRelativePath(directory), file.getName());
+		if(!isUpToDate(metadata, file)) {
+			metadata = getChildrenMetadataFor(directory).get(file.getName());
+			if(metadata == null) {
+				metadata = getMetadataFor(file);
+			}
+		}
+		return metadata;
+	}
+
+	private String getDirectoryRelativePath(File directory) {
+		String relativePath = getRelativePath(directory);
+		if(relativePath.equals("")) {
+			relativePath = CANONICAL_ROOT_REL_PATH;
+		}
+		return relativePath;
+	}
+
 	@Override
 	public List<VFSMetadata> getNewest(VFSMetadata ancestorMetadata, int maxResults) {
 		File file = toFile(ancestorMetadata);
@@ -463,7 +562,9 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	
 	@Override
 	public VFSMetadata updateMetadata(VFSMetadata data) {
-		return metadataDao.updateMetadata(data);
+		VFSMetadata metadata = metadataDao.updateMetadata(data);
+		indexChange(metadata);
+		return metadata;
 	}
 
 	@Override
@@ -478,6 +579,18 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		Identity initializedBy = metadataExists? vfsMetadata.getFileInitializedBy(): savedBy;
 		metadataDao.updateMetadata(leaf.getSize(), lastModified, initializedBy, savedBy, relativePath, leaf.getName());
 		dbInstance.commitAndCloseSession();
+		indexChange(vfsMetadata);
+	}
+	
+	/**
+	 * Send the change to the incremental indexer.
+	 * 
+	 * @param metadata The metadata of the changed file
+	 */
+	private void indexChange(VFSMetadata metadata) {
+		if(metadata != null && metadata.getKey() != null) {
+			lifeIndexer.indexChange(FileDocument.TYPE, metadata.getKey());
+		}
 	}
 
 	@Override
@@ -578,6 +691,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 				}
 			}
 			metadataDao.updateMetadata(metadata);
+			indexChange(metadata);
 		}
 	}
 
@@ -665,15 +779,16 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 				revisionDao.updateRevision(revision);
 			}
 		}
-		return metadataDao.updateMetadata(metadata);
+		VFSMetadata renamedMetadata = metadataDao.updateMetadata(metadata);
+		indexChange(renamedMetadata);
+		return renamedMetadata;
 	}
 
 	@Override
 	public void increaseDownloadCount(VFSLeaf item) {
 		String relPath = getContainerRelativePath(item);
 		if(StringHelper.containsNonWhitespace(relPath)) {
-			AsyncIncrementFileDownloadEvent event = new AsyncIncrementFileDownloadEvent(relPath, item.getName());
-			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, incrementFileDownload);
+			metadataUpdater.increaseDownloadCount(relPath, item.getName());
 		}
 	}
 	
@@ -1206,6 +1321,8 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 
 		File currentFile = toFile(currentLeaf);
 		String currentRelativePath = getRelativePath(currentFile.getParentFile());
+		// the documents of the source need to be indexed too
+		VFSMetadata currentParent = getMetadataFor(currentFile.getParentFile());
 
 		File targetFile = toFile(targetLeaf);
 		String targetRelativePath = getRelativePath(targetFile.getParentFile());
@@ -1236,6 +1353,8 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		}
 		
 		metadata = metadataDao.updateMetadata(metadata);
+		indexChange(currentParent);
+		indexChange(metadata);
 		return metadata;
 	}
 
@@ -616,6 +616,55 @@ public class VFSMetadataImpl implements Persistable, VFSMetadata {
 		setLicenseText(fromMeta.getLicenseText());
 	}
 
+	/**
+	 * @return A copy of the metadata which is not attached to the persistence
+	 * 		context, the associated objects are not copied
+	 */
+	public VFSMetadataImpl copy() {
+		VFSMetadataImpl copy = new VFSMetadataImpl();
+		copy.key = key;
+		copy.creationDate = creationDate;
+		copy.lastModified = lastModified;
+		copy.uuid = uuid;
+		copy.deleted = deleted;
+		copy.filename = filename;
+		copy.relativePath = relativePath;
+		copy.directory = directory;
+		copy.fileLastModified = fileLastModified;
+		copy.fileLastModifiedBy = fileLastModifiedBy;
+		copy.fileInitializedBy = fileInitializedBy;
+		copy.fileSize = fileSize;
+		copy.uri = uri;
+		copy.protocol = protocol;
+		copy.cannotGenerateThumbnails = cannotGenerateThumbnails;
+		copy.downloadCount = downloadCount;
+		copy.comment = comment;
+		copy.title = title;
+		copy.publisher = publisher;
+		copy.creator = creator;
+		copy.source = source;
+		copy.city = city;
+		copy.pages = pages;
+		copy.language = language;
+		copy.url = url;
+		copy.pubMonth = pubMonth;
+		copy.pubYear = pubYear;
+		copy.licenseType = licenseType;
+		copy.licenseTypeName = licenseTypeName;
+		copy.licenseText = licenseText;
+		copy.licensor = licensor;
+		copy.lockedDate = lockedDate;
+		copy.lockedBy = lockedBy;
+		copy.locked = locked;
+		copy.revisionNr = revisionNr;
+		copy.revisionTempNr = revisionTempNr;
+		copy.revisionComment = revisionComment;
+		copy.migrated = migrated;
+		copy.materializedPathKeys = materializedPathKeys;
+		copy.parent = parent;
+		return copy;
+	}
+
 	@Override
 	public int hashCode() {
 		return getKey() == null ? 7386459 : getKey().hashCode();
@@ -22,6 +22,7 @@ package org.olat.core.commons.services.vfs.ui.media;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.services.vfs.VFSMetadata;
 import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.util.vfs.LocalFileImpl;
 import org.olat.core.util.vfs.VFSItem;
 import org.olat.core.util.vfs.VFSLeaf;
 import org.olat.core.util.vfs.VFSMediaResource;
@@ -53,4 +54,13 @@ public class VFSMetadataMediaResource extends VFSMediaResource {
 		}
 		return leaf;
 	}
+
+	@Override
+	public String getETag() {
+		VFSLeaf leaf = getLeaf();
+		if(leaf instanceof LocalFileImpl) {
+			return getETag(leaf, metadata);
+		}
+		return null;
+	}
 }
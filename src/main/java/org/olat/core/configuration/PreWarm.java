@@ -19,9 +19,15 @@
  */
 package org.olat.core.configuration;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 
- * Marker interface for the pre-warm process.
+ * Interface for the pre-warm process. The pre-warms are started by the
+ * PreWarmManager after the start of the servlet. The long running pre-warms
+ * should check the interrupted flag of their thread, it's set if they are
+ * over their budget.
  * 
  * Initial date: 09.04.2015<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
@@ -29,4 +35,33 @@ package org.olat.core.configuration;
  */
 public interface PreWarm extends Runnable {
 	
+	/**
+	 * @return true if the instance is not ready to serve requests until
+	 * 		the pre-warm is done
+	 */
+	public default boolean isCritical() {
+		return false;
+	}
+	
+	/**
+	 * @return The pre-warms which need to be done before this one
+	 */
+	public default List<Class<? extends PreWarm>> getDependencies() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * @return The max. duration in milliseconds, 0 to use the default budget
+	 */
+	public default long getTimeBudget() {
+		return 0l;
+	}
+	
+	/**
+	 * @return The max. memory in bytes allocated by the pre-warm, 0 to use the default budget
+	 */
+	public default long getMemoryBudget() {
+		return 0l;
+	}
+	
 }
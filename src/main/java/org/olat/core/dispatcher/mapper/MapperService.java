@@ -34,6 +34,9 @@ import org.olat.core.util.UserSession;
  * This allows browsers to cache the resources delivered by the mapper using the
  * last-modified date.
  * <P>
+ * The mappers which implement {@link StatelessMapper} are neither held in
+ * memory nor persisted, their configuration is signed in the URL.
+ * <P>
  * Initial Date: 10.06.2005 <br>
  * 
  * @author Felix Jost
@@ -0,0 +1,48 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.dispatcher.mapper;
+
+/**
+ * A mapper which can be rebuilt from a short configuration. The mapper
+ * service doesn't hold it in memory or in the database, the type and the
+ * configuration are encoded in a signed URL and the mapper is recreated by
+ * the {@link StatelessMapperFactory} of the same type, on any node of the
+ * cluster.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface StatelessMapper extends Mapper {
+	
+	/**
+	 * @return The type of the factory which recreates the mapper
+	 */
+	public String getMapperType();
+	
+	/**
+	 * The configuration is visible in the URL, it's signed but not encrypted.
+	 * 
+	 * @return The configuration or null if the mapper cannot be recreated, in
+	 * 		this case, the mapper is registered as a standard one.
+	 */
+	public String getConfiguration();
+
+}
@@ -20,47 +20,100 @@
 package org.olat.core.dispatcher.mapper.manager;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.jmx.JMXManager;
 import org.olat.core.dispatcher.DispatcherModule;
 import org.olat.core.dispatcher.mapper.Mapper;
 import org.olat.core.dispatcher.mapper.MapperService;
+import org.olat.core.dispatcher.mapper.StatelessMapper;
+import org.olat.core.dispatcher.mapper.StatelessMapperFactory;
 import org.olat.core.dispatcher.mapper.model.PersistedMapper;
+import org.olat.core.logging.Tracing;
 import org.olat.core.util.Encoder;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.UserSession;
 import org.olat.core.util.WebappHelper;
 import org.olat.core.util.cache.CacheWrapper;
 import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.properties.Property;
+import org.olat.properties.PropertyManager;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
+ * The mappers which implement {@link StatelessMapper} are not held by the
+ * service, their configuration is signed in the URL and they are recreated
+ * on demand by their factory. The other mappers are held in memory and the
+ * serializable ones are persisted in the database.
  * 
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  */
 @Service("mapperService")
-public class MapperServiceImpl implements MapperService, InitializingBean {
+public class MapperServiceImpl implements MapperService, InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(MapperServiceImpl.class);
+	
+	private static final String MBEAN_NAME = "org.olat.core.dispatcher.mapper:type=MapperStatistics";
+	private static final String SECRET_CATEGORY = "_o3_";
+	private static final String SECRET_NAME = "mapper.signed.secret";
 	
 	private Map<MapperKey,Mapper> mapperKeyToMapper = new ConcurrentHashMap<>();
 	private Map<String,List<MapperKey>> sessionIdToMapperKeys = new ConcurrentHashMap<>();
+	private Map<String,StatelessMapperFactory> statelessFactories = new HashMap<>();
 
 	private CacheWrapper<String, Mapper> mapperCache;
+	private volatile byte[] signedSecret;
 	
+	@Value("${mapper.signed.enabled:true}")
+	private boolean signedEnabled;
+	@Value("${mapper.signed.secret:}")
+	private String configuredSecret;
+	@Value("${mapper.signed.ttl:86400}")
+	private long signedTtl;
+	
+	@Autowired
+	private DB dbInstance;
 	@Autowired
 	private MapperDAO mapperDao;
 	@Autowired
+	private JMXManager jmxManager;
+	@Autowired
+	private PropertyManager propertyManager;
+	@Autowired
 	private CoordinatorManager coordinatorManager;
+	@Autowired(required = false)
+	private List<StatelessMapperFactory> factories;
 	
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		mapperCache = coordinatorManager.getCoordinator().getCacher().getCache(MapperService.class.getSimpleName(), "mapper");
+		if(factories != null) {
+			for(StatelessMapperFactory factory:factories) {
+				statelessFactories.put(factory.getMapperType(), factory);
+			}
+		}
+		jmxManager.registerMBean(new MapperStatistics(), MBEAN_NAME);
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		jmxManager.unregisterMBean(MBEAN_NAME);
 	}
 	
 	@Override
@@ -70,12 +123,18 @@ public class MapperServiceImpl implements MapperService, InitializingBean {
 
 	@Override
 	public MapperKey register(UserSession session, Mapper mapper) {
+		MapperKey signedKey = registerStateless(session, mapper, signedTtl);
+		if(signedKey != null) {
+			return signedKey;
+		}
+		
 		String mapid = UUID.randomUUID().toString().replace("-", "");
 		mapid = Encoder.md5hash(mapid);
 		
 		MapperKey mapperKey = new MapperKey(session, mapid);
 		mapperKeyToMapper.put(mapperKey, mapper);
 		if(session == null || session.getSessionInfo() == null) {
+			MapperStatistics.incrementMemoryRegistrations(false);
 			mapperKey.setUrl(WebappHelper.getServletContextPath() + DispatcherModule.PATH_MAPPED + mapid);
 			return mapperKey;
 		}
@@ -92,6 +151,7 @@ public class MapperServiceImpl implements MapperService, InitializingBean {
 		if(mapper instanceof Serializable) {
 			mapperDao.persistMapper(sessionId, mapid, (Serializable)mapper, -1);
 		}
+		MapperStatistics.incrementMemoryRegistrations(mapper instanceof Serializable);
 		mapperKey.setUrl(WebappHelper.getServletContextPath() + DispatcherModule.PATH_MAPPED + mapid);
 		return mapperKey;
 	}	
@@ -106,6 +166,11 @@ public class MapperServiceImpl implements MapperService, InitializingBean {
 
 	@Override
 	public MapperKey register(UserSession session, String mapperId, Mapper mapper, int expirationTime) {
+		MapperKey signedKey = registerStateless(session, mapper, expirationTime > 0 ? expirationTime : signedTtl);
+		if(signedKey != null) {
+			return signedKey;
+		}
+		
 		String encryptedMapId = Encoder.md5hash(mapperId);
 		MapperKey mapperKey = new MapperKey(session, encryptedMapId);
 		boolean alreadyLoaded = mapperKeyToMapper.containsKey(mapperKey);
@@ -126,10 +191,107 @@ public class MapperServiceImpl implements MapperService, InitializingBean {
 			mapperCache.put(encryptedMapId, mapper, expirationTime);
 		}
 
+		MapperStatistics.incrementMemoryRegistrations(mapper instanceof Serializable);
 		mapperKeyToMapper.put(mapperKey, mapper);
 		mapperKey.setUrl(WebappHelper.getServletContextPath() + DispatcherModule.PATH_MAPPED + encryptedMapId);
 		return mapperKey;
 	}
+	
+	/**
+	 * The expiration of the token is rounded to a multiple of the time to live,
+	 * the URL doesn't change during this time and the browser can cache it. The
+	 * token is valid at least the time to live.
+	 * 
+	 * @return The key with the signed URL or null if the mapper is not stateless
+	 */
+	private MapperKey registerStateless(UserSession session, Mapper mapper, long ttl) {
+		if(!signedEnabled || !(mapper instanceof StatelessMapper)) {
+			return null;
+		}
+		
+		StatelessMapper statelessMapper = (StatelessMapper)mapper;
+		String type = statelessMapper.getMapperType();
+		String configuration = statelessMapper.getConfiguration();
+		if(configuration == null || !statelessFactories.containsKey(type)) {
+			return null;
+		}
+		
+		long window = Math.max(60l, ttl);
+		long now = System.currentTimeMillis() / 1000l;
+		long expiration = ((now / window) + 2) * window;
+		MapperKey mapperKey = new MapperKey(session, null);
+		String token = new SignedMapperToken(type, configuration, expiration)
+				.sign(getSignedSecret(), mapperKey.getSessionId());
+		mapperKey.setMapperId(token);
+		mapperKey.setUrl(WebappHelper.getServletContextPath() + DispatcherModule.PATH_MAPPED + token);
+		MapperStatistics.incrementSignedRegistrations();
+		return mapperKey;
+	}
+	
+	private Mapper getStatelessMapper(UserSession session, String token) {
+		if(!signedEnabled) {
+			return null;
+		}
+		
+		String sessionId = new MapperKey(session, null).getSessionId();
+		long now = System.currentTimeMillis() / 1000l;
+		SignedMapperToken signedToken = SignedMapperToken.verify(token, getSignedSecret(), sessionId, now);
+		if(signedToken == null) {
+			if(sessionId.isEmpty()) {
+				// the dispatcher tries the anonymous mappers last
+				MapperStatistics.incrementSignedRejected();
+			}
+			return null;
+		}
+		
+		StatelessMapperFactory factory = statelessFactories.get(signedToken.getMapperType());
+		if(factory == null) {
+			return null;
+		}
+		MapperStatistics.incrementSignedResolved();
+		return factory.createMapper(signedToken.getConfiguration());
+	}
+	
+	/**
+	 * The secret must be the same on all nodes. If it's not configured, it's
+	 * generated and saved as a property, the oldest one wins if two nodes
+	 * generate it at the same time.
+	 */
+	private byte[] getSignedSecret() {
+		byte[] secret = signedSecret;
+		if(secret == null) {
+			synchronized(this) {
+				secret = signedSecret;
+				if(secret == null) {
+					secret = loadSignedSecret();
+					signedSecret = secret;
+				}
+			}
+		}
+		return secret;
+	}
+	
+	private byte[] loadSignedSecret() {
+		if(StringHelper.containsNonWhitespace(configuredSecret)) {
+			return configuredSecret.getBytes(StandardCharsets.UTF_8);
+		}
+		
+		List<Property> properties = propertyManager.findProperties(null, null, null, SECRET_CATEGORY, SECRET_NAME);
+		if(properties.isEmpty()) {
+			byte[] random = new byte[32];
+			new SecureRandom().nextBytes(random);
+			String value = Base64.getEncoder().encodeToString(random);
+			Property property = propertyManager.createPropertyInstance(null, null, null, SECRET_CATEGORY, SECRET_NAME, null, null, value, null);
+			propertyManager.saveProperty(property);
+			dbInstance.commit();
+			properties = propertyManager.findProperties(null, null, null, SECRET_CATEGORY, SECRET_NAME);
+			log.info("Secret to sign the mapper URLs generated");
+		}
+		Property property = properties.stream()
+				.min(Comparator.comparing(Property::getKey))
+				.orElseThrow();
+		return Base64.getDecoder().decode(property.getStringValue());
+	}
 
 	@Override
 	public Mapper getMapperById(UserSession session, String id) {
@@ -142,11 +304,16 @@ public class MapperServiceImpl implements MapperService, InitializingBean {
 			id = id.substring(index + DispatcherModule.PATH_MAPPED.length(), id.length());
 		}
 		
+		if(SignedMapperToken.isSignedToken(id)) {
+			return getStatelessMapper(session, id);
+		}
+		
 		MapperKey mapperKey = new MapperKey(session, id);
 		Mapper mapper = mapperKeyToMapper.get(mapperKey);
 		if(mapper == null) {
 			mapper = mapperCache.get(id);
 			if(mapper == null) {
+				MapperStatistics.incrementDatabaseLookups();
 				mapper = mapperDao.retrieveMapperById(id);
 				if(mapper != null) {
 					mapperCache.put(id, mapper);
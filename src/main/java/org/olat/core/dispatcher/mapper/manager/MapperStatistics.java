@@ -0,0 +1,132 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.dispatcher.mapper.manager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the mapper registrations and of the resolution of the
+ * mappers. The registrations are counted per request too, the request
+ * must call {@link #requestDone()} at its end.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MapperStatistics implements MapperStatisticsMBean {
+	
+	private static final ThreadLocal<int[]> requestRegistrations = ThreadLocal.withInitial(() -> new int[1]);
+	
+	private static final LongAdder signedRegistrations = new LongAdder();
+	private static final LongAdder memoryRegistrations = new LongAdder();
+	private static final LongAdder persistedRegistrations = new LongAdder();
+	private static final LongAdder signedResolved = new LongAdder();
+	private static final LongAdder signedRejected = new LongAdder();
+	private static final LongAdder databaseLookups = new LongAdder();
+	private static final LongAdder requestsWithRegistrations = new LongAdder();
+	private static final LongAdder registrationsInRequests = new LongAdder();
+	private static final AtomicLong maxRegistrationsPerRequest = new AtomicLong();
+	
+	static void incrementSignedRegistrations() {
+		signedRegistrations.increment();
+		requestRegistrations.get()[0]++;
+	}
+	
+	static void incrementMemoryRegistrations(boolean persisted) {
+		memoryRegistrations.increment();
+		if(persisted) {
+			persistedRegistrations.increment();
+		}
+		requestRegistrations.get()[0]++;
+	}
+	
+	static void incrementSignedResolved() {
+		signedResolved.increment();
+	}
+	
+	static void incrementSignedRejected() {
+		signedRejected.increment();
+	}
+	
+	static void incrementDatabaseLookups() {
+		databaseLookups.increment();
+	}
+	
+	/**
+	 * Collect the number of mappers registered during the current request.
+	 */
+	public static void requestDone() {
+		int[] count = requestRegistrations.get();
+		int registrations = count[0];
+		if(registrations > 0) {
+			count[0] = 0;
+			requestsWithRegistrations.increment();
+			registrationsInRequests.add(registrations);
+			maxRegistrationsPerRequest.accumulateAndGet(registrations, Math::max);
+		}
+	}
+
+	@Override
+	public long getSignedRegistrations() {
+		return signedRegistrations.sum();
+	}
+
+	@Override
+	public long getMemoryRegistrations() {
+		return memoryRegistrations.sum();
+	}
+
+	@Override
+	public long getPersistedRegistrations() {
+		return persistedRegistrations.sum();
+	}
+
+	@Override
+	public long getSignedResolved() {
+		return signedResolved.sum();
+	}
+
+	@Override
+	public long getSignedRejected() {
+		return signedRejected.sum();
+	}
+
+	@Override
+	public long getDatabaseLookups() {
+		return databaseLookups.sum();
+	}
+
+	@Override
+	public long getRequestsWithRegistrations() {
+		return requestsWithRegistrations.sum();
+	}
+
+	@Override
+	public double getAverageRegistrationsPerRequest() {
+		long requests = requestsWithRegistrations.sum();
+		return requests == 0 ? 0.0d : (double)registrationsInRequests.sum() / requests;
+	}
+
+	@Override
+	public long getMaxRegistrationsPerRequest() {
+		return maxRegistrationsPerRequest.get();
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.dispatcher.mapper.manager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.olat.core.logging.OLATRuntimeException;
+
+/**
+ * The token of a stateless mapper: the type, the expiration date and the
+ * configuration of the mapper, signed with HMAC-SHA256. The token is a single
+ * segment of the URL: <code>s.payload.signature</code>, both parts are
+ * encoded in URL safe Base64. The signature is bound to the session ID if
+ * the mapper was registered for a session.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class SignedMapperToken {
+	
+	public static final String PREFIX = "s.";
+	
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final int SIGNATURE_LENGTH = 16;
+	
+	private final String mapperType;
+	private final String configuration;
+	private final long expiration;
+	
+	public SignedMapperToken(String mapperType, String configuration, long expiration) {
+		this.mapperType = mapperType;
+		this.configuration = configuration;
+		this.expiration = expiration;
+	}
+	
+	public String getMapperType() {
+		return mapperType;
+	}
+
+	public String getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * @return The expiration date in seconds since epoch
+	 */
+	public long getExpiration() {
+		return expiration;
+	}
+	
+	public static boolean isSignedToken(String id) {
+		return id != null && id.startsWith(PREFIX);
+	}
+	
+	/**
+	 * @param secret The secret key
+	 * @param sessionId The session ID or an empty string
+	 * @return The token
+	 */
+	public String sign(byte[] secret, String sessionId) {
+		String data = mapperType + "\n" + expiration + "\n" + configuration;
+		String payload = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(data.getBytes(StandardCharsets.UTF_8));
+		String signature = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(signature(secret, payload, sessionId));
+		return PREFIX + payload + "." + signature;
+	}
+	
+	/**
+	 * Check the signature and the expiration date of the token.
+	 * 
+	 * @param token The token
+	 * @param secret The secret key
+	 * @param sessionId The session ID or an empty string
+	 * @param now The current time in seconds since epoch
+	 * @return The token or null if the token is not valid or expired
+	 */
+	public static SignedMapperToken verify(String token, byte[] secret, String sessionId, long now) {
+		if(!isSignedToken(token)) {
+			return null;
+		}
+		
+		int index = token.indexOf('.', PREFIX.length());
+		if(index < 0 || index == token.length() - 1) {
+			return null;
+		}
+		
+		try {
+			String payload = token.substring(PREFIX.length(), index);
+			byte[] signature = Base64.getUrlDecoder().decode(token.substring(index + 1));
+			if(!MessageDigest.isEqual(signature(secret, payload, sessionId), signature)) {
+				return null;
+			}
+			
+			String data = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+			int typeIndex = data.indexOf('\n');
+			int expirationIndex = data.indexOf('\n', typeIndex + 1);
+			if(typeIndex < 0 || expirationIndex < 0) {
+				return null;
+			}
+			long expiration = Long.parseLong(data.substring(typeIndex + 1, expirationIndex));
+			if(expiration < now) {
+				return null;
+			}
+			return new SignedMapperToken(data.substring(0, typeIndex), data.substring(expirationIndex + 1), expiration);
+		} catch (IllegalArgumentException e) {
+			// not Base64 or not a number
+			return null;
+		}
+	}
+	
+	private static byte[] signature(byte[] secret, String payload, String sessionId) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(new SecretKeySpec(secret, ALGORITHM));
+			mac.update(payload.getBytes(StandardCharsets.US_ASCII));
+			mac.update((byte)'\n');
+			mac.update(sessionId.getBytes(StandardCharsets.UTF_8));
+			return Arrays.copyOf(mac.doFinal(), SIGNATURE_LENGTH);
+		} catch (GeneralSecurityException e) {
+			throw new OLATRuntimeException("Cannot sign mapper token", e);
+		}
+	}
+}
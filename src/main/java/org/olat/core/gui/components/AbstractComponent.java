@@ -81,6 +81,11 @@ public abstract class AbstractComponent implements Component {
 	 * quite some memory
 	 */
 	private ComponentCollection parent;
+	
+	// tracking of the dirty components by the window which rendered the component
+	private DirtyComponents dirtyComponents;
+	private ComponentCollection renderParent;
+	private long renderPass;
 	/**
 	 * 
 	 * @param name the name of this component
@@ -387,6 +392,51 @@ public abstract class AbstractComponent implements Component {
 	 */
 	public void setDirty(boolean dirty) {
 		this.dirty = dirty;
+		if(dirty && dirtyComponents != null) {
+			dirtyComponents.add(this);
+		}
+	}
+	
+	/**
+	 * Return true if the component calculates its dirty flag in {@link #isDirty()}
+	 * instead of calling {@link #setDirty(boolean)}. The window will ask these
+	 * components at every request.
+	 * 
+	 * @return true if the dirty flag must be polled (default false)
+	 */
+	public boolean isDirtyPolling() {
+		return false;
+	}
+	
+	/**
+	 * Stamp the component after its rendering.
+	 * 
+	 * @param tracker The tracker of the window
+	 * @param pass The rendering pass
+	 */
+	void setRendered(DirtyComponents tracker, long pass) {
+		dirtyComponents = tracker;
+		renderPass = pass;
+		if(dirty) {
+			// the component was not rendered by its parent
+			tracker.add(this);
+		}
+	}
+	
+	DirtyComponents getDirtyComponents() {
+		return dirtyComponents;
+	}
+	
+	long getRenderPass() {
+		return renderPass;
+	}
+	
+	ComponentCollection getRenderParent() {
+		return renderParent;
+	}
+	
+	void setRenderParent(ComponentCollection renderParent) {
+		this.renderParent = renderParent;
 	}
 
 	/**
@@ -0,0 +1,224 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Track the dirty components of a window. A component registers itself
+ * when it's marked as dirty, so the window doesn't need to walk the whole
+ * tree of components to find them.<br>
+ * The components are stamped when they are rendered in the window: the
+ * tracker remembers the structural parent and the number of the rendering
+ * pass. A dirty component is only sent to the browser if the chain of its
+ * parents is still rendered in the window and visible. The components which
+ * calculate their dirty flag (see {@link AbstractComponent#isDirtyPolling()})
+ * are asked at every request.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class DirtyComponents {
+	
+	private static final ThreadLocal<DirtyComponents> currentRendering = new ThreadLocal<>();
+	
+	private long pass = 0;
+	private final Set<AbstractComponent> dirties = new LinkedHashSet<>();
+	private final Set<AbstractComponent> polled = new HashSet<>();
+	
+	/**
+	 * Called by the component itself when marked as dirty, from
+	 * whatever thread.
+	 * 
+	 * @param component The dirty component
+	 */
+	protected void add(AbstractComponent component) {
+		synchronized(dirties) {
+			dirties.add(component);
+		}
+	}
+	
+	/**
+	 * Start a rendering pass for the current thread. A full rendering
+	 * of the window forget all the dirty components.
+	 * 
+	 * @param fullRendering true if the whole window is rendered
+	 */
+	public void beginRendering(boolean fullRendering) {
+		pass++;
+		if(fullRendering) {
+			synchronized(dirties) {
+				dirties.clear();
+			}
+			polled.clear();
+		}
+		currentRendering.set(this);
+	}
+	
+	public void endRendering() {
+		currentRendering.remove();
+	}
+	
+	/**
+	 * Called by the renderer after a component was rendered.
+	 * 
+	 * @param source The rendered component
+	 */
+	public static void rendered(Component source) {
+		DirtyComponents tracker = currentRendering.get();
+		if(tracker != null && source instanceof AbstractComponent) {
+			tracker.track((AbstractComponent)source);
+		}
+	}
+	
+	private void track(AbstractComponent component) {
+		component.setRendered(this, pass);
+		if(component.isDirtyPolling()) {
+			polled.add(component);
+		}
+		// the children rendered directly by the renderer of the component
+		// are not seen by the renderer, stamp them all
+		if(component.isVisible() && component instanceof ComponentCollection) {
+			ComponentCollection collection = (ComponentCollection)component;
+			Iterable<Component> children = collection.getComponents();
+			if(children != null) {
+				for(Component child:children) {
+					if(child instanceof AbstractComponent) {
+						AbstractComponent childComponent = (AbstractComponent)child;
+						childComponent.setRenderParent(collection);
+						if(childComponent.getRenderPass() != pass || childComponent.getDirtyComponents() != this) {
+							track(childComponent);
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Collect the dirty components which need to be rendered. If a
+	 * parent of a dirty component is dirty, only the parent is returned.
+	 * The invisible dirty components are returned too (their place holder
+	 * need to be rendered), but their dirty flag is reset.
+	 * 
+	 * @param root The root of the window
+	 * @return A list of components to render without duplicates
+	 */
+	public List<Component> collect(ComponentCollection root) {
+		List<AbstractComponent> candidates;
+		synchronized(dirties) {
+			candidates = new ArrayList<>(dirties);
+			dirties.clear();
+		}
+		
+		// some components calculate their dirty flag with side effects, ask them only once
+		Map<Component,Boolean> dirtyFlags = new IdentityHashMap<>();
+		for(Iterator<AbstractComponent> it=polled.iterator(); it.hasNext(); ) {
+			AbstractComponent polledComponent = it.next();
+			if(!isRendered(polledComponent, root)) {
+				it.remove();
+			} else if(isDirty(polledComponent, dirtyFlags)) {
+				candidates.add(polledComponent);
+			}
+		}
+		
+		Set<Component> toRender = new LinkedHashSet<>();
+		for(AbstractComponent candidate:candidates) {
+			Component top = findTopDirty(candidate, root, dirtyFlags);
+			if(top != null) {
+				toRender.add(top);
+			}
+		}
+		
+		List<Component> dirtyList = new ArrayList<>(toRender);
+		for(Component dirty:dirtyList) {
+			if(!dirty.isVisible()) {
+				// clear manually here since this component will not be rendered
+				dirty.setDirty(false);
+			}
+		}
+		return dirtyList;
+	}
+	
+	private boolean isRendered(AbstractComponent component, ComponentCollection root) {
+		AbstractComponent current = component;
+		while(current != root) {
+			AbstractComponent parent = getRenderedParent(current);
+			if(parent == null) {
+				return false;
+			}
+			current = parent;
+		}
+		return true;
+	}
+	
+	private Component findTopDirty(AbstractComponent component, ComponentCollection root, Map<Component,Boolean> dirtyFlags) {
+		if(!isDirty(component, dirtyFlags)) {
+			return null;// already rendered
+		}
+		
+		Component top = component;
+		AbstractComponent current = component;
+		while(current != root) {
+			AbstractComponent parent = getRenderedParent(current);
+			if(parent == null || !parent.isVisible()) {
+				return null;
+			}
+			if(isDirty(parent, dirtyFlags)) {
+				top = parent;
+			}
+			current = parent;
+		}
+		return top;
+	}
+	
+	/**
+	 * @param component The component
+	 * @return The parent if the component was rendered in this window with
+	 * 		its parent, or null if the component was removed since its last rendering
+	 */
+	private AbstractComponent getRenderedParent(AbstractComponent component) {
+		if(component.getDirtyComponents() != this) {
+			return null;
+		}
+		ComponentCollection parent = component.getRenderParent();
+		if(parent instanceof AbstractComponent) {
+			AbstractComponent parentComponent = (AbstractComponent)parent;
+			// the parent was rendered again without the component
+			if(parentComponent.getDirtyComponents() == this
+					&& parentComponent.getRenderPass() <= component.getRenderPass()) {
+				return parentComponent;
+			}
+		}
+		return null;
+	}
+	
+	private boolean isDirty(Component component, Map<Component,Boolean> dirtyFlags) {
+		return dirtyFlags.computeIfAbsent(component, Component::isDirty).booleanValue();
+	}
+}
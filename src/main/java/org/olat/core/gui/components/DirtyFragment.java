@@ -17,35 +17,31 @@
  * frentix GmbH, http://www.frentix.com
  * <p>
  */
-package org.olat.core.commons.services.vfs.manager;
-
-import org.olat.core.util.event.MultiUserEvent;
+package org.olat.core.gui.components;
 
 /**
+ * A piece of HTML code which replaces the element of the DOM
+ * with the specified id.
  * 
- * Initial date: 15 mars 2019<br>
+ * Initial date: 18 oct. 2026<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class AsyncIncrementFileDownloadEvent extends MultiUserEvent {
-
-	private static final long serialVersionUID = 5439824954399187557L;
-	public static final String ASYNC_FILE_SIZE = "async-file-size-updates";
+public class DirtyFragment {
 	
-	private String filename;
-	private String relativePath;
+	private final String domId;
+	private final String html;
 	
-	public AsyncIncrementFileDownloadEvent(String relativePath, String filename) {
-		super(ASYNC_FILE_SIZE);
-		this.filename = filename;
-		this.relativePath = relativePath;
+	public DirtyFragment(String domId, String html) {
+		this.domId = domId;
+		this.html = html;
 	}
 
-	public String getFilename() {
-		return filename;
+	public String getDomId() {
+		return domId;
 	}
 
-	public String getRelativePath() {
-		return relativePath;
+	public String getHtml() {
+		return html;
 	}
 }
@@ -0,0 +1,58 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components;
+
+import java.util.List;
+
+import org.olat.core.gui.render.RenderResult;
+import org.olat.core.gui.render.Renderer;
+import org.olat.core.gui.render.URLBuilder;
+import org.olat.core.gui.translator.Translator;
+
+/**
+ * A component which can send only the changed parts of its HTML code,
+ * for example a single row of a table, instead of the whole component.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface DirtyFragmentsComponent extends Component {
+	
+	/**
+	 * @return true if only some fragments of the component changed and they
+	 * 		can be rendered without the rest of the component
+	 */
+	public boolean hasDirtyFragments();
+	
+	/**
+	 * Render the changed fragments. The fragments replace the elements of
+	 * the DOM with the same id.
+	 * 
+	 * @param renderer The renderer
+	 * @param ubu The URL builder
+	 * @param translator The translator of the component
+	 * @param renderResult The render result
+	 * @return A list of fragments
+	 */
+	public List<DirtyFragment> renderDirtyFragments(Renderer renderer, URLBuilder ubu, Translator translator,
+			RenderResult renderResult);
+
+}
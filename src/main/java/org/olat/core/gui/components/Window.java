@@ -32,6 +32,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -40,6 +41,7 @@ import org.apache.logging.log4j.Logger;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.olat.admin.sysinfo.manager.SessionStatsManager;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.commons.services.analytics.AnalyticsModule;
@@ -190,6 +192,8 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 	private final WindowBackOfficeImpl wbackofficeImpl;
 	// mutex for rendering
 	private final Object render_mutex = new Object();
+	// the components marked as dirty since the last rendering
+	private final DirtyComponents dirtyComponents = new DirtyComponents();
 	// delegate for css and js includes
 	private final JSAndCSSAdderImpl jsAndCssAdder;
 	// the analytics service
@@ -859,7 +863,12 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 							rstart = System.currentTimeMillis();
 						}
 						result = StringOutputPool.allocStringBuilder(100000);
-						fr.render(top, result, null);
+						try {
+							dirtyComponents.beginRendering(true);
+							fr.render(top, result, null);
+						} finally {
+							dirtyComponents.endRendering();
+						}
 						if (isDebugLog) {
 							long rstop = System.currentTimeMillis();
 							long diff = rstop - rstart;
@@ -983,44 +992,15 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 				start = System.currentTimeMillis();
 			}
 			
-			final List<Component> dirties = new ArrayList<>();
-			ComponentVisitor dirtyV = (comp, ureq) -> {
-				boolean visitChildren = false;
-				if(comp == null) {
-					log.warn("Ooops, a component is null");
-				} else if (!comp.isVisible()) {
-					// a component just made -visible- still needs to be collected (detected by checking dirty flag)
-					if (comp.isDirty()) {
-						dirties.add(comp);
-						comp.setDirty(false);  // clear manually here since this component will not be rendered
-					}
-				} else if (comp.isDirty()) {
-					dirties.add(comp);
-				} else {
-					// visible and not dirty -> visit children
-					visitChildren = true;
-				}				
-				return visitChildren;
-			};
-			ComponentTraverser ct = new ComponentTraverser(dirtyV, getContentPane(), false);
-			ct.visitAll(null);
-			
-			if(!dirties.isEmpty()) {
-				Set<Component> dirtyDuplicates = new HashSet<>();
-				for(Iterator<Component> it=dirties.iterator(); it.hasNext(); ) {
-					Component dirty = it.next();
-					if(dirtyDuplicates.contains(dirty)) {
-						it.remove();
-					} else {
-						dirtyDuplicates.add(dirty);
-					}
-				}
+			final List<Component> dirties = dirtyComponents.collect(getContentPane());
+			if(Settings.isDebuging()) {
+				checkDirties(dirties);
 			}
 			
 			int dCnt = dirties.size();
 			if (isDebugLog) {
-				long durationVisitAll = System.currentTimeMillis() - start;
-				log.debug("Perf-Test: Window.handleDirties after ct.visitAll durationVisitAll={}", durationVisitAll);
+				long durationCollect = System.currentTimeMillis() - start;
+				log.debug("Perf-Test: Window.handleDirties after collect durationCollect={}", durationCollect);
 				log.debug("Perf-Test: Window.handleDirties dirties.size()={}", dirties.size());
 			}
 			
@@ -1046,6 +1026,8 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 							debugMsg = new StringBuilder("update:").append(String.valueOf(dCnt)).append(";");
 						}
 						
+						long renderingBytes = 0l;
+						long renderingStart = System.nanoTime();
 						for (int i = 0; i < dCnt; i++) {
 							Component toRender = dirties.get(i);
 							if(isDebugLog) {
@@ -1063,7 +1045,9 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 							StringOutput jsol = null;
 							StringOutput hdr = null;
 							StringOutput result = null;
+							List<DirtyFragment> fragments = null;
 							try {
+								dirtyComponents.beginRendering(false);
 								toRender.setDomReplaceable(false);
 								wrapper.setContent(toRender);
 								String newTimestamp = String.valueOf(timestamp);
@@ -1089,8 +1073,15 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 								if (isDebugLog) {
 									pstart = System.currentTimeMillis();
 								}
-								result = StringOutputPool.allocStringBuilder(100000);
-								fr.render(toRender, result, null);
+								if(interceptHandler == null && toRender.isVisible() && hdr.length() == 0
+										&& toRender instanceof DirtyFragmentsComponent
+										&& ((DirtyFragmentsComponent)toRender).hasDirtyFragments()) {
+									// only some parts of the component changed
+									fragments = fr.renderDirtyFragments((DirtyFragmentsComponent)toRender);
+								} else {
+									result = StringOutputPool.allocStringBuilder(100000);
+									fr.render(toRender, result, null);
+								}
 								if (isDebugLog) {
 									long pstop = System.currentTimeMillis();
 									debugMsg.append(toRender.getComponentName()).append(":").append((pstop - pstart));
@@ -1102,6 +1093,7 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 								throw new OLATRuntimeException("Unexpected error ", e);
 							} finally {
 								toRender.setDomReplaceable(true);
+								dirtyComponents.endRendering();
 							}
 							if (renderResult.getRenderException() != null) {
 								throw new OLATRuntimeException(Window.class, renderResult.getLogMsg(), renderResult.getRenderException());
@@ -1118,30 +1110,53 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 							
 							JSONObject jo = new JSONObject();
 							String cid = toRender.getDispatchID();
+							long fragmentsLength = 0l;
+							if(fragments != null) {
+								JSONArray frags = new JSONArray();
+								for(DirtyFragment fragment:fragments) {
+									JSONObject frag = new JSONObject();
+									frag.put("id", fragment.getDomId());
+									frag.put("hfrag", fragment.getHtml());
+									frags.put(frag);
+									fragmentsLength += fragment.getHtml().length();
+								}
+								jo.put("frags", frags);
+							} else {
+								fragmentsLength = result.length();
+								jo.put("hfrag", StringOutputPool.freePop(result));
+							}
+							renderingBytes += fragmentsLength + jsol.length() + hdr.length();
 							if (Settings.isDebuging()) {
 								// for debugging only
 								jo.put("cname", toRender.getComponentName());
 								jo.put("clisteners",toRender.getListenerInfo());
-								jo.put("hfragsize", result.length());
+								jo.put("hfragsize", fragmentsLength);
 							}
 							
 							jo.put("cid", cid);
 							jo.put("cw", toRender.isDomReplacementWrapperRequired());
 							jo.put("cidvis", toRender.isVisible());
-							jo.put("hfrag", StringOutputPool.freePop(result));
 							jo.put("jsol", StringOutputPool.freePop(jsol));
 							jo.put("hdr", StringOutputPool.freePop(hdr));
 							ja.put(jo);
 						}
+						long renderingNanos = System.nanoTime() - renderingStart;
 						//polling case should never set the asyncMediaResp. 
 						//to null otherwise it possible that e.g. pdf served as following click within a CP component
 						if (amr != null) {
 							setAsyncMediaResponsible(amr);
 						}
-											
+						
+						CoreSpringFactory.getImpl(SessionStatsManager.class)
+							.incrementPartialRendering(dCnt, renderingBytes, renderingNanos);
+						if (Settings.isDebuging()) {
+							root.put("rsize", renderingBytes);
+							root.put("rtime", TimeUnit.NANOSECONDS.toMillis(renderingNanos));
+						}
 						if (isDebugLog) {
 							long rstop = System.currentTimeMillis();
-							debugMsg.append(";inl_part_render:").append((rstop-rstart));
+							debugMsg.append(";inl_part_render:").append((rstop-rstart))
+								.append(";size:").append(renderingBytes);
 							log.debug(debugMsg.toString());
 						}
 
@@ -1166,6 +1181,39 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 		}
 	}
 
+	/**
+	 * Check in debug mode that the tracking of the dirty components doesn't
+	 * forget a component. The components found by walking the whole tree
+	 * are added to the list.
+	 * 
+	 * @param dirties The dirty components found by the tracking
+	 */
+	private void checkDirties(final List<Component> dirties) {
+		final Set<Component> tracked = new HashSet<>(dirties);
+		ComponentVisitor dirtyV = (comp, ureq) -> {
+			boolean visitChildren = false;
+			if(comp == null) {
+				log.warn("Ooops, a component is null");
+			} else if(tracked.contains(comp)) {
+				// already collected
+			} else if (!comp.isVisible()) {
+				if (comp.isDirty()) {
+					log.warn("Dirty component not tracked: {} ({})", comp.getComponentName(), comp.getClass().getName());
+					dirties.add(comp);
+					comp.setDirty(false);  // clear manually here since this component will not be rendered
+				}
+			} else if (comp.isDirty()) {
+				log.warn("Dirty component not tracked: {} ({})", comp.getComponentName(), comp.getClass().getName());
+				dirties.add(comp);
+			} else {
+				visitChildren = true;
+			}				
+			return visitChildren;
+		};
+		ComponentTraverser ct = new ComponentTraverser(dirtyV, getContentPane(), false);
+		ct.visitAll(null);
+	}
+
 	/**
 	 * builds a url for this window
 	 * 
@@ -108,6 +108,11 @@ public class CountDownComponent extends AbstractComponent {
 		return dirty;
 	}
 
+	@Override
+	public boolean isDirtyPolling() {
+		return true;
+	}
+
 	@Override
 	protected void doDispatchRequest(UserRequest ureq) {
 		//
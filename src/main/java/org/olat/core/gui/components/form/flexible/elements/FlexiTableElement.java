@@ -471,6 +471,15 @@ public interface FlexiTableElement extends FormItem, FormItemCollection {
 	public void resetSearch(UserRequest ureq);
 	
 	public void reloadData();
+	
+	/**
+	 * Mark only a row as changed, for example after its object was updated
+	 * in the data model. If the rest of the table doesn't change, only the row
+	 * is rendered and sent to the browser.
+	 * 
+	 * @param row The index of the row in the data model
+	 */
+	public void setRowDirty(int row);
 
 	/**
 	 * Set the message displayed when the table is empty and the table header
@@ -51,6 +51,11 @@ public class MemoryComponent extends FormBaseComponentImpl {
 		return true;
 	}
 
+	@Override
+	public boolean isDirtyPolling() {
+		return true;
+	}
+
 	@Override
 	public ComponentRenderer getHTMLRendererSingleton() {
 		return RENDERER;
@@ -29,24 +29,34 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.olat.core.gui.components.Component;
 import org.olat.core.gui.components.ComponentCollection;
 import org.olat.core.gui.components.ComponentRenderer;
+import org.olat.core.gui.components.DirtyFragment;
+import org.olat.core.gui.components.DirtyFragmentsComponent;
 import org.olat.core.gui.components.form.flexible.FormItem;
 import org.olat.core.gui.components.form.flexible.impl.FormBaseComponentImpl;
+import org.olat.core.gui.render.RenderResult;
+import org.olat.core.gui.render.Renderer;
+import org.olat.core.gui.render.StringOutput;
+import org.olat.core.gui.render.URLBuilder;
 import org.olat.core.gui.translator.Translator;
 
 /**
  * @author Christian Guretzki
  */
-public class FlexiTableComponent extends FormBaseComponentImpl implements ComponentCollection {
+public class FlexiTableComponent extends FormBaseComponentImpl implements ComponentCollection, DirtyFragmentsComponent {
 
-	private static final ComponentRenderer CLASSIC_RENDERER = new FlexiTableClassicRenderer();
+	private static final FlexiTableClassicRenderer CLASSIC_RENDERER = new FlexiTableClassicRenderer();
 	private static final ComponentRenderer CUSTOM_RENDERER = new FlexiTableCustomRenderer();
 	
 	private FlexiTableElementImpl element;
 	private final Map<String,Component> components = new HashMap<>();
+	// rows changed, empty if the whole table is dirty
+	private Set<Integer> dirtyRows;
 	
 	public FlexiTableComponent(FlexiTableElementImpl element) {
 		super(element.getName());
@@ -96,4 +106,64 @@ public class FlexiTableComponent extends FormBaseComponentImpl implements Compon
 			default: return CLASSIC_RENDERER;
 		}
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void setDirty(boolean dirty) {
+		super.setDirty(dirty);
+		if(dirtyRows != null) {
+			dirtyRows.clear();
+		}
+	}
+	
+	/**
+	 * Mark only a row as changed. If the rest of the table doesn't
+	 * change, only the row will be rendered and sent to the browser.
+	 * 
+	 * @param row The index of the row
+	 */
+	public void setRowDirty(int row) {
+		if(!isDirty()) {
+			super.setDirty(true);
+			if(dirtyRows == null) {
+				dirtyRows = new TreeSet<>();
+			}
+			dirtyRows.add(Integer.valueOf(row));
+		} else if(dirtyRows != null && !dirtyRows.isEmpty()) {
+			dirtyRows.add(Integer.valueOf(row));
+		}
+	}
+
+	@Override
+	public boolean hasDirtyFragments() {
+		if(!isDirty() || dirtyRows == null || dirtyRows.isEmpty()
+				|| element.getRendererType() != FlexiTableRendererType.classic) {
+			return false;
+		}
+		
+		int firstRow = element.getFirstRow();
+		int lastRow = Math.min(element.getTableDataModel().getRowCount(), firstRow + element.getMaxRows());
+		for(Integer dirtyRow:dirtyRows) {
+			int row = dirtyRow.intValue();
+			// the row must be on the page and the details, if any, are not updated
+			if(row < firstRow || row >= lastRow || !element.getTableDataModel().isRowLoaded(row)
+					|| element.isDetailsExpended(row)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public List<DirtyFragment> renderDirtyFragments(Renderer renderer, URLBuilder ubu, Translator translator,
+			RenderResult renderResult) {
+		String rowIdPrefix = "row_" + getFormDispatchId() + "-";
+		List<DirtyFragment> fragments = new ArrayList<>(dirtyRows.size());
+		for(Integer dirtyRow:dirtyRows) {
+			int row = dirtyRow.intValue();
+			StringOutput sb = new StringOutput(1024);
+			CLASSIC_RENDERER.renderRow(renderer, sb, this, rowIdPrefix, row, ubu, translator, renderResult);
+			fragments.add(new DirtyFragment(rowIdPrefix + row, sb.toString()));
+		}
+		return fragments;
+	}
+}
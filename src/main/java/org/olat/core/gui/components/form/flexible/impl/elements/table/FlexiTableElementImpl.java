@@ -1908,6 +1908,11 @@ public class FlexiTableElementImpl extends FormItemImpl implements FlexiTableEle
 		multiSelectedIndex = null;
 	}
 
+	@Override
+	public void setRowDirty(int row) {
+		component.setRowDirty(row);
+	}
+
 	@Override
 	public void reloadData() {
 		if(dataSource != null) {
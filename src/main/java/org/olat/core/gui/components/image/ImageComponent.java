@@ -64,13 +64,13 @@ public class ImageComponent extends AbstractComponent implements Disposable {
 
 	private String alt;
 	private String cssClasses;
-	private final MapperKey mapperUrl;
+	private MapperKey mapperUrl;
 	private final VFSMediaMapper mapper;
 
 	// optional in case of video: poster image
 	private VFSLeaf poster;
 	private MapperKey posterMapperUrl;
-	private VFSMediaMapper posterMapper;
+	private final VFSMediaMapper posterMapper;
 
 	private Size realSize;
 	private Size scaledSize;
@@ -79,22 +79,26 @@ public class ImageComponent extends AbstractComponent implements Disposable {
 	private boolean cropSelectionEnabled = false;
 	private boolean preventBrowserCaching = true;
 	
+	private final String mapperId;
+	private final UserSession usess;
 	private final MapperService mapperService;
 
 	/**
+	 * The mappers are registered when the media is set. A media of the local
+	 * file system is delivered by a stateless mapper with a signed URL, the
+	 * others by a mapper registered in the session.
 	 * 
 	 * @param usess The user session
 	 * @param name The name of the component
 	 */
 	public ImageComponent(UserSession usess, String name) {
 		super(name);
+		this.usess = usess;
 		mapper = new VFSMediaMapper();
-		String mapperId = UUID.randomUUID().toString();
+		mapperId = UUID.randomUUID().toString();
 		mapperService = CoreSpringFactory.getImpl(MapperService.class);
-		mapperUrl = mapperService.register(usess, mapperId, mapper);
 		// optional poster frame for videos
 		posterMapper = new VFSMediaMapper();
-		posterMapperUrl = mapperService.register(usess, mapperId + "-poster", posterMapper);		
 		// renderer provides own DOM ID
 		setDomReplacementWrapperRequired(false);
 	}
@@ -179,13 +183,21 @@ public class ImageComponent extends AbstractComponent implements Disposable {
 	
 	@Override
 	public void dispose() {
-		if(mapper != null) {
+		if(mapperUrl != null) {
 			mapperService.cleanUp(Collections.<MapperKey>singletonList(mapperUrl));
 		}
-		if(posterMapper != null) {
+		if(posterMapperUrl != null) {
 			mapperService.cleanUp(Collections.<MapperKey>singletonList(posterMapperUrl));
 		}
 	}
+	
+	private MapperKey registerMapper(MapperKey currentKey, String id, VFSMediaMapper mediaMapper) {
+		MapperKey mapperKey = mapperService.register(usess, id, mediaMapper);
+		if(currentKey != null && !currentKey.getUrl().equals(mapperKey.getUrl())) {
+			mapperService.cleanUp(Collections.<MapperKey>singletonList(currentKey));
+		}
+		return mapperKey;
+	}
 
 	/**
 	 * Sets the image to be delivered. The image can be
@@ -199,6 +211,7 @@ public class ImageComponent extends AbstractComponent implements Disposable {
 		this.media = media;
 		this.mimeType = null;
 		mapper.setMediaFile(media);
+		mapperUrl = registerMapper(mapperUrl, mapperId, mapper);
 		realSize = null;
 	}
 	
@@ -207,6 +220,7 @@ public class ImageComponent extends AbstractComponent implements Disposable {
 		this.media = media;
 		this.mimeType = mimeType;
 		mapper.setMediaFile(media);
+		mapperUrl = registerMapper(mapperUrl, mapperId, mapper);
 		realSize = null;
 	}
 	
@@ -219,13 +233,20 @@ public class ImageComponent extends AbstractComponent implements Disposable {
 		setDirty(true);
 		this.poster = poster;
 		posterMapper.setMediaFile(poster);
+		posterMapperUrl = registerMapper(posterMapperUrl, mapperId + "-poster", posterMapper);
 	}
 	
 	public String getMapperUrl() {
+		if(mapperUrl == null) {
+			mapperUrl = registerMapper(null, mapperId, mapper);
+		}
 		return mapperUrl.getUrl();
 	}
 
 	public String getPosterMapperUrl() {
+		if(posterMapperUrl == null) {
+			posterMapperUrl = registerMapper(null, mapperId + "-poster", posterMapper);
+		}
 		return posterMapperUrl.getUrl();
 	}
 	
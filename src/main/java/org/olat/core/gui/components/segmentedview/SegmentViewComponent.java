@@ -106,6 +106,11 @@ public class SegmentViewComponent extends AbstractComponent  {
 		return dirty;
 	}
 
+	@Override
+	public boolean isDirtyPolling() {
+		return true;
+	}
+
 	public boolean isEmpty() {
 		return segments.isEmpty();
 	}
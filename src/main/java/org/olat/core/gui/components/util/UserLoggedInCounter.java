@@ -60,6 +60,11 @@ public class UserLoggedInCounter extends AbstractComponent {
 		return (currentCount != lastCount);
 	}
 
+	@Override
+	public boolean isDirtyPolling() {
+		return true;
+	}
+
 	/**
 	 * @return The number of users logged in using the web client, excluding
 	 *         webdav and rest users.
@@ -53,6 +53,15 @@ public class CleanupAfterDeliveryFileMediaResource extends FileMediaResource {
 		return false;
 	}
 
+	/**
+	 * The file is deleted on release, it cannot be delivered
+	 * after the request by the container or the front proxy.
+	 */
+	@Override
+	public boolean isOffloadable() {
+		return false;
+	}
+
 	@Override
 	public void release() {
 		FileUtils.deleteFile(file);
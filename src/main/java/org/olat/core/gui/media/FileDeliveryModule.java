@@ -0,0 +1,158 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.media;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import org.olat.core.commons.modules.bc.FolderConfig;
+import org.olat.core.logging.AssertException;
+import org.olat.core.util.StringHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Configuration of the delivery of the files: sendfile of the servlet
+ * container or zero copy transfer, or delegation to the front proxy with
+ * the X-Accel-Redirect (nginx) or X-Sendfile (Apache mod_xsendfile) headers.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class FileDeliveryModule {
+	
+	public static final String X_ACCEL_REDIRECT = "X-Accel-Redirect";
+	public static final String X_SENDFILE = "X-Sendfile";
+	
+	@Value("${file.delivery.zero.copy:true}")
+	private boolean zeroCopy;
+	@Value("${file.delivery.etag:true}")
+	private boolean etag;
+	@Value("${file.delivery.offload:none}")
+	private String offload;
+	@Value("${file.delivery.offload.prefix:/olat-files}")
+	private String offloadPrefix;
+	@Value("${file.delivery.offload.root:}")
+	private String offloadRoot;
+	@Value("${file.delivery.offload.secret:}")
+	private String offloadSecret;
+	@Value("${file.delivery.offload.ttl:60}")
+	private long offloadTtl;
+	@Value("${file.delivery.offload.min.size:65536}")
+	private long offloadMinSize;
+	
+	/**
+	 * @return true if the files are delivered with sendfile or a file channel
+	 */
+	public boolean isZeroCopyEnabled() {
+		return zeroCopy;
+	}
+	
+	/**
+	 * @return true if the strong entity tags of the resources are sent
+	 */
+	public boolean isETagEnabled() {
+		return etag;
+	}
+	
+	/**
+	 * @return The header to offload the delivery to the front proxy or null
+	 */
+	public String getOffloadHeader() {
+		if("x-accel-redirect".equalsIgnoreCase(offload)) {
+			return X_ACCEL_REDIRECT;
+		}
+		if("x-sendfile".equalsIgnoreCase(offload)) {
+			return X_SENDFILE;
+		}
+		return null;
+	}
+	
+	/**
+	 * @return The minimal size of the files delivered by the front proxy
+	 */
+	public long getOffloadMinSize() {
+		return offloadMinSize;
+	}
+	
+	/**
+	 * The path of the file for the front proxy: the absolute path for
+	 * X-Sendfile, the internal location for X-Accel-Redirect signed for
+	 * the secure link module of nginx if a secret is configured.
+	 * 
+	 * @param file The file to deliver
+	 * @return The path or null if the file is not under the root of the offloaded files
+	 */
+	public String getOffloadPath(File file) {
+		Path filePath = file.toPath().toAbsolutePath().normalize();
+		if(X_SENDFILE.equals(getOffloadHeader())) {
+			return filePath.toString();
+		}
+		
+		String root = StringHelper.containsNonWhitespace(offloadRoot) ? offloadRoot : FolderConfig.getCanonicalRoot();
+		Path rootPath = Paths.get(root).toAbsolutePath().normalize();
+		if(!filePath.startsWith(rootPath) || filePath.equals(rootPath)) {
+			return null;
+		}
+		
+		StringBuilder uri = new StringBuilder(128);
+		StringBuilder encodedUri = new StringBuilder(128);
+		String prefix = offloadPrefix.endsWith("/") ? offloadPrefix.substring(0, offloadPrefix.length() - 1) : offloadPrefix;
+		uri.append(prefix);
+		encodedUri.append(prefix);
+		for(Path segment:rootPath.relativize(filePath)) {
+			uri.append('/').append(segment.toString());
+			encodedUri.append('/').append(StringHelper.urlEncodeUTF8(segment.toString()).replace("+", "%20"));
+		}
+		
+		if(StringHelper.containsNonWhitespace(offloadSecret)) {
+			long expires = (System.currentTimeMillis() / 1000l) + offloadTtl;
+			encodedUri.append("?md5=").append(signOffloadPath(uri.toString(), expires, offloadSecret))
+				.append("&expires=").append(expires);
+		}
+		return encodedUri.toString();
+	}
+	
+	/**
+	 * The signature matches the nginx configuration:
+	 * <code>secure_link_md5 "$secure_link_expires$uri secret";</code>
+	 * 
+	 * @param uri The decoded URI
+	 * @param expires The expiration date in seconds
+	 * @param secret The shared secret
+	 * @return The MD5 hash in base 64 URL encoding without padding
+	 */
+	protected static String signOffloadPath(String uri, long expires, String secret) {
+		try {
+			MessageDigest md5 = MessageDigest.getInstance("MD5");
+			byte[] hash = md5.digest((expires + uri + " " + secret).getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertException("MD5 not available", e);
+		}
+	}
+}
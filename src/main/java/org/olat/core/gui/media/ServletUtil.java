@@ -28,6 +28,7 @@ package org.olat.core.gui.media;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -35,6 +36,10 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -69,6 +74,11 @@ public class ServletUtil {
 	public static final long CACHE_ONE_HOUR = 60l * 60l;
 	public static final long CACHE_ONE_DAY = 24l * 60l * 60l;
 	
+	public static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+	public static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+	public static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+	public static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+	
 	
 	public static final void printOutRequestParameters(HttpServletRequest request) {
 		for(Enumeration<String> names=request.getParameterNames(); names.hasMoreElements(); ) {
@@ -140,15 +150,17 @@ public class ServletUtil {
 	public static void serveResource(HttpServletRequest httpReq, HttpServletResponse httpResp, MediaResource mr) {
 		boolean debug = log.isDebugEnabled();
 		try {
+			String etag = getETag(mr);
+			if (etag != null) {
+				httpResp.setHeader("ETag", etag);
+			}
 			Long lastModified = mr.getLastModified();
+			// give browser a chance to cache images
+			if (isNotModified(httpReq, etag, lastModified)) {
+				httpResp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
 			if (lastModified != null) {
-				// give browser a chance to cache images
-				long ifModifiedSince = httpReq.getDateHeader("If-Modified-Since");
-				long lastMod = lastModified.longValue();
-				if (ifModifiedSince >= (lastMod / 1000L) * 1000L) {
-					httpResp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
-					return;
-				}
 				httpResp.setDateHeader("Last-Modified", lastModified.longValue());
 			}
 
@@ -178,6 +190,49 @@ public class ServletUtil {
 		}
 	}
 	
+	private static String getETag(MediaResource mr) {
+		if(mr instanceof FileBackedMediaResource
+				&& CoreSpringFactory.getImpl(FileDeliveryModule.class).isETagEnabled()) {
+			return ((FileBackedMediaResource)mr).getETag();
+		}
+		return null;
+	}
+	
+	/**
+	 * The If-None-Match header has precedence over If-Modified-Since.
+	 */
+	private static boolean isNotModified(HttpServletRequest httpReq, String etag, Long lastModified) {
+		if(etag != null) {
+			String ifNoneMatch = httpReq.getHeader("If-None-Match");
+			if(ifNoneMatch != null) {
+				return matchETag(ifNoneMatch, etag);
+			}
+		}
+		if(lastModified == null) {
+			return false;
+		}
+		long ifModifiedSince = httpReq.getDateHeader("If-Modified-Since");
+		return ifModifiedSince >= (lastModified.longValue() / 1000L) * 1000L;
+	}
+	
+	/**
+	 * @param ifNoneMatch The value of the If-None-Match header
+	 * @param etag The strong entity tag of the resource
+	 * @return true if the header matches the entity tag
+	 */
+	protected static boolean matchETag(String ifNoneMatch, String etag) {
+		for(StringTokenizer tokenizer = new StringTokenizer(ifNoneMatch, ","); tokenizer.hasMoreTokens(); ) {
+			String tag = tokenizer.nextToken().trim();
+			if(tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if("*".equals(tag) || etag.equals(tag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	private static boolean isFlashPseudoStreaming(HttpServletRequest httpReq, MediaResource mr) {
 		//exclude some mappers which cannot be flash
 		if(mr instanceof JSONMediaResource) {
@@ -217,6 +272,11 @@ public class ServletUtil {
 			// maybe some more preparations
 			mr.prepare(httpResp);
 			
+			if (mr instanceof FileBackedMediaResource
+					&& serveFile(httpReq, httpResp, (FileBackedMediaResource)mr, ranges)) {
+				return;
+			}
+			
 			in = mr.getInputStream();
 
 			// serve the Resource
@@ -272,6 +332,99 @@ public class ServletUtil {
 		}
 	}
 	
+	/**
+	 * Deliver the file without copying it through the heap: the front proxy
+	 * delivers it (X-Accel-Redirect or X-Sendfile), or Tomcat's sendfile, or
+	 * the channel of the file transfers it to the output stream.
+	 * 
+	 * @return true if the file was delivered, false to fall back to the input stream
+	 */
+	private static boolean serveFile(HttpServletRequest httpReq, HttpServletResponse httpResp,
+			FileBackedMediaResource mr, List<Range> ranges) throws IOException {
+		FileDeliveryModule deliveryModule = CoreSpringFactory.getImpl(FileDeliveryModule.class);
+		if (Settings.isDebuging() || !deliveryModule.isZeroCopyEnabled()) {
+			return false;// the slow bandwidth simulator needs the stream
+		}
+		File file = mr.getFile();
+		if (file == null || !file.isFile()) {
+			return false;
+		}
+		long length = file.length();
+		if (length == 0) {
+			return false;
+		}
+		
+		if (mr.isOffloadable() && deliveryModule.getOffloadHeader() != null && length >= deliveryModule.getOffloadMinSize()) {
+			String path = deliveryModule.getOffloadPath(file);
+			if (path != null) {
+				// the proxy handles the ranges itself
+				httpResp.setHeader(deliveryModule.getOffloadHeader(), path);
+				return true;
+			}
+		}
+		
+		long start = 0;
+		long end = length - 1;
+		if (ranges != null && ranges.size() == 1) {
+			Range range = ranges.get(0);
+			start = range.start;
+			end = range.end;
+			httpResp.addHeader("Content-Range", "bytes " + range.start + "-" + range.end + "/" + range.length);
+			httpResp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		}
+		httpResp.setContentLengthLong(end - start + 1);
+		
+		if (mr.isOffloadable() && Boolean.TRUE.equals(httpReq.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+			httpReq.setAttribute(SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+			httpReq.setAttribute(SENDFILE_START_ATTR, Long.valueOf(start));
+			// exclusive
+			httpReq.setAttribute(SENDFILE_END_ATTR, Long.valueOf(end + 1));
+			return true;
+		}
+		
+		boolean stream = start > 0 || end < length - 1;
+		SessionStatsManager stats = stream ? CoreSpringFactory.getImpl(SessionStatsManager.class) : null;
+		try {
+			if (stats != null) {
+				stats.incrementConcurrentStreamCounter();
+			}
+			transferRange(file, httpResp.getOutputStream(), start, end);
+		} finally {
+			if (stats != null) {
+				stats.decrementConcurrentStreamCounter();
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Transfer the range of the file with the file channel, without
+	 * intermediate buffer in the heap.
+	 * 
+	 * @param file The file
+	 * @param ostream The output stream
+	 * @param start The first byte
+	 * @param end The last byte (inclusive)
+	 * @throws IOException
+	 */
+	protected static void transferRange(File file, OutputStream ostream, long start, long end) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// don't close the channel of the response
+			WritableByteChannel target = Channels.newChannel(ostream);
+			long position = start;
+			long remaining = end - start + 1;
+			while (remaining > 0) {
+				long transferred = channel.transferTo(position, remaining, target);
+				if (transferred <= 0) {
+					break;
+				}
+				position += transferred;
+				remaining -= transferred;
+			}
+		}
+		ostream.flush();
+	}
+	
 	public static final void handleIOException(String msg, Exception e) {
 		try {
 			String className = e.getClass().getSimpleName();
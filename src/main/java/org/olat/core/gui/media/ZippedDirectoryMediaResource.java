@@ -36,6 +36,7 @@ import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.FileUtils;
 import org.olat.core.util.StringHelper;
+import org.olat.core.util.io.ParallelZipOutputStream;
 
 /**
  * 
@@ -96,7 +97,7 @@ public class ZippedDirectoryMediaResource implements MediaResource {
 		hres.setHeader("Content-Disposition","attachment; filename*=UTF-8''" + urlEncodedLabel);			
 		hres.setHeader("Content-Description", urlEncodedLabel);
 		
-		try(ZipOutputStream zout = new ZipOutputStream(hres.getOutputStream())) {
+		try(ZipOutputStream zout = new ParallelZipOutputStream(hres.getOutputStream())) {
 			zout.setLevel(9);
 			
 			final Path unzipPath = unzipDir.toPath();
@@ -26,11 +26,16 @@
 
 package org.olat.core.gui.render;
 
+import java.util.List;
+
 import org.olat.core.dispatcher.impl.StaticMediaDispatcher;
 import org.olat.core.gui.GlobalSettings;
 import org.olat.core.gui.components.Component;
 import org.olat.core.gui.components.ComponentCollection;
 import org.olat.core.gui.components.ComponentRenderer;
+import org.olat.core.gui.components.DirtyComponents;
+import org.olat.core.gui.components.DirtyFragment;
+import org.olat.core.gui.components.DirtyFragmentsComponent;
 import org.olat.core.gui.components.velocity.VelocityContainer;
 import org.olat.core.gui.render.intercept.InterceptHandlerInstance;
 import org.olat.core.gui.translator.Translator;
@@ -272,6 +277,31 @@ public class Renderer {
 			}
 			
 		}
+		// stamp the component and its children for the tracking of the dirty components
+		DirtyComponents.rendered(source);
+	}
+
+	/**
+	 * Render only the changed fragments of the component. The component
+	 * must be visible.
+	 * 
+	 * @param source The component
+	 * @return The list of fragments
+	 */
+	public List<DirtyFragment> renderDirtyFragments(DirtyFragmentsComponent source) {
+		List<DirtyFragment> fragments = null;
+		URLBuilder cubu = urlBuilder.createCopyFor(source);
+		renderResult.incNestedLevel();
+		try {
+			fragments = source.renderDirtyFragments(this, cubu, source.getTranslator(), renderResult);
+			source.setDirty(false);
+		} catch (Exception e) {
+			renderResult.setRenderExceptionInfo("exception while rendering fragments of component '" + source.getComponentName() + "' ("
+					+ source.getClass().getName() + ") " + source.getListenerInfo() + "<br />Message of exception: " + e.getMessage(), e);
+		}
+		renderResult.decNestedLevel();
+		DirtyComponents.rendered(source);
+		return fragments;
 	}
 
 	private ComponentRenderer findComponentRenderer(Component toRender) {
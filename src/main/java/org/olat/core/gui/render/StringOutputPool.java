@@ -19,118 +19,200 @@
  */
 package org.olat.core.gui.render;
 
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * the pool is based on the implementation of Slobodan Celenkovic:<br/>
- * http://www.jroller.com/slobodan/date/20050309<br/>
- * 
+ * A pool of StringOutput which never blocks. The buffers are sorted in
+ * power of two size classes: the bucket n holds buffers with a capacity
+ * of at least 2^n chars. Every bucket is an array of slots taken and
+ * released with compare and set, every thread starts its scan at a random
+ * slot to spread the contention. The number of slots of a bucket is limited
+ * by the number of chars the bucket is allowed to retain, and the chars
+ * retained by all the buckets together are limited by a global budget.
+ * The counters are published via JMX by {@link StringOutputPoolStatistics}.
+ *
  * Initial date: 10.01.2013<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
 public class StringOutputPool {
 
-	/** Max pool size */
-  protected final static int MAX_STR_BUILDER_POOL_SIZE = 50;
-
-  /** General purpose pool for StringBuilder instances. */
-  private static List<Reference<StringOutput>> stringBuilders = new ArrayList<>(MAX_STR_BUILDER_POOL_SIZE+1);
-
-  /** Auxiliary pool for small size builders. It is a simple sparse array with
-      elements not sorted. Buffers are simply placed in and taken out. In
-      general, when storing buffers preference is given to large buffers. */
-  private static final StringOutput auxStringBuilders[] =
-    new StringOutput[ 10 ];
-
-
-  /** Allocates a string builder instance using recycling. Doesn't guarantee
-      that the returned object will have the requested size!
-      @param size (optional) builder size
-      @return builder instance */
-  public static StringOutput allocStringBuilder(final int size)  {
-    assert size > 0;
-    if ( size < 4096 ) {        // Smaller buffer? -> use auxiliary pool
-      synchronized ( auxStringBuilders ) {
-        for(int index=0; index < auxStringBuilders.length; index++)
-          if ((auxStringBuilders[index] != null) &&
-              (auxStringBuilders[index].capacity() >= size)) {
-          	StringOutput res = auxStringBuilders[ index ];
-            auxStringBuilders[ index ] = null;
-            return res;
-          }
-      }
-      return new StringOutput(size);
-    } else {// Bigger buffers? -> use primary pool
-      synchronized ( stringBuilders ) { // pool lookup
-        if ( stringBuilders.isEmpty())  {
-        	return new StringOutput(size);
-        }
-
-        StringOutput res =null;
-        for (Iterator<Reference<StringOutput>> seq=stringBuilders.iterator(); seq.hasNext(); ) {
-          res = seq.next().get();
-          if ( res == null ) {
-          	seq.remove(); // no longer available, cleanup
-          }  else if ( res.capacity() >= size ) {
-            seq.remove();
-            return res;
-          }
-        } // for
-      } // sync
-    } // else
-
-    return new StringOutput(size);
-  } // allocStringBuilder
-  
-  /** Supplies object instance for recycling. The object could have been
-  allocated using any means. Caller must not continue using it after this
-  method call.
-  @param obj discarded builder instance */
+	/** Smallest size class: 2^5 = 32 chars */
+	private static final int MIN_BUCKET = 5;
+	/** Biggest size class: 2^17 = 131072 chars, bigger buffers are never retained */
+	private static final int MAX_BUCKET = 17;
+	/** Buffers bigger than this are dropped to prevent memory leaks */
+	private static final int MAX_RETAINED_CAPACITY = 250000;
+	/** Max. number of chars retained per bucket */
+	private static final int MAX_RETAINED_CHARS_PER_BUCKET = 1 << 20;
+	private static final int MAX_SLOTS_PER_BUCKET = 64;
+	private static final int MIN_SLOTS_PER_BUCKET = 4;
+	/** Max. number of chars retained by the whole pool (4MB) */
+	private static final long MAX_RETAINED_CHARS = 2l << 20;
+
+	private static final AtomicReferenceArray<StringOutput>[] buckets = createBuckets();
+
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+	private static final LongAdder recycled = new LongAdder();
+	private static final LongAdder discarded = new LongAdder();
+	private static final AtomicLong retainedChars = new AtomicLong();
+
+	private StringOutputPool() {
+		//
+	}
+
+	@SuppressWarnings("unchecked")
+	private static AtomicReferenceArray<StringOutput>[] createBuckets() {
+		AtomicReferenceArray<StringOutput>[] array = new AtomicReferenceArray[MAX_BUCKET + 1];
+		for(int i=MIN_BUCKET; i<=MAX_BUCKET; i++) {
+			int slots = MAX_RETAINED_CHARS_PER_BUCKET >> i;
+			slots = Math.max(MIN_SLOTS_PER_BUCKET, Math.min(MAX_SLOTS_PER_BUCKET, slots));
+			array[i] = new AtomicReferenceArray<>(slots);
+		}
+		return array;
+	}
+
+	/**
+	 * Allocates a string builder instance using recycling. The returned
+	 * object has at least the requested capacity.
+	 *
+	 * @param size The builder size
+	 * @return A builder instance
+	 */
+	public static StringOutput allocStringBuilder(final int size) {
+		int bucketIndex = Math.max(MIN_BUCKET, ceilLog2(size));
+		if(bucketIndex <= MAX_BUCKET) {
+			// look in the exact size class and in the next one
+			int lastBucket = Math.min(MAX_BUCKET, bucketIndex + 1);
+			for(int i=bucketIndex; i<=lastBucket; i++) {
+				StringOutput output = take(buckets[i]);
+				if(output != null) {
+					hits.increment();
+					return output;
+				}
+			}
+		}
+		misses.increment();
+		// round up to the size class to find the buffer again after free
+		return new StringOutput(bucketIndex <= MAX_BUCKET ? 1 << bucketIndex : size);
+	}
+
+	private static StringOutput take(AtomicReferenceArray<StringOutput> bucket) {
+		int length = bucket.length();
+		int start = ThreadLocalRandom.current().nextInt(length);
+		for(int i=0; i<length; i++) {
+			int index = (start + i) % length;
+			StringOutput output = bucket.get(index);
+			if(output != null && bucket.compareAndSet(index, output, null)) {
+				retainedChars.addAndGet(-output.capacity());
+				return output;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Supplies object instance for recycling. The object could have been
+	 * allocated using any means. Caller must not continue using it after this
+	 * method call.
+	 *
+	 * @param obj discarded builder instance
+	 */
 	public static void free(final StringOutput obj) {
-		if ( obj.capacity() < 4096 ) { // Smaller buffer? -> use auxiliary pool
-		  synchronized ( auxStringBuilders ) {
-		    int minIndex =-1, minSize = Integer.MAX_VALUE, size =0;
-		    for(int index=0; index < auxStringBuilders.length; index++) {
-		      if ( auxStringBuilders[index] == null ) {
-		        obj.setLength(0);
-		        auxStringBuilders[ index ] = obj;
-		        return;
-		      }
-		
-		      if ((size= auxStringBuilders[index].capacity()) < minSize) {
-		        minIndex = index;
-		        minSize = size;
-		      }
-		    }
-		
-		    if ( minSize < obj.capacity() ) {
-		      obj.setLength(0);
-		      auxStringBuilders[minIndex] = obj;
-		    }
-		  }
-		} else if(obj.capacity() < 250000) {
-			// Bigger buffers? -> use primary pool, too big, don't return it to prevent memory leak
-		  synchronized ( stringBuilders ) {
-	      obj.setLength(0);
-		    stringBuilders.add(0, new SoftReference<>(obj));
-		    if ( stringBuilders.size() > MAX_STR_BUILDER_POOL_SIZE ) {
-		      stringBuilders.remove(MAX_STR_BUILDER_POOL_SIZE);
-		    }
-		  }
+		int capacity = obj.capacity();
+		int bucketIndex = floorLog2(capacity);
+		if(bucketIndex < MIN_BUCKET || capacity >= MAX_RETAINED_CAPACITY) {
+			discarded.increment();
+			return;
+		}
+
+		if(retainedChars.addAndGet(capacity) > MAX_RETAINED_CHARS) {
+			// the pool holds already enough memory
+			retainedChars.addAndGet(-capacity);
+			discarded.increment();
+			return;
+		}
+
+		obj.setLength(0);
+		AtomicReferenceArray<StringOutput> bucket = buckets[Math.min(MAX_BUCKET, bucketIndex)];
+		int length = bucket.length();
+		int start = ThreadLocalRandom.current().nextInt(length);
+		for(int i=0; i<length; i++) {
+			int index = (start + i) % length;
+			if(bucket.get(index) == null && bucket.compareAndSet(index, null, obj)) {
+				recycled.increment();
+				return;
+			}
 		}
-	} // free
-	
-	/** Frees the string builder and returns its contents before cleanup.
-	  @param obj buffer to free
-	  @return buffer's contents before cleanup */
+		// bucket is full, let the garbage collector do its job
+		retainedChars.addAndGet(-capacity);
+		discarded.increment();
+	}
+
+	/**
+	 * Frees the string builder and returns its contents before cleanup.
+	 *
+	 * @param obj buffer to free
+	 * @return buffer's contents before cleanup
+	 */
 	public static String freePop(final StringOutput obj) {
 		String res = obj.toString();
-		free( obj );
+		free(obj);
 		return res;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return The number of allocations served by the pool
+	 */
+	public static long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return The number of allocations of new buffers
+	 */
+	public static long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return The number of buffers returned to the pool
+	 */
+	public static long getRecycled() {
+		return recycled.sum();
+	}
+
+	/**
+	 * @return The number of buffers not retained, too small, too big, bucket full
+	 * 		or pool full
+	 */
+	public static long getDiscarded() {
+		return discarded.sum();
+	}
+
+	/**
+	 * @return The number of chars held by the buffers in the pool
+	 */
+	public static long getRetainedChars() {
+		return retainedChars.get();
+	}
+
+	/**
+	 * @return The max. number of chars the pool retains
+	 */
+	public static long getMaxRetainedChars() {
+		return MAX_RETAINED_CHARS;
+	}
+
+	private static int ceilLog2(int value) {
+		return value <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(value - 1);
+	}
+
+	private static int floorLog2(int value) {
+		return value <= 0 ? 0 : 31 - Integer.numberOfLeadingZeros(value);
+	}
+}
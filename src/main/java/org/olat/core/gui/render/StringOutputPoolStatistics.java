@@ -0,0 +1,89 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.render;
+
+import org.olat.core.commons.services.jmx.JMXManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publish the counters of the {@link StringOutputPool} via JMX.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class StringOutputPoolStatistics implements StringOutputPoolStatisticsMBean, InitializingBean, DisposableBean {
+	
+	private static final String MBEAN_NAME = "org.olat.core.gui.render:type=StringOutputPool";
+	
+	@Autowired
+	private JMXManager jmxManager;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		jmxManager.registerMBean(this, MBEAN_NAME);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		jmxManager.unregisterMBean(MBEAN_NAME);
+	}
+
+	@Override
+	public long getHits() {
+		return StringOutputPool.getHits();
+	}
+
+	@Override
+	public long getMisses() {
+		return StringOutputPool.getMisses();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long hits = StringOutputPool.getHits();
+		long total = hits + StringOutputPool.getMisses();
+		return total == 0 ? 0.0d : (double)hits / total;
+	}
+
+	@Override
+	public long getRecycled() {
+		return StringOutputPool.getRecycled();
+	}
+
+	@Override
+	public long getDiscarded() {
+		return StringOutputPool.getDiscarded();
+	}
+
+	@Override
+	public long getRetainedChars() {
+		return StringOutputPool.getRetainedChars();
+	}
+
+	@Override
+	public long getMaxRetainedChars() {
+		return StringOutputPool.getMaxRetainedChars();
+	}
+}
@@ -49,6 +49,11 @@ import org.springframework.stereotype.Service;
 public class VelocityTemplatesPreWarm implements PreWarm {
 	private static final Logger log = Tracing.createLoggerFor(VelocityTemplatesPreWarm.class);
 
+	@Override
+	public boolean isCritical() {
+		return true;
+	}
+
 	@Override
 	public void run() {
 		long start = System.nanoTime();
@@ -63,6 +68,9 @@ public class VelocityTemplatesPreWarm implements PreWarm {
 				Files.walkFileTree(fPath, new SimpleFileVisitor<Path>() {
 					@Override
 					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+						if(Thread.currentThread().isInterrupted()) {
+							return FileVisitResult.TERMINATE;
+						}
 						String path = fPath.relativize(file).toString();
 						if(path.contains("/_i18n/")) {
 							return FileVisitResult.SKIP_SUBTREE;
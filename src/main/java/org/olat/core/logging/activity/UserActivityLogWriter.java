@@ -0,0 +1,337 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.jmx.JMXManager;
+import org.olat.core.logging.Tracing;
+
+/**
+ * Write the user activity logs asynchronously. The logs are queued in a
+ * bounded, lock-free queue and a background thread inserts them in batches,
+ * every flush interval or as soon as a batch is full. The queue is flushed
+ * at shutdown.<br>
+ * If the queue is full, the logger waits at most the configured time and the
+ * log is dropped and counted. A crash of the VM loses at most the logs of
+ * the queue, which is the price of not inserting in the request transaction.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class UserActivityLogWriter implements UserActivityLogWriterMBean {
+
+	private static final Logger log = Tracing.createLoggerFor(UserActivityLogWriter.class);
+
+	private boolean enabled;
+	private int queueCapacity = 20000;
+	private int batchSize = 250;
+	private long flushInterval = 1000;
+	private long queueFullWait = 0;
+
+	private DB dbInstance;
+	private JMXManager jmxManager;
+
+	private final Queue<LoggingObject> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queueDepth = new AtomicInteger();
+
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong batchLatencySum = new AtomicLong();
+	private volatile long lastBatchLatency;
+	private volatile long maxBatchLatency;
+
+	private volatile boolean running;
+	private Thread writerThread;
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled && running;
+	}
+
+	@Override
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	@Override
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param flushInterval The interval in milliseconds
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param queueFullWait Max. time in milliseconds a logger waits if the queue is full
+	 */
+	public void setQueueFullWait(long queueFullWait) {
+		this.queueFullWait = queueFullWait;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setDbInstance(DB dbInstance) {
+		this.dbInstance = dbInstance;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setJmxManager(JMXManager jmxManager) {
+		this.jmxManager = jmxManager;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	@Override
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+
+	@Override
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	@Override
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	@Override
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	@Override
+	public long getLastBatchLatency() {
+		return lastBatchLatency;
+	}
+
+	@Override
+	public long getMaxBatchLatency() {
+		return maxBatchLatency;
+	}
+
+	@Override
+	public long getAverageBatchLatency() {
+		long batches = batchCount.get();
+		return batches == 0 ? 0 : batchLatencySum.get() / batches;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void start() {
+		if(!enabled) return;
+
+		running = true;
+		writerThread = new Thread(this::writeLoop, "UserActivityLogWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+		if(jmxManager != null) {
+			jmxManager.registerMBean(this, "org.olat.core.logging.activity:type=UserActivityLogWriter");
+		}
+		log.info("Asynchronous user activity log writer started (batch size: {}, flush interval: {}ms)", batchSize, flushInterval);
+	}
+
+	/**
+	 * Stop the writer thread and write the remaining logs.
+	 * [used by Spring]
+	 */
+	public void stop() {
+		if(!running) return;
+
+		running = false;
+		if(writerThread != null) {
+			LockSupport.unpark(writerThread);
+			try {
+				writerThread.join(30000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// the writer thread drains the queue before stopping, write what's left
+		flush();
+		if(jmxManager != null) {
+			jmxManager.unregisterMBean("org.olat.core.logging.activity:type=UserActivityLogWriter");
+		}
+		log.info("Asynchronous user activity log writer stopped, {} logs written, {} dropped", writtenCount.get(), droppedCount.get());
+	}
+
+	/**
+	 * Queue the log. The method never blocks longer than the configured
+	 * wait if the queue is full.
+	 *
+	 * @param logObj The log to write
+	 * @return true if the log is queued, false if it was dropped
+	 */
+	public boolean write(LoggingObject logObj) {
+		if(logObj.getCreationDate() == null) {
+			logObj.setCreationDate(new Date());
+		}
+
+		if(!reserveSlot()) {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueFullWait);
+			boolean reserved = false;
+			while(!reserved && System.nanoTime() < deadline) {
+				LockSupport.unpark(writerThread);
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+				reserved = reserveSlot();
+			}
+			if(!reserved) {
+				long dropped = droppedCount.incrementAndGet();
+				if(dropped % 1000 == 1) {
+					log.warn("User activity log queue is full, {} logs dropped until now", dropped);
+				}
+				return false;
+			}
+		}
+
+		queue.offer(logObj);
+		if(queueDepth.get() >= batchSize) {
+			LockSupport.unpark(writerThread);
+		}
+		return true;
+	}
+
+	private boolean reserveSlot() {
+		int depth;
+		do {
+			depth = queueDepth.get();
+			if(depth >= queueCapacity) {
+				return false;
+			}
+		} while(!queueDepth.compareAndSet(depth, depth + 1));
+		return true;
+	}
+
+	/**
+	 * Write all the queued logs in the current thread.
+	 */
+	public void flush() {
+		while(writeBatch() > 0) {
+			//
+		}
+	}
+
+	private void writeLoop() {
+		while(running) {
+			try {
+				if(queueDepth.get() < batchSize) {
+					LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushInterval));
+				}
+				flush();
+			} catch (Exception e) {
+				log.error("", e);
+			}
+		}
+		flush();
+	}
+
+	private int writeBatch() {
+		List<LoggingObject> batch = new ArrayList<>(batchSize);
+		LoggingObject logObj;
+		while(batch.size() < batchSize && (logObj = queue.poll()) != null) {
+			batch.add(logObj);
+		}
+		if(batch.isEmpty()) {
+			return 0;
+		}
+		queueDepth.addAndGet(-batch.size());
+
+		long start = System.nanoTime();
+		try {
+			EntityManager em = dbInstance.getCurrentEntityManager();
+			em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			for(LoggingObject obj:batch) {
+				em.persist(obj);
+			}
+			dbInstance.commitAndCloseSession();
+			writtenCount.addAndGet(batch.size());
+		} catch (Exception e) {
+			log.error("Cannot write {} user activity logs", batch.size(), e);
+			dbInstance.rollbackAndCloseSession();
+			failedCount.addAndGet(batch.size());
+		}
+
+		long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		lastBatchLatency = latency;
+		if(latency > maxBatchLatency) {
+			maxBatchLatency = latency;
+		}
+		batchLatencySum.addAndGet(latency);
+		batchCount.incrementAndGet();
+		return batch.size();
+	}
+}
@@ -719,8 +719,12 @@ public class UserActivityLoggerImpl implements IUserActivityLogger {
 		logObj.setResourceAdminAction(actionType.equals(ActionType.admin)?true:false);
 		
 		// and store it
+		UserActivityLogWriter logWriter = CoreSpringFactory.getImpl(UserActivityLogWriter.class);
 		DB db = DBFactory.getInstance();
-		if (db!=null && db.isError()) {
+		if (logWriter != null && logWriter.isEnabled()) {
+			// written asynchronously in batches, outside of the request transaction
+			logWriter.write(logObj);
+		} else if (db!=null && db.isError()) {
 			// then we would run into an ERROR when we'd do more with this DB
 			// hence we just issue a log.info here with the details
 			//@TODO: lower to log_.info once we checked that it doesn't occur very often (best for 6.4)
@@ -35,7 +35,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.olat.admin.sysinfo.manager.SessionStatsManager;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DBFactory;
-import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
+import org.olat.core.commons.services.prewarm.PreWarmManager;
 import org.olat.core.commons.services.webdav.WebDAVDispatcher;
 import org.olat.core.configuration.AbstractSpringModule;
 import org.olat.core.configuration.PreWarm;
@@ -43,6 +43,7 @@ import org.olat.core.dispatcher.Dispatcher;
 import org.olat.core.dispatcher.DispatcherModule;
 import org.olat.core.dispatcher.mapper.GlobalMapperRegistry;
 import org.olat.core.dispatcher.mapper.MapperDispatcher;
+import org.olat.core.dispatcher.mapper.manager.MapperStatistics;
 import org.olat.core.extensions.ExtManager;
 import org.olat.core.gui.media.ServletUtil;
 import org.olat.core.helpers.Settings;
@@ -120,11 +121,8 @@ public class OpenOLATServlet extends HttpServlet {
 	}
 	
 	private void preWarm() {
-		TaskExecutorManager executor = CoreSpringFactory.getImpl(TaskExecutorManager.class);
 		Map<String,PreWarm> preWarms = CoreSpringFactory.getBeansOfType(PreWarm.class);
-		for(PreWarm preWarm:preWarms.values()) {
-			executor.execute(preWarm);
-		}
+		CoreSpringFactory.getImpl(PreWarmManager.class).start(preWarms.values());
 	}
 
 	@Override
@@ -167,6 +165,7 @@ public class OpenOLATServlet extends HttpServlet {
 				sessionStatsManager.decrementConcurrentCounter();
 			}
 			WorkThreadInformations.unset();
+			MapperStatistics.requestDone();
 			ThreadLocalUserActivityLoggerInstaller.resetUserActivityLogger();
 			I18nManager.remove18nInfoFromThread();
 			Tracing.clearHttpRequest();
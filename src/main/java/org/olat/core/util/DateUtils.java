@@ -154,6 +154,13 @@ public class DateUtils {
 		return date1.after(date2)? date1: date2;
 	}
 	
+	public static Date getEarlier(Date date1, Date date2) {
+		if (date1 == null) return date2;
+		if (date2 == null) return date1;
+		
+		return date1.before(date2)? date1: date2;
+	}
+	
 	public static List<Date> getDaysInRange(Date start, Date end) {
 		List<Date> dates = new ArrayList<>();
 		Calendar calendar = new GregorianCalendar();
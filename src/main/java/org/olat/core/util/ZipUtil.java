@@ -57,6 +57,7 @@ import org.olat.core.commons.services.vfs.model.VFSMetadataImpl;
 import org.olat.core.id.Identity;
 import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.io.ParallelZipOutputStream;
 import org.olat.core.util.io.ShieldInputStream;
 import org.olat.core.util.io.ShieldOutputStream;
 import org.olat.core.util.vfs.LocalFileImpl;
@@ -579,7 +580,7 @@ public class ZipUtil {
 	 * @return true if successful
 	 */
 	public static boolean zip(VFSContainer container, OutputStream out, VFSItemFilter filter, boolean withMetadata) {
-		try(ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(out, FileUtils.BSIZE))) {
+		try(ZipOutputStream zipOut = new ParallelZipOutputStream(out)) {
 			List<VFSItem> items=container.getItems(new VFSSystemItemFilter());
 			for(VFSItem item:items) {
 				addToZip(item, "", zipOut, filter, withMetadata);
@@ -600,7 +601,7 @@ public class ZipUtil {
 		}
 
 		try(OutputStream out = target.getOutputStream(false);
-				ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(out, FileUtils.BSIZE))) {
+				ZipOutputStream zipOut = new ParallelZipOutputStream(out)) {
 			zipOut.setLevel(9);
 			for (VFSItem item:vfsFiles) {
 				success = addToZip(item, "", zipOut, filter, withMetadata);
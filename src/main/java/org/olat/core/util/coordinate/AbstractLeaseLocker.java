@@ -0,0 +1,116 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.coordinate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters and the per-resource statistics shared by the implementations
+ * of the lease locker. Only the resources with contention are tracked and
+ * their number is bounded.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public abstract class AbstractLeaseLocker implements LeaseLocker {
+	
+	private static final int MAX_STATISTICS = 1000;
+	
+	private final LongAdder acquired = new LongAdder();
+	private final LongAdder contended = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+	private final Map<String,LeaseLockStatistics> statistics = new ConcurrentHashMap<>();
+	
+	/**
+	 * @return An identifier of the current node and thread
+	 */
+	protected String getOwner(String nodeId) {
+		Thread thread = Thread.currentThread();
+		return nodeId + ":" + thread.getName() + ":" + thread.getId();
+	}
+	
+	protected void acquired(String resource, long waitTime, boolean contention) {
+		acquired.increment();
+		if(contention) {
+			contended.increment();
+			getStatistics(resource).contended(waitTime, true);
+		}
+	}
+	
+	protected void timeout(String resource, long waitTime) {
+		contended.increment();
+		timeouts.increment();
+		getStatistics(resource).contended(waitTime, false);
+	}
+	
+	protected void expired(String resource) {
+		expired.increment();
+		getStatistics(resource).expired();
+	}
+	
+	private LeaseLockStatistics getStatistics(String resource) {
+		LeaseLockStatistics stats = statistics.get(resource);
+		if(stats == null) {
+			if(statistics.size() >= MAX_STATISTICS) {
+				// forget the less contended resources
+				List<LeaseLockStatistics> currentStats = getStatistics();
+				for(int i=MAX_STATISTICS / 2; i<currentStats.size(); i++) {
+					statistics.remove(currentStats.get(i).getResource());
+				}
+			}
+			stats = statistics.computeIfAbsent(resource, LeaseLockStatistics::new);
+		}
+		return stats;
+	}
+
+	@Override
+	public long getAcquiredCount() {
+		return acquired.sum();
+	}
+
+	@Override
+	public long getContendedCount() {
+		return contended.sum();
+	}
+
+	@Override
+	public long getTimeoutCount() {
+		return timeouts.sum();
+	}
+
+	@Override
+	public long getExpiredCount() {
+		return expired.sum();
+	}
+
+	@Override
+	public List<LeaseLockStatistics> getStatistics() {
+		List<LeaseLockStatistics> stats = new ArrayList<>(statistics.values());
+		stats.sort(Comparator.comparingLong(LeaseLockStatistics::getTotalWaitTime).reversed());
+		return stats;
+	}
+}
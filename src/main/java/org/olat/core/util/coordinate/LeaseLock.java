@@ -0,0 +1,123 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.coordinate;
+
+import java.io.Serializable;
+
+/**
+ * A lock on a resource held for a limited time. The token is incremented
+ * every time the lock of the resource changes its holder and can be used
+ * as fencing token: a holder with a lower token has lost its lease.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public final class LeaseLock implements Serializable {
+
+	private static final long serialVersionUID = 4625069513178403562L;
+	
+	private final String resource;
+	private final String owner;
+	private final long token;
+	private final long expiresAt;
+	
+	public LeaseLock(String resource, String owner, long token, long expiresAt) {
+		this.resource = resource;
+		this.owner = owner;
+		this.token = token;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * @return The node and the thread which hold the lock, null if released
+	 */
+	public String getOwner() {
+		return owner;
+	}
+
+	/**
+	 * @return The fencing token
+	 */
+	public long getToken() {
+		return token;
+	}
+
+	/**
+	 * @return The end of the lease in milliseconds (system time)
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+	
+	public boolean isReleased() {
+		return owner == null;
+	}
+	
+	public boolean isExpired(long now) {
+		return expiresAt <= now;
+	}
+	
+	/**
+	 * @param lease A lease
+	 * @return true if the specified lease is the same acquisition of the lock
+	 */
+	public boolean isSameHolder(LeaseLock lease) {
+		return lease != null && token == lease.token
+				&& resource.equals(lease.resource)
+				&& owner != null && owner.equals(lease.owner);
+	}
+	
+	public LeaseLock renew(long newExpiresAt) {
+		return new LeaseLock(resource, owner, token, newExpiresAt);
+	}
+	
+	public LeaseLock release() {
+		return new LeaseLock(resource, null, token, 0l);
+	}
+
+	@Override
+	public int hashCode() {
+		return resource.hashCode() + Long.hashCode(token);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof LeaseLock) {
+			LeaseLock lease = (LeaseLock)obj;
+			return token == lease.token && expiresAt == lease.expiresAt
+					&& resource.equals(lease.resource)
+					&& (owner == null ? lease.owner == null : owner.equals(lease.owner));
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "leaseLock[resource=" + resource + ":owner=" + owner + ":token=" + token + "]";
+	}
+}
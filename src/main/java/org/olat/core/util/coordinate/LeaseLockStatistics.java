@@ -0,0 +1,96 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.coordinate;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention metrics of a single resource.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LeaseLockStatistics {
+	
+	private final String resource;
+	private final LongAdder contended = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+	private final LongAdder totalWaitTime = new LongAdder();
+	private final LongAccumulator maxWaitTime = new LongAccumulator(Long::max, 0l);
+	
+	public LeaseLockStatistics(String resource) {
+		this.resource = resource;
+	}
+
+	public String getResource() {
+		return resource;
+	}
+	
+	/**
+	 * @return Number of acquisitions which had to wait
+	 */
+	public long getContended() {
+		return contended.sum();
+	}
+	
+	public long getTimeouts() {
+		return timeouts.sum();
+	}
+	
+	/**
+	 * @return Number of leases which expired before being released
+	 */
+	public long getExpired() {
+		return expired.sum();
+	}
+	
+	/**
+	 * @return The cumulated waiting time in milliseconds
+	 */
+	public long getTotalWaitTime() {
+		return totalWaitTime.sum();
+	}
+	
+	public long getMaxWaitTime() {
+		return maxWaitTime.get();
+	}
+	
+	public void contended(long waitTime, boolean acquired) {
+		contended.increment();
+		if(!acquired) {
+			timeouts.increment();
+		}
+		totalWaitTime.add(waitTime);
+		maxWaitTime.accumulate(waitTime);
+	}
+	
+	public void expired() {
+		expired.increment();
+	}
+
+	@Override
+	public String toString() {
+		return resource + ": contended=" + getContended() + " timeouts=" + getTimeouts()
+			+ " expired=" + getExpired() + " waitTime=" + getTotalWaitTime() + "ms maxWaitTime=" + getMaxWaitTime() + "ms";
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.coordinate;
+
+import java.util.List;
+
+/**
+ * Exclusive locks with a lease: a lock not released or renewed before
+ * the end of its lease can be taken by someone else. Nothing is
+ * held in the database during the lock.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface LeaseLocker {
+	
+	/**
+	 * Try to acquire the lock and wait at most the specified time.
+	 * 
+	 * @param resource The resource to lock
+	 * @param leaseTime The duration of the lease in milliseconds
+	 * @param timeout The max. time to wait in milliseconds, a negative value to
+	 * 		wait until the lock is acquired
+	 * @return The lease or null if the lock is not acquired in time
+	 */
+	public LeaseLock tryLock(String resource, long leaseTime, long timeout);
+	
+	/**
+	 * Extend the lease if the lock is still held.
+	 * 
+	 * @param lease The lease
+	 * @param leaseTime The new duration of the lease from now, in milliseconds
+	 * @return The renewed lease or null if the lock was lost
+	 */
+	public LeaseLock renew(LeaseLock lease, long leaseTime);
+	
+	/**
+	 * @param lease The lease
+	 * @return true if the lock is still held with this lease
+	 */
+	public boolean isHeld(LeaseLock lease);
+	
+	/**
+	 * Release the lock, nothing happens if the lock was lost.
+	 * 
+	 * @param lease The lease
+	 */
+	public void unlock(LeaseLock lease);
+	
+	public long getAcquiredCount();
+	
+	public long getContendedCount();
+	
+	public long getTimeoutCount();
+	
+	public long getExpiredCount();
+	
+	/**
+	 * @return The statistics of the resources which had to wait, the most waited first
+	 */
+	public List<LeaseLockStatistics> getStatistics();
+
+}
@@ -61,6 +61,17 @@ public class MultiUserEvent extends Event {
 		vm_marker = WebappHelper.getNodeId();
 	}
 	
+	/**
+	 * Recreate an event which was fired on an other node of the cluster.
+	 * 
+	 * @param command The command
+	 * @param nodeId The node which fired the event
+	 */
+	public MultiUserEvent(String command, int nodeId) {
+		super(command);
+		vm_marker = nodeId;
+	}
+	
 	/**
 	 * should be overridden by subclasses for debug info
 	 */
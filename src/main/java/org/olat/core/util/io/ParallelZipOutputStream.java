@@ -0,0 +1,723 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A ZIP output stream which compresses the data on a shared, bounded pool
+ * of threads and writes the archive in order to the underlying stream,
+ * without temporary files. It can be used everywhere a ZipOutputStream is
+ * expected.<br>
+ * The pool is the Spring managed zipCompressorSpringExecutor (see
+ * taskExecutorCorecontext.xml), without it or after its shutdown the
+ * data are compressed by the thread writing the archive.<br>
+ * The data of an entry are cut in chunks which are deflated independently
+ * with the end of the previous chunk as dictionary and concatenated with
+ * a sync. flush, the same way as pigz. The number of chunks waiting to be
+ * written is limited, the memory used by a stream is bounded.<br>
+ * The files which are already compressed (video, audio, images, archives,
+ * office documents) are written with the level 0, without spending time
+ * to compress them again. The entries use a data descriptor and the ZIP64
+ * extensions if needed, like the ZipOutputStream of the JDK, and can be
+ * read by the ZipInputStream.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ParallelZipOutputStream extends ZipOutputStream {
+	
+	private static final int CHUNK_SIZE = 1024 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+	private static final long ZIP64_MAGICVAL = 0xFFFFFFFFL;
+	private static final int ZIP64_MAGICCOUNT = 0xFFFF;
+	private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+	private static final int FLAG_UTF8 = 0x0800;
+	
+	private static final Set<String> COMPRESSED_SUFFIXES = Set.of(
+			"mp4", "m4v", "mov", "webm", "mkv", "avi", "mpg", "mpeg", "flv", "wmv",
+			"mp3", "m4a", "aac", "ogg", "oga", "ogv", "opus", "flac", "wma",
+			"jpg", "jpeg", "png", "gif", "webp", "heic",
+			"zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "jar", "imscc",
+			"docx", "xlsx", "pptx", "odt", "ods", "odp", "epub");
+	
+	private static volatile ExecutorService compressors;
+	private static volatile int pendingChunksLimit = 2;
+	
+	private final OutputStream target;
+	private final int maxPendingChunks;
+	private final Deque<Segment> pending = new ArrayDeque<>();
+	private final List<EntryInfo> entries = new ArrayList<>();
+	private final Set<String> names = new HashSet<>();
+	private final CRC32 crc = new CRC32();
+	
+	private int pendingChunks;
+	private long written;
+	private int defaultMethod = DEFLATED;
+	private int level = Deflater.DEFAULT_COMPRESSION;
+	private byte[] comment;
+	
+	private EntryInfo current;
+	private byte[] buffer;
+	private int bufferLength;
+	private byte[] dictionary;
+	
+	private boolean finished;
+	private boolean closed;
+	
+	public ParallelZipOutputStream(OutputStream out) {
+		super(out);
+		target = new BufferedOutputStream(out, 64 * 1024);
+		maxPendingChunks = pendingChunksLimit;
+	}
+	
+	/**
+	 * [used by Spring]
+	 * 
+	 * @param executor The pool of threads which compress the data, or null to compress in the writing thread
+	 * @param threads The number of threads of the pool
+	 */
+	public static void setCompressors(ExecutorService executor, int threads) {
+		compressors = executor;
+		pendingChunksLimit = Math.max(2, threads * 2);
+	}
+	
+	/**
+	 * @param name The name of the entry
+	 * @return true if the file is probably already compressed
+	 */
+	public static boolean isCompressed(String name) {
+		int index = name.lastIndexOf('.');
+		if(index < 0 || index == name.length() - 1 || name.endsWith("/")) {
+			return false;
+		}
+		String suffix = name.substring(index + 1).toLowerCase(Locale.ENGLISH);
+		return COMPRESSED_SUFFIXES.contains(suffix);
+	}
+
+	@Override
+	public void setComment(String comment) {
+		this.comment = comment == null ? null : comment.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void setMethod(int method) {
+		if (method != DEFLATED && method != STORED) {
+			throw new IllegalArgumentException("invalid compression method");
+		}
+		this.defaultMethod = method;
+	}
+
+	@Override
+	public void setLevel(int level) {
+		if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+			throw new IllegalArgumentException("invalid compression level");
+		}
+		this.level = level;
+	}
+
+	@Override
+	public void putNextEntry(ZipEntry e) throws IOException {
+		ensureOpen();
+		if(current != null) {
+			closeEntry();
+		}
+		if(!names.add(e.getName())) {
+			throw new ZipException("duplicate entry: " + e.getName());
+		}
+		
+		EntryInfo info = new EntryInfo(e);
+		int method = e.getMethod() == -1 ? defaultMethod : e.getMethod();
+		if(method == STORED) {
+			if(e.getSize() == -1) {
+				e.setSize(e.getCompressedSize());
+			}
+			if(e.getSize() == -1 || e.getCrc() == -1) {
+				throw new ZipException("STORED entry missing size, compressed size, or crc-32");
+			}
+			info.stored = true;
+		} else {
+			info.level = isCompressed(e.getName()) ? Deflater.NO_COMPRESSION : level;
+		}
+		
+		current = info;
+		crc.reset();
+		buffer = null;
+		bufferLength = 0;
+		dictionary = null;
+		enqueue(new HeaderSegment(info));
+	}
+
+	@Override
+	public void closeEntry() throws IOException {
+		ensureOpen();
+		if(current == null) {
+			return;
+		}
+		
+		EntryInfo info = current;
+		submitChunk(true);
+		info.crc = crc.getValue();
+		if(info.stored) {
+			if(info.size != info.entry.getSize()) {
+				throw new ZipException("invalid entry size (expected " + info.entry.getSize() + " but got " + info.size + " bytes)");
+			}
+			if(info.crc != info.entry.getCrc()) {
+				throw new ZipException("invalid entry crc-32 (expected 0x" + Long.toHexString(info.entry.getCrc())
+					+ " but got 0x" + Long.toHexString(info.crc) + ")");
+			}
+			info.csize = info.size;
+		} else {
+			enqueue(new DescriptorSegment(info));
+		}
+		current = null;
+		buffer = null;
+		dictionary = null;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte)b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || off > b.length - len) {
+			throw new IndexOutOfBoundsException();
+		}
+		if(current == null) {
+			throw new ZipException("no current ZIP entry");
+		}
+		if(len == 0) {
+			return;
+		}
+		
+		crc.update(b, off, len);
+		current.size += len;
+		while(len > 0) {
+			if(buffer == null) {
+				buffer = new byte[CHUNK_SIZE];
+			}
+			int n = Math.min(len, CHUNK_SIZE - bufferLength);
+			System.arraycopy(b, off, buffer, bufferLength, n);
+			bufferLength += n;
+			off += n;
+			len -= n;
+			if(bufferLength == CHUNK_SIZE) {
+				submitChunk(false);
+			}
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		writeReadySegments();
+		target.flush();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		ensureOpen();
+		if(finished) {
+			return;
+		}
+		if(current != null) {
+			closeEntry();
+		}
+		while(!pending.isEmpty()) {
+			writeNextSegment();
+		}
+		writeCentralDirectory();
+		target.flush();
+		finished = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(closed) {
+			return;
+		}
+		try {
+			finish();
+		} finally {
+			closed = true;
+			for(Segment segment:pending) {
+				segment.cancel();
+			}
+			pending.clear();
+			def.end();
+			target.close();
+		}
+	}
+	
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+	
+	private void submitChunk(boolean last) throws IOException {
+		final byte[] data = buffer;
+		final int length = bufferLength;
+		buffer = null;
+		bufferLength = 0;
+		
+		if(current.stored) {
+			if(length > 0) {
+				enqueue(new DataSegment(current, new Chunk(data, length)));
+			}
+		} else {
+			final byte[] chunkDictionary = dictionary;
+			if(!last) {
+				dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+			}
+			final int chunkLevel = current.level;
+			Future<Chunk> future = null;
+			ExecutorService executor = compressors;
+			if(executor != null) {
+				try {
+					future = executor.submit(() -> deflate(data, length, chunkDictionary, chunkLevel, last));
+				} catch (RejectedExecutionException e) {
+					// the pool is shut down
+				}
+			}
+			if(future == null) {
+				future = CompletableFuture.completedFuture(deflate(data, length, chunkDictionary, chunkLevel, last));
+			}
+			enqueue(new DataSegment(current, future));
+		}
+	}
+	
+	private static Chunk deflate(byte[] data, int length, byte[] dictionary, int level, boolean last) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			if(dictionary != null) {
+				deflater.setDictionary(dictionary);
+			}
+			if(length > 0) {
+				deflater.setInput(data, 0, length);
+			}
+			if(last) {
+				deflater.finish();
+			}
+			
+			byte[] out = new byte[length + (length >> 4) + 64];
+			int count = 0;
+			int flush = last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH;
+			for(;;) {
+				if(count == out.length) {
+					out = Arrays.copyOf(out, out.length * 2);
+				}
+				count += deflater.deflate(out, count, out.length - count, flush);
+				if(last ? deflater.finished() : count < out.length) {
+					break;
+				}
+			}
+			return new Chunk(out, count);
+		} finally {
+			deflater.end();
+		}
+	}
+	
+	private void enqueue(Segment segment) throws IOException {
+		pending.add(segment);
+		if(segment instanceof DataSegment) {
+			pendingChunks++;
+		}
+		while(pendingChunks > maxPendingChunks) {
+			writeNextSegment();
+		}
+		writeReadySegments();
+	}
+	
+	private void writeReadySegments() throws IOException {
+		while(!pending.isEmpty() && pending.peekFirst().isReady()) {
+			writeNextSegment();
+		}
+	}
+	
+	private void writeNextSegment() throws IOException {
+		Segment segment = pending.pollFirst();
+		if(segment instanceof DataSegment) {
+			pendingChunks--;
+		}
+		segment.write();
+	}
+	
+	private void writeBytes(byte[] b, int off, int len) throws IOException {
+		target.write(b, off, len);
+		written += len;
+	}
+	
+	private void writeShort(int v) throws IOException {
+		target.write(v & 0xff);
+		target.write((v >>> 8) & 0xff);
+		written += 2;
+	}
+	
+	private void writeInt(long v) throws IOException {
+		target.write((int)(v & 0xff));
+		target.write((int)((v >>> 8) & 0xff));
+		target.write((int)((v >>> 16) & 0xff));
+		target.write((int)((v >>> 24) & 0xff));
+		written += 4;
+	}
+	
+	private void writeLong(long v) throws IOException {
+		writeInt(v & 0xFFFFFFFFL);
+		writeInt(v >>> 32);
+	}
+	
+	private void writeLocalHeader(EntryInfo info) throws IOException {
+		info.offset = written;
+		
+		byte[] extra = info.entry.getExtra();
+		int extraLength = extra == null ? 0 : extra.length;
+		boolean zip64 = info.stored && info.entry.getSize() >= ZIP64_MAGICVAL;
+		if(zip64) {
+			extraLength += 20;
+		}
+		
+		writeInt(0x04034b50L);
+		if(info.stored) {
+			writeShort(zip64 ? 45 : 10);
+			writeShort(info.flags);
+			writeShort(STORED);
+			writeInt(info.dosTime);
+			writeInt(info.entry.getCrc());
+			if(zip64) {
+				writeInt(ZIP64_MAGICVAL);
+				writeInt(ZIP64_MAGICVAL);
+			} else {
+				writeInt(info.entry.getSize());
+				writeInt(info.entry.getSize());
+			}
+		} else {
+			writeShort(20);
+			writeShort(info.flags);
+			writeShort(DEFLATED);
+			writeInt(info.dosTime);
+			writeInt(0);
+			writeInt(0);
+			writeInt(0);
+		}
+		writeShort(info.name.length);
+		writeShort(extraLength);
+		writeBytes(info.name, 0, info.name.length);
+		if(zip64) {
+			writeShort(0x0001);
+			writeShort(16);
+			writeLong(info.entry.getSize());
+			writeLong(info.entry.getSize());
+		}
+		if(extra != null) {
+			writeBytes(extra, 0, extra.length);
+		}
+	}
+	
+	private void writeDataDescriptor(EntryInfo info) throws IOException {
+		writeInt(0x08074b50L);
+		writeInt(info.crc);
+		if(info.csize >= ZIP64_MAGICVAL || info.size >= ZIP64_MAGICVAL) {
+			writeLong(info.csize);
+			writeLong(info.size);
+		} else {
+			writeInt(info.csize);
+			writeInt(info.size);
+		}
+	}
+	
+	private void writeCentralDirectory() throws IOException {
+		long centralDirectoryOffset = written;
+		for(EntryInfo info:entries) {
+			writeCentralDirectoryHeader(info);
+		}
+		long centralDirectorySize = written - centralDirectoryOffset;
+		
+		int count = entries.size();
+		if(count >= ZIP64_MAGICCOUNT || centralDirectoryOffset >= ZIP64_MAGICVAL || centralDirectorySize >= ZIP64_MAGICVAL) {
+			long zip64EndOffset = written;
+			// ZIP64 end of central directory record
+			writeInt(0x06064b50L);
+			writeLong(44);
+			writeShort(45);
+			writeShort(45);
+			writeInt(0);
+			writeInt(0);
+			writeLong(count);
+			writeLong(count);
+			writeLong(centralDirectorySize);
+			writeLong(centralDirectoryOffset);
+			// ZIP64 end of central directory locator
+			writeInt(0x07064b50L);
+			writeInt(0);
+			writeLong(zip64EndOffset);
+			writeInt(1);
+		}
+		
+		writeInt(0x06054b50L);
+		writeShort(0);
+		writeShort(0);
+		writeShort(Math.min(count, ZIP64_MAGICCOUNT));
+		writeShort(Math.min(count, ZIP64_MAGICCOUNT));
+		writeInt(Math.min(centralDirectorySize, ZIP64_MAGICVAL));
+		writeInt(Math.min(centralDirectoryOffset, ZIP64_MAGICVAL));
+		if(comment == null) {
+			writeShort(0);
+		} else {
+			writeShort(comment.length);
+			writeBytes(comment, 0, comment.length);
+		}
+	}
+	
+	private void writeCentralDirectoryHeader(EntryInfo info) throws IOException {
+		boolean sizeOverflow = info.size >= ZIP64_MAGICVAL;
+		boolean csizeOverflow = info.csize >= ZIP64_MAGICVAL;
+		boolean offsetOverflow = info.offset >= ZIP64_MAGICVAL;
+		int zip64Length = (sizeOverflow ? 8 : 0) + (csizeOverflow ? 8 : 0) + (offsetOverflow ? 8 : 0);
+		boolean zip64 = zip64Length > 0;
+		
+		byte[] extra = info.entry.getExtra();
+		int extraLength = (extra == null ? 0 : extra.length) + (zip64 ? zip64Length + 4 : 0);
+		byte[] entryComment = info.entry.getComment() == null
+				? null : info.entry.getComment().getBytes(StandardCharsets.UTF_8);
+		int version = zip64 ? 45 : (info.stored ? 10 : 20);
+		
+		writeInt(0x02014b50L);
+		writeShort(version);
+		writeShort(version);
+		writeShort(info.flags);
+		writeShort(info.stored ? STORED : DEFLATED);
+		writeInt(info.dosTime);
+		writeInt(info.crc);
+		writeInt(csizeOverflow ? ZIP64_MAGICVAL : info.csize);
+		writeInt(sizeOverflow ? ZIP64_MAGICVAL : info.size);
+		writeShort(info.name.length);
+		writeShort(extraLength);
+		writeShort(entryComment == null ? 0 : entryComment.length);
+		writeShort(0);
+		writeShort(0);
+		writeInt(0);
+		writeInt(offsetOverflow ? ZIP64_MAGICVAL : info.offset);
+		writeBytes(info.name, 0, info.name.length);
+		if(zip64) {
+			writeShort(0x0001);
+			writeShort(zip64Length);
+			if(sizeOverflow) {
+				writeLong(info.size);
+			}
+			if(csizeOverflow) {
+				writeLong(info.csize);
+			}
+			if(offsetOverflow) {
+				writeLong(info.offset);
+			}
+		}
+		if(extra != null) {
+			writeBytes(extra, 0, extra.length);
+		}
+		if(entryComment != null) {
+			writeBytes(entryComment, 0, entryComment.length);
+		}
+	}
+	
+	private static long toDosTime(long time) {
+		LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		int year = ldt.getYear() - 1980;
+		if (year < 0) {
+			return (1 << 21) | (1 << 16);
+		}
+		if(year > 127) {
+			year = 127;
+		}
+		return (year << 25 | ldt.getMonthValue() << 21 | ldt.getDayOfMonth() << 16
+				| ldt.getHour() << 11 | ldt.getMinute() << 5 | ldt.getSecond() >> 1) & 0xFFFFFFFFL;
+	}
+	
+	private class EntryInfo {
+		
+		private final ZipEntry entry;
+		private final byte[] name;
+		private final int flags;
+		private final long dosTime;
+		private boolean stored;
+		private int level;
+		private long offset;
+		private long size;
+		private long csize;
+		private long crc;
+		
+		public EntryInfo(ZipEntry entry) {
+			this.entry = entry;
+			name = entry.getName().getBytes(StandardCharsets.UTF_8);
+			long time = entry.getTime() == -1 ? System.currentTimeMillis() : entry.getTime();
+			dosTime = toDosTime(time);
+			flags = FLAG_UTF8 | (entry.getMethod() == STORED || (entry.getMethod() == -1 && defaultMethod == STORED) ? 0 : FLAG_DATA_DESCRIPTOR);
+		}
+	}
+	
+	private static class Chunk {
+		
+		private final byte[] data;
+		private final int length;
+		
+		public Chunk(byte[] data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+	}
+	
+	private interface Segment {
+		
+		public boolean isReady();
+		
+		public void write() throws IOException;
+		
+		public void cancel();
+		
+	}
+	
+	private class HeaderSegment implements Segment {
+		
+		private final EntryInfo info;
+		
+		public HeaderSegment(EntryInfo info) {
+			this.info = info;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void write() throws IOException {
+			writeLocalHeader(info);
+			entries.add(info);
+		}
+
+		@Override
+		public void cancel() {
+			//
+		}
+	}
+	
+	private class DataSegment implements Segment {
+		
+		private final EntryInfo info;
+		private final Chunk chunk;
+		private final Future<Chunk> future;
+		
+		public DataSegment(EntryInfo info, Chunk chunk) {
+			this.info = info;
+			this.chunk = chunk;
+			this.future = null;
+		}
+		
+		public DataSegment(EntryInfo info, Future<Chunk> future) {
+			this.info = info;
+			this.chunk = null;
+			this.future = future;
+		}
+
+		@Override
+		public boolean isReady() {
+			return future == null || future.isDone();
+		}
+
+		@Override
+		public void write() throws IOException {
+			Chunk data = chunk;
+			if(future != null) {
+				try {
+					data = future.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while compressing: " + info.entry.getName());
+				} catch (ExecutionException e) {
+					throw new IOException("Cannot compress: " + info.entry.getName(), e.getCause());
+				}
+			}
+			writeBytes(data.data, 0, data.length);
+			if(!info.stored) {
+				info.csize += data.length;
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if(future != null) {
+				future.cancel(false);
+			}
+		}
+	}
+	
+	private class DescriptorSegment implements Segment {
+		
+		private final EntryInfo info;
+		
+		public DescriptorSegment(EntryInfo info) {
+			this.info = info;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void write() throws IOException {
+			writeDataDescriptor(info);
+		}
+
+		@Override
+		public void cancel() {
+			//
+		}
+	}
+}
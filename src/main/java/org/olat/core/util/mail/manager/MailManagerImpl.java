@@ -49,14 +49,12 @@ import javax.activation.DataHandler;
 import javax.activation.DataSource;
 import javax.activation.FileDataSource;
 import javax.mail.Address;
-import javax.mail.Authenticator;
 import javax.mail.BodyPart;
 import javax.mail.Message.RecipientType;
 import javax.mail.MessagingException;
 import javax.mail.Multipart;
 import javax.mail.SendFailedException;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeBodyPart;
@@ -100,7 +98,6 @@ import org.olat.core.util.mail.MailManager;
 import org.olat.core.util.mail.MailModule;
 import org.olat.core.util.mail.MailTemplate;
 import org.olat.core.util.mail.MailerResult;
-import org.olat.core.util.mail.MailerSMTPAuthenticator;
 import org.olat.core.util.mail.model.DBMail;
 import org.olat.core.util.mail.model.DBMailAttachment;
 import org.olat.core.util.mail.model.DBMailImpl;
@@ -149,6 +146,10 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	private final MailModule mailModule;
 	@Autowired
 	private GUISettings guiSettings;
+	@Autowired
+	private SMTPTransportPool transportPool;
+	@Autowired
+	private MailOutboxDispatcher mailOutbox;
 
 	private FileStorage attachmentStorage;
 	
@@ -1598,49 +1599,7 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	 */
 	private MimeMessage createMessage(String subject, Address from)
 	throws AddressException, MessagingException, UnsupportedEncodingException {
-		String mailhost = WebappHelper.getMailConfig("mailhost");
-		String mailport = WebappHelper.getMailConfig("mailport");
-		String mailhostTimeout = WebappHelper.getMailConfig("mailTimeout");
-		boolean sslEnabled = Boolean.parseBoolean(WebappHelper.getMailConfig("sslEnabled"));
-		boolean sslCheckCertificate = Boolean.parseBoolean(WebappHelper.getMailConfig("sslCheckCertificate"));
-		boolean startTls = Boolean.parseBoolean(WebappHelper.getMailConfig("smtpStarttls"));
-		
-		Authenticator smtpAuth;
-		if (WebappHelper.isMailHostAuthenticationEnabled()) {
-			String smtpUser = WebappHelper.getMailConfig("smtpUser");
-			String smtpPwd = WebappHelper.getMailConfig("smtpPwd");
-			smtpAuth = new MailerSMTPAuthenticator(smtpUser, smtpPwd);
-		} else {
-			smtpAuth = null;
-		}
-		
-		Properties p = new Properties();
-		p.put("mail.smtp.host", mailhost);
-		if(StringHelper.containsNonWhitespace(mailport)) {
-			p.put("mail.smtp.port", mailport);
-		}
-		p.put("mail.smtp.timeout", mailhostTimeout);
-		p.put("mail.smtp.connectiontimeout", mailhostTimeout);
-		p.put("mail.smtp.ssl.enable", sslEnabled);
-		p.put("mail.smtp.ssl.checkserveridentity", sslCheckCertificate);
-		if(startTls) {
-			p.put("mail.smtp.starttls.enable", "true");
-			p.put("mail.smtp.ssl.trust", mailhost);
-		}
-		p.put("mail.smtp.sendpartial", Boolean.TRUE);
-		
-		Session mailSession;
-		if (smtpAuth == null) {
-			mailSession = javax.mail.Session.getInstance(p);
-		} else {
-			// use smtp authentication from configuration
-			p.put("mail.smtp.auth", "true");
-			mailSession = Session.getDefaultInstance(p, smtpAuth); 
-		}
-		if (log.isDebugEnabled()) {
-			// enable mail session debugging on console
-			mailSession.setDebug(true);
-		}
+		Session mailSession = transportPool.getSession();
 		MimeMessage msg = new MimeMessage(mailSession);
 		
 		String platformFrom = WebappHelper.getMailConfig("mailFrom");
@@ -1815,7 +1774,12 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 				if(Settings.isDebuging()) {
 					logMessage(msg);
 				}
-				Transport.send(msg);
+				msg.saveChanges();
+				if(mailOutbox.isEnabled()) {
+					mailOutbox.enqueue(msg);
+				} else {
+					transportPool.send(msg, msg.getAllRecipients());
+				}
 			} else if(Settings.isDebuging() && result.getReturnCode() == MailerResult.OK) {
 				logMessage(msg);
 			} else {
@@ -0,0 +1,161 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.TemporalType;
+
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class MailOutboxDAO {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	public MailOutboxEntry createEntry(String envelopeFrom, String recipients, String message) {
+		MailOutboxEntry entry = new MailOutboxEntry();
+		entry.setCreationDate(new Date());
+		entry.setLastModified(entry.getCreationDate());
+		entry.setNextAttempt(entry.getCreationDate());
+		entry.setStatus(MailOutboxStatus.pending);
+		entry.setAttempts(0);
+		entry.setEnvelopeFrom(envelopeFrom);
+		entry.setRecipients(recipients);
+		entry.setMessage(message);
+		dbInstance.getCurrentEntityManager().persist(entry);
+		return entry;
+	}
+	
+	public MailOutboxEntry loadByKey(Long key) {
+		String query = "select entry from mailoutbox entry where entry.key=:key";
+		List<MailOutboxEntry> entries = dbInstance.getCurrentEntityManager()
+				.createQuery(query, MailOutboxEntry.class)
+				.setParameter("key", key)
+				.getResultList();
+		return entries.isEmpty() ? null : entries.get(0);
+	}
+	
+	/**
+	 * @param now The current date
+	 * @param maxResults The max. number of keys
+	 * @return The keys of the pending entries to send, the oldest first
+	 */
+	public List<Long> getDueEntryKeys(Date now, int maxResults) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select entry.key from mailoutbox entry")
+		  .append(" where entry.status=:status and entry.nextAttempt<=:now")
+		  .append(" order by entry.nextAttempt asc, entry.key asc");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("status", MailOutboxStatus.pending)
+				.setParameter("now", now, TemporalType.TIMESTAMP)
+				.setFirstResult(0)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
+	/**
+	 * Switch the entry from pending to sending. Only one node can
+	 * claim an entry.
+	 * 
+	 * @param key The primary key of the entry
+	 * @return true if the entry was claimed
+	 */
+	public boolean claim(Long key) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update mailoutbox entry set entry.status=:sending, entry.lastModified=:now")
+		  .append(" where entry.key=:key and entry.status=:pending");
+		int rows = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("sending", MailOutboxStatus.sending)
+				.setParameter("pending", MailOutboxStatus.pending)
+				.setParameter("now", new Date(), TemporalType.TIMESTAMP)
+				.setParameter("key", key)
+				.executeUpdate();
+		return rows == 1;
+	}
+	
+	/**
+	 * Release the entries claimed by a node which didn't send them, probably
+	 * because it was stopped.
+	 * 
+	 * @param before The claims older than this date are released
+	 * @return The number of released entries
+	 */
+	public int releaseStaleClaims(Date before) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update mailoutbox entry set entry.status=:pending")
+		  .append(" where entry.status=:sending and entry.lastModified<:before");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("sending", MailOutboxStatus.sending)
+				.setParameter("pending", MailOutboxStatus.pending)
+				.setParameter("before", before, TemporalType.TIMESTAMP)
+				.executeUpdate();
+	}
+	
+	public MailOutboxEntry updateEntry(MailOutboxEntry entry) {
+		entry.setLastModified(new Date());
+		return dbInstance.getCurrentEntityManager().merge(entry);
+	}
+	
+	public int deleteEntry(Long key) {
+		String query = "delete from mailoutbox entry where entry.key=:key";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("key", key)
+				.executeUpdate();
+	}
+	
+	/**
+	 * @param before The failed entries not modified since this date are deleted
+	 * @return The number of deleted entries
+	 */
+	public int deleteFailedEntries(Date before) {
+		String query = "delete from mailoutbox entry where entry.status=:status and entry.lastModified<:before";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("status", MailOutboxStatus.failed)
+				.setParameter("before", before, TemporalType.TIMESTAMP)
+				.executeUpdate();
+	}
+	
+	public long countEntries(MailOutboxStatus status) {
+		String query = "select count(entry.key) from mailoutbox entry where entry.status=:status";
+		List<Long> counts = dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.setParameter("status", status)
+				.getResultList();
+		return counts.isEmpty() || counts.get(0) == null ? 0l : counts.get(0).longValue();
+	}
+}
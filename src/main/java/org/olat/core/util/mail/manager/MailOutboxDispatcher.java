@@ -0,0 +1,407 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sun.mail.smtp.SMTPMessage;
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+/**
+ * The outbox saves the messages in the database, in the transaction of the
+ * caller, and sends them regularly with the pooled SMTP connections. The
+ * messages are claimed before sending, every node can send them. A
+ * message is retried with an exponential back-off if the server is not
+ * reachable or refuses it temporarily. The messages are sent at least once:
+ * a node stopped after sending a message but before deleting it will send it
+ * a second time. The messages which definitively failed are kept for
+ * some days, then deleted.
+ * <br>
+ * The outbox is disabled per default, the mails are sent immediately and the
+ * errors are reported to the caller. With the outbox, only the recipient
+ * addresses are validated when the message is saved.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class MailOutboxDispatcher implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(MailOutboxDispatcher.class);
+	
+	private static final long STALE_CLAIM = 10l * 60l * 1000l;
+	private static final long CLEANUP_INTERVAL = 60l * 60l * 1000l;
+	private static final int MAX_ERROR_LENGTH = 4000;
+	
+	@Value("${mail.outbox.enabled:false}")
+	private boolean enabled;
+	@Value("${mail.outbox.poll.interval:2}")
+	private long pollInterval;
+	@Value("${mail.outbox.batch.size:100}")
+	private int batchSize;
+	@Value("${mail.outbox.rate.limit:0}")
+	private int rateLimit;
+	@Value("${mail.outbox.max.attempts:10}")
+	private int maxAttempts;
+	@Value("${mail.outbox.retry.delay:60}")
+	private long retryDelay;
+	@Value("${mail.outbox.max.retry.delay:3600}")
+	private long maxRetryDelay;
+	@Value("${mail.outbox.failed.retention:30}")
+	private int failedRetention;
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private MailOutboxDAO outboxDao;
+	@Autowired
+	private SMTPTransportPool transportPool;
+	
+	private ScheduledExecutorService scheduler;
+	private long nextSendNanos = System.nanoTime();
+	private long lastCleanup = 0l;
+	private final AtomicLong sentMessages = new AtomicLong();
+	private final AtomicLong retriedMessages = new AtomicLong();
+	private final AtomicLong failedMessages = new AtomicLong();
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(!enabled) return;
+		
+		long interval = Math.max(1, pollInterval);
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Mail-Outbox-Dispatcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(scheduler != null) {
+			scheduler.shutdown();
+			scheduler = null;
+		}
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	public long getSentMessages() {
+		return sentMessages.get();
+	}
+
+	public long getRetriedMessages() {
+		return retriedMessages.get();
+	}
+
+	public long getFailedMessages() {
+		return failedMessages.get();
+	}
+
+	/**
+	 * Save the message in the outbox. The message will be sent after the
+	 * commit of the current transaction. The recipient addresses are
+	 * validated, the message is saved for the valid ones and the invalid
+	 * ones are reported with a SendFailedException, like the transport
+	 * does if it sends the message partially.
+	 * 
+	 * @param msg The message with its headers saved
+	 * @return The entry in the outbox or null if no recipient is valid
+	 * @throws MessagingException If the message has invalid recipients or cannot be serialized
+	 */
+	public MailOutboxEntry enqueue(MimeMessage msg) throws MessagingException {
+		Address[] allRecipients = msg.getAllRecipients();
+		if(allRecipients == null || allRecipients.length == 0) {
+			throw new SendFailedException("No recipient addresses");
+		}
+		
+		List<Address> validRecipients = new ArrayList<>(allRecipients.length);
+		List<Address> invalidRecipients = new ArrayList<>(2);
+		for(Address recipient:allRecipients) {
+			if(isValid(recipient)) {
+				validRecipients.add(recipient);
+			} else {
+				invalidRecipients.add(recipient);
+			}
+		}
+		
+		Address[] recipients = validRecipients.toArray(new Address[validRecipients.size()]);
+		MailOutboxEntry entry = null;
+		if(recipients.length > 0) {
+			entry = enqueue(msg, recipients);
+		}
+		if(!invalidRecipients.isEmpty()) {
+			Address[] invalid = invalidRecipients.toArray(new Address[invalidRecipients.size()]);
+			throw new SendFailedException("Invalid addresses", null, recipients, null, invalid);
+		}
+		return entry;
+	}
+	
+	private boolean isValid(Address address) {
+		if(address instanceof InternetAddress) {
+			try {
+				((InternetAddress)address).validate();
+				return true;
+			} catch (AddressException e) {
+				log.debug("Invalid address: {}", address);
+			}
+		}
+		return false;
+	}
+	
+	private MailOutboxEntry enqueue(MimeMessage msg, Address[] recipients) throws MessagingException {
+		
+		String envelopeFrom = null;
+		if(msg instanceof SMTPMessage) {
+			envelopeFrom = ((SMTPMessage)msg).getEnvelopeFrom();
+		}
+		
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+			msg.writeTo(out);
+			// MIME is a byte stream, ISO-8859-1 maps every byte to one character
+			String mime = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+			return outboxDao.createEntry(envelopeFrom, InternetAddress.toString(recipients), mime);
+		} catch (IOException e) {
+			throw new MessagingException("Cannot serialize the message", e);
+		}
+	}
+	
+	/**
+	 * Send all the messages which are due.
+	 * 
+	 * @return The number of messages sent
+	 */
+	public synchronized int dispatch() {
+		int sent = 0;
+		try {
+			cleanup();
+			int released = outboxDao.releaseStaleClaims(new Date(System.currentTimeMillis() - STALE_CLAIM));
+			if(released > 0) {
+				log.warn("{} mails claimed but not sent are released", released);
+			}
+			dbInstance.commit();
+			
+			boolean available = true;
+			List<Long> keys;
+			do {
+				keys = outboxDao.getDueEntryKeys(new Date(), batchSize);
+				dbInstance.commit();
+				for(Long key:keys) {
+					if(outboxDao.claim(key)) {
+						MailOutboxEntry entry = outboxDao.loadByKey(key);
+						dbInstance.commit();
+						SendStatus status = send(entry);
+						dbInstance.commit();
+						if(status == SendStatus.sent) {
+							sent++;
+						} else if(status == SendStatus.unavailable) {
+							// don't try the other messages, the server is not reachable
+							available = false;
+							break;
+						}
+					} else {
+						dbInstance.commit();
+					}
+				}
+			} while(available && keys.size() >= batchSize);
+			dbInstance.commitAndCloseSession();
+		} catch (Exception e) {
+			log.error("", e);
+			dbInstance.rollbackAndCloseSession();
+		}
+		
+		if(sent > 0) {
+			log.info("{} mails sent from the outbox", sent);
+		}
+		return sent;
+	}
+	
+	/**
+	 * Delete the messages which failed since more days than the retention,
+	 * at most once per hour.
+	 */
+	private void cleanup() {
+		long now = System.currentTimeMillis();
+		if(failedRetention < 0 || now - lastCleanup < CLEANUP_INTERVAL) return;
+		
+		lastCleanup = now;
+		Date before = new Date(now - TimeUnit.DAYS.toMillis(failedRetention));
+		int deleted = outboxDao.deleteFailedEntries(before);
+		dbInstance.commit();
+		if(deleted > 0) {
+			log.info("{} failed mails deleted from the outbox", deleted);
+		}
+	}
+	
+	private SendStatus send(MailOutboxEntry entry) {
+		SMTPMessage msg;
+		Address[] recipients;
+		try {
+			msg = new SMTPMessage(transportPool.getSession(),
+					new ByteArrayInputStream(entry.getMessage().getBytes(StandardCharsets.ISO_8859_1)));
+			if(StringHelper.containsNonWhitespace(entry.getEnvelopeFrom())) {
+				msg.setEnvelopeFrom(entry.getEnvelopeFrom());
+			}
+			recipients = InternetAddress.parse(entry.getRecipients(), false);
+		} catch (MessagingException e) {
+			failed(entry, e);
+			return SendStatus.rejected;
+		}
+		
+		try {
+			throttle();
+			transportPool.send(msg, recipients);
+			outboxDao.deleteEntry(entry.getKey());
+			sentMessages.incrementAndGet();
+			return SendStatus.sent;
+		} catch (SendFailedException e) {
+			Address[] invalid = e.getInvalidAddresses();
+			if(invalid != null && invalid.length > 0) {
+				log.warn("Mail {} rejected for: {}", entry.getKey(), InternetAddress.toString(invalid));
+			}
+			
+			Address[] validSent = e.getValidSentAddresses();
+			Address[] validUnsent = e.getValidUnsentAddresses();
+			boolean permanent = e instanceof SMTPSendFailedException
+					&& ((SMTPSendFailedException)e).getReturnCode() >= 500;
+			if(!permanent && validUnsent != null && validUnsent.length > 0) {
+				retry(entry, validUnsent, e);
+			} else if(validSent != null && validSent.length > 0) {
+				outboxDao.deleteEntry(entry.getKey());
+				sentMessages.incrementAndGet();
+				return SendStatus.sent;
+			} else {
+				failed(entry, e);
+			}
+			return SendStatus.rejected;
+		} catch (MessagingException e) {
+			log.warn("Cannot send mail {}: {}", entry.getKey(), e.getMessage());
+			retry(entry, null, e);
+			return SendStatus.unavailable;
+		}
+	}
+	
+	private void retry(MailOutboxEntry entry, Address[] recipients, Exception e) {
+		int attempts = entry.getAttempts() + 1;
+		if(attempts >= maxAttempts) {
+			entry.setAttempts(attempts);
+			failed(entry, e);
+			return;
+		}
+		
+		entry.setAttempts(attempts);
+		entry.setStatus(MailOutboxStatus.pending);
+		entry.setNextAttempt(new Date(System.currentTimeMillis() + getRetryDelay(attempts)));
+		entry.setLastError(getErrorMessage(e));
+		if(recipients != null) {
+			entry.setRecipients(InternetAddress.toString(recipients));
+		}
+		outboxDao.updateEntry(entry);
+		retriedMessages.incrementAndGet();
+	}
+	
+	private void failed(MailOutboxEntry entry, Exception e) {
+		entry.setStatus(MailOutboxStatus.failed);
+		entry.setLastError(getErrorMessage(e));
+		outboxDao.updateEntry(entry);
+		failedMessages.incrementAndGet();
+		log.error("Mail {} definitively not sent after {} attempt(s): {}", entry.getKey(), entry.getAttempts(), e.getMessage());
+	}
+	
+	/**
+	 * @param attempts The number of attempts already made
+	 * @return The delay in milliseconds, doubled at every attempt
+	 */
+	protected long getRetryDelay(int attempts) {
+		long delay = retryDelay << Math.min(20, Math.max(0, attempts - 1));
+		return TimeUnit.SECONDS.toMillis(Math.min(delay, maxRetryDelay));
+	}
+	
+	private String getErrorMessage(Exception e) {
+		String message = e.getMessage();
+		if(message == null) {
+			message = e.getClass().getSimpleName();
+		} else if(message.length() > MAX_ERROR_LENGTH) {
+			message = message.substring(0, MAX_ERROR_LENGTH);
+		}
+		return message;
+	}
+	
+	/**
+	 * Wait to not send more messages per second than the limit.
+	 */
+	private void throttle() {
+		if(rateLimit <= 0) return;
+		
+		long interval = TimeUnit.SECONDS.toNanos(1) / rateLimit;
+		long now = System.nanoTime();
+		long wait = nextSendNanos - now;
+		if(wait > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			nextSendNanos += interval;
+		} else {
+			nextSendNanos = now + interval;
+		}
+	}
+	
+	private enum SendStatus {
+		sent,
+		rejected,
+		unavailable
+	}
+}
@@ -0,0 +1,292 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Address;
+import javax.mail.Authenticator;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.WebappHelper;
+import org.olat.core.util.mail.MailerSMTPAuthenticator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * A pool of SMTP connections. A connection is opened and authenticated once
+ * and reused for several messages, it's closed after a configurable number
+ * of messages or if it was idle for too long. The mail session is shared
+ * by all messages and is recreated if the mail configuration changes.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class SMTPTransportPool implements DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(SMTPTransportPool.class);
+	
+	@Value("${mail.smtp.pool.size:4}")
+	private int poolSize;
+	@Value("${mail.smtp.pool.max.messages:100}")
+	private int maxMessagesPerConnection;
+	@Value("${mail.smtp.pool.idle.timeout:30000}")
+	private long idleTimeout;
+	
+	private Semaphore permits;
+	private final BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+
+	private volatile Session session;
+	private String sessionKey;
+	
+	private final AtomicLong openedConnections = new AtomicLong();
+	private final AtomicLong sentMessages = new AtomicLong();
+	
+	/**
+	 * @return The mail session configured with the current SMTP settings
+	 */
+	public synchronized Session getSession() {
+		String mailhost = WebappHelper.getMailConfig("mailhost");
+		String mailport = WebappHelper.getMailConfig("mailport");
+		String mailhostTimeout = WebappHelper.getMailConfig("mailTimeout");
+		boolean sslEnabled = Boolean.parseBoolean(WebappHelper.getMailConfig("sslEnabled"));
+		boolean sslCheckCertificate = Boolean.parseBoolean(WebappHelper.getMailConfig("sslCheckCertificate"));
+		boolean startTls = Boolean.parseBoolean(WebappHelper.getMailConfig("smtpStarttls"));
+		boolean authentication = WebappHelper.isMailHostAuthenticationEnabled();
+		String smtpUser = WebappHelper.getMailConfig("smtpUser");
+		String smtpPwd = WebappHelper.getMailConfig("smtpPwd");
+		
+		String key = mailhost + ":" + mailport + ":" + mailhostTimeout + ":" + sslEnabled + ":" + sslCheckCertificate
+				+ ":" + startTls + ":" + authentication + ":" + smtpUser + ":" + (smtpPwd == null ? 0 : smtpPwd.hashCode());
+		if(session != null && key.equals(sessionKey)) {
+			return session;
+		}
+		
+		Properties p = new Properties();
+		p.put("mail.smtp.host", mailhost);
+		if(StringHelper.containsNonWhitespace(mailport)) {
+			p.put("mail.smtp.port", mailport);
+		}
+		p.put("mail.smtp.timeout", mailhostTimeout);
+		p.put("mail.smtp.connectiontimeout", mailhostTimeout);
+		p.put("mail.smtp.ssl.enable", sslEnabled);
+		p.put("mail.smtp.ssl.checkserveridentity", sslCheckCertificate);
+		if(startTls) {
+			p.put("mail.smtp.starttls.enable", "true");
+			p.put("mail.smtp.ssl.trust", mailhost);
+		}
+		p.put("mail.smtp.sendpartial", Boolean.TRUE);
+		
+		Session newSession;
+		if (authentication) {
+			// use smtp authentication from configuration
+			p.put("mail.smtp.auth", "true");
+			p.put("mail.smtp.user", smtpUser);
+			Authenticator smtpAuth = new MailerSMTPAuthenticator(smtpUser, smtpPwd);
+			newSession = Session.getInstance(p, smtpAuth);
+		} else {
+			newSession = Session.getInstance(p);
+		}
+		if (log.isDebugEnabled()) {
+			// enable mail session debugging on console
+			newSession.setDebug(true);
+		}
+		
+		session = newSession;
+		sessionKey = key;
+		closeIdleTransports();
+		return session;
+	}
+	
+	/**
+	 * Send the message with a pooled connection. The message is not
+	 * modified, call saveChanges() before if needed.
+	 * 
+	 * @param msg The message
+	 * @param recipients The recipients of the envelope
+	 * @throws MessagingException If the message cannot be sent
+	 */
+	public void send(Message msg, Address[] recipients) throws MessagingException {
+		if(recipients == null || recipients.length == 0) {
+			throw new SendFailedException("No recipient addresses");
+		}
+		
+		Semaphore semaphore = getPermits();
+		try {
+			semaphore.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while waiting for a SMTP connection", e);
+		}
+		
+		try {
+			PooledTransport transport = borrow();
+			boolean reused = transport.getMessages() > 0;
+			try {
+				transport.send(msg, recipients);
+			} catch(SendFailedException e) {
+				// the connection stays usable after rejected recipients
+				release(transport);
+				throw e;
+			} catch(MessagingException e) {
+				transport.close();
+				if(!reused) {
+					throw e;
+				}
+				// a reused connection was maybe closed by the server, retry once with a new one
+				log.debug("Pooled SMTP connection failed, retry with a new one: {}", e.getMessage());
+				transport = borrowNew();
+				try {
+					transport.send(msg, recipients);
+				} catch(SendFailedException e2) {
+					release(transport);
+					throw e2;
+				} catch(MessagingException e2) {
+					transport.close();
+					throw e2;
+				}
+			}
+			release(transport);
+			sentMessages.incrementAndGet();
+		} finally {
+			semaphore.release();
+		}
+	}
+	
+	public long getOpenedConnections() {
+		return openedConnections.get();
+	}
+	
+	public long getSentMessages() {
+		return sentMessages.get();
+	}
+	
+	public int getIdleConnections() {
+		return idleTransports.size();
+	}
+	
+	private synchronized Semaphore getPermits() {
+		if(permits == null) {
+			permits = new Semaphore(Math.max(1, poolSize), true);
+		}
+		return permits;
+	}
+	
+	private PooledTransport borrow() throws MessagingException {
+		Session currentSession = getSession();
+		long now = System.currentTimeMillis();
+		for(PooledTransport transport=idleTransports.pollFirst(); transport != null; transport=idleTransports.pollFirst()) {
+			// isConnected() of the SMTP transport costs a NOOP, a closed connection is detected by send()
+			if(transport.getSession() == currentSession && now - transport.getLastUsed() < idleTimeout) {
+				return transport;
+			}
+			transport.close();
+		}
+		return borrowNew();
+	}
+	
+	private PooledTransport borrowNew() throws MessagingException {
+		Session currentSession = getSession();
+		Transport transport = currentSession.getTransport("smtp");
+		transport.connect();
+		openedConnections.incrementAndGet();
+		return new PooledTransport(currentSession, transport);
+	}
+	
+	private void release(PooledTransport transport) {
+		if(transport.getMessages() < maxMessagesPerConnection && transport.getSession() == session) {
+			// last used first, the others can time out
+			idleTransports.offerFirst(transport);
+		} else {
+			transport.close();
+		}
+	}
+	
+	private void closeIdleTransports() {
+		for(PooledTransport transport=idleTransports.pollFirst(); transport != null; transport=idleTransports.pollFirst()) {
+			transport.close();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		closeIdleTransports();
+	}
+	
+	private static class PooledTransport {
+		
+		private final Session session;
+		private final Transport transport;
+		private long lastUsed;
+		private int messages = 0;
+		
+		public PooledTransport(Session session, Transport transport) {
+			this.session = session;
+			this.transport = transport;
+			lastUsed = System.currentTimeMillis();
+		}
+		
+		public Session getSession() {
+			return session;
+		}
+		
+		public long getLastUsed() {
+			return lastUsed;
+		}
+		
+		public int getMessages() {
+			return messages;
+		}
+		
+		public void send(Message msg, Address[] recipients) throws MessagingException {
+			try {
+				transport.sendMessage(msg, recipients);
+			} catch(IllegalStateException e) {
+				// the connection was closed after an error
+				throw new MessagingException("Not connected", e);
+			} finally {
+				messages++;
+				lastUsed = System.currentTimeMillis();
+			}
+		}
+		
+		public void close() {
+			try {
+				transport.close();
+			} catch (MessagingException e) {
+				log.debug("Cannot close SMTP connection: {}", e.getMessage());
+			}
+		}
+	}
+}
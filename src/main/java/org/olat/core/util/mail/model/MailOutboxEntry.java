@@ -0,0 +1,195 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.olat.core.id.CreateInfo;
+import org.olat.core.id.ModifiedInfo;
+import org.olat.core.id.Persistable;
+
+/**
+ * A mail waiting to be sent. The message is saved in its MIME format, the
+ * recipients of the envelope are saved separately as they are reduced to the
+ * ones not reached yet after a partial failure.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Entity(name="mailoutbox")
+@Table(name="o_mail_outbox")
+public class MailOutboxEntry implements CreateInfo, ModifiedInfo, Persistable {
+
+	private static final long serialVersionUID = 5532094741096628211L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name="id", nullable=false, unique=true, insertable=true, updatable=false)
+	private Long key;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="creationdate", nullable=false, insertable=true, updatable=false)
+	private Date creationDate;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="lastmodified", nullable=false, insertable=true, updatable=true)
+	private Date lastModified;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name="o_status", nullable=false, insertable=true, updatable=true)
+	private MailOutboxStatus status;
+	@Column(name="o_attempts", nullable=false, insertable=true, updatable=true)
+	private int attempts;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="o_next_attempt", nullable=false, insertable=true, updatable=true)
+	private Date nextAttempt;
+	@Column(name="o_last_error", nullable=true, insertable=true, updatable=true)
+	private String lastError;
+	
+	@Column(name="o_envelope_from", nullable=true, insertable=true, updatable=false)
+	private String envelopeFrom;
+	@Column(name="o_recipients", nullable=false, insertable=true, updatable=true)
+	private String recipients;
+	@Column(name="o_message", nullable=false, insertable=true, updatable=false)
+	private String message;
+
+	@Override
+	public Long getKey() {
+		return key;
+	}
+
+	public void setKey(Long key) {
+		this.key = key;
+	}
+
+	@Override
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	@Override
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	@Override
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	public MailOutboxStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(MailOutboxStatus status) {
+		this.status = status;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public Date getNextAttempt() {
+		return nextAttempt;
+	}
+
+	public void setNextAttempt(Date nextAttempt) {
+		this.nextAttempt = nextAttempt;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+	public String getEnvelopeFrom() {
+		return envelopeFrom;
+	}
+
+	public void setEnvelopeFrom(String envelopeFrom) {
+		this.envelopeFrom = envelopeFrom;
+	}
+
+	/**
+	 * @return The addresses of the envelope, comma separated
+	 */
+	public String getRecipients() {
+		return recipients;
+	}
+
+	public void setRecipients(String recipients) {
+		this.recipients = recipients;
+	}
+
+	/**
+	 * @return The message in MIME format, every character is a byte (ISO-8859-1)
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public int hashCode() {
+		return key == null ? 274653 : key.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof MailOutboxEntry) {
+			MailOutboxEntry entry = (MailOutboxEntry)obj;
+			return key != null && key.equals(entry.getKey());
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equalsByPersistableKey(Persistable persistable) {
+		return equals(persistable);
+	}
+}
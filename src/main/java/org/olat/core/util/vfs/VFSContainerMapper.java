@@ -21,7 +21,7 @@ package org.olat.core.util.vfs;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.olat.core.dispatcher.mapper.Mapper;
+import org.olat.core.dispatcher.mapper.StatelessMapper;
 import org.olat.core.gui.media.MediaResource;
 import org.olat.core.gui.media.NotFoundMediaResource;
 
@@ -33,7 +33,10 @@ import org.olat.core.gui.media.NotFoundMediaResource;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class VFSContainerMapper  implements Mapper {
+public class VFSContainerMapper  implements StatelessMapper {
+	
+	public static final String MAPPER_TYPE = "vfscontainer";
+	
 	private VFSContainer container;
 	
 	public VFSContainerMapper() {
@@ -44,6 +47,23 @@ public class VFSContainerMapper  implements Mapper {
 		this.container = container;
 	}
 	
+	@Override
+	public String getMapperType() {
+		return MAPPER_TYPE;
+	}
+
+	/**
+	 * Only the folders of the local file system without filter can be
+	 * found again by their path.
+	 */
+	@Override
+	public String getConfiguration() {
+		if(container instanceof LocalFolderImpl && container.getDefaultItemFilter() == null) {
+			return container.getRelPath();
+		}
+		return null;
+	}
+	
 	@Override
 	public MediaResource handle(String relPath, HttpServletRequest request) {
 		VFSItem vfsItem = container.resolve(relPath);
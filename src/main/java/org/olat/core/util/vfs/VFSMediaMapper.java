@@ -21,7 +21,7 @@ package org.olat.core.util.vfs;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.olat.core.dispatcher.mapper.Mapper;
+import org.olat.core.dispatcher.mapper.StatelessMapper;
 import org.olat.core.gui.media.MediaResource;
 
 /**
@@ -30,7 +30,9 @@ import org.olat.core.gui.media.MediaResource;
  * @author uhensler, urs.hensler@frentix.com, http://www.frentix.com
  *
  */
-public class VFSMediaMapper implements Mapper {
+public class VFSMediaMapper implements StatelessMapper {
+	
+	public static final String MAPPER_TYPE = "vfsleaf";
 	
 	private VFSLeaf file;
 	
@@ -45,6 +47,22 @@ public class VFSMediaMapper implements Mapper {
 		this.file = file;
 	}
 
+	@Override
+	public String getMapperType() {
+		return MAPPER_TYPE;
+	}
+
+	/**
+	 * Only the files of the local file system can be found again by their path.
+	 */
+	@Override
+	public String getConfiguration() {
+		if(file instanceof LocalFileImpl) {
+			return file.getRelPath();
+		}
+		return null;
+	}
+
 	@Override
 	public MediaResource handle(String relPath, HttpServletRequest request) {
 		return new VFSMediaResource(file);
@@ -26,16 +26,17 @@
 
 package org.olat.core.util.vfs;
 
+import java.io.File;
 import java.io.InputStream;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.olat.core.gui.media.MediaResource;
+import org.olat.core.gui.media.FileBackedMediaResource;
 import org.olat.core.gui.media.ServletUtil;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.WebappHelper;
 
-public class VFSMediaResource implements MediaResource {
+public class VFSMediaResource implements FileBackedMediaResource {
 
 	private static final String MIME_TYPE_OCTET_STREAM = "application/octet-stream";
 	//use this pseudo mime-type to force download on ie 6
@@ -115,6 +116,37 @@ public class VFSMediaResource implements MediaResource {
 		return (lastModified == VFSConstants.UNDEFINED) ? null : Long.valueOf(lastModified);
 	}
 
+	@Override
+	public File getFile() {
+		VFSLeaf leaf = getLeaf();
+		if(leaf instanceof LocalFileImpl) {
+			return ((LocalFileImpl)leaf).getBasefile();
+		}
+		return null;
+	}
+
+	/**
+	 * The entity tag is built with the size and the last modification date
+	 * of the file, like the one of WebDAV, without loading the metadata.
+	 */
+	@Override
+	public String getETag() {
+		VFSLeaf leaf = getLeaf();
+		if(leaf instanceof LocalFileImpl) {
+			long size = leaf.getSize();
+			long lastModified = leaf.getLastModified();
+			if(size != VFSConstants.UNDEFINED && lastModified != VFSConstants.UNDEFINED) {
+				return "\"" + size + "-" + lastModified + "\"";
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean isOffloadable() {
+		return true;
+	}
+
 	@Override
 	public void prepare(HttpServletResponse hres) {
 		String filename = StringHelper.urlEncodeUTF8(getLeaf().getName());
@@ -271,7 +271,8 @@ public class VFSLockManagerImpl implements VFSLockManager {
 			lock = fileLocks.computeIfAbsent(file, f -> {
 				VFSMetadata theMetadata;
 				if(metadata == null) {
-					theMetadata = vfsRepositoryService.getMetadataFor(file);
+					// the locks are in the cache, the metadata are only a fallback
+					theMetadata = vfsRepositoryService.getCachedMetadataFor(file);
 				} else {
 					theMetadata = metadata;
 				}
@@ -84,6 +84,7 @@ import org.olat.core.util.cache.CacheWrapper;
 import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.core.util.coordinate.SyncerExecutor;
 import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.io.ParallelZipOutputStream;
 import org.olat.core.util.nodes.INode;
 import org.olat.core.util.resource.OresHelper;
 import org.olat.core.util.tree.TreeVisitor;
@@ -575,6 +576,9 @@ public class CourseFactory {
 		LocalFolderImpl courseBaseContainer = newCourse.getCourseBaseContainer();
 		File fCanonicalCourseBasePath = courseBaseContainer.getBasefile();
 		if (ZipUtil.unzip(zipFile, fCanonicalCourseBasePath)) {
+			// never trust binary snapshots from an archive
+			CourseStructureSnapshot.deleteSnapshot(new File(fCanonicalCourseBasePath, PersistingCourseImpl.RUNSTRUCTURE_XML));
+			CourseStructureSnapshot.deleteSnapshot(new File(fCanonicalCourseBasePath, PersistingCourseImpl.EDITORTREEMODEL_XML));
 			// Load course structure now
 			try {
 				newCourse.load();
@@ -737,7 +741,7 @@ public class CourseFactory {
 		
 		String fileName = ExportUtil.createFileNameWithTimeStamp(course.getCourseTitle(), "zip");
 		try(OutputStream out = new FileOutputStream(new File(exportDirectory, fileName));
-				ZipOutputStream zout = new ZipOutputStream(out)) {
+				ZipOutputStream zout = new ParallelZipOutputStream(out)) {
 			ScoreAccountingHelper.createCourseResultsOverview(users, nodes, course, locale, zout);
 		} catch(IOException e) {
 			log.error("", e);
@@ -1077,7 +1081,7 @@ public class CourseFactory {
 
 			File exportFile = new File(exportPath, archiveName);
 			try(FileOutputStream fileStream = new FileOutputStream(exportFile);
-					ZipOutputStream exportStream = new ZipOutputStream(fileStream);) {
+					ZipOutputStream exportStream = new ParallelZipOutputStream(fileStream);) {
 				cn.archiveNodeData(locale, course, null, exportStream, "", charset);
 			} catch (IOException e) {
 				log.error("", e);
@@ -73,6 +73,8 @@ public class CourseModule extends AbstractSpringModule {
 	private boolean disclaimerEnabled;
 	@Value("${course.type.default}")
 	private String courseTypeDefault;
+	@Value("${course.structure.snapshot.enabled:true}")
+	private boolean structureSnapshotEnabled;
 	
 	// Repository types
 	public static final String ORES_TYPE_COURSE = OresHelper.calculateTypeName(CourseModule.class);
@@ -232,6 +234,14 @@ public class CourseModule extends AbstractSpringModule {
 		return disclaimerEnabled;
 	}
 	
+	/**
+	 * @return true if the run structure and the editor tree model are saved
+	 * 		and loaded from a binary snapshot too
+	 */
+	public boolean isStructureSnapshotEnabled() {
+		return structureSnapshotEnabled;
+	}
+	
 	public String getCourseTypeDefault() {
 		return courseTypeDefault;
 	}
@@ -0,0 +1,173 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.helpers.Settings;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+
+import com.thoughtworks.xstream.io.binary.BinaryStreamReader;
+import com.thoughtworks.xstream.io.binary.BinaryStreamWriter;
+
+/**
+ * A binary snapshot of the run structure and of the editor tree model
+ * written next to the XML file. The snapshot is written with the same
+ * XStream configuration as the XML file (aliases, converters and allowed
+ * types) but with the binary driver of XStream: reading it doesn't need
+ * to parse XML, which is a lot faster and produces less garbage.<br>
+ * The XML stays the reference: the snapshot header saves the version of
+ * the format, the size and the modification date of the XML file it was
+ * made from and the version of OpenOlat which wrote it. If one of them
+ * doesn't match, the snapshot is stale, ignored and rebuilt from the XML.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseStructureSnapshot {
+
+	private static final Logger log = Tracing.createLoggerFor(CourseStructureSnapshot.class);
+
+	public static final String SNAPSHOT_SUFFIX = ".ser";
+
+	private static final int MAGIC = 0x4F4F4353;// OOCS
+	/**
+	 * Increment the version if the format of the header or of the body changes.
+	 * Version 1 was the Java serialization.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	private CourseStructureSnapshot() {
+		//
+	}
+
+	/**
+	 * @param xmlFile The XML file
+	 * @return The snapshot file of the specified XML file
+	 */
+	public static File getSnapshotFile(File xmlFile) {
+		return new File(xmlFile.getParentFile(), xmlFile.getName() + SNAPSHOT_SUFFIX);
+	}
+
+	/**
+	 * Write the snapshot of the object. The XML file must be written before.
+	 * If the object cannot be marshalled, the snapshot is deleted and the
+	 * course will be loaded from the XML file.
+	 *
+	 * @param xmlFile The XML file of the object
+	 * @param obj The object
+	 * @return true if the snapshot was written
+	 */
+	public static boolean write(File xmlFile, Object obj) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		if(!xmlFile.exists()) {
+			delete(snapshotFile);
+			return false;
+		}
+
+		File tmpFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+		try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()), 65536);
+				DataOutputStream dout = new DataOutputStream(out)) {
+			dout.writeInt(MAGIC);
+			dout.writeInt(FORMAT_VERSION);
+			dout.writeUTF(getOpenOlatVersion());
+			dout.writeLong(xmlFile.length());
+			dout.writeLong(xmlFile.lastModified());
+			BinaryStreamWriter writer = new BinaryStreamWriter(dout);
+			CourseXStreamAliases.getWriteCourseXStream().marshal(obj, writer);
+			writer.flush();
+		} catch (Exception e) {
+			log.warn("Cannot write course structure snapshot: {}", snapshotFile, e);
+			delete(tmpFile);
+			delete(snapshotFile);
+			return false;
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			log.warn("Cannot move course structure snapshot: {}", snapshotFile, e);
+			delete(tmpFile);
+			delete(snapshotFile);
+			return false;
+		}
+	}
+
+	/**
+	 * Read the snapshot of the specified XML file.
+	 *
+	 * @param xmlFile The XML file
+	 * @return The object or null if the snapshot is missing, stale or unreadable
+	 */
+	public static Object read(File xmlFile) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		if(!snapshotFile.exists() || !xmlFile.exists()) {
+			return null;
+		}
+
+		try(InputStream in = new BufferedInputStream(Files.newInputStream(snapshotFile.toPath()), 65536);
+				DataInputStream din = new DataInputStream(in)) {
+			if(din.readInt() != MAGIC || din.readInt() != FORMAT_VERSION
+					|| !getOpenOlatVersion().equals(din.readUTF())
+					|| din.readLong() != xmlFile.length()
+					|| din.readLong() != xmlFile.lastModified()) {
+				log.debug("Stale course structure snapshot: {}", snapshotFile);
+				return null;
+			}
+
+			return CourseXStreamAliases.getReadCourseXStream().unmarshal(new BinaryStreamReader(din));
+		} catch (Exception | StackOverflowError e) {
+			log.warn("Cannot read course structure snapshot: {}", snapshotFile, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Delete the snapshot of the specified XML file.
+	 *
+	 * @param xmlFile The XML file
+	 */
+	public static void deleteSnapshot(File xmlFile) {
+		delete(getSnapshotFile(xmlFile));
+	}
+
+	private static void delete(File file) {
+		if(file.exists()) {
+			FileUtils.deleteFile(file);
+		}
+	}
+
+	private static String getOpenOlatVersion() {
+		return Settings.getVersion() + "/" + Settings.getBuildIdentifier();
+	}
+}
@@ -349,6 +349,13 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		}
 		XStream xstream = CourseXStreamAliases.getWriteCourseXStream();
 		XStreamHelper.writeObject(xstream, vfsItem, obj);
+		
+		File xmlFile = new File(getCourseBaseContainer().getBasefile(), fileName);
+		if(isStructureSnapshotEnabled()) {
+			CourseStructureSnapshot.write(xmlFile, obj);
+		} else {
+			CourseStructureSnapshot.deleteSnapshot(xmlFile);
+		}
 	}
 
 	/**
@@ -363,15 +370,35 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		if (!(vfsItem instanceof VFSLeaf)) {
 			throw new CorruptedCourseException("Cannot resolve file: " + fileName + " course=" + toString());
 		}
+		
+		boolean snapshotEnabled = isStructureSnapshotEnabled();
+		File xmlFile = new File(getCourseBaseContainer().getBasefile(), fileName);
+		if(snapshotEnabled) {
+			Object obj = CourseStructureSnapshot.read(xmlFile);
+			if(obj != null) {
+				return obj;
+			}
+		}
+		
 		try {
 			XStream xstream = CourseXStreamAliases.getReadCourseXStream();
-			return XStreamHelper.readObject(xstream, (VFSLeaf)vfsItem);
+			Object obj = XStreamHelper.readObject(xstream, (VFSLeaf)vfsItem);
+			if(snapshotEnabled) {
+				// missing or stale snapshot, the next load will be faster
+				CourseStructureSnapshot.write(xmlFile, obj);
+			}
+			return obj;
 		} catch (Exception e) {
 			log.error("Cannot read course tree file: " + fileName, e);
 			throw new CorruptedCourseException("Cannot resolve file: " + fileName + " course=" + toString(), e);
 		}
 	}
 
+	private boolean isStructureSnapshotEnabled() {
+		CourseModule courseModule = CoreSpringFactory.getImpl(CourseModule.class);
+		return courseModule != null && courseModule.isStructureSnapshotEnabled();
+	}
+
 	@Override
 	public String getResourceableTypeName() {
 		return ORES_TYPE_NAME;
@@ -36,6 +36,7 @@ import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
+import org.olat.core.util.io.ParallelZipOutputStream;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
 import org.olat.course.nodes.ArchiveOptions;
@@ -121,7 +122,7 @@ public class ArchiveResource implements MediaResource {
 		hres.setHeader("Content-Description", urlEncodedLabel);
 		
 		Set<String> usedPath = new HashSet<>();
-		try(ZipOutputStream zout = new ZipOutputStream(hres.getOutputStream())) {
+		try(ZipOutputStream zout = new ParallelZipOutputStream(hres.getOutputStream())) {
 			zout.setLevel(9);
 			ICourse course = CourseFactory.loadCourse(courseOres);
 			for(CourseNode courseNode:courseNodes) {
@@ -46,6 +46,7 @@ import org.olat.core.gui.media.MediaResource;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.util.ExportUtil;
+import org.olat.core.util.io.ParallelZipOutputStream;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
 import org.olat.course.nodes.CourseNode;
@@ -105,7 +106,7 @@ public class ScoreAccountingArchiveController extends BasicController {
 		File exportDirectory = CourseFactory.getOrCreateDataExportDirectory(getIdentity(), courseTitle);
 		File downloadFile = new File(exportDirectory, fileName);
 		try(OutputStream fOut = new FileOutputStream(downloadFile);
-				ZipOutputStream zout = new ZipOutputStream(fOut)) {
+				ZipOutputStream zout = new ParallelZipOutputStream(fOut)) {
 			ScoreAccountingHelper.createCourseResultsOverview(users, nodes, course, getLocale(), zout);
 		} catch(IOException e) {
 			logError("", e);
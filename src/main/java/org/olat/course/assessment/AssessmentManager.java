@@ -306,6 +306,16 @@ public interface AssessmentManager {
 	
 	public AssessmentEntry getOrCreateAssessmentEntry(CourseNode courseNode, Identity assessedIdentity, Boolean entryRoot);
 	
+	/**
+	 * Load or create the assessment entries of the specified course nodes. The
+	 * missing entries are created in one transaction.
+	 * 
+	 * @param courseNodes The course nodes
+	 * @param assessedIdentity The assessed identity
+	 * @return The list of assessment entries
+	 */
+	public List<AssessmentEntry> getOrCreateAssessmentEntries(List<CourseNode> courseNodes, Identity assessedIdentity);
+	
 	public AssessmentEntry updateAssessmentEntry(AssessmentEntry assessmentEntry);
 
 	public List<AssessmentEntry> getAssessmentEntries(CourseNode courseNode);
@@ -315,6 +325,13 @@ public interface AssessmentManager {
 	public List<AssessmentEntry> getAssessmentEntries(BusinessGroup group, CourseNode courseNode);
 	
 	public List<AssessmentEntry> getAssessmentEntries(Identity assessedIdentity);
+	
+	/**
+	 * @param assessedIdentity The assessed identity
+	 * @param modifiedAfter The date (inclusive)
+	 * @return The assessment entries of the identity modified after the specified date
+	 */
+	public List<AssessmentEntry> getAssessmentEntries(Identity assessedIdentity, Date modifiedAfter);
 
 	
 }
\ No newline at end of file
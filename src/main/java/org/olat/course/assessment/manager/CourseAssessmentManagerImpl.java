@@ -28,7 +28,9 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.CoreSpringFactory;
@@ -120,6 +122,21 @@ public class CourseAssessmentManagerImpl implements AssessmentManager {
 		return assessmentService.getOrCreateAssessmentEntry(assessedIdentity, null, cgm.getCourseEntry(), courseNode.getIdent(), entryRoot, courseNode.getReferencedRepositoryEntry());
 	}
 	
+	@Override
+	public List<AssessmentEntry> getOrCreateAssessmentEntries(List<CourseNode> courseNodes, Identity assessedIdentity) {
+		if(courseNodes == null || courseNodes.isEmpty()) {
+			return new ArrayList<>(0);
+		}
+		
+		ICourse course = CourseFactory.loadCourse(cgm.getCourseEntry());
+		String rootSubIdent = course.getCourseEnvironment().getRunStructure().getRootNode().getIdent();
+		Map<String,RepositoryEntry> subIdentToReferenceEntries = new LinkedHashMap<>();
+		for(CourseNode courseNode:courseNodes) {
+			subIdentToReferenceEntries.put(courseNode.getIdent(), courseNode.getReferencedRepositoryEntry());
+		}
+		return assessmentService.getOrCreateAssessmentEntries(assessedIdentity, cgm.getCourseEntry(), subIdentToReferenceEntries, rootSubIdent);
+	}
+	
 	private AssessmentEntry getOrCreate(Identity assessedIdentity, String subIdent, Boolean entryRoot, RepositoryEntry referenceEntry) {
 		return assessmentService.getOrCreateAssessmentEntry(assessedIdentity, null, cgm.getCourseEntry(), subIdent, entryRoot, referenceEntry);
 	}
@@ -145,6 +162,11 @@ public class CourseAssessmentManagerImpl implements AssessmentManager {
 		return assessmentService.loadAssessmentEntriesByAssessedIdentity(assessedIdentity, cgm.getCourseEntry());
 	}
 
+	@Override
+	public List<AssessmentEntry> getAssessmentEntries(Identity assessedIdentity, Date modifiedAfter) {
+		return assessmentService.loadAssessmentEntriesByAssessedIdentity(assessedIdentity, cgm.getCourseEntry(), modifiedAfter);
+	}
+
 	@Override
 	public List<AssessmentEntry> getAssessmentEntries(BusinessGroup assessedGoup, CourseNode courseNode) {
 		return assessmentService.loadAssessmentEntries(assessedGoup, cgm.getCourseEntry(), courseNode.getIdent());
@@ -19,19 +19,29 @@
  */
 package org.olat.course.assessment.manager;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.olat.core.configuration.PreWarm;
 import org.apache.logging.log4j.Logger;
+import org.olat.core.configuration.PreWarm;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.CodeHelper;
+import org.olat.core.util.DateUtils;
 import org.olat.course.CourseFactory;
+import org.olat.course.nodes.CourseNodeFactory;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.manager.RepositoryEntryDAO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
+ * Load the courses used recently. The courses are ranked by their last
+ * usage or, if configured, by the number of users which launched them
+ * the last days.
  * 
  * Initial date: 18.02.2016<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
@@ -42,17 +52,63 @@ public class LastCoursesPreWarm implements PreWarm {
 	
 	private static final Logger log = Tracing.createLoggerFor(LastCoursesPreWarm.class);
 	
+	@Value("${prewarm.courses.max:100}")
+	private int maxCourses;
+	@Value("${prewarm.courses.ranking:lastUsage}")
+	private String ranking;
+	@Value("${prewarm.courses.launches.days:7}")
+	private int launchesDays;
+	
 	@Autowired
 	private RepositoryEntryDAO repositoryEntryDao;
+	@Autowired
+	private UserCourseInformationsManager userCourseInformationsManager;
+	
+	@Override
+	public List<Class<? extends PreWarm>> getDependencies() {
+		return List.of(CourseNodeFactory.class);
+	}
 
 	@Override
 	public void run() {
 		long start = System.nanoTime();
-		List<RepositoryEntry> entries = repositoryEntryDao
-				.getLastUsedRepositoryEntries("CourseModule", 0, 100);
+		List<RepositoryEntry> entries;
+		if("launches".equals(ranking)) {
+			entries = getMostLaunchedCourses();
+		} else {
+			entries = repositoryEntryDao.getLastUsedRepositoryEntries("CourseModule", 0, maxCourses);
+		}
+		
+		int count = 0;
 		for(RepositoryEntry entry:entries) {
+			if(Thread.currentThread().isInterrupted()) {
+				break;
+			}
 			CourseFactory.loadCourse(entry);
+			count++;
+		}
+		log.info(count + " Courses preloaded in (ms): " + CodeHelper.nanoToMilliTime(start));
+	}
+	
+	private List<RepositoryEntry> getMostLaunchedCourses() {
+		Date from = DateUtils.addDays(new Date(), -launchesDays);
+		List<Long> resourceKeys = userCourseInformationsManager.getMostLaunchedCourseResourceKeys(from, maxCourses);
+		List<RepositoryEntry> entries = repositoryEntryDao.loadByResourceKeys(resourceKeys);
+
+		Map<Long,RepositoryEntry> resourceKeyToEntries = new HashMap<>();
+		for(RepositoryEntry entry:entries) {
+			if(!entry.getEntryStatus().decommissioned()) {
+				resourceKeyToEntries.put(entry.getOlatResource().getKey(), entry);
+			}
+		}
+		
+		List<RepositoryEntry> orderedEntries = new ArrayList<>(resourceKeyToEntries.size());
+		for(Long resourceKey:resourceKeys) {
+			RepositoryEntry entry = resourceKeyToEntries.get(resourceKey);
+			if(entry != null) {
+				orderedEntries.add(entry);
+			}
 		}
-		log.info(entries.size() + " Courses preloaded in (ms): " + CodeHelper.nanoToMilliTime(start));
+		return orderedEntries;
 	}
 }
@@ -81,5 +81,15 @@ public interface UserCourseInformationsManager {
 	public Map<Long,Date> getInitialLaunchDates(OLATResource resource);
 	
 	public int deleteUserCourseInformations(RepositoryEntry entry);
+	
+	/**
+	 * Rank the courses by the number of users which launched them since
+	 * the specified date.
+	 * 
+	 * @param from The date
+	 * @param maxResults The max. number of courses
+	 * @return The keys of the resources of the courses, the most launched first
+	 */
+	public List<Long> getMostLaunchedCourseResourceKeys(Date from, int maxResults);
 
 }
@@ -461,6 +461,22 @@ public class UserCourseInformationsManagerImpl implements UserCourseInformations
 		}
 	}
 
+	@Override
+	public List<Long> getMostLaunchedCourseResourceKeys(Date from, int maxResults) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select infos.resource.key from ").append(UserCourseInfosImpl.class.getName()).append(" as infos ")
+		  .append(" where infos.recentLaunch>=:from")
+		  .append(" group by infos.resource.key")
+		  .append(" order by count(infos.key) desc");
+		
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("from", from)
+				.setFirstResult(0)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+
 	@Override
 	public int deleteUserCourseInformations(RepositoryEntry entry) {
 		try {
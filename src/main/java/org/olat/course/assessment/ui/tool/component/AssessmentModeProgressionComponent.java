@@ -108,6 +108,11 @@ public class AssessmentModeProgressionComponent extends FormBaseComponentImpl {
 		return dirty;
 	}
 
+	@Override
+	public boolean isDirtyPolling() {
+		return true;
+	}
+
 	@Override
 	public ComponentRenderer getHTMLRendererSingleton() {
 		return RENDERER;
@@ -54,10 +54,11 @@ public abstract class AbstractFunction extends FunctionCB{
 	public abstract Object call(Object[] inStack);
 
 	/**
-	 * @return user course environment
+	 * @return user course environment, the one bound to the current thread
+	 * 		if the function is part of the shared environment
 	 */
 	public UserCourseEnvironment getUserCourseEnv() {
-		return userCourseEnv;
+		return userCourseEnv == null ? ConditionExpressionCache.getBoundUserCourseEnvironment() : userCourseEnv;
 	}
 
 	/**
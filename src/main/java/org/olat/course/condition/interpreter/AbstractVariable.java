@@ -50,9 +50,10 @@ public abstract class AbstractVariable extends VariableCB {
 	public abstract Object getValue();
 	
 	/**
-	 * @return user course environment
+	 * @return user course environment, the one bound to the current thread
+	 * 		if the variable is part of the shared environment
 	 */
 	public UserCourseEnvironment getUserCourseEnv() {
-		return userCourseEnv;
+		return userCourseEnv == null ? ConditionExpressionCache.getBoundUserCourseEnvironment() : userCourseEnv;
 	}
 }
@@ -0,0 +1,167 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.condition.interpreter;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.olat.course.run.userview.UserCourseEnvironment;
+
+import com.neemsoft.jmep.Environment;
+import com.neemsoft.jmep.Expression;
+import com.neemsoft.jmep.XExpression;
+
+/**
+ * Cache of the parsed condition expressions, keyed by the text of the
+ * expression and shared by all users and courses. The expressions are
+ * parsed against an environment whose functions and variables don't hold
+ * a user course environment. The user course environment is bound to the
+ * current thread only for the time of the evaluation.<br>
+ * A parsed expression is used by one thread at a time, there is a small
+ * pool of them per expression text.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ConditionExpressionCache {
+
+	private static final int MAX_EXPRESSIONS = 10000;
+	private static final int MAX_POOLED_PER_EXPRESSION = 16;
+
+	private static final ThreadLocal<UserCourseEnvironment> boundUserCourseEnv = new ThreadLocal<>();
+
+	private final Environment sharedEnv;
+	private final ConcurrentMap<String,Pool> expressions = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	ConditionExpressionCache(Environment sharedEnv) {
+		this.sharedEnv = sharedEnv;
+	}
+
+	/**
+	 * @return The user course environment of the expression currently evaluated
+	 * 		by this thread or null
+	 */
+	static UserCourseEnvironment getBoundUserCourseEnvironment() {
+		return boundUserCourseEnv.get();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int size() {
+		return expressions.size();
+	}
+
+	public void clear() {
+		expressions.clear();
+	}
+
+	/**
+	 * Evaluate the expression for the specified user course environment.
+	 *
+	 * @param expression The expression
+	 * @param userCourseEnv The user course environment of the user
+	 * @return The result of the evaluation
+	 * @throws XExpression If the expression cannot be parsed
+	 */
+	public Object evaluate(String expression, UserCourseEnvironment userCourseEnv) throws XExpression {
+		Expression exp = borrow(expression);
+
+		// functions can evaluate other conditions, keep the previous binding
+		UserCourseEnvironment previousUserCourseEnv = boundUserCourseEnv.get();
+		boundUserCourseEnv.set(userCourseEnv);
+		boolean reusable = false;
+		try {
+			Object result = exp.evaluate();
+			reusable = true;
+			return result;
+		} finally {
+			if(previousUserCourseEnv == null) {
+				boundUserCourseEnv.remove();
+			} else {
+				boundUserCourseEnv.set(previousUserCourseEnv);
+			}
+			// don't reuse an expression which failed in the middle of an evaluation
+			if(reusable) {
+				release(expression, exp);
+			}
+		}
+	}
+
+	private Expression borrow(String expression) throws XExpression {
+		Pool pool = expressions.get(expression);
+		if(pool != null) {
+			Expression exp = pool.poll();
+			if(exp != null) {
+				hits.incrementAndGet();
+				return exp;
+			}
+		}
+		misses.incrementAndGet();
+		return new Expression(expression, sharedEnv);
+	}
+
+	private void release(String expression, Expression exp) {
+		Pool pool = expressions.get(expression);
+		if(pool == null) {
+			if(expressions.size() >= MAX_EXPRESSIONS) {
+				// rare enough, the expressions are parsed again on demand
+				expressions.clear();
+			}
+			pool = expressions.computeIfAbsent(expression, e -> new Pool());
+		}
+		pool.offer(exp);
+	}
+
+	private static class Pool {
+
+		private final AtomicInteger size = new AtomicInteger();
+		private final Deque<Expression> parsedExpressions = new ConcurrentLinkedDeque<>();
+
+		public Expression poll() {
+			Expression exp = parsedExpressions.pollFirst();
+			if(exp != null) {
+				size.decrementAndGet();
+			}
+			return exp;
+		}
+
+		public void offer(Expression exp) {
+			if(size.incrementAndGet() <= MAX_POOLED_PER_EXPRESSION) {
+				parsedExpressions.offerFirst(exp);
+			} else {
+				size.decrementAndGet();
+			}
+		}
+	}
+}
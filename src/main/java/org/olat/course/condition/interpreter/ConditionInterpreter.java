@@ -70,6 +70,8 @@ public class ConditionInterpreter {
 	protected Environment env;
 	protected Translator translator;
 	protected UserCourseEnvironment uce;
+	
+	private static final ConditionExpressionCache expressionCache = new ConditionExpressionCache(createEnvironment(null));
 
 	/**
 	 * ConditionInterpreter interpretes course conditions.
@@ -84,7 +86,20 @@ public class ConditionInterpreter {
 			translator = Util.createPackageTranslator(ConditionInterpreter.class, cev.getEditorEnvLocale());
 		}
 
-		env = new Environment();
+		env = createEnvironment(userCourseEnv);
+	}
+	
+	/**
+	 * Create the jmep environment with all the constants, variables, functions
+	 * and units of the course conditions. If the user course environment is null,
+	 * the functions and variables use the one bound to the current thread at
+	 * evaluation time (see {@link ConditionExpressionCache}).
+	 * 
+	 * @param userCourseEnv The user course environment or null
+	 * @return A new environment
+	 */
+	private static Environment createEnvironment(UserCourseEnvironment userCourseEnv) {
+		Environment env = new Environment();
 
 		// constants: add for user convenience
 		env.addConstant("true", 1);
@@ -173,6 +188,14 @@ public class ConditionInterpreter {
 		env.addUnit("d", new DayUnit());
 		env.addUnit("w", new WeekUnit());
 		env.addUnit("m", new MonthUnit());
+		return env;
+	}
+	
+	/**
+	 * @return The cache of parsed expressions shared by all users
+	 */
+	public static ConditionExpressionCache getExpressionCache() {
+		return expressionCache;
 	}
 	
 
@@ -323,8 +346,7 @@ public class ConditionInterpreter {
 
 	private float doEvaluateCalculation(String calculation) throws ParseException {
 		try {
-			Expression exp = new Expression(calculation, env);
-			Object result = exp.evaluate();
+			Object result = evaluate(calculation);
 			if (result instanceof Double) {
 				return ((Double) result).floatValue();
 			} else if (result instanceof Integer) {
@@ -344,8 +366,7 @@ public class ConditionInterpreter {
 	 */
 	private boolean doEvaluateCondition(String condition) throws ParseException {
 		try {
-			Expression exp = new Expression(condition, env);
-			Object result = exp.evaluate();
+			Object result = evaluate(condition);
 			if (result instanceof Double) {
 				return (((Double) result).doubleValue() == 1.0);
 			} else if (result instanceof Integer) {
@@ -355,4 +376,21 @@ public class ConditionInterpreter {
 			throw new ParseException("Parse exception for condition: " + condition + ". " + xe.getMessage(), xe.getPosition());
 		}
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * The expressions evaluated in the run are parsed only once and shared
+	 * between all users. The editor and the special interpreters parse the
+	 * expression with their own environment.
+	 * 
+	 * @param expression The expression
+	 * @return The result of the evaluation
+	 * @throws XExpression
+	 */
+	private Object evaluate(String expression) throws XExpression {
+		if(getClass() == ConditionInterpreter.class && uce.getCourseEditorEnv() == null) {
+			return expressionCache.evaluate(expression, uce);
+		}
+		Expression exp = new Expression(expression, env);
+		return exp.evaluate();
+	}
+}
@@ -39,6 +39,11 @@ public class ConfigObligationEvaluator implements ObligationEvaluator {
 	
 	private LearningPathService learningPathService;
 
+	@Override
+	public boolean isDependingOnMemberships() {
+		return false;
+	}
+
 	@Override
 	public Overridable<AssessmentObligation> getObligation(AssessmentEvaluation currentEvaluation, CourseNode courseNode) {
 		AssessmentObligation configObligation = getLearningPathService().getConfigs(courseNode).getObligation();
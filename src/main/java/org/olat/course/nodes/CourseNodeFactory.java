@@ -76,6 +76,11 @@ public class CourseNodeFactory implements PreWarm {
 		return INSTANCE;
 	}
 
+	@Override
+	public boolean isCritical() {
+		return true;
+	}
+
 	@Override
 	public void run() {
 		getAllCourseNodeConfigurations();
@@ -39,6 +39,7 @@ import org.apache.http.impl.client.HttpClients;
 import org.apache.logging.log4j.Logger;
 import org.olat.commons.calendar.CalendarManager;
 import org.olat.commons.calendar.CalendarUtils;
+import org.olat.commons.calendar.model.Kalendar;
 import org.olat.commons.calendar.model.KalendarEvent;
 import org.olat.commons.calendar.ui.components.KalendarRenderWrapper;
 import org.olat.core.id.Identity;
@@ -149,28 +150,43 @@ public class LiveStreamServiceImpl implements LiveStreamService, DisposableBean
 	}
 
 	private List<? extends LiveStreamEvent> getLiveStreamEvents(CourseCalendars calendars, Date from, Date to, boolean syncUrl) {
-		List<LiveStreamEvent> liveStreamEvents = new ArrayList<>();
+		// one query for the calendars with private events visible, one for the others
+		List<Kalendar> privateVisibleCalendars = new ArrayList<>();
+		List<Kalendar> privateHiddenCalendars = new ArrayList<>();
 		for (KalendarRenderWrapper cal : calendars.getCalendars()) {
 			if(cal != null) {
-				boolean privateEventsVisible = cal.isPrivateEventsVisible();
-				List<KalendarEvent> events = calendarManager.getEvents(cal.getKalendar(), from, to, privateEventsVisible);
-				for(KalendarEvent event:events) {
-					if(!privateEventsVisible && event.getClassification() == KalendarEvent.CLASS_PRIVATE) {
-						continue;
-					}
-					
-					if (isLiveStream(event)) {
-						boolean timeOnly = !privateEventsVisible && event.getClassification() == KalendarEvent.CLASS_X_FREEBUSY;
-						LiveStreamEventImpl liveStreamEvent = toLiveStreamEvent(event, timeOnly, syncUrl);
-						liveStreamEvents.add(liveStreamEvent);
-					}
+				if(cal.isPrivateEventsVisible()) {
+					privateVisibleCalendars.add(cal.getKalendar());
+				} else {
+					privateHiddenCalendars.add(cal.getKalendar());
 				}
 			}
 		}
 		
+		List<LiveStreamEvent> liveStreamEvents = new ArrayList<>();
+		appendLiveStreamEvents(privateVisibleCalendars, from, to, true, syncUrl, liveStreamEvents);
+		appendLiveStreamEvents(privateHiddenCalendars, from, to, false, syncUrl, liveStreamEvents);
 		return liveStreamEvents;
 	}
 	
+	private void appendLiveStreamEvents(List<Kalendar> calendars, Date from, Date to, boolean privateEventsVisible,
+			boolean syncUrl, List<LiveStreamEvent> liveStreamEvents) {
+		if(calendars.isEmpty()) return;
+		
+		List<KalendarEvent> events = calendarManager.getEvents(calendars, from, to, privateEventsVisible);
+		for(KalendarEvent event:events) {
+			if(!privateEventsVisible && event.getClassification() == KalendarEvent.CLASS_PRIVATE) {
+				continue;
+			}
+			
+			if (isLiveStream(event)) {
+				boolean timeOnly = !privateEventsVisible && event.getClassification() == KalendarEvent.CLASS_X_FREEBUSY;
+				LiveStreamEventImpl liveStreamEvent = toLiveStreamEvent(event, timeOnly, syncUrl);
+				liveStreamEvents.add(liveStreamEvent);
+			}
+		}
+	}
+	
 	private boolean isLiveStream(KalendarEvent event) {
 		return event.getLiveStreamUrl() != null;
 	}
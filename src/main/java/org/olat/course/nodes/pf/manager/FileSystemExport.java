@@ -53,6 +53,7 @@ import org.olat.core.logging.Tracing;
 import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.Util;
+import org.olat.core.util.io.ParallelZipOutputStream;
 import org.olat.core.util.io.ShieldOutputStream;
 import org.olat.core.util.io.SystemFileFilter;
 import org.olat.course.nodes.PFCourseNode;
@@ -123,7 +124,7 @@ public class FileSystemExport implements MediaResource {
 		hres.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + urlEncodedLabel);
 		hres.setHeader("Content-Description", urlEncodedLabel);
 		
-		try (ZipOutputStream zout = new ZipOutputStream(hres.getOutputStream())) {
+		try (ZipOutputStream zout = new ParallelZipOutputStream(hres.getOutputStream())) {
 			zout.setLevel(9);
 			Path relPath = Paths.get(courseEnv.getCourseBaseContainer().getBasefile().getAbsolutePath(),
 					PFManager.FILENAME_PARTICIPANTFOLDER, pfNode.getIdent()); 
@@ -35,6 +35,11 @@ import org.olat.modules.assessment.model.AssessmentObligation;
  */
 public class MandatoryObligationEvaluator implements ObligationEvaluator {
 
+	@Override
+	public boolean isDependingOnMemberships() {
+		return false;
+	}
+
 	@Override
 	public Overridable<AssessmentObligation> getObligation(AssessmentEvaluation currentEvaluation, CourseNode courseNode) {
 		return currentEvaluation.getObligation();
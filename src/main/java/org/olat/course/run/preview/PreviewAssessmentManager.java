@@ -82,6 +82,11 @@ final class PreviewAssessmentManager implements AssessmentManager {
 		return Collections.emptyList();
 	}
 
+	@Override
+	public List<AssessmentEntry> getAssessmentEntries(Identity assessedIdentity, Date modifiedAfter) {
+		return Collections.emptyList();
+	}
+
 	@Override
 	public List<AssessmentEntry> getAssessmentEntries(BusinessGroup group, CourseNode courseNode) {
 		return Collections.emptyList();
@@ -92,6 +97,11 @@ final class PreviewAssessmentManager implements AssessmentManager {
 		return null;
 	}
 
+	@Override
+	public List<AssessmentEntry> getOrCreateAssessmentEntries(List<CourseNode> courseNodes, Identity assessedIdentity) {
+		return Collections.emptyList();
+	}
+
 	@Override
 	public AssessmentEntry updateAssessmentEntry(AssessmentEntry assessmentEntry) {
 		return assessmentEntry;
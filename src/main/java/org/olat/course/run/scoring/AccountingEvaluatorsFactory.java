@@ -143,6 +143,11 @@ class AccountingEvaluatorsFactory {
 
 	private static class NoneObligationEvaluator implements ObligationEvaluator {
 
+		@Override
+		public boolean isDependingOnMemberships() {
+			return false;
+		}
+
 		@Override
 		public Overridable<AssessmentObligation> getObligation(AssessmentEvaluation currentEvaluation, CourseNode courseNode) {
 			return Overridable.empty();
@@ -23,19 +23,24 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.id.Identity;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.DateUtils;
 import org.olat.core.util.nodes.INode;
 import org.olat.course.assessment.AssessmentManager;
 import org.olat.course.assessment.CourseAssessmentService;
 import org.olat.course.config.CourseConfig;
+import org.olat.course.learningpath.LearningPathConfigs;
+import org.olat.course.learningpath.LearningPathService;
+import org.olat.course.learningpath.manager.LearningPathNodeAccessProvider;
 import org.olat.course.nodes.CourseNode;
 import org.olat.course.run.scoring.LastModificationsEvaluator.LastModifications;
 import org.olat.course.run.userview.UserCourseEnvironment;
@@ -46,6 +51,17 @@ import org.olat.modules.assessment.model.AssessmentObligation;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
+ * The assessment entries and the evaluations are kept between the calls of
+ * evaluateAll(). The first call loads all the assessment entries of the user,
+ * the next ones only the entries modified since the last load (with a margin
+ * for the clocks of the cluster nodes) and refresh the evaluations of these
+ * course nodes.<br>
+ * In learning path courses, the results of the subtrees are reused if
+ * no assessment entry of the subtree changed, the blocker is in the same
+ * state as the last evaluation and no configured start or end date
+ * of the subtree was reached since. The changes the subtree made to the blocker
+ * are replayed. The root is always evaluated, like the subtrees with an
+ * obligation depending on the memberships of the user.
  * 
  * Initial date: 16 Sep 2019<br>
  * @author uhensler, urs.hensler@frentix.com, http://www.frentix.com
@@ -55,17 +71,33 @@ public class AssessmentAccounting implements ScoreAccounting {
 
 	private static final Logger log = Tracing.createLoggerFor(AssessmentAccounting.class);
 	
+	/** Margin for the differences between the clocks of the cluster nodes */
+	private static final long MODIFICATION_MARGIN = 60l * 1000l;
+	/** All entries are reloaded from time to time to see the deleted ones */
+	private static final long FULL_RELOAD_INTERVAL = 15l * 60l * 1000l;
+	
 	private final UserCourseEnvironment userCourseEnvironment;
 	private final CourseConfig courseConfig;
-	private Map<String, AssessmentEntry> identToEntry = new HashMap<>();
+	private final boolean learningPath;
+	private final Map<String, AssessmentEntry> identToEntry = new HashMap<>();
+	private final Map<String, Long> identToLastModified = new HashMap<>();
 	private final Map<CourseNode, AssessmentEvaluation> courseNodeToEval = new HashMap<>();
 	
+	private CourseNode evaluatedRoot;
+	private Date lastLoad;
+	private long lastFullLoad;
+	private final Set<CourseNode> dirtyCourseNodes = new HashSet<>();
+	private final Map<CourseNode, SubtreeEvaluation> courseNodeToSubtree = new HashMap<>();
+	
+	@Autowired
+	private LearningPathService learningPathService;
 	@Autowired
 	private CourseAssessmentService courseAssessmentService;
 
 	public AssessmentAccounting(UserCourseEnvironment userCourseEnvironment) {
 		this.userCourseEnvironment = userCourseEnvironment;
 		this.courseConfig = userCourseEnvironment.getCourseEnvironment().getCourseConfig();
+		this.learningPath = LearningPathNodeAccessProvider.TYPE.equals(courseConfig.getNodeAccessType().getType());
 		CoreSpringFactory.autowireObject(this);
 	}
 
@@ -91,27 +123,161 @@ public class AssessmentAccounting implements ScoreAccounting {
 	
 	@Override
 	public boolean evaluateAll(boolean update) {
-		courseNodeToEval.clear();
-		
-		identToEntry = loadAssessmentEntries(getIdentity());
-		
 		CourseNode root = userCourseEnvironment.getCourseEnvironment().getRunStructure().getRootNode();
-		fillCacheRecursiv(root);
+		if (evaluatedRoot == root && lastLoad != null) {
+			reloadAssessmentEntries(root);
+		} else {
+			loadAssessmentEntries(root);
+		}
 		
 		if (update) {
 			Blocker blocker = courseAssessmentService.getEvaluators(root, courseConfig).getBlockerEvaluator()
 					.getChildrenBlocker(null);
-			updateEntryRecursiv(root, blocker);
+			// The subtrees can only be reused in learning path courses. In conventional
+			// courses, the conditions can reference every course node.
+			Date now = learningPath? new Date(): null;
+			try {
+				updateEntryRecursiv(root, blocker, now);
+				dirtyCourseNodes.clear();
+			} catch (RuntimeException e) {
+				// the cache is maybe not in sync. with the database
+				evaluatedRoot = null;
+				throw e;
+			}
 		}
 		
 		return false;
 	}
+	
+	private void loadAssessmentEntries(CourseNode root) {
+		evaluatedRoot = root;
+		courseNodeToEval.clear();
+		courseNodeToSubtree.clear();
+		dirtyCourseNodes.clear();
+		
+		lastLoad = new Date();
+		lastFullLoad = lastLoad.getTime();
+		identToEntry.clear();
+		identToLastModified.clear();
+		for (AssessmentEntry entry : getAssessmentManager().getAssessmentEntries(getIdentity())) {
+			putLoadedAssessmentEntry(entry, lastLoad);
+		}
+		createMissingAssessmentEntries(root);
+		fillCacheRecursiv(root);
+	}
 
-	private Map<String, AssessmentEntry> loadAssessmentEntries(Identity identity) {
-		return getAssessmentManager()
-				.getAssessmentEntries(identity)
-				.stream()
-				.collect(Collectors.toMap(AssessmentEntry::getSubIdent, Function.identity()));
+	/**
+	 * Load the assessment entries modified since the last load and refresh the
+	 * evaluations of their course nodes.
+	 * 
+	 * @param root The root course node
+	 */
+	private void reloadAssessmentEntries(CourseNode root) {
+		Date now = new Date();
+		boolean full = now.getTime() - lastFullLoad > FULL_RELOAD_INTERVAL;
+		List<AssessmentEntry> entries;
+		if (full) {
+			entries = getAssessmentManager().getAssessmentEntries(getIdentity());
+			lastFullLoad = now.getTime();
+		} else {
+			Date modifiedAfter = new Date(lastLoad.getTime() - MODIFICATION_MARGIN);
+			entries = getAssessmentManager().getAssessmentEntries(getIdentity(), modifiedAfter);
+		}
+		lastLoad = now;
+		
+		Set<String> changedIdents = new HashSet<>();
+		Set<String> reloadedIdents = new HashSet<>();
+		for (AssessmentEntry entry : entries) {
+			String ident = entry.getSubIdent();
+			reloadedIdents.add(ident);
+			if (isModified(entry)) {
+				putLoadedAssessmentEntry(entry, now);
+				changedIdents.add(ident);
+			}
+		}
+		if (full) {
+			for (String ident : new ArrayList<>(identToEntry.keySet())) {
+				if (!reloadedIdents.contains(ident)) {
+					identToEntry.remove(ident);
+					identToLastModified.remove(ident);
+					changedIdents.add(ident);
+				}
+			}
+		}
+		
+		if (!changedIdents.isEmpty()) {
+			log.debug("Assessment entries changed: {}", changedIdents);
+			createMissingAssessmentEntries(root);
+			for (String ident : changedIdents) {
+				CourseNode courseNode = userCourseEnvironment.getCourseEnvironment().getRunStructure().getNode(ident);
+				if (courseNode != null) {
+					courseNodeToEval.put(courseNode, getAssessmentEvaluation(courseNode));
+					markDirty(courseNode);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The modification date is compared with the one of the entry used for the
+	 * last evaluation, the cached entry can be the same object as the reloaded
+	 * one. Some databases don't save the milliseconds, the entries updated by the
+	 * accounting are seen as modified once, which is only a bit slower.
+	 */
+	private boolean isModified(AssessmentEntry entry) {
+		Long cachedLastModified = identToLastModified.get(entry.getSubIdent());
+		Date lastModified = entry.getLastModified();
+		return cachedLastModified == null || lastModified == null
+				|| cachedLastModified.longValue() != lastModified.getTime();
+	}
+	
+	private void putAssessmentEntry(AssessmentEntry entry) {
+		identToEntry.put(entry.getSubIdent(), entry);
+		Date lastModified = entry.getLastModified();
+		identToLastModified.put(entry.getSubIdent(), lastModified == null ? null : Long.valueOf(lastModified.getTime()));
+	}
+	
+	/**
+	 * An entry modified in the same second as it was loaded can be modified again
+	 * without visible change of its modification date if the database doesn't
+	 * save the milliseconds. It will be seen as modified by the next reload.
+	 */
+	private void putLoadedAssessmentEntry(AssessmentEntry entry, Date loaded) {
+		putAssessmentEntry(entry);
+		Date lastModified = entry.getLastModified();
+		if (lastModified != null && lastModified.getTime() > loaded.getTime() - 1000l) {
+			identToLastModified.put(entry.getSubIdent(), null);
+		}
+	}
+	
+	private void markDirty(CourseNode courseNode) {
+		for (INode node = courseNode; node instanceof CourseNode; node = node.getParent()) {
+			dirtyCourseNodes.add((CourseNode)node);
+		}
+	}
+	
+	private void createMissingAssessmentEntries(CourseNode root) {
+		List<CourseNode> missingCourseNodes = new ArrayList<>();
+		collectMissingAssessmentEntries(root, missingCourseNodes);
+		if (!missingCourseNodes.isEmpty()) {
+			List<AssessmentEntry> entries = getAssessmentManager().getOrCreateAssessmentEntries(missingCourseNodes, getIdentity());
+			for (AssessmentEntry entry : entries) {
+				putAssessmentEntry(entry);
+			}
+		}
+	}
+	
+	private void collectMissingAssessmentEntries(CourseNode courseNode, List<CourseNode> missingCourseNodes) {
+		if (!identToEntry.containsKey(courseNode.getIdent())) {
+			missingCourseNodes.add(courseNode);
+		}
+		int childCount = courseNode.getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			INode child = courseNode.getChildAt(i);
+			if (child instanceof CourseNode) {
+				collectMissingAssessmentEntries((CourseNode)child, missingCourseNodes);
+			}
+		}
 	}
 
 	private void fillCacheRecursiv(CourseNode courseNode) {
@@ -140,19 +306,43 @@ public class AssessmentAccounting implements ScoreAccounting {
 					? Boolean.TRUE
 					: Boolean.FALSE;
 			entry = getAssessmentManager().getOrCreateAssessmentEntry(courseNode, getIdentity(), entryRoot);
-			identToEntry.put(entry.getSubIdent(), entry);
+			putAssessmentEntry(entry);
 			AssessmentEvaluation assessmentEvaluation = getAssessmentEvaluation(courseNode);
 			courseNodeToEval.put(courseNode, assessmentEvaluation);
 		}
 		return entry;
 	}
 	
-	private AccountingResult updateEntryRecursiv(CourseNode courseNode, Blocker blocker) {
+	/**
+	 * 
+	 * @param courseNode The course node to evaluate
+	 * @param blocker The blocker
+	 * @param now The date of the evaluation if the subtrees can be reused, or null
+	 * @return The result of the evaluation
+	 */
+	private AccountingResult updateEntryRecursiv(CourseNode courseNode, Blocker blocker, Date now) {
+		blocker.nextCourseNode();
+		
+		SubtreeEvaluation subtree = courseNodeToSubtree.get(courseNode);
+		if (now != null && subtree != null && courseNode.getParent() != null
+				&& !dirtyCourseNodes.contains(courseNode) && subtree.isReusable(blocker, now)) {
+			log.debug("Reuse course node evaluation: type '{}', ident: '{}'", courseNode.getType(), courseNode.getIdent());
+			subtree.replay(blocker);
+			return subtree.getResult();
+		}
+		
 		log.debug("Evaluate course node: type '{}', ident: '{}'", courseNode.getType(), courseNode.getIdent());
 		
-		AssessmentEvaluation currentEvaluation = evalCourseNode(courseNode);
+		RecordingBlocker recordingBlocker = null;
+		if (now != null) {
+			recordingBlocker = new RecordingBlocker(blocker);
+			blocker = recordingBlocker;
+		}
+		
+		// start from the assessment entry, not from the result of the last evaluation
+		AssessmentEvaluation currentEvaluation = getAssessmentEvaluation(courseNode);
+		courseNodeToEval.put(courseNode, currentEvaluation);
 		AccountingResult result = new AccountingResult(currentEvaluation);
-		blocker.nextCourseNode();
 		
 		AccountingEvaluators evaluators = courseAssessmentService.getEvaluators(courseNode, courseConfig);
 		
@@ -186,7 +376,7 @@ public class AssessmentAccounting implements ScoreAccounting {
 			INode child = courseNode.getChildAt(i);
 			if (child instanceof CourseNode) {
 				CourseNode childCourseNode = (CourseNode) child;
-				AccountingResult childResult = updateEntryRecursiv(childCourseNode, childrenBlocker);
+				AccountingResult childResult = updateEntryRecursiv(childCourseNode, childrenBlocker, now);
 				children.add(childResult);
 			}
 		}
@@ -238,8 +428,51 @@ public class AssessmentAccounting implements ScoreAccounting {
 			update(courseNode, result);
 		}
 		
+		if (recordingBlocker != null) {
+			// the memberships of the user are not cached, the subtree must be evaluated every time
+			boolean reusable = !obligationEvaluator.isDependingOnMemberships();
+			Date validUntil = getValidUntil(courseNode, now);
+			for (int i = 0; i < childCount && reusable; i++) {
+				INode child = courseNode.getChildAt(i);
+				if (child instanceof CourseNode) {
+					SubtreeEvaluation childSubtree = courseNodeToSubtree.get(child);
+					if (childSubtree == null) {
+						reusable = false;
+					} else {
+						validUntil = DateUtils.getEarlier(validUntil, childSubtree.getValidUntil());
+					}
+				}
+			}
+			if (reusable) {
+				courseNodeToSubtree.put(courseNode, new SubtreeEvaluation(result, recordingBlocker, validUntil));
+			} else {
+				courseNodeToSubtree.remove(courseNode);
+			}
+		}
+		
 		return result;
 	}
+	
+	/**
+	 * The evaluation of the start and end dates depends on the current date.
+	 * 
+	 * @param courseNode The course node
+	 * @param now The date of the evaluation
+	 * @return The next configured date of the course node or null
+	 */
+	private Date getValidUntil(CourseNode courseNode, Date now) {
+		LearningPathConfigs configs = learningPathService.getConfigs(courseNode);
+		Date validUntil = null;
+		Date startDate = configs.getStartDate();
+		if (startDate != null && startDate.after(now)) {
+			validUntil = startDate;
+		}
+		Date endDate = configs.getEndDate();
+		if (endDate != null && endDate.after(now)) {
+			validUntil = DateUtils.getEarlier(validUntil, endDate);
+		}
+		return validUntil;
+	}
 
 	private void update(CourseNode courseNode, AccountingResult result) {
 		AssessmentEntry entry = getOrCreateAssessmentEntry(courseNode);
@@ -260,7 +493,7 @@ public class AssessmentAccounting implements ScoreAccounting {
 		
 		entry = getAssessmentManager().updateAssessmentEntry(entry);
 		
-		identToEntry.put(courseNode.getIdent(), entry);
+		putAssessmentEntry(entry);
 		courseNodeToEval.put(courseNode, result);
 	}
 
@@ -272,4 +505,39 @@ public class AssessmentAccounting implements ScoreAccounting {
 		return userCourseEnvironment.getCourseEnvironment().getAssessmentManager();
 	}
 	
+	private static class SubtreeEvaluation {
+		
+		private final AccountingResult result;
+		private final boolean blocked;
+		private final Date startDate;
+		private final List<Consumer<Blocker>> calls;
+		private final Date validUntil;
+		
+		public SubtreeEvaluation(AccountingResult result, RecordingBlocker recordingBlocker, Date validUntil) {
+			this.result = result;
+			this.blocked = recordingBlocker.isInitialBlocked();
+			this.startDate = recordingBlocker.getInitialStartDate();
+			this.calls = recordingBlocker.getCalls();
+			this.validUntil = validUntil;
+		}
+		
+		public AccountingResult getResult() {
+			return result;
+		}
+		
+		public Date getValidUntil() {
+			return validUntil;
+		}
+		
+		public boolean isReusable(Blocker blocker, Date now) {
+			return (validUntil == null || now.before(validUntil))
+					&& RecordingBlocker.isSameState(blocker, blocked, startDate);
+		}
+		
+		public void replay(Blocker blocker) {
+			for (Consumer<Blocker> call : calls) {
+				call.accept(blocker);
+			}
+		}
+	}
 }
@@ -33,6 +33,14 @@ import org.olat.modules.assessment.model.AssessmentObligation;
  */
 public interface ObligationEvaluator {
 	
+	/**
+	 * @return true if the obligation depends on other data than the
+	 *         configuration of the course node and the assessment entries, e.g.
+	 *         the groups, the curriculum elements or the organisations of the user.
+	 *         The evaluation of the course node is not reused in this case.
+	 */
+	public boolean isDependingOnMemberships();
+	
 	public Overridable<AssessmentObligation> getObligation(AssessmentEvaluation currentEvaluation, CourseNode courseNode);
 
 	public Overridable<AssessmentObligation> getObligation(AssessmentEvaluation currentEvaluation, List<AssessmentEvaluation> children);
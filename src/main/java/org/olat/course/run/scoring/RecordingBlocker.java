@@ -0,0 +1,104 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.run.scoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A blocker which records the changes made to the wrapped blocker. The
+ * changes can be replayed to an other blocker in the same state.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class RecordingBlocker implements Blocker {
+	
+	private final Blocker blocker;
+	private final boolean initialBlocked;
+	private final Date initialStartDate;
+	private final List<Consumer<Blocker>> calls = new ArrayList<>(2);
+	
+	RecordingBlocker(Blocker blocker) {
+		this.blocker = blocker;
+		this.initialBlocked = blocker.isBlocked();
+		this.initialStartDate = blocker.getStartDate();
+	}
+	
+	boolean isInitialBlocked() {
+		return initialBlocked;
+	}
+
+	Date getInitialStartDate() {
+		return initialStartDate;
+	}
+
+	List<Consumer<Blocker>> getCalls() {
+		return calls.isEmpty() ? Collections.emptyList() : new ArrayList<>(calls);
+	}
+	
+	static boolean isSameState(Blocker blocker, boolean blocked, Date startDate) {
+		if(blocker.isBlocked() != blocked) {
+			return false;
+		}
+		Date currentStartDate = blocker.getStartDate();
+		return currentStartDate == null
+				? startDate == null
+				: startDate != null && currentStartDate.getTime() == startDate.getTime();
+	}
+
+	@Override
+	public boolean isBlocked() {
+		return blocker.isBlocked();
+	}
+
+	@Override
+	public void block() {
+		calls.add(Blocker::block);
+		blocker.block();
+	}
+
+	@Override
+	public void blockNoPassThrough() {
+		calls.add(Blocker::blockNoPassThrough);
+		blocker.blockNoPassThrough();
+	}
+
+	@Override
+	public void block(Date startDate) {
+		calls.add(b -> b.block(startDate));
+		blocker.block(startDate);
+	}
+
+	@Override
+	public Date getStartDate() {
+		return blocker.getStartDate();
+	}
+
+	@Override
+	public void nextCourseNode() {
+		calls.add(Blocker::nextCourseNode);
+		blocker.nextCourseNode();
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.statistic;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The counters of the course statistics collected in memory from a slice
+ * of the log table, aggregated by business path and by day, week, day of
+ * the week and hour of the day. The buckets are calculated in the time
+ * zone of the JVM.<br>
+ * The week is calculated as the SQL statements of the old updaters did
+ * it for each database, to continue the existing counters, see {@link Week}.
+ * The day of the week starts with 1 for Sunday, like the dayofweek function
+ * of MySQL and the 'D' format of PostgreSQL.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class StatisticDelta {
+	
+	private final Week week;
+	private final Calendar cal = Calendar.getInstance();
+	
+	private final Map<StatisticKey<Date>,AtomicInteger> daily = new HashMap<>();
+	private final Map<StatisticKey<String>,AtomicInteger> weekly = new HashMap<>();
+	private final Map<StatisticKey<Integer>,AtomicInteger> dayOfWeek = new HashMap<>();
+	private final Map<StatisticKey<Integer>,AtomicInteger> hourOfDay = new HashMap<>();
+	
+	StatisticDelta(Week week) {
+		this.week = week;
+		cal.setFirstDayOfWeek(Calendar.MONDAY);
+		cal.setMinimalDaysInFirstWeek(4);
+	}
+	
+	/**
+	 * Count a launch of a course node.
+	 * 
+	 * @param businessPath The business path of the log entry
+	 * @param creationDate The creation date of the log entry
+	 * @return true if counted, false if the business path doesn't start with a resource id
+	 */
+	boolean add(String businessPath, Date creationDate) {
+		Long resId = getResId(businessPath);
+		if(resId == null || creationDate == null) {
+			return false;
+		}
+		
+		cal.setTime(creationDate);
+		long id = resId.longValue();
+		increment(daily, new StatisticKey<>(businessPath, id, getDay(cal)));
+		increment(weekly, new StatisticKey<>(businessPath, id, week.format(cal)));
+		increment(dayOfWeek, new StatisticKey<>(businessPath, id, Integer.valueOf(cal.get(Calendar.DAY_OF_WEEK))));
+		increment(hourOfDay, new StatisticKey<>(businessPath, id, Integer.valueOf(cal.get(Calendar.HOUR_OF_DAY))));
+		return true;
+	}
+	
+	private static <T> void increment(Map<StatisticKey<T>,AtomicInteger> counters, StatisticKey<T> key) {
+		counters.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+	}
+	
+	/**
+	 * @return The number of counters in memory
+	 */
+	int size() {
+		return daily.size() + weekly.size() + dayOfWeek.size() + hourOfDay.size();
+	}
+	
+	boolean isEmpty() {
+		return daily.isEmpty();
+	}
+	
+	void clear() {
+		daily.clear();
+		weekly.clear();
+		dayOfWeek.clear();
+		hourOfDay.clear();
+	}
+
+	Map<StatisticKey<Date>, AtomicInteger> getDaily() {
+		return daily;
+	}
+
+	Map<StatisticKey<String>, AtomicInteger> getWeekly() {
+		return weekly;
+	}
+
+	Map<StatisticKey<Integer>, AtomicInteger> getDayOfWeek() {
+		return dayOfWeek;
+	}
+
+	Map<StatisticKey<Integer>, AtomicInteger> getHourOfDay() {
+		return hourOfDay;
+	}
+	
+	/**
+	 * The resource id is the first id of the business path, between the
+	 * first ':' and the first ']', as the SQL statements of the statistic
+	 * updaters extract it.
+	 * 
+	 * @param businessPath The business path
+	 * @return The id or null if not found
+	 */
+	static Long getResId(String businessPath) {
+		if(businessPath == null) {
+			return null;
+		}
+		int start = businessPath.indexOf(':');
+		int end = businessPath.indexOf(']');
+		if(start < 0 || end <= start + 1) {
+			return null;
+		}
+		try {
+			return Long.valueOf(businessPath.substring(start + 1, end));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+	
+	private static Date getDay(Calendar cal) {
+		Calendar day = (Calendar)cal.clone();
+		day.set(Calendar.HOUR_OF_DAY, 0);
+		day.set(Calendar.MINUTE, 0);
+		day.set(Calendar.SECOND, 0);
+		day.set(Calendar.MILLISECOND, 0);
+		return day.getTime();
+	}
+	
+	/**
+	 * The format of the week, formatted as yyyy-ww, of each database.
+	 */
+	enum Week {
+		
+		/**
+		 * The calendar year with the ISO week, like concat(year(creationdate),'-',lpad(week(creationdate,3),2,'0'))
+		 */
+		MYSQL {
+			@Override
+			String format(Calendar cal) {
+				return format(cal.get(Calendar.YEAR), cal.get(Calendar.WEEK_OF_YEAR));
+			}
+		},
+		/**
+		 * The calendar year with the week starting on the 1st january,
+		 * like date_part('year', creationdate) || '-' || to_char(creationdate, 'WW')
+		 */
+		POSTGRESQL {
+			@Override
+			String format(Calendar cal) {
+				return format(cal.get(Calendar.YEAR), ((cal.get(Calendar.DAY_OF_YEAR) - 1) / 7) + 1);
+			}
+		};
+		
+		abstract String format(Calendar cal);
+		
+		static String format(int year, int week) {
+			return year + (week < 10 ? "-0" : "-") + week;
+		}
+	}
+	
+	static class StatisticKey<T> {
+		
+		private final String businessPath;
+		private final long resId;
+		private final T bucket;
+		
+		StatisticKey(String businessPath, long resId, T bucket) {
+			this.businessPath = businessPath;
+			this.resId = resId;
+			this.bucket = bucket;
+		}
+
+		public String getBusinessPath() {
+			return businessPath;
+		}
+
+		public long getResId() {
+			return resId;
+		}
+
+		public T getBucket() {
+			return bucket;
+		}
+
+		@Override
+		public int hashCode() {
+			return businessPath.hashCode() + (31 * bucket.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof StatisticKey) {
+				StatisticKey<?> key = (StatisticKey<?>)obj;
+				return resId == key.resId
+						&& businessPath.equals(key.businessPath)
+						&& Objects.equals(bucket, key.bucket);
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,287 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.statistic;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.olat.course.statistic.StatisticDelta.StatisticKey;
+import org.olat.course.statistic.StatisticDelta.Week;
+import org.olat.course.statistic.daily.DailyStat;
+import org.olat.course.statistic.dayofweek.DayOfWeekStat;
+import org.olat.course.statistic.hourofday.HourOfDayStat;
+import org.olat.course.statistic.weekly.WeeklyStat;
+import org.olat.properties.Property;
+import org.olat.properties.PropertyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Update the daily, weekly, day of week and hour of day statistics
+ * in one pass, without a temporary table. The updater reads the new
+ * launches of course nodes from the log table page by page, ordered by
+ * creation date and primary key, and counts them in memory. The counters are
+ * added to the statistic tables when there are too many of them in memory
+ * and at the end, in the same transaction as the position of the last
+ * counted log entry. The position is the creation date and the primary key,
+ * the primary keys are not ordered in time in a cluster.<br>
+ * The log entries of the last seconds are left for the next update, their
+ * transactions are possibly not committed yet. A full recalculation deletes
+ * the statistics and reads the log table from the beginning.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class StreamingStatisticUpdater implements IStatisticUpdater {
+	
+	private static final Logger log = Tracing.createLoggerFor(StreamingStatisticUpdater.class);
+	
+	static final String STATISTICS_PROPERTIES_CATEGORY = "STATISTICS_PROPERTIES";
+	static final String LOG_CURSOR_PROPERTY_NAME = "LOG_CURSOR";
+	
+	@Value("${statistics.update.page.size:5000}")
+	private int pageSize;
+	@Value("${statistics.update.max.counters:20000}")
+	private int maxCounters;
+	@Value("${statistics.update.lag:60}")
+	private int lagInSeconds;
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private PropertyManager propertyManager;
+	
+	public int getLag() {
+		return lagInSeconds;
+	}
+
+	/**
+	 * @param lagInSeconds The number of seconds of logs left for the next update
+	 */
+	public void setLag(int lagInSeconds) {
+		this.lagInSeconds = lagInSeconds;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	@Override
+	public void updateStatistic(boolean fullRecalculation, Date from, Date until, StatisticUpdateManager statisticUpdateManager) {
+		long start = System.currentTimeMillis();
+		
+		LogCursor cursor = null;
+		if(fullRecalculation) {
+			deleteStatistics();
+		} else {
+			cursor = loadCursor();
+		}
+		if(cursor == null) {
+			// strictly after the last update
+			cursor = new LogCursor(from, Long.MAX_VALUE);
+		}
+		
+		Date upperBound = new Date(until.getTime() - (lagInSeconds * 1000l));
+		int pageLength = Math.max(1, pageSize);
+		StatisticDelta delta = new StatisticDelta(dbInstance.isPostgreSQL() ? Week.POSTGRESQL : Week.MYSQL);
+		
+		long count = 0;
+		boolean hasMore = true;
+		try {
+			while(hasMore) {
+				List<Object[]> logs = loadLogs(cursor, upperBound, pageLength);
+				for(Object[] logEntry:logs) {
+					Date creationDate = (Date)logEntry[0];
+					Long key = (Long)logEntry[1];
+					delta.add((String)logEntry[2], creationDate);
+					cursor = new LogCursor(creationDate, key.longValue());
+				}
+				count += logs.size();
+				hasMore = logs.size() == pageLength;
+				dbInstance.commitAndCloseSession();
+				
+				if(!hasMore || delta.size() >= maxCounters) {
+					flush(delta, cursor);
+					delta.clear();
+				}
+			}
+		} catch (Exception e) {
+			dbInstance.rollbackAndCloseSession();
+			log.error("Statistics update stopped after {} log entries, it will resume with the next update", count, e);
+		}
+		log.info("Statistics updated with {} log entries until {} in (ms): {}", count, upperBound, (System.currentTimeMillis() - start));
+	}
+	
+	private List<Object[]> loadLogs(LogCursor cursor, Date upperBound, int maxResults) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select log.creationDate, log.key, log.businessPath from loggingobject log")
+		  .append(" where log.actionVerb='launch' and log.actionObject='node'")
+		  .append(" and log.creationDate>=:lastDate and (log.creationDate>:lastDate or log.key>:lastKey)")
+		  .append(" and log.creationDate<=:upperBound")
+		  .append(" order by log.creationDate asc, log.key asc");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("lastDate", cursor.getCreationDate())
+				.setParameter("lastKey", Long.valueOf(cursor.getKey()))
+				.setParameter("upperBound", upperBound)
+				.setFirstResult(0)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
+	/**
+	 * Add the counters to the statistics and save the cursor in one
+	 * transaction.
+	 */
+	private void flush(StatisticDelta delta, LogCursor cursor) {
+		EntityManager em = dbInstance.getCurrentEntityManager();
+		for(Map.Entry<StatisticKey<Date>,AtomicInteger> entry:delta.getDaily().entrySet()) {
+			StatisticKey<Date> key = entry.getKey();
+			int count = entry.getValue().get();
+			if(increment(em, "dailystat", "day", key, count) == 0) {
+				DailyStat stat = new DailyStat();
+				stat.setBusinessPath(key.getBusinessPath());
+				stat.setResId(key.getResId());
+				stat.setDay(key.getBucket());
+				stat.setValue(count);
+				em.persist(stat);
+			}
+		}
+		for(Map.Entry<StatisticKey<String>,AtomicInteger> entry:delta.getWeekly().entrySet()) {
+			StatisticKey<String> key = entry.getKey();
+			int count = entry.getValue().get();
+			if(increment(em, "weeklystat", "week", key, count) == 0) {
+				WeeklyStat stat = new WeeklyStat();
+				stat.setBusinessPath(key.getBusinessPath());
+				stat.setResId(key.getResId());
+				stat.setWeek(key.getBucket());
+				stat.setValue(count);
+				em.persist(stat);
+			}
+		}
+		for(Map.Entry<StatisticKey<Integer>,AtomicInteger> entry:delta.getDayOfWeek().entrySet()) {
+			StatisticKey<Integer> key = entry.getKey();
+			int count = entry.getValue().get();
+			if(increment(em, "dayofweekstat", "day", key, count) == 0) {
+				DayOfWeekStat stat = new DayOfWeekStat();
+				stat.setBusinessPath(key.getBusinessPath());
+				stat.setResId(key.getResId());
+				stat.setDay(key.getBucket().intValue());
+				stat.setValue(count);
+				em.persist(stat);
+			}
+		}
+		for(Map.Entry<StatisticKey<Integer>,AtomicInteger> entry:delta.getHourOfDay().entrySet()) {
+			StatisticKey<Integer> key = entry.getKey();
+			int count = entry.getValue().get();
+			if(increment(em, "hourofdaystat", "hour", key, count) == 0) {
+				HourOfDayStat stat = new HourOfDayStat();
+				stat.setBusinessPath(key.getBusinessPath());
+				stat.setResId(key.getResId());
+				stat.setHour(key.getBucket().intValue());
+				stat.setValue(count);
+				em.persist(stat);
+			}
+		}
+		saveCursor(cursor);
+		dbInstance.commitAndCloseSession();
+	}
+	
+	private int increment(EntityManager em, String entity, String bucketField, StatisticKey<?> key, int count) {
+		String q = "update " + entity + " stat set stat.value=stat.value+:count"
+				+ " where stat.resId=:resId and stat.businessPath=:businessPath and stat." + bucketField + "=:bucket";
+		return em.createQuery(q)
+				.setParameter("count", Integer.valueOf(count))
+				.setParameter("resId", Long.valueOf(key.getResId()))
+				.setParameter("businessPath", key.getBusinessPath())
+				.setParameter("bucket", key.getBucket())
+				.executeUpdate();
+	}
+	
+	private void deleteStatistics() {
+		EntityManager em = dbInstance.getCurrentEntityManager();
+		em.createQuery("delete from dailystat").executeUpdate();
+		em.createQuery("delete from weeklystat").executeUpdate();
+		em.createQuery("delete from dayofweekstat").executeUpdate();
+		em.createQuery("delete from hourofdaystat").executeUpdate();
+		Property p = propertyManager.findProperty(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LOG_CURSOR_PROPERTY_NAME);
+		if(p != null) {
+			propertyManager.deleteProperty(p);
+		}
+		dbInstance.commitAndCloseSession();
+	}
+	
+	private LogCursor loadCursor() {
+		Property p = propertyManager.findProperty(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LOG_CURSOR_PROPERTY_NAME);
+		if(p == null || p.getLongValue() == null || p.getStringValue() == null) {
+			return null;
+		}
+		try {
+			return new LogCursor(new Date(p.getLongValue().longValue()), Long.parseLong(p.getStringValue()));
+		} catch (NumberFormatException e) {
+			log.warn("Cannot read the position of the statistics in the log: {}", p.getStringValue());
+			return null;
+		}
+	}
+	
+	private void saveCursor(LogCursor cursor) {
+		Long creationDate = Long.valueOf(cursor.getCreationDate().getTime());
+		String key = Long.toString(cursor.getKey());
+		Property p = propertyManager.findProperty(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LOG_CURSOR_PROPERTY_NAME);
+		if(p == null) {
+			p = propertyManager.createPropertyInstance(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LOG_CURSOR_PROPERTY_NAME,
+					null, creationDate, key, null);
+			propertyManager.saveProperty(p);
+		} else {
+			p.setLongValue(creationDate);
+			p.setStringValue(key);
+			propertyManager.updateProperty(p);
+		}
+	}
+	
+	private static class LogCursor {
+		
+		private final Date creationDate;
+		private final long key;
+		
+		public LogCursor(Date creationDate, long key) {
+			this.creationDate = creationDate;
+			this.key = key;
+		}
+
+		public Date getCreationDate() {
+			return creationDate;
+		}
+
+		public long getKey() {
+			return key;
+		}
+	}
+}
@@ -179,6 +179,13 @@ public interface BusinessGroupService {
 	 */
 	public List<BusinessGroup> loadAllBusinessGroups();
 	
+	/**
+	 * @param fromKey The smallest key (inclusive) or null
+	 * @param toKey The biggest key (exclusive) or null
+	 * @return The primary keys of the business groups in the range, ordered
+	 */
+	public List<Long> loadBusinessGroupKeys(Long fromKey, Long toKey);
+	
 	/**
 	 * Load the business group by it's OLAT resource
 	 * @param resource
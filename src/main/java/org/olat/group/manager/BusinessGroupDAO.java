@@ -40,6 +40,7 @@ import org.olat.basesecurity.model.GroupMembershipImpl;
 import org.olat.collaboration.CollaborationTools;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.persistence.PersistenceHelper;
+import org.olat.core.commons.persistence.QueryBuilder;
 import org.olat.core.commons.services.mark.impl.MarkImpl;
 import org.olat.core.id.Identity;
 import org.olat.core.id.Roles;
@@ -227,6 +228,33 @@ public class BusinessGroupDAO {
 				.getResultList();
 	}
 	
+	/**
+	 * @param fromKey The smallest key (inclusive) or null
+	 * @param toKey The biggest key (exclusive) or null
+	 * @return The primary keys of the business groups ordered by key
+	 */
+	public List<Long> loadBusinessGroupKeys(Long fromKey, Long toKey) {
+		QueryBuilder sb = new QueryBuilder(128);
+		sb.append("select bgi.key from businessgroup bgi");
+		if(fromKey != null) {
+			sb.and().append("bgi.key>=:fromKey");
+		}
+		if(toKey != null) {
+			sb.and().append("bgi.key<:toKey");
+		}
+		sb.append(" order by bgi.key asc");
+		
+		TypedQuery<Long> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class);
+		if(fromKey != null) {
+			query.setParameter("fromKey", fromKey);
+		}
+		if(toKey != null) {
+			query.setParameter("toKey", toKey);
+		}
+		return query.getResultList();
+	}
+	
 	public BusinessGroup loadByResourceId(Long resourceId) {
 		StringBuilder sb = new StringBuilder();
 		sb.append("select bgi from businessgroup bgi ")
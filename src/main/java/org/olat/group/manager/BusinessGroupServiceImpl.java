@@ -351,6 +351,11 @@ public class BusinessGroupServiceImpl implements BusinessGroupService {
 	public List<BusinessGroup> loadAllBusinessGroups() {
 		return businessGroupDAO.loadAll();
 	}
+
+	@Override
+	public List<Long> loadBusinessGroupKeys(Long fromKey, Long toKey) {
+		return businessGroupDAO.loadBusinessGroupKeys(fromKey, toKey);
+	}
 	
 	
 
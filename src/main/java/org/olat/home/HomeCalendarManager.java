@@ -20,8 +20,6 @@
 package org.olat.home;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -387,22 +385,12 @@ public class HomeCalendarManager implements PersonalCalendarManager, UserDataDel
 
 	@Override
 	public void deleteUserData(Identity identity, String newDeletedUserName) {
-		File iCalFile = calendarManager.getCalendarICalFile(CalendarManager.TYPE_USER, identity.getName());
-		deleteCalendarFile(iCalFile);
+		// delete the events in the database and the files
+		calendarManager.deleteCalendar(CalendarManager.TYPE_USER, identity.getName());
 
 		List<CalendarFileInfos> importedCalendars = importCalendarManager.getImportedCalendarInfosForIdentity(identity, false);
 		for(CalendarFileInfos importedCalendar:importedCalendars) {
-			deleteCalendarFile(importedCalendar.getCalendarFile());
-		}
-	}
-	
-	private void deleteCalendarFile(File calendarFile) {
-		if(calendarFile != null && calendarFile.exists()) {
-			try {
-				Files.deleteIfExists(calendarFile.toPath());
-			} catch (IOException e) {
-				log.error("Cannot delete calendar: " + calendarFile);
-			}
+			calendarManager.deleteCalendar(importedCalendar.getType(), importedCalendar.getCalendarId());
 		}
 	}
 }
@@ -66,6 +66,16 @@ public class QTI21Module extends AbstractSpringModule {
 	private String resultsVisibleAfterCorrectionWorkflow;
 	@Value("${qti21.import.encoding.fallback:}")
 	private String importEncodingFallback;
+	@Value("${qti21.test.session.state.storage:xml}")
+	private String testSessionStateStorage;
+	@Value("${qti21.test.session.state.snapshot.interval:50}")
+	private int testSessionStateSnapshotInterval;
+	@Value("${qti21.audit.log.buffered:false}")
+	private boolean auditLogBuffered;
+	@Value("${qti21.audit.log.flush.interval:1000}")
+	private long auditLogFlushInterval;
+	@Value("${qti21.audit.log.flush.size:8192}")
+	private int auditLogFlushSize;
 	
 	@Autowired
 	public QTI21Module(CoordinatorManager coordinatorManager) {
@@ -188,6 +198,49 @@ public class QTI21Module extends AbstractSpringModule {
 	public String getImportEncodingFallback() {
 		return importEncodingFallback;
 	}
+	
+	/**
+	 * @return true if the state of the running test sessions is saved in
+	 * 		an append-only journal instead of the full XML file
+	 */
+	public boolean isTestSessionStateJournalEnabled() {
+		return TestSessionStateStorage.journal.name().equals(testSessionStateStorage);
+	}
+	
+	/**
+	 * @return The maximum number of records in the journal before it's compacted
+	 */
+	public int getTestSessionStateSnapshotInterval() {
+		return testSessionStateSnapshotInterval <= 0 ? 50 : testSessionStateSnapshotInterval;
+	}
+	
+	/**
+	 * @return true if the audit logs of the test sessions are buffered and
+	 * 		flushed together, false if every line is flushed
+	 */
+	public boolean isAuditLogBuffered() {
+		return auditLogBuffered;
+	}
+	
+	/**
+	 * @return The maximum time in milliseconds a line of the audit log stays
+	 * 		in the buffer, this is the window of lines lost if the JVM crashes
+	 */
+	public long getAuditLogFlushInterval() {
+		return auditLogFlushInterval <= 0 ? 1000 : auditLogFlushInterval;
+	}
+	
+	/**
+	 * @return The number of characters buffered before the audit log is flushed
+	 */
+	public int getAuditLogFlushSize() {
+		return auditLogFlushSize <= 0 ? 8192 : auditLogFlushSize;
+	}
+	
+	public enum TestSessionStateStorage {
+		xml,
+		journal
+	}
 
 	public enum CorrectionWorkflow {
 		anonymous,
@@ -57,6 +57,9 @@ public class AssessmentTestPreWarm implements PreWarm {
 		List<RepositoryEntry> entries = repositoryEntryDao
 				.getLastUsedRepositoryEntries(ImsQTI21Resource.TYPE_NAME, 0, 20);
 		for(RepositoryEntry entry:entries) {
+			if(Thread.currentThread().isInterrupted()) {
+				break;
+			}
 			try {
 				File fUnzippedDirRoot = frm.unzipFileResource(entry.getOlatResource());
 				qtiService.loadAndResolveAssessmentTest(fUnzippedDirRoot, false, false);
@@ -93,6 +93,7 @@ import org.olat.ims.qti21.QTI21DeliveryOptions;
 import org.olat.ims.qti21.QTI21Module;
 import org.olat.ims.qti21.QTI21Service;
 import org.olat.ims.qti21.manager.audit.AssessmentSessionAuditFileLog;
+import org.olat.ims.qti21.manager.audit.AssessmentSessionAuditLogFlusher;
 import org.olat.ims.qti21.manager.audit.AssessmentSessionAuditOLog;
 import org.olat.ims.qti21.model.DigitalSignatureOptions;
 import org.olat.ims.qti21.model.DigitalSignatureValidation;
@@ -211,6 +212,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	@Autowired
 	private AssessmentTestSessionDAO testSessionDao;
 	@Autowired
+	private TestSessionStateJournal testSessionStateJournal;
+	@Autowired
 	private AssessmentItemSessionDAO itemSessionDao;
 	@Autowired
 	private AssessmentResponseDAO testResponseDao;
@@ -224,6 +227,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	private CoordinatorManager coordinatorManager;
 	@Autowired
 	private MailManager mailManager;
+	@Autowired
+	private AssessmentSessionAuditLogFlusher auditLogFlusher;
 	
 
 	private JqtiExtensionManager jqtiExtensionManager;
@@ -553,6 +558,9 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		try {
 			File auditLog = getAssessmentSessionAuditLogFile(session);
 			FileOutputStream outputStream = new FileOutputStream(auditLog, true);
+			if(qtiModule.isAuditLogBuffered()) {
+				return new AssessmentSessionAuditFileLog(outputStream, auditLogFlusher, qtiModule.getAuditLogFlushSize());
+			}
 			return new AssessmentSessionAuditFileLog(outputStream);
 		} catch (IOException e) {
 			log.error("Cannot open the user specific log audit, fall back to OLog", e);
@@ -584,7 +592,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 			session = null;
 		} else {
 			File sessionFile = getTestSessionStateFile(session);
-			if(!sessionFile.exists()) {
+			if(!sessionFile.exists() && !getTestSessionStateJournalFile(session).exists()) {
 				session = null;
 			}
 		}
@@ -685,6 +693,13 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
     }
 	
     private Document loadStateDocument(AssessmentTestSession candidateSession) {
+        File journalFile = getTestSessionStateJournalFile(candidateSession);
+        if(journalFile.exists()) {
+        	Document document = testSessionStateJournal.load(journalFile);
+        	if(document != null) {
+        		return document;
+        	}
+        }
         File sessionFile = getTestSessionStateFile(candidateSession);
         return loadStateDocument(sessionFile);
     }
@@ -986,6 +1001,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		
 		AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false);
 		candidateAuditLogger.logTestExtend(session, extraTime, false, actor);
+		FileUtils.closeSafely(candidateAuditLogger);
 		
 		RetrieveAssessmentTestSessionEvent event = new RetrieveAssessmentTestSessionEvent(session.getKey());
 		OLATResourceable sessionOres = OresHelper.createOLATResourceableInstance(AssessmentTestSession.class, session.getKey());
@@ -999,6 +1015,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		
 		AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false);
 		candidateAuditLogger.logTestExtend(session, extraTime, true, actor);
+		FileUtils.closeSafely(candidateAuditLogger);
 		
 		RetrieveAssessmentTestSessionEvent event = new RetrieveAssessmentTestSessionEvent(session.getKey());
 		OLATResourceable sessionOres = OresHelper.createOLATResourceableInstance(AssessmentTestSession.class, session.getKey());
@@ -1044,6 +1061,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 				
 				AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false);
 				candidateAuditLogger.logTestReopen(session, actor);
+				FileUtils.closeSafely(candidateAuditLogger);
 				
 				RetrieveAssessmentTestSessionEvent event = new RetrieveAssessmentTestSessionEvent(session.getKey());
 				OLATResourceable sessionOres = OresHelper.createOLATResourceableInstance(AssessmentTestSession.class, session.getKey());
@@ -1171,6 +1189,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 
 		testSessionDao.deleteTestSession(candidateSession);
 		FileUtils.deleteFile(sessionState);
+		testSessionStateJournal.delete(testSessionStateJournal.getJournalFile(myStore));
 		if(resultFile != null) {
 			FileUtils.deleteFile(resultFile);
 		}
@@ -1224,6 +1243,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		
 		AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false);
 		candidateAuditLogger.logTestRetrieved(session, actor);
+		FileUtils.closeSafely(candidateAuditLogger);
 		
 		OLATResourceable sessionOres = OresHelper.createOLATResourceableInstance(AssessmentTestSession.class, session.getKey());
 		coordinatorManager.getCoordinator().getEventBus()
@@ -1332,20 +1352,38 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	}
 	
 	private void storeTestSessionState(CandidateEvent candidateEvent, TestSessionState testSessionState) {
-		Document stateDocument = TestSessionStateXmlMarshaller.marshal(testSessionState);
-		File sessionFile = getTestSessionStateFile(candidateEvent);
-		storeStateDocument(stateDocument, sessionFile);
+		storeTestSessionState(candidateEvent.getCandidateSession(), testSessionState);
 	}
 	
+	/**
+	 * The state of running sessions can be saved in the journal, the
+	 * one of finished sessions is always saved as XML for the export and the
+	 * archive. Sessions saved in the other format are migrated lazily.
+	 * 
+	 * @param candidateSession The test session
+	 * @param testSessionState The state to save
+	 */
 	private void storeTestSessionState(AssessmentTestSession candidateSession, TestSessionState testSessionState) {
 		Document stateDocument = TestSessionStateXmlMarshaller.marshal(testSessionState);
 		File sessionFile = getTestSessionStateFile(candidateSession);
-		storeStateDocument(stateDocument, sessionFile);
+		File journalFile = getTestSessionStateJournalFile(candidateSession);
+		if(qtiModule.isTestSessionStateJournalEnabled() && candidateSession.getFinishTime() == null
+				&& candidateSession.getTerminationTime() == null && testSessionState.getEndTime() == null) {
+			testSessionStateJournal.append(stateDocument, journalFile);
+			if(sessionFile.exists()) {
+				FileUtils.deleteFile(sessionFile);
+			}
+		} else {
+			storeStateDocument(stateDocument, sessionFile);
+			if(journalFile.exists()) {
+				testSessionStateJournal.delete(journalFile);
+			}
+		}
 	}
 
-	private File getTestSessionStateFile(CandidateEvent candidateEvent) {
-		AssessmentTestSession candidateSession = candidateEvent.getCandidateSession();
-		return getTestSessionStateFile(candidateSession);
+	private File getTestSessionStateJournalFile(AssessmentTestSession candidateSession) {
+		File myStore = testSessionDao.getSessionStorage(candidateSession);
+		return testSessionStateJournal.getJournalFile(myStore);
 	}
     
 	private File getTestSessionStateFile(AssessmentTestSession candidateSession) {
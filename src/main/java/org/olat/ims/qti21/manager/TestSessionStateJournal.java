@@ -0,0 +1,559 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.ims.qti21.QTI21Module;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import uk.ac.ed.ph.jqtiplus.xmlutils.XmlFactories;
+import uk.ac.ed.ph.jqtiplus.xmlutils.xslt.XsltSerializationOptions;
+import uk.ac.ed.ph.jqtiplus.xmlutils.xslt.XsltStylesheetManager;
+
+/**
+ * Append-only storage of the test session state. The state is marshalled
+ * by the service as usual and the journal only append the top level elements
+ * of the state (test part, section, item...) which changed since the last
+ * record. A full record (snapshot) is written when the journal is started,
+ * when the last state is not known by this node, and every n records, which
+ * compacts the journal.<br>
+ * The last state is remembered as digests of the top level elements together
+ * with the length and the modification date of the journal after the write.
+ * Only the elements with a new digest are serialized for a delta record. If the
+ * journal was changed by someone else (an other node, a restore...), the
+ * remembered state is not used and a full record is written. The states
+ * are evicted in LRU order.<br>
+ * Every record is compressed and check-summed, a torn record at the end of
+ * the file (crash while writing) is ignored and the state is the one of the
+ * previous event.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class TestSessionStateJournal {
+
+	private static final Logger log = Tracing.createLoggerFor(TestSessionStateJournal.class);
+
+	public static final String JOURNAL_FILENAME = "testSessionState.journal";
+
+	private static final int MAGIC = 0x4f4f544a;
+	private static final int VERSION = 1;
+	private static final byte FULL_RECORD = 1;
+	private static final byte DELTA_RECORD = 2;
+	private static final int MAX_CACHED_STATES = 5000;
+
+	private final Map<String,JournalState> lastStates = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+		private static final long serialVersionUID = -3452716823458816931L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,JournalState> eldest) {
+			return size() > MAX_CACHED_STATES;
+		}
+	});
+
+	/**
+	 * Transformers are not thread safe but expensive to create.
+	 */
+	private final ThreadLocal<Transformer> serializers = ThreadLocal.withInitial(TestSessionStateJournal::createSerializer);
+
+	@Autowired
+	private QTI21Module qtiModule;
+
+	public File getJournalFile(File sessionStorage) {
+		return new File(sessionStorage, JOURNAL_FILENAME);
+	}
+
+	/**
+	 * Append the state to the journal of the session.
+	 *
+	 * @param stateDocument The marshalled test session state
+	 * @param journalFile The journal file
+	 */
+	public void append(Document stateDocument, File journalFile) {
+		String path = journalFile.getAbsolutePath();
+		JournalState state = lastStates.computeIfAbsent(path, p -> new JournalState());
+		synchronized(state) {
+			try {
+				Element root = stateDocument.getDocumentElement();
+				Map<String,Element> children = getChildElements(root);
+				Map<String,byte[]> digests = getDigests(children);
+				if(!state.isBaselineOf(journalFile)
+						|| state.getNumOfRecords() >= qtiModule.getTestSessionStateSnapshotInterval()) {
+					writeSnapshot(root, serialize(children, children.keySet()), journalFile);
+					state.setNumOfRecords(1);
+				} else {
+					List<String> changedKeys = getChangedKeys(digests, state.getLastDigests());
+					appendDelta(root, serialize(children, changedKeys), children.keySet(), journalFile);
+					state.setNumOfRecords(state.getNumOfRecords() + 1);
+				}
+				state.setLastDigests(digests, journalFile);
+			} catch(IOException | TransformerException e) {
+				lastStates.remove(path);
+				throw new OLATRuntimeException("Cannot write test session state journal: " + journalFile, e);
+			}
+		}
+	}
+
+	/**
+	 * Replay the journal and rebuild the XML document of the test session state.
+	 *
+	 * @param journalFile The journal file
+	 * @return The document or null if the journal doesn't exist or is unreadable
+	 */
+	public Document load(File journalFile) {
+		if(!journalFile.exists()) return null;
+
+		RootInfos root = null;
+		Map<String,String> fragments = new HashMap<>();
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+			if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.error("Not a test session state journal: {}", journalFile);
+				return null;
+			}
+
+			byte[] payload;
+			while((payload = readRecord(in, journalFile)) != null) {
+				try(DataInputStream recordIn = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1)))) {
+					if(payload[0] == FULL_RECORD) {
+						fragments.clear();
+					}
+					root = readRootInfos(recordIn);
+					int numOfChanges = recordIn.readInt();
+					for(int i=0; i<numOfChanges; i++) {
+						String key = readString(recordIn);
+						fragments.put(key, readString(recordIn));
+					}
+				}
+			}
+		} catch(IOException e) {
+			log.error("Cannot read test session state journal: {}", journalFile, e);
+			return null;
+		}
+
+		return root == null ? null : buildDocument(root, fragments);
+	}
+
+	/**
+	 * Delete the journal and forget the last state.
+	 *
+	 * @param journalFile The journal file
+	 */
+	public void delete(File journalFile) {
+		lastStates.remove(journalFile.getAbsolutePath());
+		if(journalFile.exists()) {
+			FileUtils.deleteFile(journalFile);
+		}
+	}
+
+	private void writeSnapshot(Element root, Map<String,String> fragments, File journalFile)
+	throws IOException {
+		byte[] record = createRecord(FULL_RECORD, root, fragments, fragments.keySet());
+		File tmpFile = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp");
+		try(DataOutputStream out = new DataOutputStream(new FileOutputStream(tmpFile))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.write(record);
+		}
+		Files.move(tmpFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void appendDelta(Element root, Map<String,String> changes, Iterable<String> orderedKeys, File journalFile)
+	throws IOException {
+		byte[] record = createRecord(DELTA_RECORD, root, changes, orderedKeys);
+		// one write per record, the check sum detects the partial ones
+		try(FileOutputStream out = new FileOutputStream(journalFile, true)) {
+			out.write(record);
+		}
+	}
+
+	/**
+	 * The record is: type (byte), length of the payload (int), payload,
+	 * CRC32 of the type and payload (long). The payload is deflated and contains
+	 * the root element with its attributes, the ordered keys of its children and
+	 * the changed children serialized as XML.
+	 */
+	private byte[] createRecord(byte type, Element root, Map<String,String> changes, Iterable<String> orderedKeys)
+	throws IOException {
+		ByteArrayOutputStream payload = new ByteArrayOutputStream(4096);
+		try(DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(payload))) {
+			writeString(out, root.getNamespaceURI());
+			writeString(out, root.getTagName());
+			NamedNodeMap attributes = root.getAttributes();
+			out.writeInt(attributes.getLength());
+			for(int i=0; i<attributes.getLength(); i++) {
+				Attr attribute = (Attr)attributes.item(i);
+				writeString(out, attribute.getNamespaceURI());
+				writeString(out, attribute.getName());
+				writeString(out, attribute.getValue());
+			}
+
+			List<String> keys = new ArrayList<>();
+			orderedKeys.forEach(keys::add);
+			out.writeInt(keys.size());
+			for(String key:keys) {
+				writeString(out, key);
+			}
+
+			out.writeInt(changes.size());
+			for(Map.Entry<String,String> change:changes.entrySet()) {
+				writeString(out, change.getKey());
+				writeString(out, change.getValue());
+			}
+		}
+
+		byte[] payloadBytes = payload.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(type);
+		crc.update(payloadBytes);
+
+		ByteArrayOutputStream record = new ByteArrayOutputStream(payloadBytes.length + 13);
+		try(DataOutputStream out = new DataOutputStream(record)) {
+			out.writeByte(type);
+			out.writeInt(payloadBytes.length);
+			out.write(payloadBytes);
+			out.writeLong(crc.getValue());
+		}
+		return record.toByteArray();
+	}
+
+	/**
+	 * @return The type followed by the deflated payload, or null at the end
+	 * 		of the journal or at the first incomplete or corrupted record
+	 */
+	private byte[] readRecord(DataInputStream in, File journalFile) throws IOException {
+		try {
+			int type = in.read();
+			if(type < 0) {
+				return null;
+			}
+			int length = in.readInt();
+			if(length < 0 || length > journalFile.length()) {
+				log.warn("Corrupted record in test session state journal: {}", journalFile);
+				return null;
+			}
+			byte[] record = new byte[length + 1];
+			record[0] = (byte)type;
+			in.readFully(record, 1, length);
+			long checksum = in.readLong();
+
+			CRC32 crc = new CRC32();
+			crc.update(record);
+			if(crc.getValue() != checksum) {
+				log.warn("Corrupted record in test session state journal: {}", journalFile);
+				return null;
+			}
+			return record;
+		} catch (EOFException e) {
+			log.warn("Incomplete record at the end of the test session state journal: {}", journalFile);
+			return null;
+		}
+	}
+
+	private RootInfos readRootInfos(DataInputStream in) throws IOException {
+		RootInfos root = new RootInfos(readString(in), readString(in));
+		int numOfAttributes = in.readInt();
+		for(int i=0; i<numOfAttributes; i++) {
+			root.getAttributes().add(new String[] { readString(in), readString(in), readString(in) });
+		}
+		int numOfKeys = in.readInt();
+		for(int i=0; i<numOfKeys; i++) {
+			root.getKeys().add(readString(in));
+		}
+		return root;
+	}
+
+	private Document buildDocument(RootInfos rootInfos, Map<String,String> fragments) {
+		try {
+			DocumentBuilder documentBuilder = XmlFactories.newDocumentBuilder();
+			Document document = documentBuilder.newDocument();
+			Element root = document.createElementNS(rootInfos.getNamespaceUri(), rootInfos.getTagName());
+			for(String[] attribute:rootInfos.getAttributes()) {
+				root.setAttributeNS(attribute[0], attribute[1], attribute[2]);
+			}
+			document.appendChild(root);
+
+			for(String key:rootInfos.getKeys()) {
+				String fragment = fragments.get(key);
+				if(fragment != null) {
+					Document fragmentDoc = documentBuilder.parse(new InputSource(new StringReader(fragment)));
+					root.appendChild(document.importNode(fragmentDoc.getDocumentElement(), true));
+				}
+			}
+			return document;
+		} catch (Exception e) {
+			log.error("Cannot rebuild the test session state from the journal", e);
+			return null;
+		}
+	}
+
+	/**
+	 * The children are keyed by their name and their key or identifier attribute.
+	 * The others are keyed by their name and position.
+	 *
+	 * @param root The root element of the state
+	 * @return An ordered map of the child elements
+	 */
+	private Map<String,Element> getChildElements(Element root) {
+		Map<String,Element> children = new LinkedHashMap<>();
+		Map<String,Integer> positions = new HashMap<>();
+		for(Node node=root.getFirstChild(); node != null; node=node.getNextSibling()) {
+			if(node.getNodeType() == Node.ELEMENT_NODE) {
+				Element element = (Element)node;
+				String name = element.getTagName();
+				String key;
+				if(element.hasAttribute("key")) {
+					key = name + "|key|" + element.getAttribute("key");
+				} else if(element.hasAttribute("identifier")) {
+					key = name + "|identifier|" + element.getAttribute("identifier");
+				} else {
+					key = name + "|pos|" + positions.merge(name, 1, Integer::sum);
+				}
+				children.put(key, element);
+			}
+		}
+		return children;
+	}
+
+	private List<String> getChangedKeys(Map<String,byte[]> digests, Map<String,byte[]> lastDigests) {
+		List<String> changedKeys = new ArrayList<>();
+		for(Map.Entry<String,byte[]> digest:digests.entrySet()) {
+			byte[] lastDigest = lastDigests.get(digest.getKey());
+			if(lastDigest == null || !Arrays.equals(lastDigest, digest.getValue())) {
+				changedKeys.add(digest.getKey());
+			}
+		}
+		return changedKeys;
+	}
+
+	/**
+	 * Hash the elements directly from the DOM, which is a lot cheaper
+	 * than serializing them.
+	 */
+	private Map<String,byte[]> getDigests(Map<String,Element> children) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			Map<String,byte[]> digests = new HashMap<>();
+			for(Map.Entry<String,Element> child:children.entrySet()) {
+				digest(md, child.getValue());
+				digests.put(child.getKey(), md.digest());
+			}
+			return digests;
+		} catch (NoSuchAlgorithmException e) {
+			throw new OLATRuntimeException("SHA-256 not available", e);
+		}
+	}
+
+	private static void digest(MessageDigest md, Node node) {
+		switch(node.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				md.update((byte)'E');
+				digest(md, node.getNamespaceURI());
+				digest(md, node.getNodeName());
+				NamedNodeMap attributes = node.getAttributes();
+				md.update((byte)attributes.getLength());
+				for(int i=0; i<attributes.getLength(); i++) {
+					Node attribute = attributes.item(i);
+					digest(md, attribute.getNamespaceURI());
+					digest(md, attribute.getNodeName());
+					digest(md, attribute.getNodeValue());
+				}
+				for(Node child=node.getFirstChild(); child != null; child=child.getNextSibling()) {
+					digest(md, child);
+				}
+				md.update((byte)'/');
+				break;
+			case Node.TEXT_NODE:
+			case Node.CDATA_SECTION_NODE:
+				md.update((byte)'T');
+				digest(md, node.getNodeValue());
+				break;
+			default:
+				break;
+		}
+	}
+
+	private static void digest(MessageDigest md, String value) {
+		if(value == null) {
+			md.update((byte)0);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			md.update((byte)1);
+			md.update((byte)(bytes.length >>> 24));
+			md.update((byte)(bytes.length >>> 16));
+			md.update((byte)(bytes.length >>> 8));
+			md.update((byte)bytes.length);
+			md.update(bytes);
+		}
+	}
+
+	/**
+	 * Serialize only the specified elements with the serializer of the thread.
+	 */
+	private Map<String,String> serialize(Map<String,Element> children, Collection<String> keys)
+	throws TransformerException {
+		Transformer serializer = serializers.get();
+		Map<String,String> fragments = new LinkedHashMap<>();
+		for(String key:keys) {
+			StringWriter fragment = new StringWriter();
+			serializer.transform(new DOMSource(children.get(key)), new StreamResult(fragment));
+			fragments.put(key, fragment.toString());
+		}
+		return fragments;
+	}
+
+	private static Transformer createSerializer() {
+		XsltSerializationOptions xsltSerializationOptions = new XsltSerializationOptions();
+		xsltSerializationOptions.setIndenting(false);
+		xsltSerializationOptions.setIncludingXMLDeclaration(false);
+		return XsltStylesheetManager.createSerializer(xsltSerializationOptions);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if(value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if(length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static class JournalState {
+
+		private int numOfRecords;
+		private Map<String,byte[]> lastDigests;
+		private long journalLength;
+		private long journalLastModified;
+
+		public int getNumOfRecords() {
+			return numOfRecords;
+		}
+
+		public void setNumOfRecords(int numOfRecords) {
+			this.numOfRecords = numOfRecords;
+		}
+
+		public Map<String,byte[]> getLastDigests() {
+			return lastDigests;
+		}
+
+		public void setLastDigests(Map<String,byte[]> lastDigests, File journalFile) {
+			this.lastDigests = lastDigests;
+			journalLength = journalFile.length();
+			journalLastModified = journalFile.lastModified();
+		}
+
+		/**
+		 * @param journalFile The journal
+		 * @return true if the last state is the one of the last record of the journal
+		 */
+		public boolean isBaselineOf(File journalFile) {
+			return lastDigests != null && journalFile.exists()
+					&& journalFile.length() == journalLength
+					&& journalFile.lastModified() == journalLastModified;
+		}
+	}
+
+	private static class RootInfos {
+
+		private final String namespaceUri;
+		private final String tagName;
+		private final List<String[]> attributes = new ArrayList<>();
+		private final List<String> keys = new ArrayList<>();
+
+		public RootInfos(String namespaceUri, String tagName) {
+			this.namespaceUri = namespaceUri;
+			this.tagName = tagName;
+		}
+
+		public String getNamespaceUri() {
+			return namespaceUri;
+		}
+
+		public String getTagName() {
+			return tagName;
+		}
+
+		public List<String[]> getAttributes() {
+			return attributes;
+		}
+
+		public List<String> getKeys() {
+			return keys;
+		}
+	}
+}
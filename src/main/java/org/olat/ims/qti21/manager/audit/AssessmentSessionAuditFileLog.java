@@ -21,8 +21,7 @@ package org.olat.ims.qti21.manager.audit;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
@@ -37,12 +36,17 @@ import org.olat.ims.qti21.AssessmentSessionAuditLogger;
 import org.olat.ims.qti21.AssessmentTestSession;
 import org.olat.ims.qti21.model.audit.CandidateEvent;
 import org.olat.ims.qti21.model.audit.CandidateExceptionReason;
+import org.olat.ims.qti21.model.audit.CandidateTestEventType;
 
 import uk.ac.ed.ph.jqtiplus.types.Identifier;
 
 /**
  * 
- * Write the logs in a file in the user storage for this assessment test
+ * Write the logs in a file in the user storage for this assessment test.
+ * Without flusher, every line is flushed. With a flusher, the lines are
+ * buffered and flushed if the buffer is full, if the test is suspended,
+ * ended or submitted, if a coach changes the session and at the latest
+ * by the flusher after its interval.
  * 
  * Initial date: 12.05.2016<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
@@ -52,23 +56,85 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 
 	private static final Logger log = Tracing.createLoggerFor(AssessmentSessionAuditFileLog.class);
 	
-	private Writer writer;
+	private final StringWriter writer;
 	private final OutputStream outputStream;
 	private final AssessmentSessionAuditLogger debugLog;
+	
+	private final int flushSize;
+	private final AssessmentSessionAuditLogFlusher flusher;
+	private boolean closed = false;
 
 	public AssessmentSessionAuditFileLog(OutputStream outputStream) throws IOException {
+		this(outputStream, null, 0);
+	}
+	
+	/**
+	 * 
+	 * @param outputStream The stream of the audit log
+	 * @param flusher The flusher for the buffered mode or null to flush every line
+	 * @param flushSize The number of characters buffered before a flush
+	 * @throws IOException
+	 */
+	public AssessmentSessionAuditFileLog(OutputStream outputStream, AssessmentSessionAuditLogFlusher flusher, int flushSize)
+	throws IOException {
 		this.outputStream = outputStream;
+		this.flusher = flusher;
+		this.flushSize = flushSize;
 		debugLog = Settings.isDebuging() ? new AssessmentSessionAuditOLog() : new DefaultAssessmentSessionAuditLogger();
-		writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+		writer = new StringWriter(flusher == null ? 256 : flushSize + 1024);
+	}
+	
+	private void endLine(boolean commit) throws IOException {
+		writer.write("\n");
+		if(flusher == null || commit || writer.getBuffer().length() >= flushSize) {
+			flushInternal();
+		} else {
+			flusher.markDirty(this);
+		}
+	}
+	
+	/**
+	 * Write the buffer in one operation.
+	 */
+	private void flushInternal() throws IOException {
+		StringBuffer buffer = writer.getBuffer();
+		if(buffer.length() > 0) {
+			outputStream.write(buffer.toString().getBytes(StandardCharsets.UTF_8));
+			outputStream.flush();
+			buffer.setLength(0);
+		}
+		if(flusher != null) {
+			flusher.unmarkDirty(this);
+		}
+	}
+	
+	/**
+	 * Flush the lines of the buffer to the file.
+	 * 
+	 * @throws IOException
+	 */
+	protected synchronized void flushBuffer() throws IOException {
+		if(!closed) {
+			flushInternal();
+		}
+	}
+	
+	private boolean isCommit(CandidateEvent candidateEvent) {
+		CandidateTestEventType type = candidateEvent.getTestEventType();
+		return type == CandidateTestEventType.SUSPEND
+				|| type == CandidateTestEventType.END_TEST_PART
+				|| type == CandidateTestEventType.ADVANCE_TEST_PART
+				|| type == CandidateTestEventType.FINISH_FINAL_ITEM
+				|| type == CandidateTestEventType.EXIT_TEST
+				|| type == CandidateTestEventType.EXIT_DUE_TIME_LIMIT;
 	}
 	
 	@Override
-	public void logCandidateEvent(CandidateEvent candidateEvent) {
+	public synchronized void logCandidateEvent(CandidateEvent candidateEvent) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.log(candidateEvent, null, writer);
-			writer.write("\n");
-			writer.flush();
+			endLine(isCommit(candidateEvent));
 			debugLog.logCandidateEvent(candidateEvent);
 		} catch (IOException e) {
 			log.error("", e);
@@ -76,12 +142,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	}
 	
 	@Override
-	public void logCandidateEvent(CandidateEvent candidateEvent, Map<Identifier, AssessmentResponse> candidateResponseMap) {
+	public synchronized void logCandidateEvent(CandidateEvent candidateEvent, Map<Identifier, AssessmentResponse> candidateResponseMap) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.log(candidateEvent, candidateResponseMap, writer);
-			writer.write("\n");
-			writer.flush();
+			endLine(isCommit(candidateEvent));
 			debugLog.logCandidateEvent(candidateEvent, candidateResponseMap);
 		} catch (IOException e) {
 			log.error("", e);
@@ -89,12 +154,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	}
 
 	@Override
-	public void logCandidateOutcomes(AssessmentTestSession candidateSession, Map<Identifier, String> outcomes) {
+	public synchronized void logCandidateOutcomes(AssessmentTestSession candidateSession, Map<Identifier, String> outcomes) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.logOutcomes(outcomes, writer);
-			writer.write("\n");
-			writer.flush();
+			endLine(true);
 			debugLog.logCandidateOutcomes(candidateSession, outcomes);
 		} catch (IOException e) {
 			log.error("", e);
@@ -102,12 +166,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	}
 
 	@Override
-	public void logCorrection(AssessmentTestSession candidateSession, AssessmentItemSession itemSession, Identity coach) {
+	public synchronized void logCorrection(AssessmentTestSession candidateSession, AssessmentItemSession itemSession, Identity coach) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.logCorrection(itemSession, coach, writer);
-			writer.write("\n");
-			writer.flush();
+			endLine(true);
 			debugLog.logCorrection(candidateSession, itemSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -115,27 +178,23 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	}
 
 	@Override
-	public void logTestRetrieved(AssessmentTestSession candidateSession, Identity coach) {
+	public synchronized void logTestRetrieved(AssessmentTestSession candidateSession, Identity coach) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			writer.write("Test session retrieved by " + coach.getKey());
-			writer.write("\n");
-			writer.flush();
+			endLine(true);
 			debugLog.logTestRetrieved(candidateSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
 		}
 	}
-	
-	
 
 	@Override
-	public void logTestReopen(AssessmentTestSession candidateSession, Identity coach) {
+	public synchronized void logTestReopen(AssessmentTestSession candidateSession, Identity coach) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			writer.write("Test session reopened by " + coach.getKey());
-			writer.write("\n");
-			writer.flush();
+			endLine(true);
 			debugLog.logTestRetrieved(candidateSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -143,15 +202,14 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	}
 
 	@Override
-	public void logTestExtend(AssessmentTestSession candidateSession, int extraTime, boolean compensation, Identity coach) {
+	public synchronized void logTestExtend(AssessmentTestSession candidateSession, int extraTime, boolean compensation, Identity coach) {
 		try {
 			AuditLogFormatter.logDate(writer);
 			writer.write("Test session extened " + extraTime + " by " + coach.getKey());
 			if(compensation) {
 				writer.write(" (compensation for disadvantages)");
 			}
-			writer.write("\n");
-			writer.flush();
+			endLine(true);
 			debugLog.logTestRetrieved(candidateSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -164,7 +222,15 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	}
 
 	@Override
-	public void close() {
+	public synchronized void close() {
+		if(closed) return;
+		
+		try {
+			flushInternal();
+		} catch (IOException e) {
+			log.error("", e);
+		}
+		closed = true;
 		FileUtils.closeSafely(outputStream);
 	}
 }
@@ -0,0 +1,116 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager.audit;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.ims.qti21.QTI21Module;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Flush regularly the buffered audit logs of the test sessions. Only the
+ * logs with pending lines are hold, they are released after the flush. The
+ * interval is the upper bound of the time a line stays in the buffer.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class AssessmentSessionAuditLogFlusher implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(AssessmentSessionAuditLogFlusher.class);
+	
+	private final Set<AssessmentSessionAuditFileLog> dirtyLogs = ConcurrentHashMap.newKeySet();
+	private ScheduledExecutorService scheduler;
+	
+	@Autowired
+	private QTI21Module qtiModule;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(qtiModule.isAuditLogBuffered()) {
+			start(qtiModule.getAuditLogFlushInterval());
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		stop();
+	}
+	
+	protected synchronized void start(long interval) {
+		if(scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "QTI21-Audit-Log-Flusher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	protected synchronized void stop() {
+		if(scheduler != null) {
+			scheduler.shutdown();
+			scheduler = null;
+		}
+		flushAll();
+	}
+	
+	public boolean isStarted() {
+		return scheduler != null;
+	}
+	
+	/**
+	 * @param auditLog An audit log with lines in its buffer
+	 */
+	protected void markDirty(AssessmentSessionAuditFileLog auditLog) {
+		dirtyLogs.add(auditLog);
+	}
+	
+	protected void unmarkDirty(AssessmentSessionAuditFileLog auditLog) {
+		dirtyLogs.remove(auditLog);
+	}
+	
+	protected int getNumOfDirtyLogs() {
+		return dirtyLogs.size();
+	}
+	
+	protected void flushAll() {
+		for(AssessmentSessionAuditFileLog auditLog:dirtyLogs) {
+			try {
+				dirtyLogs.remove(auditLog);
+				auditLog.flushBuffer();
+			} catch (Exception e) {
+				log.error("Cannot flush audit log", e);
+			}
+		}
+	}
+}
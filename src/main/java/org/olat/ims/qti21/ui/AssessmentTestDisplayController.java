@@ -62,6 +62,7 @@ import org.olat.core.id.Persistable;
 import org.olat.core.id.context.BusinessControlFactory;
 import org.olat.core.id.context.ContextEntry;
 import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.util.FileUtils;
 import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.UserSession;
@@ -369,6 +370,7 @@ public class AssessmentTestDisplayController extends BasicController implements
 		} else {
 			candidateSession = lastSession;
 			extraTime = lastSession.getExtraTime();
+			FileUtils.closeSafely(candidateAuditLogger);
 			candidateAuditLogger = qtiService.getAssessmentSessionAuditLogger(candidateSession, authorMode);
 			
 			lastEvent = new CandidateEvent(candidateSession, testEntry, entry);
@@ -394,6 +396,7 @@ public class AssessmentTestDisplayController extends BasicController implements
 	private void initNewAssessmentTestSession(UserRequest ureq, AssessmentEntry assessmentEntry, Integer compensationTime, boolean authorMode) {
 		candidateSession = qtiService.createAssessmentTestSession(assessedIdentity, anonymousIdentifier, assessmentEntry,
 				entry, subIdent, testEntry, compensationTime, authorMode);
+		FileUtils.closeSafely(candidateAuditLogger);
 		candidateAuditLogger = qtiService.getAssessmentSessionAuditLogger(candidateSession, authorMode);
 		testSessionController = enterSession(ureq);
 	}
@@ -440,6 +443,8 @@ public class AssessmentTestDisplayController extends BasicController implements
 			}
 		} catch (Exception e) {
 			logError("", e);
+		} finally {
+			FileUtils.closeSafely(candidateAuditLogger);
 		}
 	}
 	
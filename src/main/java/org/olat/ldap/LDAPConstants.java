@@ -24,5 +24,10 @@ public class LDAPConstants {
 	public static final String LDAP_USER_IDENTIFYER = "userID";
 
 	public static final String LDAP_USER_CREDENTIAL = "userPassword";
+	
+	// Active Directory update sequence numbers
+	public static final String USN_CHANGED = "uSNChanged";
+	public static final String HIGHEST_COMMITTED_USN = "highestCommittedUSN";
+	public static final String DS_SERVICE_NAME = "dsServiceName";
 
 }
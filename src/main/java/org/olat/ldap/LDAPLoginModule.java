@@ -153,6 +153,27 @@ public class LDAPLoginModule extends AbstractSpringModule {
 	private boolean ldapSyncCronSync;
 	@Value("${ldap.ldapSyncCronSyncExpression}")
 	private String ldapSyncCronSyncExpression;
+	/**
+	 * Interval in hours between two full synchronizations, the synchronizations
+	 * in between only load the users and groups changed since the last one.
+	 * 0 makes every synchronization a full one.
+	 */
+	@Value("${ldap.sync.full.interval:24}")
+	private int ldapSyncFullInterval;
+	/**
+	 * Margin in seconds subtracted from the start of the last synchronization
+	 * to compensate the clock differences and the replication delays.
+	 */
+	@Value("${ldap.sync.delta.margin:300}")
+	private int ldapSyncDeltaMargin;
+	/**
+	 * Use the uSNChanged of Active Directory instead of the timestamps to find
+	 * the changes. The update sequence numbers are specific to a domain controller.
+	 */
+	@Value("${ldap.sync.usn:false}")
+	private boolean ldapSyncWithUSN;
+	@Value("${ldap.sync.parallelism:4}")
+	private int ldapSyncParallelism;
 	// User LDAP attributes to be synced and a map with the mandatory attributes
 
 
@@ -502,6 +523,30 @@ public class LDAPLoginModule extends AbstractSpringModule {
 	public String getLdapSyncCronSyncExpression() {
 		return ldapSyncCronSyncExpression;
 	}
+
+	public int getLdapSyncFullInterval() {
+		return ldapSyncFullInterval;
+	}
+
+	public void setLdapSyncFullInterval(int ldapSyncFullInterval) {
+		this.ldapSyncFullInterval = ldapSyncFullInterval;
+	}
+
+	public int getLdapSyncDeltaMargin() {
+		return ldapSyncDeltaMargin;
+	}
+
+	public void setLdapSyncDeltaMargin(int ldapSyncDeltaMargin) {
+		this.ldapSyncDeltaMargin = ldapSyncDeltaMargin;
+	}
+
+	public boolean isLdapSyncWithUSN() {
+		return ldapSyncWithUSN;
+	}
+
+	public int getLdapSyncParallelism() {
+		return ldapSyncParallelism;
+	}
 	
 	public boolean isCreateUsersOnLogin() {
 		return createUsersOnLogin;
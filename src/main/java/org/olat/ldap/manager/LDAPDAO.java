@@ -82,7 +82,22 @@ public class LDAPDAO {
 	
 	
 	public List<LDAPGroup> searchGroups(LdapContext ctx, List<String> groupDNs) {
-		String filter = syncConfiguration.getLdapGroupFilter();
+		return searchGroupsModifiedSince(ctx, groupDNs, null, null);
+	}
+	
+	/**
+	 * Search the groups with their members, only the groups created or
+	 * modified since the specified date or update sequence number
+	 * if one is set.
+	 * 
+	 * @param ctx The LDAP context
+	 * @param groupDNs The bases of the groups
+	 * @param syncTime The date of the last synchronization or null
+	 * @param usn The update sequence number of the last synchronization or null
+	 * @return A list of groups
+	 */
+	public List<LDAPGroup> searchGroupsModifiedSince(LdapContext ctx, List<String> groupDNs, Date syncTime, Long usn) {
+		String filter = getModifiedSinceFilter(syncConfiguration.getLdapGroupFilter(), syncTime, usn);
 		List<LDAPGroup> ldapGroups = new ArrayList<>();
 		String[] groupAttributes = new String[]{"cn", "member"};
 		for(String groupDN:groupDNs) {
@@ -308,45 +323,102 @@ public class LDAPDAO {
 	 */
 
 	public List<LDAPUser> getUserAttributesModifiedSince(Date syncTime, LdapContext ctx) {
-		final boolean debug = log.isDebugEnabled();
-		String userFilter = syncConfiguration.getLdapUserFilter();
-		StringBuilder filter = new StringBuilder();
-		if (syncTime == null) {
-			if(debug)  log.debug("LDAP get user attribs since never -> full sync!");
-			if (userFilter != null) {
-				filter.append(userFilter);				
+		LDAPUserVisitor userVisitor = new LDAPUserVisitor(syncConfiguration);
+		searchUsersModifiedSince(syncTime, null, userVisitor, ctx);
+		return userVisitor.getLdapUserList();
+	}
+	
+	/**
+	 * Search the users created or modified since the specified date or update
+	 * sequence number. The results are given to the visitor page after page
+	 * as they come from the server.
+	 * 
+	 * @param syncTime The date of the last synchronization or null
+	 * @param usn The update sequence number of the last synchronization (Active Directory) or null
+	 * @param visitor The visitor
+	 * @param ctx The LDAP context
+	 */
+	public void searchUsersModifiedSince(Date syncTime, Long usn, LDAPVisitor visitor, LdapContext ctx) {
+		String filter = getModifiedSinceFilter(syncConfiguration.getLdapUserFilter(), syncTime, usn);
+		if(log.isDebugEnabled()) {
+			log.debug("LDAP get user attribs since {} / {} -> search with filter: {}", syncTime, usn, filter);
+		}
+
+		String[] userAttrs = getEnhancedUserAttributes();
+		CountingVisitor countingVisitor = new CountingVisitor(visitor);
+		long start = System.nanoTime();
+		log.info("Start loading users from LDAP server");
+		searchInLdap(countingVisitor, filter, userAttrs, ctx);
+		log.info("{} LDAP users retrieved in {}ms", countingVisitor.getCount(), CodeHelper.nanoToMilliTime(start));
+	}
+	
+	/**
+	 * Add the restriction to the entries changed since the last synchronization
+	 * to the specified filter.
+	 * 
+	 * @param filter The filter (optional)
+	 * @param syncTime The date of the last synchronization or null
+	 * @param usn The update sequence number or null
+	 * @return The filter
+	 */
+	protected String getModifiedSinceFilter(String filter, Date syncTime, Long usn) {
+		StringBuilder sb = new StringBuilder(128);
+		if(usn == null && syncTime == null) {
+			if(filter != null) {
+				sb.append(filter);
 			}
+			return sb.toString();
+		}
+		
+		if (filter != null) {
+			// merge filter with time filter using and rule
+			sb.append("(&").append(filter);				
+		}
+		if(usn != null) {
+			sb.append("(").append(LDAPConstants.USN_CHANGED).append(">=").append(usn.longValue()).append(")");
 		} else {
 			String dateFormat = ldapLoginModule.getLdapDateFormat();
 			SimpleDateFormat generalizedTimeFormatter = new SimpleDateFormat(dateFormat);
 			generalizedTimeFormatter.setTimeZone(UTC_TIME_ZONE);
 			String syncTimeForm = generalizedTimeFormatter.format(syncTime);
-			if(debug) log.debug("LDAP get user attribs since {} -> means search with date restriction-filter: {}", syncTime, syncTimeForm);
-			if (userFilter != null) {
-				// merge user filter with time fileter using and rule
-				filter.append("(&").append(userFilter);				
-			}
-			filter.append("(|(");								
-			filter.append(syncConfiguration.getLdapUserLastModifiedTimestampAttribute()).append(">=").append(syncTimeForm);
-			filter.append(")(");
-			filter.append(syncConfiguration.getLdapUserCreatedTimestampAttribute()).append(">=").append(syncTimeForm);
-			filter.append("))");
-			if (userFilter != null) {
-				filter.append(")");				
-			}
+			sb.append("(|(");								
+			sb.append(syncConfiguration.getLdapUserLastModifiedTimestampAttribute()).append(">=").append(syncTimeForm);
+			sb.append(")(");
+			sb.append(syncConfiguration.getLdapUserCreatedTimestampAttribute()).append(">=").append(syncTimeForm);
+			sb.append("))");
 		}
+		if (filter != null) {
+			sb.append(")");				
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Read an attribute of the root DSE of the server, for example the
+	 * highestCommittedUSN or the dsServiceName of Active Directory.
+	 * 
+	 * @param ctx The LDAP context
+	 * @param attributeName The name of the attribute
+	 * @return The value of the attribute or null if the server doesn't publish it
+	 */
+	public String getRootDSEAttribute(LdapContext ctx, String attributeName) {
+		try {
+			ctx.setRequestControls(null);
+			SearchControls ctl = new SearchControls();
+			ctl.setReturningAttributes(new String[]{ attributeName });
+			ctl.setSearchScope(SearchControls.OBJECT_SCOPE);
 
-		String[] userAttrs = getEnhancedUserAttributes();
-		LDAPUserVisitor userVisitor = new LDAPUserVisitor(syncConfiguration);
-		long start = System.nanoTime();
-		log.info("Start loading users from LDAP server");
-		searchInLdap(userVisitor, filter.toString(), userAttrs, ctx);
-		List<LDAPUser> ldapUserList = userVisitor.getLdapUserList();
-		if(debug) {
-			log.debug("attrib search returned {} results", ldapUserList.size());
+			NamingEnumeration<SearchResult> results = ctx.search("", "(objectClass=*)", ctl);
+			while(results.hasMore()) {
+				Attribute attr = results.next().getAttributes().get(attributeName);
+				if(attr != null && attr.get() != null) {
+					return attr.get().toString();
+				}
+			}
+		} catch (Exception e) {
+			log.error("Cannot read the attribute {} of the root DSE", attributeName, e);
 		}
-		log.info("{} LDAP users retrieved in {}ms", ldapUserList.size(), CodeHelper.nanoToMilliTime(start));
-		return ldapUserList;
+		return null;
 	}
 	
 	public String[] getEnhancedUserAttributes() {
@@ -432,6 +504,26 @@ public class LDAPDAO {
 		}
 	}
 
+	private static class CountingVisitor implements LDAPVisitor {
+		
+		private int count = 0;
+		private final LDAPVisitor delegate;
+		
+		public CountingVisitor(LDAPVisitor delegate) {
+			this.delegate = delegate;
+		}
+		
+		public int getCount() {
+			return count;
+		}
+
+		@Override
+		public void visit(SearchResult searchResult) throws NamingException {
+			delegate.visit(searchResult);
+			count++;
+		}
+	}
+
 	private int pageSize() {
 		Integer  pageSize = ldapLoginModule.getBatchSize();
 		return pageSize == null ? DEFAULT_PAGE_SIZE : pageSize.intValue();
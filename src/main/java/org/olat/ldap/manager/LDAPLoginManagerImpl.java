@@ -32,6 +32,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.naming.AuthenticationException;
@@ -70,6 +77,7 @@ import org.olat.core.id.RolesByOrganisation;
 import org.olat.core.id.User;
 import org.olat.core.id.UserConstants;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.Encoder;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.WorkThreadInformations;
 import org.olat.core.util.coordinate.Coordinator;
@@ -90,12 +98,15 @@ import org.olat.ldap.LDAPLoginManager;
 import org.olat.ldap.LDAPLoginModule;
 import org.olat.ldap.LDAPSyncConfiguration;
 import org.olat.ldap.model.LDAPGroup;
+import org.olat.ldap.model.LDAPSyncMark;
 import org.olat.ldap.model.LDAPUser;
 import org.olat.ldap.model.LDAPValidationResult;
 import org.olat.ldap.ui.LDAPAuthenticationController;
 import org.olat.login.auth.AuthenticationProviderSPI;
 import org.olat.login.auth.OLATAuthManager;
 import org.olat.login.validation.ValidationResult;
+import org.olat.properties.Property;
+import org.olat.properties.PropertyManager;
 import org.olat.user.UserLifecycleManager;
 import org.olat.user.UserManager;
 import org.olat.user.UserModule;
@@ -114,8 +125,11 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 	private static final Logger log = Tracing.createLoggerFor(LDAPLoginManagerImpl.class);
 
 	private static final String TIMEOUT_KEY = "com.sun.jndi.ldap.connect.timeout";
+	private static final String SYNC_MARK_CATEGORY = "LDAP";
+	private static final String SYNC_MARK_NAME = "sync.mark";
+	private static final int SYNC_BATCH_SIZE = 20;
 	private static boolean batchSyncIsRunning = false;
-	private static Date lastSyncDate = null; // first sync is always a full sync
+	private static Date lastSyncDate = null;
 	
 	private Coordinator coordinator;
 	private TaskExecutorManager taskExecutorManager;
@@ -141,6 +155,8 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 	@Autowired
 	private LDAPSyncConfiguration syncConfiguration;
 	@Autowired
+	private PropertyManager propertyManager;
+	@Autowired
 	private UserLifecycleManager userLifecycleManager;
 	@Autowired
 	private BusinessGroupService businessGroupService;
@@ -505,6 +521,23 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 	 */
 	@Override
 	public Identity syncUser(Map<String, String> olatPropertyMap, IdentityRef identityRef) {
+		Identity identity = syncUserProperties(olatPropertyMap, identityRef);
+		if(identity != null) {
+			dbInstance.commit();
+			// check WebDAV authentication
+			CoreSpringFactory.getImpl(OLATAuthManager.class).synchronizeCredentials(identity, identity);
+		}
+		return identity;
+	}
+	
+	/**
+	 * Update the properties of the user without committing the transaction.
+	 * 
+	 * @param olatPropertyMap Map of changed OLAT properties
+	 * @param identityRef Identity to sync
+	 * @return The updated identity
+	 */
+	private Identity syncUserProperties(Map<String, String> olatPropertyMap, IdentityRef identityRef) {
 		if (identityRef == null) {
 			log.warn("Identiy is null - should not happen");
 			return null;
@@ -546,10 +579,6 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 			}
 		}
 		userManager.updateUser(user);
-		dbInstance.commit();
-		
-		// check WebDAV authentication
-		CoreSpringFactory.getImpl(OLATAuthManager.class).synchronizeCredentials(identity, identity);
 		return identity;
 	}
 
@@ -1025,8 +1054,6 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 		
 		coordinator.getEventBus().fireEventToListenersOf(new LDAPEvent(LDAPEvent.SYNCHING), ldapSyncLockOres);
 		
-		lastSyncDate = null;
-		
 		LdapContext ctx = null;
 		boolean success = false;
 		try {
@@ -1039,29 +1066,63 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 				freeSyncLock();
 				return success;
 			}
+			// Get time before sync to have a save sync time when sync is successful
 			Date timeBeforeSync = new Date();
+			
+			// the update sequence numbers are read before the sync too
+			Long usn = null;
+			String server = null;
+			if(ldapLoginModule.isLdapSyncWithUSN()) {
+				server = ldapDao.getRootDSEAttribute(ctx, LDAPConstants.DS_SERVICE_NAME);
+				usn = toLong(ldapDao.getRootDSEAttribute(ctx, LDAPConstants.HIGHEST_COMMITTED_USN));
+				if(usn == null) {
+					log.warn("LDAP batch sync: the server doesn't publish the {}, use the timestamps", LDAPConstants.HIGHEST_COMMITTED_USN);
+				}
+			}
 
-			//check server capabilities
-			// Get time before sync to have a save sync time when sync is successful
-			String sinceSentence = (lastSyncDate == null ? "" : " since last sync from " + lastSyncDate);
-			if (ldapLoginModule.isDeleteRemovedLDAPUsersOnSync()) {
+			String configuration = getSyncConfigurationFingerprint();
+			LDAPSyncMark lastMark = loadSyncMark();
+			boolean delta = lastMark != null && lastMark.isDeltaPossible(configuration, server, usn != null,
+					timeBeforeSync, ldapLoginModule.getLdapSyncFullInterval());
+			
+			Date modifiedSince = null;
+			Long modifiedSinceUsn = null;
+			String sinceSentence = "";
+			if(delta) {
+				if(usn != null) {
+					modifiedSinceUsn = lastMark.getUsn();
+					sinceSentence = " since last sync with USN " + modifiedSinceUsn;
+				} else {
+					modifiedSince = lastMark.getModifiedSince(ldapLoginModule.getLdapSyncDeltaMargin());
+					sinceSentence = " since last sync from " + modifiedSince;
+				}
+			}
+			log.info(Tracing.M_AUDIT, "LDAP batch sync started: {}{}", (delta ? "changes" : "full"), sinceSentence);
+
+			// the deleted users can only be found by a full sync
+			if (!delta && ldapLoginModule.isDeleteRemovedLDAPUsersOnSync()) {
 				doBatchSyncDeletedUsers(ctx, sinceSentence);
-				// bind again to use an initial unmodified context. lookup of server-properties might fail otherwise!
-				ctx.close();
-				ctx = bindSystem();
 			}
 			
-			Map<String,LDAPUser> dnToIdentityKeyMap = new HashMap<>();
-			List<LDAPUser> ldapUsers = doBatchSyncNewAndModifiedUsers(ctx, sinceSentence, dnToIdentityKeyMap, errors);
-			ctx.close();
-			ctx = bindSystem();
+			Map<String,LDAPUser> dnToIdentityKeyMap = new ConcurrentHashMap<>();
+			UserSyncPipeline pipeline = new UserSyncPipeline(dnToIdentityKeyMap, errors);
+			List<LDAPUser> ldapUsers = doBatchSyncNewAndModifiedUsers(ctx, modifiedSince, modifiedSinceUsn, sinceSentence, pipeline);
 			//sync groups by LDAP groups or attributes
-			doBatchSyncGroups(ctx, ldapUsers, dnToIdentityKeyMap, errors);
+			doBatchSyncGroups(ctx, ldapUsers, modifiedSince, modifiedSinceUsn, dnToIdentityKeyMap, errors);
 			//sync roles
-			doBatchSyncRoles(ctx, ldapUsers, dnToIdentityKeyMap, errors);
+			doBatchSyncRoles(ctx, ldapUsers, modifiedSince, modifiedSinceUsn, dnToIdentityKeyMap, errors);
 			
 			// update sync time and set running flag
 			lastSyncDate = timeBeforeSync;
+			LDAPSyncMark mark;
+			if(delta && pipeline.getFailed() > 0) {
+				// retry the users which failed with the next sync
+				mark = lastMark;
+			} else {
+				Date lastFullSync = delta ? lastMark.getLastFullSync() : timeBeforeSync;
+				mark = new LDAPSyncMark(timeBeforeSync, lastFullSync, usn, server, configuration);
+			}
+			saveSyncMark(mark);
 			
 			ctx.close();
 			success = true;
@@ -1091,42 +1152,48 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 		}
 	}
 	
-	private void doBatchSyncRoles(LdapContext ctx, List<LDAPUser> ldapUsers, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors)
+	/**
+	 * Add the roles to the users. If a date or an update sequence number is set, only
+	 * the LDAP groups changed since are loaded. The roles are never removed,
+	 * the members of the groups which didn't change have already their role.
+	 */
+	private void doBatchSyncRoles(LdapContext ctx, List<LDAPUser> ldapUsers, Date modifiedSince, Long modifiedSinceUsn,
+			Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors)
 	throws NamingException {
-		ctx.close();
-		ctx = bindSystem();
+		// the paged search leaves its control on the context
+		ctx.setRequestControls(null);
 		
 		List<Organisation> organisations = organisationDao.loadDefaultOrganisation();
 		Organisation organisation = organisations.get(0);
 		
 		//authors
 		if(syncConfiguration.getAuthorsGroupBase() != null && !syncConfiguration.getAuthorsGroupBase().isEmpty()) {
-			List<LDAPGroup> authorGroups = ldapDao.searchGroups(ctx, syncConfiguration.getAuthorsGroupBase());
+			List<LDAPGroup> authorGroups = ldapDao.searchGroupsModifiedSince(ctx, syncConfiguration.getAuthorsGroupBase(), modifiedSince, modifiedSinceUsn);
 			syncRole(ctx, authorGroups, organisation, OrganisationRoles.author, dnToIdentityKeyMap, errors);
 		}
 		//user managers
 		if(syncConfiguration.getUserManagersGroupBase() != null && !syncConfiguration.getUserManagersGroupBase().isEmpty()) {
-			List<LDAPGroup> userManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getUserManagersGroupBase());
+			List<LDAPGroup> userManagerGroups = ldapDao.searchGroupsModifiedSince(ctx, syncConfiguration.getUserManagersGroupBase(), modifiedSince, modifiedSinceUsn);
 			syncRole(ctx, userManagerGroups, organisation, OrganisationRoles.usermanager, dnToIdentityKeyMap, errors);
 		}
 		//group managers
 		if(syncConfiguration.getGroupManagersGroupBase() != null && !syncConfiguration.getGroupManagersGroupBase().isEmpty()) {
-			List<LDAPGroup> groupManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getGroupManagersGroupBase());
+			List<LDAPGroup> groupManagerGroups = ldapDao.searchGroupsModifiedSince(ctx, syncConfiguration.getGroupManagersGroupBase(), modifiedSince, modifiedSinceUsn);
 			syncRole(ctx, groupManagerGroups, organisation, OrganisationRoles.groupmanager, dnToIdentityKeyMap, errors);
 		}
 		//question pool managers
 		if(syncConfiguration.getQpoolManagersGroupBase() != null && !syncConfiguration.getQpoolManagersGroupBase().isEmpty()) {
-			List<LDAPGroup> qpoolManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getQpoolManagersGroupBase());
+			List<LDAPGroup> qpoolManagerGroups = ldapDao.searchGroupsModifiedSince(ctx, syncConfiguration.getQpoolManagersGroupBase(), modifiedSince, modifiedSinceUsn);
 			syncRole(ctx, qpoolManagerGroups, organisation, OrganisationRoles.poolmanager, dnToIdentityKeyMap, errors);
 		}
 		//curriculum managers
 		if(syncConfiguration.getCurriculumManagersGroupBase() != null && !syncConfiguration.getCurriculumManagersGroupBase().isEmpty()) {
-			List<LDAPGroup> curriculumManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getCurriculumManagersGroupBase());
+			List<LDAPGroup> curriculumManagerGroups = ldapDao.searchGroupsModifiedSince(ctx, syncConfiguration.getCurriculumManagersGroupBase(), modifiedSince, modifiedSinceUsn);
 			syncRole(ctx, curriculumManagerGroups, organisation, OrganisationRoles.curriculummanager, dnToIdentityKeyMap, errors);
 		}
 		//learning resource manager
 		if(syncConfiguration.getLearningResourceManagersGroupBase() != null && !syncConfiguration.getLearningResourceManagersGroupBase().isEmpty()) {
-			List<LDAPGroup> resourceManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getLearningResourceManagersGroupBase());
+			List<LDAPGroup> resourceManagerGroups = ldapDao.searchGroupsModifiedSince(ctx, syncConfiguration.getLearningResourceManagersGroupBase(), modifiedSince, modifiedSinceUsn);
 			syncRole(ctx, resourceManagerGroups, organisation, OrganisationRoles.learnresourcemanager, dnToIdentityKeyMap, errors);
 		}
 
@@ -1293,130 +1360,98 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 		dbInstance.commitAndCloseSession();
 	}
 	
-	private List<LDAPUser> doBatchSyncNewAndModifiedUsers(LdapContext ctx, String sinceSentence, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors) {
-		// Get new and modified users from LDAP
-		int count = 0;
-		List<LDAPUser> ldapUserList = ldapDao.getUserAttributesModifiedSince(lastSyncDate, ctx);
+	/**
+	 * The users are given to the pipeline as they come, page after page, from the
+	 * LDAP server. The pipeline creates and updates them in parallel.
+	 * 
+	 * @return The list of new and modified users
+	 */
+	private List<LDAPUser> doBatchSyncNewAndModifiedUsers(LdapContext ctx, Date modifiedSince, Long modifiedSinceUsn,
+			String sinceSentence, UserSyncPipeline pipeline) {
+		LDAPUserVisitor userVisitor = new LDAPUserVisitor(syncConfiguration, pipeline);
+		try {
+			ctx.setRequestControls(null);
+			ldapDao.searchUsersModifiedSince(modifiedSince, modifiedSinceUsn, userVisitor, ctx);
+		} catch (NamingException e) {
+			log.error("", e);
+		} finally {
+			pipeline.finish();
+		}
 		
-		// Check for new and modified users
-		List<LDAPUser> newLdapUserList = new ArrayList<>();
-		Map<IdentityRef, Map<String, String>> changedMapIdentityMap = new HashMap<>();
-		for (LDAPUser ldapUser: ldapUserList) {
-			String user = null;
-			try {
-				Attributes userAttrs = ldapUser.getAttributes();
-				String uidProp = syncConfiguration.getOlatPropertyToLdapAttribute(LDAPConstants.LDAP_USER_IDENTIFYER);
-				user = getAttributeValue(userAttrs.get(uidProp));
-				Identity identity = findIdentityByLdapAuthentication(userAttrs, errors);
-				if (identity != null) {
-					Map<String, String> changedAttrMap = prepareUserPropertyForSync(userAttrs, identity);
-					if (changedAttrMap != null) {
-						changedMapIdentityMap.put(identity, changedAttrMap);
-					}
-					if(StringHelper.containsNonWhitespace(ldapUser.getDn())) {
-						dnToIdentityKeyMap.put(ldapUser.getDn(), ldapUser);
-						ldapUser.setCachedIdentity(new IdentityRefImpl(identity.getKey()));
-					}
-				} else if (errors.isEmpty()) {
-					List<String> reqAttrs = syncConfiguration.checkRequestAttributes(userAttrs, userModule.isEmailMandatory());
-					if (reqAttrs.isEmpty()) {
-						newLdapUserList.add(ldapUser);
-					} else {
-						log.warn("LDAP batch sync: can't create user with username::{} : missing required attributes::{}", user, reqAttrs);
-					}
-				} else {
-					log.warn(errors.get());
-				}
-			} catch (Exception e) {
-				// catch here to go on with other users on exceptions!
-				log.error("some error occured in looping over set of changed user-attributes, actual user {}. Will still continue with others.", user, e);
-				errors.insert("Cannot sync user: " + user);
-			} finally {
-				dbInstance.commit();
-				if(count % 10 == 0) {
-					dbInstance.closeSession();
-				}
+		List<LDAPUser> ldapUserList = userVisitor.getLdapUserList();
+		log.info("LDAP batch sync: {} users synced, {} users created, {} users failed of {} {}", pipeline.getUpdated(),
+				pipeline.getCreated(), pipeline.getFailed(), ldapUserList.size(), sinceSentence);
+		return ldapUserList;
+	}
+	
+	/**
+	 * Find the identity of the LDAP user, update it or create it.
+	 * The transaction is not committed.
+	 * 
+	 * @param ldapUser The user
+	 * @param dnToIdentityKeyMap The map to cache the identity
+	 * @return What was done with the user
+	 */
+	private SyncOutcome syncNewOrModifiedUser(LDAPUser ldapUser, Map<String,LDAPUser> dnToIdentityKeyMap) {
+		Attributes userAttrs = ldapUser.getAttributes();
+		LDAPError userErrors = new LDAPError();
+		Identity identity = findIdentityByLdapAuthentication(userAttrs, userErrors);
+		
+		SyncOutcome outcome = SyncOutcome.unchanged;
+		if (identity != null) {
+			Map<String, String> changedAttrMap = prepareUserPropertyForSync(userAttrs, identity);
+			if (changedAttrMap != null) {
+				identity = syncUserProperties(changedAttrMap, identity);
+				// check WebDAV authentication
+				CoreSpringFactory.getImpl(OLATAuthManager.class).synchronizeCredentials(identity, identity);
+				outcome = SyncOutcome.updated;
 			}
-			if(count % 1000 == 0) {
-				log.info("Retrieve {}/{} users in LDAP server", count, ldapUserList.size());
+		} else if (userErrors.isEmpty()) {
+			List<String> reqAttrs = syncConfiguration.checkRequestAttributes(userAttrs, userModule.isEmailMandatory());
+			if (reqAttrs.isEmpty()) {
+				identity = createAndPersistUser(userAttrs);
+				outcome = identity == null ? SyncOutcome.skipped : SyncOutcome.created;
+			} else {
+				String uidProp = syncConfiguration.getOlatPropertyToLdapAttribute(LDAPConstants.LDAP_USER_IDENTIFYER);
+				log.warn("LDAP batch sync: can't create user with username::{} : missing required attributes::{}",
+						getAttributeValue(userAttrs.get(uidProp)), reqAttrs);
+				outcome = SyncOutcome.skipped;
 			}
-			count++;
-		}
-		
-		// sync existing users
-		if (changedMapIdentityMap == null || changedMapIdentityMap.isEmpty()) {
-			log.info("LDAP batch sync: no users to sync {}", sinceSentence);
 		} else {
-			int syncCount = 0;
-			for (IdentityRef ident : changedMapIdentityMap.keySet()) {
-				// sync user is exception save, no try/catch needed
-				try {
-					syncCount++;
-					syncUser(changedMapIdentityMap.get(ident), ident);
-				} catch (Exception e) {
-					errors.insert("Cannot sync user: " + ident);
-				} finally {
-					dbInstance.commit();
-					if(syncCount % 20 == 0) {
-						dbInstance.closeSession();
-					}
-				}
-				if(syncCount % 1000 == 0) {
-					log.info("Update {}/{} LDAP users", syncCount, changedMapIdentityMap.size());
-				}
-			}
-			log.info("LDAP batch sync: {} users synced {}", changedMapIdentityMap.size(), sinceSentence);
+			log.warn(userErrors.get());
+			outcome = SyncOutcome.skipped;
 		}
 		
-		// create new users
-		if (newLdapUserList.isEmpty()) {
-			log.info("LDAP batch sync: no users to create {}", sinceSentence);
-		} else {			
-			int newCount = 0;
-			for (LDAPUser ldapUser: newLdapUserList) {
-				Attributes userAttrs = ldapUser.getAttributes();
-				try {
-					newCount++;
-					Identity identity = createAndPersistUser(userAttrs);
-					if(identity != null && StringHelper.containsNonWhitespace(ldapUser.getDn())) {
-						dnToIdentityKeyMap.put(ldapUser.getDn(), ldapUser);
-						ldapUser.setCachedIdentity(new IdentityRefImpl(identity.getKey()));
-					}
-				} catch (Exception e) {
-					// catch here to go on with other users on exeptions!
-					log.error("some error occured while creating new users, actual userAttribs {}. Will still continue with others.", userAttrs, e);
-				} finally {
-					dbInstance.commit();
-					if(newCount % 20 == 0) {
-						dbInstance.closeSession();
-					}
-				}
-				
-				if(newCount % 1000 == 0) {
-					log.info("Create {}/{} LDAP users", count, newLdapUserList.size());
-				}
-			}
-			log.info("LDAP batch sync: {} users created {}", newLdapUserList.size(), sinceSentence);
+		if(identity != null && StringHelper.containsNonWhitespace(ldapUser.getDn())) {
+			dnToIdentityKeyMap.put(ldapUser.getDn(), ldapUser);
+			ldapUser.setCachedIdentity(new IdentityRefImpl(identity.getKey()));
 		}
-
-		dbInstance.commitAndCloseSession();
-		return ldapUserList;
+		return outcome;
 	}
 	
-	private void doBatchSyncGroups(LdapContext ctx, List<LDAPUser> ldapUsers, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors)
+	/**
+	 * Synchronize the groups. If a date or an update sequence number is set,
+	 * only the LDAP groups changed since are loaded, and the groups built with
+	 * the attributes only know the users changed since. In this case, the members
+	 * of the groups are only removed if the groups are not built with the attributes.
+	 */
+	private void doBatchSyncGroups(LdapContext ctx, List<LDAPUser> ldapUsers, Date modifiedSince, Long modifiedSinceUsn,
+			Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors)
 	throws NamingException {
-		ctx.close();
+		// the paged search leaves its control on the context
+		ctx.setRequestControls(null);
 		
 		log.info("LDAP batch sync LDAP user to OO groups");
-		
-		ctx = bindSystem();
+
 		//sync groups by LDAP groups or attributes
 		Map<String,LDAPGroup> cnToGroupMap = new HashMap<>();
+		boolean delta = modifiedSince != null || modifiedSinceUsn != null;
+		boolean removeMembers = !delta || !syncConfiguration.syncGroupWithAttribute();
 		
 		// retrieve all ldap group's with their list of members
 		if(syncConfiguration.syncGroupWithLDAPGroup()) {
 			List<String> groupDNs = syncConfiguration.getLdapGroupBases();
-			List<LDAPGroup> ldapGroups = ldapDao.searchGroups(ctx, groupDNs);
+			List<LDAPGroup> ldapGroups = ldapDao.searchGroupsModifiedSince(ctx, groupDNs, modifiedSince, modifiedSinceUsn);
 			for(LDAPGroup ldapGroup:ldapGroups) {
 				cnToGroupMap.put(ldapGroup.getCommonName(), ldapGroup);
 			}
@@ -1432,7 +1467,7 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 			for(LDAPGroup group:cnToGroupMap.values()) {
 				BusinessGroup managedGroup = getManagerBusinessGroup(group.getCommonName());
 				if(managedGroup != null) {
-					syncBusinessGroup(ctx, managedGroup, group, dnToIdentityKeyMap, excludedMembers, errors);
+					syncBusinessGroup(ctx, managedGroup, group, dnToIdentityKeyMap, excludedMembers, removeMembers, errors);
 				}
 				dbInstance.commitAndCloseSession();
 				if(syncGroupCount % 100 == 0) {
@@ -1475,7 +1510,7 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 	}
 	
 	private void syncBusinessGroup(LdapContext ctx, BusinessGroup businessGroup, LDAPGroup ldapGroup,
-			Map<String,LDAPUser> dnToIdentityKeyMap, Set<String> excludes, LDAPError errors) {
+			Map<String,LDAPUser> dnToIdentityKeyMap, Set<String> excludes, boolean removeMembers, LDAPError errors) {
 		List<Identity> currentMembers = businessGroupRelationDao
 				.getMembers(businessGroup, GroupRoles.coach.name(), GroupRoles.participant.name());
 		Set<Long> currentMemberKeys = new HashSet<>();
@@ -1543,17 +1578,19 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 			count++;
 		}
 		
-		for(Long currentMemberKey:currentMemberKeys) {
-			Identity currentMember = securityManager.loadIdentityByKey(currentMemberKey);
-			List<String> roles = businessGroupRelationDao.getRoles(currentMember, businessGroup);
-			for(String role:roles) {
-				businessGroupRelationDao.removeRole(currentMember, businessGroup, role);
-			}
-			
-			if(count % 20 == 0) {
-				dbInstance.commitAndCloseSession();
+		if(removeMembers) {
+			for(Long currentMemberKey:currentMemberKeys) {
+				Identity currentMember = securityManager.loadIdentityByKey(currentMemberKey);
+				List<String> roles = businessGroupRelationDao.getRoles(currentMember, businessGroup);
+				for(String role:roles) {
+					businessGroupRelationDao.removeRole(currentMember, businessGroup, role);
+				}
+				
+				if(count % 20 == 0) {
+					dbInstance.commitAndCloseSession();
+				}
+				count++;
 			}
-			count++;
 		}
 		dbInstance.commitAndCloseSession();
 	}
@@ -1658,6 +1695,79 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 		}
 	}
 
+	private LDAPSyncMark loadSyncMark() {
+		Property property = propertyManager.findProperty(null, null, null, SYNC_MARK_CATEGORY, SYNC_MARK_NAME);
+		return property == null ? null : LDAPSyncMark.valueOf(property.getTextValue());
+	}
+	
+	private void saveSyncMark(LDAPSyncMark mark) {
+		if(mark == null) return;
+		
+		Property property = propertyManager.findProperty(null, null, null, SYNC_MARK_CATEGORY, SYNC_MARK_NAME);
+		if(property == null) {
+			property = propertyManager.createPropertyInstance(null, null, null, SYNC_MARK_CATEGORY, SYNC_MARK_NAME, null, null, null, mark.toText());
+			propertyManager.saveProperty(property);
+		} else {
+			property.setTextValue(mark.toText());
+			propertyManager.updateProperty(property);
+		}
+		dbInstance.commitAndCloseSession();
+	}
+	
+	/**
+	 * A change of these settings can change the users, groups and roles
+	 * of all users and needs a full synchronization.
+	 * 
+	 * @return A fingerprint of the settings of the synchronization
+	 */
+	private String getSyncConfigurationFingerprint() {
+		StringBuilder sb = new StringBuilder(2048);
+		sb.append(ldapLoginModule.isLdapSyncWithUSN()).append(';')
+		  .append(syncConfiguration.getLdapBases()).append(';')
+		  .append(syncConfiguration.getLdapUserFilter()).append(';')
+		  .append(syncConfiguration.getLdapUserCreatedTimestampAttribute()).append(';')
+		  .append(syncConfiguration.getLdapUserLastModifiedTimestampAttribute()).append(';')
+		  .append(Arrays.toString(syncConfiguration.getUserAttributes())).append(';')
+		  .append(toSortedString(syncConfiguration.getUserAttributeMap())).append(';')
+		  .append(toSortedString(syncConfiguration.getStaticUserProperties())).append(';')
+		  .append(syncConfiguration.getLdapGroupBases()).append(';')
+		  .append(syncConfiguration.getLdapGroupFilter()).append(';')
+		  .append(syncConfiguration.getGroupAttribute()).append(';')
+		  .append(syncConfiguration.getGroupAttributeSeparator()).append(';')
+		  .append(syncConfiguration.getCoachedGroupAttribute()).append(';')
+		  .append(syncConfiguration.getCoachedGroupAttributeSeparator()).append(';')
+		  .append(syncConfiguration.getCoachRoleAttribute()).append(';')
+		  .append(syncConfiguration.getCoachRoleValue()).append(';')
+		  .append(syncConfiguration.isGroupCoachParticipant()).append(';')
+		  .append(syncConfiguration.getAuthorsGroupBase()).append(';')
+		  .append(syncConfiguration.getAuthorRoleAttribute()).append(';')
+		  .append(syncConfiguration.getAuthorRoleValue()).append(';')
+		  .append(syncConfiguration.getUserManagersGroupBase()).append(';')
+		  .append(syncConfiguration.getUserManagerRoleAttribute()).append(';')
+		  .append(syncConfiguration.getUserManagerRoleValue()).append(';')
+		  .append(syncConfiguration.getGroupManagersGroupBase()).append(';')
+		  .append(syncConfiguration.getGroupManagerRoleAttribute()).append(';')
+		  .append(syncConfiguration.getGroupManagerRoleValue()).append(';')
+		  .append(syncConfiguration.getQpoolManagersGroupBase()).append(';')
+		  .append(syncConfiguration.getQpoolManagerRoleAttribute()).append(';')
+		  .append(syncConfiguration.getQpoolManagerRoleValue()).append(';')
+		  .append(syncConfiguration.getCurriculumManagersGroupBase()).append(';')
+		  .append(syncConfiguration.getCurriculumManagerRoleAttribute()).append(';')
+		  .append(syncConfiguration.getCurriculumManagerRoleValue()).append(';')
+		  .append(syncConfiguration.getLearningResourceManagersGroupBase()).append(';')
+		  .append(syncConfiguration.getLearningResourceManagerRoleAttribute()).append(';')
+		  .append(syncConfiguration.getLearningResourceManagerRoleValue());
+		return Encoder.md5hash(sb.toString());
+	}
+	
+	private static String toSortedString(Map<String,String> map) {
+		return map == null ? "null" : new TreeMap<>(map).toString();
+	}
+	
+	private static Long toLong(String value) {
+		return StringHelper.isLong(value) ? Long.valueOf(value) : null;
+	}
+
 	@Override
 	public Date getLastSyncDate() {
 		return lastSyncDate;
@@ -1729,4 +1839,139 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, AuthenticationPro
 	public boolean isIdentityInLDAPSecGroup(Identity ident) {
 		return authenticationDao.hasAuthentication(ident, LDAPAuthenticationController.PROVIDER_LDAP);
 	}
+
+	private enum SyncOutcome {
+		unchanged,
+		updated,
+		created,
+		skipped
+	}
+	
+	/**
+	 * Create and update the users in batches of {@value #SYNC_BATCH_SIZE} on a
+	 * bounded pool of threads. Every batch is committed in one transaction, if it
+	 * fails, the users of the batch are retried one by one. If all the threads are
+	 * busy and the queue is full, the thread which searches the LDAP server processes
+	 * the batch itself, which slows the search down.
+	 */
+	private class UserSyncPipeline implements Consumer<LDAPUser> {
+		
+		private final LDAPError errors;
+		private final Map<String,LDAPUser> dnToIdentityKeyMap;
+		private final ThreadPoolExecutor workers;
+		
+		private final AtomicInteger count = new AtomicInteger();
+		private final AtomicInteger updated = new AtomicInteger();
+		private final AtomicInteger created = new AtomicInteger();
+		private final AtomicInteger failed = new AtomicInteger();
+		
+		private List<LDAPUser> batch = new ArrayList<>(SYNC_BATCH_SIZE);
+		
+		public UserSyncPipeline(Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors) {
+			this.errors = errors;
+			this.dnToIdentityKeyMap = dnToIdentityKeyMap;
+			
+			int parallelism = Math.max(1, ldapLoginModule.getLdapSyncParallelism());
+			AtomicInteger threadCount = new AtomicInteger();
+			workers = new ThreadPoolExecutor(parallelism, parallelism, 0l, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(parallelism * 2), r -> {
+						Thread thread = new Thread(r, "LDAP-Sync-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}, new ThreadPoolExecutor.CallerRunsPolicy());
+		}
+		
+		public int getUpdated() {
+			return updated.get();
+		}
+		
+		public int getCreated() {
+			return created.get();
+		}
+		
+		public int getFailed() {
+			return failed.get();
+		}
+
+		@Override
+		public void accept(LDAPUser ldapUser) {
+			batch.add(ldapUser);
+			if(batch.size() >= SYNC_BATCH_SIZE) {
+				submit();
+			}
+		}
+		
+		private void submit() {
+			if(!batch.isEmpty()) {
+				List<LDAPUser> users = batch;
+				batch = new ArrayList<>(SYNC_BATCH_SIZE);
+				workers.execute(() -> syncBatch(users));
+			}
+		}
+		
+		/**
+		 * Submit the last batch and wait until all the users are processed.
+		 */
+		public void finish() {
+			submit();
+			workers.shutdown();
+			try {
+				while(!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+					log.info("LDAP batch sync: wait the creation and update of the users, {} done", count.get());
+				}
+			} catch (InterruptedException e) {
+				log.warn("LDAP batch sync interrupted");
+				workers.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		private void syncBatch(List<LDAPUser> users) {
+			try {
+				List<SyncOutcome> outcomes = new ArrayList<>(users.size());
+				for(LDAPUser ldapUser:users) {
+					outcomes.add(syncNewOrModifiedUser(ldapUser, dnToIdentityKeyMap));
+				}
+				dbInstance.commitAndCloseSession();
+				outcomes.forEach(this::count);
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				log.warn("LDAP batch sync: a batch of {} users failed, retry user by user", users.size(), e);
+				for(LDAPUser ldapUser:users) {
+					syncSingle(ldapUser);
+				}
+			}
+		}
+		
+		private void syncSingle(LDAPUser ldapUser) {
+			try {
+				ldapUser.setCachedIdentity(null);
+				SyncOutcome outcome = syncNewOrModifiedUser(ldapUser, dnToIdentityKeyMap);
+				dbInstance.commitAndCloseSession();
+				count(outcome);
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				ldapUser.setCachedIdentity(null);
+				failed.incrementAndGet();
+				count(SyncOutcome.skipped);
+				// catch here to go on with other users on exceptions!
+				log.error("some error occured in looping over set of changed user-attributes, actual user {}. Will still continue with others.", ldapUser.getDn(), e);
+				synchronized(errors) {
+					errors.insert("Cannot sync user: " + ldapUser.getDn());
+				}
+			}
+		}
+		
+		private void count(SyncOutcome outcome) {
+			if(outcome == SyncOutcome.updated) {
+				updated.incrementAndGet();
+			} else if(outcome == SyncOutcome.created) {
+				created.incrementAndGet();
+			}
+			int done = count.incrementAndGet();
+			if(done % 1000 == 0) {
+				log.info("LDAP batch sync: {} users processed", done);
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ package org.olat.ldap.manager;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
@@ -46,10 +47,20 @@ public class LDAPUserVisitor implements LDAPVisitor {
 	private static final Logger log = Tracing.createLoggerFor(LDAPUserVisitor.class);
 	
 	private final LDAPSyncConfiguration syncConfiguration;
+	private final Consumer<LDAPUser> consumer;
 	private final List<LDAPUser> ldapUserList = new ArrayList<>();
 	
 	public LDAPUserVisitor(LDAPSyncConfiguration syncConfiguration) {
+		this(syncConfiguration, null);
+	}
+	
+	/**
+	 * @param syncConfiguration The configuration
+	 * @param consumer Receives every user as soon as it's visited (optional)
+	 */
+	public LDAPUserVisitor(LDAPSyncConfiguration syncConfiguration, Consumer<LDAPUser> consumer) {
 		this.syncConfiguration = syncConfiguration;
+		this.consumer = consumer;
 	}
 	
 	public List<LDAPUser> getLdapUserList() {
@@ -78,6 +89,9 @@ public class LDAPUserVisitor implements LDAPVisitor {
 		ldapUser.setCoachedGroupIds(coachedGroupList);
 		
 		ldapUserList.add(ldapUser);
+		if(consumer != null) {
+			consumer.accept(ldapUser);
+		}
 	}
 	
 	private List<String> parseGroupList(Attributes resAttribs, String attributeName, String attributeSeparator) {
@@ -0,0 +1,161 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ldap.model;
+
+import java.util.Date;
+import java.util.Objects;
+
+import org.olat.core.util.StringHelper;
+
+/**
+ * The high-water mark of the last successful synchronization with the
+ * LDAP server. The synchronizations which follow only load the entries
+ * changed since the mark: their timestamps are compared to the start of
+ * the last synchronization, or, with Active Directory, their uSNChanged
+ * to the highest committed update sequence number of the domain controller.<br>
+ * A full synchronization is needed if the settings of the synchronization
+ * changed, if the domain controller is not the same, or if the last full
+ * synchronization is too old.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LDAPSyncMark {
+	
+	private static final String SEPARATOR = "|";
+	
+	private final Date lastSync;
+	private final Date lastFullSync;
+	private final Long usn;
+	private final String server;
+	private final String configuration;
+	
+	public LDAPSyncMark(Date lastSync, Date lastFullSync, Long usn, String server, String configuration) {
+		this.lastSync = lastSync;
+		this.lastFullSync = lastFullSync;
+		this.usn = usn;
+		this.server = server;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * @return The start of the last synchronization (time of the OpenOLAT server)
+	 */
+	public Date getLastSync() {
+		return lastSync;
+	}
+
+	public Date getLastFullSync() {
+		return lastFullSync;
+	}
+
+	/**
+	 * @return The highest committed update sequence number at the start of the
+	 * 		last synchronization (Active Directory only)
+	 */
+	public Long getUsn() {
+		return usn;
+	}
+
+	/**
+	 * @return The domain controller which delivered the update sequence number
+	 */
+	public String getServer() {
+		return server;
+	}
+
+	/**
+	 * @return A fingerprint of the settings of the synchronization
+	 */
+	public String getConfiguration() {
+		return configuration;
+	}
+	
+	/**
+	 * 
+	 * @param currentConfiguration The fingerprint of the current settings
+	 * @param currentServer The current domain controller if the update sequence numbers are used
+	 * @param withUsn true if the update sequence numbers are used
+	 * @param now The current date
+	 * @param fullInterval The interval between two full synchronizations in hours
+	 * @return true if a synchronization of the changes only is possible
+	 */
+	public boolean isDeltaPossible(String currentConfiguration, String currentServer, boolean withUsn, Date now, int fullInterval) {
+		if(fullInterval <= 0 || lastSync == null || lastFullSync == null
+				|| !Objects.equals(configuration, currentConfiguration)) {
+			return false;
+		}
+		if(withUsn && (usn == null || currentServer == null || !currentServer.equals(server))) {
+			return false;
+		}
+		long nextFullSync = lastFullSync.getTime() + (fullInterval * 60l * 60l * 1000l);
+		return now.getTime() < nextFullSync && !lastSync.after(now);
+	}
+	
+	/**
+	 * @param margin The margin in seconds
+	 * @return The date after which the entries are considered as changed
+	 */
+	public Date getModifiedSince(int margin) {
+		return lastSync == null ? null : new Date(lastSync.getTime() - (margin * 1000l));
+	}
+	
+	public String toText() {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append(lastSync == null ? "" : Long.toString(lastSync.getTime())).append(SEPARATOR)
+		  .append(lastFullSync == null ? "" : Long.toString(lastFullSync.getTime())).append(SEPARATOR)
+		  .append(usn == null ? "" : usn.toString()).append(SEPARATOR)
+		  .append(configuration == null ? "" : configuration).append(SEPARATOR)
+		  .append(server == null ? "" : server);
+		return sb.toString();
+	}
+	
+	/**
+	 * @param text The text produced by toText()
+	 * @return The mark or null if the text is not a valid mark
+	 */
+	public static LDAPSyncMark valueOf(String text) {
+		if(!StringHelper.containsNonWhitespace(text)) {
+			return null;
+		}
+		
+		// the name of the server is last, it can contain the separator
+		String[] parts = text.split("\\|", 5);
+		if(parts.length != 5) {
+			return null;
+		}
+		try {
+			Date lastSync = parts[0].isEmpty() ? null : new Date(Long.parseLong(parts[0]));
+			Date lastFullSync = parts[1].isEmpty() ? null : new Date(Long.parseLong(parts[1]));
+			Long usn = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+			String configuration = parts[3].isEmpty() ? null : parts[3];
+			String server = parts[4].isEmpty() ? null : parts[4];
+			return new LDAPSyncMark(lastSync, lastFullSync, usn, server, configuration);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ldapSyncMark[lastSync=" + lastSync + ":lastFullSync=" + lastFullSync + ":usn=" + usn + ":server=" + server + "]";
+	}
+}
@@ -22,6 +22,7 @@ package org.olat.modules.assessment;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.olat.core.id.Identity;
 import org.olat.group.BusinessGroup;
@@ -51,6 +52,20 @@ public interface AssessmentService {
 	public AssessmentEntry getOrCreateAssessmentEntry(Identity assessedIdentity, String anonymousIdentifier,
 			RepositoryEntry entry, String subIdent, Boolean entryRoot, RepositoryEntry referenceEntry);
 	
+	/**
+	 * Load the assessment entries of the user in the repository entry and create
+	 * the missing ones. The missing entries are created in one transaction, if it
+	 * fails, they are created one by one.
+	 * 
+	 * @param assessedIdentity The assessed user
+	 * @param entry The repository entry where the assessment happens
+	 * @param subIdentToReferenceEntries The sub identifiers of the entries with their reference entry (can be null)
+	 * @param entryRootSubIdent The sub identifier of the root entry
+	 * @return The list of assessment entries of the specified sub identifiers
+	 */
+	public List<AssessmentEntry> getOrCreateAssessmentEntries(Identity assessedIdentity, RepositoryEntry entry,
+			Map<String,RepositoryEntry> subIdentToReferenceEntries, String entryRootSubIdent);
+	
 	/**
 	 * 
 	 * @param assessedIdentity
@@ -82,6 +97,15 @@ public interface AssessmentService {
 	
 	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry);
 	
+	/**
+	 * 
+	 * @param assessedIdentity The assessed user
+	 * @param entry The repository entry
+	 * @param modifiedAfter Only the entries modified after this date (inclusive)
+	 * @return A list of assessment entries
+	 */
+	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry, Date modifiedAfter);
+	
 	public List<AssessmentEntryScoring> loadRootAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, Collection<Long> entryKeys);
 	
 	public List<AssessmentEntry> loadAssessmentEntries(BusinessGroup assessedGroup, RepositoryEntry entry, String subIdent);
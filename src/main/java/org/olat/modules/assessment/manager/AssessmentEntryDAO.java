@@ -25,6 +25,7 @@ import java.util.Date;
 import java.util.List;
 
 import javax.persistence.FlushModeType;
+import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
 
 import org.olat.basesecurity.Group;
@@ -386,6 +387,27 @@ public class AssessmentEntryDAO {
 				.setParameter("identityKey", assessedIdentity.getKey())
 				.getResultList();
 	}
+	
+	/**
+	 * Load the assessment entries of a specific user and a specific assessed
+	 * repository entry which were modified after the specified date.
+	 * 
+	 * @param assessedIdentity The assessed user
+	 * @param entry The assessed course / repository entry
+	 * @param modifiedAfter The date (inclusive)
+	 * @return A list of assessment entries
+	 */
+	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry, Date modifiedAfter) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select data from assessmententry data where data.repositoryEntry.key=:repositoryEntryKey and data.identity.key=:identityKey")
+		  .append(" and data.lastModified>=:modifiedAfter");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), AssessmentEntry.class)
+				.setParameter("repositoryEntryKey", entry.getKey())
+				.setParameter("identityKey", assessedIdentity.getKey())
+				.setParameter("modifiedAfter", modifiedAfter, TemporalType.TIMESTAMP)
+				.getResultList();
+	}
 
 	/**
 	 * Load all the assessment entry of the specific group. But aware that the query exclude the default group
@@ -19,9 +19,12 @@
  */
 package org.olat.modules.assessment.manager;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.PersistenceException;
 
@@ -81,6 +84,54 @@ public class AssessmentServiceImpl implements AssessmentService, UserDataDeletab
 		return assessmentEntry;
 	}
 
+	@Override
+	public List<AssessmentEntry> getOrCreateAssessmentEntries(Identity assessedIdentity, RepositoryEntry entry,
+			Map<String,RepositoryEntry> subIdentToReferenceEntries, String entryRootSubIdent) {
+		Map<String,AssessmentEntry> subIdentToEntries = new HashMap<>();
+		for(AssessmentEntry assessmentEntry:assessmentEntryDao.loadAssessmentEntriesByAssessedIdentity(assessedIdentity, entry)) {
+			subIdentToEntries.put(assessmentEntry.getSubIdent(), assessmentEntry);
+		}
+		
+		List<String> missingSubIdents = new ArrayList<>();
+		for(String subIdent:subIdentToReferenceEntries.keySet()) {
+			if(!subIdentToEntries.containsKey(subIdent)) {
+				missingSubIdents.add(subIdent);
+			}
+		}
+		
+		if(!missingSubIdents.isEmpty()) {
+			try {
+				dbInstance.commit();
+				for(String subIdent:missingSubIdents) {
+					Boolean entryRoot = Boolean.valueOf(subIdent.equals(entryRootSubIdent));
+					AssessmentEntry assessmentEntry = assessmentEntryDao.createAssessmentEntry(assessedIdentity, null, entry,
+							subIdent, entryRoot, subIdentToReferenceEntries.get(subIdent));
+					subIdentToEntries.put(subIdent, assessmentEntry);
+				}
+				dbInstance.commit();
+			} catch(PersistenceException e) {
+				// someone else created some of them, create them one by one
+				log.warn("Cannot create {} assessment entries in one transaction", missingSubIdents.size(), e);
+				dbInstance.rollback();
+				for(String subIdent:missingSubIdents) {
+					Boolean entryRoot = Boolean.valueOf(subIdent.equals(entryRootSubIdent));
+					AssessmentEntry assessmentEntry = getOrCreateAssessmentEntry(assessedIdentity, null, entry,
+							subIdent, entryRoot, subIdentToReferenceEntries.get(subIdent));
+					subIdentToEntries.put(subIdent, assessmentEntry);
+				}
+			}
+		}
+		
+		List<AssessmentEntry> assessmentEntries = new ArrayList<>(subIdentToReferenceEntries.size());
+		for(String subIdent:subIdentToReferenceEntries.keySet()) {
+			AssessmentEntry assessmentEntry = subIdentToEntries.get(subIdent);
+			if(assessmentEntry != null) {
+				assessmentEntries.add(assessmentEntry);
+			}
+		}
+		return assessmentEntries;
+	}
+
 	@Override
 	public AssessmentEntry loadAssessmentEntry(Identity assessedIdentity, RepositoryEntry entry, String subIdent) {
 		if(assessedIdentity == null || entry == null) return null;
@@ -125,6 +176,11 @@ public class AssessmentServiceImpl implements AssessmentService, UserDataDeletab
 	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry) {
 		return assessmentEntryDao.loadAssessmentEntriesByAssessedIdentity(assessedIdentity, entry);
 	}
+	
+	@Override
+	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry, Date modifiedAfter) {
+		return assessmentEntryDao.loadAssessmentEntriesByAssessedIdentity(assessedIdentity, entry, modifiedAfter);
+	}
 
 	@Override
 	public List<AssessmentEntry> loadAssessmentEntries(BusinessGroup assessedGroup, RepositoryEntry entry, String subIdent) {
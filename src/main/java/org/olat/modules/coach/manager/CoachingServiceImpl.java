@@ -64,6 +64,8 @@ public class CoachingServiceImpl implements CoachingService {
 	@Autowired
 	private CoachingDAO coachingDao;
 	@Autowired
+	private CoachingStatisticsManager coachingStatisticsManager;
+	@Autowired
 	private LectureModule lectureModule;
 	@Autowired
 	private BusinessGroupService businessGroupService;
@@ -104,7 +106,7 @@ public class CoachingServiceImpl implements CoachingService {
 
 	@Override
 	public List<StudentStatEntry> getStudentsStatistics(Identity coach, List<UserPropertyHandler> userPropertyHandlers, Locale locale) {
-		return coachingDao.getStudentsStatisticsNative(coach, userPropertyHandlers, locale);
+		return coachingStatisticsManager.getStudentsStatistics(coach, userPropertyHandlers, locale);
 	}
 
 	@Override
@@ -114,12 +116,12 @@ public class CoachingServiceImpl implements CoachingService {
 
 	@Override
 	public List<CourseStatEntry> getCoursesStatistics(Identity coach) {
-		return coachingDao.getCoursesStatisticsNative(coach);
+		return coachingStatisticsManager.getCoursesStatistics(coach);
 	}
 
 	@Override
 	public List<GroupStatEntry> getGroupsStatistics(Identity coach) {
-		return coachingDao.getGroupsStatisticsNative(coach);
+		return coachingStatisticsManager.getGroupsStatistics(coach);
 	}
 
 	@Override
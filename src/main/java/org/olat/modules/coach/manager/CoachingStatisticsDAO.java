@@ -0,0 +1,671 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.coach.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.persistence.LockModeType;
+
+import org.olat.basesecurity.GroupRoles;
+import org.olat.basesecurity.IdentityImpl;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.persistence.PersistenceHelper;
+import org.olat.core.commons.persistence.QueryBuilder;
+import org.olat.modules.coach.model.CoachCourseStatistics;
+import org.olat.modules.coach.model.CoachGroupStatistics;
+import org.olat.modules.coach.model.CoachStatisticsState;
+import org.olat.modules.coach.model.CoachStudentStatistics;
+import org.olat.modules.coach.model.CourseStatEntry;
+import org.olat.modules.coach.model.GroupStatEntry;
+import org.olat.modules.coach.model.StudentStatEntry;
+import org.olat.repository.RepositoryEntryStatusEnum;
+import org.olat.user.propertyhandlers.UserPropertyHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Persistence of the materialized statistics of the coaches and of
+ * their states. The statistics are written by the refresh and read
+ * by the coaching tool. A refresh compares the calculated statistics
+ * with the rows of the coach and only writes the ones which changed.
+ * The rows are read with the current memberships of the coach, a removed
+ * membership hides its rows until the next refresh.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class CoachingStatisticsDAO {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	public CoachStatisticsState createState(IdentityRef coach) {
+		CoachStatisticsState state = new CoachStatisticsState();
+		state.setCreationDate(new Date());
+		state.setLastModified(state.getCreationDate());
+		state.setCoachKey(coach.getKey());
+		state.setDirty(true);
+		dbInstance.getCurrentEntityManager().persist(state);
+		return state;
+	}
+	
+	public CoachStatisticsState loadState(IdentityRef coach) {
+		String query = "select state from coachstatstate state where state.coachKey=:coachKey order by state.key asc";
+		List<CoachStatisticsState> states = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachStatisticsState.class)
+				.setParameter("coachKey", coach.getKey())
+				.setFirstResult(0)
+				.setMaxResults(1)
+				.getResultList();
+		return states.isEmpty() ? null : states.get(0);
+	}
+	
+	/**
+	 * Lock the states of the coach until the end of the transaction.
+	 * 
+	 * @param coach The coach
+	 * @return The state or null if the coach has no materialized statistics
+	 */
+	public CoachStatisticsState loadStateForUpdate(IdentityRef coach) {
+		String query = "select state from coachstatstate state where state.coachKey=:coachKey order by state.key asc";
+		List<CoachStatisticsState> states = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachStatisticsState.class)
+				.setParameter("coachKey", coach.getKey())
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+		return states.isEmpty() ? null : states.get(0);
+	}
+	
+	/**
+	 * Lock the states of the coaches until the end of the transaction.
+	 * 
+	 * @param coachKeys The keys of the coaches
+	 * @return The states of the coaches with materialized statistics
+	 */
+	public List<CoachStatisticsState> loadStatesForUpdate(Collection<Long> coachKeys) {
+		if(coachKeys == null || coachKeys.isEmpty()) return new ArrayList<>();
+		
+		String query = "select state from coachstatstate state where state.coachKey in (:coachKeys) order by state.key asc";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachStatisticsState.class)
+				.setParameter("coachKeys", coachKeys)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+	}
+	
+	public CoachStatisticsState updateState(CoachStatisticsState state) {
+		state.setLastModified(new Date());
+		return dbInstance.getCurrentEntityManager().merge(state);
+	}
+	
+	/**
+	 * @param maxResults The max. number of coaches
+	 * @return The coaches with dirty statistics, the ones waiting the longest first
+	 */
+	public List<Long> getDirtyCoachKeys(int maxResults) {
+		String query = "select state.coachKey from coachstatstate state where state.dirty=true order by state.lastModified asc";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.setFirstResult(0)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
+	public int markDirty(Collection<Long> coachKeys) {
+		if(coachKeys == null || coachKeys.isEmpty()) return 0;
+		
+		String query = "update coachstatstate state set state.dirty=true, state.lastModified=:now where state.dirty=false and state.coachKey in (:coachKeys)";
+		Date now = new Date();
+		int rows = 0;
+		for(List<Long> chunkOfCoachKeys:PersistenceHelper.collectionOfChunks(new ArrayList<>(coachKeys))) {
+			rows += dbInstance.getCurrentEntityManager()
+					.createQuery(query)
+					.setParameter("now", now)
+					.setParameter("coachKeys", chunkOfCoachKeys)
+					.executeUpdate();
+		}
+		return rows;
+	}
+	
+	/**
+	 * Mark as dirty the coaches which statistics were not refreshed since
+	 * the specified date.
+	 * 
+	 * @param refreshedBefore The date
+	 * @return The number of coaches marked as dirty
+	 */
+	public int markDirtyRefreshedBefore(Date refreshedBefore) {
+		String query = "update coachstatstate state set state.dirty=true, state.lastModified=:now where state.dirty=false and (state.refreshed is null or state.refreshed<:before)";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("now", new Date())
+				.setParameter("before", refreshedBefore)
+				.executeUpdate();
+	}
+	
+	public void deleteStatistics(IdentityRef coach) {
+		String[] entityNames = new String[] { "coachstatcourse", "coachstatgroup", "coachstatstudent" };
+		for(String entityName:entityNames) {
+			dbInstance.getCurrentEntityManager()
+				.createQuery("delete from " + entityName + " stats where stats.coachKey=:coachKey")
+				.setParameter("coachKey", coach.getKey())
+				.executeUpdate();
+		}
+	}
+	
+	public CoachCourseStatistics createCourseStatistics(IdentityRef coach, CourseStatEntry entry) {
+		CoachCourseStatistics stats = new CoachCourseStatistics();
+		stats.setCreationDate(new Date());
+		stats.setCoachKey(coach.getKey());
+		stats.setRepositoryEntryKey(entry.getRepoKey());
+		copy(entry, stats);
+		dbInstance.getCurrentEntityManager().persist(stats);
+		return stats;
+	}
+	
+	/**
+	 * Replace the course statistics of the coach with the specified ones, but
+	 * only write the rows which are new, changed or removed.
+	 * 
+	 * @param coach The coach
+	 * @param entries The calculated statistics
+	 * @return The number of written rows
+	 */
+	public int mergeCoursesStatistics(IdentityRef coach, List<CourseStatEntry> entries) {
+		String query = "select stats from coachstatcourse stats where stats.coachKey=:coachKey";
+		List<CoachCourseStatistics> currentStats = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachCourseStatistics.class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		return mergeCoursesStatistics(coach, entries, currentStats);
+	}
+	
+	/**
+	 * @param coachKeys The keys of the coaches
+	 * @return The materialized course statistics of the coaches
+	 */
+	public Map<Long,List<CoachCourseStatistics>> loadCoursesStatistics(Collection<Long> coachKeys) {
+		String query = "select stats from coachstatcourse stats where stats.coachKey in (:coachKeys)";
+		List<CoachCourseStatistics> currentStats = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachCourseStatistics.class)
+				.setParameter("coachKeys", coachKeys)
+				.getResultList();
+		Map<Long,List<CoachCourseStatistics>> coachKeyToStats = new HashMap<>();
+		for(CoachCourseStatistics stats:currentStats) {
+			coachKeyToStats.computeIfAbsent(stats.getCoachKey(), key -> new ArrayList<>()).add(stats);
+		}
+		return coachKeyToStats;
+	}
+	
+	/**
+	 * @param coach The coach
+	 * @param entries The calculated statistics
+	 * @param currentStats The materialized statistics of the coach
+	 * @return The number of written rows
+	 */
+	public int mergeCoursesStatistics(IdentityRef coach, List<CourseStatEntry> entries, List<CoachCourseStatistics> currentStats) {
+		Map<Long,CoachCourseStatistics> entryKeyToStats = new HashMap<>();
+		for(CoachCourseStatistics stats:currentStats) {
+			entryKeyToStats.put(stats.getRepositoryEntryKey(), stats);
+		}
+		
+		int rows = 0;
+		for(CourseStatEntry entry:entries) {
+			CoachCourseStatistics stats = entryKeyToStats.remove(entry.getRepoKey());
+			if(stats == null) {
+				createCourseStatistics(coach, entry);
+				rows++;
+			} else if(copy(entry, stats)) {
+				dbInstance.getCurrentEntityManager().merge(stats);
+				rows++;
+			}
+		}
+		return rows + delete(entryKeyToStats.values());
+	}
+	
+	private boolean copy(CourseStatEntry entry, CoachCourseStatistics stats) {
+		boolean changed = stats.getCountStudents() != entry.getCountStudents()
+				|| stats.getCountPassed() != entry.getCountPassed()
+				|| stats.getCountFailed() != entry.getCountFailed()
+				|| stats.getCountNotAttempted() != entry.getCountNotAttempted()
+				|| !Objects.equals(stats.getAverageScore(), entry.getAverageScore())
+				|| stats.getInitialLaunch() != entry.getInitialLaunch()
+				|| !Objects.equals(stats.getAverageCompletion(), entry.getAverageCompletion());
+		stats.setCountStudents(entry.getCountStudents());
+		stats.setCountPassed(entry.getCountPassed());
+		stats.setCountFailed(entry.getCountFailed());
+		stats.setCountNotAttempted(entry.getCountNotAttempted());
+		stats.setAverageScore(entry.getAverageScore());
+		stats.setInitialLaunch(entry.getInitialLaunch());
+		stats.setAverageCompletion(entry.getAverageCompletion());
+		return changed;
+	}
+	
+	public CoachGroupStatistics createGroupStatistics(IdentityRef coach, GroupStatEntry entry) {
+		CoachGroupStatistics stats = new CoachGroupStatistics();
+		stats.setCreationDate(new Date());
+		stats.setCoachKey(coach.getKey());
+		stats.setGroupKey(entry.getGroupKey());
+		copy(entry, stats);
+		dbInstance.getCurrentEntityManager().persist(stats);
+		return stats;
+	}
+	
+	/**
+	 * Replace the group statistics of the coach with the specified ones, but
+	 * only write the rows which are new, changed or removed.
+	 * 
+	 * @param coach The coach
+	 * @param entries The calculated statistics
+	 * @return The number of written rows
+	 */
+	public int mergeGroupsStatistics(IdentityRef coach, List<GroupStatEntry> entries) {
+		String query = "select stats from coachstatgroup stats where stats.coachKey=:coachKey";
+		List<CoachGroupStatistics> currentStats = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachGroupStatistics.class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		return mergeGroupsStatistics(coach, entries, currentStats);
+	}
+	
+	/**
+	 * @param coachKeys The keys of the coaches
+	 * @return The materialized group statistics of the coaches
+	 */
+	public Map<Long,List<CoachGroupStatistics>> loadGroupsStatistics(Collection<Long> coachKeys) {
+		String query = "select stats from coachstatgroup stats where stats.coachKey in (:coachKeys)";
+		List<CoachGroupStatistics> currentStats = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachGroupStatistics.class)
+				.setParameter("coachKeys", coachKeys)
+				.getResultList();
+		Map<Long,List<CoachGroupStatistics>> coachKeyToStats = new HashMap<>();
+		for(CoachGroupStatistics stats:currentStats) {
+			coachKeyToStats.computeIfAbsent(stats.getCoachKey(), key -> new ArrayList<>()).add(stats);
+		}
+		return coachKeyToStats;
+	}
+	
+	/**
+	 * @param coach The coach
+	 * @param entries The calculated statistics
+	 * @param currentStats The materialized statistics of the coach
+	 * @return The number of written rows
+	 */
+	public int mergeGroupsStatistics(IdentityRef coach, List<GroupStatEntry> entries, List<CoachGroupStatistics> currentStats) {
+		Map<Long,CoachGroupStatistics> groupKeyToStats = new HashMap<>();
+		for(CoachGroupStatistics stats:currentStats) {
+			groupKeyToStats.put(stats.getGroupKey(), stats);
+		}
+		
+		int rows = 0;
+		for(GroupStatEntry entry:entries) {
+			CoachGroupStatistics stats = groupKeyToStats.remove(entry.getGroupKey());
+			if(stats == null) {
+				createGroupStatistics(coach, entry);
+				rows++;
+			} else if(copy(entry, stats)) {
+				dbInstance.getCurrentEntityManager().merge(stats);
+				rows++;
+			}
+		}
+		return rows + delete(groupKeyToStats.values());
+	}
+	
+	private boolean copy(GroupStatEntry entry, CoachGroupStatistics stats) {
+		boolean changed = stats.getCountCourses() != entry.getCountCourses()
+				|| stats.getCountStudents() != entry.getCountStudents()
+				|| stats.getCountDistinctStudents() != entry.getCountDistinctStudents()
+				|| stats.getCountPassed() != entry.getCountPassed()
+				|| stats.getCountFailed() != entry.getCountFailed()
+				|| stats.getCountNotAttempted() != entry.getCountNotAttempted()
+				|| !Objects.equals(stats.getAverageScore(), entry.getAverageScore())
+				|| stats.getInitialLaunch() != entry.getInitialLaunch();
+		stats.setCountCourses(entry.getCountCourses());
+		stats.setCountStudents(entry.getCountStudents());
+		stats.setCountDistinctStudents(entry.getCountDistinctStudents());
+		stats.setCountPassed(entry.getCountPassed());
+		stats.setCountFailed(entry.getCountFailed());
+		stats.setCountNotAttempted(entry.getCountNotAttempted());
+		stats.setAverageScore(entry.getAverageScore());
+		stats.setInitialLaunch(entry.getInitialLaunch());
+		return changed;
+	}
+	
+	public CoachStudentStatistics createStudentStatistics(IdentityRef coach, StudentStatEntry entry) {
+		CoachStudentStatistics stats = new CoachStudentStatistics();
+		stats.setCreationDate(new Date());
+		stats.setCoachKey(coach.getKey());
+		stats.setIdentity(dbInstance.getCurrentEntityManager().getReference(IdentityImpl.class, entry.getIdentityKey()));
+		copy(entry, stats);
+		dbInstance.getCurrentEntityManager().persist(stats);
+		return stats;
+	}
+	
+	/**
+	 * Replace the student statistics of the coach with the specified ones, but
+	 * only write the rows which are new, changed or removed.
+	 * 
+	 * @param coach The coach
+	 * @param entries The calculated statistics
+	 * @return The number of written rows
+	 */
+	public int mergeStudentsStatistics(IdentityRef coach, List<StudentStatEntry> entries) {
+		String query = "select stats from coachstatstudent stats where stats.coachKey=:coachKey";
+		List<CoachStudentStatistics> currentStats = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachStudentStatistics.class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		return mergeStudentsStatistics(coach, entries, currentStats);
+	}
+	
+	/**
+	 * @param coachKeys The keys of the coaches
+	 * @return The materialized student statistics of the coaches
+	 */
+	public Map<Long,List<CoachStudentStatistics>> loadStudentsStatistics(Collection<Long> coachKeys) {
+		String query = "select stats from coachstatstudent stats where stats.coachKey in (:coachKeys)";
+		List<CoachStudentStatistics> currentStats = dbInstance.getCurrentEntityManager()
+				.createQuery(query, CoachStudentStatistics.class)
+				.setParameter("coachKeys", coachKeys)
+				.getResultList();
+		Map<Long,List<CoachStudentStatistics>> coachKeyToStats = new HashMap<>();
+		for(CoachStudentStatistics stats:currentStats) {
+			coachKeyToStats.computeIfAbsent(stats.getCoachKey(), key -> new ArrayList<>()).add(stats);
+		}
+		return coachKeyToStats;
+	}
+	
+	/**
+	 * @param coach The coach
+	 * @param entries The calculated statistics
+	 * @param currentStats The materialized statistics of the coach
+	 * @return The number of written rows
+	 */
+	public int mergeStudentsStatistics(IdentityRef coach, List<StudentStatEntry> entries, List<CoachStudentStatistics> currentStats) {
+		Map<Long,CoachStudentStatistics> identityKeyToStats = new HashMap<>();
+		for(CoachStudentStatistics stats:currentStats) {
+			identityKeyToStats.put(stats.getIdentity().getKey(), stats);
+		}
+		
+		int rows = 0;
+		for(StudentStatEntry entry:entries) {
+			CoachStudentStatistics stats = identityKeyToStats.remove(entry.getIdentityKey());
+			if(stats == null) {
+				createStudentStatistics(coach, entry);
+				rows++;
+			} else if(copy(entry, stats)) {
+				dbInstance.getCurrentEntityManager().merge(stats);
+				rows++;
+			}
+		}
+		return rows + delete(identityKeyToStats.values());
+	}
+	
+	private boolean copy(StudentStatEntry entry, CoachStudentStatistics stats) {
+		boolean changed = stats.getCountRepo() != entry.getCountRepo()
+				|| stats.getCountPassed() != entry.getCountPassed()
+				|| stats.getCountFailed() != entry.getCountFailed()
+				|| stats.getCountNotAttempted() != entry.getCountNotAttempted()
+				|| stats.getInitialLaunch() != entry.getInitialLaunch()
+				|| !Objects.equals(stats.getAverageCompletion(), entry.getAverageCompletion());
+		stats.setCountRepo(entry.getCountRepo());
+		stats.setCountPassed(entry.getCountPassed());
+		stats.setCountFailed(entry.getCountFailed());
+		stats.setCountNotAttempted(entry.getCountNotAttempted());
+		stats.setInitialLaunch(entry.getInitialLaunch());
+		stats.setAverageCompletion(entry.getAverageCompletion());
+		return changed;
+	}
+	
+	private int delete(Collection<?> statistics) {
+		for(Object stats:statistics) {
+			dbInstance.getCurrentEntityManager().remove(stats);
+		}
+		return statistics.size();
+	}
+	
+	/**
+	 * Read the materialized statistics of the courses in which the coach
+	 * is still coach or owner.
+	 * 
+	 * @param coach The coach
+	 * @return The statistics of the courses
+	 */
+	public List<CourseStatEntry> getCoursesStatistics(IdentityRef coach) {
+		QueryBuilder sb = new QueryBuilder(512);
+		sb.append("select stats, v.displayname, v.status from coachstatcourse stats, repositoryentry v")
+		  .append(" where stats.coachKey=:coachKey and v.key=stats.repositoryEntryKey")
+		  .append(" and v.status ").in(RepositoryEntryStatusEnum.coachPublishedToClosed())
+		  .append(" and exists (select coachMembership.key from repoentrytogroup coachRel")
+		  .append("  inner join coachRel.group coachGroup")
+		  .append("  inner join coachGroup.members coachMembership")
+		  .append("  where coachRel.entry.key=v.key and coachMembership.identity.key=:coachKey")
+		  .append("  and coachMembership.role ").in(GroupRoles.coach, GroupRoles.owner)
+		  .append(" )");
+		
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		List<CourseStatEntry> entries = new ArrayList<>(rawObjects.size());
+		for(Object[] rawObject:rawObjects) {
+			CoachCourseStatistics stats = (CoachCourseStatistics)rawObject[0];
+			CourseStatEntry entry = new CourseStatEntry();
+			entry.setRepoKey(stats.getRepositoryEntryKey());
+			entry.setRepoDisplayName((String)rawObject[1]);
+			entry.setRepoStatus(RepositoryEntryStatusEnum.valueOf((String)rawObject[2]));
+			entry.setCountStudents(stats.getCountStudents());
+			entry.setCountPassed(stats.getCountPassed());
+			entry.setCountFailed(stats.getCountFailed());
+			entry.setCountNotAttempted(stats.getCountNotAttempted());
+			entry.setAverageScore(stats.getAverageScore());
+			entry.setInitialLaunch(stats.getInitialLaunch());
+			entry.setAverageCompletion(stats.getAverageCompletion());
+			entries.add(entry);
+		}
+		return entries;
+	}
+	
+	public int countCoursesStatistics(IdentityRef coach) {
+		QueryBuilder sb = new QueryBuilder(256);
+		sb.append("select count(stats.key) from coachstatcourse stats, repositoryentry v")
+		  .append(" where stats.coachKey=:coachKey and v.key=stats.repositoryEntryKey")
+		  .append(" and v.status ").in(RepositoryEntryStatusEnum.coachPublishedToClosed());
+		return count(sb.toString(), coach);
+	}
+	
+	/**
+	 * Read the materialized statistics of the groups in which the coach is
+	 * still coach, or which are linked to a course of which the coach is
+	 * still owner.
+	 * 
+	 * @param coach The coach
+	 * @return The statistics of the groups
+	 */
+	public List<GroupStatEntry> getGroupsStatistics(IdentityRef coach) {
+		QueryBuilder sb = new QueryBuilder(1024);
+		sb.append("select stats, bgroup.name from coachstatgroup stats, businessgroup bgroup")
+		  .append(" where stats.coachKey=:coachKey and bgroup.key=stats.groupKey")
+		  .append(" and (exists (select coachMembership.key from bgroupmember coachMembership")
+		  .append("   where coachMembership.group.key=bgroup.baseGroup.key and coachMembership.identity.key=:coachKey")
+		  .append("   and coachMembership.role='").append(GroupRoles.coach.name()).append("'")
+		  .append(" ) or exists (select ownerMembership.key from repoentrytogroup groupRel, repoentrytogroup ownerRel")
+		  .append("   inner join ownerRel.group ownerGroup")
+		  .append("   inner join ownerGroup.members ownerMembership")
+		  .append("   where groupRel.group.key=bgroup.baseGroup.key and ownerRel.entry.key=groupRel.entry.key")
+		  .append("   and ownerMembership.identity.key=:coachKey and ownerMembership.role='").append(GroupRoles.owner.name()).append("'")
+		  .append(" ))");
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		List<GroupStatEntry> entries = new ArrayList<>(rawObjects.size());
+		for(Object[] rawObject:rawObjects) {
+			CoachGroupStatistics stats = (CoachGroupStatistics)rawObject[0];
+			GroupStatEntry entry = new GroupStatEntry(stats.getGroupKey(), (String)rawObject[1]);
+			entry.setRepoIds(null);
+			entry.setCountCourses(stats.getCountCourses());
+			entry.setCountStudents(stats.getCountStudents());
+			entry.setCountDistinctStudents(stats.getCountDistinctStudents());
+			entry.setCountPassed(stats.getCountPassed());
+			entry.setCountFailed(stats.getCountFailed());
+			entry.setCountNotAttempted(stats.getCountNotAttempted());
+			entry.setAverageScore(stats.getAverageScore());
+			entry.setInitialLaunch(stats.getInitialLaunch());
+			entries.add(entry);
+		}
+		return entries;
+	}
+	
+	public int countGroupsStatistics(IdentityRef coach) {
+		String query = "select count(stats.key) from coachstatgroup stats, businessgroup bgroup where stats.coachKey=:coachKey and bgroup.key=stats.groupKey";
+		return count(query, coach);
+	}
+	
+	/**
+	 * Read the materialized statistics of the participants which are still
+	 * in a group coached by the coach, or in a course of which the coach is
+	 * still owner.
+	 * 
+	 * @param coach The coach
+	 * @param userPropertyHandlers The user properties
+	 * @param locale The locale
+	 * @return The statistics of the participants
+	 */
+	public List<StudentStatEntry> getStudentsStatistics(IdentityRef coach, List<UserPropertyHandler> userPropertyHandlers, Locale locale) {
+		QueryBuilder sb = new QueryBuilder(1024);
+		sb.append("select stats from coachstatstudent stats")
+		  .append(" inner join fetch stats.identity ident")
+		  .append(" inner join fetch ident.user identUser")
+		  .append(" where stats.coachKey=:coachKey")
+		  .append(" and (exists (select partMembership.key from bgroupmember partMembership, bgroupmember coachMembership")
+		  .append("   where partMembership.identity.key=ident.key and partMembership.role='").append(GroupRoles.participant.name()).append("'")
+		  .append("   and coachMembership.group.key=partMembership.group.key and coachMembership.identity.key=:coachKey")
+		  .append("   and coachMembership.role='").append(GroupRoles.coach.name()).append("'")
+		  .append(" ) or exists (select partMembership.key from repoentrytogroup partRel")
+		  .append("   inner join partRel.group partGroup")
+		  .append("   inner join partGroup.members partMembership, repoentrytogroup ownerRel")
+		  .append("   inner join ownerRel.group ownerGroup")
+		  .append("   inner join ownerGroup.members ownerMembership")
+		  .append("   where partMembership.identity.key=ident.key and partMembership.role='").append(GroupRoles.participant.name()).append("'")
+		  .append("   and ownerRel.entry.key=partRel.entry.key and ownerMembership.identity.key=:coachKey")
+		  .append("   and ownerMembership.role='").append(GroupRoles.owner.name()).append("'")
+		  .append(" ))");
+		List<CoachStudentStatistics> statsList = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), CoachStudentStatistics.class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		List<StudentStatEntry> entries = new ArrayList<>(statsList.size());
+		for(CoachStudentStatistics stats:statsList) {
+			StudentStatEntry entry = new StudentStatEntry(stats.getIdentity(), userPropertyHandlers, locale);
+			entry.setRepoIds(null);
+			entry.setLaunchIds(null);
+			entry.setCountRepo(stats.getCountRepo());
+			entry.setCountPassed(stats.getCountPassed());
+			entry.setCountFailed(stats.getCountFailed());
+			entry.setCountNotAttempted(stats.getCountNotAttempted());
+			entry.setInitialLaunch(stats.getInitialLaunch());
+			entry.setAverageCompletion(stats.getAverageCompletion());
+			entries.add(entry);
+		}
+		return entries;
+	}
+	
+	public int countStudentsStatistics(IdentityRef coach) {
+		String query = "select count(stats.key) from coachstatstudent stats where stats.coachKey=:coachKey";
+		return count(query, coach);
+	}
+	
+	private int count(String query, IdentityRef coach) {
+		List<Number> count = dbInstance.getCurrentEntityManager()
+				.createQuery(query, Number.class)
+				.setParameter("coachKey", coach.getKey())
+				.getResultList();
+		return count == null || count.isEmpty() || count.get(0) == null ? 0 : count.get(0).intValue();
+	}
+	
+	/**
+	 * Collect the courses with a change which can modify the statistics
+	 * of their coaches: efficiency statements, root assessment entries,
+	 * new memberships, first launches and the course itself.
+	 * 
+	 * @param since The date of the last check
+	 * @return The keys of the changed repository entries
+	 */
+	public Set<Long> getChangedRepositoryEntryKeys(Date since) {
+		String[] queries = new String[] {
+			"select distinct statement.courseRepoKey from effstatement statement where statement.lastModified>=:since",
+			"select distinct aentry.repositoryEntry.key from assessmententry aentry where aentry.entryRoot=true and aentry.lastModified>=:since",
+			"select distinct rel.entry.key from repoentrytogroup rel inner join rel.group baseGroup inner join baseGroup.members membership where membership.creationDate>=:since",
+			"select distinct v.key from usercourseinfos infos, repositoryentry v where v.olatResource.key=infos.resource.key and infos.creationDate>=:since",
+			"select v.key from repositoryentry v where v.lastModified>=:since"
+		};
+		
+		Set<Long> entryKeys = new HashSet<>();
+		for(String query:queries) {
+			List<Long> keys = dbInstance.getCurrentEntityManager()
+					.createQuery(query, Long.class)
+					.setParameter("since", since)
+					.getResultList();
+			for(Long key:keys) {
+				if(key != null) {
+					entryKeys.add(key);
+				}
+			}
+		}
+		return entryKeys;
+	}
+	
+	/**
+	 * @param entryKeys A list of repository entries
+	 * @return The keys of the coaches and the owners of the repository entries
+	 */
+	public Set<Long> getCoachAndOwnerKeys(Collection<Long> entryKeys) {
+		if(entryKeys == null || entryKeys.isEmpty()) return new HashSet<>();
+		
+		QueryBuilder sb = new QueryBuilder(256);
+		sb.append("select distinct membership.identity.key from repoentrytogroup rel")
+		  .append(" inner join rel.group baseGroup")
+		  .append(" inner join baseGroup.members membership")
+		  .append(" where rel.entry.key in (:entryKeys) and membership.role ").in(GroupRoles.coach, GroupRoles.owner);
+		
+		Set<Long> coachKeys = new HashSet<>();
+		for(List<Long> chunkOfEntryKeys:PersistenceHelper.collectionOfChunks(new ArrayList<>(entryKeys))) {
+			List<Long> keys = dbInstance.getCurrentEntityManager()
+					.createQuery(sb.toString(), Long.class)
+					.setParameter("entryKeys", chunkOfEntryKeys)
+					.getResultList();
+			coachKeys.addAll(keys);
+		}
+		return coachKeys;
+	}
+}
@@ -0,0 +1,320 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.coach.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.BaseSecurity;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.model.IdentityRefImpl;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.DateUtils;
+import org.olat.modules.coach.model.CoachCourseStatistics;
+import org.olat.modules.coach.model.CoachGroupStatistics;
+import org.olat.modules.coach.model.CoachStatisticsState;
+import org.olat.modules.coach.model.CoachStudentStatistics;
+import org.olat.modules.coach.model.CourseStatEntry;
+import org.olat.modules.coach.model.GroupStatEntry;
+import org.olat.modules.coach.model.StudentStatEntry;
+import org.olat.user.propertyhandlers.UserPropertyHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The statistics of the coaching tool are materialized per coach. The
+ * first visit of a coach registers it and is answered by the aggregation
+ * queries of the CoachingDAO, the following ones read the materialized
+ * rows with the current memberships of the coach. A row hidden by a removed
+ * membership marks the coach as dirty. The refresh job marks as dirty the
+ * coaches of the courses changed since its last run and calculates again
+ * the statistics of the dirty coaches by chunks, only the changed rows are
+ * written. The reconciliation job marks as dirty the coaches not refreshed
+ * since some days as a safety net for the changes which let no trace.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class CoachingStatisticsManager {
+	
+	private static final Logger log = Tracing.createLoggerFor(CoachingStatisticsManager.class);
+	
+	private static final int REFRESH_CHUNK_SIZE = 20;
+	
+	@Value("${coaching.statistics.materialized:true}")
+	private boolean materialized;
+	@Value("${coaching.statistics.refresh.batch:100}")
+	private int refreshBatchSize;
+	@Value("${coaching.statistics.reconciliation.days:7}")
+	private int reconciliationDays;
+	
+	/**
+	 * The coaches with materialized statistics. A state is never removed
+	 * and, once refreshed, stays materialized.
+	 */
+	private final Set<Long> materializedCoachKeys = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * The changes made while the instance was down are caught by the
+	 * reconciliation.
+	 */
+	private volatile Date lastChangeCheck = new Date();
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private CoachingDAO coachingDao;
+	@Autowired
+	private BaseSecurity securityManager;
+	@Autowired
+	private CoachingStatisticsDAO coachingStatisticsDao;
+	
+	public boolean isMaterialized() {
+		return materialized;
+	}
+	
+	public List<CourseStatEntry> getCoursesStatistics(Identity coach) {
+		if(isMaterialized(coach)) {
+			List<CourseStatEntry> entries = coachingStatisticsDao.getCoursesStatistics(coach);
+			checkMemberships(coach, entries.size(), coachingStatisticsDao.countCoursesStatistics(coach));
+			return entries;
+		}
+		return coachingDao.getCoursesStatisticsNative(coach);
+	}
+	
+	public List<GroupStatEntry> getGroupsStatistics(Identity coach) {
+		if(isMaterialized(coach)) {
+			List<GroupStatEntry> entries = coachingStatisticsDao.getGroupsStatistics(coach);
+			checkMemberships(coach, entries.size(), coachingStatisticsDao.countGroupsStatistics(coach));
+			return entries;
+		}
+		return coachingDao.getGroupsStatisticsNative(coach);
+	}
+	
+	public List<StudentStatEntry> getStudentsStatistics(Identity coach, List<UserPropertyHandler> userPropertyHandlers, Locale locale) {
+		if(isMaterialized(coach)) {
+			List<StudentStatEntry> entries = coachingStatisticsDao.getStudentsStatistics(coach, userPropertyHandlers, locale);
+			checkMemberships(coach, entries.size(), coachingStatisticsDao.countStudentsStatistics(coach));
+			return entries;
+		}
+		return coachingDao.getStudentsStatisticsNative(coach, userPropertyHandlers, locale);
+	}
+	
+	/**
+	 * The materialized rows are read with the current memberships of the coach.
+	 * If some rows are hidden, a membership was removed since the last refresh
+	 * and the statistics of the coach are marked as dirty.
+	 * 
+	 * @param coach The coach
+	 * @param visibleRows The number of rows read with the memberships
+	 * @param rows The number of materialized rows
+	 */
+	private void checkMemberships(IdentityRef coach, int visibleRows, int rows) {
+		if(visibleRows < rows) {
+			int dirty = coachingStatisticsDao.markDirty(List.of(coach.getKey()));
+			dbInstance.commit();
+			if(dirty > 0) {
+				log.debug("Coaching statistics: membership removed, coach {} marked as dirty", coach.getKey());
+			}
+		}
+	}
+	
+	/**
+	 * Check if the statistics of the coach are materialized. If the coach
+	 * is unknown, it's registered and the refresh job will calculate its
+	 * statistics.
+	 * 
+	 * @param coach The coach
+	 * @return true if the materialized statistics can be read
+	 */
+	private boolean isMaterialized(IdentityRef coach) {
+		if(!materialized) {
+			return false;
+		}
+		if(materializedCoachKeys.contains(coach.getKey())) {
+			return true;
+		}
+		
+		CoachStatisticsState state = coachingStatisticsDao.loadState(coach);
+		if(state == null) {
+			coachingStatisticsDao.createState(coach);
+			dbInstance.commit();
+			return false;
+		}
+		if(state.getRefreshed() != null) {
+			materializedCoachKeys.add(coach.getKey());
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Mark the coaches of the courses changed since the last check as dirty
+	 * and calculate again the statistics of a batch of dirty coaches.
+	 */
+	public void refreshStatistics() {
+		if(!materialized) return;
+		
+		Date now = new Date();
+		// overlap the last check to catch the transactions committed late
+		Date since = DateUtils.addMinutes(lastChangeCheck, -1);
+		Set<Long> entryKeys = coachingStatisticsDao.getChangedRepositoryEntryKeys(since);
+		if(!entryKeys.isEmpty()) {
+			Set<Long> coachKeys = coachingStatisticsDao.getCoachAndOwnerKeys(entryKeys);
+			int dirty = coachingStatisticsDao.markDirty(coachKeys);
+			log.debug("Coaching statistics: {} courses changed, {} coaches marked as dirty", entryKeys.size(), dirty);
+		}
+		dbInstance.commitAndCloseSession();
+		lastChangeCheck = now;
+		
+		List<Long> dirtyCoachKeys = coachingStatisticsDao.getDirtyCoachKeys(refreshBatchSize);
+		dbInstance.commitAndCloseSession();
+		for(int i=0; i<dirtyCoachKeys.size(); i+=REFRESH_CHUNK_SIZE) {
+			List<Long> chunkOfCoachKeys = dirtyCoachKeys.subList(i, Math.min(dirtyCoachKeys.size(), i + REFRESH_CHUNK_SIZE));
+			try {
+				refreshStatistics(chunkOfCoachKeys);
+				dbInstance.commitAndCloseSession();
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				log.warn("Cannot refresh the coaching statistics of a chunk of coaches, refresh them one by one", e);
+				refreshStatisticsOneByOne(chunkOfCoachKeys);
+			}
+		}
+	}
+	
+	private void refreshStatisticsOneByOne(List<Long> coachKeys) {
+		for(Long coachKey:coachKeys) {
+			try {
+				refreshStatistics(new IdentityRefImpl(coachKey));
+				dbInstance.commitAndCloseSession();
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				log.error("Cannot refresh the coaching statistics of: {}", coachKey, e);
+			}
+		}
+	}
+	
+	/**
+	 * Refresh the statistics of a chunk of coaches in one transaction. The
+	 * states, the identities and the materialized rows of the coaches are
+	 * loaded together, the statistics are calculated coach by coach.
+	 * 
+	 * @param coachKeys The keys of the coaches
+	 */
+	private void refreshStatistics(List<Long> coachKeys) {
+		Map<Long,List<CoachStatisticsState>> coachKeyToStates = new HashMap<>();
+		for(CoachStatisticsState state:coachingStatisticsDao.loadStatesForUpdate(coachKeys)) {
+			coachKeyToStates.computeIfAbsent(state.getCoachKey(), key -> new ArrayList<>()).add(state);
+		}
+		if(coachKeyToStates.isEmpty()) return;
+		
+		Map<Long,Identity> coachKeyToIdentity = new HashMap<>();
+		for(Identity identity:securityManager.loadIdentityByKeys(coachKeyToStates.keySet())) {
+			coachKeyToIdentity.put(identity.getKey(), identity);
+		}
+		Map<Long,List<CoachCourseStatistics>> coursesStats = coachingStatisticsDao.loadCoursesStatistics(coachKeyToStates.keySet());
+		Map<Long,List<CoachGroupStatistics>> groupsStats = coachingStatisticsDao.loadGroupsStatistics(coachKeyToStates.keySet());
+		Map<Long,List<CoachStudentStatistics>> studentsStats = coachingStatisticsDao.loadStudentsStatistics(coachKeyToStates.keySet());
+		
+		for(Map.Entry<Long,List<CoachStatisticsState>> entry:coachKeyToStates.entrySet()) {
+			Long coachKey = entry.getKey();
+			IdentityRef coach = new IdentityRefImpl(coachKey);
+			Identity coachIdentity = coachKeyToIdentity.get(coachKey);
+			if(coachIdentity == null) {
+				coachingStatisticsDao.deleteStatistics(coach);
+			} else {
+				int rows = coachingStatisticsDao.mergeCoursesStatistics(coach,
+						coachingDao.getCoursesStatisticsNative(coachIdentity), coursesStats.getOrDefault(coachKey, List.of()));
+				rows += coachingStatisticsDao.mergeGroupsStatistics(coach,
+						coachingDao.getGroupsStatisticsNative(coachIdentity), groupsStats.getOrDefault(coachKey, List.of()));
+				// the user properties are loaded with the materialized statistics
+				List<StudentStatEntry> students = coachingDao
+						.getStudentsStatisticsNative(coachIdentity, Collections.emptyList(), Locale.ENGLISH);
+				rows += coachingStatisticsDao.mergeStudentsStatistics(coach, students, studentsStats.getOrDefault(coachKey, List.of()));
+				log.debug("Coaching statistics: {} rows written for coach {}", rows, coachKey);
+			}
+			for(CoachStatisticsState state:entry.getValue()) {
+				refreshed(state);
+			}
+		}
+	}
+	
+	/**
+	 * Calculate the statistics of the coach and update the materialized
+	 * ones, only the changed rows are written. The state of the coach is
+	 * locked until the end of the transaction.
+	 * 
+	 * @param coach The coach
+	 */
+	public void refreshStatistics(IdentityRef coach) {
+		CoachStatisticsState state = coachingStatisticsDao.loadStateForUpdate(coach);
+		if(state == null) return;
+		
+		Identity coachIdentity = securityManager.loadIdentityByKey(coach.getKey());
+		if(coachIdentity == null) {
+			coachingStatisticsDao.deleteStatistics(coach);
+		} else {
+			int rows = coachingStatisticsDao.mergeCoursesStatistics(coach, coachingDao.getCoursesStatisticsNative(coachIdentity));
+			rows += coachingStatisticsDao.mergeGroupsStatistics(coach, coachingDao.getGroupsStatisticsNative(coachIdentity));
+			// the user properties are loaded with the materialized statistics
+			List<StudentStatEntry> students = coachingDao
+					.getStudentsStatisticsNative(coachIdentity, Collections.emptyList(), Locale.ENGLISH);
+			rows += coachingStatisticsDao.mergeStudentsStatistics(coach, students);
+			log.debug("Coaching statistics: {} rows written for coach {}", rows, coach.getKey());
+		}
+		
+		refreshed(state);
+	}
+	
+	private void refreshed(CoachStatisticsState state) {
+		state.setDirty(false);
+		state.setRefreshed(new Date());
+		coachingStatisticsDao.updateState(state);
+		Long coachKey = state.getCoachKey();
+		dbInstance.afterCommit(() -> materializedCoachKeys.add(coachKey));
+	}
+	
+	/**
+	 * Mark as dirty the statistics of the coaches not refreshed since
+	 * the configured number of days. The coaches are reconciled in turn
+	 * and not all of them the same night.
+	 */
+	public void reconcileStatistics() {
+		if(!materialized) return;
+		
+		Date refreshedBefore = DateUtils.addDays(new Date(), -Math.max(0, reconciliationDays));
+		int dirty = coachingStatisticsDao.markDirtyRefreshedBefore(refreshedBefore);
+		dbInstance.commitAndCloseSession();
+		log.info("Coaching statistics: {} coaches marked for reconciliation", dirty);
+	}
+}
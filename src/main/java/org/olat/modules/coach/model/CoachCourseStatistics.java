@@ -0,0 +1,188 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.coach.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.olat.core.id.CreateInfo;
+import org.olat.core.id.Persistable;
+
+/**
+ * The materialized statistics of a course for a coach or an owner of the course.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Entity(name="coachstatcourse")
+@Table(name="o_coach_stat_course")
+public class CoachCourseStatistics implements CreateInfo, Persistable {
+
+	private static final long serialVersionUID = 7036284114572903189L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name="id", nullable=false, unique=true, insertable=true, updatable=false)
+	private Long key;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="creationdate", nullable=false, insertable=true, updatable=false)
+	private Date creationDate;
+	
+	@Column(name="fk_coach", nullable=false, insertable=true, updatable=false)
+	private Long coachKey;
+	@Column(name="fk_entry", nullable=false, insertable=true, updatable=false)
+	private Long repositoryEntryKey;
+	@Column(name="c_students", nullable=false, insertable=true, updatable=false)
+	private int countStudents;
+	@Column(name="c_passed", nullable=false, insertable=true, updatable=false)
+	private int countPassed;
+	@Column(name="c_failed", nullable=false, insertable=true, updatable=false)
+	private int countFailed;
+	@Column(name="c_not_attempted", nullable=false, insertable=true, updatable=false)
+	private int countNotAttempted;
+	@Column(name="c_average_score", nullable=true, insertable=true, updatable=false)
+	private Float averageScore;
+	@Column(name="c_initial_launch", nullable=false, insertable=true, updatable=false)
+	private int initialLaunch;
+	@Column(name="c_average_completion", nullable=true, insertable=true, updatable=false)
+	private Double averageCompletion;
+	
+	@Override
+	public Long getKey() {
+		return key;
+	}
+
+	public void setKey(Long key) {
+		this.key = key;
+	}
+
+	@Override
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	public Long getCoachKey() {
+		return coachKey;
+	}
+
+	public void setCoachKey(Long coachKey) {
+		this.coachKey = coachKey;
+	}
+
+	public Long getRepositoryEntryKey() {
+		return repositoryEntryKey;
+	}
+
+	public void setRepositoryEntryKey(Long repositoryEntryKey) {
+		this.repositoryEntryKey = repositoryEntryKey;
+	}
+
+	public int getCountStudents() {
+		return countStudents;
+	}
+
+	public void setCountStudents(int countStudents) {
+		this.countStudents = countStudents;
+	}
+
+	public int getCountPassed() {
+		return countPassed;
+	}
+
+	public void setCountPassed(int countPassed) {
+		this.countPassed = countPassed;
+	}
+
+	public int getCountFailed() {
+		return countFailed;
+	}
+
+	public void setCountFailed(int countFailed) {
+		this.countFailed = countFailed;
+	}
+
+	public int getCountNotAttempted() {
+		return countNotAttempted;
+	}
+
+	public void setCountNotAttempted(int countNotAttempted) {
+		this.countNotAttempted = countNotAttempted;
+	}
+
+	public Float getAverageScore() {
+		return averageScore;
+	}
+
+	public void setAverageScore(Float averageScore) {
+		this.averageScore = averageScore;
+	}
+
+	public int getInitialLaunch() {
+		return initialLaunch;
+	}
+
+	public void setInitialLaunch(int initialLaunch) {
+		this.initialLaunch = initialLaunch;
+	}
+
+	public Double getAverageCompletion() {
+		return averageCompletion;
+	}
+
+	public void setAverageCompletion(Double averageCompletion) {
+		this.averageCompletion = averageCompletion;
+	}
+
+	@Override
+	public int hashCode() {
+		return key == null ? 362841 : key.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof CoachCourseStatistics) {
+			CoachCourseStatistics stats = (CoachCourseStatistics)obj;
+			return key != null && key.equals(stats.key);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equalsByPersistableKey(Persistable persistable) {
+		return equals(persistable);
+	}
+}
@@ -72,6 +72,11 @@ public class ForumNotificationsHandler implements NotificationsHandler {
 	@Autowired
 	private BusinessGroupService businessGroupService;
 
+	@Override
+	public boolean isSubscriberIndependent() {
+		return true;
+	}
+
 	@Override
 	public SubscriptionInfo createSubscriptionInfo(final Subscriber subscriber, Locale locale, Date compareDate) {
 		try {
@@ -72,12 +72,12 @@ import org.olat.modules.fo.model.ForumImpl;
 import org.olat.modules.fo.model.ForumThread;
 import org.olat.modules.fo.model.ForumUserStatistics;
 import org.olat.modules.fo.model.MessageImpl;
-import org.olat.modules.fo.model.MessageLightImpl;
 import org.olat.modules.fo.model.MessageStatistics;
 import org.olat.modules.fo.model.PseudonymImpl;
 import org.olat.modules.fo.model.PseudonymStatistics;
-import org.olat.modules.fo.model.ReadMessageImpl;
 import org.olat.modules.fo.ui.MessagePeekview;
+import org.olat.search.service.document.ForumMessageDocument;
+import org.olat.search.service.indexer.LifeFullIndexer;
 import org.olat.user.UserManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -100,6 +100,10 @@ public class ForumManager {
 	private UserManager userManager;
 	@Autowired
 	private MarkingService markingService;
+	@Autowired
+	private LifeFullIndexer lifeIndexer;
+	@Autowired
+	private ReadThreadDAO readThreadDao;
 	
 	public int countThread(Long messageKey) {
 		String query = "select count(msg) from fomessage as msg where msg.key=:messageKey or msg.threadtop.key=:messageKey";
@@ -202,6 +206,20 @@ public class ForumManager {
 		return dbQuery.getResultList();
 	}
 	
+	/**
+	 * @param forumKey The forum primary key
+	 * @param maxResults The max. number of keys
+	 * @return The keys of the last messages of the forum
+	 */
+	public List<Long> getLastMessageKeys(Long forumKey, int maxResults) {
+		String query = "select msg.key from fomessage as msg where msg.forum.key=:forumKey order by msg.key desc";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.setParameter("forumKey", forumKey)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
 	public List<Message> getMessageChildren(Message parentMessage) {
 		StringBuilder query = new StringBuilder();
 		query.append("select msg from fomessage as msg")
@@ -275,55 +293,52 @@ public class ForumManager {
 	}
 	
 	
+	/**
+	 * The counters of the threads are read from the top messages, the read
+	 * messages from the read state of the user, one row per thread.
+	 * 
+	 * @param forum The forum
+	 * @param identity The user (optional)
+	 * @return The list of threads
+	 */
 	public List<ForumThread> getForumThreads(Forum forum, Identity identity) {
 		StringBuilder sb = new StringBuilder();
-		sb.append("select msg ")
-		  .append(" , (select count(replies.key) from fomessage as replies")
-		  .append("  where replies.threadtop.key=msg.key and replies.forum.key=:forumKey")
-		  .append(" ) as numOfMessages")
-		  .append(" , (select max(replies.lastModified) from fomessage as replies")
-		  .append("  where replies.threadtop.key=msg.key and replies.forum.key=:forumKey")
-		  .append(" ) as lastModified");
-
-		if(identity != null) {
-			sb.append(" , (select count(read.key) from foreadmessage as read, fomessage as posts")
-			  .append("  where (posts.threadtop.key=msg.key or posts.key=msg.key) and read.message.key=posts.key and read.identity.key=:identityKey")
-			  .append(" ) as numOfReadMessages")
-			  .append(" ,(select count(mark.key) from ").append(MarkImpl.class.getName()).append(" as mark, fomessage as mposts ")
-			  .append("   where mark.creator.key=:identityKey and mark.resId=:forumKey and (mposts.threadtop.key=msg.key or mposts.key=msg.key)")
-			  .append("    and mposts.key=cast(mark.resSubPath as long) and mark.resName='Forum'")
-			  .append(" ) as marks");
-		}
-		
-		sb.append(" from fomessage as msg ")
+		sb.append("select msg, msg.threadNumOfMessages, msg.threadLastModified")
+		  .append(" from fomessage as msg ")
 		  .append(" left join fetch msg.creator as creator")
 		  .append(" where msg.forum.key=:forumKey and msg.threadtop is null");
 
-		TypedQuery<Object[]> objectsQuery = dbInstance.getCurrentEntityManager()
+		List<Object[]> objects = dbInstance.getCurrentEntityManager()
 				.createQuery(sb.toString(), Object[].class)
-				.setParameter("forumKey", forum.getKey());
+				.setParameter("forumKey", forum.getKey())
+				.getResultList();
+		
+		Map<Long,Integer> readMessages = null;
+		Map<Long,Integer> markedMessages = null;
 		if(identity != null) {
-			objectsQuery.setParameter("identityKey", identity.getKey());
+			readMessages = readThreadDao.getNumOfReadMessagesByThreads(identity, forum.getKey());
+			markedMessages = getNumOfMarkedMessagesByThreads(identity, forum);
 		}
-
-		List<Object[]> objects = objectsQuery.getResultList();
+		
 		List<ForumThread> threadList = new ArrayList<>(objects.size());
 		for(Object[] object:objects) {
 			Message msg = (Message)object[0];
 			Number numOfMessagesLong = (Number)object[1];
 			Date lastModified = (Date)object[2];
-			int numOfMessages = numOfMessagesLong == null ? 1 : numOfMessagesLong.intValue() + 1;
+			int numOfMessages = numOfMessagesLong == null ? 1 : numOfMessagesLong.intValue();
 			String creator = userManager.getUserDisplayName(msg.getCreator());
 			ForumThread thread = new ForumThread(msg, creator, lastModified, numOfMessages);
 			
 			if(identity != null) {
-				Number readMessages = (Number)object[3];
-				int numOfReadMessages = readMessages == null ? 0 : readMessages.intValue();
-				thread.setNewMessages(numOfMessages - numOfReadMessages);
+				Integer numOfReadMessages = readMessages.get(msg.getKey());
+				if(numOfReadMessages == null) {
+					thread.setNewMessages(numOfMessages);
+				} else {
+					thread.setNewMessages(Math.max(0, numOfMessages - numOfReadMessages.intValue()));
+				}
 
-				Number numOfMarkedMessagesLong = (Number)object[4];
-				int numOfMarkedMessages = numOfMarkedMessagesLong == null ? 0 : numOfMarkedMessagesLong.intValue();
-				thread.setMarkedMessages(numOfMarkedMessages);
+				Integer numOfMarkedMessages = markedMessages.get(msg.getKey());
+				thread.setMarkedMessages(numOfMarkedMessages == null ? 0 : numOfMarkedMessages.intValue());
 			}
 			
 			threadList.add(thread);
@@ -331,6 +346,25 @@ public class ForumManager {
 		return threadList;
 	}
 	
+	private Map<Long,Integer> getNumOfMarkedMessagesByThreads(IdentityRef identity, Forum forum) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select mposts.key, mposts.threadtop.key from ").append(MarkImpl.class.getName()).append(" as mark, fomessage as mposts")
+		  .append(" where mark.creator.key=:identityKey and mark.resId=:forumKey and mark.resName='Forum'")
+		  .append("  and mposts.key=cast(mark.resSubPath as long) and mposts.forum.key=:forumKey");
+		
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("forumKey", forum.getKey())
+				.setParameter("identityKey", identity.getKey())
+				.getResultList();
+		Map<Long,Integer> markedMessages = new HashMap<>();
+		for(Object[] rawObject:rawObjects) {
+			Long threadKey = rawObject[1] == null ? (Long)rawObject[0] : (Long)rawObject[1];
+			markedMessages.merge(threadKey, Integer.valueOf(1), Integer::sum);
+		}
+		return markedMessages;
+	}
+	
 	public boolean existsMessageById(Long messageKey) {
 		StringBuilder query = new StringBuilder();
 		query.append("select msg.key from fomessage as msg")
@@ -666,19 +700,12 @@ public class ForumManager {
 	}
 	
 	/**
-	 * Implementation with one entry per message.
 	 * @param identity
 	 * @param forumkey
 	 * @return number of read messages
 	 */
 	public int countReadMessagesByUserAndForum(IdentityRef identity, Long forumkey) {
-		String query = "select count(msg) from foreadmessage as msg where msg.identity.key=:identityKey and msg.forum.key=:forumKey";
-		List<Number> count = dbInstance.getCurrentEntityManager()
-				.createQuery(query, Number.class)
-				.setParameter("identityKey", identity.getKey())
-				.setParameter("forumKey", forumkey)
-				.getResultList();
-		return count == null || count.isEmpty() || count.get(0) == null ? 0 : count.get(0).intValue();
+		return readThreadDao.countReadMessages(identity, forumkey);
 	}
 
 	/**
@@ -760,10 +787,7 @@ public class ForumManager {
 	private void doDeleteForum(final Forum forum) {
 		final Long forumKey = forum.getKey();
 		//delete read messsages
-		String deleteReadMessages = "delete from foreadmessage as rmsg where rmsg.forum.key=:forumKey";
-		dbInstance.getCurrentEntityManager().createQuery(deleteReadMessages)
-			.setParameter("forumKey", forumKey)
-			.executeUpdate();
+		readThreadDao.deleteReadThreadsByForum(forumKey);
 		// delete messages
 		String messagesToDelete = "select msg from fomessage as msg where msg.forum.key=:forumKey and msg.threadtop.key is null";
 		List<Message> threadsToDelete = dbInstance.getCurrentEntityManager()
@@ -834,12 +858,104 @@ public class ForumManager {
 		updateCounters(m);
 		m.setLastModified(new Date());
 		if(m.getKey() == null) {
+			if(m.getThreadtop() == null && m instanceof MessageImpl) {
+				((MessageImpl)m).setThreadNumOfMessages(Integer.valueOf(1));
+			}
 			dbInstance.getCurrentEntityManager().persist(m);
+			if(m.getThreadtop() != null) {
+				increaseThreadCounters(m.getThreadtop().getKey(), m.getLastModified());
+			}
 		} else {
 			m = dbInstance.getCurrentEntityManager().merge(m);
+			if(m.getThreadtop() != null) {
+				updateThreadCounters(m.getThreadtop().getKey());
+			}
 		}
+		indexChange(m);
 		return m;
 	}
+	
+	/**
+	 * A reply was added to the thread.
+	 * 
+	 * @param threadKey The key of the top message
+	 * @param lastModified The last modification date of the reply
+	 */
+	private void increaseThreadCounters(Long threadKey, Date lastModified) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update fomessage msg set msg.threadNumOfMessages=coalesce(msg.threadNumOfMessages, 1) + 1,")
+		  .append(" msg.threadLastModified=:lastModified")
+		  .append(" where msg.key=:threadKey");
+		dbInstance.getCurrentEntityManager().createQuery(sb.toString())
+			.setParameter("threadKey", threadKey)
+			.setParameter("lastModified", lastModified, TemporalType.TIMESTAMP)
+			.executeUpdate();
+	}
+	
+	/**
+	 * Recalculate the counters of the thread after a reply was
+	 * changed, deleted or moved.
+	 * 
+	 * @param threadKey The key of the top message
+	 */
+	private void updateThreadCounters(Long threadKey) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select count(msg.key), max(msg.lastModified) from fomessage as msg")
+		  .append(" where msg.threadtop.key=:threadKey");
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("threadKey", threadKey)
+				.getResultList();
+		
+		int numOfReplies = 0;
+		Date lastModified = null;
+		if(rawObjects != null && !rawObjects.isEmpty()) {
+			Object[] rawObject = rawObjects.get(0);
+			numOfReplies = rawObject[0] == null ? 0 : ((Number)rawObject[0]).intValue();
+			lastModified = (Date)rawObject[1];
+		}
+		updateThreadCounters(threadKey, numOfReplies + 1, lastModified);
+	}
+	
+	private void updateThreadCounters(Long threadKey, int numOfMessages, Date lastModified) {
+		String update = "update fomessage msg set msg.threadNumOfMessages=:numOfMessages, msg.threadLastModified=:lastModified where msg.key=:threadKey";
+		dbInstance.getCurrentEntityManager().createQuery(update)
+			.setParameter("threadKey", threadKey)
+			.setParameter("numOfMessages", Integer.valueOf(numOfMessages))
+			.setParameter("lastModified", lastModified, TemporalType.TIMESTAMP)
+			.executeUpdate();
+	}
+	
+	/**
+	 * Recalculate the counters of all the threads of a forum.
+	 * 
+	 * @param forumKey The forum primary key
+	 * @return The number of threads
+	 */
+	public int updateThreadCountersOfForum(Long forumKey) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select msg.key, count(replies.key), max(replies.lastModified) from fomessage as msg")
+		  .append(" left join fomessage as replies on (replies.threadtop.key=msg.key)")
+		  .append(" where msg.forum.key=:forumKey and msg.threadtop.key is null")
+		  .append(" group by msg.key");
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("forumKey", forumKey)
+				.getResultList();
+		for(Object[] rawObject:rawObjects) {
+			Long threadKey = (Long)rawObject[0];
+			int numOfReplies = rawObject[1] == null ? 0 : ((Number)rawObject[1]).intValue();
+			Date lastModified = (Date)rawObject[2];
+			updateThreadCounters(threadKey, numOfReplies + 1, lastModified);
+		}
+		return rawObjects.size();
+	}
+	
+	private void indexChange(Message message) {
+		if(message != null && message.getKey() != null) {
+			lifeIndexer.indexChange(ForumMessageDocument.TYPE, message.getKey());
+		}
+	}
 
 	/**
 	 * creates (in RAM only) a new Message<br>
@@ -877,7 +993,12 @@ public class ForumManager {
 		if (updateLastModifiedDate) {
 			message.setLastModified(new Date());
 		}
-		return dbInstance.getCurrentEntityManager().merge(message);
+		Message mergedMessage = dbInstance.getCurrentEntityManager().merge(message);
+		if(updateLastModifiedDate && mergedMessage.getThreadtop() != null) {
+			updateThreadCounters(mergedMessage.getThreadtop().getKey());
+		}
+		indexChange(mergedMessage);
+		return mergedMessage;
 	}
 
 	/**
@@ -889,14 +1010,30 @@ public class ForumManager {
 	}
 
 	private void deleteMessageRecursion(final Long forumKey, Message m) {
+		Set<Long> deletedKeys = new HashSet<>();
+		if(m.getThreadtop() == null) {
+			readThreadDao.deleteReadThreads(m.getKey());
+			deleteMessageRecursion(forumKey, m, deletedKeys);
+		} else {
+			Long threadKey = m.getThreadtop().getKey();
+			deleteMessageRecursion(forumKey, m, deletedKeys);
+			readThreadDao.removeReadMessages(threadKey, deletedKeys);
+			updateThreadCounters(threadKey);
+		}
+		for(Long deletedKey:deletedKeys) {
+			lifeIndexer.indexChange(ForumMessageDocument.TYPE, deletedKey);
+		}
+	}
+
+	private void deleteMessageRecursion(final Long forumKey, Message m, Set<Long> deletedKeys) {
 		deleteMessageContainer(forumKey, m.getKey());
-		deleteReadMessages(m.getKey());
+		deletedKeys.add(m.getKey());
 		
 		String query = "select msg from fomessage as msg where msg.parent.key=:parentKey";
 		List<Message> messages = dbInstance.getCurrentEntityManager().createQuery(query, Message.class)
 				.setParameter("parentKey", m.getKey()).getResultList();
 		for (Message element:messages) {
-			deleteMessageRecursion(forumKey, element);
+			deleteMessageRecursion(forumKey, element, deletedKeys);
 		}
 
 		// make sure the message is reloaded if it is not in the hibernate session cache
@@ -945,16 +1082,6 @@ public class ForumManager {
 		}	
 	}
 
-	/**
-	 * deletes entry of one message
-	 */
-	private void deleteReadMessages(Long messageKey) {
-		String query = "delete from foreadmessage as rmsg where rmsg.message.key=:messageKey";
-		dbInstance.getCurrentEntityManager().createQuery(query)
-			.setParameter("messageKey", messageKey)
-			.executeUpdate();
-	}
-
 	/**
 	 * @param forumKey
 	 * @param messageKey
@@ -1035,7 +1162,8 @@ public class ForumManager {
 			newTopMessage = msg;
 		} else {	
 			//it only make sense to split a thread if the current message is not a threadtop message.	
-			List<Message> threadList = getThread(msg.getThreadtop().getKey());
+			Long oldThreadKey = msg.getThreadtop().getKey();
+			List<Message> threadList = getThread(oldThreadKey);
 			List<Message> subthreadList = new ArrayList<>();
 			getSubthread(msg, threadList, subthreadList);
 
@@ -1044,10 +1172,17 @@ public class ForumManager {
 			newTopMessage.setThreadtop(null);
 			newTopMessage = dbInstance.getCurrentEntityManager().merge(newTopMessage);
 
+			List<Long> movedKeys = new ArrayList<>(subthreadList.size() + 1);
+			movedKeys.add(newTopMessage.getKey());
 			for(Message message : subthreadList) {
 				message.setThreadtop(newTopMessage);
 				message = dbInstance.getCurrentEntityManager().merge(message);
+				movedKeys.add(message.getKey());
 			}
+			
+			readThreadDao.moveReadMessages(oldThreadKey, newTopMessage.getKey(), movedKeys);
+			updateThreadCounters(oldThreadKey);
+			updateThreadCounters(newTopMessage.getKey());
 
 			dbInstance.commit();// before sending async event
 			ForumChangedEvent event = new ForumChangedEvent(ForumChangedEvent.SPLIT, newTopMessage.getKey(), null, null);
@@ -1282,16 +1417,7 @@ public class ForumManager {
 	 * @return a set with the read messages keys for the input identity and forum.  
 	 */
 	public Set<Long> getReadSet(IdentityRef identity, Forum forum) {	
-		StringBuilder query = new StringBuilder();
-		query.append("select rmsg.message.key from foreadmessage as rmsg")
-		     .append(" inner join rmsg.message as msg")
-		     .append(" where rmsg.forum.key=:forumKey and rmsg.identity.key=:identityKey");
-		List<Long> messageKeys = dbInstance.getCurrentEntityManager()
-			.createQuery(query.toString(), Long.class)
-			.setParameter("forumKey", forum.getKey())
-			.setParameter("identityKey", identity.getKey())
-			.getResultList();
-		return new HashSet<>(messageKeys);	
+		return readThreadDao.getReadMessageKeys(identity, forum);
 	}
 	
 	/**
@@ -1302,17 +1428,14 @@ public class ForumManager {
 	 * @param msg
 	 */
 	public void markNewMessageAsRead(Identity identity, Forum forum, Message msg) {		
-		//Check if the message was not already deleted
-		ReadMessageImpl readMessage = new ReadMessageImpl();
-		readMessage.setIdentity(identity);
-		readMessage.setMessage(msg);
-		readMessage.setForum(forum);
-		dbInstance.getCurrentEntityManager().persist(readMessage);
+		Long threadKey = msg.getThreadtop() == null ? msg.getKey() : msg.getThreadtop().getKey();
+		readThreadDao.markAsRead(identity, forum, threadKey, msg.getKey());
 	}
 	
 	/**
-	 * Implementation with one entry per forum message.
-	 * Adds a new entry into the ReadMessage for the input message and identity.
+	 * Adds the message to the read state of the identity in the thread
+	 * of the message.
+	 * 
 	 * @param msg
 	 * @param identity
 	 */
@@ -1320,17 +1443,9 @@ public class ForumManager {
 		//Check if the message was not already deleted
 		Message retrievedMessage = loadMessage(msg.getKey());
 		if(retrievedMessage != null) {
-			ReadMessageImpl readMessage = new ReadMessageImpl();
-			readMessage.setIdentity(identity);
-			if(msg instanceof MessageLightImpl) {
-				readMessage.setMessage(msg);
-			} else {
-				msg = dbInstance.getCurrentEntityManager().getReference(MessageLightImpl.class, msg.getKey());
-				readMessage.setMessage(msg);
-			}
-			
-			readMessage.setForum(forum);
-			dbInstance.getCurrentEntityManager().persist(readMessage);
+			Long threadKey = retrievedMessage.getThreadtop() == null
+					? retrievedMessage.getKey() : retrievedMessage.getThreadtop().getKey();
+			readThreadDao.markAsRead(identity, forum, threadKey, retrievedMessage.getKey());
 		}		
 	}
 	
@@ -1358,12 +1473,7 @@ public class ForumManager {
 					.executeUpdate();
 				
 				
-				String updateReadMsg = "update foreadmessage set forum.key=:masterKey where forum.key=:mergerKey";
-				rows += dbInstance.getCurrentEntityManager()
-					.createQuery(updateReadMsg)
-					.setParameter("masterKey", masterForumKey)
-					.setParameter("mergerKey", forumToMerge)
-					.executeUpdate();
+				rows += readThreadDao.updateForum(forumToMerge, masterForumKey);
 			}
 		}
 		return rows;
@@ -0,0 +1,91 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.fo.manager;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.olat.core.util.StringHelper;
+
+/**
+ * Compact form of the keys of the read messages of a thread. The keys
+ * are sorted, the first one is written as is and the others as the
+ * difference to the previous one, all in base 36 and separated by a comma.
+ * The keys of the messages of a thread are near each other, a key needs
+ * 2 to 4 characters instead of a row in the database.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public final class ReadMessageKeys {
+	
+	private static final int RADIX = Character.MAX_RADIX;
+	
+	private ReadMessageKeys() {
+		//
+	}
+	
+	/**
+	 * @param keys The keys of the messages
+	 * @return The compact string or null if there isn't any key
+	 */
+	public static String encode(Collection<Long> keys) {
+		if(keys == null || keys.isEmpty()) {
+			return null;
+		}
+		
+		SortedSet<Long> sortedKeys = new TreeSet<>(keys);
+		StringBuilder sb = new StringBuilder(sortedKeys.size() * 4);
+		long previous = 0l;
+		for(Long key:sortedKeys) {
+			if(sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(Long.toString(key.longValue() - previous, RADIX));
+			previous = key.longValue();
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * @param encodedKeys The compact string
+	 * @return A sorted and modifiable set of keys, never null
+	 */
+	public static SortedSet<Long> decode(String encodedKeys) {
+		SortedSet<Long> keys = new TreeSet<>();
+		if(!StringHelper.containsNonWhitespace(encodedKeys)) {
+			return keys;
+		}
+		
+		long previous = 0l;
+		for(int start=0; start<encodedKeys.length(); ) {
+			int end = encodedKeys.indexOf(',', start);
+			if(end < 0) {
+				end = encodedKeys.length();
+			}
+			previous += Long.parseLong(encodedKeys.substring(start, end), RADIX);
+			keys.add(Long.valueOf(previous));
+			start = end + 1;
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,284 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.fo.manager;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+
+import org.apache.logging.log4j.Logger;
+import org.hibernate.exception.ConstraintViolationException;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.logging.Tracing;
+import org.olat.modules.fo.Forum;
+import org.olat.modules.fo.model.MessageLightImpl;
+import org.olat.modules.fo.model.ReadThreadImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Manage the read state of the users, one row per user and thread.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class ReadThreadDAO {
+	
+	private static final Logger log = Tracing.createLoggerFor(ReadThreadDAO.class);
+	
+	@Autowired
+	private DB dbInstance;
+	
+	public ReadThreadImpl createReadThread(Identity identity, Forum forum, Long threadKey, Collection<Long> messageKeys) {
+		ReadThreadImpl readThread = new ReadThreadImpl();
+		readThread.setCreationDate(new Date());
+		readThread.setLastModified(readThread.getCreationDate());
+		readThread.setIdentity(identity);
+		readThread.setForum(forum);
+		readThread.setThread(dbInstance.getCurrentEntityManager().getReference(MessageLightImpl.class, threadKey));
+		setReadMessageKeys(readThread, messageKeys);
+		dbInstance.getCurrentEntityManager().persist(readThread);
+		return readThread;
+	}
+	
+	public ReadThreadImpl loadReadThread(IdentityRef identity, Long threadKey, boolean forUpdate) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select rthread from foreadthread as rthread")
+		  .append(" where rthread.identity.key=:identityKey and rthread.thread.key=:threadKey");
+		
+		TypedQuery<ReadThreadImpl> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), ReadThreadImpl.class)
+				.setParameter("identityKey", identity.getKey())
+				.setParameter("threadKey", threadKey);
+		if(forUpdate) {
+			query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+		}
+		List<ReadThreadImpl> readThreads = query.getResultList();
+		return readThreads == null || readThreads.isEmpty() ? null : readThreads.get(0);
+	}
+	
+	/**
+	 * Add the message to the read state of the user in the specified thread.
+	 * 
+	 * @param identity The user
+	 * @param forum The forum
+	 * @param threadKey The key of the top message of the thread
+	 * @param messageKey The key of the read message
+	 */
+	public void markAsRead(Identity identity, Forum forum, Long threadKey, Long messageKey) {
+		addReadMessages(identity, forum, threadKey, List.of(messageKey));
+	}
+	
+	/**
+	 * Add the messages to the read state of the user in the specified thread.
+	 * The read state is created if needed. If an other transaction created it
+	 * concurrently, the unique constraint on the user and the thread fails and
+	 * the read state of the other transaction is locked and updated. The
+	 * current transaction is committed before and after the creation.
+	 * 
+	 * @param identity The user
+	 * @param forum The forum
+	 * @param threadKey The key of the top message of the thread
+	 * @param messageKeys The keys of the read messages
+	 */
+	public void addReadMessages(Identity identity, Forum forum, Long threadKey, Collection<Long> messageKeys) {
+		ReadThreadImpl readThread = loadReadThread(identity, threadKey, true);
+		if(readThread == null) {
+			try {
+				dbInstance.commit();
+				createReadThread(identity, forum, threadKey, messageKeys);
+				dbInstance.commit();
+			} catch(PersistenceException e) {
+				if(e.getCause() instanceof ConstraintViolationException) {
+					log.debug("Read state created concurrently, identity: {} thread: {}", identity.getKey(), threadKey);
+					dbInstance.rollback();
+					readThread = loadReadThread(identity, threadKey, true);
+				} else {
+					throw e;
+				}
+			}
+		}
+		if(readThread != null) {
+			SortedSet<Long> readKeys = ReadMessageKeys.decode(readThread.getReadKeys());
+			if(readKeys.addAll(messageKeys)) {
+				setReadMessageKeys(readThread, readKeys);
+				readThread.setLastModified(new Date());
+				dbInstance.getCurrentEntityManager().merge(readThread);
+			}
+		}
+	}
+	
+	/**
+	 * @param identity The user
+	 * @param forum The forum
+	 * @return The keys of all the messages read by the user in the forum
+	 */
+	public Set<Long> getReadMessageKeys(IdentityRef identity, Forum forum) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select rthread.readKeys from foreadthread as rthread")
+		  .append(" where rthread.forum.key=:forumKey and rthread.identity.key=:identityKey");
+		
+		List<String> encodedKeysList = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), String.class)
+				.setParameter("forumKey", forum.getKey())
+				.setParameter("identityKey", identity.getKey())
+				.getResultList();
+		Set<Long> messageKeys = new HashSet<>();
+		for(String encodedKeys:encodedKeysList) {
+			messageKeys.addAll(ReadMessageKeys.decode(encodedKeys));
+		}
+		return messageKeys;
+	}
+	
+	/**
+	 * @param identity The user
+	 * @param forumKey The forum
+	 * @return A map with the key of the threads and the number of messages read by the user
+	 */
+	public Map<Long,Integer> getNumOfReadMessagesByThreads(IdentityRef identity, Long forumKey) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select rthread.thread.key, rthread.numOfReadMessages from foreadthread as rthread")
+		  .append(" where rthread.forum.key=:forumKey and rthread.identity.key=:identityKey");
+		
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("forumKey", forumKey)
+				.setParameter("identityKey", identity.getKey())
+				.getResultList();
+		Map<Long,Integer> numOfReadMessages = new HashMap<>();
+		for(Object[] rawObject:rawObjects) {
+			Long threadKey = (Long)rawObject[0];
+			Number numOfRead = (Number)rawObject[1];
+			numOfReadMessages.put(threadKey, Integer.valueOf(numOfRead.intValue()));
+		}
+		return numOfReadMessages;
+	}
+	
+	public int countReadMessages(IdentityRef identity, Long forumKey) {
+		String query = "select sum(rthread.numOfReadMessages) from foreadthread as rthread where rthread.identity.key=:identityKey and rthread.forum.key=:forumKey";
+		List<Number> count = dbInstance.getCurrentEntityManager()
+				.createQuery(query, Number.class)
+				.setParameter("identityKey", identity.getKey())
+				.setParameter("forumKey", forumKey)
+				.getResultList();
+		return count == null || count.isEmpty() || count.get(0) == null ? 0 : count.get(0).intValue();
+	}
+	
+	/**
+	 * Remove the specified messages from the read state of all users in the thread.
+	 * 
+	 * @param threadKey The key of the top message of the thread
+	 * @param messageKeys The key of the deleted messages
+	 */
+	public void removeReadMessages(Long threadKey, Collection<Long> messageKeys) {
+		if(messageKeys == null || messageKeys.isEmpty()) return;
+		
+		List<ReadThreadImpl> readThreads = loadReadThreadsForUpdate(threadKey);
+		for(ReadThreadImpl readThread:readThreads) {
+			SortedSet<Long> readKeys = ReadMessageKeys.decode(readThread.getReadKeys());
+			if(readKeys.removeAll(messageKeys)) {
+				setReadMessageKeys(readThread, readKeys);
+				readThread.setLastModified(new Date());
+				dbInstance.getCurrentEntityManager().merge(readThread);
+			}
+		}
+	}
+	
+	/**
+	 * Move the specified messages from the read state of the users in
+	 * a thread to their read state in an other thread of the same forum.
+	 * 
+	 * @param fromThreadKey The key of the top message of the original thread
+	 * @param toThreadKey The key of the top message of the new thread
+	 * @param messageKeys The keys of the moved messages
+	 */
+	public void moveReadMessages(Long fromThreadKey, Long toThreadKey, Collection<Long> messageKeys) {
+		if(messageKeys == null || messageKeys.isEmpty()) return;
+		
+		List<ReadThreadImpl> readThreads = loadReadThreadsForUpdate(fromThreadKey);
+		for(ReadThreadImpl readThread:readThreads) {
+			SortedSet<Long> readKeys = ReadMessageKeys.decode(readThread.getReadKeys());
+			Set<Long> movedKeys = new HashSet<>(readKeys);
+			movedKeys.retainAll(messageKeys);
+			if(movedKeys.isEmpty()) {
+				continue;
+			}
+			
+			readKeys.removeAll(movedKeys);
+			setReadMessageKeys(readThread, readKeys);
+			readThread.setLastModified(new Date());
+			dbInstance.getCurrentEntityManager().merge(readThread);
+			
+			addReadMessages(readThread.getIdentity(), readThread.getForum(), toThreadKey, movedKeys);
+		}
+	}
+	
+	private List<ReadThreadImpl> loadReadThreadsForUpdate(Long threadKey) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select rthread from foreadthread as rthread")
+		  .append(" where rthread.thread.key=:threadKey")
+		  .append(" order by rthread.key asc");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), ReadThreadImpl.class)
+				.setParameter("threadKey", threadKey)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+	}
+	
+	public int deleteReadThreads(Long threadKey) {
+		String query = "delete from foreadthread as rthread where rthread.thread.key=:threadKey";
+		return dbInstance.getCurrentEntityManager().createQuery(query)
+			.setParameter("threadKey", threadKey)
+			.executeUpdate();
+	}
+	
+	public int deleteReadThreadsByForum(Long forumKey) {
+		String query = "delete from foreadthread as rthread where rthread.forum.key=:forumKey";
+		return dbInstance.getCurrentEntityManager().createQuery(query)
+			.setParameter("forumKey", forumKey)
+			.executeUpdate();
+	}
+	
+	public int updateForum(Long fromForumKey, Long toForumKey) {
+		String query = "update foreadthread set forum.key=:toForumKey where forum.key=:fromForumKey";
+		return dbInstance.getCurrentEntityManager().createQuery(query)
+			.setParameter("toForumKey", toForumKey)
+			.setParameter("fromForumKey", fromForumKey)
+			.executeUpdate();
+	}
+	
+	private void setReadMessageKeys(ReadThreadImpl readThread, Collection<Long> messageKeys) {
+		readThread.setReadKeys(ReadMessageKeys.encode(messageKeys));
+		readThread.setNumOfReadMessages(messageKeys == null ? 0 : messageKeys.size());
+	}
+}
@@ -93,6 +93,12 @@ public class MessageImpl implements CreateInfo, Persistable, Message {
 	@Column(name="modification_date", nullable=true, insertable=true, updatable=true)
 	private Date modificationDate;
 	
+	// counters of the thread, only set on the top message and only updated by the ForumManager
+	@Column(name="thread_numofmessages", nullable=true, insertable=true, updatable=false)
+	private Integer threadNumOfMessages;
+	@Column(name="thread_lastmodified", nullable=true, insertable=true, updatable=false)
+	private Date threadLastModified;
+	
 	@ManyToOne(targetEntity=MessageImpl.class,fetch=FetchType.LAZY,optional=true)
 	@JoinColumn(name="parent_id", nullable=true, insertable=true, updatable=true)
 	private Message parent;
@@ -277,6 +283,30 @@ public class MessageImpl implements CreateInfo, Persistable, Message {
 		this.numOfWords = numOfWords;
 	}
 
+	/**
+	 * @return The number of messages of the thread, the top message
+	 * 		included. Only set on the top message.
+	 */
+	public Integer getThreadNumOfMessages() {
+		return threadNumOfMessages;
+	}
+
+	public void setThreadNumOfMessages(Integer threadNumOfMessages) {
+		this.threadNumOfMessages = threadNumOfMessages;
+	}
+
+	/**
+	 * @return The last modification date of the replies of the thread. Only
+	 * 		set on the top message.
+	 */
+	public Date getThreadLastModified() {
+		return threadLastModified;
+	}
+
+	public void setThreadLastModified(Date threadLastModified) {
+		this.threadLastModified = threadLastModified;
+	}
+
 	@Override
 	public int hashCode() {
 		return key == null ? 835245 : key.hashCode();
@@ -47,7 +47,10 @@ import org.olat.core.id.Persistable;
 import org.olat.modules.fo.Forum;
 import org.olat.modules.fo.MessageLight;
 
-
+/**
+ * The old read state, one row per user and message. It's replaced
+ * by {@link ReadThreadImpl} and only used to migrate the existing rows.
+ */
 @Entity(name="foreadmessage")
 @Table(name="o_readmessage")
 public class ReadMessageImpl implements CreateInfo, Persistable {
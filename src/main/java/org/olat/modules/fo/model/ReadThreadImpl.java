@@ -0,0 +1,179 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.fo.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.olat.basesecurity.IdentityImpl;
+import org.olat.core.id.CreateInfo;
+import org.olat.core.id.Identity;
+import org.olat.core.id.ModifiedInfo;
+import org.olat.core.id.Persistable;
+import org.olat.modules.fo.Forum;
+import org.olat.modules.fo.MessageLight;
+
+/**
+ * The read state of a user in a thread: one row per user and thread
+ * with the keys of the read messages in a compact form (see
+ * {@link org.olat.modules.fo.manager.ReadMessageKeys}) and their
+ * number.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Entity(name="foreadthread")
+@Table(name="o_forum_read_thread")
+public class ReadThreadImpl implements CreateInfo, ModifiedInfo, Persistable {
+
+	private static final long serialVersionUID = -2940713326432911853L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name="id", nullable=false, unique=true, insertable=true, updatable=false)
+	private Long key;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="creationdate", nullable=false, insertable=true, updatable=false)
+	private Date creationDate;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="lastmodified", nullable=false, insertable=true, updatable=true)
+	private Date lastModified;
+	
+	@Column(name="r_num_read", nullable=false, insertable=true, updatable=true)
+	private int numOfReadMessages;
+	@Column(name="r_read_keys", nullable=true, insertable=true, updatable=true)
+	private String readKeys;
+
+	@ManyToOne(targetEntity=IdentityImpl.class,fetch=FetchType.LAZY,optional=false)
+	@JoinColumn(name="fk_identity", nullable=false, insertable=true, updatable=false)
+	private Identity identity;
+	@ManyToOne(targetEntity=ForumImpl.class,fetch=FetchType.LAZY,optional=false)
+	@JoinColumn(name="fk_forum", nullable=false, insertable=true, updatable=true)
+	private Forum forum;
+	@ManyToOne(targetEntity=MessageLightImpl.class,fetch=FetchType.LAZY,optional=false)
+	@JoinColumn(name="fk_thread", nullable=false, insertable=true, updatable=false)
+	private MessageLight thread;
+
+	@Override
+	public Long getKey() {
+		return key;
+	}
+
+	public void setKey(Long key) {
+		this.key = key;
+	}
+
+	@Override
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	@Override
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	@Override
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	public int getNumOfReadMessages() {
+		return numOfReadMessages;
+	}
+
+	public void setNumOfReadMessages(int numOfReadMessages) {
+		this.numOfReadMessages = numOfReadMessages;
+	}
+
+	public String getReadKeys() {
+		return readKeys;
+	}
+
+	public void setReadKeys(String readKeys) {
+		this.readKeys = readKeys;
+	}
+
+	public Identity getIdentity() {
+		return identity;
+	}
+
+	public void setIdentity(Identity identity) {
+		this.identity = identity;
+	}
+
+	public Forum getForum() {
+		return forum;
+	}
+
+	public void setForum(Forum forum) {
+		this.forum = forum;
+	}
+
+	/**
+	 * @return The top message of the thread
+	 */
+	public MessageLight getThread() {
+		return thread;
+	}
+
+	public void setThread(MessageLight thread) {
+		this.thread = thread;
+	}
+
+	@Override
+	public int hashCode() {
+		return key == null ? 26751 : key.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj instanceof ReadThreadImpl) {
+			ReadThreadImpl other = (ReadThreadImpl) obj;
+			return getKey() != null && getKey().equals(other.getKey());
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equalsByPersistableKey(Persistable persistable) {
+		return equals(persistable);
+	}
+}
@@ -77,6 +77,8 @@ import org.olat.modules.wiki.versioning.DifferenceService;
 import org.olat.modules.wiki.versioning.diff.CookbookDifferenceService;
 import org.olat.resource.OLATResource;
 import org.olat.resource.OLATResourceManager;
+import org.olat.search.service.indexer.IncrementalIndexer;
+import org.olat.search.service.indexer.LifeFullIndexer;
 
 /**
  * Description:<br>
@@ -117,6 +119,7 @@ public class WikiManager {
 	OLATResourceManager resourceManager;
 	FileResourceManager fileResourceManager;
 	CoordinatorManager coordinator;
+	LifeFullIndexer lifeIndexer;
 	
 	/**
 	 * spring only
@@ -156,6 +159,14 @@ public class WikiManager {
 			coordinator = coord;
 	}
 	
+	/**
+	 * [used by Spring]
+	 * @param lifeIndexer
+	 */
+	public void setLifeIndexer(LifeFullIndexer lifeIndexer) {
+		this.lifeIndexer = lifeIndexer;
+	}
+	
 	public boolean importWiki(File file, String filename, File targetDirectory) {
 		try {
 			Path path = FileResource.getResource(file, filename);
@@ -558,6 +569,7 @@ public class WikiManager {
 			// do logging only for real user
 			ThreadLocalUserActivityLogger.log(LearningResourceLoggingAction.LEARNING_RESOURCE_UPDATE, getClass());
 		}
+		indexChange(ores);
 	}
 
 	/**
@@ -593,6 +605,13 @@ public class WikiManager {
 		if (wikiCache!=null) {
 			wikiCache.update(OresHelper.createStringRepresenting(ores), getOrLoadWiki(ores));
 		}
+		indexChange(ores);
+	}
+	
+	private void indexChange(OLATResourceable ores) {
+		if(lifeIndexer != null) {
+			lifeIndexer.indexChange(IncrementalIndexer.resourceChangeType(ores), ores.getResourceableId());
+		}
 	}
 	
 	/**
@@ -31,12 +31,14 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.olat.NewControllerFactory;
 import org.olat.commons.calendar.CalendarManager;
 import org.olat.commons.calendar.PersonalCalendarManager;
+import org.olat.commons.calendar.model.Kalendar;
 import org.olat.commons.calendar.model.KalendarEvent;
 import org.olat.commons.calendar.ui.components.KalendarRenderWrapper;
 import org.olat.core.gui.UserRequest;
@@ -134,17 +136,26 @@ public class CalendarPortletRunController extends BasicController {
 		Date endDate = cal.getTime();
 		List<KalendarEvent> events = new ArrayList<>();
 		List<KalendarRenderWrapper> calendars = personalCalendarManager.getListOfCalendarWrappers(ureq, wControl);
-		for (Iterator<KalendarRenderWrapper> iter = calendars.iterator(); iter.hasNext();) {
-			KalendarRenderWrapper calendarWrapper = iter.next();
+		List<Kalendar> kalendars = new ArrayList<>(calendars.size());
+		Set<String> readOnlyCalendars = new HashSet<>();
+		for (KalendarRenderWrapper calendarWrapper:calendars) {
+			Kalendar kalendar = calendarWrapper.getKalendar();
+			kalendars.add(kalendar);
 			boolean readOnly = (calendarWrapper.getAccess() == KalendarRenderWrapper.ACCESS_READ_ONLY) && !calendarWrapper.isImported();
-			List<KalendarEvent> eventsWithinPeriod = calendarManager.getEvents(calendarWrapper.getKalendar(), startDate, endDate, true);
-			for (KalendarEvent event : eventsWithinPeriod) {
-				// skip non-public events
-				if (readOnly && event.getClassification() != KalendarEvent.CLASS_PUBLIC) {
-					continue;
-				}
-				events.add(event);
+			if(readOnly) {
+				readOnlyCalendars.add(kalendar.getType() + "_" + kalendar.getCalendarID());
+			}
+		}
+		// the events of all the calendars at once
+		List<KalendarEvent> eventsWithinPeriod = calendarManager.getEvents(kalendars, startDate, endDate, true);
+		for (KalendarEvent event : eventsWithinPeriod) {
+			// skip non-public events
+			Kalendar kalendar = event.getCalendar();
+			boolean readOnly = kalendar != null && readOnlyCalendars.contains(kalendar.getType() + "_" + kalendar.getCalendarID());
+			if (readOnly && event.getClassification() != KalendarEvent.CLASS_PUBLIC) {
+				continue;
 			}
+			events.add(event);
 		}
 		// sort events
 		Collections.sort(events, new Comparator<KalendarEvent>() {
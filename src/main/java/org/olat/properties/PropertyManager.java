@@ -729,6 +729,33 @@ public class PropertyManager implements UserDataDeletable {
 		return props;
 	}
 	
+	/**
+	 * Search the properties which references an object by its key, e.g. the
+	 * properties with the key of a forum.
+	 * 
+	 * @param category The category or null
+	 * @param name The name of the property (mandatory)
+	 * @param longValue The value (mandatory)
+	 * @return A list of properties
+	 */
+	public List<Property> findPropertiesByLongValue(String category, String name, Long longValue) {
+		QueryBuilder sb = new QueryBuilder(128);
+		sb.append("select p from ").append(Property.class.getName()).append(" as p")
+		  .append(" where p.name=:name and p.longValue=:longValue");
+		if (category != null) {
+			sb.append(" and p.category=:category");
+		}
+		
+		TypedQuery<Property> dbQuery = DBFactory.getInstance().getCurrentEntityManager()
+				.createQuery(sb.toString(), Property.class)
+				.setParameter("name", name)
+				.setParameter("longValue", longValue);
+		if (category != null) {
+			dbQuery.setParameter("category", category);
+		}
+		return dbQuery.getResultList();
+	}
+	
 	/**
 	 * 
 	 * @param resourceables
@@ -91,6 +91,13 @@ public interface RepositoryService {
 	public OLATResource loadRepositoryEntryResourceBySoftKey(String softkey);
 	
 	public List<RepositoryEntry> loadRepositoryEntries(int firstResult, int maxResult);
+	
+	/**
+	 * @param fromKey The smallest key (inclusive) or null
+	 * @param toKey The biggest key (exclusive) or null
+	 * @return The primary keys of the repository entries in the range, ordered
+	 */
+	public List<Long> loadRepositoryEntryKeys(Long fromKey, Long toKey);
 
 	public VFSLeaf getIntroductionImage(RepositoryEntryRef re);
 
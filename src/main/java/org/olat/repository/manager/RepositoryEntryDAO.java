@@ -174,6 +174,33 @@ public class RepositoryEntryDAO {
 				.getResultList();
 	}
 	
+	/**
+	 * @param fromKey The smallest key (inclusive) or null
+	 * @param toKey The biggest key (exclusive) or null
+	 * @return The primary keys of the repository entries ordered by key
+	 */
+	public List<Long> loadRepositoryEntryKeys(Long fromKey, Long toKey) {
+		QueryBuilder sb = new QueryBuilder(128);
+		sb.append("select v.key from repositoryentry as v");
+		if(fromKey != null) {
+			sb.and().append("v.key>=:fromKey");
+		}
+		if(toKey != null) {
+			sb.and().append("v.key<:toKey");
+		}
+		sb.append(" order by v.key asc");
+		
+		TypedQuery<Long> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class);
+		if(fromKey != null) {
+			query.setParameter("fromKey", fromKey);
+		}
+		if(toKey != null) {
+			query.setParameter("toKey", toKey);
+		}
+		return query.getResultList();
+	}
+	
 	public RepositoryEntry loadByResourceId(String resourceName, Long resourceId) {
 		List<RepositoryEntry> entries = dbInstance.getCurrentEntityManager()
 				.createNamedQuery("loadRepositoryEntryByResourceId", RepositoryEntry.class)
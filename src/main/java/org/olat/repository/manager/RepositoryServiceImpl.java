@@ -389,6 +389,11 @@ public class RepositoryServiceImpl implements RepositoryService, OrganisationDat
 		return repositoryEntryDAO.loadRepositoryEntries(firstResult, maxResult);
 	}
 
+	@Override
+	public List<Long> loadRepositoryEntryKeys(Long fromKey, Long toKey) {
+		return repositoryEntryDAO.loadRepositoryEntryKeys(fromKey, toKey);
+	}
+
 	@Override
 	public VFSLeaf getIntroductionImage(RepositoryEntryRef ref) {
 		RepositoryEntry re;
@@ -26,6 +26,10 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.commons.services.prewarm.PreWarmManager;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -73,6 +77,25 @@ public class Ping {
 		return Response.ok("Ping").build();
 	}
 	
+	/**
+	 * Readiness probe for the load balancers: return 200 as soon as the
+	 * critical pre-warms are done, 503 before.
+	 * 
+	 * @return Ready or Warming up
+	 */
+	@GET
+	@Path("ready")
+	@Operation(summary = "Readiness of the instance", description = "Return 200 if the critical pre-warms are done, 503 if the instance is warming up")
+	@ApiResponse(responseCode = "200", description = "The instance is ready")
+	@ApiResponse(responseCode = "503", description = "The instance is warming up")
+	@Produces(MediaType.TEXT_PLAIN)
+	public Response ready() {
+		if(CoreSpringFactory.getImpl(PreWarmManager.class).isReady()) {
+			return Response.ok("Ready").build();
+		}
+		return Response.status(Status.SERVICE_UNAVAILABLE).entity("Warming up").build();
+	}
+	
 	/**
 	 * Return a concatenation of the string as parameter and Ping
 	 * 
@@ -31,10 +31,13 @@ import javax.ws.rs.core.Response;
 import org.olat.admin.registration.SystemRegistrationManager;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.prewarm.PreWarmManager;
+import org.olat.core.commons.services.prewarm.model.PreWarmState;
 import org.olat.core.util.StringHelper;
 import org.olat.instantMessaging.InstantMessagingModule;
 import org.olat.restapi.system.vo.MonitoringDependencyVO;
 import org.olat.restapi.system.vo.MonitoringInfosVO;
+import org.olat.restapi.system.vo.PreWarmStateVO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -162,6 +165,29 @@ public class MonitoringWebService {
 		return Response.ok(vo).build();
 	}
 	
+	/**
+	 * Return the state and the duration of the pre-warms started
+	 * with the instance.
+	 * 
+	 * @return The list of pre-warms
+	 */
+	@GET
+	@Path("prewarm")
+	@Operation(summary = "Return the state of the pre-warms", description = "Return the state, the duration and the memory allocated by the pre-warms")
+	@ApiResponse(responseCode = "200", description = "The state of the pre-warms", content = {
+			@Content(mediaType = "application/json", schema = @Schema(implementation = PreWarmStateVO.class)),
+			@Content(mediaType = "application/xml", schema = @Schema(implementation = PreWarmStateVO.class)) })
+	@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient")
+	@Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+	public Response getPreWarmStates() {
+		List<PreWarmState> states = CoreSpringFactory.getImpl(PreWarmManager.class).getStates();
+		PreWarmStateVO[] voes = new PreWarmStateVO[states.size()];
+		for(int i=0; i<states.size(); i++) {
+			voes[i] = new PreWarmStateVO(states.get(i));
+		}
+		return Response.ok(voes).build();
+	}
+	
 	public static void takeSample() {
 		memoryWebService.takeSample();
 		threadsWebService.takeSample();
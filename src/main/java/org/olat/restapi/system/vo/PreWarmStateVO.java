@@ -0,0 +1,112 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.restapi.system.vo;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.olat.core.commons.services.prewarm.model.PreWarmState;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "preWarmStateVO")
+public class PreWarmStateVO {
+
+	@XmlAttribute(name="name", required=true)
+	private String name;
+	@XmlAttribute(name="status", required=true)
+	private String status;
+	@XmlAttribute(name="critical", required=true)
+	private boolean critical;
+	@XmlAttribute(name="durationInMilliseconds", required=true)
+	private long durationInMilliseconds;
+	@XmlAttribute(name="allocatedBytes", required=true)
+	private long allocatedBytes;
+	@XmlAttribute(name="message", required=false)
+	private String message;
+	
+	public PreWarmStateVO() {
+		//
+	}
+	
+	public PreWarmStateVO(PreWarmState state) {
+		name = state.getName();
+		status = state.getStatus().name();
+		critical = state.isCritical();
+		durationInMilliseconds = state.getDuration();
+		allocatedBytes = state.getAllocatedBytes();
+		message = state.getMessage();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public boolean isCritical() {
+		return critical;
+	}
+
+	public void setCritical(boolean critical) {
+		this.critical = critical;
+	}
+
+	public long getDurationInMilliseconds() {
+		return durationInMilliseconds;
+	}
+
+	public void setDurationInMilliseconds(long durationInMilliseconds) {
+		this.durationInMilliseconds = durationInMilliseconds;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public void setAllocatedBytes(long allocatedBytes) {
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+}
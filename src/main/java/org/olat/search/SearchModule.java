@@ -101,6 +101,18 @@ public class SearchModule extends AbstractSpringModule {
 	private int searchTimeout;
 	@Value("${search.folder.pool.size:3}")
 	private int folderPoolSize;
+	@Value("${search.indexing.partitions.pool.size:2}")
+	private int partitionsPoolSize;
+	@Value("${search.indexing.partition.size:250}")
+	private int partitionSize;
+	@Value("${search.indexing.checkpoint.max.age:24}")
+	private int checkpointMaxAge;
+	@Value("${search.indexing.incremental.enabled:true}")
+	private boolean incrementalIndexingEnabled;
+	@Value("${search.indexing.incremental.debounce:5000}")
+	private long incrementalDebounce;
+	@Value("${search.indexing.incremental.max.delay:60000}")
+	private long incrementalMaxDelay;
 	@Value("${restart.window.start}")
 	private int restartWindowStart;
 	@Value("${restart.window.end}")
@@ -313,6 +325,52 @@ public class SearchModule extends AbstractSpringModule {
 		return folderPoolSize;
 	}
 
+	/**
+	 * @return Number of partitions of the full index built in parallel.
+	 */
+	public int getPartitionsPoolSize() {
+		return partitionsPoolSize;
+	}
+
+	/**
+	 * @return Number of repository entries in a partition of the full index.
+	 */
+	public int getPartitionSize() {
+		return partitionSize;
+	}
+
+	/**
+	 * @return Max. age in hours of the checkpoint of an interrupted full index
+	 * 		to resume it, an older checkpoint is discarded.
+	 */
+	public int getCheckpointMaxAge() {
+		return checkpointMaxAge;
+	}
+
+	/**
+	 * @return true if the changes of the repository entries, forums, wikis and
+	 * 		files are indexed incrementally in the main index
+	 */
+	public boolean isIncrementalIndexingEnabled() {
+		return incrementalIndexingEnabled;
+	}
+
+	/**
+	 * @return Time in milliseconds without new change on a resource before
+	 * 		its documents are indexed again
+	 */
+	public long getIncrementalDebounce() {
+		return incrementalDebounce;
+	}
+
+	/**
+	 * @return Max. time in milliseconds a change waits before the documents
+	 * 		of its resource are indexed again, even if the resource changes continuously
+	 */
+	public long getIncrementalMaxDelay() {
+		return incrementalMaxDelay;
+	}
+
 	/**
 	 * @return Start hour for restart-window.
 	 */
@@ -89,6 +89,46 @@ public class SearchResourceContext {
 		parentContextName = parentResourceContext.getParentContextName();
 	}
 
+	/**
+	 * Rebuild the context of an indexed document from its resource URL, to
+	 * index the document again without its parents.
+	 * 
+	 * @param resourceUrl The resource URL of the indexed document
+	 * @return The context with the business control and the file path of the document
+	 */
+	public static SearchResourceContext valueOf(String resourceUrl) {
+		SearchResourceContext context = new SearchResourceContext();
+		String businessPath = resourceUrl;
+		int index = resourceUrl.indexOf(FILEPATH_PREFIX);
+		if(index >= 0 && resourceUrl.endsWith(ENDTAG)) {
+			businessPath = resourceUrl.substring(0, index);
+			context.filePath = resourceUrl.substring(index + FILEPATH_PREFIX.length(), resourceUrl.length() - ENDTAG.length());
+		}
+		context.myBusinessControl = BusinessControlFactory.getInstance().createFromString(businessPath);
+		return context;
+	}
+
+	/**
+	 * The context is mutable, the indexers which hand it over to another
+	 * thread work with a copy.
+	 * 
+	 * @return A copy of this context with the same values
+	 */
+	public SearchResourceContext copy() {
+		SearchResourceContext copy = new SearchResourceContext();
+		copy.lastModified = lastModified;
+		copy.createdDate = createdDate;
+		copy.documentType = documentType;
+		copy.title = title;
+		copy.description = description;
+		copy.parentContextType = parentContextType;
+		copy.parentContextName = parentContextName;
+		copy.myBusinessControl = myBusinessControl;
+		copy.parentBusinessControl = parentBusinessControl;
+		copy.filePath = filePath;
+		return copy;
+	}
+
 	
 	public String getFilePath() {
 		return filePath;
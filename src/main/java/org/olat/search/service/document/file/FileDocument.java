@@ -29,7 +29,11 @@ import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
 import org.olat.core.id.User;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.WebappHelper;
@@ -49,16 +53,25 @@ public abstract class FileDocument extends OlatDocument {
 	// Must correspond with LocalString_xx.properties
 	// Do not use '_' because we want to seach for certain documenttype and lucene haev problems with '_' 
 	public static final String TYPE = "type.file";
+	/** The title and the description of the folder context, stored only to update the document alone */
+	public static final String CONTEXT_TITLE_FIELD_NAME = "contexttitle";
+	public static final String CONTEXT_DESCRIPTION_FIELD_NAME = "contextdescription";
+	
+	private String contextTitle;
+	private String contextDescription;
 	
 	protected void init(SearchResourceContext leafResourceContext, VFSLeaf leaf) throws IOException,DocumentException,DocumentAccessException {
 		// Load metadata for this file
 		VFSMetadata meta = null;
 		if (leaf.canMeta() == VFSConstants.YES) {
-			meta = leaf.getMetaInfo();
+			// loaded with the whole directory
+			meta = CoreSpringFactory.getImpl(VFSRepositoryService.class).getCachedMetadataFor(leaf);
 		}
 		
 		// Set all know attributes
 		setResourceUrl(leafResourceContext.getResourceUrl());
+		contextTitle = leafResourceContext.getTitle();
+		contextDescription = leafResourceContext.getDescription();
 		setLastChange(new Date(leaf.getLastModified()));
 		// Check if there are documents attributes set in resource context
 		if (StringHelper.containsNonWhitespace(leafResourceContext.getDocumentType())) {
@@ -183,6 +196,31 @@ public abstract class FileDocument extends OlatDocument {
 		}
 	}
 	
+	@Override
+	public Document getLuceneDocument() {
+		Document document = super.getLuceneDocument();
+		document.add(new StoredField(CONTEXT_TITLE_FIELD_NAME, contextTitle == null ? "" : contextTitle));
+		document.add(new StoredField(CONTEXT_DESCRIPTION_FIELD_NAME, contextDescription == null ? "" : contextDescription));
+		return document;
+	}
+	
+	/**
+	 * Copy the stored fields of the context from an indexed document.
+	 * 
+	 * @param indexedDocument The document of the current index
+	 * @param document The copy of the document
+	 */
+	public static void copyContextFields(Document indexedDocument, Document document) {
+		String title = indexedDocument.get(CONTEXT_TITLE_FIELD_NAME);
+		if(title != null) {
+			document.add(new StoredField(CONTEXT_TITLE_FIELD_NAME, title));
+		}
+		String description = indexedDocument.get(CONTEXT_DESCRIPTION_FIELD_NAME);
+		if(description != null) {
+			document.add(new StoredField(CONTEXT_DESCRIPTION_FIELD_NAME, description));
+		}
+	}
+	
 	abstract protected FileContent readContent(VFSLeaf leaf) throws IOException, DocumentException, DocumentAccessException;
 
 }
@@ -34,6 +34,7 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.vfs.LocalImpl;
 import org.olat.core.util.vfs.VFSConstants;
@@ -113,15 +114,17 @@ public class FileDocumentFactory {
 					Date indexLastModification = DateTools.stringToDate(timestamp);
 					Date docLastModificationDate = new Date(leaf.getLastModified());
 					if(leaf.canMeta() == VFSConstants.YES) {
-						VFSMetadata metaInfo = leaf.getMetaInfo();
-						Date metaDate = metaInfo.getLastModified();
+						VFSMetadata metaInfo = CoreSpringFactory.getImpl(VFSRepositoryService.class).getCachedMetadataFor(leaf);
+						Date metaDate = metaInfo == null ? null : metaInfo.getLastModified();
 						if(metaDate != null && metaDate.after(docLastModificationDate)) {
 							docLastModificationDate = metaDate;
 						}
 					}
 					if(docLastModificationDate.compareTo(indexLastModification) < 0) {
 						OlatDocument olatDoc = new OlatDocument(indexedDoc);
-						return olatDoc.getLuceneDocument();
+						Document document = olatDoc.getLuceneDocument();
+						FileDocument.copyContextFields(indexedDoc, document);
+						return document;
 					}
 				}
 			}
@@ -137,7 +140,19 @@ public class FileDocumentFactory {
 		if(indexedDocument != null) {
 			return indexedDocument;
 		}
-
+		return extractDocument(leafResourceContext, leaf);
+	}
+	
+	/**
+	 * Create the document from the content of the file, without looking for
+	 * an up-to-date document in the current index.
+	 * 
+	 * @param leafResourceContext The context of the file
+	 * @param leaf The file
+	 * @return The document or null if the type of file is disabled
+	 */
+	public Document extractDocument(SearchResourceContext leafResourceContext, VFSLeaf leaf)
+	throws IOException, DocumentAccessException {
 		try {
 			Document doc = null;
 			String fileName = leaf.getName();
@@ -130,8 +130,14 @@ public class FolderIndexerWorker implements Callable<Boolean> {
 		}
 	}
 
+	/**
+	 * The worker runs in another thread than the indexer of the partition and
+	 * sets the file path in the context, it works with its own copy.
+	 * 
+	 * @param newParentResourceContext The context of the folder
+	 */
 	public void setParentResourceContext(SearchResourceContext newParentResourceContext) {
-		this.parentResourceContext = newParentResourceContext;
+		this.parentResourceContext = newParentResourceContext.copy();
 	}
 
 	public void setContainer(VFSContainer newContainer) {
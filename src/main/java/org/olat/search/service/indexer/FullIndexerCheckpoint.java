@@ -0,0 +1,170 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+
+/**
+ * The checkpoint of the full index: the list of the partitions and which
+ * ones are already done. It's saved in the temporary index directory after
+ * every partition, an interrupted full index can resume from there.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class FullIndexerCheckpoint {
+	
+	private static final Logger log = Tracing.createLoggerFor(FullIndexerCheckpoint.class);
+	
+	private static final String CHECKPOINT_FILENAME = "checkpoint.properties";
+	private static final String PARTITIONS_DIRECTORY = "partitions";
+	
+	private final File tempIndexDir;
+	private final long created;
+	private final List<IndexPartition> partitions;
+	
+	private FullIndexerCheckpoint(File tempIndexDir, long created, List<IndexPartition> partitions) {
+		this.tempIndexDir = tempIndexDir;
+		this.created = created;
+		this.partitions = Collections.unmodifiableList(partitions);
+	}
+	
+	/**
+	 * Create and save a new checkpoint, delete the partitions of a previous run.
+	 * 
+	 * @param tempIndexDir The temporary index directory
+	 * @param partitions The partitions of the new full index
+	 * @return The checkpoint
+	 */
+	public static FullIndexerCheckpoint create(File tempIndexDir, List<IndexPartition> partitions) throws IOException {
+		FileUtils.deleteQuietly(new File(tempIndexDir, PARTITIONS_DIRECTORY));
+		FullIndexerCheckpoint checkpoint = new FullIndexerCheckpoint(tempIndexDir, System.currentTimeMillis(), partitions);
+		checkpoint.save();
+		return checkpoint;
+	}
+	
+	/**
+	 * Load the checkpoint of an interrupted full index.
+	 * 
+	 * @param tempIndexDir The temporary index directory
+	 * @param maxAge The max. age in milliseconds of the checkpoint
+	 * @return The checkpoint or null if there isn't any or if it's too old
+	 */
+	public static FullIndexerCheckpoint load(File tempIndexDir, long maxAge) {
+		File file = new File(tempIndexDir, CHECKPOINT_FILENAME);
+		if(!file.exists()) {
+			return null;
+		}
+		
+		try(InputStream in = Files.newInputStream(file.toPath())) {
+			Properties props = new Properties();
+			props.load(in);
+			long created = Long.parseLong(props.getProperty("created"));
+			if(created + maxAge < System.currentTimeMillis()) {
+				log.info("Checkpoint of the full index is too old, start a new one");
+				return null;
+			}
+			
+			int count = Integer.parseInt(props.getProperty("partitions"));
+			List<IndexPartition> partitions = new ArrayList<>(count);
+			for(int i=0; i<count; i++) {
+				String prefix = "partition." + i + ".";
+				IndexPartition partition = new IndexPartition(i, props.getProperty(prefix + "indexer"),
+						toLong(props.getProperty(prefix + "from")), toLong(props.getProperty(prefix + "to")));
+				if("true".equals(props.getProperty(prefix + "done"))) {
+					partition.setStatus(IndexPartition.STATUS_DONE);
+				}
+				partitions.add(partition);
+			}
+			return new FullIndexerCheckpoint(tempIndexDir, created, partitions);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Cannot read the checkpoint of the full index, start a new one", e);
+			return null;
+		}
+	}
+	
+	private static Long toLong(String val) {
+		return val == null || val.isEmpty() ? null : Long.valueOf(val);
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public List<IndexPartition> getPartitions() {
+		return partitions;
+	}
+	
+	public File getPartitionDirectory(IndexPartition partition) {
+		return new File(new File(tempIndexDir, PARTITIONS_DIRECTORY), Integer.toString(partition.getNumber()));
+	}
+	
+	/**
+	 * Save the checkpoint with the partitions which are done.
+	 */
+	public synchronized void save() throws IOException {
+		Properties props = new Properties();
+		props.setProperty("created", Long.toString(created));
+		props.setProperty("partitions", Integer.toString(partitions.size()));
+		for(IndexPartition partition:partitions) {
+			String prefix = "partition." + partition.getNumber() + ".";
+			props.setProperty(prefix + "indexer", partition.getIndexerType());
+			if(partition.getFromKey() != null) {
+				props.setProperty(prefix + "from", partition.getFromKey().toString());
+			}
+			if(partition.getToKey() != null) {
+				props.setProperty(prefix + "to", partition.getToKey().toString());
+			}
+			if(partition.isDone()) {
+				props.setProperty(prefix + "done", "true");
+			}
+		}
+
+		tempIndexDir.mkdirs();
+		File file = new File(tempIndexDir, CHECKPOINT_FILENAME);
+		File tmpFile = new File(tempIndexDir, CHECKPOINT_FILENAME + ".tmp");
+		try(OutputStream out = Files.newOutputStream(tmpFile.toPath())) {
+			props.store(out, "Checkpoint of the full index");
+		}
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * Delete the checkpoint and the partitions after the merge.
+	 */
+	public void delete() {
+		FileUtils.deleteQuietly(new File(tempIndexDir, CHECKPOINT_FILENAME));
+		FileUtils.deleteQuietly(new File(tempIndexDir, PARTITIONS_DIRECTORY));
+	}
+}
@@ -25,9 +25,12 @@
 
 package org.olat.search.service.indexer;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.olat.core.CoreSpringFactory;
 import org.olat.search.service.document.file.FileDocumentFactory;
@@ -60,6 +63,8 @@ public class FullIndexerStatus {
 	private Map<String,Integer> documentCounters;
 	/** Hashtable with file-type-names as key and Integer-object as counters. */
 	private Map<String,Integer> fileTypeCounters;
+	/** The partitions of the full index */
+	private List<IndexPartition> partitions = Collections.emptyList();
 		
 	public FullIndexerStatus(int numberOfPartDocumentCounters) {
 		partDocumentCounters = new int[numberOfPartDocumentCounters];
@@ -164,7 +169,7 @@ public class FullIndexerStatus {
 		this.documentCount = documentCount;
 	}
 	
-	public void incrementDocumentCount() {
+	public synchronized void incrementDocumentCount() {
 		documentCount++;
 	}
 
@@ -227,7 +232,7 @@ public class FullIndexerStatus {
 	}
 
 
-	public void addDocumentCount(int docCount) {
+	public synchronized void addDocumentCount(int docCount) {
 		documentCount += docCount;
 	}
 
@@ -296,6 +301,73 @@ public class FullIndexerStatus {
 		return buf.toString();
 	}
 
+	public List<IndexPartition> getPartitions() {
+		return partitions;
+	}
+	
+	public void setPartitions(List<IndexPartition> partitions) {
+		this.partitions = partitions == null ? Collections.emptyList() : partitions;
+	}
+	
+	/**
+	 * @return The number of partitions done / the total number of partitions
+	 */
+	public String getPartitionsSummary() {
+		int done = 0;
+		int failed = 0;
+		long documents = 0;
+		for(IndexPartition partition:partitions) {
+			if(partition.isDone()) {
+				done++;
+			} else if(partition.isFailed()) {
+				failed++;
+			}
+			documents += partition.getDocumentCount();
+		}
+		String summary = done + "/" + partitions.size();
+		if(failed > 0) {
+			summary += ", " + failed + " failed";
+		}
+		return summary + " (" + documents + " documents)";
+	}
+	
+	/**
+	 * @return false if some partitions of the last full index failed, the
+	 * 		index misses their documents until the next full index
+	 */
+	public boolean isComplete() {
+		return partitions.stream().noneMatch(IndexPartition::isFailed);
+	}
+	
+	/**
+	 * @return The names of the failed partitions
+	 */
+	public String getFailedPartitions() {
+		return partitions.stream()
+				.filter(IndexPartition::isFailed)
+				.map(IndexPartition::getName)
+				.collect(Collectors.joining(", "));
+	}
+	
+	/**
+	 * @return  Return HTML formatted text with the running partitions, their number
+	 * 		of documents and their throughput in documents per second.
+	 */
+	public String getPartitionsThroughput() {
+		StringBuilder buf = new StringBuilder(1024);
+		buf.append(getPartitionsSummary()).append("<br />");
+		for(IndexPartition partition:partitions) {
+			if(IndexPartition.STATUS_RUNNING.equals(partition.getStatus()) || IndexPartition.STATUS_FAILED.equals(partition.getStatus())) {
+				buf.append(partition.getName())
+				   .append("=")
+				   .append(partition.getDocumentCount())
+				   .append(" (").append(partition.getThroughput()).append("/s, ")
+				   .append(partition.getStatus()).append(")<br />");
+			}
+		}
+		return buf.toString();
+	}
+
 	public int getExcludedDocumentCount() {
 		return CoreSpringFactory.getImpl(FileDocumentFactory.class).getExcludedFileSizeCount();
 	}
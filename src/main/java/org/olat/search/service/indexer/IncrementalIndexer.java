@@ -0,0 +1,516 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.olat.collaboration.CollaborationTools;
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.commons.persistence.DBFactory;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.commons.services.vfs.model.VFSMetadataRefImpl;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.course.CourseModule;
+import org.olat.group.BusinessGroup;
+import org.olat.modules.fo.Forum;
+import org.olat.modules.fo.Message;
+import org.olat.modules.fo.manager.ForumManager;
+import org.olat.properties.Property;
+import org.olat.properties.PropertyManager;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryManager;
+import org.olat.search.SearchModule;
+import org.olat.search.SearchService;
+import org.olat.search.model.AbstractOlatDocument;
+import org.olat.search.service.SearchResourceContext;
+import org.olat.search.service.document.ForumMessageDocument;
+import org.olat.search.service.document.GroupDocument;
+import org.olat.search.service.document.RepositoryEntryDocument;
+import org.olat.search.service.document.file.FileDocument;
+
+/**
+ * Update the main index with the changes sent to the indexing node. Only the
+ * documents of the changed object are updated, directly in the main index. If
+ * a change cannot be resolved to its documents, it's resolved to the repository
+ * entry or the business group which contains the changed object, and all the
+ * documents of this resource are deleted and indexed again.<br>
+ * The changes are sent after the commit of the transactions which made them.
+ * They are debounced: a resource is indexed after a delay without new
+ * change, or at least after the max. delay. The changes are kept as long as
+ * the full index is running and applied after it.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class IncrementalIndexer implements IndexChangeListener {
+	
+	private static final Logger log = Tracing.createLoggerFor(IncrementalIndexer.class);
+	
+	/**
+	 * Prefix of the type of the changes of a resource, followed by the type name
+	 * of the resource. The key of the change is the resourceable id.
+	 */
+	public static final String TYPE_RESOURCE = "type.resource.";
+	
+	static final String REPOSITORY_ENTRY_TYPE = OresHelper.calculateTypeName(RepositoryEntry.class);
+	static final String BUSINESS_GROUP_TYPE = OresHelper.calculateTypeName(BusinessGroup.class);
+	
+	private static final String COURSE_PATH = "course/";
+	private static final String GROUP_FOLDERS_PATH = "cts/folders/" + BUSINESS_GROUP_TYPE + "/";
+	private static final String GROUP_WIKIS_PATH = "cts/wikis/" + BUSINESS_GROUP_TYPE + "/";
+	private static final String FORUM_PATH = "forum/";
+	
+	private final String indexPath;
+	private final long debounce;
+	private final long maxDelay;
+	private final OlatFullIndexer fullIndexer;
+	private final SearchService searchService;
+	
+	private final ReentrantLock indexLock = new ReentrantLock();
+	private final ConcurrentMap<IndexChange,PendingChange> pendingChanges = new ConcurrentHashMap<>();
+	private ScheduledExecutorService scheduler;
+	
+	private final AtomicLong numOfChanges = new AtomicLong();
+	private final AtomicLong numOfIndexedResources = new AtomicLong();
+	private final AtomicLong numOfIndexedDocuments = new AtomicLong();
+	
+	public IncrementalIndexer(SearchModule searchModule, OlatFullIndexer fullIndexer, SearchService searchService) {
+		this.fullIndexer = fullIndexer;
+		this.searchService = searchService;
+		indexPath = searchModule.getFullIndexPath();
+		debounce = Math.max(0l, searchModule.getIncrementalDebounce());
+		maxDelay = Math.max(debounce, searchModule.getIncrementalMaxDelay());
+	}
+	
+	public static String resourceChangeType(OLATResourceable resource) {
+		return TYPE_RESOURCE + resource.getResourceableTypeName();
+	}
+	
+	public synchronized void start() {
+		if(scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "index-incremental");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			});
+			long period = Math.max(100l, Math.min(debounce, 1000l));
+			scheduler.scheduleWithFixedDelay(this::processChanges, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	public synchronized void stop() {
+		if(scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+	
+	public long getNumOfChanges() {
+		return numOfChanges.get();
+	}
+	
+	public long getNumOfIndexedResources() {
+		return numOfIndexedResources.get();
+	}
+	
+	public long getNumOfIndexedDocuments() {
+		return numOfIndexedDocuments.get();
+	}
+	
+	public int getNumOfPendingChanges() {
+		return pendingChanges.size();
+	}
+	
+	/**
+	 * The lock must be hold to replace the files of the main index.
+	 */
+	public void lock() {
+		indexLock.lock();
+	}
+	
+	public void unlock() {
+		indexLock.unlock();
+	}
+
+	@Override
+	public void indexChanged(String type, List<Long> keys) {
+		indexChanged(type, keys, System.currentTimeMillis());
+	}
+	
+	void indexChanged(String type, List<Long> keys, long now) {
+		if(!isSupported(type)) return;
+		
+		for(Long key:keys) {
+			if(key != null) {
+				pendingChanges.compute(new IndexChange(type, key), (change, pending) -> pending == null ? new PendingChange(now) : pending.touch(now));
+				numOfChanges.incrementAndGet();
+			}
+		}
+	}
+	
+	static boolean isSupported(String type) {
+		return RepositoryEntryDocument.TYPE.equals(type)
+				|| GroupDocument.TYPE.equals(type)
+				|| ForumMessageDocument.TYPE.equals(type)
+				|| FileDocument.TYPE.equals(type)
+				|| (type != null && type.startsWith(TYPE_RESOURCE));
+	}
+	
+	/**
+	 * Remove the changes without new modification since the debounce delay, or
+	 * waiting since the max. delay, from the pending changes.
+	 * 
+	 * @param now The current time in milliseconds
+	 * @return The list of changes ready to be indexed
+	 */
+	List<IndexChange> pollReadyChanges(long now) {
+		List<IndexChange> readyChanges = new ArrayList<>();
+		for(Map.Entry<IndexChange,PendingChange> entry:pendingChanges.entrySet()) {
+			PendingChange pending = entry.getValue();
+			if(pending.isReady(now, debounce, maxDelay) && pendingChanges.remove(entry.getKey(), pending)) {
+				readyChanges.add(entry.getKey());
+			}
+		}
+		return readyChanges;
+	}
+	
+	private void processChanges() {
+		try {
+			if(pendingChanges.isEmpty() || !fullIndexer.isInterupted()) {
+				// the changes wait the end of the full index
+				return;
+			}
+			
+			List<IndexChange> changes = pollReadyChanges(System.currentTimeMillis());
+			if(!changes.isEmpty()) {
+				Map<IndexChange,IndexChange> changeToResources = resolveResources(changes);
+				DBFactory.getInstance().commitAndCloseSession();
+				indexChanges(changeToResources);
+			}
+		} catch (Exception e) {
+			log.error("Error while indexing the changes", e);
+		} finally {
+			DBFactory.getInstance().commitAndCloseSession();
+		}
+	}
+	
+	/**
+	 * Update the documents of the changes and index again the resources of
+	 * the changes which cannot be resolved to their documents.
+	 * 
+	 * @param changeToResources The changes with their resources (which can be null)
+	 * @throws IOException
+	 */
+	private void indexChanges(Map<IndexChange,IndexChange> changeToResources) throws IOException {
+		long start = System.nanoTime();
+		int numOfDocs = 0;
+		Set<IndexChange> resources = new LinkedHashSet<>();
+		indexLock.lock();
+		try {
+			Directory directory = FSDirectory.open(new File(indexPath).toPath());
+			if(!DirectoryReader.indexExists(directory)) {
+				// the first full index will index everything
+				return;
+			}
+			
+			try(IndexWriter writer = new IndexWriter(directory, fullIndexer.newIndexWriterConfig())) {
+				try(DirectoryReader reader = DirectoryReader.open(writer)) {
+					IndexDocumentUpdater updater = new IndexDocumentUpdater(writer, new IndexSearcher(reader));
+					for(Map.Entry<IndexChange,IndexChange> changeToResource:changeToResources.entrySet()) {
+						IndexChange change = changeToResource.getKey();
+						IndexChange resource = changeToResource.getValue();
+						int updatedDocs = updateDocuments(updater, change, resource);
+						if(updatedDocs >= 0) {
+							numOfDocs += updatedDocs;
+						} else if(resource == null) {
+							log.debug("No resource to index found for change: {}", change);
+						} else if(fullIndexer.isIncrementalSupported(resource.getType())) {
+							resources.add(resource);
+						}
+					}
+				}
+				
+				for(IndexChange resource:resources) {
+					numOfDocs += indexResource(writer, resource);
+				}
+				writer.commit();
+			}
+		} finally {
+			indexLock.unlock();
+		}
+		
+		numOfIndexedResources.addAndGet(resources.size());
+		numOfIndexedDocuments.addAndGet(numOfDocs);
+		searchService.refresh();
+		log.info("Incremental index of {} changes and {} resources with {} documents takes (ms): {}", changeToResources.size(),
+				resources.size(), numOfDocs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	private int updateDocuments(IndexDocumentUpdater updater, IndexChange change, IndexChange resource) throws IOException {
+		try {
+			return updater.updateDocuments(change, resource);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			log.warn("Cannot update the documents of: {}", change, e);
+			DBFactory.getInstance().rollbackAndCloseSession();
+			return IndexDocumentUpdater.UNRESOLVED;
+		} finally {
+			DBFactory.getInstance().commitAndCloseSession();
+		}
+	}
+	
+	private int indexResource(IndexWriter writer, IndexChange resource) throws IOException {
+		try {
+			writer.deleteDocuments(new PrefixQuery(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, getResourceUrlPrefix(resource))));
+			return fullIndexer.indexIncremental(writer, resource.getType(), resource.getKey());
+		} catch (InterruptedException e) {
+			log.warn("Incremental index of {} interrupted", resource);
+			Thread.currentThread().interrupt();
+			return 0;
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			// some documents are missing, try again later
+			log.error("Cannot index: {}", resource, e);
+			indexChanged(TYPE_RESOURCE + resource.getType(), List.of(resource.getKey()));
+			return 0;
+		} finally {
+			DBFactory.getInstance().commitAndCloseSession();
+		}
+	}
+	
+	/**
+	 * @param resource The resource
+	 * @return The start of the resource URL of all the documents of the resource
+	 */
+	static String getResourceUrlPrefix(IndexChange resource) {
+		SearchResourceContext searchResourceContext = new SearchResourceContext();
+		searchResourceContext.setBusinessControlFor(OresHelper.createOLATResourceableInstance(resource.getType(), resource.getKey()));
+		return searchResourceContext.getResourceUrl();
+	}
+	
+	/**
+	 * Resolve the changes to the top level resources of the index, the repository
+	 * entries and the business groups.
+	 * 
+	 * @param changes The changes
+	 * @return The changes mapped to their resources, the resource can be null
+	 */
+	private Map<IndexChange,IndexChange> resolveResources(List<IndexChange> changes) {
+		Map<IndexChange,IndexChange> changeToResources = new LinkedHashMap<>();
+		for(IndexChange change:changes) {
+			IndexChange resource = null;
+			try {
+				resource = resolveResource(change);
+			} catch (Exception e) {
+				log.error("Cannot resolve the change: {}", change, e);
+				DBFactory.getInstance().rollbackAndCloseSession();
+			}
+			changeToResources.put(change, resource);
+		}
+		return changeToResources;
+	}
+	
+	private IndexChange resolveResource(IndexChange change) {
+		String type = change.getType();
+		if(RepositoryEntryDocument.TYPE.equals(type)) {
+			return new IndexChange(REPOSITORY_ENTRY_TYPE, change.getKey());
+		}
+		if(GroupDocument.TYPE.equals(type)) {
+			return new IndexChange(BUSINESS_GROUP_TYPE, change.getKey());
+		}
+		if(ForumMessageDocument.TYPE.equals(type)) {
+			Message message = CoreSpringFactory.getImpl(ForumManager.class).loadMessage(change.getKey());
+			return message == null || message.getForum() == null ? null : resolveForum(message.getForum().getKey());
+		}
+		if(FileDocument.TYPE.equals(type)) {
+			VFSMetadata metadata = CoreSpringFactory.getImpl(VFSRepositoryService.class)
+					.getMetadata(new VFSMetadataRefImpl(change.getKey()));
+			return metadata == null ? null : resolvePath(metadata.getRelativePath());
+		}
+		if(type.startsWith(TYPE_RESOURCE)) {
+			return resolveResource(type.substring(TYPE_RESOURCE.length()), change.getKey());
+		}
+		return null;
+	}
+	
+	private IndexChange resolveResource(String resourceTypeName, Long resourceId) {
+		if(BUSINESS_GROUP_TYPE.equals(resourceTypeName)) {
+			return new IndexChange(BUSINESS_GROUP_TYPE, resourceId);
+		}
+		if(REPOSITORY_ENTRY_TYPE.equals(resourceTypeName)) {
+			return new IndexChange(REPOSITORY_ENTRY_TYPE, resourceId);
+		}
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance(resourceTypeName, resourceId);
+		Long repositoryEntryKey = RepositoryManager.getInstance().lookupRepositoryEntryKey(ores, false);
+		return repositoryEntryKey == null ? null : new IndexChange(REPOSITORY_ENTRY_TYPE, repositoryEntryKey);
+	}
+	
+	private IndexChange resolveForum(Long forumKey) {
+		Forum forum = CoreSpringFactory.getImpl(ForumManager.class).loadForum(forumKey);
+		if(forum == null) {
+			return null;
+		}
+		
+		OLATResourceable reference = forum.getReference();
+		if(reference != null && reference.getResourceableTypeName() != null && reference.getResourceableId() != null) {
+			return resolveResource(reference.getResourceableTypeName(), reference.getResourceableId());
+		}
+		// the forums of the courses and the groups are referenced by a property
+		List<Property> properties = PropertyManager.getInstance()
+				.findPropertiesByLongValue(null, CollaborationTools.KEY_FORUM, forumKey);
+		for(Property property:properties) {
+			if(property.getGrp() != null) {
+				return new IndexChange(BUSINESS_GROUP_TYPE, property.getGrp().getKey());
+			}
+			if(property.getResourceTypeName() != null && property.getResourceTypeId() != null) {
+				return resolveResource(property.getResourceTypeName(), property.getResourceTypeId());
+			}
+		}
+		return null;
+	}
+	
+	private IndexChange resolvePath(String relativePath) {
+		if(!StringHelper.containsNonWhitespace(relativePath)) {
+			return null;
+		}
+		
+		String path = relativePath.startsWith("/") ? relativePath.substring(1) : relativePath;
+		if(path.startsWith(COURSE_PATH)) {
+			Long courseResId = parseKey(path, COURSE_PATH);
+			return courseResId == null ? null : resolveResource(CourseModule.ORES_TYPE_COURSE, courseResId);
+		}
+		if(path.startsWith(GROUP_FOLDERS_PATH)) {
+			Long groupKey = parseKey(path, GROUP_FOLDERS_PATH);
+			return groupKey == null ? null : new IndexChange(BUSINESS_GROUP_TYPE, groupKey);
+		}
+		if(path.startsWith(GROUP_WIKIS_PATH)) {
+			Long groupKey = parseKey(path, GROUP_WIKIS_PATH);
+			return groupKey == null ? null : new IndexChange(BUSINESS_GROUP_TYPE, groupKey);
+		}
+		if(path.startsWith(FORUM_PATH)) {
+			Long forumKey = parseKey(path, FORUM_PATH);
+			return forumKey == null ? null : resolveForum(forumKey);
+		}
+		return null;
+	}
+	
+	/**
+	 * @param path The relative path
+	 * @param prefix The prefix of the path followed by the key
+	 * @return The key which follows the prefix or null
+	 */
+	static Long parseKey(String path, String prefix) {
+		int start = prefix.length();
+		int end = path.indexOf('/', start);
+		String key = end < 0 ? path.substring(start) : path.substring(start, end);
+		return StringHelper.isLong(key) ? Long.valueOf(key) : null;
+	}
+	
+	static class IndexChange {
+		
+		private final String type;
+		private final Long key;
+		
+		IndexChange(String type, Long key) {
+			this.type = type;
+			this.key = key;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public Long getKey() {
+			return key;
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode() + (31 * key.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof IndexChange) {
+				IndexChange change = (IndexChange)obj;
+				return type.equals(change.type) && key.equals(change.key);
+			}
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return type + "[" + key + "]";
+		}
+	}
+	
+	private static class PendingChange {
+		
+		private final long firstChange;
+		private volatile long lastChange;
+		
+		PendingChange(long time) {
+			firstChange = time;
+			lastChange = time;
+		}
+		
+		PendingChange touch(long time) {
+			lastChange = time;
+			return this;
+		}
+		
+		boolean isReady(long now, long debounce, long maxDelay) {
+			return now - lastChange >= debounce || now - firstChange >= maxDelay;
+		}
+	}
+}
@@ -54,6 +54,7 @@ public class Index {
 	private String permanentIndexPath;
 	
 	private OlatFullIndexer fullIndexer;
+	private IncrementalIndexer incrementalIndexer;
 	private SearchSpellChecker spellChecker;
 	private LifeFullIndexer lifeIndexer;
 
@@ -69,6 +70,12 @@ public class Index {
 		this.lifeIndexer = lifeIndexer;
 		
 		fullIndexer = new OlatFullIndexer(this, searchModule, searchService, mainIndexer, coordinatorManager);
+		// same as the full index, not in test mode
+		if (searchModule.isIncrementalIndexingEnabled() && !Settings.isJUnitTest()) {
+			incrementalIndexer = new IncrementalIndexer(searchModule, fullIndexer, searchService);
+			lifeIndexer.addIndexChangeListener(incrementalIndexer);
+			incrementalIndexer.start();
+		}
 	}
 
 	/**
@@ -89,6 +96,15 @@ public class Index {
 	public void stopFullIndex() {
 		fullIndexer.stopIndexing();
 	}
+	
+	/**
+	 * Stop the incremental indexer.
+	 */
+	public void stop() {
+		if(incrementalIndexer != null) {
+			incrementalIndexer.stop();
+		}
+	}
 
 	/**
 	 * Check if index exist.
@@ -129,8 +145,17 @@ public class Index {
 		if (log.isDebugEnabled())  log.debug("Copy new generated Index from '" + tempIndexPath + "/main" + "' to '" + indexPath + "'");
 		// Delete existing index files
 		File tempIndexDir = new File(tempIndexPath);
-		FileUtils.deleteDirsAndFiles(indexDir, true, false);
-		FileUtils.copyDirContentsToDir(new File(tempIndexDir, "main") , indexDir ,true, "search indexer move tmp index");
+		if(incrementalIndexer != null) {
+			incrementalIndexer.lock();
+		}
+		try {
+			FileUtils.deleteDirsAndFiles(indexDir, true, false);
+			FileUtils.copyDirContentsToDir(new File(tempIndexDir, "main") , indexDir ,true, "search indexer move tmp index");
+		} finally {
+			if(incrementalIndexer != null) {
+				incrementalIndexer.unlock();
+			}
+		}
 		log.info("New generated Index ready to use." );
 		
 		spellChecker.createSpellIndex();
@@ -139,6 +164,13 @@ public class Index {
 	public OlatFullIndexer getIndexer() {
 		return fullIndexer;
 	}
+	
+	/**
+	 * @return The incremental indexer or null if disabled
+	 */
+	public IncrementalIndexer getIncrementalIndexer() {
+		return incrementalIndexer;
+	}
 
 	/**
 	 * @return  Return current status of full-indexer.
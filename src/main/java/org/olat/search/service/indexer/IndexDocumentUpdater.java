@@ -0,0 +1,445 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.commons.services.vfs.model.VFSMetadataRefImpl;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.vfs.VFSItem;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.course.CourseModule;
+import org.olat.group.BusinessGroup;
+import org.olat.group.BusinessGroupService;
+import org.olat.modules.fo.Message;
+import org.olat.modules.fo.manager.ForumManager;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryEntryStatusEnum;
+import org.olat.repository.RepositoryManager;
+import org.olat.repository.manager.RepositoryEntryDocumentFactory;
+import org.olat.search.model.AbstractOlatDocument;
+import org.olat.search.service.SearchResourceContext;
+import org.olat.search.service.document.ForumMessageDocument;
+import org.olat.search.service.document.GroupDocument;
+import org.olat.search.service.document.RepositoryEntryDocument;
+import org.olat.search.service.document.file.FileDocument;
+import org.olat.search.service.document.file.FileDocumentFactory;
+import org.olat.search.service.indexer.IncrementalIndexer.IndexChange;
+
+/**
+ * Update the documents of a single change in the main index. The documents
+ * are found in the index with their resource URL, their context (business
+ * path, type and parent context) is taken from the indexed document or, for a
+ * new object, from the document of a sibling. If the change cannot be safely
+ * resolved to its documents, the caller indexes the whole resource again.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class IndexDocumentUpdater {
+	
+	private static final Logger log = Tracing.createLoggerFor(IndexDocumentUpdater.class);
+	
+	/**
+	 * The change cannot be resolved to its documents.
+	 */
+	static final int UNRESOLVED = -1;
+	
+	private static final int MAX_DOCUMENTS = 16;
+	private static final int MAX_SIBLINGS = 4;
+	private static final String MESSAGE_PREFIX = "[" + SearchResourceContext.MESSAGE_RESOURCE_TYPE + ":";
+	private static final String PATH_PREFIX = "[path=";
+	
+	private final IndexWriter writer;
+	private final IndexSearcher searcher;
+	
+	IndexDocumentUpdater(IndexWriter writer, IndexSearcher searcher) {
+		this.writer = writer;
+		this.searcher = searcher;
+	}
+	
+	/**
+	 * @param change The change
+	 * @param owner The repository entry or the business group which contains the
+	 * 		changed object, or null if not found
+	 * @return The number of documents updated or deleted, or UNRESOLVED
+	 * @throws IOException
+	 */
+	int updateDocuments(IndexChange change, IndexChange owner) throws IOException {
+		String type = change.getType();
+		if(ForumMessageDocument.TYPE.equals(type)) {
+			return updateMessage(change.getKey(), owner);
+		}
+		if(FileDocument.TYPE.equals(type)) {
+			return owner == null ? UNRESOLVED : updateFile(change.getKey(), owner);
+		}
+		if(RepositoryEntryDocument.TYPE.equals(type)) {
+			return updateRepositoryEntry(change.getKey());
+		}
+		if(GroupDocument.TYPE.equals(type)) {
+			return updateBusinessGroup(change.getKey());
+		}
+		return UNRESOLVED;
+	}
+	
+	private int updateMessage(Long messageKey, IndexChange owner) throws IOException {
+		String suffix = messageSuffix(messageKey);
+		ForumManager forumManager = CoreSpringFactory.getImpl(ForumManager.class);
+		Message message = forumManager.loadMessage(messageKey);
+		if(message == null) {
+			// the owner of a deleted message is unknown
+			return deleteByQuery(new WildcardQuery(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, "*" + escapeWildcard(suffix))));
+		}
+		if(owner == null) {
+			return UNRESOLVED;
+		}
+		
+		String ownerUrl = IncrementalIndexer.getResourceUrlPrefix(owner);
+		List<IndexedDocument> documents = findDocuments(ownerUrl, suffix);
+		if(documents.isEmpty()) {
+			// a new message takes the context of the last messages of the forum
+			List<Long> siblingKeys = forumManager.getLastMessageKeys(message.getForum().getKey(), MAX_SIBLINGS + 1);
+			for(Long siblingKey:siblingKeys) {
+				if(!siblingKey.equals(messageKey)) {
+					String siblingSuffix = messageSuffix(siblingKey);
+					documents = replaceSuffix(findDocuments(ownerUrl, siblingSuffix), siblingSuffix, suffix);
+					if(!documents.isEmpty()) {
+						break;
+					}
+				}
+			}
+		}
+		
+		List<IndexedDocument> updatedDocuments = new ArrayList<>(documents.size());
+		for(IndexedDocument document:documents) {
+			SearchResourceContext context = toContext(document);
+			if(context == null) {
+				return UNRESOLVED;
+			}
+			updatedDocuments.add(new IndexedDocument(document.getResourceUrl(), ForumMessageDocument.createDocument(context, message)));
+		}
+		return updatedDocuments.isEmpty() ? UNRESOLVED : updateDocuments(updatedDocuments);
+	}
+	
+	private int updateFile(Long metadataKey, IndexChange owner) throws IOException {
+		VFSRepositoryService vfsRepositoryService = CoreSpringFactory.getImpl(VFSRepositoryService.class);
+		VFSMetadata metadata = vfsRepositoryService.getMetadata(new VFSMetadataRefImpl(metadataKey));
+		if(metadata == null || metadata.isDirectory()) {
+			return UNRESOLVED;
+		}
+		
+		String ownerUrl = IncrementalIndexer.getResourceUrlPrefix(owner);
+		String fullPath = metadata.getRelativePath() + "/" + metadata.getFilename();
+		List<IndexedDocument> documents = findFileDocuments(ownerUrl, fullPath, metadata.getFilename());
+		if(documents == null) {
+			return UNRESOLVED;
+		}
+		
+		FileDocumentFactory documentFactory = CoreSpringFactory.getImpl(FileDocumentFactory.class);
+		VFSItem item = metadata.isDeleted() ? null : vfsRepositoryService.getItemFor(metadata);
+		if(!(item instanceof VFSLeaf) || !item.exists() || !documentFactory.isFileSupported((VFSLeaf)item)) {
+			return documents.isEmpty() ? 0 : deleteDocuments(documents);
+		}
+		
+		if(documents.isEmpty()) {
+			// a new file takes the context of a file of the same directory
+			String suffix = metadata.getFilename() + "]";
+			int numOfSiblings = 0;
+			for(VFSMetadata sibling:vfsRepositoryService.getChildren(metadata.getRelativePath())) {
+				if(sibling.isDirectory() || sibling.isDeleted() || sibling.getKey().equals(metadataKey)) {
+					continue;
+				}
+				String siblingFullPath = sibling.getRelativePath() + "/" + sibling.getFilename();
+				List<IndexedDocument> siblingDocuments = findFileDocuments(ownerUrl, siblingFullPath, sibling.getFilename());
+				if(siblingDocuments != null && !siblingDocuments.isEmpty()) {
+					documents = replaceSuffix(siblingDocuments, sibling.getFilename() + "]", suffix);
+					break;
+				}
+				if(++numOfSiblings >= MAX_SIBLINGS) {
+					break;
+				}
+			}
+			if(documents.isEmpty()) {
+				return UNRESOLVED;
+			}
+		}
+
+		IndexedDocument document = documents.get(0);
+		Document indexedDocument = document.getDocument();
+		if(indexedDocument.get(FileDocument.CONTEXT_TITLE_FIELD_NAME) == null) {
+			// indexed before the context was stored
+			return UNRESOLVED;
+		}
+		SearchResourceContext context = toContext(document);
+		if(context == null) {
+			return UNRESOLVED;
+		}
+		context.setTitle(indexedDocument.get(FileDocument.CONTEXT_TITLE_FIELD_NAME));
+		context.setDescription(indexedDocument.get(FileDocument.CONTEXT_DESCRIPTION_FIELD_NAME));
+		
+		Document updatedDocument;
+		try {
+			updatedDocument = documentFactory.extractDocument(context, (VFSLeaf)item);
+		} catch (Exception e) {
+			log.warn("Cannot index the file: {}", fullPath, e);
+			updatedDocument = null;
+		}
+		if(updatedDocument == null) {
+			return deleteDocuments(documents);
+		}
+		writer.updateDocument(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, document.getResourceUrl()), updatedDocument);
+		return 1;
+	}
+	
+	/**
+	 * @return The document of the file (one at most), or null if the file is
+	 * 		ambiguous
+	 */
+	private List<IndexedDocument> findFileDocuments(String ownerUrl, String fullPath, String filename) throws IOException {
+		List<IndexedDocument> documents = new ArrayList<>(2);
+		for(IndexedDocument document:findDocuments(ownerUrl, filename + "]")) {
+			if(isPathOf(getFilePath(document.getResourceUrl()), fullPath)) {
+				documents.add(document);
+			}
+		}
+		return documents.size() > 1 ? null : documents;
+	}
+	
+	private int updateRepositoryEntry(Long entryKey) throws IOException {
+		RepositoryEntry entry = RepositoryManager.getInstance().lookupRepositoryEntry(entryKey);
+		if(entry == null || entry.getEntryStatus() == RepositoryEntryStatusEnum.trash
+				|| entry.getEntryStatus() == RepositoryEntryStatusEnum.deleted) {
+			return UNRESOLVED;
+		}
+		
+		String resourceUrl = IncrementalIndexer.getResourceUrlPrefix(new IndexChange(IncrementalIndexer.REPOSITORY_ENTRY_TYPE, entryKey));
+		IndexedDocument document = findDocument(resourceUrl);
+		// the documents of the content have the display name as parent context name
+		if(document == null || !Objects.equals(entry.getDisplayname(), document.getDocument().get(AbstractOlatDocument.TITLE_FIELD_NAME))) {
+			return UNRESOLVED;
+		}
+		// the content of the decommissioned courses is not indexed
+		if(CourseModule.getCourseTypeName().equals(entry.getOlatResource().getResourceableTypeName())
+				&& entry.getEntryStatus().decommissioned() == hasChildren(resourceUrl)) {
+			return UNRESOLVED;
+		}
+		
+		SearchResourceContext context = toContext(document);
+		if(context == null) {
+			return UNRESOLVED;
+		}
+		context.setTitle(entry.getDisplayname());
+		context.setDescription(entry.getDescription());
+		Document updatedDocument = CoreSpringFactory.getImpl(RepositoryEntryDocumentFactory.class).createDocument(context, entry);
+		writer.updateDocument(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, resourceUrl), updatedDocument);
+		return 1;
+	}
+	
+	private int updateBusinessGroup(Long businessGroupKey) throws IOException {
+		BusinessGroup businessGroup = CoreSpringFactory.getImpl(BusinessGroupService.class).loadBusinessGroup(businessGroupKey);
+		if(businessGroup == null) {
+			return UNRESOLVED;
+		}
+		
+		String resourceUrl = IncrementalIndexer.getResourceUrlPrefix(new IndexChange(IncrementalIndexer.BUSINESS_GROUP_TYPE, businessGroupKey));
+		IndexedDocument document = findDocument(resourceUrl);
+		// the documents of the content have the name of the group as parent context name
+		if(document == null || !Objects.equals(businessGroup.getName(), document.getDocument().get(AbstractOlatDocument.TITLE_FIELD_NAME))) {
+			return UNRESOLVED;
+		}
+		
+		SearchResourceContext context = toContext(document);
+		if(context == null) {
+			return UNRESOLVED;
+		}
+		Document updatedDocument = GroupDocument.createDocument(context, businessGroup);
+		writer.updateDocument(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, resourceUrl), updatedDocument);
+		return 1;
+	}
+	
+	private boolean hasChildren(String resourceUrl) throws IOException {
+		return searcher.count(new PrefixQuery(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, resourceUrl + "["))) > 0;
+	}
+	
+	private IndexedDocument findDocument(String resourceUrl) throws IOException {
+		List<IndexedDocument> documents = search(new TermQuery(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, resourceUrl)));
+		return documents.isEmpty() ? null : documents.get(0);
+	}
+	
+	private List<IndexedDocument> findDocuments(String ownerUrl, String suffix) throws IOException {
+		String pattern = escapeWildcard(ownerUrl) + "*" + escapeWildcard(suffix);
+		return search(new WildcardQuery(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, pattern)));
+	}
+	
+	private List<IndexedDocument> search(Query query) throws IOException {
+		TopDocs topDocs = searcher.search(query, MAX_DOCUMENTS);
+		List<IndexedDocument> documents = new ArrayList<>(topDocs.scoreDocs.length);
+		for(ScoreDoc scoreDoc:topDocs.scoreDocs) {
+			Document document = searcher.doc(scoreDoc.doc);
+			documents.add(new IndexedDocument(document.get(AbstractOlatDocument.RESOURCEURL_FIELD_NAME), document));
+		}
+		return documents;
+	}
+	
+	private int updateDocuments(List<IndexedDocument> documents) throws IOException {
+		for(IndexedDocument document:documents) {
+			writer.updateDocument(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, document.getResourceUrl()), document.getDocument());
+		}
+		return documents.size();
+	}
+	
+	private int deleteDocuments(List<IndexedDocument> documents) throws IOException {
+		for(IndexedDocument document:documents) {
+			writer.deleteDocuments(new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, document.getResourceUrl()));
+		}
+		return documents.size();
+	}
+	
+	private int deleteByQuery(Query query) throws IOException {
+		int count = searcher.count(query);
+		if(count > 0) {
+			writer.deleteDocuments(query);
+		}
+		return count;
+	}
+	
+	/**
+	 * Rebuild the context of the document from its resource URL and the stored
+	 * type and parent context.
+	 * 
+	 * @return The context or null if the resource URL cannot be rebuilt
+	 */
+	private SearchResourceContext toContext(IndexedDocument document) {
+		String resourceUrl = document.getResourceUrl();
+		SearchResourceContext context = SearchResourceContext.valueOf(resourceUrl);
+		if(!resourceUrl.equals(context.getResourceUrl())) {
+			log.debug("Cannot rebuild the context of: {}", resourceUrl);
+			return null;
+		}
+		Document indexedDocument = document.getDocument();
+		context.setDocumentType(indexedDocument.get(AbstractOlatDocument.DOCUMENTTYPE_FIELD_NAME));
+		context.setParentContextType(indexedDocument.get(AbstractOlatDocument.PARENT_CONTEXT_TYPE_FIELD_NAME));
+		context.setParentContextName(indexedDocument.get(AbstractOlatDocument.PARENT_CONTEXT_NAME_FIELD_NAME));
+		return context;
+	}
+	
+	private static List<IndexedDocument> replaceSuffix(List<IndexedDocument> documents, String suffix, String newSuffix) {
+		List<IndexedDocument> newDocuments = new ArrayList<>(documents.size());
+		for(IndexedDocument document:documents) {
+			String resourceUrl = replaceSuffix(document.getResourceUrl(), suffix, newSuffix);
+			if(resourceUrl != null) {
+				newDocuments.add(new IndexedDocument(resourceUrl, document.getDocument()));
+			}
+		}
+		return newDocuments;
+	}
+	
+	/**
+	 * @param resourceUrl The resource URL
+	 * @param suffix The end of the resource URL to replace
+	 * @param newSuffix The replacement
+	 * @return The new resource URL or null if the resource URL doesn't end with the suffix
+	 */
+	static String replaceSuffix(String resourceUrl, String suffix, String newSuffix) {
+		if(resourceUrl == null || !resourceUrl.endsWith(suffix)) {
+			return null;
+		}
+		return resourceUrl.substring(0, resourceUrl.length() - suffix.length()) + newSuffix;
+	}
+	
+	static String messageSuffix(Long messageKey) {
+		return MESSAGE_PREFIX + messageKey + "]";
+	}
+	
+	/**
+	 * @param resourceUrl The resource URL of a file
+	 * @return The path of the file in its folder or null
+	 */
+	static String getFilePath(String resourceUrl) {
+		int index = resourceUrl == null ? -1 : resourceUrl.lastIndexOf(PATH_PREFIX);
+		if(index < 0 || !resourceUrl.endsWith("]")) {
+			return null;
+		}
+		return resourceUrl.substring(index + PATH_PREFIX.length(), resourceUrl.length() - 1);
+	}
+	
+	/**
+	 * @param filePath The path of the file in its folder
+	 * @param fullPath The path of the file in the file system
+	 * @return true if the full path ends with the path of the file
+	 */
+	static boolean isPathOf(String filePath, String fullPath) {
+		if(filePath == null || fullPath == null) {
+			return false;
+		}
+		String path = filePath.startsWith("/") ? filePath : "/" + filePath;
+		String full = fullPath.startsWith("/") ? fullPath : "/" + fullPath;
+		return path.length() > 1 && full.endsWith(path);
+	}
+	
+	static String escapeWildcard(String text) {
+		StringBuilder sb = new StringBuilder(text.length() + 8);
+		for(int i=0; i<text.length(); i++) {
+			char c = text.charAt(i);
+			if(c == WildcardQuery.WILDCARD_STRING || c == WildcardQuery.WILDCARD_CHAR || c == WildcardQuery.WILDCARD_ESCAPE) {
+				sb.append(WildcardQuery.WILDCARD_ESCAPE);
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+	
+	private static class IndexedDocument {
+		
+		private final String resourceUrl;
+		private final Document document;
+		
+		IndexedDocument(String resourceUrl, Document document) {
+			this.resourceUrl = resourceUrl;
+			this.document = document;
+		}
+
+		public String getResourceUrl() {
+			return resourceUrl;
+		}
+
+		public Document getDocument() {
+			return document;
+		}
+	}
+}
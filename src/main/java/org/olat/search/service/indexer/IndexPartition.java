@@ -0,0 +1,233 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.olat.core.logging.Tracing;
+
+/**
+ * A partition of the full index: the documents of a top level indexer or
+ * of a range of keys of a partitioned indexer. Every partition has its own
+ * index writer and directory, the partitions are merged at the end of the
+ * full index.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class IndexPartition {
+	
+	private static final Logger log = Tracing.createLoggerFor(IndexPartition.class);
+	
+	public static final String STATUS_WAITING  = "waiting";
+	public static final String STATUS_RUNNING  = "running";
+	public static final String STATUS_DONE = "done";
+	public static final String STATUS_FAILED = "failed";
+	
+	private final int number;
+	private final String indexerType;
+	private final Long fromKey;
+	private final Long toKey;
+	private final boolean incremental;
+	
+	private volatile String status = STATUS_WAITING;
+	private volatile long startTime;
+	private volatile long endTime;
+	private volatile int attempts;
+	private final AtomicInteger documentCount = new AtomicInteger();
+	
+	private IndexWriter indexWriter;
+	private final List<Future<Boolean>> tasks = Collections.synchronizedList(new ArrayList<>());
+	
+	public IndexPartition(int number, String indexerType, Long fromKey, Long toKey) {
+		this(number, indexerType, fromKey, toKey, false);
+	}
+	
+	/**
+	 * @param incremental true if the partition updates the current index, it's not
+	 * 		part of a full index
+	 */
+	public IndexPartition(int number, String indexerType, Long fromKey, Long toKey, boolean incremental) {
+		this.number = number;
+		this.indexerType = indexerType;
+		this.fromKey = fromKey;
+		this.toKey = toKey;
+		this.incremental = incremental;
+	}
+
+	/**
+	 * @return The number of the partition, used as name of its directory
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	public String getIndexerType() {
+		return indexerType;
+	}
+
+	public Long getFromKey() {
+		return fromKey;
+	}
+
+	public Long getToKey() {
+		return toKey;
+	}
+	
+	public boolean isIncremental() {
+		return incremental;
+	}
+	
+	public boolean isRange() {
+		return fromKey != null || toKey != null;
+	}
+	
+	public String getName() {
+		String name = indexerType;
+		int index = name.lastIndexOf('.');
+		if(index >= 0 && index + 1 < name.length()) {
+			name = name.substring(index + 1);
+		}
+		if(isRange()) {
+			name += " [" + (fromKey == null ? "" : fromKey) + "-" + (toKey == null ? "" : toKey) + "[";
+		}
+		return name;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+	
+	public boolean isDone() {
+		return STATUS_DONE.equals(status);
+	}
+	
+	/**
+	 * A failed partition is not done, it will be indexed again.
+	 * 
+	 * @return true if the last attempt to index the partition failed
+	 */
+	public boolean isFailed() {
+		return STATUS_FAILED.equals(status);
+	}
+	
+	/**
+	 * @return The number of times the partition was started in this run
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+	
+	public int getDocumentCount() {
+		return documentCount.get();
+	}
+	
+	/**
+	 * @return The number of documents indexed per second
+	 */
+	public long getThroughput() {
+		if(startTime <= 0) {
+			return 0l;
+		}
+		long end = endTime > 0 ? endTime : System.currentTimeMillis();
+		long duration = Math.max(1l, end - startTime);
+		return (documentCount.get() * 1000l) / duration;
+	}
+	
+	public long getDuration() {
+		if(startTime <= 0) {
+			return 0l;
+		}
+		long end = endTime > 0 ? endTime : System.currentTimeMillis();
+		return end - startTime;
+	}
+	
+	void start(IndexWriter writer) {
+		indexWriter = writer;
+		documentCount.set(0);
+		startTime = System.currentTimeMillis();
+		endTime = 0l;
+		attempts++;
+		status = STATUS_RUNNING;
+	}
+	
+	void end(String endStatus) {
+		indexWriter = null;
+		endTime = System.currentTimeMillis();
+		status = endStatus;
+	}
+	
+	/**
+	 * The index writer of Lucene is thread-safe, the documents of the
+	 * partition can be added by several threads.
+	 * 
+	 * @param document The document to add
+	 * @throws IOException
+	 */
+	void addDocument(Document document) throws IOException {
+		indexWriter.addDocument(document);
+		documentCount.incrementAndGet();
+	}
+	
+	void addTask(Future<Boolean> task) {
+		tasks.add(task);
+	}
+	
+	/**
+	 * Wait until all the tasks submitted by the indexers of the partition
+	 * are done. The documents of a failed task are missing, the partition
+	 * cannot be marked as done.
+	 * 
+	 * @return The number of failed tasks
+	 * @throws InterruptedException
+	 */
+	int awaitTasks() throws InterruptedException {
+		int failed = 0;
+		for(int i=0; i<tasks.size(); i++) {
+			try {
+				tasks.get(i).get();
+			} catch (ExecutionException e) {
+				failed++;
+				log.error("Task failed in partition: {}", getName(), e.getCause());
+			}
+		}
+		tasks.clear();
+		return failed;
+	}
+
+	@Override
+	public String toString() {
+		return getName() + " " + status + ", " + documentCount.get() + " docs, " + getThroughput() + " docs/s";
+	}
+}
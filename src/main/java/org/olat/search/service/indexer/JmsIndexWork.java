@@ -36,6 +36,7 @@ public class JmsIndexWork implements Serializable {
 	
 	public static final String INDEX = "index";
 	public static final String DELETE = "delete";
+	public static final String CHANGE = "change";
 	
 	private String indexType;
 	private List<Long> keyList;
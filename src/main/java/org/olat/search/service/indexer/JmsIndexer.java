@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
@@ -86,13 +87,16 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 	
 	private double ramBufferSizeMB;
 	private boolean indexingNode;
+	private boolean incrementalIndexing;
 
 	private FullIndexerStatus fullIndexerStatus;
 
 	private List<LifeIndexer> indexers = new ArrayList<>();
+	private final List<IndexChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 	
 	public JmsIndexer(SearchModule searchModuleConfig, CoordinatorManager coordinatorManager) {
 		indexingNode = searchModuleConfig.isSearchServiceEnabled();
+		incrementalIndexing = searchModuleConfig.isIncrementalIndexingEnabled();
 		ramBufferSizeMB = searchModuleConfig.getRAMBufferSizeMB();
 		permanentIndexPath = searchModuleConfig.getFullPermanentIndexPath();
 		fullIndexerStatus = new FullIndexerStatus(0);
@@ -145,6 +149,11 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		indexers.add(indexer);
 	}
 	
+	@Override
+	public void addIndexChangeListener(IndexChangeListener listener) {
+		changeListeners.add(listener);
+	}
+	
 	public List<LifeIndexer> getIndexerByType(String type) {
 		List<LifeIndexer> indexerByType = new ArrayList<>();
 		for(LifeIndexer indexer:indexers) {
@@ -271,6 +280,19 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		sendMessage(new JmsIndexWork(JmsIndexWork.INDEX, type, keyList));
 	}
 	
+	/**
+	 * The change is sent after the commit of the current transaction, the
+	 * indexing node must read the committed state. It's discarded if the
+	 * transaction is rolled back.
+	 */
+	@Override
+	public void indexChange(String type, Long key) {
+		if(incrementalIndexing && isEnabled() && key != null) {
+			JmsIndexWork workUnit = new JmsIndexWork(JmsIndexWork.CHANGE, type, key);
+			DBFactory.getInstance().afterCommit(() -> sendMessage(workUnit));
+		}
+	}
+	
 	private void sendMessage(JmsIndexWork workUnit) {
 		QueueSender sender;
 		QueueSession session;
@@ -303,6 +325,7 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 				} else if(JmsIndexWork.DELETE.equals(workUnit.getAction())) {
 					doDelete(workUnit);
 				}
+				fireIndexChanged(workUnit);
 				message.acknowledge();
 			} catch (JMSException e) {
 				log.error("", e);
@@ -336,6 +359,18 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		}
 	}
 	
+	private void fireIndexChanged(JmsIndexWork workUnit) {
+		if(isEnabled() && workUnit.getKeyList() != null && !workUnit.getKeyList().isEmpty()) {
+			for(IndexChangeListener listener:changeListeners) {
+				try {
+					listener.indexChanged(workUnit.getIndexType(), workUnit.getKeyList());
+				} catch (Exception e) {
+					log.error("", e);
+				}
+			}
+		}
+	}
+	
 	private DirectoryReader getReader() throws IOException {
 		if(reader == null) {
 			File tempIndexDir = new File(permanentIndexPath);
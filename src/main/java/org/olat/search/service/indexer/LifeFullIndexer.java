@@ -57,6 +57,19 @@ public interface LifeFullIndexer {
 	public void indexDocument(String type, List<Long> keyList);
 	
 	
+	/**
+	 * Notify the indexing node that an object changed. The documents of
+	 * the course or of the group which contains the object are indexed
+	 * again in the main index. The notification is sent after the commit
+	 * of the current transaction and not at all if it's rolled back.
+	 * 
+	 * @param type The type of the object
+	 * @param key The primary key of the object
+	 */
+	public void indexChange(String type, Long key);
+	
+	public void addIndexChangeListener(IndexChangeListener listener);
+	
 	/**
 	 * Delete a document
 	 * @param type
@@ -33,18 +33,24 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.apache.lucene.LucenePackage;
 import org.apache.lucene.analysis.Analyzer;
@@ -59,6 +65,7 @@ import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.olat.core.commons.persistence.DBFactory;
 import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.search.SearchModule;
@@ -68,7 +75,13 @@ import org.olat.search.service.SearchResourceContext;
 
 /**
  * Controls the hole generation of a full-index. It run in its own thread the main index.
- * The sub-indexers can use a thread pool to parallelize the works.
+ * The sub-indexers can use a thread pool to parallelize the works.<br>
+ * The full index is split in partitions: one per top level indexer, and the
+ * partitioned indexers (as the repository) in ranges of keys. The partitions
+ * are built in parallel, each one with its own index writer, and merged at the end.
+ * A checkpoint saved after every partition allows to resume an interrupted full index.
+ * A failed partition is indexed again, if it still fails after the last attempt, the
+ * full index is merged without it and the status reports the index as incomplete.
  * 
  * @author Christian Guretzki
  */
@@ -76,8 +89,8 @@ public class OlatFullIndexer {
 	
 	private static final Logger log = Tracing.createLoggerFor(OlatFullIndexer.class);
 	private static final int INDEX_MERGE_FACTOR = 1000;
-	private static final int MAX_WAITING_COUNT = 600;// = 10Min
-	private static final IndexerThreadFactory indexWriterThreadFactory = new IndexerThreadFactory("writer");
+	private static final int MAX_PARTITION_ATTEMPTS = 3;
+	private static final IndexerThreadFactory indexPartitionsThreadFactory = new IndexerThreadFactory("partition");
 	private static final IndexerThreadFactory indexWorkersThreadFactory = new IndexerThreadFactory("worker");
 
 	private String indexPath;
@@ -87,7 +100,6 @@ public class OlatFullIndexer {
 	 * Reference to indexer for done callback.
 	 */
 	private Index index;
-	private IndexWriter indexWriter;
 
 	/** Flag to stop indexing. */
 	private boolean stopIndexing;
@@ -97,6 +109,9 @@ public class OlatFullIndexer {
 	private double ramBufferSizeMB;
 	
 	private final int indexerPoolSize;
+	private final int partitionsPoolSize;
+	private final int partitionSize;
+	private final long checkpointMaxAge;
 	
 	/** Current status of full-indexer. */
 	private FullIndexerStatus fullIndexerStatus;
@@ -108,7 +123,7 @@ public class OlatFullIndexer {
 	/* Define number of documents which will be added befor sleeping (indexInterval for CPU load). */
 	int documentsPerInterval;
   /* Counts added documents in indexInterval. */
-	private int sleepDocumentCounter = 0;
+	private final AtomicInteger sleepDocumentCounter = new AtomicInteger();
 	/* List of Integer objects to count number of docs for each type. Key = document-type. */
 	private Map<String,Integer> documentCounters;
 	private Map<String,Integer> fileTypeCounters;
@@ -117,9 +132,10 @@ public class OlatFullIndexer {
 	private final SearchService searchService;
 	private final CoordinatorManager coordinatorManager;
 
-	private static final Object indexerWriterBlock = new Object();
 	private ThreadPoolExecutor indexerExecutor;
-	private ThreadPoolExecutor indexerWriterExecutor;
+	private ThreadPoolExecutor partitionsExecutor;
+	/* The partition indexed by the current thread */
+	private final ThreadLocal<IndexPartition> currentPartition = new ThreadLocal<>();
 
 	/**
 	 * 
@@ -141,6 +157,9 @@ public class OlatFullIndexer {
 		} else {
 			indexerPoolSize = searchModule.getFolderPoolSize() - 1;
 		}
+		partitionsPoolSize = Math.max(1, searchModule.getPartitionsPoolSize());
+		partitionSize = Math.max(1, searchModule.getPartitionSize());
+		checkpointMaxAge = TimeUnit.HOURS.toMillis(searchModule.getCheckpointMaxAge());
 		indexPath = searchModule.getFullIndexPath();
 		tempIndexPath = searchModule.getFullTempIndexPath();
 		indexInterval = searchModule.getIndexInterval();
@@ -219,9 +238,8 @@ public class OlatFullIndexer {
 	}
 
 	/**
-	 * Create index-writer object. In multi-threaded mode ctreates an array of index-workers.
-	 * Start indexing with main-index as root object. Index recursive all elements.
-	 * At the end optimize and close new index. 
+	 * Split the index in partitions or resume them from the checkpoint, index the
+	 * partitions in parallel and merge them in the new index.
 	 * The new index is stored in [temporary-index-path]/main
 	 * @throws InterruptedException
 	 */
@@ -232,41 +250,51 @@ public class OlatFullIndexer {
 				indexerExecutor = new ThreadPoolExecutor(indexerPoolSize, indexerPoolSize, 0L, TimeUnit.MILLISECONDS,
 						queue, indexWorkersThreadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
 			}
-			if(indexerWriterExecutor == null) {
-				BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(2);
-				indexerWriterExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, indexWriterThreadFactory);
+			if(partitionsExecutor == null) {
+				partitionsExecutor = new ThreadPoolExecutor(partitionsPoolSize, partitionsPoolSize, 0L, TimeUnit.MILLISECONDS,
+						new LinkedBlockingQueue<>(), indexPartitionsThreadFactory);
 			}
 			
 			searchService.refresh();// make sure all is up-to-date
 			
 			File tempIndexDir = new File(tempIndexPath);
-			Directory tmpIndexPath = FSDirectory.open(new File(tempIndexDir, "main").toPath());
-			indexWriter = new IndexWriter(tmpIndexPath, newIndexWriterConfig());// analyzer, true, IndexWriter.MAX_TERM_LENGTH.UNLIMITED);
-			indexWriter.deleteAll();
-			
-			SearchResourceContext searchResourceContext = new SearchResourceContext();
-			log.info("doIndex start. OlatFullIndexer with Debug output");
-			mainIndexer.doIndex(searchResourceContext, null /*no parent*/, this);
+			FullIndexerCheckpoint checkpoint = FullIndexerCheckpoint.load(tempIndexDir, checkpointMaxAge);
+			if(checkpoint == null) {
+				checkpoint = FullIndexerCheckpoint.create(tempIndexDir, createPartitions());
+			} else {
+				log.info("Resume full index started at {}", checkpoint.getCreated());
+			}
 			DBFactory.getInstance().commitAndCloseSession();
-	
-			log.info("Wait until every folder indexer is finished");
+			fullIndexerStatus.setPartitions(checkpoint.getPartitions());
+			
+			log.info("doIndex start. OlatFullIndexer with {} partitions", checkpoint.getPartitions().size());
+			for(int attempt=1; attempt<=MAX_PARTITION_ATTEMPTS && !stopIndexing; attempt++) {
+				List<IndexPartition> partitions = checkpoint.getPartitions().stream()
+						.filter(partition -> !partition.isDone())
+						.collect(Collectors.toList());
+				if(partitions.isEmpty()) {
+					break;
+				}
+				if(attempt > 1) {
+					log.info("Index again {} partitions, attempt {}", partitions.size(), attempt);
+				}
+				indexPartitions(partitions, checkpoint);
+			}
 			
+			log.info("Wait until every folder indexer is finished");
 			indexerExecutor.shutdown();
 			indexerExecutor.awaitTermination(10, TimeUnit.MINUTES);
 			DBFactory.getInstance().commitAndCloseSession();
 			
-			log.info("Wait until index writer executor is finished");
-			int waitWriter = 0;
-			while (indexerWriterExecutor.getActiveCount() > 0 && (waitWriter++ < MAX_WAITING_COUNT)) { 
-				Thread.sleep(1000);
+			if(stopIndexing || checkpoint.getPartitions().stream().anyMatch(partition -> !partition.isDone() && !partition.isFailed())) {
+				throw new InterruptedException("Full index not complete, it will resume from the checkpoint");
 			}
-			
-			log.info("Close index writer executor");
-			fullIndexerStatus.setIndexSize(indexWriter.maxDoc());
-			//shutdown the index writer thread
-			indexerWriterExecutor.submit(new CloseIndexCallable());
-			indexerWriterExecutor.shutdown();
-			indexerWriterExecutor.awaitTermination(1, TimeUnit.MINUTES);
+			if(!fullIndexerStatus.isComplete()) {
+				// the documents of the other partitions are too valuable to throw them away
+				log.error("Full index incomplete, partitions failed after {} attempts: {}", MAX_PARTITION_ATTEMPTS, fullIndexerStatus.getFailedPartitions());
+			}
+			mergePartitions(tempIndexDir, checkpoint);
+			checkpoint.delete();
 		} catch (IOException e) {
 			log.warn("Can not create IndexWriter, indexname=" + tempIndexPath, e);
 		} finally {
@@ -277,16 +305,224 @@ public class OlatFullIndexer {
 				indexerExecutor.shutdownNow();
 				indexerExecutor = null;
 			}
-			if(indexerWriterExecutor != null) {
-				indexerWriterExecutor.shutdownNow();
-				indexerWriterExecutor = null;
+			if(partitionsExecutor != null) {
+				partitionsExecutor.shutdownNow();
+				partitionsExecutor = null;
+			}
+		}
+	}
+	
+	/**
+	 * One partition per type of top level indexer, the partitioned indexers are
+	 * split in ranges of keys.
+	 * 
+	 * @return The list of partitions
+	 */
+	private List<IndexPartition> createPartitions() {
+		List<IndexPartition> partitions = new ArrayList<>();
+		Set<String> types = new HashSet<>();
+		for(Indexer indexer:mainIndexer.getChildIndexers()) {
+			String type = indexer.getSupportedTypeName();
+			if(indexer instanceof PartitionedIndexer) {
+				List<Long> boundaries = ((PartitionedIndexer)indexer).getPartitionBoundaries(partitionSize);
+				for(int i=0; i<boundaries.size(); i++) {
+					Long toKey = i + 1 < boundaries.size() ? boundaries.get(i + 1) : null;
+					partitions.add(new IndexPartition(partitions.size(), type, boundaries.get(i), toKey));
+				}
+			} else if(types.add(type)) {
+				partitions.add(new IndexPartition(partitions.size(), type, null, null));
+			}
+		}
+		return partitions;
+	}
+	
+	private void indexPartitions(List<IndexPartition> partitions, FullIndexerCheckpoint checkpoint) throws InterruptedException {
+		List<Future<?>> partitionsFutures = new ArrayList<>(partitions.size());
+		for(IndexPartition partition:partitions) {
+			partitionsFutures.add(partitionsExecutor.submit(() -> indexPartition(partition, checkpoint)));
+		}
+		for(Future<?> partitionFuture:partitionsFutures) {
+			try {
+				partitionFuture.get();
+			} catch (ExecutionException e) {
+				log.error("", e);
+			}
+		}
+	}
+	
+	private void indexPartition(IndexPartition partition, FullIndexerCheckpoint checkpoint) {
+		if(stopIndexing) {
+			return;
+		}
+		
+		IndexWriter partitionWriter = null;
+		currentPartition.set(partition);
+		try {
+			Directory directory = FSDirectory.open(checkpoint.getPartitionDirectory(partition).toPath());
+			partitionWriter = new IndexWriter(directory, newIndexWriterConfig());
+			partitionWriter.deleteAll();// a partial partition of an interrupted run
+			partition.start(partitionWriter);
+			
+			String endStatus = IndexPartition.STATUS_DONE;
+			try {
+				doIndexPartition(partition);
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				// same as the hierarchical indexer, the partition is not lost for an error
+				log.warn("Exception in partition: {}, attempt: {}", partition.getName(), partition.getAttempts(), e);
+				endStatus = IndexPartition.STATUS_FAILED;
+			}
+			int failedTasks = partition.awaitTasks();
+			if(failedTasks > 0) {
+				log.warn("{} tasks failed in partition: {}, attempt: {}", failedTasks, partition.getName(), partition.getAttempts());
+				endStatus = IndexPartition.STATUS_FAILED;
+			}
+			if(stopIndexing) {
+				throw new InterruptedException("Do stop indexing partition: " + partition.getName());
+			}
+			
+			partitionWriter.commit();
+			partitionWriter.close();
+			partitionWriter = null;
+			partition.end(endStatus);
+			checkpoint.save();
+			log.info("Partition indexed: {}", partition);
+		} catch (InterruptedException e) {
+			log.info("Partition interrupted: {}", partition.getName());
+			partition.end(IndexPartition.STATUS_WAITING);
+		} catch (IOException e) {
+			log.error("Cannot index partition: {}", partition.getName(), e);
+			partition.end(IndexPartition.STATUS_WAITING);
+		} finally {
+			currentPartition.remove();
+			rollback(partitionWriter);
+			DBFactory.getInstance().commitAndCloseSession();
+		}
+	}
+	
+	private void doIndexPartition(IndexPartition partition) throws IOException, InterruptedException {
+		List<Indexer> indexers = mainIndexer.getIndexerByType(partition.getIndexerType());
+		if(indexers == null || indexers.isEmpty()) {
+			log.warn("No indexer found for partition: {}", partition.getName());
+			return;
+		}
+		
+		SearchResourceContext searchResourceContext = new SearchResourceContext();
+		for(Indexer indexer:indexers) {
+			// the partitioned indexers have their own partitions
+			if(indexer instanceof PartitionedIndexer) {
+				if(partition.isRange()) {
+					((PartitionedIndexer)indexer).doIndex(searchResourceContext, null, this, partition.getFromKey(), partition.getToKey());
+				}
+			} else if(!partition.isRange()) {
+				indexer.doIndex(searchResourceContext, null, this);
+			}
+		}
+	}
+	
+	/**
+	 * Index again the documents of a top level object, a repository entry or a
+	 * business group, directly with the specified index writer of the current index.
+	 * The work is done in the calling thread.
+	 * 
+	 * @param writer The index writer of the current index
+	 * @param indexerType The type of the partitioned indexer
+	 * @param key The primary key of the object
+	 * @return The number of documents added
+	 * @throws OLATRuntimeException If some documents cannot be indexed
+	 */
+	public int indexIncremental(IndexWriter writer, String indexerType, Long key) throws IOException, InterruptedException {
+		IndexPartition partition = new IndexPartition(-1, indexerType, key, Long.valueOf(key.longValue() + 1), true);
+		currentPartition.set(partition);
+		try {
+			partition.start(writer);
+			for(Indexer indexer:mainIndexer.getIndexerByType(indexerType)) {
+				if(indexer instanceof PartitionedIndexer) {
+					((PartitionedIndexer)indexer).doIndex(new SearchResourceContext(), null, this, partition.getFromKey(), partition.getToKey());
+				}
+			}
+			int failedTasks = partition.awaitTasks();
+			if(failedTasks > 0) {
+				partition.end(IndexPartition.STATUS_FAILED);
+				throw new OLATRuntimeException(failedTasks + " tasks failed in partition: " + partition.getName());
 			}
+			partition.end(IndexPartition.STATUS_DONE);
+			return partition.getDocumentCount();
+		} finally {
+			currentPartition.remove();
 		}
 	}
 	
+	/**
+	 * @param indexerType The type of a top level indexer
+	 * @return true if the objects of this type can be indexed one by one
+	 */
+	public boolean isIncrementalSupported(String indexerType) {
+		List<Indexer> indexers = mainIndexer.getIndexerByType(indexerType);
+		return indexers != null && indexers.stream().anyMatch(PartitionedIndexer.class::isInstance);
+	}
+	
+	private void rollback(IndexWriter partitionWriter) {
+		if(partitionWriter != null) {
+			try {
+				partitionWriter.rollback();
+			} catch (IOException e) {
+				log.error("", e);
+			}
+		}
+	}
+	
+	private void mergePartitions(File tempIndexDir, FullIndexerCheckpoint checkpoint) throws IOException {
+		long start = System.nanoTime();
+		List<Directory> directories = new ArrayList<>();
+		for(IndexPartition partition:checkpoint.getPartitions()) {
+			directories.add(FSDirectory.open(checkpoint.getPartitionDirectory(partition).toPath()));
+		}
+		
+		Directory tmpIndexPath = FSDirectory.open(new File(tempIndexDir, "main").toPath());
+		try(IndexWriter indexWriter = new IndexWriter(tmpIndexPath, newIndexWriterConfig())) {
+			indexWriter.deleteAll();
+			indexWriter.addIndexes(directories.toArray(new Directory[directories.size()]));
+			indexWriter.commit();
+			fullIndexerStatus.setIndexSize(indexWriter.maxDoc());
+		}
+		log.info("Merge of {} partitions takes (ms): {}", directories.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	/**
+	 * Submit a task to the pool of workers. The task is done for the
+	 * partition of the current thread.
+	 * 
+	 * @param task The task
+	 * @return The future of the task
+	 */
 	public Future<Boolean> submit(Callable<Boolean> task) {
-		if(indexerExecutor != null && !indexerExecutor.isShutdown()) {
-			return indexerExecutor.submit(task);
+		final IndexPartition partition = currentPartition.get();
+		if(partition != null && partition.isIncremental()) {
+			// an incremental index is small enough to be done in one thread
+			FutureTask<Boolean> future = new FutureTask<>(task);
+			future.run();
+			return future;
+		} else if(indexerExecutor != null && !indexerExecutor.isShutdown()) {
+			Future<Boolean> future = indexerExecutor.submit(() -> {
+				// with the caller runs policy, the task can run in the thread of the partition
+				IndexPartition previous = currentPartition.get();
+				currentPartition.set(partition);
+				try {
+					return task.call();
+				} finally {
+					if(previous == null) {
+						currentPartition.remove();
+					} else {
+						currentPartition.set(previous);
+					}
+				}
+			});
+			if(partition != null) {
+				partition.addTask(future);
+			}
+			return future;
 		} else {
 			log.error("Try to submit a task to index executor but it's closed.");
 			return null;
@@ -318,6 +554,10 @@ public class OlatFullIndexer {
 			log.info("full indexing summary: finished:          "+status.getLastFullIndexDateString());
 			log.info("full indexing summary: time:              "+status.getIndexingTime()+" ms");
 			log.info("full indexing summary: size:              "+status.getIndexSize());
+			log.info("full indexing summary: partitions:        "+status.getPartitionsSummary());
+			if(!status.isComplete()) {
+				log.info("full indexing summary: failed partitions: "+status.getFailedPartitions());
+			}
 			
 			log.info("full indexing summary: document counters: "+status.getDocumentCounters());
 			log.info("full indexing summary: file type counters:"+status.getFileTypeCounters());
@@ -344,59 +584,68 @@ public class OlatFullIndexer {
 	}
 	
 	/**
-	 * Add a document to the index writer. The document is indexed by a single threaded executor,
-	 * Lucene want that write operations happen within a single thread. The access is synchronized
-	 * to block concurrent access to the executor. It blocks the text extractors and allow a
-	 * ridiculously small queue but memory efficient.
+	 * Add a document to the index writer of the partition of the current thread.
+	 * The index writers of Lucene are thread-safe, the documents of the partitions
+	 * are added in parallel.
 	 * 
 	 * @param document
-	 * @throws IOException
+	 * @throws InterruptedException
 	 */
 	public void addDocument(Document document) throws InterruptedException {
 		DBFactory.getInstance().commitAndCloseSession();
 		
-		if (!stopIndexing && indexerWriterExecutor != null && !indexerWriterExecutor.isShutdown()) {
-			synchronized(indexerWriterBlock) {//once at a time please, wait, you have enough time
-				Future<Boolean> future = indexerWriterExecutor.submit(new AddDocumentCallable(document));
-				try {
-					future.get();
-				} catch (ExecutionException e) {
-					log.error("", e);
-				}
+		IndexPartition partition = currentPartition.get();
+		if(partition != null && partition.isIncremental()) {
+			try {
+				partition.addDocument(document);
+			} catch (IOException e) {
+				log.error("", e);
 			}
+			return;
+		}
+		
+		if (stopIndexing) {
+			throw new InterruptedException("Do stop indexing at element=" + fullIndexerStatus.getDocumentCount());
+		}
+		
+		if(partition == null) {
+			log.error("Try to add a document outside of a partition");
+			return;
+		}
+		
+		try {
+			partition.addDocument(document);
+			fullIndexerStatus.incrementDocumentCount();
+			if (indexInterval != 0 && sleepDocumentCounter.incrementAndGet() % Math.max(1, documentsPerInterval) == 0) {
+				Thread.sleep(indexInterval);
+			}
+			countIndexPerMinute();
+		} catch (IOException e) {
+			log.error("", e);
 		}
 
 		incrementDocumentTypeCounter(document);
 		incrementFileTypeCounter(document);
-		fullIndexerStatus.setNumberAvailableFolderIndexer(indexerExecutor.getPoolSize());
-		fullIndexerStatus.setNumberRunningFolderIndexer(indexerExecutor.getActiveCount());
+		ThreadPoolExecutor executor = indexerExecutor;
+		if(executor != null) {
+			fullIndexerStatus.setNumberAvailableFolderIndexer(executor.getPoolSize());
+			fullIndexerStatus.setNumberRunningFolderIndexer(executor.getActiveCount());
+		}
 	}
 	
 	private void incrementFileTypeCounter(Document document) {
 		String fileType = document.get(OlatDocument.FILETYPE_FIELD_NAME);
 		if ( (fileType != null) && (!fileType.equals(""))) {
-			int intValue = 0;
-			if (fileTypeCounters.containsKey(fileType)) {
-			  Integer fileCounter = fileTypeCounters.get(fileType);
-			  intValue = fileCounter.intValue();
-			}
-			intValue++;
-			fileTypeCounters.put(fileType, Integer.valueOf(intValue));
+			fileTypeCounters.merge(fileType, Integer.valueOf(1), Integer::sum);
 		}
 	}
 
 	private void incrementDocumentTypeCounter(Document document) {
 		String documentType = document.get(OlatDocument.DOCUMENTTYPE_FIELD_NAME);
-		int intValue = 0;
-		if (documentCounters.containsKey(documentType)) {
-		  Integer docCounter = documentCounters.get(documentType);
-		  intValue = docCounter.intValue();
-		}
-		intValue++;
-		documentCounters.put(documentType, Integer.valueOf(intValue));
+		documentCounters.merge(documentType, Integer.valueOf(1), Integer::sum);
 	}
 
-	private void countIndexPerMinute() {
+	private synchronized void countIndexPerMinute() {
 		long currentTime = System.currentTimeMillis();
 		if (lastMinute+60000 > currentTime) {
 			// it is teh same minute
@@ -446,39 +695,6 @@ public class OlatFullIndexer {
 		fileTypeCounters = new Hashtable<>();		
 	}
 	
-	private class CloseIndexCallable implements Callable<Boolean> {
-
-		@Override
-		public Boolean call() throws Exception {
-			indexWriter.commit();
-			indexWriter.close();
-			indexWriter = null;
-			return Boolean.TRUE;
-		}
-	}
-	
-	private class AddDocumentCallable implements Callable<Boolean> {
-		private final Document document;
-		
-		public AddDocumentCallable(Document document) {
-			this.document = document;
-		}
-
-		@Override
-		public Boolean call() throws Exception {
-			indexWriter.addDocument(document);
-			fullIndexerStatus.incrementDocumentCount();
-			if (indexInterval != 0 && sleepDocumentCounter++ >= documentsPerInterval) {
-				sleepDocumentCounter = 0;
-				Thread.sleep(indexInterval);
-			} else if (stopIndexing) {
-				throw new InterruptedException("Do stop indexing at element=" + indexWriter.maxDoc());
-			}
-			countIndexPerMinute();
-			return Boolean.TRUE;
-		}
-	}
-	
 	private static class IndexerThreadFactory implements ThreadFactory {
 
 		private static final AtomicInteger poolNumber = new AtomicInteger(1);
@@ -0,0 +1,59 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.olat.search.service.SearchResourceContext;
+
+/**
+ * An indexer which can split its work in partitions of keys. Every
+ * partition is indexed independently of the others by the full indexer.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface PartitionedIndexer extends Indexer {
+	
+	/**
+	 * The boundaries are the first keys of every partition, the partition
+	 * ends before the first key of the next one, the last partition is
+	 * open.
+	 * 
+	 * @param partitionSize The number of objects per partition
+	 * @return The ordered list of the first key of every partition
+	 */
+	public List<Long> getPartitionBoundaries(int partitionSize);
+	
+	/**
+	 * Index the objects with a key in the range.
+	 * 
+	 * @param searchResourceContext The context
+	 * @param parentObject The parent object
+	 * @param indexer The callback to add documents to the index
+	 * @param fromKey The first key (inclusive) or null
+	 * @param toKey The last key (exclusive) or null
+	 */
+	public void doIndex(SearchResourceContext searchResourceContext, Object parentObject, OlatFullIndexer indexer,
+			Long fromKey, Long toKey) throws IOException, InterruptedException;
+
+}
@@ -27,6 +27,7 @@ package org.olat.search.service.indexer.group;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -49,12 +50,13 @@ import org.olat.search.service.SearchResourceContext;
 import org.olat.search.service.document.GroupDocument;
 import org.olat.search.service.indexer.AbstractHierarchicalIndexer;
 import org.olat.search.service.indexer.OlatFullIndexer;
+import org.olat.search.service.indexer.PartitionedIndexer;
 
 /**
  * Index all business-groups. Includes group-forums and groups-folders. 
  * @author Christian Guretzki
  */
-public class GroupIndexer extends AbstractHierarchicalIndexer {
+public class GroupIndexer extends AbstractHierarchicalIndexer implements PartitionedIndexer {
 	
 	private static final Logger log = Tracing.createLoggerFor(GroupIndexer.class);
 	
@@ -83,35 +85,72 @@ public class GroupIndexer extends AbstractHierarchicalIndexer {
 
 		// loop over all groups
 		for(BusinessGroup businessGroup:groupList){
-			try {
-				// reload the businessGroup here before indexing it to make sure it has not been deleted in the meantime
-				BusinessGroup reloadedBusinessGroup = businessGroupService.loadBusinessGroup(businessGroup);
-				if (reloadedBusinessGroup==null) {
-					log.info("doIndex: businessGroup was deleted while we were indexing. The deleted businessGroup was: "+businessGroup);
-					continue;
-				}
-				businessGroup = reloadedBusinessGroup;
-				
-				if (log.isDebugEnabled()) log.debug("Index BusinessGroup=" + businessGroup);
-				SearchResourceContext searchResourceContext = new SearchResourceContext(parentResourceContext);
-				searchResourceContext.setBusinessControlFor(businessGroup);
-				Document document = GroupDocument.createDocument(searchResourceContext, businessGroup);
-				indexWriter.addDocument(document);
-		    // Do index child 
-			  super.doIndex(searchResourceContext, businessGroup, indexWriter);
-			} catch(Exception ex) {
-				log.error("Exception indexing group=" + businessGroup, ex);
-				DBFactory.getInstance().rollbackAndCloseSession();
-			} catch (Error err) {
-				log.error("Error indexing group=" + businessGroup, err);
-				DBFactory.getInstance().rollbackAndCloseSession();
-			}
-			DBFactory.getInstance().commitAndCloseSession();
-	  }
+			doIndex(parentResourceContext, businessGroup.getKey(), indexWriter);
+		}
 		long indexTime = System.currentTimeMillis() - startTime;
 		if (log.isDebugEnabled()) log.debug("GroupIndexer finished in {} ms", indexTime);
 	}
 
+	@Override
+	public List<Long> getPartitionBoundaries(int partitionSize) {
+		List<Long> keys = businessGroupService.loadBusinessGroupKeys(null, null);
+		DBFactory.getInstance().commitAndCloseSession();
+		
+		List<Long> boundaries = new ArrayList<>((keys.size() / partitionSize) + 1);
+		for(int i=0; i<keys.size(); i+=partitionSize) {
+			boundaries.add(keys.get(i));
+		}
+		return boundaries;
+	}
+
+	/**
+	 * Loops over the business groups with a key in the range.
+	 * 
+	 * @see org.olat.search.service.indexer.PartitionedIndexer#doIndex(org.olat.search.service.SearchResourceContext, java.lang.Object, org.olat.search.service.indexer.OlatFullIndexer, java.lang.Long, java.lang.Long)
+	 */
+	@Override
+	public void doIndex(SearchResourceContext parentResourceContext, Object parentObject, OlatFullIndexer indexWriter,
+			Long fromKey, Long toKey) throws IOException, InterruptedException {
+		List<Long> businessGroupKeys = businessGroupService.loadBusinessGroupKeys(fromKey, toKey);
+		DBFactory.getInstance().commitAndCloseSession();
+		
+		for(Long businessGroupKey:businessGroupKeys) {
+			doIndex(parentResourceContext, businessGroupKey, indexWriter);
+		}
+		if (log.isDebugEnabled()) log.debug("GroupIndexer finished range: {} - {} counter={}", fromKey, toKey, businessGroupKeys.size());
+	}
+	
+	private void doIndex(SearchResourceContext parentResourceContext, Long businessGroupKey, OlatFullIndexer indexWriter)
+	throws InterruptedException {
+		BusinessGroup businessGroup = null;
+		try {
+			// reload the businessGroup here before indexing it to make sure it has not been deleted in the meantime
+			businessGroup = businessGroupService.loadBusinessGroup(businessGroupKey);
+			if (businessGroup==null) {
+				log.info("doIndex: businessGroup was deleted while we were indexing. The deleted businessGroup was: "+businessGroupKey);
+				return;
+			}
+			
+			if (log.isDebugEnabled()) log.debug("Index BusinessGroup=" + businessGroup);
+			SearchResourceContext searchResourceContext = new SearchResourceContext(parentResourceContext);
+			searchResourceContext.setBusinessControlFor(businessGroup);
+			Document document = GroupDocument.createDocument(searchResourceContext, businessGroup);
+			indexWriter.addDocument(document);
+			// Do index child 
+			super.doIndex(searchResourceContext, businessGroup, indexWriter);
+		} catch(InterruptedException ex) {
+			DBFactory.getInstance().rollbackAndCloseSession();
+			throw ex;
+		} catch(Exception ex) {
+			log.error("Exception indexing group=" + (businessGroup == null ? businessGroupKey : businessGroup), ex);
+			DBFactory.getInstance().rollbackAndCloseSession();
+		} catch (Error err) {
+			log.error("Error indexing group=" + (businessGroup == null ? businessGroupKey : businessGroup), err);
+			DBFactory.getInstance().rollbackAndCloseSession();
+		}
+		DBFactory.getInstance().commitAndCloseSession();
+	}
+
 	@Override
 	public boolean checkAccess(ContextEntry contextEntry, BusinessControl businessControl, Identity identity, Roles roles) {
 		if(roles.isGuestOnly()) {
@@ -27,6 +27,7 @@ package org.olat.search.service.indexer.repository;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.logging.log4j.Logger;
@@ -57,13 +58,14 @@ import org.olat.search.service.SearchResourceContext;
 import org.olat.search.service.indexer.AbstractHierarchicalIndexer;
 import org.olat.search.service.indexer.Indexer;
 import org.olat.search.service.indexer.OlatFullIndexer;
+import org.olat.search.service.indexer.PartitionedIndexer;
 
 /**
  * Index the whole OLAT-repository.
  * @author Christian Guretzki
  * 
  */
-public class RepositoryIndexer extends AbstractHierarchicalIndexer {
+public class RepositoryIndexer extends AbstractHierarchicalIndexer implements PartitionedIndexer {
 
 	private static final Logger log = Tracing.createLoggerFor(RepositoryIndexer.class);
 	
@@ -137,52 +139,7 @@ public class RepositoryIndexer extends AbstractHierarchicalIndexer {
 			repositoryList = repositoryService.loadRepositoryEntries(counter, BATCH_SIZE);
 	
 			for(RepositoryEntry repositoryEntry:repositoryList) {
-				try {
-					// reload the repositoryEntry here before indexing it to make sure it has not been deleted in the meantime
-					RepositoryEntry reloadedRepositoryEntry = repositoryService.loadByKey(repositoryEntry.getKey());
-					if (reloadedRepositoryEntry==null) {
-						log.info("doIndex: repositoryEntry was deleted while we were indexing. The deleted repositoryEntry was: "+repositoryEntry);
-						continue;
-					}
-					if(repositoryEntry.getEntryStatus() == RepositoryEntryStatusEnum.trash
-							|| repositoryEntry.getEntryStatus() == RepositoryEntryStatusEnum.deleted) {
-						continue;
-					}
-					
-					repositoryEntry = reloadedRepositoryEntry;
-					if (debug) {
-						log.debug("Index repositoryEntry=" + repositoryEntry + "  counter=" + counter++ + " with ResourceableId=" + repositoryEntry.getOlatResource().getResourceableId());
-					}
-					if (!isOnBlacklist(repositoryEntry.getOlatResource().getResourceableId()) ) {
-						SearchResourceContext searchResourceContext = new SearchResourceContext(parentResourceContext);
-						searchResourceContext.setBusinessControlFor(repositoryEntry);
-						searchResourceContext.setTitle(repositoryEntry.getDisplayname());
-						searchResourceContext.setDescription(repositoryEntry.getDescription());
-						Document document = documentFactory.createDocument(searchResourceContext, repositoryEntry);
-						indexWriter.addDocument(document);
-						// Pass created-date & modified-date in context to child indexer because the child have no dates
-						searchResourceContext.setLastModified(repositoryEntry.getLastModified());
-						searchResourceContext.setCreatedDate(repositoryEntry.getCreationDate());
-						// go further with resource
-						Indexer repositoryEntryIndexer = getRepositoryEntryIndexer(repositoryEntry);
-						if (repositoryEntryIndexer != null) {
-							repositoryEntryIndexer.doIndex(searchResourceContext, repositoryEntry, indexWriter);
-						} else if (debug) {
-							log.debug("No RepositoryEntryIndexer for " + repositoryEntry.getOlatResource()); // e.g. RepositoryEntry				
-						}
-					} else {
-						log.warn("RepositoryEntry is on black-list and excluded from search-index, repositoryEntry=" + repositoryEntry);
-					}
-				} catch (Throwable ex) {
-					// create meaninfull debugging output to find repo entry that is somehow broken
-					String entryDebug = "NULL";
-					if (repositoryEntry != null) {
-						entryDebug = "resId::" + repositoryEntry.getResourceableId() + " resTypeName::" + repositoryEntry.getResourceableTypeName() + " resName::" + repositoryEntry.getResourcename();
-					}
-					log.warn("Exception=" + ex.getMessage() + " for repo entry " + entryDebug, ex);
-					dbInstance.rollbackAndCloseSession();
-				}
-				dbInstance.commitAndCloseSession();
+				doIndex(parentResourceContext, repositoryEntry.getKey(), indexWriter);
 			}
 			counter += repositoryList.size();
 			
@@ -192,6 +149,91 @@ public class RepositoryIndexer extends AbstractHierarchicalIndexer {
 		}
 	}
 
+	@Override
+	public List<Long> getPartitionBoundaries(int partitionSize) {
+		List<Long> keys = repositoryService.loadRepositoryEntryKeys(null, null);
+		dbInstance.commitAndCloseSession();
+		
+		List<Long> boundaries = new ArrayList<>((keys.size() / partitionSize) + 1);
+		for(int i=0; i<keys.size(); i+=partitionSize) {
+			boundaries.add(keys.get(i));
+		}
+		return boundaries;
+	}
+
+	/**
+	 * Loops over the repository-entries with a key in the range.
+	 * 
+	 * @see org.olat.search.service.indexer.PartitionedIndexer#doIndex(org.olat.search.service.SearchResourceContext, java.lang.Object, org.olat.search.service.indexer.OlatFullIndexer, java.lang.Long, java.lang.Long)
+	 */
+	@Override
+	public void doIndex(SearchResourceContext parentResourceContext, Object parentObject, OlatFullIndexer indexWriter,
+			Long fromKey, Long toKey) throws IOException, InterruptedException {
+		List<Long> repositoryEntryKeys = repositoryService.loadRepositoryEntryKeys(fromKey, toKey);
+		dbInstance.commitAndCloseSession();
+		
+		for(Long repositoryEntryKey:repositoryEntryKeys) {
+			doIndex(parentResourceContext, repositoryEntryKey, indexWriter);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("RepositoryIndexer finished range: " + fromKey + " - " + toKey + " counter=" + repositoryEntryKeys.size());
+		}
+	}
+	
+	private void doIndex(SearchResourceContext parentResourceContext, Long repositoryEntryKey, OlatFullIndexer indexWriter)
+	throws InterruptedException {
+		boolean debug = log.isDebugEnabled();
+		RepositoryEntry repositoryEntry = null;
+		try {
+			// reload the repositoryEntry here before indexing it to make sure it has not been deleted in the meantime
+			repositoryEntry = repositoryService.loadByKey(repositoryEntryKey);
+			if (repositoryEntry==null) {
+				log.info("doIndex: repositoryEntry was deleted while we were indexing. The deleted repositoryEntry was: "+repositoryEntryKey);
+				return;
+			}
+			if(repositoryEntry.getEntryStatus() == RepositoryEntryStatusEnum.trash
+					|| repositoryEntry.getEntryStatus() == RepositoryEntryStatusEnum.deleted) {
+				return;
+			}
+			
+			if (debug) {
+				log.debug("Index repositoryEntry=" + repositoryEntry + " with ResourceableId=" + repositoryEntry.getOlatResource().getResourceableId());
+			}
+			if (!isOnBlacklist(repositoryEntry.getOlatResource().getResourceableId()) ) {
+				SearchResourceContext searchResourceContext = new SearchResourceContext(parentResourceContext);
+				searchResourceContext.setBusinessControlFor(repositoryEntry);
+				searchResourceContext.setTitle(repositoryEntry.getDisplayname());
+				searchResourceContext.setDescription(repositoryEntry.getDescription());
+				Document document = documentFactory.createDocument(searchResourceContext, repositoryEntry);
+				indexWriter.addDocument(document);
+				// Pass created-date & modified-date in context to child indexer because the child have no dates
+				searchResourceContext.setLastModified(repositoryEntry.getLastModified());
+				searchResourceContext.setCreatedDate(repositoryEntry.getCreationDate());
+				// go further with resource
+				Indexer repositoryEntryIndexer = getRepositoryEntryIndexer(repositoryEntry);
+				if (repositoryEntryIndexer != null) {
+					repositoryEntryIndexer.doIndex(searchResourceContext, repositoryEntry, indexWriter);
+				} else if (debug) {
+					log.debug("No RepositoryEntryIndexer for " + repositoryEntry.getOlatResource()); // e.g. RepositoryEntry				
+				}
+			} else {
+				log.warn("RepositoryEntry is on black-list and excluded from search-index, repositoryEntry=" + repositoryEntry);
+			}
+		} catch (InterruptedException ex) {
+			dbInstance.rollbackAndCloseSession();
+			throw ex;
+		} catch (Throwable ex) {
+			// create meaninfull debugging output to find repo entry that is somehow broken
+			String entryDebug = "NULL";
+			if (repositoryEntry != null) {
+				entryDebug = "resId::" + repositoryEntry.getResourceableId() + " resTypeName::" + repositoryEntry.getResourceableTypeName() + " resName::" + repositoryEntry.getResourcename();
+			}
+			log.warn("Exception=" + ex.getMessage() + " for repo entry " + entryDebug, ex);
+			dbInstance.rollbackAndCloseSession();
+		}
+		dbInstance.commitAndCloseSession();
+	}
+
 	private boolean isOnBlacklist(Long key) {
 		return repositoryBlackList.contains(key);
 	}
@@ -0,0 +1,227 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.upgrade;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.IdentityImpl;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.logging.Tracing;
+import org.olat.modules.fo.Forum;
+import org.olat.modules.fo.manager.ForumManager;
+import org.olat.modules.fo.manager.ReadThreadDAO;
+import org.olat.modules.fo.model.ForumImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class OLATUpgrade_15_5_0 extends OLATUpgrade {
+
+	private static final Logger log = Tracing.createLoggerFor(OLATUpgrade_15_5_0.class);
+
+	private static final String VERSION = "OLAT_15.5.0";
+	private static final String INIT_FORUM_THREAD_COUNTERS = "INIT FORUM THREAD COUNTERS";
+	private static final String MIGRATE_FORUM_READ_MESSAGES = "MIGRATE FORUM READ MESSAGES";
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private ForumManager forumManager;
+	@Autowired
+	private ReadThreadDAO readThreadDao;
+
+	public OLATUpgrade_15_5_0() {
+		super();
+	}
+	
+	@Override
+	public String getVersion() {
+		return VERSION;
+	}
+	
+	@Override
+	public boolean doPostSystemInitUpgrade(UpgradeManager upgradeManager) {
+		UpgradeHistoryData uhd = upgradeManager.getUpgradesHistory(VERSION);
+		if (uhd == null) {
+			// has never been called, initialize
+			uhd = new UpgradeHistoryData();
+		} else if (uhd.isInstallationComplete()) {
+			return false;
+		}
+		
+		boolean allOk = true;
+		allOk &= initForumThreadCounters(upgradeManager, uhd);
+		allOk &= migrateForumReadMessages(upgradeManager, uhd);
+
+		uhd.setInstallationComplete(allOk);
+		upgradeManager.setUpgradesHistory(uhd, VERSION);
+		if(allOk) {
+			log.info(Tracing.M_AUDIT, "Finished OLATUpgrade_15_5_0 successfully!");
+		} else {
+			log.info(Tracing.M_AUDIT, "OLATUpgrade_15_5_0 not finished, try to restart OpenOlat!");
+		}
+		return allOk;
+	}
+	
+	private boolean initForumThreadCounters(UpgradeManager upgradeManager, UpgradeHistoryData uhd) {
+		boolean allOk = true;
+		if (!uhd.getBooleanDataValue(INIT_FORUM_THREAD_COUNTERS)) {
+			try {
+				List<Long> forumKeys = getForumKeys();
+				int counter = 0;
+				for(Long forumKey:forumKeys) {
+					forumManager.updateThreadCountersOfForum(forumKey);
+					if(++counter % 25 == 0) {
+						dbInstance.commitAndCloseSession();
+					} else {
+						dbInstance.commit();
+					}
+					if(counter % 1000 == 0) {
+						log.info("Forums: Num. of forums with thread counters initialized: {}", counter);
+					}
+				}
+				dbInstance.commitAndCloseSession();
+				log.info("Thread counters of {} forums initialized.", forumKeys.size());
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				log.error("", e);
+				allOk = false;
+			}
+			
+			uhd.setBooleanDataValue(INIT_FORUM_THREAD_COUNTERS, allOk);
+			upgradeManager.setUpgradesHistory(uhd, VERSION);
+		}
+		return allOk;
+	}
+	
+	private List<Long> getForumKeys() {
+		String query = "select fo.key from forum as fo order by fo.key asc";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.getResultList();
+	}
+	
+	/**
+	 * Convert the rows of the old read state (one per user and message) to
+	 * the read state per thread. The rows are deleted forum per forum and user
+	 * per user after their conversion, a restart continues where the
+	 * migration stopped.
+	 */
+	private boolean migrateForumReadMessages(UpgradeManager upgradeManager, UpgradeHistoryData uhd) {
+		boolean allOk = true;
+		if (!uhd.getBooleanDataValue(MIGRATE_FORUM_READ_MESSAGES)) {
+			try {
+				List<Long> forumKeys = getForumKeysWithReadMessages();
+				int counter = 0;
+				for(Long forumKey:forumKeys) {
+					migrateForumReadMessages(forumKey);
+					if(++counter % 100 == 0) {
+						log.info("Forums: Num. of forums with read messages migrated: {} / {}", counter, forumKeys.size());
+					}
+				}
+				log.info("Read messages of {} forums migrated.", forumKeys.size());
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				log.error("", e);
+				allOk = false;
+			}
+			
+			uhd.setBooleanDataValue(MIGRATE_FORUM_READ_MESSAGES, allOk);
+			upgradeManager.setUpgradesHistory(uhd, VERSION);
+		}
+		return allOk;
+	}
+	
+	private void migrateForumReadMessages(Long forumKey) {
+		Forum forum = dbInstance.getCurrentEntityManager().getReference(ForumImpl.class, forumKey);
+		List<Long> identityKeys = getIdentityKeysWithReadMessages(forumKey);
+		
+		int counter = 0;
+		for(Long identityKey:identityKeys) {
+			Identity identity = dbInstance.getCurrentEntityManager().getReference(IdentityImpl.class, identityKey);
+			Map<Long,List<Long>> threadToMessageKeys = getReadMessageKeysByThreads(forumKey, identityKey);
+			for(Map.Entry<Long,List<Long>> entry:threadToMessageKeys.entrySet()) {
+				readThreadDao.addReadMessages(identity, forum, entry.getKey(), entry.getValue());
+			}
+			deleteReadMessages(forumKey, identityKey);
+			if(++counter % 25 == 0) {
+				dbInstance.commitAndCloseSession();
+				forum = dbInstance.getCurrentEntityManager().getReference(ForumImpl.class, forumKey);
+			} else {
+				dbInstance.commit();
+			}
+		}
+		dbInstance.commitAndCloseSession();
+	}
+	
+	private List<Long> getForumKeysWithReadMessages() {
+		String query = "select distinct rmsg.forum.key from foreadmessage as rmsg";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.getResultList();
+	}
+	
+	private List<Long> getIdentityKeysWithReadMessages(Long forumKey) {
+		String query = "select distinct rmsg.identity.key from foreadmessage as rmsg where rmsg.forum.key=:forumKey";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.setParameter("forumKey", forumKey)
+				.getResultList();
+	}
+	
+	private Map<Long,List<Long>> getReadMessageKeysByThreads(Long forumKey, Long identityKey) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select msg.key, msg.threadtop.key from foreadmessage as rmsg")
+		  .append(" inner join rmsg.message as msg")
+		  .append(" where rmsg.forum.key=:forumKey and rmsg.identity.key=:identityKey");
+		
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("forumKey", forumKey)
+				.setParameter("identityKey", identityKey)
+				.getResultList();
+		Map<Long,List<Long>> threadToMessageKeys = new HashMap<>();
+		for(Object[] rawObject:rawObjects) {
+			Long messageKey = (Long)rawObject[0];
+			Long threadKey = rawObject[1] == null ? messageKey : (Long)rawObject[1];
+			threadToMessageKeys
+				.computeIfAbsent(threadKey, key -> new ArrayList<>())
+				.add(messageKey);
+		}
+		return threadToMessageKeys;
+	}
+	
+	private void deleteReadMessages(Long forumKey, Long identityKey) {
+		String query = "delete from foreadmessage as rmsg where rmsg.forum.key=:forumKey and rmsg.identity.key=:identityKey";
+		dbInstance.getCurrentEntityManager().createQuery(query)
+			.setParameter("forumKey", forumKey)
+			.setParameter("identityKey", identityKey)
+			.executeUpdate();
+	}
+}
@@ -40,6 +40,11 @@ public class UserDisplayNamePreWarm implements PreWarm {
 	@Autowired
 	private UserManager userManager;
 
+	@Override
+	public boolean isCritical() {
+		return true;
+	}
+
 	@Override
 	public void run() {
 		long start = System.nanoTime();
@@ -147,4 +147,152 @@ alter table o_lti_key ENGINE = InnoDB;
 
 create index idx_lti_kid_idx on o_lti_key (l_key_id);
 
+-- Calendar events
+create table o_cal_calendar (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   c_calendar_id varchar(128) not null,
+   c_calendar_type varchar(16) not null,
+   primary key (id)
+);
+
+create table o_cal_event (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   c_uid varchar(512) not null,
+   c_recurrence_id varchar(64),
+   c_begin datetime,
+   c_end datetime,
+   c_recurring bool default false not null,
+   c_classification int not null,
+   c_vevent mediumtext not null,
+   fk_calendar bigint not null,
+   primary key (id)
+);
+
+alter table o_cal_calendar ENGINE = InnoDB;
+alter table o_cal_event ENGINE = InnoDB;
+
+alter table o_cal_calendar add constraint u_cal_calendar_idx unique (c_calendar_type, c_calendar_id);
+
+alter table o_cal_event add constraint cal_event_to_cal_idx foreign key (fk_calendar) references o_cal_calendar (id);
+create index idx_cal_event_uid_idx on o_cal_event (fk_calendar, c_uid);
+create index idx_cal_event_range_idx on o_cal_event (fk_calendar, c_begin, c_end);
+
+-- Coaching statistics
+create table o_coach_stat_state (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   c_refreshed datetime,
+   c_dirty bool default false not null,
+   fk_coach bigint not null,
+   primary key (id)
+);
+
+create table o_coach_stat_course (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   fk_coach bigint not null,
+   fk_entry bigint not null,
+   c_students int not null,
+   c_passed int not null,
+   c_failed int not null,
+   c_not_attempted int not null,
+   c_average_score float(65,30),
+   c_initial_launch int not null,
+   c_average_completion float(65,30),
+   primary key (id)
+);
+
+create table o_coach_stat_group (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   fk_coach bigint not null,
+   fk_group bigint not null,
+   c_courses int not null,
+   c_students int not null,
+   c_distinct_students int not null,
+   c_passed int not null,
+   c_failed int not null,
+   c_not_attempted int not null,
+   c_average_score float(65,30),
+   c_initial_launch int not null,
+   primary key (id)
+);
+
+create table o_coach_stat_student (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   fk_coach bigint not null,
+   fk_identity bigint not null,
+   c_courses int not null,
+   c_passed int not null,
+   c_failed int not null,
+   c_not_attempted int not null,
+   c_initial_launch int not null,
+   c_average_completion float(65,30),
+   primary key (id)
+);
+
+alter table o_coach_stat_state ENGINE = InnoDB;
+alter table o_coach_stat_course ENGINE = InnoDB;
+alter table o_coach_stat_group ENGINE = InnoDB;
+alter table o_coach_stat_student ENGINE = InnoDB;
+
+create index idx_coach_stat_state_coach_idx on o_coach_stat_state (fk_coach);
+create index idx_coach_stat_state_dirty_idx on o_coach_stat_state (c_dirty, lastmodified);
+create index idx_coach_stat_crs_coach_idx on o_coach_stat_course (fk_coach);
+create index idx_coach_stat_grp_coach_idx on o_coach_stat_group (fk_coach);
+create index idx_coach_stat_stud_coach_idx on o_coach_stat_student (fk_coach);
+alter table o_coach_stat_student add constraint coach_stat_stud_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+-- change detection of the coaching statistics
+create index idx_eff_stat_lastmod_idx on o_as_eff_statement (lastmodified);
+create index idx_as_entry_lastmod_idx on o_as_entry (lastmodified);
+create index idx_ucourseinfos_cdate_idx on o_as_user_course_infos (creationdate);
+create index idx_member_cdate_idx on o_bs_group_member (creationdate);
+create index idx_re_lastmod_idx on o_repositoryentry (lastmodified);
+
+-- Mail outbox
+create table o_mail_outbox (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   o_status varchar(16) not null,
+   o_attempts int not null default 0,
+   o_next_attempt datetime not null,
+   o_last_error varchar(4000),
+   o_envelope_from varchar(255),
+   o_recipients mediumtext not null,
+   o_message longtext not null,
+   primary key (id)
+);
+
+alter table o_mail_outbox ENGINE = InnoDB;
+
+create index idx_mail_outbox_due_idx on o_mail_outbox (o_status, o_next_attempt);
+
+-- Forum, counters of the threads and read state per thread
+alter table o_message add column thread_numofmessages integer;
+alter table o_message add column thread_lastmodified datetime;
+
+create table o_forum_read_thread (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   r_num_read int not null default 0,
+   r_read_keys mediumtext,
+   fk_identity bigint not null,
+   fk_forum bigint not null,
+   fk_thread bigint not null,
+   primary key (id)
+);
+
+alter table o_forum_read_thread ENGINE = InnoDB;
 
+alter table o_forum_read_thread add constraint fo_read_thread_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+alter table o_forum_read_thread add constraint fo_read_thread_to_forum_idx foreign key (fk_forum) references o_forum (forum_id);
+alter table o_forum_read_thread add constraint fo_read_thread_to_msg_idx foreign key (fk_thread) references o_message (message_id);
+create unique index idx_fo_read_thread_ident_idx on o_forum_read_thread (fk_identity, fk_thread);
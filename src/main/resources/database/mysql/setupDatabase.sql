@@ -431,6 +431,8 @@ create table if not exists o_message (
    statuscode integer,
    numofwords integer,
    numofcharacters integer,
+   thread_numofmessages integer,
+   thread_lastmodified datetime,
    primary key (message_id)
 );
 
@@ -631,6 +633,18 @@ create table if not exists o_readmessage (
     primary key (id)
 );
 
+create table o_forum_read_thread (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   r_num_read int not null default 0,
+   r_read_keys mediumtext,
+   fk_identity bigint not null,
+   fk_forum bigint not null,
+   fk_thread bigint not null,
+   primary key (id)
+);
+
 create table if not exists o_loggingtable (
     log_id bigint not null,
     creationdate datetime,
@@ -931,6 +945,20 @@ create table o_mail_attachment (
    primary key (attachment_id)
 );
 
+create table o_mail_outbox (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   o_status varchar(16) not null,
+   o_attempts int not null default 0,
+   o_next_attempt datetime not null,
+   o_last_error varchar(4000),
+   o_envelope_from varchar(255),
+   o_recipients mediumtext not null,
+   o_message longtext not null,
+   primary key (id)
+);
+
 -- access control
 create table  if not exists o_ac_offer (
   offer_id bigint NOT NULL,
@@ -1374,6 +1402,61 @@ create table o_as_user_course_infos (
    primary key (id)
 );
 
+create table o_coach_stat_state (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   c_refreshed datetime,
+   c_dirty bool default false not null,
+   fk_coach bigint not null,
+   primary key (id)
+);
+
+create table o_coach_stat_course (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   fk_coach bigint not null,
+   fk_entry bigint not null,
+   c_students int not null,
+   c_passed int not null,
+   c_failed int not null,
+   c_not_attempted int not null,
+   c_average_score float(65,30),
+   c_initial_launch int not null,
+   c_average_completion float(65,30),
+   primary key (id)
+);
+
+create table o_coach_stat_group (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   fk_coach bigint not null,
+   fk_group bigint not null,
+   c_courses int not null,
+   c_students int not null,
+   c_distinct_students int not null,
+   c_passed int not null,
+   c_failed int not null,
+   c_not_attempted int not null,
+   c_average_score float(65,30),
+   c_initial_launch int not null,
+   primary key (id)
+);
+
+create table o_coach_stat_student (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   fk_coach bigint not null,
+   fk_identity bigint not null,
+   c_courses int not null,
+   c_passed int not null,
+   c_failed int not null,
+   c_not_attempted int not null,
+   c_initial_launch int not null,
+   c_average_completion float(65,30),
+   primary key (id)
+);
+
 create table o_as_entry (
    id bigint not null auto_increment,
    creationdate datetime not null,
@@ -1653,6 +1736,30 @@ create table o_cal_import_to (
    primary key (id)
 );
 
+create table o_cal_calendar (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   c_calendar_id varchar(128) not null,
+   c_calendar_type varchar(16) not null,
+   primary key (id)
+);
+
+create table o_cal_event (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   c_uid varchar(512) not null,
+   c_recurrence_id varchar(64),
+   c_begin datetime,
+   c_end datetime,
+   c_recurring bool default false not null,
+   c_classification int not null,
+   c_vevent mediumtext not null,
+   fk_calendar bigint not null,
+   primary key (id)
+);
+
 -- instant messaging
 create table if not exists o_im_message (
    id bigint not null,
@@ -3615,6 +3722,7 @@ alter table o_lifecycle ENGINE = InnoDB;
 alter table o_plock ENGINE = InnoDB;
 alter table oc_lock ENGINE = InnoDB;
 alter table o_readmessage ENGINE = InnoDB;
+alter table o_forum_read_thread ENGINE = InnoDB;
 alter table o_projectbroker ENGINE = InnoDB;
 alter table o_projectbroker_project ENGINE = InnoDB;
 alter table o_projectbroker_customfields ENGINE = InnoDB;
@@ -3631,6 +3739,7 @@ alter table o_mail ENGINE = InnoDB;
 alter table o_mail_to_recipient ENGINE = InnoDB;
 alter table o_mail_recipient ENGINE = InnoDB;
 alter table o_mail_attachment ENGINE = InnoDB;
+alter table o_mail_outbox ENGINE = InnoDB;
 alter table o_ac_offer ENGINE = InnoDB;
 alter table o_ac_method ENGINE = InnoDB;
 alter table o_ac_offer_access ENGINE = InnoDB;
@@ -3643,6 +3752,10 @@ alter table o_ac_paypal_transaction ENGINE = InnoDB;
 alter table o_ac_auto_advance_order ENGINE = InnoDB;
 alter table o_as_eff_statement ENGINE = InnoDB;
 alter table o_as_user_course_infos ENGINE = InnoDB;
+alter table o_coach_stat_state ENGINE = InnoDB;
+alter table o_coach_stat_course ENGINE = InnoDB;
+alter table o_coach_stat_group ENGINE = InnoDB;
+alter table o_coach_stat_student ENGINE = InnoDB;
 alter table o_as_mode_course ENGINE = InnoDB;
 alter table o_as_entry ENGINE = InnoDB;
 alter table o_as_compensation ENGINE = InnoDB;
@@ -3652,6 +3765,8 @@ alter table o_as_mode_course_to_cur_el ENGINE = InnoDB;
 alter table o_cal_use_config ENGINE = InnoDB;
 alter table o_cal_import ENGINE = InnoDB;
 alter table o_cal_import_to ENGINE = InnoDB;
+alter table o_cal_calendar ENGINE = InnoDB;
+alter table o_cal_event ENGINE = InnoDB;
 alter table o_mapper ENGINE = InnoDB;
 alter table o_qti_assessmenttest_session ENGINE = InnoDB;
 alter table o_qti_assessmentitem_session ENGINE = InnoDB;
@@ -4055,6 +4170,10 @@ create index forum_msg_pseudonym_idx on o_message (pseudonym);
 
 create index readmessage_forum_idx on o_readmessage (forum_id);
 create index readmessage_identity_idx on o_readmessage (identity_id);
+alter table o_forum_read_thread add constraint fo_read_thread_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+alter table o_forum_read_thread add constraint fo_read_thread_to_forum_idx foreign key (fk_forum) references o_forum (forum_id);
+alter table o_forum_read_thread add constraint fo_read_thread_to_msg_idx foreign key (fk_thread) references o_message (message_id);
+create unique index idx_fo_read_thread_ident_idx on o_forum_read_thread (fk_identity, fk_thread);
 
 create index forum_pseudonym_idx on o_forum_pseudonym (p_pseudonym);
 
@@ -4127,6 +4246,8 @@ create index idx_mail_att_checksum_idx on o_mail_attachment (datas_checksum);
 create index idx_mail_path_idx on o_mail_attachment (datas_path(255));
 create index idx_mail_att_siblings_idx on o_mail_attachment (datas_checksum, mimetype, datas_size, datas_name);
 
+create index idx_mail_outbox_due_idx on o_mail_outbox (o_status, o_next_attempt);
+
 -- instant messaging
 alter table o_im_message add constraint idx_im_msg_to_fromid foreign key (fk_from_identity_id) references o_bs_identity (id);
 create index idx_im_msg_res_idx on o_im_message (msg_resid,msg_resname);
@@ -4150,6 +4271,19 @@ alter table o_as_user_course_infos add index user_course_infos_id_cstr (fk_ident
 alter table o_as_user_course_infos add index user_course_infos_res_cstr (fk_resource_id), add constraint user_course_infos_res_cstr foreign key (fk_resource_id) references o_olatresource (resource_id);
 alter table o_as_user_course_infos add unique (fk_identity, fk_resource_id);
 
+create index idx_coach_stat_state_coach_idx on o_coach_stat_state (fk_coach);
+create index idx_coach_stat_state_dirty_idx on o_coach_stat_state (c_dirty, lastmodified);
+create index idx_coach_stat_crs_coach_idx on o_coach_stat_course (fk_coach);
+create index idx_coach_stat_grp_coach_idx on o_coach_stat_group (fk_coach);
+create index idx_coach_stat_stud_coach_idx on o_coach_stat_student (fk_coach);
+alter table o_coach_stat_student add constraint coach_stat_stud_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+-- change detection of the coaching statistics
+create index idx_eff_stat_lastmod_idx on o_as_eff_statement (lastmodified);
+create index idx_as_entry_lastmod_idx on o_as_entry (lastmodified);
+create index idx_ucourseinfos_cdate_idx on o_as_user_course_infos (creationdate);
+create index idx_member_cdate_idx on o_bs_group_member (creationdate);
+create index idx_re_lastmod_idx on o_repositoryentry (lastmodified);
+
 alter table o_as_entry add constraint as_entry_to_identity_idx foreign key (fk_identity) references o_bs_identity (id);
 alter table o_as_entry add constraint as_entry_to_entry_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
 alter table o_as_entry add constraint as_entry_to_refentry_idx foreign key (fk_reference_entry) references o_repositoryentry (repositoryentry_id);
@@ -4196,6 +4330,12 @@ create index idx_cal_imp_cal_type_idx on o_cal_import (c_calendar_type);
 create index idx_cal_imp_to_cal_id_idx on o_cal_import_to (c_to_calendar_id);
 create index idx_cal_imp_to_cal_type_idx on o_cal_import_to (c_to_calendar_type);
 
+alter table o_cal_calendar add constraint u_cal_calendar_idx unique (c_calendar_type, c_calendar_id);
+
+alter table o_cal_event add constraint cal_event_to_cal_idx foreign key (fk_calendar) references o_cal_calendar (id);
+create index idx_cal_event_uid_idx on o_cal_event (fk_calendar, c_uid);
+create index idx_cal_event_range_idx on o_cal_event (fk_calendar, c_begin, c_end);
+
 -- mapper
 create index o_mapper_uuid_idx on o_mapper (mapper_uuid);
 
@@ -148,5 +148,143 @@ create table o_lti_key (
 
 create index idx_lti_kid_idx on o_lti_key (l_key_id);
 
+-- Calendar events
+create table o_cal_calendar (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   c_calendar_id varchar2(128) not null,
+   c_calendar_type varchar2(16) not null,
+   primary key (id)
+);
+
+create table o_cal_event (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   c_uid varchar2(512) not null,
+   c_recurrence_id varchar2(64),
+   c_begin date,
+   c_end date,
+   c_recurring number default 0 not null,
+   c_classification number(20) not null,
+   c_vevent CLOB not null,
+   fk_calendar number(20) not null,
+   primary key (id)
+);
+
+alter table o_cal_calendar add constraint u_cal_calendar_idx unique (c_calendar_type, c_calendar_id);
+
+alter table o_cal_event add constraint cal_event_to_cal_idx foreign key (fk_calendar) references o_cal_calendar (id);
+create index idx_cal_event_uid_idx on o_cal_event (fk_calendar, c_uid);
+create index idx_cal_event_range_idx on o_cal_event (fk_calendar, c_begin, c_end);
+
+-- Coaching statistics
+create table o_coach_stat_state (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   c_refreshed date,
+   c_dirty number default 0 not null,
+   fk_coach number(20) not null,
+   primary key (id)
+);
+
+create table o_coach_stat_course (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   fk_coach number(20) not null,
+   fk_entry number(20) not null,
+   c_students number(20) not null,
+   c_passed number(20) not null,
+   c_failed number(20) not null,
+   c_not_attempted number(20) not null,
+   c_average_score float,
+   c_initial_launch number(20) not null,
+   c_average_completion float,
+   primary key (id)
+);
 
+create table o_coach_stat_group (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   fk_coach number(20) not null,
+   fk_group number(20) not null,
+   c_courses number(20) not null,
+   c_students number(20) not null,
+   c_distinct_students number(20) not null,
+   c_passed number(20) not null,
+   c_failed number(20) not null,
+   c_not_attempted number(20) not null,
+   c_average_score float,
+   c_initial_launch number(20) not null,
+   primary key (id)
+);
+
+create table o_coach_stat_student (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   fk_coach number(20) not null,
+   fk_identity number(20) not null,
+   c_courses number(20) not null,
+   c_passed number(20) not null,
+   c_failed number(20) not null,
+   c_not_attempted number(20) not null,
+   c_initial_launch number(20) not null,
+   c_average_completion float,
+   primary key (id)
+);
+
+create index idx_coach_stat_state_coach_idx on o_coach_stat_state (fk_coach);
+create index idx_coach_stat_state_dirty_idx on o_coach_stat_state (c_dirty, lastmodified);
+create index idx_coach_stat_crs_coach_idx on o_coach_stat_course (fk_coach);
+create index idx_coach_stat_grp_coach_idx on o_coach_stat_group (fk_coach);
+create index idx_coach_stat_stud_coach_idx on o_coach_stat_student (fk_coach);
+alter table o_coach_stat_student add constraint coach_stat_stud_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create index idx_coach_stat_stud_ident_idx on o_coach_stat_student (fk_identity);
+-- change detection of the coaching statistics
+create index idx_eff_stat_lastmod_idx on o_as_eff_statement (lastmodified);
+create index idx_as_entry_lastmod_idx on o_as_entry (lastmodified);
+create index idx_ucourseinfos_cdate_idx on o_as_user_course_infos (creationdate);
+create index idx_member_cdate_idx on o_bs_group_member (creationdate);
+create index idx_re_lastmod_idx on o_repositoryentry (lastmodified);
+
+-- Mail outbox
+create table o_mail_outbox (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   o_status varchar2(16 char) not null,
+   o_attempts number(20) default 0 not null,
+   o_next_attempt date not null,
+   o_last_error varchar2(4000 char),
+   o_envelope_from varchar2(255 char),
+   o_recipients CLOB not null,
+   o_message CLOB not null,
+   primary key (id)
+);
+
+create index idx_mail_outbox_due_idx on o_mail_outbox (o_status, o_next_attempt);
+
+-- Forum, counters of the threads and read state per thread
+alter table o_message add thread_numofmessages number(11);
+alter table o_message add thread_lastmodified date;
+
+create table o_forum_read_thread (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   r_num_read number(20) default 0 not null,
+   r_read_keys CLOB,
+   fk_identity number(20) not null,
+   fk_forum number(20) not null,
+   fk_thread number(20) not null,
+   primary key (id)
+);
 
+alter table o_forum_read_thread add constraint fo_read_thread_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create unique index idx_fo_read_thread_ident_idx on o_forum_read_thread (fk_identity, fk_thread);
+alter table o_forum_read_thread add constraint fo_read_thread_to_forum_idx foreign key (fk_forum) references o_forum (forum_id);
+create index idx_fo_read_thread_forum_idx on o_forum_read_thread (fk_forum);
+alter table o_forum_read_thread add constraint fo_read_thread_to_msg_idx foreign key (fk_thread) references o_message (message_id);
+create index idx_fo_read_thread_msg_idx on o_forum_read_thread (fk_thread);
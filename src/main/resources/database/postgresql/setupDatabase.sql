@@ -428,6 +428,8 @@ create table o_message (
    statuscode int4,
    numofwords int4,
    numofcharacters int4,
+   thread_numofmessages int4,
+   thread_lastmodified timestamp,
    primary key (message_id)
 );
 create table o_gp_bgtoarea_rel (
@@ -626,6 +628,18 @@ create table o_readmessage (
     primary key (id)
 );
 
+create table o_forum_read_thread (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   r_num_read int4 not null default 0,
+   r_read_keys text,
+   fk_identity int8 not null,
+   fk_forum int8 not null,
+   fk_thread int8 not null,
+   primary key (id)
+);
+
 create table o_loggingtable (
     log_id int8 not null,
     creationdate timestamp,
@@ -847,6 +861,20 @@ create table o_mail_attachment (
    primary key (attachment_id)
 );
 
+create table o_mail_outbox (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   o_status varchar(16) not null,
+   o_attempts int4 not null default 0,
+   o_next_attempt timestamp not null,
+   o_last_error varchar(4000),
+   o_envelope_from varchar(255),
+   o_recipients text not null,
+   o_message text not null,
+   primary key (id)
+);
+
 -- access control
 create table o_ac_offer (
   offer_id int8 NOT NULL,
@@ -1396,6 +1424,61 @@ create table o_as_user_course_infos (
    primary key (id)
 );
 
+create table o_coach_stat_state (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   c_refreshed timestamp,
+   c_dirty bool default false not null,
+   fk_coach int8 not null,
+   primary key (id)
+);
+
+create table o_coach_stat_course (
+   id bigserial,
+   creationdate timestamp not null,
+   fk_coach int8 not null,
+   fk_entry int8 not null,
+   c_students int4 not null,
+   c_passed int4 not null,
+   c_failed int4 not null,
+   c_not_attempted int4 not null,
+   c_average_score float(24),
+   c_initial_launch int4 not null,
+   c_average_completion float(24),
+   primary key (id)
+);
+
+create table o_coach_stat_group (
+   id bigserial,
+   creationdate timestamp not null,
+   fk_coach int8 not null,
+   fk_group int8 not null,
+   c_courses int4 not null,
+   c_students int4 not null,
+   c_distinct_students int4 not null,
+   c_passed int4 not null,
+   c_failed int4 not null,
+   c_not_attempted int4 not null,
+   c_average_score float(24),
+   c_initial_launch int4 not null,
+   primary key (id)
+);
+
+create table o_coach_stat_student (
+   id bigserial,
+   creationdate timestamp not null,
+   fk_coach int8 not null,
+   fk_identity int8 not null,
+   c_courses int4 not null,
+   c_passed int4 not null,
+   c_failed int4 not null,
+   c_not_attempted int4 not null,
+   c_initial_launch int4 not null,
+   c_average_completion float(24),
+   primary key (id)
+);
+
 create table o_as_entry (
    id bigserial,
    creationdate timestamp not null,
@@ -1676,6 +1759,30 @@ create table o_cal_import_to (
    primary key (id)
 );
 
+create table o_cal_calendar (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   c_calendar_id varchar(128) not null,
+   c_calendar_type varchar(16) not null,
+   primary key (id)
+);
+
+create table o_cal_event (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   c_uid varchar(512) not null,
+   c_recurrence_id varchar(64),
+   c_begin timestamp,
+   c_end timestamp,
+   c_recurring bool default false not null,
+   c_classification int not null,
+   c_vevent text not null,
+   fk_calendar int8 not null,
+   primary key (id)
+);
+
 -- instant messaging
 create table o_im_message (
    id int8 not null,
@@ -3940,6 +4047,12 @@ create index forum_msg_pseudonym_idx on o_message (pseudonym);
 
 create index readmessage_forum_idx on o_readmessage (forum_id);
 create index readmessage_identity_idx on o_readmessage (identity_id);
+alter table o_forum_read_thread add constraint fo_read_thread_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create unique index idx_fo_read_thread_ident_idx on o_forum_read_thread (fk_identity, fk_thread);
+alter table o_forum_read_thread add constraint fo_read_thread_to_forum_idx foreign key (fk_forum) references o_forum (forum_id);
+create index idx_fo_read_thread_forum_idx on o_forum_read_thread (fk_forum);
+alter table o_forum_read_thread add constraint fo_read_thread_to_msg_idx foreign key (fk_thread) references o_message (message_id);
+create index idx_fo_read_thread_msg_idx on o_forum_read_thread (fk_thread);
 
 create index forum_pseudonym_idx on o_forum_pseudonym (p_pseudonym);
 
@@ -4041,6 +4154,8 @@ create index idx_mail_att_checksum_idx on o_mail_attachment (datas_checksum);
 create index idx_mail_path_idx on o_mail_attachment (datas_path);
 create index idx_mail_att_siblings_idx on o_mail_attachment (datas_checksum, mimetype, datas_size, datas_name);
 
+create index idx_mail_outbox_due_idx on o_mail_outbox (o_status, o_next_attempt);
+
 -- instant messaging
 alter table o_im_message add constraint idx_im_msg_to_fromid foreign key (fk_from_identity_id) references o_bs_identity (id);
 create index idx_im_msg_from_idx on o_im_message(fk_from_identity_id);
@@ -4071,6 +4186,20 @@ create index idx_ucourseinfos_ident_idx on o_as_user_course_infos (fk_identity);
 alter table o_as_user_course_infos add constraint user_course_infos_res_cstr foreign key (fk_resource_id) references o_olatresource (resource_id);
 create index idx_ucourseinfos_rsrc_idx on o_as_user_course_infos (fk_resource_id);
 
+create index idx_coach_stat_state_coach_idx on o_coach_stat_state (fk_coach);
+create index idx_coach_stat_state_dirty_idx on o_coach_stat_state (c_dirty, lastmodified);
+create index idx_coach_stat_crs_coach_idx on o_coach_stat_course (fk_coach);
+create index idx_coach_stat_grp_coach_idx on o_coach_stat_group (fk_coach);
+create index idx_coach_stat_stud_coach_idx on o_coach_stat_student (fk_coach);
+alter table o_coach_stat_student add constraint coach_stat_stud_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create index idx_coach_stat_stud_ident_idx on o_coach_stat_student (fk_identity);
+-- change detection of the coaching statistics
+create index idx_eff_stat_lastmod_idx on o_as_eff_statement (lastmodified);
+create index idx_as_entry_lastmod_idx on o_as_entry (lastmodified);
+create index idx_ucourseinfos_cdate_idx on o_as_user_course_infos (creationdate);
+create index idx_member_cdate_idx on o_bs_group_member (creationdate);
+create index idx_re_lastmod_idx on o_repositoryentry (lastmodified);
+
 alter table o_as_entry add constraint as_entry_to_identity_idx foreign key (fk_identity) references o_bs_identity (id);
 create index idx_as_entry_to_ident_idx on o_as_entry (fk_identity);
 alter table o_as_entry add constraint as_entry_to_entry_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
@@ -4108,6 +4237,12 @@ create index idx_cal_imp_cal_type_idx on o_cal_import (c_calendar_type);
 create index idx_cal_imp_to_cal_id_idx on o_cal_import_to (c_to_calendar_id);
 create index idx_cal_imp_to_cal_type_idx on o_cal_import_to (c_to_calendar_type);
 
+alter table o_cal_calendar add constraint u_cal_calendar_idx unique (c_calendar_type, c_calendar_id);
+
+alter table o_cal_event add constraint cal_event_to_cal_idx foreign key (fk_calendar) references o_cal_calendar (id);
+create index idx_cal_event_uid_idx on o_cal_event (fk_calendar, c_uid);
+create index idx_cal_event_range_idx on o_cal_event (fk_calendar, c_begin, c_end);
+
 -- gotomeeting
 alter table o_goto_organizer add constraint goto_organ_owner_idx foreign key (fk_identity) references o_bs_identity (id);
 create index idx_goto_organ_owner_idx on o_goto_organizer(fk_identity);
@@ -569,6 +569,17 @@ function o_ainvoke(r) {
 							var jsol = c1["jsol"]; // javascript on load
 							var hdr = c1["hdr"]; // header
 							if (o_info.debug) o_log("c2: redraw: "+c1["cname"]+ " ("+ciid+") "+c1["hfragsize"]+" bytes, listener(s): "+c1["clisteners"]);
+							var frags = c1["frags"]; // only some parts of the component changed, e.g. rows of a table
+							if (frags) {
+								for (var k=0; k<frags.length; k++) {
+									jQuery('#' + frags[k]["id"]).replaceWith(frags[k]["hfrag"]);
+								}
+								checkDrakes();
+								if (jsol != "") {
+									BLoader.executeGlobalJS(jsol, 'o_ainvoker::jsol');
+								}
+								continue;
+							}
 							//var con = jQuery(hfrag).find('script').remove(); //Strip scripts
 							var hdrco = hdr+"\n\n"+hfrag;
 							
@@ -0,0 +1,158 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.calendar.manager;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.commons.calendar.CalendarManager;
+import org.olat.commons.calendar.model.StoredCalendar;
+import org.olat.commons.calendar.model.StoredCalendarEvent;
+import org.olat.core.commons.persistence.DB;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CalendarEventDAOTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private CalendarEventDAO calendarEventDao;
+	
+	@Test
+	public void createCalendar() {
+		String calendarId = UUID.randomUUID().toString();
+		StoredCalendar calendar = calendarEventDao.createCalendar(CalendarManager.TYPE_GROUP, calendarId);
+		dbInstance.commitAndCloseSession();
+		
+		Assert.assertNotNull(calendar.getKey());
+		Assert.assertNotNull(calendar.getCreationDate());
+		Assert.assertNotNull(calendar.getLastModified());
+		
+		StoredCalendar reloadedCalendar = calendarEventDao.getCalendar(CalendarManager.TYPE_GROUP, calendarId);
+		Assert.assertEquals(calendar, reloadedCalendar);
+		Assert.assertEquals(calendarId, reloadedCalendar.getCalendarId());
+		Assert.assertEquals(CalendarManager.TYPE_GROUP, reloadedCalendar.getType());
+		
+		StoredCalendar otherTypeCalendar = calendarEventDao.getCalendar(CalendarManager.TYPE_COURSE, calendarId);
+		Assert.assertNull(otherTypeCalendar);
+	}
+	
+	@Test
+	public void getCalendars() {
+		String calendarId1 = UUID.randomUUID().toString();
+		String calendarId2 = UUID.randomUUID().toString();
+		StoredCalendar calendar1 = calendarEventDao.createCalendar(CalendarManager.TYPE_GROUP, calendarId1);
+		StoredCalendar calendar2 = calendarEventDao.createCalendar(CalendarManager.TYPE_COURSE, calendarId2);
+		dbInstance.commitAndCloseSession();
+		
+		List<StoredCalendar> calendars = calendarEventDao.getCalendars(Map.of(
+				CalendarManager.TYPE_GROUP, List.of(calendarId1, calendarId2),
+				CalendarManager.TYPE_COURSE, List.of(calendarId2)));
+		Assert.assertEquals(2, calendars.size());
+		Assert.assertTrue(calendars.contains(calendar1));
+		Assert.assertTrue(calendars.contains(calendar2));
+	}
+	
+	@Test
+	public void createEvent() {
+		StoredCalendar calendar = calendarEventDao.createCalendar(CalendarManager.TYPE_GROUP, UUID.randomUUID().toString());
+		StoredCalendarEvent event = calendarEventDao.createEvent(calendar, "event-1", null);
+		event.setBegin(new Date());
+		event.setEnd(new Date());
+		event.setVevent("BEGIN:VEVENT\r\nUID:event-1\r\nEND:VEVENT\r\n");
+		event = calendarEventDao.persistEvent(event);
+		dbInstance.commitAndCloseSession();
+		
+		Assert.assertNotNull(event.getKey());
+		
+		List<StoredCalendarEvent> events = calendarEventDao.getEvents(calendar);
+		Assert.assertEquals(1, events.size());
+		StoredCalendarEvent reloadedEvent = events.get(0);
+		Assert.assertEquals(event, reloadedEvent);
+		Assert.assertEquals("event-1", reloadedEvent.getUid());
+		Assert.assertNull(reloadedEvent.getRecurrenceId());
+		Assert.assertEquals("BEGIN:VEVENT\r\nUID:event-1\r\nEND:VEVENT\r\n", reloadedEvent.getVevent());
+		
+		List<StoredCalendarEvent> eventsByUid = calendarEventDao.getEvents(calendar, Collections.singletonList("event-1"));
+		Assert.assertEquals(1, eventsByUid.size());
+		Assert.assertEquals(event, eventsByUid.get(0));
+	}
+	
+	@Test
+	public void getEvents_period() {
+		StoredCalendar calendar = calendarEventDao.createCalendar(CalendarManager.TYPE_GROUP, UUID.randomUUID().toString());
+		StoredCalendarEvent pastEvent = createEvent(calendar, "past", addDays(-10), addDays(-9));
+		StoredCalendarEvent currentEvent = createEvent(calendar, "current", addDays(-1), addDays(1));
+		StoredCalendarEvent futureEvent = createEvent(calendar, "future", addDays(9), addDays(10));
+		StoredCalendarEvent unboundedEvent = createEvent(calendar, "unbounded", addDays(-100), null);
+		dbInstance.commitAndCloseSession();
+		
+		List<StoredCalendarEvent> events = calendarEventDao.getEvents(List.of(calendar), addDays(-2), addDays(2));
+		Assert.assertEquals(2, events.size());
+		Assert.assertTrue(events.contains(currentEvent));
+		Assert.assertTrue(events.contains(unboundedEvent));
+		Assert.assertFalse(events.contains(pastEvent));
+		Assert.assertFalse(events.contains(futureEvent));
+	}
+	
+	@Test
+	public void deleteCalendar() {
+		String calendarId = UUID.randomUUID().toString();
+		StoredCalendar calendar = calendarEventDao.createCalendar(CalendarManager.TYPE_GROUP, calendarId);
+		StoredCalendarEvent event = createEvent(calendar, "to-delete", new Date(), new Date());
+		dbInstance.commitAndCloseSession();
+		Assert.assertNotNull(event.getKey());
+		
+		int rows = calendarEventDao.deleteCalendar(CalendarManager.TYPE_GROUP, calendarId);
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(2, rows);
+		
+		StoredCalendar deletedCalendar = calendarEventDao.getCalendar(CalendarManager.TYPE_GROUP, calendarId);
+		Assert.assertNull(deletedCalendar);
+	}
+	
+	private StoredCalendarEvent createEvent(StoredCalendar calendar, String uid, Date begin, Date end) {
+		StoredCalendarEvent event = calendarEventDao.createEvent(calendar, uid, null);
+		event.setBegin(begin);
+		event.setEnd(end);
+		event.setRecurring(end == null);
+		event.setVevent("BEGIN:VEVENT\r\nUID:" + uid + "\r\nEND:VEVENT\r\n");
+		return calendarEventDao.persistEvent(event);
+	}
+	
+	private Date addDays(int days) {
+		Calendar cal = Calendar.getInstance();
+		cal.add(Calendar.DATE, days);
+		return cal.getTime();
+	}
+}
@@ -91,6 +91,94 @@ public class ICalFileCalendarManagerTest extends OlatTestCase {
 		cacher.getCacheContainer().getCache("CalendarManager@calendar").clear();
 	}
 	
+	@Test
+	public void getEventsOfCalendars() {
+		Identity user1 = JunitTestHelper.createAndPersistIdentityAsRndUser("ical-multi-1-");
+		Identity user2 = JunitTestHelper.createAndPersistIdentityAsRndUser("ical-multi-2-");
+		Kalendar cal1 = calendarManager.getPersonalCalendar(user1).getKalendar();
+		Kalendar cal2 = calendarManager.getPersonalCalendar(user2).getKalendar();
+		
+		Calendar calendar = Calendar.getInstance();
+		calendar.set(Calendar.MILLISECOND, 0);
+		Date now = calendar.getTime();
+		calendar.add(Calendar.DATE, 30);
+		Date later = calendar.getTime();
+		
+		KalendarEvent event1 = new KalendarEvent("id-multi-1", "Now", now, 60 * 60 * 1000);
+		calendarManager.addEventTo(cal1, event1);
+		KalendarEvent event2 = new KalendarEvent("id-multi-2", "Later", later, 60 * 60 * 1000);
+		calendarManager.addEventTo(cal1, event2);
+		KalendarEvent event3 = new KalendarEvent("id-multi-3", "Daily", now, 60 * 60 * 1000);
+		event3.setRecurrenceRule("FREQ=DAILY");
+		calendarManager.addEventTo(cal2, event3);
+		DBFactory.getInstance().commitAndCloseSession();
+		
+		// load the events from the database
+		emptyCalendarCache();
+		calendar.setTime(now);
+		calendar.add(Calendar.HOUR_OF_DAY, -1);
+		Date from = calendar.getTime();
+		calendar.add(Calendar.DATE, 3);
+		Date to = calendar.getTime();
+		List<KalendarEvent> events = calendarManager.getEvents(List.of(cal1, cal2), from, to, true);
+		
+		long nowEvents = events.stream().filter(ev -> "id-multi-1".equals(ev.getID())).count();
+		long laterEvents = events.stream().filter(ev -> "id-multi-2".equals(ev.getID())).count();
+		long dailyEvents = events.stream().filter(ev -> "id-multi-3".equals(ev.getID())).count();
+		Assert.assertEquals(1, nowEvents);
+		Assert.assertEquals(0, laterEvents);
+		Assert.assertEquals(3, dailyEvents);
+		for(KalendarEvent event:events) {
+			Kalendar eventCalendar = event.getCalendar();
+			Assert.assertTrue(eventCalendar == cal1 || eventCalendar == cal2);
+		}
+		
+		// same result with the cached calendars, the range query doesn't load all their events
+		Kalendar cachedCal1 = calendarManager.getPersonalCalendar(user1).getKalendar();
+		Kalendar cachedCal2 = calendarManager.getPersonalCalendar(user2).getKalendar();
+		Assert.assertFalse(cachedCal1.isLoaded());
+		List<KalendarEvent> cachedEvents = new ArrayList<>();
+		cachedEvents.addAll(calendarManager.getEvents(cachedCal1, from, to, true));
+		cachedEvents.addAll(calendarManager.getEvents(cachedCal2, from, to, true));
+		Assert.assertEquals(events.size(), cachedEvents.size());
+		Assert.assertFalse(cachedCal1.isLoaded());
+		Assert.assertFalse(cachedCal2.isLoaded());
+		
+		// the events are loaded on demand
+		Assert.assertEquals(2, cachedCal1.getEvents().size());
+		Assert.assertTrue(cachedCal1.isLoaded());
+	}
+	
+	@Test
+	public void getCalendarICalFile() throws Exception {
+		Identity user = JunitTestHelper.createAndPersistIdentityAsRndUser("ical-export-");
+		Kalendar cal = calendarManager.getPersonalCalendar(user).getKalendar();
+		KalendarEvent event = new KalendarEvent("id-export-1", "Export", new Date(), 60 * 60 * 1000);
+		calendarManager.addEventTo(cal, event);
+		DBFactory.getInstance().commitAndCloseSession();
+		
+		File icsFile = calendarManager.getCalendarICalFile(CalendarManager.TYPE_USER, user.getName());
+		Assert.assertNotNull(icsFile);
+		Assert.assertTrue(icsFile.exists());
+		
+		Kalendar exportedCal = calendarManager.buildKalendarFrom(new ByteArrayInputStream(FileUtils.readFileToByteArray(icsFile)),
+				CalendarManager.TYPE_USER, user.getName());
+		KalendarEvent exportedEvent = exportedCal.getEvent("id-export-1", null);
+		Assert.assertNotNull(exportedEvent);
+		Assert.assertEquals("Export", exportedEvent.getSubject());
+		
+		// a new event is written in the file too
+		KalendarEvent event2 = new KalendarEvent("id-export-2", "Export 2", new Date(), 60 * 60 * 1000);
+		calendarManager.addEventTo(cal, event2);
+		DBFactory.getInstance().commitAndCloseSession();
+		icsFile.setLastModified(0l);
+		
+		File updatedIcsFile = calendarManager.getCalendarICalFile(CalendarManager.TYPE_USER, user.getName());
+		Kalendar updatedCal = calendarManager.buildKalendarFrom(new ByteArrayInputStream(FileUtils.readFileToByteArray(updatedIcsFile)),
+				CalendarManager.TYPE_USER, user.getName());
+		Assert.assertEquals(2, updatedCal.getEvents().size());
+	}
+	
 	@Test
 	public void testAddChangeRemoveEvent() {
 		Identity test = JunitTestHelper.createAndPersistIdentityAsRndUser("ical-1-");	
@@ -0,0 +1,136 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ClusterEventBatchTest {
+	
+	@Test
+	public void writeAndRead() throws Exception {
+		OLATResourceable ores1 = OresHelper.createOLATResourceableInstance("CourseModule", 27l);
+		OLATResourceable ores2 = OresHelper.createOLATResourceableType("Forum");
+		
+		List<JMSWrapper> wrappers = new ArrayList<>();
+		wrappers.add(new JMSWrapper(3, 12l, ores1, new MultiUserEvent("changed")));
+		wrappers.add(new JMSWrapper(3, 13l, ores2, new MultiUserEvent("new-message")));
+		wrappers.add(new JMSWrapper(3, 15l, ores1, new MultiUserEvent("deleted")));
+		
+		byte[] data = ClusterEventBatch.write(3, wrappers);
+		List<JMSWrapper> reloaded = ClusterEventBatch.read(data);
+		Assert.assertEquals(3, reloaded.size());
+		for(int i=0; i<wrappers.size(); i++) {
+			JMSWrapper wrapper = wrappers.get(i);
+			JMSWrapper reloadedWrapper = reloaded.get(i);
+			Assert.assertEquals(Integer.valueOf(3), reloadedWrapper.getNodeId());
+			Assert.assertEquals(wrapper.getMsgId(), reloadedWrapper.getMsgId());
+			Assert.assertEquals(wrapper.getResType(), reloadedWrapper.getResType());
+			Assert.assertEquals(wrapper.getResId(), reloadedWrapper.getResId());
+			Assert.assertEquals(wrapper.getCreated(), reloadedWrapper.getCreated());
+			Assert.assertEquals(wrapper.getMultiUserEvent().getCommand(), reloadedWrapper.getMultiUserEvent().getCommand());
+		}
+	}
+	
+	/**
+	 * The plain events are encoded, the others are serialized
+	 * at the end of the batch, the order must be kept.
+	 */
+	@Test
+	public void writeAndReadMixedEvents() throws Exception {
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("CourseModule", 27l);
+		
+		List<JMSWrapper> wrappers = new ArrayList<>();
+		wrappers.add(new JMSWrapper(3, 12l, ores, new PayloadEvent("changed", 1)));
+		wrappers.add(new JMSWrapper(3, 13l, ores, new MultiUserEvent("changed")));
+		wrappers.add(new JMSWrapper(3, 14l, ores, new PayloadEvent("changed", 2)));
+		wrappers.add(new JMSWrapper(3, 15l, ores, new MultiUserEvent("changed")));
+		
+		List<JMSWrapper> reloaded = ClusterEventBatch.read(ClusterEventBatch.write(3, wrappers));
+		Assert.assertEquals(4, reloaded.size());
+		Assert.assertEquals(1, ((PayloadEvent)reloaded.get(0).getMultiUserEvent()).getPayload());
+		Assert.assertEquals(MultiUserEvent.class, reloaded.get(1).getMultiUserEvent().getClass());
+		Assert.assertEquals("changed", reloaded.get(1).getMultiUserEvent().getCommand());
+		Assert.assertEquals(2, ((PayloadEvent)reloaded.get(2).getMultiUserEvent()).getPayload());
+		Assert.assertEquals(MultiUserEvent.class, reloaded.get(3).getMultiUserEvent().getClass());
+		Assert.assertEquals(15l, reloaded.get(3).getMsgId());
+	}
+	
+	@Test
+	public void coalesce() {
+		OLATResourceable ores1 = OresHelper.createOLATResourceableInstance("CourseModule", 27l);
+		OLATResourceable ores2 = OresHelper.createOLATResourceableInstance("CourseModule", 28l);
+		
+		List<JMSWrapper> wrappers = new ArrayList<>();
+		wrappers.add(new JMSWrapper(1, 1l, ores1, new MultiUserEvent("changed")));
+		wrappers.add(new JMSWrapper(1, 2l, ores1, new MultiUserEvent("changed")));
+		wrappers.add(new JMSWrapper(1, 3l, ores2, new MultiUserEvent("changed")));
+		wrappers.add(new JMSWrapper(1, 4l, ores1, new MultiUserEvent("changed")));
+		wrappers.add(new JMSWrapper(1, 5l, ores1, new MultiUserEvent("deleted")));
+		wrappers.add(new JMSWrapper(1, 6l, ores1, new MultiUserEvent("deleted")));
+		
+		List<JMSWrapper> coalesced = ClusterEventBatch.coalesce(wrappers);
+		Assert.assertEquals(4, coalesced.size());
+		// the order is never changed
+		Assert.assertEquals(1l, coalesced.get(0).getMsgId());
+		Assert.assertEquals(3l, coalesced.get(1).getMsgId());
+		Assert.assertEquals(4l, coalesced.get(2).getMsgId());
+		Assert.assertEquals(5l, coalesced.get(3).getMsgId());
+	}
+	
+	@Test
+	public void coalesceOnlyPlainEvents() {
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("CourseModule", 27l);
+		
+		List<JMSWrapper> wrappers = new ArrayList<>();
+		wrappers.add(new JMSWrapper(1, 1l, ores, new PayloadEvent("changed", 1)));
+		wrappers.add(new JMSWrapper(1, 2l, ores, new PayloadEvent("changed", 2)));
+		
+		List<JMSWrapper> coalesced = ClusterEventBatch.coalesce(wrappers);
+		Assert.assertEquals(2, coalesced.size());
+	}
+	
+	private static class PayloadEvent extends MultiUserEvent {
+		
+		private static final long serialVersionUID = 5329214582093564317L;
+		private final int payload;
+		
+		public PayloadEvent(String command, int payload) {
+			super(command);
+			this.payload = payload;
+		}
+
+		public int getPayload() {
+			return payload;
+		}
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.singlevm;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.coordinate.LeaseLock;
+import org.olat.core.util.coordinate.LeaseLockStatistics;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LocalLeaseLockerTest {
+	
+	@Test
+	public void tryLockUnlock() {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-1", 10000, 0);
+		Assert.assertNotNull(lease);
+		Assert.assertTrue(locker.isHeld(lease));
+		
+		locker.unlock(lease);
+		Assert.assertFalse(locker.isHeld(lease));
+		Assert.assertEquals(0, locker.size());
+		Assert.assertEquals(1, locker.getAcquiredCount());
+	}
+	
+	@Test
+	public void tryLockTimeout() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-2", 10000, 0);
+		Assert.assertNotNull(lease);
+		
+		AtomicReference<LeaseLock> otherLease = new AtomicReference<>();
+		Thread other = new Thread(() -> otherLease.set(locker.tryLock("res-2", 10000, 50)));
+		other.start();
+		other.join(5000);
+		
+		Assert.assertNull(otherLease.get());
+		Assert.assertTrue(locker.isHeld(lease));
+		Assert.assertEquals(1, locker.getTimeoutCount());
+		locker.unlock(lease);
+	}
+	
+	@Test
+	public void waitUnlockIncreasingTokens() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-3", 10000, 0);
+		Assert.assertNotNull(lease);
+		
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicReference<LeaseLock> otherLease = new AtomicReference<>();
+		Thread other = new Thread(() -> {
+			started.countDown();
+			LeaseLock l = locker.tryLock("res-3", 10000, 10000);
+			otherLease.set(l);
+			locker.unlock(l);
+		});
+		other.start();
+		Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+		Thread.sleep(50);
+		locker.unlock(lease);
+		other.join(5000);
+		
+		Assert.assertNotNull(otherLease.get());
+		Assert.assertTrue(otherLease.get().getToken() > lease.getToken());
+		Assert.assertEquals(2, locker.getAcquiredCount());
+		Assert.assertEquals(1, locker.getContendedCount());
+		Assert.assertEquals(0, locker.size());
+	}
+	
+	@Test
+	public void expiredLeaseTakenOver() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		// the holder thread ends without releasing the lock
+		AtomicReference<LeaseLock> deadLease = new AtomicReference<>();
+		Thread holder = new Thread(() -> deadLease.set(locker.tryLock("res-4", 20, 0)));
+		holder.start();
+		holder.join(5000);
+		LeaseLock lease = deadLease.get();
+		Assert.assertNotNull(lease);
+		
+		AtomicReference<LeaseLock> otherLease = new AtomicReference<>();
+		Thread other = new Thread(() -> otherLease.set(locker.tryLock("res-4", 10000, 5000)));
+		other.start();
+		other.join(5000);
+		
+		LeaseLock newLease = otherLease.get();
+		Assert.assertNotNull(newLease);
+		Assert.assertTrue(newLease.getToken() > lease.getToken());
+		// the first holder has lost its lock
+		Assert.assertFalse(locker.isHeld(lease));
+		Assert.assertNull(locker.renew(lease, 10000));
+		locker.unlock(lease);
+		Assert.assertTrue(locker.isHeld(newLease));
+		Assert.assertEquals(1, locker.getExpiredCount());
+		
+		locker.unlock(newLease);
+		Assert.assertFalse(locker.isHeld(newLease));
+	}
+	
+	@Test
+	public void expiredLeaseOfLiveThreadNotTakenOver() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-8", 10, 0);
+		Thread.sleep(30);
+		
+		AtomicReference<LeaseLock> otherLease = new AtomicReference<>();
+		Thread other = new Thread(() -> otherLease.set(locker.tryLock("res-8", 10000, 50)));
+		other.start();
+		other.join(5000);
+		
+		Assert.assertNull(otherLease.get());
+		Assert.assertTrue(locker.isHeld(lease));
+		Assert.assertEquals(0, locker.getExpiredCount());
+		locker.unlock(lease);
+	}
+	
+	@Test
+	public void waitWithoutTimeout() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-9", 10000, -1);
+		Assert.assertNotNull(lease);
+		
+		AtomicReference<LeaseLock> otherLease = new AtomicReference<>();
+		Thread other = new Thread(() -> {
+			LeaseLock l = locker.tryLock("res-9", 10000, -1);
+			otherLease.set(l);
+			locker.unlock(l);
+		});
+		other.start();
+		other.join(100);
+		Assert.assertNull(otherLease.get());
+		
+		locker.unlock(lease);
+		other.join(5000);
+		Assert.assertNotNull(otherLease.get());
+		Assert.assertEquals(0, locker.getTimeoutCount());
+	}
+	
+	@Test
+	public void renewExpiredLeaseNotTakenOver() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-5", 10, 0);
+		Thread.sleep(30);
+		// expired but the holder is alive
+		Assert.assertTrue(locker.isHeld(lease));
+		
+		LeaseLock renewedLease = locker.renew(lease, 10000);
+		Assert.assertNotNull(renewedLease);
+		Assert.assertTrue(locker.isHeld(renewedLease));
+		Assert.assertEquals(lease.getToken(), renewedLease.getToken());
+		locker.unlock(renewedLease);
+	}
+	
+	@Test
+	public void contentionStatistics() throws Exception {
+		LocalLeaseLocker locker = new LocalLeaseLocker("1");
+		LeaseLock lease = locker.tryLock("res-6", 10000, 0);
+		Thread other = new Thread(() -> locker.tryLock("res-6", 10000, 20));
+		other.start();
+		other.join(5000);
+		locker.unlock(lease);
+		LeaseLock uncontendedLease = locker.tryLock("res-7", 10000, 0);
+		locker.unlock(uncontendedLease);
+		
+		List<LeaseLockStatistics> statistics = locker.getStatistics();
+		Assert.assertEquals(1, statistics.size());
+		LeaseLockStatistics stats = statistics.get(0);
+		Assert.assertEquals("res-6", stats.getResource());
+		Assert.assertEquals(1, stats.getContended());
+		Assert.assertEquals(1, stats.getTimeouts());
+		Assert.assertTrue(stats.getMaxWaitTime() >= 20);
+	}
+}
@@ -36,6 +36,7 @@ import java.util.Date;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
 import org.junit.Assert;
@@ -121,6 +122,34 @@ public class DBTest extends OlatTestCase {
 		assertNull("Property.save is NOT rollbacked", p);
 	}
 	
+	@Test
+	public void afterCommit() {
+		PropertyManager pm = PropertyManager.getInstance();
+		Property p = pm.createPropertyInstance(null, null, null, null, "testAfterCommit-1", null, null, "testAfterCommit-1", null);
+		pm.saveProperty(p);
+		
+		AtomicInteger runs = new AtomicInteger();
+		dbInstance.afterCommit(runs::incrementAndGet);
+		Assert.assertEquals(0, runs.get());
+		dbInstance.commit();
+		Assert.assertEquals(1, runs.get());
+		// run only once
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(1, runs.get());
+	}
+	
+	@Test
+	public void afterCommitRollback() {
+		PropertyManager pm = PropertyManager.getInstance();
+		Property p = pm.createPropertyInstance(null, null, null, null, "testAfterCommit-2", null, null, "testAfterCommit-2", null);
+		pm.saveProperty(p);
+		
+		AtomicInteger runs = new AtomicInteger();
+		dbInstance.afterCommit(runs::incrementAndGet);
+		dbInstance.rollbackAndCloseSession();
+		Assert.assertEquals(0, runs.get());
+	}
+	
 	@Test
 	public void testMixedNonTransactional_Transactional() {
 		String propertyKey1 = "testMixed-1";
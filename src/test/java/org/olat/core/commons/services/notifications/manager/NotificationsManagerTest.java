@@ -34,6 +34,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -48,13 +49,18 @@ import org.olat.core.commons.services.notifications.PublisherData;
 import org.olat.core.commons.services.notifications.Subscriber;
 import org.olat.core.commons.services.notifications.SubscriptionContext;
 import org.olat.core.commons.services.notifications.SubscriptionInfo;
+import org.olat.core.commons.services.notifications.model.SubscriptionListItem;
+import org.olat.core.commons.services.notifications.model.TitleItem;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.DBRuntimeException;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.CodeHelper;
+import org.olat.core.util.DateUtils;
 import org.olat.core.util.resource.OresHelper;
+import org.olat.properties.Property;
+import org.olat.properties.PropertyManager;
 import org.olat.test.JunitTestHelper;
 import org.olat.test.OlatTestCase;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -72,6 +78,8 @@ public class NotificationsManagerTest extends OlatTestCase {
 	private DB dbInstance;
 	@Autowired
 	private NotificationsManager notificationManager;
+	@Autowired
+	private PropertyManager propertyManager;
 
 	@Test
 	public void getUserIntervalOrDefault() {
@@ -401,6 +409,38 @@ public class NotificationsManagerTest extends OlatTestCase {
 	
 	//markPublisherNews
 	
+	@Test
+	public void filterSubscriptionInfo() {
+		Date now = new Date();
+		Date yesterday = DateUtils.addDays(now, -1);
+		Date lastWeek = DateUtils.addDays(now, -7);
+		List<SubscriptionListItem> items = new ArrayList<>();
+		items.add(new SubscriptionListItem("Today", null, null, now, null));
+		items.add(new SubscriptionListItem("Last week", null, null, lastWeek, null));
+		items.add(new SubscriptionListItem("No date", null, null, null, null));
+		SubscriptionInfo info = new SubscriptionInfo(1l, "Forum", new TitleItem("Title", null), items);
+		info.setCustomUrl("https://www.openolat.org");
+		
+		SubscriptionInfo filtered = info.filter(2l, yesterday);
+		Assert.assertEquals(Long.valueOf(2l), filtered.getKey());
+		Assert.assertEquals("Forum", filtered.getType());
+		Assert.assertEquals("https://www.openolat.org", filtered.getCustomUrl());
+		Assert.assertEquals(2, filtered.countSubscriptionListItems());
+		Assert.assertEquals(3, info.countSubscriptionListItems());
+	}
+	
+	@Test
+	public void notifyAllSubscribersByEmail() {
+		long start = System.currentTimeMillis();
+		notificationManager.notifyAllSubscribersByEmail();
+		
+		OLATResourceable digestOres = OresHelper.createOLATResourceableType("NotificationsEmailDigest");
+		Property partition = propertyManager.findProperty(null, null, digestOres, null, "partition.0");
+		Assert.assertNotNull(partition);
+		// claimed by this run or by a run in the last 30 minutes
+		Assert.assertTrue(partition.getLongValue().longValue() >= start - (30l * 60l * 1000l));
+	}
+	
 	@Test
 	public void testGetSubscriptionInfos() {
 		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("fi1-");
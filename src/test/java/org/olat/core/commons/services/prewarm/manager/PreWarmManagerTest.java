@@ -0,0 +1,145 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.prewarm.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.services.prewarm.PreWarmManager;
+import org.olat.core.commons.services.prewarm.model.PreWarmState;
+import org.olat.core.commons.services.prewarm.model.PreWarmStatus;
+import org.olat.core.configuration.PreWarm;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class PreWarmManagerTest extends OlatTestCase {
+	
+	private static final List<String> runs = Collections.synchronizedList(new ArrayList<>());
+	
+	@Autowired
+	private PreWarmManager preWarmManager;
+	
+	@Test
+	public void dependenciesAndReadiness() throws Exception {
+		runs.clear();
+		List<PreWarm> preWarms = List.of(new SecondPreWarm(), new FirstPreWarm());
+		preWarmManager.start(preWarms);
+		Assert.assertFalse(preWarmManager.isReady());
+		
+		waitFinished();
+		Assert.assertTrue(preWarmManager.isReady());
+		Assert.assertEquals(List.of("first", "second"), runs);
+		for(PreWarmState state:preWarmManager.getStates()) {
+			Assert.assertEquals(PreWarmStatus.done, state.getStatus());
+			Assert.assertTrue(state.getDuration() >= 100);
+		}
+	}
+	
+	@Test
+	public void timeBudget() throws Exception {
+		preWarmManager.start(List.of(new SlowPreWarm()));
+		
+		waitFinished();
+		PreWarmState state = preWarmManager.getStates().get(0);
+		Assert.assertEquals(PreWarmStatus.timeout, state.getStatus());
+		Assert.assertTrue(state.getDuration() < 10000);
+		Assert.assertTrue(preWarmManager.isReady());
+	}
+	
+	private void waitFinished() throws InterruptedException {
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while(System.nanoTime() < end) {
+			boolean finished = true;
+			for(PreWarmState state:preWarmManager.getStates()) {
+				finished &= state.isFinished();
+			}
+			if(finished) {
+				return;
+			}
+			Thread.sleep(50);
+		}
+	}
+	
+	public static class FirstPreWarm implements PreWarm {
+		@Override
+		public boolean isCritical() {
+			return true;
+		}
+
+		@Override
+		public void run() {
+			doWork(100);
+			runs.add("first");
+		}
+	}
+	
+	public static class SecondPreWarm implements PreWarm {
+		@Override
+		public boolean isCritical() {
+			return true;
+		}
+
+		@Override
+		public List<Class<? extends PreWarm>> getDependencies() {
+			return List.of(FirstPreWarm.class);
+		}
+
+		@Override
+		public void run() {
+			doWork(100);
+			runs.add("second");
+		}
+	}
+	
+	public static class SlowPreWarm implements PreWarm {
+		@Override
+		public boolean isCritical() {
+			return true;
+		}
+
+		@Override
+		public long getTimeBudget() {
+			return 300l;
+		}
+
+		@Override
+		public void run() {
+			doWork(20000);
+		}
+	}
+	
+	private static void doWork(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -125,13 +125,19 @@ public class VFSMetadataDAOTest extends OlatTestCase {
 		dbInstance.commitAndCloseSession();
 		Assert.assertNotNull(metadata);
 		
-		vfsMetadataDao.increaseDownloadCount(relativePath, filename);
+		vfsMetadataDao.increaseDownloadCount(relativePath, filename, 1);
 		dbInstance.commitAndCloseSession();
 		
 		VFSMetadata loadedMetadata = vfsMetadataDao.loadMetadata(metadata.getKey());
 		
 		Assert.assertEquals(metadata, loadedMetadata);
 		Assert.assertEquals(1, loadedMetadata.getDownloadCount());
+		
+		vfsMetadataDao.increaseDownloadCount(relativePath, filename, 5);
+		dbInstance.commitAndCloseSession();
+		
+		VFSMetadata reloadedMetadata = vfsMetadataDao.loadMetadata(metadata.getKey());
+		Assert.assertEquals(6, reloadedMetadata.getDownloadCount());
 	}
 	
 	@Test
@@ -0,0 +1,106 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.core.util.vfs.VFSManager;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class VFSMetadataUpdaterTest extends OlatTestCase {
+	
+	private static final String VFS_TEST_DIR = "/vfsupdatertest";
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private VFSMetadataDAO metadataDao;
+	@Autowired
+	private VFSMetadataUpdater metadataUpdater;
+	@Autowired
+	private VFSRepositoryService vfsRepositoryService;
+	
+	@Test
+	public void increaseDownloadCount() {
+		VFSLeaf leaf = createFile("Hello");
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		dbInstance.commitAndCloseSession();
+		
+		vfsRepositoryService.increaseDownloadCount(leaf);
+		vfsRepositoryService.increaseDownloadCount(leaf);
+		vfsRepositoryService.increaseDownloadCount(leaf);
+		Assert.assertEquals(3l, metadataUpdater.getPendingDownloads(metadata.getRelativePath(), metadata.getFilename()));
+		
+		metadataUpdater.flush();
+		Assert.assertEquals(0l, metadataUpdater.getPendingDownloads(metadata.getRelativePath(), metadata.getFilename()));
+		
+		VFSMetadata reloadedMetadata = metadataDao.loadMetadata(metadata.getKey());
+		Assert.assertEquals(3, reloadedMetadata.getDownloadCount());
+		dbInstance.commitAndCloseSession();
+	}
+	
+	@Test
+	public void updateFileSize() throws Exception {
+		VFSLeaf leaf = createFile("Hello");
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		dbInstance.commitAndCloseSession();
+		
+		try(OutputStream out = leaf.getOutputStream(false)) {
+			out.write("Hello world".getBytes(StandardCharsets.UTF_8));
+		}
+		metadataUpdater.updateFileSize(metadata.getRelativePath(), metadata.getFilename());
+		metadataUpdater.updateFileSize(metadata.getRelativePath(), metadata.getFilename());
+		Assert.assertEquals(1, metadataUpdater.getNumOfPendingFileSizes());
+		
+		metadataUpdater.flush();
+		Assert.assertEquals(0, metadataUpdater.getNumOfPendingFileSizes());
+		
+		VFSMetadata reloadedMetadata = metadataDao.loadMetadata(metadata.getKey());
+		Assert.assertEquals(11l, reloadedMetadata.getFileSize());
+		dbInstance.commitAndCloseSession();
+	}
+	
+	private VFSLeaf createFile(String content) {
+		VFSContainer testContainer = VFSManager.olatRootContainer(VFS_TEST_DIR, null);
+		VFSLeaf leaf = testContainer.createChildLeaf(UUID.randomUUID() + ".txt");
+		try(OutputStream out = leaf.getOutputStream(false)) {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+		} catch(Exception e) {
+			Assert.fail(e.getMessage());
+		}
+		return leaf;
+	}
+}
@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.commons.io.IOUtils;
@@ -75,6 +76,8 @@ public class VFSRepositoryServiceTest extends OlatTestCase {
 	@Autowired
 	private LicenseCleaner licenseCleaner;
 	@Autowired
+	private VFSMetadataCache metadataCache;
+	@Autowired
 	private VFSRepositoryService vfsRepositoryService;
 	
 	@Before
@@ -271,6 +274,49 @@ public class VFSRepositoryServiceTest extends OlatTestCase {
 		Assert.assertEquals("A little comment", comment);
 	}
 	
+	@Test
+	public void getChildrenMetadataFor() {
+		VFSContainer testContainer = VFSManager.olatRootContainer(VFS_TEST_DIR, null);
+		VFSContainer container = testContainer.createChildContainer(random());
+		VFSLeaf leaf = container.createChildLeaf("first.txt");
+		copyTestTxt(leaf, "test.txt");
+		VFSContainer subContainer = container.createChildContainer("sub");
+		dbInstance.commitAndCloseSession();
+		
+		// load and create the metadata
+		Map<String,VFSMetadata> metadatas = vfsRepositoryService.getChildrenMetadataFor(container);
+		Assert.assertEquals(2, metadatas.size());
+		Assert.assertNotNull(metadatas.get("first.txt").getKey());
+		Assert.assertFalse(metadatas.get("first.txt").isDirectory());
+		Assert.assertTrue(metadatas.get("sub").isDirectory());
+		dbInstance.commitAndCloseSession();
+		
+		// from the cache
+		long hits = metadataCache.getHits();
+		Map<String,VFSMetadata> cachedMetadatas = vfsRepositoryService.getChildrenMetadataFor(container);
+		Assert.assertEquals(hits + 1, metadataCache.getHits());
+		Assert.assertEquals(metadatas.get("first.txt"), cachedMetadatas.get("first.txt"));
+		Assert.assertEquals(metadatas.get("first.txt"), vfsRepositoryService.getCachedMetadataFor(leaf));
+		Assert.assertEquals(metadatas.get("sub"), vfsRepositoryService.getCachedMetadataFor(subContainer));
+		
+		// a new file is found
+		VFSLeaf secondLeaf = container.createChildLeaf("second.txt");
+		copyTestTxt(secondLeaf, "test.txt");
+		Map<String,VFSMetadata> updatedMetadatas = vfsRepositoryService.getChildrenMetadataFor(container);
+		Assert.assertEquals(3, updatedMetadatas.size());
+		Assert.assertNotNull(updatedMetadatas.get("second.txt").getKey());
+		dbInstance.commitAndCloseSession();
+		
+		// an update invalidates the directory
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		metadata.setComment("Cached comment");
+		vfsRepositoryService.updateMetadata(metadata);
+		dbInstance.commitAndCloseSession();
+		
+		VFSMetadata reloadedMetadata = vfsRepositoryService.getCachedMetadataFor(leaf);
+		Assert.assertEquals("Cached comment", reloadedMetadata.getComment());
+	}
+	
 	private VFSLeaf createFile() {
 		String filename = UUID.randomUUID() + ".txt";
 		VFSContainer testContainer = VFSManager.olatRootContainer(VFS_TEST_DIR, null);
@@ -0,0 +1,121 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import static org.olat.test.JunitTestHelper.random;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.modules.bc.FolderConfig;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.vfs.LocalFolderImpl;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSManager;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * List a directory with 5'000 files, the metadata loaded file per file
+ * against the metadata loaded directory per directory. It is not part of
+ * the unit tests and must be started manually.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class VFSRepositoryServiceThroughput extends OlatTestCase {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSRepositoryServiceThroughput.class);
+	private static final String VFS_TEST_DIR = "/vfsrepotest";
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private VFSMetadataCache metadataCache;
+	@Autowired
+	private VFSRepositoryService vfsRepositoryService;
+	
+	@Test
+	public void getChildrenMetadataForLargeDirectory() throws IOException {
+		VFSContainer testContainer = VFSManager.olatRootContainer(VFS_TEST_DIR, null);
+		VFSContainer container = testContainer.createChildContainer(random());
+		File directory = ((LocalFolderImpl)container).getBasefile();
+		byte[] content = "Hello world".getBytes();
+		List<File> files = new ArrayList<>(5000);
+		for(int i=0; i<5000; i++) {
+			File file = new File(directory, "file_" + i + ".txt");
+			Files.write(file.toPath(), content);
+			files.add(file);
+		}
+		
+		// cold: one query and create the missing metadata in one transaction
+		long start = System.nanoTime();
+		Map<String,VFSMetadata> createdMetadatas = vfsRepositoryService.getChildrenMetadataFor(container);
+		dbInstance.commitAndCloseSession();
+		long created = System.nanoTime() - start;
+		Assert.assertEquals(5000, createdMetadatas.size());
+		
+		// warm: from the near cache
+		long hits = metadataCache.getHits();
+		start = System.nanoTime();
+		Map<String,VFSMetadata> cachedMetadatas = vfsRepositoryService.getChildrenMetadataFor(container);
+		long cached = System.nanoTime() - start;
+		Assert.assertEquals(5000, cachedMetadatas.size());
+		Assert.assertEquals(hits + 1, metadataCache.getHits());
+		
+		// one query
+		metadataCache.invalidate(getRelativePath(directory));
+		start = System.nanoTime();
+		Map<String,VFSMetadata> loadedMetadatas = vfsRepositoryService.getChildrenMetadataFor(container);
+		dbInstance.commitAndCloseSession();
+		long loaded = System.nanoTime() - start;
+		Assert.assertEquals(5000, loadedMetadatas.size());
+		
+		// file per file
+		start = System.nanoTime();
+		for(File file:files) {
+			VFSMetadata metadata = vfsRepositoryService.getMetadataFor(file);
+			Assert.assertEquals(loadedMetadatas.get(file.getName()), metadata);
+		}
+		dbInstance.commitAndCloseSession();
+		long perFile = System.nanoTime() - start;
+		
+		log.info("List 5000 files metadata (ms), created: {}, loaded: {}, cached: {}, file per file: {}",
+				TimeUnit.NANOSECONDS.toMillis(created), TimeUnit.NANOSECONDS.toMillis(loaded),
+				TimeUnit.NANOSECONDS.toMillis(cached), TimeUnit.NANOSECONDS.toMillis(perFile));
+	}
+	
+	private String getRelativePath(File directory) {
+		return FolderConfig.getCanonicalRootPath().relativize(directory.toPath()).toString();
+	}
+	
+}
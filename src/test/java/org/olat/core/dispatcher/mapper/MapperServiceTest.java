@@ -30,11 +30,17 @@ import org.junit.Test;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.dispatcher.mapper.manager.MapperDAO;
 import org.olat.core.dispatcher.mapper.manager.MapperKey;
+import org.olat.core.dispatcher.mapper.manager.SignedMapperToken;
 import org.olat.core.gui.media.MediaResource;
 import org.olat.core.util.CodeHelper;
 import org.olat.core.util.SessionInfo;
 import org.olat.core.util.UserSession;
 import org.olat.core.util.session.UserSessionManager;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSContainerMapper;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.core.util.vfs.VFSManager;
+import org.olat.core.util.vfs.VFSMediaMapper;
 import org.olat.test.OlatTestCase;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mock.web.MockHttpSession;
@@ -215,6 +221,61 @@ public class MapperServiceTest extends OlatTestCase {
 		Assert.assertEquals(modKey, reloadedMapper2.getKey());
 	}
 	
+	@Test
+	public void testStatelessMapper() {
+		int initialNumOfMappers = mapperService.inMemoryCount();
+		UserSession session = createUserSession();
+		VFSContainer container = VFSManager.olatRootContainer("/mapper_" + UUID.randomUUID(), null);
+		VFSLeaf leaf = container.createChildLeaf("image.png");
+		MapperKey mapperKey = mapperService.register(session, new VFSMediaMapper(leaf));
+		dbInstance.commitAndCloseSession();
+		
+		Assert.assertTrue(SignedMapperToken.isSignedToken(mapperKey.getMapperId()));
+		Assert.assertTrue(mapperKey.getUrl().endsWith(mapperKey.getMapperId()));
+		Assert.assertEquals(initialNumOfMappers, mapperService.inMemoryCount());
+		
+		// recreated from the URL
+		Mapper reloadedMapper = mapperService.getMapperById(session, mapperKey.getUrl());
+		Assert.assertTrue(reloadedMapper instanceof VFSMediaMapper);
+		Assert.assertEquals(leaf.getRelPath(), ((VFSMediaMapper)reloadedMapper).getConfiguration());
+		
+		// bound to the session
+		Assert.assertNull(mapperService.getMapperById(null, mapperKey.getMapperId()));
+		Assert.assertNull(mapperService.getMapperById(createUserSession(), mapperKey.getMapperId()));
+	}
+	
+	@Test
+	public void testStatelessMapper_cacheable() {
+		VFSContainer container = VFSManager.olatRootContainer("/mapper_" + UUID.randomUUID(), null);
+		MapperKey mapperKey = mapperService.register(null, "stateless-" + UUID.randomUUID(), new VFSContainerMapper(container));
+		MapperKey sameMapperKey = mapperService.register(null, "stateless-" + UUID.randomUUID(), new VFSContainerMapper(container));
+		Assert.assertEquals(mapperKey.getUrl(), sameMapperKey.getUrl());
+
+		Mapper reloadedMapper = mapperService.getMapperById(null, mapperKey.getMapperId());
+		Assert.assertTrue(reloadedMapper instanceof VFSContainerMapper);
+		Assert.assertEquals(container.getRelPath(), ((VFSContainerMapper)reloadedMapper).getConfiguration());
+	}
+	
+	@Test
+	public void testStatelessMapper_tampered() {
+		VFSContainer container = VFSManager.olatRootContainer("/mapper_" + UUID.randomUUID(), null);
+		MapperKey mapperKey = mapperService.register(null, new VFSContainerMapper(container));
+		
+		String token = mapperKey.getMapperId();
+		String tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+		Assert.assertNull(mapperService.getMapperById(null, tamperedToken));
+	}
+	
+	@Test
+	public void testStatelessMapper_notLocal() {
+		int initialNumOfMappers = mapperService.inMemoryCount();
+		UserSession session = createUserSession();
+		MapperKey mapperKey = mapperService.register(session, new VFSMediaMapper());
+		Assert.assertFalse(SignedMapperToken.isSignedToken(mapperKey.getMapperId()));
+		Assert.assertFalse(initialNumOfMappers == mapperService.inMemoryCount());
+		mapperService.cleanUp(session.getSessionInfo().getSession().getId());
+	}
+	
 	private UserSession createUserSession() {
 		HttpSession httpSession = new MockHttpSession();
 		UserSession userSession = sessionManager.getUserSession(null, httpSession);
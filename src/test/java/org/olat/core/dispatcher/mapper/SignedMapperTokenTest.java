@@ -0,0 +1,91 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.dispatcher.mapper;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.dispatcher.mapper.manager.SignedMapperToken;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class SignedMapperTokenTest {
+	
+	private static final byte[] SECRET = "A secret to sign the tokens".getBytes(StandardCharsets.UTF_8);
+	
+	@Test
+	public void signAndVerify() {
+		String path = "/repository/1234/media/Image \u00E9t\u00E9.png";
+		String token = new SignedMapperToken("vfsleaf", path, 2000l).sign(SECRET, "session-1");
+		Assert.assertTrue(SignedMapperToken.isSignedToken(token));
+		Assert.assertEquals(-1, token.indexOf('/'));
+		
+		SignedMapperToken verified = SignedMapperToken.verify(token, SECRET, "session-1", 1000l);
+		Assert.assertNotNull(verified);
+		Assert.assertEquals("vfsleaf", verified.getMapperType());
+		Assert.assertEquals(path, verified.getConfiguration());
+		Assert.assertEquals(2000l, verified.getExpiration());
+	}
+	
+	@Test
+	public void verifyOtherSession() {
+		String token = new SignedMapperToken("vfsleaf", "/repository/1234/media/image.png", 2000l)
+				.sign(SECRET, "session-1");
+		Assert.assertNull(SignedMapperToken.verify(token, SECRET, "session-2", 1000l));
+		Assert.assertNull(SignedMapperToken.verify(token, SECRET, "", 1000l));
+	}
+	
+	@Test
+	public void verifyOtherSecret() {
+		String token = new SignedMapperToken("vfsleaf", "/repository/1234/media/image.png", 2000l)
+				.sign(SECRET, "");
+		byte[] otherSecret = "An other secret".getBytes(StandardCharsets.UTF_8);
+		Assert.assertNull(SignedMapperToken.verify(token, otherSecret, "", 1000l));
+	}
+	
+	@Test
+	public void verifyExpired() {
+		String token = new SignedMapperToken("vfsleaf", "/repository/1234/media/image.png", 2000l)
+				.sign(SECRET, "");
+		Assert.assertNotNull(SignedMapperToken.verify(token, SECRET, "", 2000l));
+		Assert.assertNull(SignedMapperToken.verify(token, SECRET, "", 2001l));
+	}
+	
+	@Test
+	public void verifyTampered() {
+		String token = new SignedMapperToken("vfsleaf", "/repository/1234/media/image.png", 2000l)
+				.sign(SECRET, "");
+		// change the configuration, keep the signature
+		String otherToken = new SignedMapperToken("vfsleaf", "/repository/5678/media/image.png", 2000l)
+				.sign(SECRET, "");
+		String forged = otherToken.substring(0, otherToken.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+		Assert.assertNull(SignedMapperToken.verify(forged, SECRET, "", 1000l));
+		
+		Assert.assertNull(SignedMapperToken.verify("s.", SECRET, "", 1000l));
+		Assert.assertNull(SignedMapperToken.verify("s.abc", SECRET, "", 1000l));
+		Assert.assertNull(SignedMapperToken.verify("s.abc.%%%", SECRET, "", 1000l));
+		Assert.assertNull(SignedMapperToken.verify("0123456789abcdef", SECRET, "", 1000l));
+	}
+}
@@ -0,0 +1,228 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.gui.UserRequest;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class DirtyComponentsTest {
+	
+	@Test
+	public void collectDirtyComponent() {
+		DirtyComponents tracker = new DirtyComponents();
+		TestContainer root = new TestContainer("root");
+		TestContainer container = new TestContainer("container");
+		TestComponent leaf = new TestComponent("leaf");
+		root.add(container);
+		container.add(leaf);
+		render(tracker, root, true);
+		
+		Assert.assertTrue(tracker.collect(root).isEmpty());
+		
+		leaf.setDirty(true);
+		List<Component> dirties = tracker.collect(root);
+		Assert.assertEquals(1, dirties.size());
+		Assert.assertEquals(leaf, dirties.get(0));
+		// collected only once
+		leaf.setDirty(false);
+		Assert.assertTrue(tracker.collect(root).isEmpty());
+	}
+	
+	@Test
+	public void collectTopDirtyComponent() {
+		DirtyComponents tracker = new DirtyComponents();
+		TestContainer root = new TestContainer("root");
+		TestContainer container = new TestContainer("container");
+		TestComponent leaf1 = new TestComponent("leaf1");
+		TestComponent leaf2 = new TestComponent("leaf2");
+		root.add(container);
+		container.add(leaf1);
+		container.add(leaf2);
+		render(tracker, root, true);
+		
+		leaf1.setDirty(true);
+		container.setDirty(true);
+		leaf2.setDirty(true);
+		List<Component> dirties = tracker.collect(root);
+		Assert.assertEquals(1, dirties.size());
+		Assert.assertEquals(container, dirties.get(0));
+	}
+	
+	@Test
+	public void removedComponent() {
+		DirtyComponents tracker = new DirtyComponents();
+		TestContainer root = new TestContainer("root");
+		TestContainer container = new TestContainer("container");
+		TestComponent leaf = new TestComponent("leaf");
+		root.add(container);
+		container.add(leaf);
+		render(tracker, root, true);
+		
+		// remove the leaf and render the container alone
+		container.remove(leaf);
+		List<Component> dirties = tracker.collect(root);
+		Assert.assertEquals(1, dirties.size());
+		render(tracker, container, false);
+		
+		leaf.setDirty(true);
+		Assert.assertTrue(tracker.collect(root).isEmpty());
+	}
+	
+	@Test
+	public void invisibleParent() {
+		DirtyComponents tracker = new DirtyComponents();
+		TestContainer root = new TestContainer("root");
+		TestContainer container = new TestContainer("container");
+		TestComponent leaf = new TestComponent("leaf");
+		root.add(container);
+		container.add(leaf);
+		render(tracker, root, true);
+		
+		container.setVisible(false);
+		List<Component> dirties = tracker.collect(root);
+		Assert.assertEquals(1, dirties.size());
+		Assert.assertEquals(container, dirties.get(0));
+		Assert.assertFalse(container.isDirty());
+		render(tracker, container, false);
+		
+		leaf.setDirty(true);
+		Assert.assertTrue(tracker.collect(root).isEmpty());
+	}
+	
+	@Test
+	public void polledComponent() {
+		DirtyComponents tracker = new DirtyComponents();
+		TestContainer root = new TestContainer("root");
+		TestPolledComponent polled = new TestPolledComponent("polled");
+		root.add(polled);
+		render(tracker, root, true);
+		
+		Assert.assertTrue(tracker.collect(root).isEmpty());
+		
+		polled.changed = true;
+		List<Component> dirties = tracker.collect(root);
+		Assert.assertEquals(1, dirties.size());
+		Assert.assertEquals(polled, dirties.get(0));
+	}
+	
+	/**
+	 * Simulate the renderer: the components are stamped after their rendering.
+	 */
+	private void render(DirtyComponents tracker, Component component, boolean full) {
+		try {
+			tracker.beginRendering(full);
+			renderComponent(component);
+		} finally {
+			tracker.endRendering();
+		}
+	}
+	
+	private void renderComponent(Component component) {
+		if(component.isVisible()) {
+			if(component instanceof ComponentCollection) {
+				for(Component child:((ComponentCollection)component).getComponents()) {
+					renderComponent(child);
+				}
+			}
+			component.setDirty(false);
+		}
+		DirtyComponents.rendered(component);
+	}
+	
+	private static class TestComponent extends AbstractComponent {
+		
+		public TestComponent(String name) {
+			super(name);
+		}
+
+		@Override
+		protected void doDispatchRequest(UserRequest ureq) {
+			//
+		}
+
+		@Override
+		public ComponentRenderer getHTMLRendererSingleton() {
+			return null;
+		}
+	}
+	
+	private static class TestPolledComponent extends TestComponent {
+		
+		private boolean changed;
+		
+		public TestPolledComponent(String name) {
+			super(name);
+		}
+
+		@Override
+		public boolean isDirty() {
+			return changed || super.isDirty();
+		}
+
+		@Override
+		public boolean isDirtyPolling() {
+			return true;
+		}
+	}
+	
+	private static class TestContainer extends TestComponent implements ComponentCollection {
+		
+		private final List<Component> children = new ArrayList<>();
+		
+		public TestContainer(String name) {
+			super(name);
+		}
+		
+		public void add(Component component) {
+			children.add(component);
+			setDirty(true);
+		}
+		
+		public void remove(Component component) {
+			children.remove(component);
+			setDirty(true);
+		}
+
+		@Override
+		public Component getComponent(String name) {
+			for(Component child:children) {
+				if(child.getComponentName().equals(name)) {
+					return child;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public Iterable<Component> getComponents() {
+			return children;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.media;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ServletUtilTest {
+	
+	private static final int BUFFER_SIZE = 8192;
+	// a few buffers and not a multiple of them
+	private static final int FILE_SIZE = 5 * BUFFER_SIZE + 1234;
+	
+	private File file;
+	
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("delivery", ".bin").toFile();
+		byte[] content = new byte[FILE_SIZE];
+		new Random(42l).nextBytes(content);
+		try(OutputStream out = new FileOutputStream(file)) {
+			out.write(content);
+		}
+	}
+	
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+	
+	@Test
+	public void transferRange() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ServletUtil.transferRange(file, out, 1000, 1999);
+		
+		byte[] expected = new byte[1000];
+		try(InputStream in = new FileInputStream(file)) {
+			Assert.assertEquals(1000, in.skip(1000));
+			Assert.assertEquals(1000, in.read(expected));
+		}
+		Assert.assertArrayEquals(expected, out.toByteArray());
+	}
+	
+	@Test
+	public void transferSameAsCopy() throws IOException {
+		long start = 123;
+		long end = FILE_SIZE - 456l;
+		
+		ByteArrayOutputStream copied = new ByteArrayOutputStream();
+		try(InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+			Assert.assertNull(ServletUtil.copyRange(in, copied, start, end, BUFFER_SIZE));
+		}
+		ByteArrayOutputStream transfered = new ByteArrayOutputStream();
+		ServletUtil.transferRange(file, transfered, start, end);
+		Assert.assertEquals(end - start + 1, transfered.size());
+		
+		try(InputStream copiedIn = new ByteArrayInputStream(copied.toByteArray());
+				InputStream transferedIn = new ByteArrayInputStream(transfered.toByteArray());
+				InputStream fileIn = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+			Assert.assertEquals(start, fileIn.skip(start));
+			assertSameContent(fileIn, copiedIn, transferedIn);
+		}
+	}
+	
+	private static void assertSameContent(InputStream expected, InputStream copied, InputStream transfered) throws IOException {
+		long position = 0;
+		for(int c; (c = copied.read()) != -1; position++) {
+			Assert.assertEquals("Byte at " + position, expected.read(), c);
+			Assert.assertEquals("Byte at " + position, c, transfered.read());
+		}
+		Assert.assertEquals(-1, transfered.read());
+	}
+	
+	@Test
+	public void matchETag() {
+		String etag = "\"1024-1634567890000\"";
+		Assert.assertTrue(ServletUtil.matchETag(etag, etag));
+		Assert.assertTrue(ServletUtil.matchETag("\"abc\", " + etag, etag));
+		Assert.assertTrue(ServletUtil.matchETag("W/" + etag, etag));
+		Assert.assertTrue(ServletUtil.matchETag("*", etag));
+		Assert.assertFalse(ServletUtil.matchETag("\"1024-1634567899999\"", etag));
+	}
+	
+	@Test
+	public void signOffloadPath() {
+		String signature = FileDeliveryModule.signOffloadPath("/olat-files/course/test.pdf", 2147483647l, "secret");
+		Assert.assertEquals(22, signature.length());
+		Assert.assertTrue(signature.matches("[A-Za-z0-9_-]+"));
+		Assert.assertEquals(signature, FileDeliveryModule.signOffloadPath("/olat-files/course/test.pdf", 2147483647l, "secret"));
+		Assert.assertNotEquals(signature, FileDeliveryModule.signOffloadPath("/olat-files/course/test.pdf", 2147483646l, "secret"));
+	}
+	
+}
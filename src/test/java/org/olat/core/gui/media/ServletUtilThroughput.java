@@ -0,0 +1,121 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.media;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+
+/**
+ * Compare the throughput of the copy through the heap with the
+ * transfer of the file channel. It writes a file of 64MB, it is not
+ * part of the unit tests and must be started manually.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ServletUtilThroughput {
+	
+	private static final Logger log = Tracing.createLoggerFor(ServletUtilThroughput.class);
+	
+	private static final int BUFFER_SIZE = 8192;
+	private static final int FILE_SIZE = 64 * 1024 * 1024;
+	
+	private File file;
+	
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("delivery", ".bin").toFile();
+		byte[] chunk = new byte[1024 * 1024];
+		new Random(42l).nextBytes(chunk);
+		try(OutputStream out = new FileOutputStream(file)) {
+			for(int i=FILE_SIZE / chunk.length; i-->0; ) {
+				out.write(chunk);
+			}
+		}
+	}
+	
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+	
+	@Test
+	public void throughput() throws IOException {
+		int runs = 5;
+		CountingOutputStream copyOut = new CountingOutputStream();
+		long copyStart = System.nanoTime();
+		for(int i=0; i<runs; i++) {
+			try(InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+				ServletUtil.copyRange(in, copyOut, 0, FILE_SIZE - 1l, BUFFER_SIZE);
+			}
+		}
+		long copyDuration = System.nanoTime() - copyStart;
+		
+		CountingOutputStream transferOut = new CountingOutputStream();
+		long transferStart = System.nanoTime();
+		for(int i=0; i<runs; i++) {
+			ServletUtil.transferRange(file, transferOut, 0, FILE_SIZE - 1l);
+		}
+		long transferDuration = System.nanoTime() - transferStart;
+
+		Assert.assertEquals((long)runs * FILE_SIZE, copyOut.getCount());
+		Assert.assertEquals((long)runs * FILE_SIZE, transferOut.getCount());
+		log.info("Copy through the heap: {} MB/s, transfer with the file channel: {} MB/s",
+				throughput(copyOut.getCount(), copyDuration), throughput(transferOut.getCount(), transferDuration));
+	}
+	
+	private static long throughput(long bytes, long nanos) {
+		return (bytes * 1000l) / Math.max(1l, nanos);// bytes/ns * 1000 = MB/s
+	}
+	
+	private static class CountingOutputStream extends OutputStream {
+		
+		private long count;
+		
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.render;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class StringOutputPoolTest {
+	
+	@Test
+	public void allocAndFree() {
+		StringOutput output = StringOutputPool.allocStringBuilder(1000);
+		Assert.assertTrue(output.capacity() >= 1000);
+		output.append("Hello");
+		Assert.assertEquals("Hello", StringOutputPool.freePop(output));
+		
+		long hits = StringOutputPool.getHits();
+		StringOutput recycled = StringOutputPool.allocStringBuilder(1000);
+		Assert.assertTrue(recycled.capacity() >= 1000);
+		Assert.assertEquals(0, recycled.length());
+		Assert.assertEquals(hits + 1, StringOutputPool.getHits());
+		StringOutputPool.free(recycled);
+	}
+	
+	@Test
+	public void dontRetainHugeBuffers() {
+		long discarded = StringOutputPool.getDiscarded();
+		StringOutput output = StringOutputPool.allocStringBuilder(300000);
+		Assert.assertTrue(output.capacity() >= 300000);
+		StringOutputPool.free(output);
+		Assert.assertEquals(discarded + 1, StringOutputPool.getDiscarded());
+	}
+	
+	@Test
+	public void concurrentAllocAndFree() throws Exception {
+		int numOfThreads = 32;
+		Set<StringOutput> inUse = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(numOfThreads);
+		for(int i=0; i<numOfThreads; i++) {
+			new Thread(() -> {
+				try {
+					for(int j=0; j<5000; j++) {
+						int size = ThreadLocalRandom.current().nextInt(16, 200000);
+						StringOutput output = StringOutputPool.allocStringBuilder(size);
+						if(output.capacity() < size || output.length() != 0 || !inUse.add(output)) {
+							errors.incrementAndGet();
+						}
+						output.append("Row ").append(j);
+						inUse.remove(output);
+						StringOutputPool.freePop(output);
+					}
+				} catch(Exception e) {
+					errors.incrementAndGet();
+				} finally {
+					latch.countDown();
+				}
+			}).start();
+		}
+		
+		Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+		Assert.assertEquals(0, errors.get());
+		Assert.assertTrue(StringOutputPool.getRetainedChars() >= 0);
+		Assert.assertTrue(StringOutputPool.getRetainedChars() <= StringOutputPool.getMaxRetainedChars());
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.util.CodeHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class UserActivityLogWriterTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	@Test
+	public void writeAndFlushAtShutdown() {
+		UserActivityLogWriter writer = createWriter(100, 3);
+		writer.start();
+		
+		String sessionId = "async-" + CodeHelper.getGlobalForeverUniqueID();
+		for(int i=0; i<7; i++) {
+			Assert.assertTrue(writer.write(new LoggingObject(sessionId, 123l, "u", "launch", "node")));
+		}
+		writer.stop();
+		
+		Assert.assertEquals(0, writer.getQueueDepth());
+		Assert.assertEquals(7, writer.getWrittenCount());
+		Assert.assertEquals(0, writer.getDroppedCount());
+		Assert.assertEquals(7, countLogs(sessionId));
+	}
+	
+	@Test
+	public void dropIfQueueIsFull() {
+		UserActivityLogWriter writer = createWriter(2, 10);
+		// not started, nothing drains the queue
+		String sessionId = "async-" + CodeHelper.getGlobalForeverUniqueID();
+		Assert.assertTrue(writer.write(new LoggingObject(sessionId, 123l, "u", "launch", "node")));
+		Assert.assertTrue(writer.write(new LoggingObject(sessionId, 123l, "u", "launch", "node")));
+		Assert.assertFalse(writer.write(new LoggingObject(sessionId, 123l, "u", "launch", "node")));
+		Assert.assertEquals(2, writer.getQueueDepth());
+		Assert.assertEquals(1, writer.getDroppedCount());
+		
+		writer.flush();
+		Assert.assertEquals(0, writer.getQueueDepth());
+		Assert.assertEquals(2, countLogs(sessionId));
+	}
+	
+	private UserActivityLogWriter createWriter(int capacity, int batchSize) {
+		UserActivityLogWriter writer = new UserActivityLogWriter();
+		writer.setEnabled(true);
+		writer.setQueueCapacity(capacity);
+		writer.setBatchSize(batchSize);
+		writer.setFlushInterval(50);
+		writer.setQueueFullWait(0);
+		writer.setDbInstance(dbInstance);
+		return writer;
+	}
+	
+	private int countLogs(String sessionId) {
+		List<Long> keys = dbInstance.getCurrentEntityManager()
+			.createQuery("select log.key from loggingobject log where log.sessionId=:sessionId", Long.class)
+			.setParameter("sessionId", sessionId)
+			.getResultList();
+		dbInstance.commitAndCloseSession();
+		return keys.size();
+	}
+}
@@ -100,6 +100,20 @@ public class DateUtilsTest {
 		assertThat(later).isEqualTo(expected);
 	}
 	
+	@Test
+	public void shouldGetEarlier() {
+		Date date1 = toDate(LocalDate.of(2011, 9, 12));
+		Date date2 = toDate(LocalDate.of(2011, 10, 12));
+		
+		SoftAssertions softly = new SoftAssertions();
+		softly.assertThat(DateUtils.getEarlier(date1, date2)).isEqualTo(date1);
+		softly.assertThat(DateUtils.getEarlier(date2, date1)).isEqualTo(date1);
+		softly.assertThat(DateUtils.getEarlier(null, date2)).isEqualTo(date2);
+		softly.assertThat(DateUtils.getEarlier(date1, null)).isEqualTo(date1);
+		softly.assertThat(DateUtils.getEarlier(null, null)).isNull();
+		softly.assertAll();
+	}
+	
 	@Test
 	public void shouldGetDaysInRange() {
 		Date start = new GregorianCalendar(2020, 5, 1, 10, 0, 0).getTime();
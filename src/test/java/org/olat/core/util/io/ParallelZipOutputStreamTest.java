@@ -0,0 +1,227 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ParallelZipOutputStreamTest {
+	
+	@Test
+	public void isCompressed() {
+		Assert.assertTrue(ParallelZipOutputStream.isCompressed("movie.mp4"));
+		Assert.assertTrue(ParallelZipOutputStream.isCompressed("dir/Image.JPG"));
+		Assert.assertFalse(ParallelZipOutputStream.isCompressed("text.txt"));
+		Assert.assertFalse(ParallelZipOutputStream.isCompressed("mp4"));
+		Assert.assertFalse(ParallelZipOutputStream.isCompressed("dir.mp4/"));
+	}
+	
+	@Test
+	public void zipAndUnzip() throws IOException {
+		Map<String,byte[]> contents = createContents();
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(ZipOutputStream zout = new ParallelZipOutputStream(out)) {
+			write(zout, contents);
+		}
+
+		Map<String,byte[]> unzipped = new HashMap<>();
+		try(ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			for(ZipEntry entry=zin.getNextEntry(); entry != null; entry=zin.getNextEntry()) {
+				unzipped.put(entry.getName(), IOUtils.toByteArray(zin));
+			}
+		}
+		assertContents(contents, unzipped);
+	}
+	
+	@Test
+	public void zipAndUnzipWithCompressors() throws IOException {
+		Map<String,byte[]> contents = createContents();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			ParallelZipOutputStream.setCompressors(executor, 2);
+			try(ZipOutputStream zout = new ParallelZipOutputStream(out)) {
+				write(zout, contents);
+			}
+		} finally {
+			ParallelZipOutputStream.setCompressors(null, 1);
+			executor.shutdownNow();
+		}
+
+		Map<String,byte[]> unzipped = new HashMap<>();
+		try(ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			for(ZipEntry entry=zin.getNextEntry(); entry != null; entry=zin.getNextEntry()) {
+				unzipped.put(entry.getName(), IOUtils.toByteArray(zin));
+			}
+		}
+		assertContents(contents, unzipped);
+	}
+	
+	@Test
+	public void zipWithShutdownCompressors() throws IOException {
+		Map<String,byte[]> contents = createContents();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		executor.shutdown();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			ParallelZipOutputStream.setCompressors(executor, 2);
+			try(ZipOutputStream zout = new ParallelZipOutputStream(out)) {
+				write(zout, contents);
+			}
+		} finally {
+			ParallelZipOutputStream.setCompressors(null, 1);
+		}
+
+		Map<String,byte[]> unzipped = new HashMap<>();
+		try(ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			for(ZipEntry entry=zin.getNextEntry(); entry != null; entry=zin.getNextEntry()) {
+				unzipped.put(entry.getName(), IOUtils.toByteArray(zin));
+			}
+		}
+		assertContents(contents, unzipped);
+	}
+	
+	@Test
+	public void zipAndReadZipFile() throws IOException {
+		Map<String,byte[]> contents = createContents();
+		
+		File file = File.createTempFile("parallel", ".zip");
+		try(ZipOutputStream zout = new ParallelZipOutputStream(new FileOutputStream(file))) {
+			zout.setComment("Parallel");
+			write(zout, contents);
+		}
+
+		Map<String,byte[]> unzipped = new HashMap<>();
+		try(ZipFile zipFile = new ZipFile(file)) {
+			Assert.assertEquals("Parallel", zipFile.getComment());
+			for(Enumeration<? extends ZipEntry> entries=zipFile.entries(); entries.hasMoreElements(); ) {
+				ZipEntry entry = entries.nextElement();
+				try(InputStream in = zipFile.getInputStream(entry)) {
+					unzipped.put(entry.getName(), IOUtils.toByteArray(in));
+				}
+			}
+		} finally {
+			file.delete();
+		}
+		assertContents(contents, unzipped);
+	}
+	
+	@Test
+	public void storedEntry() throws IOException {
+		byte[] data = "Hello stored world".getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(ZipOutputStream zout = new ParallelZipOutputStream(out)) {
+			ZipEntry entry = new ZipEntry("stored.txt");
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(data.length);
+			entry.setCompressedSize(data.length);
+			entry.setCrc(crc.getValue());
+			zout.putNextEntry(entry);
+			zout.write(data);
+			zout.closeEntry();
+		}
+		
+		try(ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry = zin.getNextEntry();
+			Assert.assertEquals("stored.txt", entry.getName());
+			Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+			Assert.assertArrayEquals(data, IOUtils.toByteArray(zin));
+			Assert.assertNull(zin.getNextEntry());
+		}
+	}
+	
+	@Test(expected = java.util.zip.ZipException.class)
+	public void duplicateEntry() throws IOException {
+		try(ZipOutputStream zout = new ParallelZipOutputStream(new ByteArrayOutputStream())) {
+			zout.putNextEntry(new ZipEntry("same.txt"));
+			zout.putNextEntry(new ZipEntry("same.txt"));
+		}
+	}
+	
+	private Map<String,byte[]> createContents() {
+		Random random = new Random(42l);
+		Map<String,byte[]> contents = new HashMap<>();
+		contents.put("empty.txt", new byte[0]);
+		contents.put("dir/", new byte[0]);
+		
+		StringBuilder sb = new StringBuilder();
+		for(int i=0; sb.length() < 3 * 1024 * 1024; i++) {
+			sb.append("Line ").append(i).append(" of a text compressed in many chunks\n");
+		}
+		contents.put("dir/text.txt", sb.toString().getBytes(StandardCharsets.UTF_8));
+		
+		byte[] media = new byte[(2 * 1024 * 1024) + 17];
+		random.nextBytes(media);
+		contents.put("dir/movie.mp4", media);
+		contents.put("R\u00E9sum\u00E9.txt", "Accents".getBytes(StandardCharsets.UTF_8));
+		return contents;
+	}
+	
+	private void write(ZipOutputStream zout, Map<String,byte[]> contents) throws IOException {
+		for(Map.Entry<String,byte[]> content:contents.entrySet()) {
+			zout.putNextEntry(new ZipEntry(content.getKey()));
+			byte[] data = content.getValue();
+			// write in uneven pieces to cross the chunks boundaries
+			for(int offset=0; offset < data.length; offset += 7919) {
+				zout.write(data, offset, Math.min(7919, data.length - offset));
+			}
+			zout.closeEntry();
+		}
+	}
+	
+	private void assertContents(Map<String,byte[]> expected, Map<String,byte[]> unzipped) {
+		Assert.assertEquals(expected.size(), unzipped.size());
+		for(Map.Entry<String,byte[]> content:expected.entrySet()) {
+			Assert.assertArrayEquals(content.getKey(), content.getValue(), unzipped.get(content.getKey()));
+		}
+	}
+}
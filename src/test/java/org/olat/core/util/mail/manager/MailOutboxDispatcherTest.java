@@ -0,0 +1,361 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.Address;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.WebappHelper;
+import org.olat.core.util.mail.MailManager;
+import org.olat.core.util.mail.MailerResult;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * The tests use a minimal SMTP server which counts the connections
+ * and the messages.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MailOutboxDispatcherTest extends OlatTestCase {
+	
+	private static final Logger log = Tracing.createLoggerFor(MailOutboxDispatcherTest.class);
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private MailManager mailManager;
+	@Autowired
+	private MailOutboxDAO outboxDao;
+	@Autowired
+	private SMTPTransportPool transportPool;
+	@Autowired
+	private MailOutboxDispatcher outboxDispatcher;
+	
+	private String mailport;
+	private SmtpStandIn smtpServer;
+	
+	@Before
+	public void startSmtpServer() throws IOException {
+		mailport = WebappHelper.getMailConfig("mailport");
+		smtpServer = new SmtpStandIn("rejected@openolat.org");
+		WebappHelper.setMailConfig("mailport", Integer.toString(smtpServer.getPort()));
+	}
+	
+	@After
+	public void stopSmtpServer() {
+		WebappHelper.setMailConfig("mailport", mailport);
+		smtpServer.close();
+	}
+	
+	@Test
+	public void enqueueAndDispatch() throws Exception {
+		List<MailOutboxEntry> entries = new ArrayList<>();
+		for(int i=0; i<3; i++) {
+			entries.add(outboxDispatcher.enqueue(createMessage("outbox-" + i + "@openolat.org")));
+		}
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(0, smtpServer.getMessages().size());
+		
+		int sent = outboxDispatcher.dispatch();
+		Assert.assertTrue(sent >= 3);
+		Assert.assertEquals(3, smtpServer.getMessages().size());
+		Assert.assertEquals(Collections.singletonList("outbox-0@openolat.org"), smtpServer.getMessages().get(0));
+		// all messages through the same connection
+		Assert.assertEquals(1, smtpServer.getConnections());
+		for(MailOutboxEntry entry:entries) {
+			Assert.assertNull(outboxDao.loadByKey(entry.getKey()));
+		}
+	}
+	
+	@Test
+	public void rejectedRecipient() throws Exception {
+		MailOutboxEntry entry = outboxDispatcher.enqueue(createMessage("valid@openolat.org", "rejected@openolat.org"));
+		dbInstance.commitAndCloseSession();
+		
+		outboxDispatcher.dispatch();
+		Assert.assertEquals(1, smtpServer.getMessages().size());
+		Assert.assertEquals(Collections.singletonList("valid@openolat.org"), smtpServer.getMessages().get(0));
+		Assert.assertNull(outboxDao.loadByKey(entry.getKey()));
+	}
+	
+	@Test
+	public void invalidRecipientOnEnqueue() throws Exception {
+		MimeMessage msg = createMessage("valid-enqueue@openolat.org", "invalid-enqueue");
+		try {
+			outboxDispatcher.enqueue(msg);
+			Assert.fail("The invalid address must be reported");
+		} catch(SendFailedException e) {
+			Assert.assertEquals(1, e.getInvalidAddresses().length);
+			Assert.assertEquals("invalid-enqueue", e.getInvalidAddresses()[0].toString());
+			Assert.assertEquals(1, e.getValidSentAddresses().length);
+		}
+		dbInstance.commitAndCloseSession();
+		
+		outboxDispatcher.dispatch();
+		Assert.assertEquals(1, smtpServer.getMessages().size());
+		Assert.assertEquals(Collections.singletonList("valid-enqueue@openolat.org"), smtpServer.getMessages().get(0));
+	}
+	
+	@Test
+	public void deleteFailedEntries() throws Exception {
+		MailOutboxEntry entry = outboxDispatcher.enqueue(createMessage("failed@openolat.org"));
+		MailOutboxEntry pendingEntry = outboxDispatcher.enqueue(createMessage("pending@openolat.org"));
+		dbInstance.commit();
+		entry.setStatus(MailOutboxStatus.failed);
+		entry = outboxDao.updateEntry(entry);
+		dbInstance.commitAndCloseSession();
+		
+		int deleted = outboxDao.deleteFailedEntries(new Date(System.currentTimeMillis() + 60000l));
+		dbInstance.commitAndCloseSession();
+		Assert.assertTrue(deleted >= 1);
+		Assert.assertNull(outboxDao.loadByKey(entry.getKey()));
+		Assert.assertNotNull(outboxDao.loadByKey(pendingEntry.getKey()));
+		
+		outboxDao.deleteEntry(pendingEntry.getKey());
+		dbInstance.commitAndCloseSession();
+	}
+	
+	@Test
+	public void retryUnavailableServer() throws Exception {
+		MailOutboxEntry entry = outboxDispatcher.enqueue(createMessage("retry@openolat.org"));
+		dbInstance.commitAndCloseSession();
+		
+		smtpServer.close();
+		Date now = new Date();
+		outboxDispatcher.dispatch();
+		
+		MailOutboxEntry retriedEntry = outboxDao.loadByKey(entry.getKey());
+		Assert.assertNotNull(retriedEntry);
+		Assert.assertEquals(MailOutboxStatus.pending, retriedEntry.getStatus());
+		Assert.assertEquals(1, retriedEntry.getAttempts());
+		Assert.assertTrue(retriedEntry.getNextAttempt().after(now));
+		Assert.assertNotNull(retriedEntry.getLastError());
+		
+		outboxDao.deleteEntry(entry.getKey());
+		dbInstance.commitAndCloseSession();
+	}
+	
+	@Test
+	public void retryDelay() {
+		Assert.assertEquals(60000l, outboxDispatcher.getRetryDelay(1));
+		Assert.assertEquals(120000l, outboxDispatcher.getRetryDelay(2));
+		Assert.assertEquals(3600000l, outboxDispatcher.getRetryDelay(9));
+	}
+	
+	/**
+	 * Compare the pooled connections with one connection per message.
+	 */
+	@Test
+	public void throughput() throws Exception {
+		int numOfMessages = 200;
+		List<MimeMessage> messages = new ArrayList<>(numOfMessages);
+		for(int i=0; i<numOfMessages; i++) {
+			messages.add(createMessage("throughput-" + i + "@openolat.org"));
+		}
+		
+		long start = System.nanoTime();
+		for(MimeMessage message:messages) {
+			Transport.send(message);
+		}
+		long singleDuration = (System.nanoTime() - start) / 1000000l;
+		int singleConnections = smtpServer.getConnections();
+		
+		smtpServer.reset();
+		start = System.nanoTime();
+		for(MimeMessage message:messages) {
+			transportPool.send(message, message.getAllRecipients());
+		}
+		long pooledDuration = (System.nanoTime() - start) / 1000000l;
+		int pooledConnections = smtpServer.getConnections();
+		
+		smtpServer.reset();
+		for(MimeMessage message:messages) {
+			outboxDispatcher.enqueue(message);
+		}
+		dbInstance.commitAndCloseSession();
+		start = System.nanoTime();
+		outboxDispatcher.dispatch();
+		long outboxDuration = (System.nanoTime() - start) / 1000000l;
+		
+		log.info("{} mails, one connection per mail: {}ms ({} connections)", numOfMessages, singleDuration, singleConnections);
+		log.info("{} mails, pooled connections: {}ms ({} connections)", numOfMessages, pooledDuration, pooledConnections);
+		log.info("{} mails, outbox: {}ms ({} connections)", numOfMessages, outboxDuration, smtpServer.getConnections());
+		
+		Assert.assertEquals(numOfMessages, singleConnections);
+		Assert.assertTrue(pooledConnections <= 2);
+		Assert.assertEquals(numOfMessages, smtpServer.getMessages().size());
+	}
+	
+	private MimeMessage createMessage(String... recipients) throws Exception {
+		Address from = new InternetAddress("sender@openolat.org");
+		Address[] tos = new Address[recipients.length];
+		for(int i=0; i<recipients.length; i++) {
+			tos[i] = new InternetAddress(recipients[i]);
+		}
+		MailerResult result = new MailerResult();
+		MimeMessage msg = mailManager.createMimeMessage(from, tos, null, null, "Outbox", "Hello outbox", null, result);
+		Assert.assertEquals(MailerResult.OK, result.getReturnCode());
+		msg.saveChanges();
+		return msg;
+	}
+	
+	/**
+	 * A SMTP server which accepts all messages except the rejected recipients.
+	 */
+	private static class SmtpStandIn implements Closeable {
+		
+		private final ServerSocket serverSocket;
+		private final Set<String> rejectedRecipients;
+		private final ExecutorService executor = Executors.newCachedThreadPool();
+		private final AtomicInteger connections = new AtomicInteger();
+		private final List<List<String>> messages = Collections.synchronizedList(new ArrayList<>());
+		
+		public SmtpStandIn(String... rejectedRecipients) throws IOException {
+			this.rejectedRecipients = new HashSet<>(Arrays.asList(rejectedRecipients));
+			serverSocket = new ServerSocket(0);
+			executor.execute(this::accept);
+		}
+		
+		public int getPort() {
+			return serverSocket.getLocalPort();
+		}
+		
+		public int getConnections() {
+			return connections.get();
+		}
+		
+		/**
+		 * @return The recipients of the received messages
+		 */
+		public List<List<String>> getMessages() {
+			return messages;
+		}
+		
+		public void reset() {
+			connections.set(0);
+			messages.clear();
+		}
+		
+		private void accept() {
+			try {
+				while(!serverSocket.isClosed()) {
+					Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					executor.execute(() -> handle(socket));
+				}
+			} catch (IOException e) {
+				// closed
+			}
+		}
+		
+		private void handle(Socket socket) {
+			try(Socket s = socket;
+					BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+					Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+				reply(out, "220 localhost SMTP stand-in");
+				List<String> recipients = new ArrayList<>();
+				for(String line=in.readLine(); line != null; line=in.readLine()) {
+					String command = line.length() > 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+					if("EHLO".equals(command) || "HELO".equals(command)) {
+						reply(out, "250 localhost");
+					} else if("MAIL".equals(command) || "RSET".equals(command)) {
+						recipients = new ArrayList<>();
+						reply(out, "250 OK");
+					} else if("RCPT".equals(command)) {
+						String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+						if(rejectedRecipients.contains(address)) {
+							reply(out, "550 No such user");
+						} else {
+							recipients.add(address);
+							reply(out, "250 OK");
+						}
+					} else if("DATA".equals(command)) {
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						for(String data=in.readLine(); data != null && !".".equals(data); data=in.readLine()) {
+							// read the message
+						}
+						messages.add(recipients);
+						reply(out, "250 OK");
+					} else if("NOOP".equals(command)) {
+						reply(out, "250 OK");
+					} else if("QUIT".equals(command)) {
+						reply(out, "221 Bye");
+						break;
+					} else {
+						reply(out, "502 Command not implemented");
+					}
+				}
+			} catch (IOException e) {
+				// connection closed
+			}
+		}
+		
+		private void reply(Writer out, String response) throws IOException {
+			out.write(response);
+			out.write("\r\n");
+			out.flush();
+		}
+
+		@Override
+		public void close() {
+			try {
+				serverSocket.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			executor.shutdownNow();
+		}
+	}
+}
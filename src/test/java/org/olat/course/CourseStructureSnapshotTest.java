@@ -0,0 +1,167 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.nodes.INode;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseStructureSnapshotTest {
+
+	private static final Logger log = Tracing.createLoggerFor(CourseStructureSnapshotTest.class);
+
+	private File directory;
+	private File xmlFile;
+
+	@Before
+	public void copyRunStructure() throws Exception {
+		directory = Files.createTempDirectory("snapshot").toFile();
+		xmlFile = new File(directory, PersistingCourseImpl.RUNSTRUCTURE_XML);
+		try(InputStream in = CourseStructureSnapshotTest.class.getResourceAsStream("runstructure_allinone.xml")) {
+			Files.copy(in, xmlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	@After
+	public void deleteDirectory() {
+		FileUtils.deleteDirsAndFiles(directory, true, true);
+	}
+
+	@Test
+	public void writeAndRead() {
+		Structure structure = readXml();
+		Assert.assertTrue(CourseStructureSnapshot.write(xmlFile, structure));
+		Assert.assertTrue(CourseStructureSnapshot.getSnapshotFile(xmlFile).exists());
+
+		Object snapshot = CourseStructureSnapshot.read(xmlFile);
+		Assert.assertTrue(snapshot instanceof Structure);
+		assertSameTree(structure.getRootNode(), ((Structure)snapshot).getRootNode());
+	}
+
+	@Test
+	public void readMissingSnapshot() {
+		Assert.assertNull(CourseStructureSnapshot.read(xmlFile));
+	}
+
+	@Test
+	public void readStaleSnapshot() throws Exception {
+		Structure structure = readXml();
+		Assert.assertTrue(CourseStructureSnapshot.write(xmlFile, structure));
+		// the XML was updated by someone else
+		Files.write(xmlFile.toPath(), new byte[] { ' ' }, StandardOpenOption.APPEND);
+		Assert.assertNull(CourseStructureSnapshot.read(xmlFile));
+	}
+
+	@Test
+	public void readOtherFormatVersion() throws Exception {
+		Assert.assertTrue(CourseStructureSnapshot.write(xmlFile, readXml()));
+		// overwrite the version of the format, after the magic number
+		try(RandomAccessFile raf = new RandomAccessFile(CourseStructureSnapshot.getSnapshotFile(xmlFile), "rw")) {
+			raf.seek(4);
+			raf.writeInt(1);
+		}
+		Assert.assertNull(CourseStructureSnapshot.read(xmlFile));
+	}
+
+	@Test
+	public void deleteSnapshot() {
+		Assert.assertTrue(CourseStructureSnapshot.write(xmlFile, readXml()));
+		CourseStructureSnapshot.deleteSnapshot(xmlFile);
+		Assert.assertFalse(CourseStructureSnapshot.getSnapshotFile(xmlFile).exists());
+	}
+
+	/**
+	 * Compare the load time and the allocations of the XML file and the
+	 * snapshot. The results are only logged.
+	 */
+	@Test
+	public void loadTimeAndAllocation() {
+		Assert.assertTrue(CourseStructureSnapshot.write(xmlFile, readXml()));
+
+		int rounds = 50;
+		for(int i=0; i<rounds; i++) {// warm up
+			readXml();
+			CourseStructureSnapshot.read(xmlFile);
+		}
+
+		long xmlBytes = allocatedBytes();
+		long xmlStart = System.nanoTime();
+		for(int i=0; i<rounds; i++) {
+			Assert.assertNotNull(readXml());
+		}
+		long xmlTime = System.nanoTime() - xmlStart;
+		xmlBytes = allocatedBytes() - xmlBytes;
+
+		long snapshotBytes = allocatedBytes();
+		long snapshotStart = System.nanoTime();
+		for(int i=0; i<rounds; i++) {
+			Assert.assertNotNull(CourseStructureSnapshot.read(xmlFile));
+		}
+		long snapshotTime = System.nanoTime() - snapshotStart;
+		snapshotBytes = allocatedBytes() - snapshotBytes;
+
+		log.info("Load run structure, XML: {}µs {}KB, snapshot: {}µs {}KB",
+				xmlTime / rounds / 1000, xmlBytes / rounds / 1024,
+				snapshotTime / rounds / 1000, snapshotBytes / rounds / 1024);
+	}
+
+	private Structure readXml() {
+		XStream xstream = CourseXStreamAliases.getReadCourseXStream();
+		return (Structure)xstream.fromXML(xmlFile);
+	}
+
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0l;
+	}
+
+	private void assertSameTree(INode expected, INode actual) {
+		Assert.assertEquals(expected.getIdent(), actual.getIdent());
+		Assert.assertEquals(expected.getChildCount(), actual.getChildCount());
+		for(int i=0; i<expected.getChildCount(); i++) {
+			assertSameTree(expected.getChildAt(i), actual.getChildAt(i));
+		}
+	}
+}
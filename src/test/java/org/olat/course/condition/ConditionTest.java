@@ -28,6 +28,7 @@ import org.olat.core.id.IdentityEnvironment;
 import org.olat.core.id.Roles;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
+import org.olat.course.condition.interpreter.ConditionExpressionCache;
 import org.olat.course.condition.interpreter.ConditionInterpreter;
 import org.olat.course.run.userview.UserCourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironmentImpl;
@@ -355,6 +356,26 @@ public class ConditionTest extends OlatTestCase {
 	}
 
 	
+	@Test
+	public void sharedExpressionBoundToUser() throws Exception {
+		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("junit_auth");
+		RepositoryEntry re = JunitTestHelper.deployDemoCourse(author);
+		ICourse course = CourseFactory.loadCourse(re);
+		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("cond-1");
+		Identity id2 = JunitTestHelper.createAndPersistIdentityAsRndUser("cond-2");
+		UserCourseEnvironment uce1 = new UserCourseEnvironmentImpl(new IdentityEnvironment(id1, Roles.userRoles()), course.getCourseEnvironment());
+		UserCourseEnvironment uce2 = new UserCourseEnvironmentImpl(new IdentityEnvironment(id2, Roles.userRoles()), course.getCourseEnvironment());
+		
+		String condition = "isInUserProperty(\"firstName\", \"cond-1\")";
+		ConditionExpressionCache cache = ConditionInterpreter.getExpressionCache();
+		long misses = cache.getMisses();
+		Assert.assertTrue(condition, uce1.getConditionInterpreter().evaluateCondition(condition));
+		Assert.assertFalse(condition, uce2.getConditionInterpreter().evaluateCondition(condition));
+		Assert.assertTrue(condition, uce1.getConditionInterpreter().evaluateCondition(condition));
+		// parsed only once
+		Assert.assertEquals(misses + 1, cache.getMisses());
+	}
+	
 	private UserCourseEnvironment getUserDemoCourseEnvironment() {
 		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("junit_auth");
 		Identity id = JunitTestHelper.createAndPersistIdentityAsUser("condition");
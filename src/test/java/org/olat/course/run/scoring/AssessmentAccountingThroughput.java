@@ -0,0 +1,179 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.run.scoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.id.IdentityEnvironment;
+import org.olat.core.logging.Tracing;
+import org.olat.course.CourseFactory;
+import org.olat.course.ICourse;
+import org.olat.course.Structure;
+import org.olat.course.learningpath.manager.LearningPathNodeAccessProvider;
+import org.olat.course.nodes.CourseNode;
+import org.olat.course.nodes.SPCourseNode;
+import org.olat.course.nodes.STCourseNode;
+import org.olat.course.run.environment.CourseEnvironment;
+import org.olat.course.run.userview.UserCourseEnvironmentImpl;
+import org.olat.modules.assessment.AssessmentEntry;
+import org.olat.modules.assessment.AssessmentService;
+import org.olat.modules.assessment.model.AssessmentEntryStatus;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryEntryStatusEnum;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Measure the incremental evaluation of a course with 400 course
+ * elements. The results are only logged, it is not part of the unit
+ * tests and must be started manually.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class AssessmentAccountingThroughput extends OlatTestCase {
+	
+	private static final Logger log = Tracing.createLoggerFor(AssessmentAccountingThroughput.class);
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private AssessmentService assessmentService;
+	
+	/**
+	 * Course (sequential) with 400 course elements
+	 *   - 20 ST (sequential or without sequence)
+	 *     - 19 SP
+	 * 
+	 * The incremental evaluations must give the same results as
+	 * the evaluation with a new accounting.
+	 */
+	@Test
+	public void testIncrementalEvaluationLargeCourse() {
+		// Create course
+		Identity author = JunitTestHelper.createAndPersistIdentityAsAuthor("author");
+		RepositoryEntry courseEntry = JunitTestHelper.deployEmptyCourse(author, "Large learning Path",
+				RepositoryEntryStatusEnum.published, true, false);
+		ICourse course = CourseFactory.loadCourse(courseEntry);
+		course.getCourseConfig().setNodeAccessType(LearningPathNodeAccessProvider.TYPE);
+		CourseEnvironment courseEnv = course.getCourseEnvironment();
+		
+		// Make the course runtime structure
+		Structure runStructure = courseEnv.getRunStructure();
+		STCourseNode root = (STCourseNode)runStructure.getRootNode();
+		root.getModuleConfiguration().setStringValue(STCourseNode.CONFIG_LP_SEQUENCE_KEY,
+				STCourseNode.CONFIG_LP_SEQUENCE_VALUE_WITHOUT);
+		List<CourseNode> courseNodes = new ArrayList<>();
+		List<SPCourseNode> spNodes = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			STCourseNode st = new STCourseNode();
+			st.getModuleConfiguration().setStringValue(STCourseNode.CONFIG_LP_SEQUENCE_KEY, i % 2 == 0
+					? STCourseNode.CONFIG_LP_SEQUENCE_VALUE_SEQUENTIAL
+					: STCourseNode.CONFIG_LP_SEQUENCE_VALUE_WITHOUT);
+			root.addChild(st);
+			courseNodes.add(st);
+			for (int j = 0; j < 19; j++) {
+				SPCourseNode sp = new SPCourseNode();
+				st.addChild(sp);
+				courseNodes.add(sp);
+				spNodes.add(sp);
+			}
+		}
+		courseNodes.add(root);
+		
+		// Add a participant to the course
+		Identity participant = JunitTestHelper.createAndPersistIdentityAsUser("participant");
+		IdentityEnvironment identityEnv = new IdentityEnvironment();
+		identityEnv.setIdentity(participant);
+		UserCourseEnvironmentImpl userCourseEnv = new UserCourseEnvironmentImpl(identityEnv, courseEnv);
+		userCourseEnv.setUserRoles(false, false, true);
+		dbInstance.commitAndCloseSession();
+		
+		// First evaluation, create all the assessment entries
+		long start = System.nanoTime();
+		ScoreAccounting scoreAccounting = userCourseEnv.getScoreAccounting();
+		scoreAccounting.evaluateAll(true);
+		dbInstance.commitAndCloseSession();
+		long firstEvaluation = System.nanoTime() - start;
+		
+		// Evaluation without changes
+		start = System.nanoTime();
+		scoreAccounting.evaluateAll(true);
+		dbInstance.commitAndCloseSession();
+		long unchangedEvaluation = System.nanoTime() - start;
+		
+		// The participant executes some course elements
+		setDone(participant, courseEntry, spNodes.get(0));
+		setDone(participant, courseEntry, spNodes.get(19 * 4 + 1));
+		setDone(participant, courseEntry, spNodes.get(19 * 5 + 3));
+		start = System.nanoTime();
+		scoreAccounting.evaluateAll(true);
+		dbInstance.commitAndCloseSession();
+		long changedEvaluation = System.nanoTime() - start;
+		
+		log.info("Evaluation of 400 course elements (ms), first: {}, unchanged: {}, changed: {}",
+				TimeUnit.NANOSECONDS.toMillis(firstEvaluation), TimeUnit.NANOSECONDS.toMillis(unchangedEvaluation),
+				TimeUnit.NANOSECONDS.toMillis(changedEvaluation));
+		
+		// Compare with a new accounting
+		UserCourseEnvironmentImpl referenceUserCourseEnv = new UserCourseEnvironmentImpl(identityEnv, courseEnv);
+		referenceUserCourseEnv.setUserRoles(false, false, true);
+		ScoreAccounting referenceScoreAccounting = referenceUserCourseEnv.getScoreAccounting();
+		referenceScoreAccounting.evaluateAll(true);
+		dbInstance.commitAndCloseSession();
+		
+		SoftAssertions softly = new SoftAssertions();
+		for (CourseNode courseNode : courseNodes) {
+			AssessmentEvaluation evaluation = scoreAccounting.evalCourseNode(courseNode);
+			AssessmentEvaluation referenceEvaluation = referenceScoreAccounting.evalCourseNode(courseNode);
+			softly.assertThat(evaluation.getAssessmentStatus()).as("status " + courseNode.getIdent())
+				.isEqualTo(referenceEvaluation.getAssessmentStatus());
+			softly.assertThat(evaluation.getFullyAssessed()).as("fully assessed " + courseNode.getIdent())
+				.isEqualTo(referenceEvaluation.getFullyAssessed());
+			softly.assertThat(evaluation.getCompletion()).as("completion " + courseNode.getIdent())
+				.isEqualTo(referenceEvaluation.getCompletion());
+		}
+		softly.assertThat(scoreAccounting.evalCourseNode(spNodes.get(0)).getAssessmentStatus())
+			.isEqualTo(AssessmentEntryStatus.done);
+		softly.assertThat(scoreAccounting.evalCourseNode(spNodes.get(1)).getAssessmentStatus())
+			.isEqualTo(AssessmentEntryStatus.notStarted);
+		softly.assertThat(scoreAccounting.evalCourseNode(spNodes.get(2)).getAssessmentStatus())
+			.isEqualTo(AssessmentEntryStatus.notReady);
+		softly.assertAll();
+	}
+
+	private void setDone(Identity identity, RepositoryEntry entry, SPCourseNode courseNode) {
+		AssessmentEntry assessmentEntry = assessmentService.loadAssessmentEntry(identity, entry, courseNode.getIdent());
+		assessmentEntry.setFullyAssessed(Boolean.TRUE);
+		assessmentEntry.setAssessmentStatus(AssessmentEntryStatus.done);
+		assessmentService.updateAssessmentEntry(assessmentEntry);
+		dbInstance.commitAndCloseSession();
+	}
+
+}
@@ -0,0 +1,95 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.run.scoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.Test;
+import org.olat.course.nodes.st.assessment.SequentialBlocker;
+import org.olat.course.nodes.st.assessment.WithoutSequenceBlocker;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class RecordingBlockerTest {
+	
+	@Test
+	public void shouldRecordInitialState() {
+		Date startDate = new Date();
+		Blocker blocker = new SequentialBlocker();
+		blocker.block(startDate);
+		
+		RecordingBlocker recordingBlocker = new RecordingBlocker(blocker);
+		
+		assertThat(recordingBlocker.isInitialBlocked()).isTrue();
+		assertThat(recordingBlocker.getInitialStartDate()).isEqualTo(startDate);
+		assertThat(recordingBlocker.getCalls()).isEmpty();
+	}
+	
+	@Test
+	public void shouldReplayCalls() {
+		Date startDate = new Date();
+		Blocker blocker = new SequentialBlocker();
+		RecordingBlocker recordingBlocker = new RecordingBlocker(blocker);
+		recordingBlocker.nextCourseNode();
+		recordingBlocker.blockNoPassThrough();
+		recordingBlocker.nextCourseNode();
+		recordingBlocker.block(startDate);
+		
+		Blocker otherBlocker = new SequentialBlocker();
+		recordingBlocker.getCalls().forEach(call -> call.accept(otherBlocker));
+		
+		assertThat(otherBlocker.isBlocked()).isEqualTo(blocker.isBlocked()).isTrue();
+		assertThat(otherBlocker.getStartDate()).isEqualTo(blocker.getStartDate()).isEqualTo(startDate);
+	}
+	
+	@Test
+	public void shouldReplayNoPassThrough() {
+		Blocker blocker = new SequentialBlocker();
+		RecordingBlocker recordingBlocker = new RecordingBlocker(blocker);
+		recordingBlocker.blockNoPassThrough();
+		
+		Blocker otherBlocker = new SequentialBlocker();
+		recordingBlocker.getCalls().forEach(call -> call.accept(otherBlocker));
+		assertThat(otherBlocker.isBlocked()).isTrue();
+		
+		otherBlocker.nextCourseNode();
+		assertThat(otherBlocker.isBlocked()).isFalse();
+	}
+	
+	@Test
+	public void shouldCompareState() {
+		Date startDate = new Date();
+		Blocker parent = new SequentialBlocker();
+		parent.block(startDate);
+		Blocker blocker = new WithoutSequenceBlocker(parent);
+		
+		assertThat(RecordingBlocker.isSameState(blocker, true, new Date(startDate.getTime()))).isTrue();
+		assertThat(RecordingBlocker.isSameState(blocker, false, startDate)).isFalse();
+		assertThat(RecordingBlocker.isSameState(blocker, true, null)).isFalse();
+		assertThat(RecordingBlocker.isSameState(new SequentialBlocker(), false, null)).isTrue();
+	}
+
+}
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
+import org.junit.Before;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.logging.activity.LoggingObject;
 import org.olat.core.util.CodeHelper;
@@ -52,6 +53,14 @@ abstract class AbstractStatisticUpdateManagerTest extends OlatTestCase {
 	protected DB dbInstance;
 	@Autowired
 	protected StatisticUpdateManager statisticUpdateManager;
+	@Autowired
+	protected StreamingStatisticUpdater streamingStatisticUpdater;
+	
+	@Before
+	public void noLag() {
+		// the tests count the logs of the last seconds
+		streamingStatisticUpdater.setLag(0);
+	}
 	
 	protected void cleanUpLog() {
 		String deleteLogQuery = "delete from " + LoggingObject.class.getName() + " log";
@@ -73,6 +82,13 @@ abstract class AbstractStatisticUpdateManagerTest extends OlatTestCase {
 		dbInstance.getCurrentEntityManager()
 			.createQuery("delete from hourofdaystat log")
 			.executeUpdate();
+		
+		PropertyManager pm = PropertyManager.getInstance();
+		Property cursor = pm.findProperty(null, null, null, StreamingStatisticUpdater.STATISTICS_PROPERTIES_CATEGORY,
+				StreamingStatisticUpdater.LOG_CURSOR_PROPERTY_NAME);
+		if(cursor != null) {
+			pm.deleteProperty(cursor);
+		}
 
 		dbInstance.commitAndCloseSession();
 	}
@@ -0,0 +1,124 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.statistic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.junit.Test;
+import org.olat.course.statistic.StatisticDelta.StatisticKey;
+import org.olat.course.statistic.StatisticDelta.Week;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class StatisticDeltaTest {
+	
+	@Test
+	public void getResId() {
+		assertThat(StatisticDelta.getResId("[RepositoryEntry:2345][CourseNode:9876]")).isEqualTo(2345l);
+		assertThat(StatisticDelta.getResId("[RepositoryEntry:0]")).isEqualTo(0l);
+		assertThat(StatisticDelta.getResId("")).isNull();
+		assertThat(StatisticDelta.getResId(null)).isNull();
+		assertThat(StatisticDelta.getResId("[RepositoryEntry:]")).isNull();
+		assertThat(StatisticDelta.getResId("[RepositoryEntry:abc]")).isNull();
+	}
+	
+	@Test
+	public void aggregate() {
+		String path1 = "[RepositoryEntry:1][CourseNode:1]";
+		String path2 = "[RepositoryEntry:1][CourseNode:2]";
+		
+		StatisticDelta delta = new StatisticDelta(Week.MYSQL);
+		// Wednesday 14 oct. 2026
+		assertThat(delta.add(path1, date(2026, Calendar.OCTOBER, 14, 10, 5))).isTrue();
+		assertThat(delta.add(path1, date(2026, Calendar.OCTOBER, 14, 10, 55))).isTrue();
+		assertThat(delta.add(path1, date(2026, Calendar.OCTOBER, 14, 11, 5))).isTrue();
+		// Sunday 18 oct. 2026
+		assertThat(delta.add(path1, date(2026, Calendar.OCTOBER, 18, 10, 5))).isTrue();
+		assertThat(delta.add(path2, date(2026, Calendar.OCTOBER, 18, 10, 5))).isTrue();
+		assertThat(delta.add("", date(2026, Calendar.OCTOBER, 18, 10, 5))).isFalse();
+		
+		Date day = date(2026, Calendar.OCTOBER, 14, 0, 0);
+		assertThat(delta.getDaily()).hasSize(3);
+		assertThat(delta.getDaily().get(new StatisticKey<>(path1, 1l, day)).get()).isEqualTo(3);
+		assertThat(delta.getWeekly()).hasSize(2);
+		assertThat(delta.getWeekly().get(new StatisticKey<>(path1, 1l, "2026-42")).get()).isEqualTo(4);
+		assertThat(delta.getDayOfWeek()).hasSize(3);
+		assertThat(delta.getDayOfWeek().get(new StatisticKey<>(path1, 1l, Integer.valueOf(Calendar.WEDNESDAY))).get()).isEqualTo(3);
+		assertThat(delta.getDayOfWeek().get(new StatisticKey<>(path1, 1l, Integer.valueOf(1))).get()).isEqualTo(1);
+		assertThat(delta.getHourOfDay()).hasSize(3);
+		assertThat(delta.getHourOfDay().get(new StatisticKey<>(path1, 1l, Integer.valueOf(10))).get()).isEqualTo(3);
+		assertThat(delta.size()).isEqualTo(11);
+		
+		delta.clear();
+		assertThat(delta.isEmpty()).isTrue();
+		assertThat(delta.size()).isZero();
+	}
+	
+	@Test
+	public void mysqlWeeks() {
+		String path = "[RepositoryEntry:3][CourseNode:1]";
+		StatisticDelta delta = new StatisticDelta(Week.MYSQL);
+		// Friday 1 jan. 2027 is in the ISO week 53, counted in 2027
+		delta.add(path, date(2027, Calendar.JANUARY, 1, 8, 0));
+		// Monday 4 jan. 2027 is in the first ISO week of 2027
+		delta.add(path, date(2027, Calendar.JANUARY, 4, 8, 0));
+		// Monday 29 dec. 2025 is in the first ISO week, counted in 2025
+		delta.add(path, date(2025, Calendar.DECEMBER, 29, 8, 0));
+		// Wednesday 14 oct. 2026
+		delta.add(path, date(2026, Calendar.OCTOBER, 14, 8, 0));
+		
+		assertThat(delta.getWeekly().keySet())
+			.extracting(StatisticKey::getBucket)
+			.containsExactlyInAnyOrder("2027-53", "2027-01", "2025-01", "2026-42");
+	}
+	
+	@Test
+	public void postgresqlWeeks() {
+		String path = "[RepositoryEntry:3][CourseNode:1]";
+		StatisticDelta delta = new StatisticDelta(Week.POSTGRESQL);
+		// the first week starts the 1st january
+		delta.add(path, date(2027, Calendar.JANUARY, 1, 8, 0));
+		delta.add(path, date(2027, Calendar.JANUARY, 7, 8, 0));
+		delta.add(path, date(2027, Calendar.JANUARY, 8, 8, 0));
+		// 31 dec. is the day 365 of 2025
+		delta.add(path, date(2025, Calendar.DECEMBER, 31, 8, 0));
+		// Wednesday 14 oct. 2026 is the day 287
+		delta.add(path, date(2026, Calendar.OCTOBER, 14, 8, 0));
+		
+		assertThat(delta.getWeekly().keySet())
+			.extracting(StatisticKey::getBucket)
+			.containsExactlyInAnyOrder("2027-01", "2027-02", "2025-53", "2026-41");
+		assertThat(delta.getWeekly().get(new StatisticKey<>(path, 3l, "2027-01")).get()).isEqualTo(2);
+	}
+	
+	private static Date date(int year, int month, int day, int hour, int minute) {
+		Calendar cal = Calendar.getInstance();
+		cal.clear();
+		cal.set(year, month, day, hour, minute, 0);
+		return cal.getTime();
+	}
+}
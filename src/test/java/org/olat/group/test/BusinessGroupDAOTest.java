@@ -132,6 +132,24 @@ public class BusinessGroupDAOTest extends OlatTestCase {
 		Assert.assertFalse(reloadedGroup.getAutoCloseRanksEnabled());
 	}
 
+	@Test
+	public void loadBusinessGroupKeys() {
+		BusinessGroup group1 = businessGroupDao.createAndPersist(null, "gdko-1", "gdko-desc", -1, -1, false, false, false, false, false);
+		BusinessGroup group2 = businessGroupDao.createAndPersist(null, "gdko-2", "gdko-desc", -1, -1, false, false, false, false, false);
+		dbInstance.commitAndCloseSession();
+
+		List<Long> keys = businessGroupDao.loadBusinessGroupKeys(group1.getKey(), null);
+		Assert.assertTrue(keys.contains(group1.getKey()));
+		Assert.assertTrue(keys.contains(group2.getKey()));
+		
+		List<Long> firstKeys = businessGroupDao.loadBusinessGroupKeys(group1.getKey(), group2.getKey());
+		Assert.assertTrue(firstKeys.contains(group1.getKey()));
+		Assert.assertFalse(firstKeys.contains(group2.getKey()));
+		
+		List<Long> allKeys = businessGroupDao.loadBusinessGroupKeys(null, null);
+		Assert.assertTrue(allKeys.containsAll(keys));
+	}
+
 	@Test
 	public void loadBusinessGroup() {
 		//create business group
@@ -0,0 +1,161 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import uk.ac.ed.ph.jqtiplus.xmlutils.XmlFactories;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class TestSessionStateJournalTest extends OlatTestCase {
+
+	private static final String NS = "http://www.ph.ed.ac.uk/qtiworks";
+
+	private File storage;
+
+	@Autowired
+	private TestSessionStateJournal journal;
+
+	@Before
+	public void createStorage() throws Exception {
+		storage = Files.createTempDirectory("journal").toFile();
+	}
+
+	@After
+	public void deleteStorage() {
+		FileUtils.deleteDirsAndFiles(storage, true, true);
+	}
+
+	@Test
+	public void appendAndLoad() throws Exception {
+		File journalFile = journal.getJournalFile(storage);
+		journal.append(createState("1", "a", "b"), journalFile);
+		journal.append(createState("2", "a", "c"), journalFile);
+		journal.append(createState("3", "d", "c"), journalFile);
+
+		Document loaded = journal.load(journalFile);
+		assertState(loaded, "3", "d", "c");
+	}
+
+	@Test
+	public void loadIncompleteRecord() throws Exception {
+		File journalFile = journal.getJournalFile(storage);
+		journal.append(createState("1", "a", "b"), journalFile);
+		journal.append(createState("2", "a", "c"), journalFile);
+		long length = journalFile.length();
+		journal.append(createState("3", "d", "c"), journalFile);
+
+		// simulate a crash in the middle of the last record
+		try(RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+			raf.setLength(length + 5);
+		}
+
+		Document loaded = journal.load(journalFile);
+		assertState(loaded, "2", "a", "c");
+	}
+
+	/**
+	 * The journal is written by an other node between two events, the
+	 * state remembered by this node must not be used to compute the delta.
+	 */
+	@Test
+	public void appendAfterExternalChange() throws Exception {
+		File journalFile = journal.getJournalFile(storage);
+		journal.append(createState("1", "a", "b"), journalFile);
+		
+		File otherStorage = Files.createTempDirectory("journal").toFile();
+		try {
+			File otherJournalFile = journal.getJournalFile(otherStorage);
+			journal.append(createState("2", "a", "c"), otherJournalFile);
+			Files.copy(otherJournalFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			FileUtils.deleteDirsAndFiles(otherStorage, true, true);
+		}
+		
+		journal.append(createState("3", "d", "b"), journalFile);
+		Document loaded = journal.load(journalFile);
+		assertState(loaded, "3", "d", "b");
+	}
+
+	@Test
+	public void deleteJournal() throws Exception {
+		File journalFile = journal.getJournalFile(storage);
+		journal.append(createState("1", "a", "b"), journalFile);
+		Assert.assertTrue(journalFile.exists());
+
+		journal.delete(journalFile);
+		Assert.assertFalse(journalFile.exists());
+		Assert.assertNull(journal.load(journalFile));
+	}
+
+	private void assertState(Document document, String duration, String item1Response, String item2Response) {
+		Assert.assertNotNull(document);
+		Element root = document.getDocumentElement();
+		Assert.assertEquals(NS, root.getNamespaceURI());
+		Assert.assertEquals(duration, root.getAttribute("durationAccumulated"));
+		
+		NodeList items = root.getElementsByTagNameNS(NS, "item");
+		Assert.assertEquals(2, items.getLength());
+		Assert.assertEquals("item-1", ((Element)items.item(0)).getAttribute("key"));
+		Assert.assertEquals(item1Response, items.item(0).getTextContent());
+		Assert.assertEquals("item-2", ((Element)items.item(1)).getAttribute("key"));
+		Assert.assertEquals(item2Response, items.item(1).getTextContent());
+	}
+
+	private Document createState(String duration, String item1Response, String item2Response) throws Exception {
+		Document document = XmlFactories.newDocumentBuilder().newDocument();
+		Element root = document.createElementNS(NS, "testSession");
+		root.setAttribute("durationAccumulated", duration);
+		document.appendChild(root);
+		root.appendChild(document.createElementNS(NS, "testPlan"));
+		root.appendChild(createItem(document, "item-1", item1Response));
+		root.appendChild(createItem(document, "item-2", item2Response));
+		return document;
+	}
+
+	private Element createItem(Document document, String key, String response) {
+		Element item = document.createElementNS(NS, "item");
+		item.setAttribute("key", key);
+		Element responseEl = document.createElementNS(NS, "responseVariable");
+		responseEl.setAttribute("identifier", "RESPONSE_1");
+		responseEl.setTextContent(response);
+		item.appendChild(responseEl);
+		return item;
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager.audit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.ims.qti21.model.audit.CandidateEvent;
+import org.olat.ims.qti21.model.audit.CandidateItemEventType;
+import org.olat.ims.qti21.model.audit.CandidateTestEventType;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class AssessmentSessionAuditFileLogTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(AssessmentSessionAuditFileLogTest.class);
+	
+	private static final int NUM_OF_CANDIDATES = 500;
+	private static final int NUM_OF_EVENTS = 40;
+	
+	private File storage;
+	
+	@Before
+	public void createStorage() throws Exception {
+		storage = Files.createTempDirectory("audit").toFile();
+	}
+
+	@After
+	public void deleteStorage() {
+		FileUtils.deleteDirsAndFiles(storage, true, true);
+	}
+	
+	@Test
+	public void bufferedLinesFlushedByFlusher() throws Exception {
+		AssessmentSessionAuditLogFlusher flusher = new AssessmentSessionAuditLogFlusher();
+		flusher.start(100);
+		try {
+			File file = new File(storage, "audit.log");
+			CountingOutputStream out = new CountingOutputStream(new FileOutputStream(file, true), new AtomicLong());
+			AssessmentSessionAuditFileLog auditLog = new AssessmentSessionAuditFileLog(out, flusher, 8192);
+			auditLog.logCandidateEvent(itemEvent());
+			auditLog.logCandidateEvent(itemEvent());
+			Assert.assertEquals(0, file.length());
+			Assert.assertEquals(1, flusher.getNumOfDirtyLogs());
+			
+			// the flusher writes the lines after its interval
+			waitForCondition(() -> file.length() > 0, 5000);
+			Assert.assertEquals(2, Files.readAllLines(file.toPath()).size());
+			Assert.assertEquals(1, out.getWrites().get());
+			Assert.assertEquals(0, flusher.getNumOfDirtyLogs());
+			auditLog.close();
+		} finally {
+			flusher.stop();
+		}
+	}
+	
+	@Test
+	public void suspendFlushes() throws Exception {
+		AssessmentSessionAuditLogFlusher flusher = new AssessmentSessionAuditLogFlusher();
+		File file = new File(storage, "audit.log");
+		AssessmentSessionAuditFileLog auditLog = new AssessmentSessionAuditFileLog(new FileOutputStream(file, true), flusher, 8192);
+		auditLog.logCandidateEvent(itemEvent());
+		Assert.assertEquals(0, file.length());
+		
+		CandidateEvent suspend = new CandidateEvent(null, null, null);
+		suspend.setTestEventType(CandidateTestEventType.SUSPEND);
+		auditLog.logCandidateEvent(suspend);
+		List<String> lines = Files.readAllLines(file.toPath());
+		Assert.assertEquals(2, lines.size());
+		Assert.assertTrue(lines.get(1).contains("SUSPEND"));
+		Assert.assertEquals(0, flusher.getNumOfDirtyLogs());
+		auditLog.close();
+	}
+	
+	@Test
+	public void sizeThresholdFlushes() throws Exception {
+		AssessmentSessionAuditLogFlusher flusher = new AssessmentSessionAuditLogFlusher();
+		File file = new File(storage, "audit.log");
+		AssessmentSessionAuditFileLog auditLog = new AssessmentSessionAuditFileLog(new FileOutputStream(file, true), flusher, 256);
+		for(int i=0; i<20 && file.length() == 0; i++) {
+			auditLog.logCandidateEvent(itemEvent());
+		}
+		Assert.assertTrue(file.length() >= 256);
+		auditLog.close();
+	}
+	
+	@Test
+	public void closeFlushes() throws Exception {
+		AssessmentSessionAuditLogFlusher flusher = new AssessmentSessionAuditLogFlusher();
+		File file = new File(storage, "audit.log");
+		AssessmentSessionAuditFileLog auditLog = new AssessmentSessionAuditFileLog(new FileOutputStream(file, true), flusher, 8192);
+		auditLog.logCandidateEvent(itemEvent());
+		auditLog.logCandidateEvent(itemEvent());
+		auditLog.logCandidateEvent(itemEvent());
+		auditLog.close();
+		Assert.assertEquals(3, Files.readAllLines(file.toPath()).size());
+		Assert.assertEquals(0, flusher.getNumOfDirtyLogs());
+	}
+	
+	/**
+	 * Simulate 500 candidates answering concurrently and compare the number
+	 * of write operations with and without buffer.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void loadConcurrentCandidates() throws Exception {
+		LoadResult unbuffered = simulateCandidates(null, "unbuffered");
+		
+		AssessmentSessionAuditLogFlusher flusher = new AssessmentSessionAuditLogFlusher();
+		flusher.start(1000);
+		LoadResult buffered;
+		try {
+			buffered = simulateCandidates(flusher, "buffered");
+		} finally {
+			flusher.stop();
+		}
+
+		log.info("Audit log unbuffered: {} writes in {}ms, {} write IOPS", unbuffered.writes, unbuffered.duration, unbuffered.iops());
+		log.info("Audit log buffered: {} writes in {}ms, {} write IOPS", buffered.writes, buffered.duration, buffered.iops());
+		// 40 lines per candidate, one write at the suspend
+		Assert.assertEquals(NUM_OF_CANDIDATES * (NUM_OF_EVENTS + 1), unbuffered.writes);
+		Assert.assertTrue(buffered.writes <= NUM_OF_CANDIDATES * 4);
+	}
+	
+	private LoadResult simulateCandidates(AssessmentSessionAuditLogFlusher flusher, String name) throws Exception {
+		AtomicLong writes = new AtomicLong();
+		File dir = new File(storage, name);
+		dir.mkdirs();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(NUM_OF_CANDIDATES);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(NUM_OF_CANDIDATES);
+		for(int i=0; i<NUM_OF_CANDIDATES; i++) {
+			File file = new File(dir, "audit_" + i + ".log");
+			executor.execute(() -> {
+				try(OutputStream out = new CountingOutputStream(new FileOutputStream(file, true), writes);
+						AssessmentSessionAuditFileLog auditLog = new AssessmentSessionAuditFileLog(out, flusher, 8192)) {
+					start.await();
+					for(int j=0; j<NUM_OF_EVENTS; j++) {
+						auditLog.logCandidateEvent(itemEvent());
+					}
+					CandidateEvent suspend = new CandidateEvent(null, null, null);
+					suspend.setTestEventType(CandidateTestEventType.SUSPEND);
+					auditLog.logCandidateEvent(suspend);
+				} catch(Exception e) {
+					log.error("", e);
+				} finally {
+					finished.countDown();
+				}
+			});
+		}
+		
+		long startTime = System.nanoTime();
+		start.countDown();
+		finished.await(120, TimeUnit.SECONDS);
+		long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		executor.shutdown();
+		
+		for(int i=0; i<NUM_OF_CANDIDATES; i++) {
+			File file = new File(dir, "audit_" + i + ".log");
+			Assert.assertEquals(NUM_OF_EVENTS + 1, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+		}
+		return new LoadResult(writes.get(), duration);
+	}
+	
+	private static CandidateEvent itemEvent() {
+		CandidateEvent event = new CandidateEvent(null, null, null);
+		event.setTestEventType(CandidateTestEventType.ITEM_EVENT);
+		event.setItemEventType(CandidateItemEventType.ATTEMPT_VALID);
+		event.setTestItemKey("item-1");
+		return event;
+	}
+	
+	private static void waitForCondition(BooleanSupplier condition, long timeout)
+	throws InterruptedException {
+		long end = System.currentTimeMillis() + timeout;
+		while(!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+			Thread.sleep(50);
+		}
+	}
+	
+	private static class LoadResult {
+		private final long writes;
+		private final long duration;
+		
+		public LoadResult(long writes, long duration) {
+			this.writes = writes;
+			this.duration = duration;
+		}
+		
+		public long iops() {
+			return duration <= 0 ? writes : (writes * 1000) / duration;
+		}
+	}
+	
+	private static class CountingOutputStream extends FilterOutputStream {
+		
+		private final AtomicLong writes;
+		
+		public CountingOutputStream(OutputStream out, AtomicLong writes) {
+			super(out);
+			this.writes = writes;
+		}
+		
+		public AtomicLong getWrites() {
+			return writes;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			writes.incrementAndGet();
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			writes.incrementAndGet();
+			out.write(b);
+		}
+	}
+}
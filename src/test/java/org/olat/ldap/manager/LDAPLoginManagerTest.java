@@ -132,6 +132,8 @@ public class LDAPLoginManagerTest extends OlatRestTestCase {
 		syncConfiguration.setGroupCoachAsParticipant("false");
 		syncConfiguration.setAuthorRoleAttribute(null);
 		syncConfiguration.setAuthorRoleValue(null);
+		// full synchronizations, the test server doesn't have the timestamps of Active Directory
+		ldapLoginModule.setLdapSyncFullInterval(0);
 		
 		securityModule.setIdentityName("auto");
 	}
@@ -762,6 +764,57 @@ public class LDAPLoginManagerTest extends OlatRestTestCase {
 		Assert.assertNotNull(validLdapAuthentication);
 	}
 	
+	/**
+	 * The second synchronization only loads the users changed after the first one.
+	 * The changes made in OpenOLAT to the other users are not overwritten.
+	 */
+	@Test
+	public void syncChangesOnly() throws Exception {
+		Assume.assumeTrue(ldapLoginModule.isLDAPEnabled());
+		
+		String createdAttribute = syncConfiguration.getLdapUserCreatedTimestampAttribute();
+		String lastModifiedAttribute = syncConfiguration.getLdapUserLastModifiedTimestampAttribute();
+		int margin = ldapLoginModule.getLdapSyncDeltaMargin();
+		try {
+			syncConfiguration.setLdapUserCreatedTimestampAttribute("createTimestamp");
+			syncConfiguration.setLdapUserLastModifiedTimestampAttribute("modifyTimestamp");
+			ldapLoginModule.setLdapSyncFullInterval(24);
+			ldapLoginModule.setLdapSyncDeltaMargin(0);
+			// the timestamps of the LDAP server have a precision of one second
+			Thread.sleep(1100);
+			
+			// full synchronization, the settings changed
+			LDAPError errors = new LDAPError();
+			boolean allOk = ldapManager.doBatchSync(errors);
+			Assert.assertTrue(allOk);
+			
+			// change a user in OpenOLAT
+			Identity localIdentity = userManager.findUniqueIdentityByEmail("hhuerlimann@openolat.com");
+			localIdentity.getUser().setProperty(UserConstants.LASTNAME, "Local");
+			userManager.updateUserFromIdentity(localIdentity);
+			dbInstance.commitAndCloseSession();
+			
+			// change an other user in LDAP
+			Thread.sleep(1100);
+			String dn = "uid=sramljak,ou=person,dc=olattest,dc=org";
+			Modification mod = new Modification(ModificationType.REPLACE, "sn", "Ramljak-Delta");
+			embeddedLdapRule.ldapConnection().modify(dn, mod);
+			
+			boolean deltaOk = ldapManager.doBatchSync(errors);
+			Assert.assertTrue(deltaOk);
+			Assert.assertTrue(errors.isEmpty());
+			
+			Identity changedIdentity = userManager.findUniqueIdentityByEmail("sramljak@openolat.com");
+			Assert.assertEquals("Ramljak-Delta", changedIdentity.getUser().getLastName());
+			Identity unchangedIdentity = userManager.findUniqueIdentityByEmail("hhuerlimann@openolat.com");
+			Assert.assertEquals("Local", unchangedIdentity.getUser().getLastName());
+		} finally {
+			syncConfiguration.setLdapUserCreatedTimestampAttribute(createdAttribute);
+			syncConfiguration.setLdapUserLastModifiedTimestampAttribute(lastModifiedAttribute);
+			ldapLoginModule.setLdapSyncDeltaMargin(margin);
+		}
+	}
+	
 	@Test
 	public void findIdentityByLdapAuthentication() {
 		LDAPError ldapError = new LDAPError();
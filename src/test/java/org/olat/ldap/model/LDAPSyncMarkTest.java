@@ -0,0 +1,109 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ldap.model;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LDAPSyncMarkTest {
+	
+	private static final long HOUR = 60l * 60l * 1000l;
+	
+	@Test
+	public void toTextAndValueOf() {
+		Date lastSync = new Date(1760000000000l);
+		Date lastFullSync = new Date(1759990000000l);
+		LDAPSyncMark mark = new LDAPSyncMark(lastSync, lastFullSync, Long.valueOf(123456l), "CN=NTDS Settings|DC1", "abcdef");
+		
+		LDAPSyncMark reloadedMark = LDAPSyncMark.valueOf(mark.toText());
+		Assert.assertNotNull(reloadedMark);
+		Assert.assertEquals(lastSync, reloadedMark.getLastSync());
+		Assert.assertEquals(lastFullSync, reloadedMark.getLastFullSync());
+		Assert.assertEquals(Long.valueOf(123456l), reloadedMark.getUsn());
+		Assert.assertEquals("CN=NTDS Settings|DC1", reloadedMark.getServer());
+		Assert.assertEquals("abcdef", reloadedMark.getConfiguration());
+	}
+	
+	@Test
+	public void toTextAndValueOfWithoutUsn() {
+		Date lastSync = new Date(1760000000000l);
+		LDAPSyncMark mark = new LDAPSyncMark(lastSync, lastSync, null, null, "abcdef");
+		
+		LDAPSyncMark reloadedMark = LDAPSyncMark.valueOf(mark.toText());
+		Assert.assertNotNull(reloadedMark);
+		Assert.assertEquals(lastSync, reloadedMark.getLastSync());
+		Assert.assertNull(reloadedMark.getUsn());
+		Assert.assertNull(reloadedMark.getServer());
+	}
+	
+	@Test
+	public void valueOfInvalid() {
+		Assert.assertNull(LDAPSyncMark.valueOf(null));
+		Assert.assertNull(LDAPSyncMark.valueOf(""));
+		Assert.assertNull(LDAPSyncMark.valueOf("1760000000000|1760000000000"));
+		Assert.assertNull(LDAPSyncMark.valueOf("abc|1760000000000||abcdef|"));
+	}
+	
+	@Test
+	public void isDeltaPossible() {
+		Date now = new Date();
+		Date lastSync = new Date(now.getTime() - HOUR);
+		Date lastFullSync = new Date(now.getTime() - (10 * HOUR));
+		LDAPSyncMark mark = new LDAPSyncMark(lastSync, lastFullSync, null, null, "abcdef");
+		
+		Assert.assertTrue(mark.isDeltaPossible("abcdef", null, false, now, 24));
+		// the settings changed
+		Assert.assertFalse(mark.isDeltaPossible("ghijkl", null, false, now, 24));
+		// last full synchronization is too old
+		Assert.assertFalse(mark.isDeltaPossible("abcdef", null, false, now, 8));
+		// always full
+		Assert.assertFalse(mark.isDeltaPossible("abcdef", null, false, now, 0));
+		// no update sequence number
+		Assert.assertFalse(mark.isDeltaPossible("abcdef", "DC1", true, now, 24));
+	}
+	
+	@Test
+	public void isDeltaPossibleWithUsn() {
+		Date now = new Date();
+		Date lastSync = new Date(now.getTime() - HOUR);
+		LDAPSyncMark mark = new LDAPSyncMark(lastSync, lastSync, Long.valueOf(4567l), "DC1", "abcdef");
+		
+		Assert.assertTrue(mark.isDeltaPossible("abcdef", "DC1", true, now, 24));
+		// an other domain controller
+		Assert.assertFalse(mark.isDeltaPossible("abcdef", "DC2", true, now, 24));
+		Assert.assertFalse(mark.isDeltaPossible("abcdef", null, true, now, 24));
+	}
+	
+	@Test
+	public void getModifiedSince() {
+		Date lastSync = new Date(1760000000000l);
+		LDAPSyncMark mark = new LDAPSyncMark(lastSync, lastSync, null, null, "abcdef");
+		Assert.assertEquals(new Date(1760000000000l - 300000l), mark.getModifiedSince(300));
+		Assert.assertEquals(lastSync, mark.getModifiedSince(0));
+	}
+}
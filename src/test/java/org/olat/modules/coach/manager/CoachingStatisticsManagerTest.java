@@ -0,0 +1,273 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.coach.manager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.util.DateUtils;
+import org.olat.course.assessment.manager.EfficiencyStatementManager;
+import org.olat.group.BusinessGroup;
+import org.olat.group.BusinessGroupService;
+import org.olat.group.manager.BusinessGroupRelationDAO;
+import org.olat.modules.coach.model.CoachStatisticsState;
+import org.olat.modules.coach.model.CourseStatEntry;
+import org.olat.modules.coach.model.GroupStatEntry;
+import org.olat.modules.coach.model.StudentStatEntry;
+import org.olat.modules.coach.ui.UserListController;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryService;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.olat.user.UserManager;
+import org.olat.user.propertyhandlers.UserPropertyHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CoachingStatisticsManagerTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private CoachingDAO coachingDao;
+	@Autowired
+	private UserManager userManager;
+	@Autowired
+	private RepositoryService repositoryService;
+	@Autowired
+	private EfficiencyStatementManager effManager;
+	@Autowired
+	private BusinessGroupService businessGroupService;
+	@Autowired
+	private BusinessGroupRelationDAO businessGroupRelationDao;
+	@Autowired
+	private CoachingStatisticsDAO coachingStatisticsDao;
+	@Autowired
+	private CoachingStatisticsManager coachingStatisticsManager;
+	
+	@Test
+	public void materializeStatistics() {
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-coach-1");
+		Identity participant1 = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-part-1");
+		Identity participant2 = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-part-2");
+		RepositoryEntry re = JunitTestHelper.deployBasicCourse(coach);
+		repositoryService.addRole(coach, re, GroupRoles.coach.name());
+		repositoryService.addRole(participant1, re, GroupRoles.participant.name());
+		repositoryService.addRole(participant2, re, GroupRoles.participant.name());
+		BusinessGroup group = businessGroupService.createBusinessGroup(coach, "Stats-grp-1", "tg", null, null, false, false, re);
+		businessGroupRelationDao.addRole(participant1, group, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		effManager.createUserEfficiencyStatement(new Date(), 6.0f, true, participant1, re.getOlatResource());
+		effManager.createUserEfficiencyStatement(new Date(), 2.0f, false, participant2, re.getOlatResource());
+		dbInstance.commitAndCloseSession();
+		
+		// first visit calculates the statistics and registers the coach
+		List<CourseStatEntry> nativeCourses = coachingStatisticsManager.getCoursesStatistics(coach);
+		Assert.assertEquals(1, nativeCourses.size());
+		dbInstance.commitAndCloseSession();
+		
+		CoachStatisticsState state = coachingStatisticsDao.loadState(coach);
+		Assert.assertNotNull(state);
+		Assert.assertTrue(state.isDirty());
+		Assert.assertNull(state.getRefreshed());
+		
+		coachingStatisticsManager.refreshStatistics(coach);
+		dbInstance.commitAndCloseSession();
+		
+		state = coachingStatisticsDao.loadState(coach);
+		Assert.assertFalse(state.isDirty());
+		Assert.assertNotNull(state.getRefreshed());
+		
+		// courses
+		List<CourseStatEntry> courses = coachingStatisticsManager.getCoursesStatistics(coach);
+		Assert.assertEquals(1, courses.size());
+		CourseStatEntry course = courses.get(0);
+		CourseStatEntry nativeCourse = nativeCourses.get(0);
+		Assert.assertEquals(re.getKey(), course.getRepoKey());
+		Assert.assertEquals(re.getDisplayname(), course.getRepoDisplayName());
+		Assert.assertEquals(2, course.getCountStudents());
+		Assert.assertEquals(1, course.getCountPassed());
+		Assert.assertEquals(1, course.getCountFailed());
+		Assert.assertEquals(nativeCourse.getCountNotAttempted(), course.getCountNotAttempted());
+		Assert.assertEquals(nativeCourse.getAverageScore(), course.getAverageScore());
+		Assert.assertEquals(nativeCourse.getInitialLaunch(), course.getInitialLaunch());
+		
+		// groups
+		List<GroupStatEntry> nativeGroups = coachingDao.getGroupsStatisticsNative(coach);
+		List<GroupStatEntry> groups = coachingStatisticsManager.getGroupsStatistics(coach);
+		Assert.assertEquals(nativeGroups.size(), groups.size());
+		Assert.assertEquals(1, groups.size());
+		Assert.assertEquals(group.getKey(), groups.get(0).getGroupKey());
+		Assert.assertEquals("Stats-grp-1", groups.get(0).getGroupName());
+		Assert.assertEquals(nativeGroups.get(0).getCountStudents(), groups.get(0).getCountStudents());
+		Assert.assertEquals(nativeGroups.get(0).getCountPassed(), groups.get(0).getCountPassed());
+		
+		// students with their user properties
+		List<UserPropertyHandler> userPropertyHandlers = userManager.getUserPropertyHandlersFor(UserListController.usageIdentifyer, false);
+		List<StudentStatEntry> students = coachingStatisticsManager.getStudentsStatistics(coach, userPropertyHandlers, Locale.ENGLISH);
+		Assert.assertEquals(2, students.size());
+		for(StudentStatEntry student:students) {
+			Assert.assertEquals(1, student.getCountRepo());
+			if(student.getIdentityKey().equals(participant1.getKey())) {
+				Assert.assertEquals(1, student.getCountPassed());
+				Assert.assertEquals(userPropertyHandlers.size(), student.getIdentityProps().length);
+			} else {
+				Assert.assertEquals(participant2.getKey(), student.getIdentityKey());
+				Assert.assertEquals(1, student.getCountFailed());
+			}
+		}
+	}
+	
+	@Test
+	public void markDirtyChangedCourses() {
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-coach-2");
+		Identity participant = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-part-3");
+		RepositoryEntry re = JunitTestHelper.deployBasicCourse(coach);
+		repositoryService.addRole(coach, re, GroupRoles.coach.name());
+		dbInstance.commitAndCloseSession();
+		
+		coachingStatisticsDao.createState(coach);
+		dbInstance.commitAndCloseSession();
+		coachingStatisticsManager.refreshStatistics(coach);
+		dbInstance.commitAndCloseSession();
+		Assert.assertFalse(coachingStatisticsDao.loadState(coach).isDirty());
+		Assert.assertTrue(coachingStatisticsManager.getCoursesStatistics(coach).isEmpty());
+		
+		// a new participant changes the statistics of the coach
+		Date since = DateUtils.addMinutes(new Date(), -1);
+		repositoryService.addRole(participant, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		Set<Long> entryKeys = coachingStatisticsDao.getChangedRepositoryEntryKeys(since);
+		Assert.assertTrue(entryKeys.contains(re.getKey()));
+		Set<Long> coachKeys = coachingStatisticsDao.getCoachAndOwnerKeys(entryKeys);
+		Assert.assertTrue(coachKeys.contains(coach.getKey()));
+		
+		int dirty = coachingStatisticsDao.markDirty(Collections.singletonList(coach.getKey()));
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(1, dirty);
+		Assert.assertTrue(coachingStatisticsDao.loadState(coach).isDirty());
+		Assert.assertTrue(coachingStatisticsDao.getDirtyCoachKeys(100000).contains(coach.getKey()));
+		
+		coachingStatisticsManager.refreshStatistics(coach);
+		dbInstance.commitAndCloseSession();
+		
+		List<CourseStatEntry> courses = coachingStatisticsManager.getCoursesStatistics(coach);
+		Assert.assertEquals(1, courses.size());
+		Assert.assertEquals(1, courses.get(0).getCountStudents());
+		Assert.assertEquals(1, courses.get(0).getCountNotAttempted());
+	}
+	
+	@Test
+	public void reconcileStatistics() {
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-coach-3");
+		CoachStatisticsState state = coachingStatisticsDao.createState(coach);
+		state.setDirty(false);
+		coachingStatisticsDao.updateState(state);
+		dbInstance.commitAndCloseSession();
+		
+		coachingStatisticsManager.reconcileStatistics();
+		
+		Assert.assertTrue(coachingStatisticsDao.loadState(coach).isDirty());
+	}
+	
+	@Test
+	public void reconcileStatisticsRecentlyRefreshed() {
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-coach-4");
+		coachingStatisticsDao.createState(coach);
+		dbInstance.commitAndCloseSession();
+		coachingStatisticsManager.refreshStatistics(coach);
+		dbInstance.commitAndCloseSession();
+		
+		coachingStatisticsManager.reconcileStatistics();
+		
+		Assert.assertFalse(coachingStatisticsDao.loadState(coach).isDirty());
+	}
+	
+	@Test
+	public void removedMembershipHidesStatistics() {
+		Identity owner = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-owner-6");
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-coach-6");
+		Identity participant = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-part-6");
+		RepositoryEntry re = JunitTestHelper.deployBasicCourse(owner);
+		repositoryService.addRole(coach, re, GroupRoles.coach.name());
+		repositoryService.addRole(participant, re, GroupRoles.participant.name());
+		coachingStatisticsDao.createState(coach);
+		dbInstance.commitAndCloseSession();
+		coachingStatisticsManager.refreshStatistics(coach);
+		dbInstance.commitAndCloseSession();
+		
+		List<UserPropertyHandler> userPropertyHandlers = userManager.getUserPropertyHandlersFor(UserListController.usageIdentifyer, false);
+		Assert.assertEquals(1, coachingStatisticsManager.getCoursesStatistics(coach).size());
+		Assert.assertEquals(1, coachingStatisticsManager.getStudentsStatistics(coach, userPropertyHandlers, Locale.ENGLISH).size());
+		dbInstance.commitAndCloseSession();
+		
+		// the coach is removed, the materialized rows are not visible anymore
+		repositoryService.removeRole(coach, re, GroupRoles.coach.name());
+		dbInstance.commitAndCloseSession();
+		
+		Assert.assertTrue(coachingStatisticsManager.getCoursesStatistics(coach).isEmpty());
+		Assert.assertTrue(coachingStatisticsManager.getStudentsStatistics(coach, userPropertyHandlers, Locale.ENGLISH).isEmpty());
+		dbInstance.commitAndCloseSession();
+		Assert.assertTrue(coachingStatisticsDao.loadState(coach).isDirty());
+	}
+	
+	@Test
+	public void mergeCoursesStatistics() {
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("stats-coach-5");
+		CourseStatEntry entry1 = new CourseStatEntry();
+		entry1.setRepoKey(Long.valueOf(-1l));
+		entry1.setCountStudents(3);
+		CourseStatEntry entry2 = new CourseStatEntry();
+		entry2.setRepoKey(Long.valueOf(-2l));
+		entry2.setCountStudents(4);
+		int rows = coachingStatisticsDao.mergeCoursesStatistics(coach, List.of(entry1, entry2));
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(2, rows);
+		
+		// nothing changed
+		rows = coachingStatisticsDao.mergeCoursesStatistics(coach, List.of(entry1, entry2));
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(0, rows);
+		
+		// one changed, one removed
+		entry1.setCountStudents(5);
+		rows = coachingStatisticsDao.mergeCoursesStatistics(coach, List.of(entry1));
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(2, rows);
+		
+		coachingStatisticsDao.deleteStatistics(coach);
+		dbInstance.commitAndCloseSession();
+	}
+}
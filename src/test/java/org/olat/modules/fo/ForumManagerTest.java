@@ -181,6 +181,57 @@ public class ForumManagerTest extends OlatTestCase {
 		
 		Assert.assertNotNull(forumThread1);
 		Assert.assertNotNull(forumThread2);
+		Assert.assertEquals(2, forumThread1.getNumOfPosts());
+		Assert.assertEquals(2, forumThread1.getNewMessages());
+		Assert.assertEquals(1, forumThread2.getNumOfPosts());
+		Assert.assertEquals(1, forumThread2.getNewMessages());
+	}
+	
+	@Test
+	public void getForumThreads_readAndDeleted() {
+		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("fo-1");
+		Identity id2 = JunitTestHelper.createAndPersistIdentityAsRndUser("fo-2");
+		Forum forum = forumManager.addAForum();
+		dbInstance.commit();
+		
+		Message thread = forumManager.createMessage(forum, id1, false);
+		thread.setTitle("Counters of threads");
+		thread.setBody("Counters of threads");
+		thread = forumManager.addTopMessage(thread);
+		forumManager.markNewMessageAsRead(id1, forum, thread);
+		dbInstance.commit();
+
+		Message reply1 = forumManager.createMessage(forum, id2, false);
+		reply1.setTitle("Re: Counters of threads");
+		reply1.setBody("Counters of threads");
+		reply1 = forumManager.replyToMessage(reply1, thread);
+		dbInstance.commit();
+		
+		Message reply2 = forumManager.createMessage(forum, id2, false);
+		reply2.setTitle("Re: Re: Counters of threads");
+		reply2.setBody("Counters of threads");
+		reply2 = forumManager.replyToMessage(reply2, reply1);
+		dbInstance.commitAndCloseSession();
+		
+		forumManager.markAsRead(id1, forum, reply1);
+		forumManager.markAsRead(id1, forum, reply1);// twice
+		dbInstance.commitAndCloseSession();
+		
+		ForumThread forumThread = forumManager.getForumThreads(forum, id1).get(0);
+		Assert.assertEquals(3, forumThread.getNumOfPosts());
+		Assert.assertEquals(1, forumThread.getNewMessages());
+		Assert.assertEquals(2, forumManager.countReadMessagesByUserAndForum(id1, forum.getKey()));
+		
+		// delete the read reply and its child
+		forumManager.deleteMessageTree(forum.getKey(), forumManager.getMessageById(reply1.getKey()));
+		dbInstance.commitAndCloseSession();
+		
+		ForumThread reloadedThread = forumManager.getForumThreads(forum, id1).get(0);
+		Assert.assertEquals(1, reloadedThread.getNumOfPosts());
+		Assert.assertEquals(0, reloadedThread.getNewMessages());
+		Set<Long> readSet = forumManager.getReadSet(id1, forum);
+		Assert.assertEquals(1, readSet.size());
+		Assert.assertTrue(readSet.contains(thread.getKey()));
 	}
 	
 	@Test
@@ -1210,6 +1261,58 @@ public class ForumManagerTest extends OlatTestCase {
 		Assert.assertEquals(messageToSplit, reloadedMessageToSplit_2.getThreadtop());
 		Assert.assertEquals(messageToSplit, reloadedMessageToSplit_2.getParent());
 	}
+	
+	@Test
+	public void splitMessage_countersAndReadMessages() {
+		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("fo-1");
+		Identity id2 = JunitTestHelper.createAndPersistIdentityAsRndUser("fo-2");
+		Forum fo = forumManager.addAForum();
+		dbInstance.commit();
+		
+		Message topMessage = forumManager.createMessage(fo, id1, false);
+		topMessage.setTitle("Thread split counters");
+		topMessage.setBody("Thread split counters");
+		topMessage = forumManager.addTopMessage(topMessage);
+		dbInstance.commit();
+
+		Message messageToSplit = forumManager.createMessage(fo, id2, false);
+		messageToSplit.setTitle("Message to split");
+		messageToSplit.setBody("Thread split counters");
+		messageToSplit = forumManager.replyToMessage(messageToSplit, topMessage);
+		dbInstance.commit();
+		
+		Message messageToSplit_1 = forumManager.createMessage(fo, id2, false);
+		messageToSplit_1.setTitle("Re: Message to split");
+		messageToSplit_1.setBody("Thread split counters");
+		messageToSplit_1 = forumManager.replyToMessage(messageToSplit_1, messageToSplit);
+		dbInstance.commitAndCloseSession();
+		
+		forumManager.markAsRead(id1, fo, topMessage);
+		forumManager.markAsRead(id1, fo, messageToSplit_1);
+		dbInstance.commitAndCloseSession();
+		
+		Message splitedMessage = forumManager.splitThread(forumManager.getMessageById(messageToSplit.getKey()));
+		dbInstance.commitAndCloseSession();
+		
+		List<ForumThread> forumThreads = forumManager.getForumThreads(fo, id1);
+		Assert.assertEquals(2, forumThreads.size());
+		for(ForumThread forumThread:forumThreads) {
+			if(forumThread.getKey().equals(topMessage.getKey())) {
+				Assert.assertEquals(1, forumThread.getNumOfPosts());
+				Assert.assertEquals(0, forumThread.getNewMessages());
+			} else if(forumThread.getKey().equals(splitedMessage.getKey())) {
+				Assert.assertEquals(2, forumThread.getNumOfPosts());
+				Assert.assertEquals(1, forumThread.getNewMessages());
+			} else {
+				Assert.fail("Unexpected thread");
+			}
+		}
+		
+		Set<Long> readSet = forumManager.getReadSet(id1, fo);
+		Assert.assertEquals(2, readSet.size());
+		Assert.assertTrue(readSet.contains(topMessage.getKey()));
+		Assert.assertTrue(readSet.contains(messageToSplit_1.getKey()));
+	}
 
 	/**
 	 * The test doesn't test directly the method but check
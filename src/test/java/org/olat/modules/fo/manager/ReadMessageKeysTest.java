@@ -0,0 +1,64 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.fo.manager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ReadMessageKeysTest {
+	
+	@Test
+	public void encodeDecode() {
+		List<Long> keys = List.of(Long.valueOf(360001l), Long.valueOf(360035l), Long.valueOf(360002l), Long.valueOf(1250000l));
+		String encoded = ReadMessageKeys.encode(keys);
+		Assert.assertEquals("7ps1,1,x,j2p9", encoded);
+		
+		SortedSet<Long> decoded = ReadMessageKeys.decode(encoded);
+		Assert.assertEquals(4, decoded.size());
+		Assert.assertTrue(decoded.containsAll(keys));
+		Assert.assertEquals(Long.valueOf(360001l), decoded.first());
+		Assert.assertEquals(Long.valueOf(1250000l), decoded.last());
+	}
+	
+	@Test
+	public void encodeDuplicates() {
+		String encoded = ReadMessageKeys.encode(List.of(Long.valueOf(12l), Long.valueOf(12l), Long.valueOf(14l)));
+		Assert.assertEquals("c,2", encoded);
+		Assert.assertEquals(Set.of(Long.valueOf(12l), Long.valueOf(14l)), ReadMessageKeys.decode(encoded));
+	}
+	
+	@Test
+	public void encodeDecodeEmpty() {
+		Assert.assertNull(ReadMessageKeys.encode(null));
+		Assert.assertNull(ReadMessageKeys.encode(List.of()));
+		Assert.assertTrue(ReadMessageKeys.decode(null).isEmpty());
+		Assert.assertTrue(ReadMessageKeys.decode("").isEmpty());
+	}
+}
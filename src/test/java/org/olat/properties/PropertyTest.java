@@ -121,6 +121,26 @@ public class PropertyTest extends OlatTestCase {
 		Assert.assertEquals(p, props.get(0));
 	}
 	
+	@Test
+	public void findPropertiesByLongValue() {
+		OLATResource ores = JunitTestHelper.createRandomResource();
+		Long longValue = Long.valueOf(Math.abs(UUID.randomUUID().getMostSignificantBits()));
+		Property p = pm.createPropertyInstance(null, null, ores, "catlongvalue", "TestProperty", null, longValue, null, null);
+		pm.saveProperty(p);
+		dbInstance.commitAndCloseSession();
+		
+		List<Property> props = pm.findPropertiesByLongValue("catlongvalue", "TestProperty", longValue);
+		Assert.assertEquals(1, props.size());
+		Assert.assertEquals(p, props.get(0));
+		Assert.assertEquals(ores.getResourceableId(), props.get(0).getResourceTypeId());
+		
+		List<Property> anyCategoryProps = pm.findPropertiesByLongValue(null, "TestProperty", longValue);
+		Assert.assertEquals(1, anyCategoryProps.size());
+		
+		List<Property> otherProps = pm.findPropertiesByLongValue(null, "TestProperty", Long.valueOf(longValue.longValue() + 1));
+		Assert.assertTrue(otherProps.isEmpty());
+	}
+	
 	@Test
 	public void testFindWithIdentityList() {
 		//create identities, resource and properties
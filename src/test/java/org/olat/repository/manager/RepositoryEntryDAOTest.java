@@ -416,6 +416,28 @@ public class RepositoryEntryDAOTest extends OlatTestCase {
 		Assert.assertEquals(1, oneEntry.size());
 	}
 	
+	@Test
+	public void loadRepositoryEntryKeys() {
+		// insert test data
+		Organisation defOrganisation = organisationService.getDefaultOrganisation();
+		RepositoryEntry re1 = repositoryService.create(null, "Rei Ayanami", "-", "Repository entry DAO Test keys 1", "", null,
+				RepositoryEntryStatusEnum.published, defOrganisation);
+		RepositoryEntry re2 = repositoryService.create(null, "Rei Ayanami", "-", "Repository entry DAO Test keys 2", "", null,
+				RepositoryEntryStatusEnum.published, defOrganisation);
+		dbInstance.commitAndCloseSession();
+
+		List<Long> keys = repositoryEntryDao.loadRepositoryEntryKeys(re1.getKey(), null);
+		Assert.assertTrue(keys.contains(re1.getKey()));
+		Assert.assertTrue(keys.contains(re2.getKey()));
+		
+		List<Long> firstKeys = repositoryEntryDao.loadRepositoryEntryKeys(re1.getKey(), re2.getKey());
+		Assert.assertTrue(firstKeys.contains(re1.getKey()));
+		Assert.assertFalse(firstKeys.contains(re2.getKey()));
+		
+		List<Long> allKeys = repositoryEntryDao.loadRepositoryEntryKeys(null, null);
+		Assert.assertTrue(allKeys.containsAll(keys));
+	}
+	
 	@Test
 	public void getLastUsedRepositoryEntries() {
 		// insert test data
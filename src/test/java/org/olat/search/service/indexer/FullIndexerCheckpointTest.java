@@ -0,0 +1,149 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class FullIndexerCheckpointTest {
+	
+	@Test
+	public void saveAndLoad() throws Exception {
+		File tempIndexDir = Files.createTempDirectory("checkpoint").toFile();
+		try {
+			List<IndexPartition> partitions = new ArrayList<>();
+			partitions.add(new IndexPartition(0, "org.olat.group.BusinessGroup", null, null));
+			partitions.add(new IndexPartition(1, "RepositoryEntry", 1l, 250l));
+			partitions.add(new IndexPartition(2, "RepositoryEntry", 250l, null));
+			FullIndexerCheckpoint checkpoint = FullIndexerCheckpoint.create(tempIndexDir, partitions);
+			
+			partitions.get(1).setStatus(IndexPartition.STATUS_DONE);
+			checkpoint.save();
+			
+			FullIndexerCheckpoint reloaded = FullIndexerCheckpoint.load(tempIndexDir, 60000l);
+			Assert.assertNotNull(reloaded);
+			Assert.assertEquals(checkpoint.getCreated(), reloaded.getCreated());
+			Assert.assertEquals(3, reloaded.getPartitions().size());
+			
+			IndexPartition groupPartition = reloaded.getPartitions().get(0);
+			Assert.assertEquals("org.olat.group.BusinessGroup", groupPartition.getIndexerType());
+			Assert.assertFalse(groupPartition.isRange());
+			Assert.assertFalse(groupPartition.isDone());
+			
+			IndexPartition donePartition = reloaded.getPartitions().get(1);
+			Assert.assertEquals(Long.valueOf(1l), donePartition.getFromKey());
+			Assert.assertEquals(Long.valueOf(250l), donePartition.getToKey());
+			Assert.assertTrue(donePartition.isDone());
+			
+			IndexPartition lastPartition = reloaded.getPartitions().get(2);
+			Assert.assertEquals(Long.valueOf(250l), lastPartition.getFromKey());
+			Assert.assertNull(lastPartition.getToKey());
+			Assert.assertFalse(lastPartition.isDone());
+		} finally {
+			FileUtils.deleteQuietly(tempIndexDir);
+		}
+	}
+	
+	@Test
+	public void failedPartitionResumed() throws Exception {
+		File tempIndexDir = Files.createTempDirectory("checkpoint").toFile();
+		try {
+			List<IndexPartition> partitions = new ArrayList<>();
+			partitions.add(new IndexPartition(0, "RepositoryEntry", 1l, 250l));
+			partitions.add(new IndexPartition(1, "RepositoryEntry", 250l, null));
+			FullIndexerCheckpoint checkpoint = FullIndexerCheckpoint.create(tempIndexDir, partitions);
+			
+			partitions.get(0).setStatus(IndexPartition.STATUS_DONE);
+			partitions.get(1).setStatus(IndexPartition.STATUS_FAILED);
+			Assert.assertTrue(partitions.get(1).isFailed());
+			Assert.assertFalse(partitions.get(1).isDone());
+			checkpoint.save();
+			
+			// the failed partition is indexed again after a resume
+			FullIndexerCheckpoint reloaded = FullIndexerCheckpoint.load(tempIndexDir, 60000l);
+			Assert.assertNotNull(reloaded);
+			Assert.assertTrue(reloaded.getPartitions().get(0).isDone());
+			Assert.assertFalse(reloaded.getPartitions().get(1).isDone());
+			Assert.assertFalse(reloaded.getPartitions().get(1).isFailed());
+		} finally {
+			FileUtils.deleteQuietly(tempIndexDir);
+		}
+	}
+	
+	@Test
+	public void awaitFailedTasks() throws Exception {
+		IndexPartition partition = new IndexPartition(0, "RepositoryEntry", 1l, 250l);
+		partition.addTask(CompletableFuture.completedFuture(Boolean.TRUE));
+		CompletableFuture<Boolean> failedTask = new CompletableFuture<>();
+		failedTask.completeExceptionally(new IllegalStateException("Indexer failed"));
+		partition.addTask(failedTask);
+		
+		Assert.assertEquals(1, partition.awaitTasks());
+		// the tasks are cleared
+		Assert.assertEquals(0, partition.awaitTasks());
+	}
+	
+	@Test
+	public void loadTooOld() throws Exception {
+		File tempIndexDir = Files.createTempDirectory("checkpoint").toFile();
+		try {
+			List<IndexPartition> partitions = new ArrayList<>();
+			partitions.add(new IndexPartition(0, "RepositoryEntry", null, null));
+			FullIndexerCheckpoint.create(tempIndexDir, partitions);
+			Thread.sleep(10);
+			
+			FullIndexerCheckpoint reloaded = FullIndexerCheckpoint.load(tempIndexDir, 1l);
+			Assert.assertNull(reloaded);
+		} finally {
+			FileUtils.deleteQuietly(tempIndexDir);
+		}
+	}
+	
+	@Test
+	public void delete() throws Exception {
+		File tempIndexDir = Files.createTempDirectory("checkpoint").toFile();
+		try {
+			List<IndexPartition> partitions = new ArrayList<>();
+			partitions.add(new IndexPartition(0, "RepositoryEntry", null, null));
+			FullIndexerCheckpoint checkpoint = FullIndexerCheckpoint.create(tempIndexDir, partitions);
+			File partitionDir = checkpoint.getPartitionDirectory(partitions.get(0));
+			Assert.assertTrue(partitionDir.mkdirs());
+			
+			checkpoint.delete();
+			Assert.assertNull(FullIndexerCheckpoint.load(tempIndexDir, 60000l));
+			Assert.assertFalse(partitionDir.exists());
+		} finally {
+			FileUtils.deleteQuietly(tempIndexDir);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.search.SearchModule;
+import org.olat.search.service.document.ForumMessageDocument;
+import org.olat.search.service.document.file.FileDocument;
+import org.olat.search.service.indexer.IncrementalIndexer.IndexChange;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class IncrementalIndexerTest {
+	
+	@Test
+	public void debounce() {
+		IncrementalIndexer indexer = createIndexer(1000l, 5000l);
+		indexer.indexChanged(FileDocument.TYPE, Arrays.asList(1l, 2l), 10000l);
+		indexer.indexChanged(FileDocument.TYPE, Collections.singletonList(1l), 10500l);
+		Assert.assertEquals(2, indexer.getNumOfPendingChanges());
+		
+		Assert.assertTrue(indexer.pollReadyChanges(10900l).isEmpty());
+		
+		List<IndexChange> readyChanges = indexer.pollReadyChanges(11000l);
+		Assert.assertEquals(1, readyChanges.size());
+		Assert.assertEquals(new IndexChange(FileDocument.TYPE, 2l), readyChanges.get(0));
+		
+		List<IndexChange> lastChanges = indexer.pollReadyChanges(11500l);
+		Assert.assertEquals(1, lastChanges.size());
+		Assert.assertEquals(new IndexChange(FileDocument.TYPE, 1l), lastChanges.get(0));
+		Assert.assertEquals(0, indexer.getNumOfPendingChanges());
+	}
+	
+	@Test
+	public void maxDelay() {
+		IncrementalIndexer indexer = createIndexer(1000l, 3000l);
+		for(long time=10000l; time<=13000l; time+=500l) {
+			indexer.indexChanged(ForumMessageDocument.TYPE, Collections.singletonList(7l), time);
+		}
+		// changed continuously, but waits since the max. delay
+		List<IndexChange> readyChanges = indexer.pollReadyChanges(13000l);
+		Assert.assertEquals(1, readyChanges.size());
+		Assert.assertEquals(7l, indexer.getNumOfChanges());
+	}
+	
+	@Test
+	public void unsupportedType() {
+		IncrementalIndexer indexer = createIndexer(1000l, 5000l);
+		indexer.indexChanged("type.unkown", Collections.singletonList(1l), 10000l);
+		indexer.indexChanged(IncrementalIndexer.TYPE_RESOURCE + "FileResource.WIKI", Collections.singletonList(2l), 10000l);
+		Assert.assertEquals(1, indexer.getNumOfPendingChanges());
+	}
+	
+	@Test
+	public void parseKey() {
+		Assert.assertEquals(Long.valueOf(1234l), IncrementalIndexer.parseKey("course/1234/coursefolder", "course/"));
+		Assert.assertEquals(Long.valueOf(56l), IncrementalIndexer.parseKey("cts/folders/BusinessGroup/56", "cts/folders/BusinessGroup/"));
+		Assert.assertNull(IncrementalIndexer.parseKey("course/export/", "course/"));
+	}
+	
+	private IncrementalIndexer createIndexer(long debounce, long maxDelay) {
+		SearchModule searchModule = mock(SearchModule.class);
+		when(searchModule.getIncrementalDebounce()).thenReturn(debounce);
+		when(searchModule.getIncrementalMaxDelay()).thenReturn(maxDelay);
+		return new IncrementalIndexer(searchModule, null, null);
+	}
+}
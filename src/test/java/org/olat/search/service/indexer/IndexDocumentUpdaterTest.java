@@ -0,0 +1,63 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class IndexDocumentUpdaterTest {
+	
+	@Test
+	public void getFilePath() {
+		Assert.assertEquals("/sub/file.pdf", IndexDocumentUpdater.getFilePath("[RepositoryEntry:1][CourseNode:2][path=/sub/file.pdf]"));
+		Assert.assertNull(IndexDocumentUpdater.getFilePath("[RepositoryEntry:1][CourseNode:2]"));
+	}
+	
+	@Test
+	public void isPathOf() {
+		Assert.assertTrue(IndexDocumentUpdater.isPathOf("/sub/file.pdf", "course/1234/foldernodes/2/sub/file.pdf"));
+		Assert.assertTrue(IndexDocumentUpdater.isPathOf("file.pdf", "/course/1234/foldernodes/2/file.pdf"));
+		Assert.assertFalse(IndexDocumentUpdater.isPathOf("/other/file.pdf", "course/1234/foldernodes/2/sub/file.pdf"));
+		Assert.assertFalse(IndexDocumentUpdater.isPathOf("/", "course/1234/foldernodes/2/file.pdf"));
+		Assert.assertFalse(IndexDocumentUpdater.isPathOf(null, "course/1234/foldernodes/2/file.pdf"));
+	}
+	
+	@Test
+	public void replaceSuffix() {
+		Assert.assertEquals("[RepositoryEntry:1][CourseNode:2][Message:34]",
+				IndexDocumentUpdater.replaceSuffix("[RepositoryEntry:1][CourseNode:2][Message:12]",
+						IndexDocumentUpdater.messageSuffix(12l), IndexDocumentUpdater.messageSuffix(34l)));
+		Assert.assertEquals("[BusinessGroup:5][path=/sub/new.txt]",
+				IndexDocumentUpdater.replaceSuffix("[BusinessGroup:5][path=/sub/old.txt]", "old.txt]", "new.txt]"));
+		Assert.assertNull(IndexDocumentUpdater.replaceSuffix("[BusinessGroup:5][path=/sub/old.txt]", "other.txt]", "new.txt]"));
+	}
+	
+	@Test
+	public void escapeWildcard() {
+		Assert.assertEquals("[path=/what\\?\\*.txt]", IndexDocumentUpdater.escapeWildcard("[path=/what?*.txt]"));
+		Assert.assertEquals("a\\\\b", IndexDocumentUpdater.escapeWildcard("a\\b"));
+	}
+}
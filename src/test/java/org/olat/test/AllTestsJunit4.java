@@ -45,6 +45,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	org.olat.core.util.i18n.I18nTest.class,
 	// org.olat.core.util.mail.MailTest.class, // redisabled since mails are sent despite the fact that the whitelist is enabled
+	org.olat.core.gui.components.DirtyComponentsTest.class,
 	org.olat.core.gui.components.table.MultiSelectColumnDescriptorTest.class,
 	org.olat.core.gui.components.table.TableEventTest.class,
 	org.olat.core.gui.components.table.TableMultiSelectEventTest.class,
@@ -65,6 +66,7 @@ import org.junit.runners.Suite;
 	org.olat.modules.iq.DBPersistentLockManagerTest.class,
 	org.olat.core.util.StringHelperTest.class,
 	org.olat.core.util.FileUtilsTest.class,
+	org.olat.core.util.io.ParallelZipOutputStreamTest.class,
 	org.olat.core.util.FileNameSuffixFilterTest.class,
 	org.olat.core.util.FormatterTest.class,
 	org.olat.core.util.FormatLatexFormulasTest.class,
@@ -74,8 +76,10 @@ import org.junit.runners.Suite;
 	org.olat.core.util.IPUtilsTest.class,
 	org.olat.core.util.IPUtilsValidRangeTest.class,
 	org.olat.core.util.ZipUtilConcatTest.class,
+	org.olat.core.logging.activity.UserActivityLogWriterTest.class,
 	org.olat.core.util.mail.EmailAddressValidatorTest.class,
 	org.olat.core.util.mail.manager.MailManagerTest.class,
+	org.olat.core.util.mail.manager.MailOutboxDispatcherTest.class,
 	org.olat.core.util.mail.manager.MailUserDataManagerTest.class,
 	org.olat.core.util.openxml.OpenXmlWorkbookTest.class,
 	org.olat.core.util.openxml.OpenXMLDocumentTest.class,
@@ -86,6 +90,8 @@ import org.junit.runners.Suite;
 	org.olat.core.id.context.HistoryManagerTest.class,
 	org.olat.core.id.IdentityEnvironmentTest.class,
 	org.olat.core.gui.render.VelocityTemplateTest.class,
+	org.olat.core.gui.render.StringOutputPoolTest.class,
+	org.olat.core.gui.media.ServletUtilTest.class,
 	org.olat.core.gui.control.generic.iframe.IFrameDeliveryMapperTest.class,
 	org.olat.note.NoteTest.class,
 	org.olat.user.UserTest.class,
@@ -96,16 +102,21 @@ import org.junit.runners.Suite;
 	org.olat.commons.calendar.manager.ImportedToCalendarDAOTest.class,
 	org.olat.commons.calendar.manager.ICalFileCalendarManagerTest.class,
 	org.olat.commons.calendar.manager.CalendarUserConfigurationDAOTest.class,
+	org.olat.commons.calendar.manager.CalendarEventDAOTest.class,
 	org.olat.commons.lifecycle.LifeCycleManagerTest.class,
 	org.olat.commons.coordinate.cluster.jms.JMSTest.class,
+	org.olat.commons.coordinate.cluster.jms.ClusterEventBatchTest.class,
 	org.olat.commons.coordinate.cluster.lock.LockTest.class,
 	org.olat.commons.coordinate.CoordinatorTest.class,
+	org.olat.commons.coordinate.singlevm.LocalLeaseLockerTest.class,
 	org.olat.core.commons.services.csp.manager.CSPManagerTest.class,
+	org.olat.core.commons.services.prewarm.manager.PreWarmManagerTest.class,
 	org.olat.core.commons.services.doceditor.manager.DocEditorIdentityServiceTest.class,
 	org.olat.core.commons.services.doceditor.manager.AccessDAOTest.class,
 	org.olat.core.commons.services.doceditor.onlyoffice.restapi.OnlyOfficeWebServiceTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSXStreamTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSMetadataDAOTest.class,
+	org.olat.core.commons.services.vfs.manager.VFSMetadataUpdaterTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSRevisionDAOTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSStatsDAOTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSThumbnailDAOTest.class,
@@ -204,12 +215,14 @@ import org.junit.runners.Suite;
 	org.olat.course.statistic.DayOfWeekStatisticUpdateManagerTest.class,
 	org.olat.course.statistic.HourOfDayStatisticUpdateManagerTest.class,
 	// org.olat.course.statistic.WeeklyStatisticUpdateManagerTest.class,
+	org.olat.course.statistic.StatisticDeltaTest.class,
 	org.olat.modules.assessment.manager.AssessmentEntryDAOTest.class,
 	org.olat.course.certificate.manager.CertificatesManagerTest.class,
 	org.olat.course.config.CourseConfigManagerImplTest.class,
 	org.olat.course.groupsandrights.CourseGroupManagementTest.class,
 	org.olat.course.editor.PublishProcessTest.class,
 	org.olat.course.CourseXStreamAliasesTest.class,
+	org.olat.course.CourseStructureSnapshotTest.class,
 	org.olat.course.wizard.CourseWizardServiceTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectProviderTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectUserDAOTest.class,
@@ -240,6 +253,7 @@ import org.junit.runners.Suite;
 	org.olat.modules.wiki.versioning.diff.CookbookDiffTest.class,
 	org.olat.modules.wiki.gui.components.wikiToHtml.FilterUtilTest.class,
 	org.olat.modules.coach.manager.CoachingDAOTest.class,
+	org.olat.modules.coach.manager.CoachingStatisticsManagerTest.class,
 	org.olat.modules.coach.CoachingLargeTest.class,
 	org.olat.modules.curriculum.manager.CurriculumDAOTest.class,
 	org.olat.modules.curriculum.manager.CurriculumMemberQueriesTest.class,
@@ -357,6 +371,9 @@ import org.junit.runners.Suite;
 	org.olat.properties.PropertyTest.class,
 	org.olat.search.service.document.file.FileDocumentFactoryTest.class,
 	org.olat.search.service.indexer.repository.course.SPCourseNodeIndexerTest.class,
+	org.olat.search.service.indexer.FullIndexerCheckpointTest.class,
+	org.olat.search.service.indexer.IncrementalIndexerTest.class,
+	org.olat.search.service.indexer.IndexDocumentUpdaterTest.class,
 	org.olat.search.service.document.file.HtmlDocumentTest.class,
 	org.olat.search.service.document.file.PDFDocumentTest.class,
 	org.olat.search.service.document.file.OfficeDocumentTest.class,
@@ -378,6 +395,8 @@ import org.junit.runners.Suite;
 	org.olat.ims.qti21.manager.AssessmentItemSessionDAOTest.class,
 	org.olat.ims.qti21.manager.AssessmentResponseDAOTest.class,
 	org.olat.ims.qti21.manager.CorrectResponsesUtilTest.class,
+	org.olat.ims.qti21.manager.TestSessionStateJournalTest.class,
+	org.olat.ims.qti21.manager.audit.AssessmentSessionAuditFileLogTest.class,
 	org.olat.ims.qti21.model.xml.AssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.MultipleChoiceAssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.SingleChoiceAssessmentItemBuilderTest.class,
@@ -425,6 +444,7 @@ import org.junit.runners.Suite;
 	org.olat.login.oauth.OAuthDispatcherTest.class,
 	org.olat.ldap.LDAPLoginTest.class,
 	org.olat.ldap.manager.LDAPLoginManagerTest.class,
+	org.olat.ldap.model.LDAPSyncMarkTest.class,
 	org.olat.core.commons.services.mark.MarksTest.class,
 	org.olat.test.SpringInitDestroyVerficationTest.class,
 	//org.olat.course.statistic.weekly.TestWeeklyStatisticManager_fillGaps.class, don't know what it tests
@@ -441,6 +461,7 @@ import org.junit.runners.Suite;
 	org.olat.core.commons.services.tagging.TaggingManagerTest.class,
 	org.olat.core.dispatcher.mapper.MapperDAOTest.class,
 	org.olat.core.dispatcher.mapper.MapperServiceTest.class,
+	org.olat.core.dispatcher.mapper.SignedMapperTokenTest.class,
 	org.olat.restapi.AuthenticationTest.class,
 	org.olat.restapi.BigBlueButtonStatsWebServiceTest.class,
 	org.olat.restapi.BigBlueButtonServerWebServiceTest.class,
@@ -545,6 +566,7 @@ import org.junit.runners.Suite;
 	org.olat.course.nodes.st.assessment.STRootPassedEvaluatorTest.class,
 	org.olat.course.nodes.st.assessment.STLearningPathStatusEvaluatorTest.class,
 	org.olat.course.run.scoring.AverageCompletionEvaluatorTest.class,
+	org.olat.course.run.scoring.RecordingBlockerTest.class,
 	org.olat.course.run.userview.UserCourseEnvironmentImplTest.class,
 	org.olat.login.validation.PasswordSyntaxValidatorTest.class,
 	org.olat.login.validation.PasswordValidationRuleFactoryTest.class,
@@ -554,6 +576,7 @@ import org.junit.runners.Suite;
 	org.olat.modules.edusharing.manager.EdusharingHtmlServiceImplTest.class,
 	org.olat.modules.edusharing.manager.EdusharingSecurityImplTest.class,
 	org.olat.modules.fo.WordCountTest.class,
+	org.olat.modules.fo.manager.ReadMessageKeysTest.class,
 	org.olat.modules.forms.manager.EvaluationFormMangerImplTest.class,
 	org.olat.modules.forms.manager.RubricStatisticCalculatorTest.class,
 	org.olat.modules.forms.model.xml.ScaleTypeTest.class,